@@ -2,9 +2,13 @@ package controller.network;
 
 import com.esotericsoftware.kryonet.Client;
 import com.esotericsoftware.kryonet.Connection;
+import controller.network.protocol.PacketAudioCodec;
 import model.user.IUserManagerController;
 import org.jetbrains.annotations.NotNull;
+import utils.AudioCodec;
+import utils.ContentStore;
 import view.ViewControllerInterface;
+import java.io.File;
 import java.io.IOException;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
@@ -17,14 +21,23 @@ public class ClientNetworkManager extends NetworkManager<Client> implements Runn
 
     private static final Logger LOGGER = Logger.getLogger("chati.network");
 
+    /** Maximale Größe der lokal zwischengespeicherten Bildanhänge in Bytes. */
+    private static final long IMAGE_CACHE_CAPACITY = 64L << 20;
+
     private final IUserManagerController userManager;
     private ViewControllerInterface view;
+    private ImageDownloader imageDownloader;
 
     private ServerConnection connection;
     private Thread networkThread;
 
     public ClientNetworkManager(@NotNull final IUserManagerController userManager) {
-        super(new Client(BUFFER_SIZE, BUFFER_SIZE));
+        this(userManager, new PacketSerialization());
+    }
+
+    private ClientNetworkManager(@NotNull final IUserManagerController userManager,
+                                 @NotNull final PacketSerialization serialization) {
+        super(new Client(BUFFER_SIZE, BUFFER_SIZE, serialization), serialization);
 
         this.userManager = userManager;
     }
@@ -37,6 +50,9 @@ public class ClientNetworkManager extends NetworkManager<Client> implements Runn
             this.connection = new ServerConnection(this);
             this.endPoint.addListener(this.connection);
             this.view.setSender(this.connection);
+
+            // Handle das Verfahren zur Kodierung der Sprachdaten für diese Verbindung aus.
+            this.connection.send(new PacketAudioCodec(AudioCodec.values()));
         }
     }
 
@@ -48,6 +64,10 @@ public class ClientNetworkManager extends NetworkManager<Client> implements Runn
             this.view.setSender(null);
             this.endPoint.removeListener(this.connection);
             this.connection = null;
+
+            if (this.imageDownloader != null) {
+                this.imageDownloader.cancel();
+            }
         }
     }
 
@@ -71,6 +91,21 @@ public class ClientNetworkManager extends NetworkManager<Client> implements Runn
         return this.view;
     }
 
+    /**
+     * Gibt die Instanz zum Laden der Bildanhänge von Chat-Nachrichten zurück. Der lokale Zwischenspeicher wird erst
+     * beim ersten angeforderten Bildanhang angelegt.
+     * @return die ImageDownloader-Instanz.
+     */
+    public synchronized @NotNull ImageDownloader getImageDownloader() {
+        if (this.imageDownloader == null) {
+            final File directory = new File(new File(System.getProperty("user.home"), "Chati"), "images");
+
+            this.imageDownloader = new ImageDownloader(new ContentStore(directory, IMAGE_CACHE_CAPACITY));
+        }
+
+        return this.imageDownloader;
+    }
+
     /**
      * Setzt die Instanz auf die View.
      * @param view die zu setzende ViewControllerInterface-Instanz.
@@ -0,0 +1,198 @@
+package controller.network;
+
+import controller.network.protocol.Packet;
+import controller.network.protocol.PacketImageChunk;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import utils.ContentStore;
+import utils.ImageUtils;
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Eine Klasse, welche die Bildanhänge von Chat-Nachrichten bei Bedarf vom Server lädt und lokal zwischenspeichert.
+ * <p>
+ *     Chat-Nachrichten enthalten nur den Hashwert und ein Vorschaubild ihres Bildanhangs. Wird der Bildanhang
+ *     angefordert, so wird er aus dem lokalen Zwischenspeicher gelesen oder abschnittsweise vom Server geladen. Dabei
+ *     sind höchstens {@link #WINDOW} Abschnitte gleichzeitig angefordert, sodass ein großer Bildanhang die Verbindung
+ *     nicht für andere Pakete blockiert. Vollständig geladene Bildanhänge werden anhand ihres Hashwerts überprüft.
+ * </p>
+ */
+public class ImageDownloader {
+
+    private static final Logger LOGGER = Logger.getLogger("chati.network");
+
+    /** Maximale Anzahl an gleichzeitig angeforderten Abschnitten eines Bildanhangs. */
+    public static final int WINDOW = 4;
+
+    /** Der lokale Zwischenspeicher der bereits geladenen Bildanhänge. */
+    private final ContentStore cache;
+
+    /** Die aktuell ladenden Bildanhänge. */
+    private final Map<String, Download> downloads;
+
+    /**
+     * Erzeugt eine neue Instanz des ImageDownloader.
+     * @param cache Lokaler Zwischenspeicher der geladenen Bildanhänge.
+     */
+    public ImageDownloader(@NotNull final ContentStore cache) {
+        this.cache = cache;
+        this.downloads = new HashMap<>();
+    }
+
+    /**
+     * Fordert einen Bildanhang an.
+     * @param request Anfrage des ersten Abschnitts des Bildanhangs.
+     * @param sender Empfänger der an den Server zu sendenden Anfragen.
+     * @return Die Daten des Bildanhangs, falls dieser bereits zwischengespeichert ist, sonst null.
+     */
+    public synchronized @Nullable byte[] request(@NotNull final PacketImageChunk request,
+                                                 @NotNull final Consumer<Packet<?>> sender) {
+        final String hash = request.getHash();
+
+        if (hash == null || !ImageUtils.isHash(hash)) {
+            throw new IllegalArgumentException("Invalid image hash: " + hash);
+        }
+
+        try {
+            final byte[] imageData = this.cache.get(hash);
+
+            if (imageData != null) {
+                return imageData;
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Failed to read cached image " + hash, ex);
+        }
+
+        // Die Größe des Bildanhangs ist erst nach dem ersten Abschnitt bekannt.
+        if (!this.downloads.containsKey(hash)) {
+            this.downloads.put(hash, new Download());
+            sender.accept(request);
+        }
+
+        return null;
+    }
+
+    /**
+     * Verarbeitet einen vom Server erhaltenen Abschnitt eines Bildanhangs und fordert die nächsten Abschnitte an.
+     * @param chunk Erhaltener Abschnitt.
+     * @param sender Empfänger der an den Server zu sendenden Anfragen.
+     * @return Die Daten des Bildanhangs, falls dieser mit dem Abschnitt vollständig geladen wurde, sonst null.
+     */
+    public synchronized @Nullable byte[] receive(@NotNull final PacketImageChunk chunk,
+                                                 @NotNull final Consumer<Packet<?>> sender) {
+        final String hash = chunk.getHash();
+        final Download download = hash != null ? this.downloads.get(hash) : null;
+
+        if (download == null) {
+            LOGGER.fine("Received unrequested chunk of image " + hash);
+            return null;
+        }
+
+        if (chunk.getSize() < 0) {
+            LOGGER.warning("Requested image " + hash + " is not available on the server");
+            this.downloads.remove(hash);
+            return null;
+        }
+
+        if (!download.add(chunk)) {
+            LOGGER.warning("Received invalid chunk of image " + hash + ": " + chunk);
+            this.downloads.remove(hash);
+            return null;
+        }
+
+        while (download.pending < WINDOW && download.next < download.data.length) {
+            sender.accept(new PacketImageChunk(hash, download.next));
+            download.pending++;
+            download.next += ImageUtils.CHUNK_SIZE;
+        }
+
+        if (download.received < download.data.length) {
+            return null;
+        }
+
+        this.downloads.remove(hash);
+
+        if (!ImageUtils.hash(download.data).equals(hash)) {
+            LOGGER.warning("Received image does not match its hash " + hash);
+            return null;
+        }
+
+        try {
+            this.cache.put(download.data);
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Failed to cache image " + hash, ex);
+        }
+
+        return download.data;
+    }
+
+    /**
+     * Bricht alle ladenden Bildanhänge ab. Wird bei einem Verbindungsabbruch aufgerufen.
+     */
+    public synchronized void cancel() {
+        this.downloads.clear();
+    }
+
+    /**
+     * Gibt zurück, ob ein Bildanhang aktuell geladen wird.
+     * @param hash Hashwert des Bildanhangs.
+     * @return true, wenn der Bildanhang geladen wird, sonst false.
+     */
+    public synchronized boolean isLoading(@NotNull final String hash) {
+        return this.downloads.containsKey(hash);
+    }
+
+    /**
+     * Eine Klasse, welche den Zustand eines ladenden Bildanhangs repräsentiert.
+     */
+    private static class Download {
+
+        private final BitSet chunks;
+        private byte[] data;
+        private int received;
+        private int pending;
+        private int next;
+
+        public Download() {
+            this.chunks = new BitSet();
+            this.pending = 1;
+        }
+
+        /**
+         * Übernimmt die Daten eines erhaltenen Abschnitts.
+         * @param chunk Erhaltener Abschnitt.
+         * @return true, wenn der Abschnitt angefordert wurde und zum Bildanhang passt, sonst false.
+         */
+        public boolean add(@NotNull final PacketImageChunk chunk) {
+            if (this.data == null) {
+                if (chunk.getOffset() != 0 || chunk.getSize() > ImageUtils.MAX_IMAGE_SIZE) {
+                    return false;
+                }
+
+                this.data = new byte[chunk.getSize()];
+                this.next = ImageUtils.CHUNK_SIZE;
+            }
+
+            final int offset = chunk.getOffset();
+            final int index = offset / ImageUtils.CHUNK_SIZE;
+
+            if (chunk.getSize() != this.data.length || offset % ImageUtils.CHUNK_SIZE != 0 || offset >= this.next
+                    || this.chunks.get(index)
+                    || chunk.getData().length != Math.min(ImageUtils.CHUNK_SIZE, this.data.length - offset)) {
+                return false;
+            }
+
+            System.arraycopy(chunk.getData(), 0, this.data, offset, chunk.getData().length);
+            this.chunks.set(index);
+            this.received += chunk.getData().length;
+            this.pending--;
+            return true;
+        }
+    }
+}
@@ -2,15 +2,25 @@ package controller.network;
 
 import com.esotericsoftware.kryonet.Connection;
 import com.esotericsoftware.kryonet.Listener;
+import controller.network.protocol.AvatarStateCodec;
+import controller.network.protocol.ChunkReceiver;
+import controller.network.protocol.ChunkSender;
+import controller.network.protocol.ChunkSender.Priority;
 import controller.network.protocol.Packet;
+import controller.network.protocol.PacketAudioCodec;
 import controller.network.protocol.PacketAudioMessage;
 import controller.network.protocol.PacketAvatarMove;
 import controller.network.protocol.PacketAvatarMove.AvatarAction;
 import controller.network.protocol.PacketChatMessage;
+import controller.network.protocol.PacketChunk;
+import controller.network.protocol.PacketChunkCredit;
+import controller.network.protocol.PacketImageChunk;
 import controller.network.protocol.PacketListener;
 import controller.network.protocol.PacketListenerOut;
 import controller.network.protocol.PacketMenuOption;
 import controller.network.protocol.PacketNotificationResponse;
+import controller.network.protocol.PacketOutAvatarMoves;
+import controller.network.protocol.PacketOutAvatarMoves.AvatarMove;
 import controller.network.protocol.PacketOutCommunicable;
 import controller.network.protocol.PacketOutContextInfo;
 import controller.network.protocol.PacketOutContextJoin;
@@ -23,10 +33,12 @@ import controller.network.protocol.PacketOutNotification.Notification;
 import controller.network.protocol.PacketOutUserInfo;
 import controller.network.protocol.PacketOutUserInfo.UserInfo;
 import controller.network.protocol.PacketOutUserInfo.UserInfo.Flag;
+import controller.network.protocol.PacketOutWorldSnapshot;
 import controller.network.protocol.PacketProfileAction;
 import controller.network.protocol.PacketProfileAction.Action;
 import controller.network.protocol.PacketUserTyping;
 import controller.network.protocol.PacketVideoFrame;
+import controller.network.protocol.PacketVideoTileFrame;
 import controller.network.protocol.PacketWorldAction;
 import model.context.ContextID;
 import model.exception.ContextNotFoundException;
@@ -36,6 +48,7 @@ import model.user.IInternUserController;
 import model.user.IUserController;
 import model.user.Status;
 import org.jetbrains.annotations.NotNull;
+import utils.ImageUtils;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -51,13 +64,24 @@ public class ServerConnection extends Listener implements PacketListenerOut, Ser
 
     private static final Logger LOGGER = Logger.getLogger("chati.network");
 
+    /** Maximale Größe eines in Abschnitten empfangenen Pakets in Bytes. */
+    private static final int MAX_TRANSFER_SIZE = 1 << 24;
+
     private final ClientNetworkManager manager;
+    private final AvatarStateCodec avatarCodec;
+    private final ChunkSender sender;
+    private final ChunkReceiver receiver;
 
     private ContextID worldId;
     private UUID userId;
 
     public ServerConnection(@NotNull final ClientNetworkManager manager) {
         this.manager = manager;
+        this.avatarCodec = new AvatarStateCodec();
+        this.sender = new ChunkSender(manager.getCodec(), object -> manager.getEndPoint().sendTCP(object),
+                () -> manager.getEndPoint().isIdle());
+        this.receiver = new ChunkReceiver(manager.getCodec(), MAX_TRANSFER_SIZE,
+                packet -> manager.getEndPoint().sendTCP(packet));
     }
 
     public @NotNull IInternUserController getIntern() {
@@ -78,10 +102,14 @@ public class ServerConnection extends Listener implements PacketListenerOut, Ser
 
     public void send(@NotNull final Packet<?> packet) {
         if (this.manager.getEndPoint().isConnected()) {
-            if (packet instanceof PacketAudioMessage || packet instanceof PacketVideoFrame) {
+            if (packet instanceof PacketAudioMessage || packet instanceof PacketVideoFrame
+                    || packet instanceof PacketVideoTileFrame) {
                 this.manager.getEndPoint().sendUDP(packet);
-            } else {
+            } else if (packet instanceof PacketAvatarMove || packet instanceof PacketUserTyping) {
+                // Zeitkritische Pakete werden nie hinter wartenden Paketen eingereiht.
                 this.manager.getEndPoint().sendTCP(packet);
+            } else {
+                this.sender.send(packet, packet instanceof PacketImageChunk ? Priority.LOW : Priority.HIGH);
             }
 
             this.logPacket(packet, true);
@@ -90,7 +118,20 @@ public class ServerConnection extends Listener implements PacketListenerOut, Ser
 
     @Override
     public void send(@NotNull final SendAction action, @NotNull final Object... objects) {
-        this.send(action.getPacket(objects));
+        final Packet<?> packet = action.getPacket(objects);
+
+        if (action == SendAction.IMAGE) {
+            // Bereits geladene Bildanhänge werden direkt aus dem lokalen Zwischenspeicher übernommen.
+            final PacketImageChunk request = (PacketImageChunk) packet;
+            final byte[] imageData = this.manager.getImageDownloader().request(request, this::send);
+
+            if (imageData != null && request.getHash() != null) {
+                this.manager.getView().receiveImage(request.getHash(), imageData);
+            }
+            return;
+        }
+
+        this.send(packet);
     }
 
     @Override
@@ -116,6 +157,13 @@ public class ServerConnection extends Listener implements PacketListenerOut, Ser
         }
     }
 
+    @Override
+    public void idle(@NotNull final Connection connection) {
+        if (this.manager.getEndPoint().equals(connection)) {
+            this.sender.flush();
+        }
+    }
+
     @Override
     public void disconnected(@NotNull final Connection connection) {
         // Sollte niemals der Fall sein
@@ -138,6 +186,11 @@ public class ServerConnection extends Listener implements PacketListenerOut, Ser
 
     @Override
     public void handle(@NotNull final PacketAvatarMove packet) {
+        // Der Zustand des entfernten Avatars wird wie auf dem Server verworfen, bevor das Paket geprüft wird.
+        if (packet.getAction() == AvatarAction.REMOVE_AVATAR && packet.getUserId() != null) {
+            this.avatarCodec.remove(packet.getUserId());
+        }
+
         if (this.userId == null) {
             this.logUnexpectedPacket(packet, "Can not move avatar while user is not logged in");
             return;
@@ -177,6 +230,10 @@ public class ServerConnection extends Listener implements PacketListenerOut, Ser
                     case REMOVE_AVATAR:
                         user.leaveRoom();
                         break;
+
+                    case HIDE_AVATAR:
+                        user.discardLocation();
+                        break;
                 }
             } catch (UserNotFoundException ex) {
                 LOGGER.warning("Server tried to move unknown user with id: " + packet.getUserId());
@@ -199,12 +256,16 @@ public class ServerConnection extends Listener implements PacketListenerOut, Ser
                 return;
             }
 
-            if (packet.getSenderId() == null) {
-                this.manager.getView().receiveMusicFrame(packet.getTimestamp(), packet.getAudioData(),
-                        packet.getPosition(), packet.getSeconds());
+            if (packet.isMixed()) {
+                this.manager.getView().receiveMixedVoiceFrame(packet.getSequence(), packet.getTimestamp(),
+                        packet.getAudioData(), Arrays.asList(packet.getSpeakers()));
+            } else if (packet.getSenderId() == null) {
+                this.manager.getView().receiveMusicFrame(packet.getSequence(), packet.getTimestamp(),
+                        packet.getAudioData(), packet.getPosition(), packet.getSeconds());
             } else {
                 try {
-                    this.manager.getView().receiveVoiceFrame(packet.getSenderId(), packet.getTimestamp(), packet.getAudioData());
+                    this.manager.getView().receiveVoiceFrame(packet.getSenderId(), packet.getSequence(),
+                            packet.getTimestamp(), packet.getAudioData());
                 } catch (UserNotFoundException ex) {
                     // Unbekannter Sender.
                     LOGGER.warning("Server tried to send voice message from unknown sender with id: " + ex.getUserID());
@@ -251,13 +312,15 @@ public class ServerConnection extends Listener implements PacketListenerOut, Ser
                             return;
                         }
 
-                        if (packet.getImageData().length != 0 && packet.getImageName() == null) {
-                            this.logInvalidPacket(packet, "Image-Name can not be null if an image was sent");
+                        if (packet.getImageHash() != null && (packet.getImageName() == null
+                                || !ImageUtils.isHash(packet.getImageHash()))) {
+                            this.logInvalidPacket(packet, "Image-Name and valid Image-Hash required if an image was sent");
                             return;
                         }
 
                         this.manager.getView().receiveChatMessage(packet.getSenderId(), packet.getTimestamp(),
-                                packet.getMessageType(), packet.getMessage(), packet.getImageData(), packet.getImageName());
+                                packet.getMessageType(), packet.getMessage(), packet.getImageHash(),
+                                packet.getThumbnail(), packet.getImageName());
                         break;
 
                     case INFO:
@@ -278,6 +341,54 @@ public class ServerConnection extends Listener implements PacketListenerOut, Ser
         }
     }
 
+    @Override
+    public void handle(@NotNull final PacketImageChunk packet) {
+        if (this.userId == null) {
+            this.logUnexpectedPacket(packet, "Can not receive image while user is not logged in");
+            return;
+        }
+
+        if (!ImageUtils.isHash(packet.getHash())) {
+            this.logInvalidPacket(packet, "Image-Hash must be valid");
+            return;
+        }
+
+        final byte[] imageData = this.manager.getImageDownloader().receive(packet, this::send);
+
+        if (imageData != null) {
+            this.manager.getView().receiveImage(packet.getHash(), imageData);
+        }
+    }
+
+    @Override
+    public void handle(@NotNull final PacketChunk packet) {
+        final Packet<?> completed;
+
+        try {
+            completed = this.receiver.receive(packet);
+        } catch (IllegalArgumentException ex) {
+            // Der Server hält sich nicht an das Protokoll der Übertragung. Verbindung trennen.
+            this.logInvalidPacket(packet, ex.getMessage());
+            this.manager.getEndPoint().close();
+            return;
+        }
+
+        if (completed != null) {
+            // Das zusammengesetzte Paket wird wie ein direkt empfangenes Paket verarbeitet.
+            this.received(this.manager.getEndPoint(), completed);
+        }
+    }
+
+    @Override
+    public void handle(@NotNull final PacketChunkCredit packet) {
+        try {
+            this.sender.credit(packet.getCredit());
+        } catch (IllegalArgumentException ex) {
+            this.logInvalidPacket(packet, ex.getMessage());
+            this.manager.getEndPoint().close();
+        }
+    }
+
     @Override
     public void handle(@NotNull final PacketMenuOption packet) {
         if (this.userId == null) {
@@ -455,6 +566,47 @@ public class ServerConnection extends Listener implements PacketListenerOut, Ser
         }
     }
 
+    @Override
+    public void handle(@NotNull final PacketVideoTileFrame packet) {
+        if (this.userId == null) {
+            this.logUnexpectedPacket(packet, "Can not receive video frame while user is not logged in");
+            return;
+        }
+
+        if (this.worldId != null) {
+            if (packet.getTimestamp() == null) {
+                this.logInvalidPacket(packet, "Timestamp can not be null");
+                return;
+            }
+
+            if (packet.getSenderId() == null) {
+                this.logInvalidPacket(packet, "Sender User-ID can not be null");
+                return;
+            }
+
+            try {
+                this.manager.getView().receiveVideoTiles(packet.getSenderId(), packet.getTimestamp(),
+                        packet.isKeyframe(), packet.getSequence(), packet.getTiles(), packet.getTileData());
+            } catch (UserNotFoundException ex) {
+                // Unbekannter Sender.
+                LOGGER.warning("Server tried to send video frame from unknown sender with id: " + ex.getUserID());
+            }
+        } else {
+            this.logUnexpectedPacket(packet, "Can not receive video frame while user is not in a world");
+        }
+    }
+
+    @Override
+    public void handle(@NotNull final PacketAudioCodec packet) {
+        // Der Server sendet ausschließlich das für diese Verbindung gewählte Verfahren.
+        if (packet.getCodecs().length != 1) {
+            this.logInvalidPacket(packet, "Server must select exactly one voice codec");
+            return;
+        }
+
+        this.manager.getView().setVoiceCodec(packet.getCodecs()[0]);
+    }
+
     @Override
     public void handle(@NotNull final PacketWorldAction packet) {
         if (this.userId == null) {
@@ -584,6 +736,9 @@ public class ServerConnection extends Listener implements PacketListenerOut, Ser
 
     @Override
     public void handle(@NotNull final PacketOutContextJoin packet) {
+        // Die Zustände der Avatare werden wie auf dem Server beim Wechsel des Raums verworfen.
+        this.avatarCodec.reset();
+
         if (this.userId == null) {
             this.logUnexpectedPacket(packet, "Can not join context while user is not logged in");
             return;
@@ -789,14 +944,59 @@ public class ServerConnection extends Listener implements PacketListenerOut, Ser
         }
     }
 
-    private void logPacket(@NotNull final Packet<?> packet, final boolean sent) {
-        final Level level = (packet instanceof PacketAvatarMove && ((PacketAvatarMove) packet).getAction() == AvatarAction.MOVE_AVATAR)
-                || packet instanceof PacketAudioMessage || packet instanceof PacketVideoFrame ? Level.FINER : Level.FINE;
+    @Override
+    public void handle(@NotNull final PacketOutAvatarMoves packet) {
+        try {
+            // Die Zustände müssen unabhängig vom Zustand des Benutzers dekodiert werden, da sie aufeinander aufbauen.
+            packet.decode(this.avatarCodec);
+        } catch (IllegalArgumentException ex) {
+            this.logInvalidPacket(packet, ex.getMessage());
+            return;
+        }
+
+        if (this.userId == null) {
+            this.logUnexpectedPacket(packet, "Can not move avatars while user is not logged in");
+            return;
+        }
+
+        if (this.worldId != null) {
+            for (final AvatarMove move : packet.getMoves()) {
+                try {
+                    final IUserController user = this.getUser(move.getUserId());
+
+                    user.setMovable(move.isMovable());
+                    user.setLocation(move.getPosX(), move.getPosY(), false, move.isSprinting(), move.getDirection());
+                } catch (UserNotFoundException ex) {
+                    // Die Bewegungen der übrigen Avatare werden trotzdem verarbeitet.
+                    LOGGER.warning("Server tried to move unknown user with id: " + move.getUserId());
+                }
+            }
+        } else {
+            this.logUnexpectedPacket(packet, "Can not move avatars while user is not in a world");
+        }
+    }
+
+    @Override
+    public void handle(@NotNull final PacketOutWorldSnapshot packet) {
+        // Die enthaltenen Pakete werden so verarbeitet, als wären sie einzeln empfangen worden.
+        for (final PacketOutUserInfo info : packet.getInfos()) {
+            this.handle(info);
+        }
 
+        for (final PacketOutContextRole role : packet.getRoles()) {
+            this.handle(role);
+        }
+
+        for (final PacketAvatarMove avatar : packet.getAvatars()) {
+            this.handle(avatar);
+        }
+    }
+
+    private void logPacket(@NotNull final Packet<?> packet, final boolean sent) {
         if (sent) {
-            LOGGER.log(level, String.format("Sent packet to server: %s", packet));
+            this.manager.getPacketTrace().sent(packet, this.manager.getEndPoint().getID());
         } else {
-            LOGGER.log(level, String.format("Received packet from server: %s", packet));
+            this.manager.getPacketTrace().received(packet, this.manager.getEndPoint().getID());
         }
     }
 
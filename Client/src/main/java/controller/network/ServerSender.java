@@ -4,13 +4,16 @@ import controller.network.protocol.Packet;
 import controller.network.protocol.PacketAudioMessage;
 import controller.network.protocol.PacketAvatarMove;
 import controller.network.protocol.PacketChatMessage;
+import controller.network.protocol.PacketImageChunk;
 import controller.network.protocol.PacketInContextInteract;
 import controller.network.protocol.PacketInUserManage;
+import controller.network.protocol.PacketInViewport;
 import controller.network.protocol.PacketMenuOption;
 import controller.network.protocol.PacketNotificationResponse;
 import controller.network.protocol.PacketProfileAction;
 import controller.network.protocol.PacketUserTyping;
 import controller.network.protocol.PacketVideoFrame;
+import controller.network.protocol.PacketVideoTileFrame;
 import controller.network.protocol.PacketWorldAction;
 import model.context.ContextID;
 import model.context.spatial.ContextMap;
@@ -242,6 +245,30 @@ public interface ServerSender {
             }
         },
 
+        /**
+         * Information, dass sich die Größe des Sichtbereichs auf der Karte geändert hat.
+         * <p>
+         *     Erwartet als Objekt Array die Klassen:<br>
+         *     - {@code 0}: {@link Float}, Die maximale Breite des Sichtbereichs.<br>
+         *     - {@code 1}: {@link Float}, Die maximale Höhe des Sichtbereichs.
+         * </p>
+         */
+        VIEWPORT {
+            @Override
+            protected @NotNull Packet<?> getPacket(@NotNull final Object... objects) {
+                if (objects.length == 2) {
+                    if (objects[0] instanceof Float && objects[1] instanceof Float) {
+                        return new PacketInViewport((float) objects[0], (float) objects[1]);
+                    } else {
+                        throw new IllegalArgumentException("Expected Float and Float, got " + objects[0].getClass()
+                                + " and " + objects[1].getClass());
+                    }
+                } else {
+                    throw new IllegalArgumentException("Expected Array size of 2, got " + objects.length);
+                }
+            }
+        },
+
         /**
          * Information, dass mit einem Kontext interagiert werden soll.
          * <p>
@@ -442,11 +469,34 @@ public interface ServerSender {
             }
         },
 
+        /**
+         * Information, dass der Bildanhang einer Chat-Nachricht angefordert werden soll.
+         * <p>
+         *     Erwartet als Objekt Array die Klassen:<br>
+         *     - {@code 0}: {@link String}, der Hashwert des Bildanhangs
+         * </p>
+         */
+        IMAGE {
+            @Override
+            protected @NotNull Packet<?> getPacket(@NotNull final Object... objects) {
+                if (objects.length == 1) {
+                    if (objects[0] instanceof String) {
+                        return new PacketImageChunk((String) objects[0], 0);
+                    } else {
+                        throw new IllegalArgumentException("Expected String, got " + objects[0].getClass());
+                    }
+                } else {
+                    throw new IllegalArgumentException("Expected Array size of 1, got " + objects.length);
+                }
+            }
+        },
+
         /**
          * Information, dass eine Sprachnachricht gesendet werden soll.
          * <p>
          *     Erwartet als Objekt Array die Klassen:<br>
-         *     - {@code 0}: {@code byte[]}, Die im Sprachdaten der Sprachnachricht
+         *     - {@code 0}: {@code byte[]}, Die im Sprachdaten der Sprachnachricht<br>
+         *     - {@code 1}: {@code Boolean}, Optional: Ob das Ende eines Sprachabschnitts markiert wird
          * </p>
          */
         VOICE {
@@ -458,8 +508,15 @@ public interface ServerSender {
                     } else {
                         throw new IllegalArgumentException("Expected byte[], got " + objects[0].getClass());
                     }
+                } else if (objects.length == 2) {
+                    if (objects[0] instanceof byte[] && objects[1] instanceof Boolean) {
+                        return new PacketAudioMessage((byte[]) objects[0], (Boolean) objects[1]);
+                    } else {
+                        throw new IllegalArgumentException("Expected byte[] and Boolean, got "
+                                + objects[0].getClass() + " and " + objects[1].getClass());
+                    }
                 } else {
-                    throw new IllegalArgumentException("Expected Array size of 1, got " + objects.length);
+                    throw new IllegalArgumentException("Expected Array size of 1 or 2, got " + objects.length);
                 }
             }
         },
@@ -487,6 +544,36 @@ public interface ServerSender {
                     throw new IllegalArgumentException("Expected Array size of 2, got " + objects.length);
                 }
             }
+        },
+
+        /**
+         * Information, dass die veränderten Kacheln einer Bildschirmaufnahme gesendet werden sollen.
+         * <p>
+         *     Erwartet als Objekt Array die Klassen:<br>
+         *     - {@code 0}: {@link Boolean}, falls true, enthält das Frame die vollständige Bildschirmaufnahme.
+         *     - {@code 1}: {@link Integer}, Die fortlaufende Nummer des Frames
+         *     - {@code 2}: {@code int[]}, Die aufsteigend sortierten Indizes der enthaltenen Kacheln
+         *     - {@code 3}: {@code byte[]}, Die Daten des Bildes, das die enthaltenen Kacheln beinhaltet
+         *
+         * </p>
+         */
+        VIDEO_TILES {
+            @Override
+            protected @NotNull Packet<?> getPacket(@NotNull final Object... objects) {
+                if (objects.length == 4) {
+                    if (objects[0] instanceof Boolean && objects[1] instanceof Integer && objects[2] instanceof int[]
+                            && objects[3] instanceof byte[]) {
+                        return new PacketVideoTileFrame((boolean) objects[0], (int) objects[1], (int[]) objects[2],
+                                (byte[]) objects[3]);
+                    } else {
+                        throw new IllegalArgumentException("Expected boolean, Integer, int[] and byte[], got "
+                                + objects[0].getClass() + ", " + objects[1].getClass() + ", "
+                                + objects[2].getClass() + " and " + objects[3].getClass());
+                    }
+                } else {
+                    throw new IllegalArgumentException("Expected Array size of 4, got " + objects.length);
+                }
+            }
         };
 
         /**
@@ -136,4 +136,11 @@ public interface IUserController {
      */
     void setLocation(final float posX, final float posY, final boolean isTeleporting, final boolean isSprinting,
                      @NotNull final Direction direction);
+
+    /**
+     * Verwirft die Position eines Benutzers, da sich sein Avatar nicht mehr im Sichtbereich des intern angemeldeten
+     * Benutzers befindet. Der Benutzer verbleibt dabei in seinem aktuellen Raum.
+     * @see Location
+     */
+    void discardLocation();
 }
\ No newline at end of file
@@ -262,6 +262,8 @@ public class User implements IUserController, IUserView {
                             @NotNull final Direction direction) {
         if (this.currentLocation == null) {
             this.currentLocation = new Location(posX, posY, direction);
+            // Der Avatar des Benutzers muss neu dargestellt werden.
+            UserManager.getInstance().getModelObserver().setUserInfoChanged();
         } else {
             this.currentLocation.setCoordinates(posX, posY);
             this.currentLocation.setDirection(direction);
@@ -271,6 +273,14 @@ public class User implements IUserController, IUserView {
         this.isSprinting = isSprinting;
     }
 
+    @Override
+    public void discardLocation() {
+        if (this.currentLocation != null) {
+            this.currentLocation = null;
+            UserManager.getInstance().getModelObserver().setUserInfoChanged();
+        }
+    }
+
     @Override
     public @NotNull UUID getUserId() {
         return userId;
@@ -25,11 +25,13 @@ import org.jetbrains.annotations.Nullable;
 import view.multimedia.MultimediaManager;
 import view.userInterface.hud.HeadUpDisplay;
 import view.userInterface.menu.ConnectionTable;
+import utils.AudioCodec;
 import view.userInterface.menu.LoginTable;
 import view.userInterface.menu.MenuScreen;
 import view.userInterface.menu.StartTable;
 import view.world.WorldScreen;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.UUID;
 import java.util.logging.Logger;
 
@@ -308,6 +310,11 @@ public class Chati extends Game implements ViewControllerInterface, IModelObserv
         this.serverSender = sender;
     }
 
+    @Override
+    public void setVoiceCodec(@NotNull final AudioCodec codec) {
+        multimediaManager.setVoiceCodec(codec);
+    }
+
     @Override
     public void setUserInfoChanged() {
         Gdx.app.postRunnable(() -> this.userInfoChanged = true);
@@ -438,11 +445,12 @@ public class Chati extends Game implements ViewControllerInterface, IModelObserv
     @Override
     public void receiveChatMessage(@NotNull final UUID userId, @NotNull final LocalDateTime timestamp,
                                    @NotNull final MessageType messageType, @NotNull final String message,
-                                   byte[] imageData, @Nullable String imageName) {
+                                   @Nullable String imageHash, byte[] thumbnail, @Nullable String imageName) {
         Gdx.app.postRunnable(() -> {
             if (this.screen.equals(worldScreen)) {
                 try {
-                    headUpDisplay.showChatMessage(userId, timestamp, messageType, message, imageData, imageName);
+                    headUpDisplay.showChatMessage(userId, timestamp, messageType, message, imageHash, thumbnail,
+                            imageName);
                 } catch (UserNotFoundException e) {
                     e.printStackTrace();
                 }
@@ -450,6 +458,15 @@ public class Chati extends Game implements ViewControllerInterface, IModelObserv
         });
     }
 
+    @Override
+    public void receiveImage(@NotNull final String imageHash, final byte[] imageData) {
+        Gdx.app.postRunnable(() -> {
+            if (this.screen.equals(worldScreen)) {
+                headUpDisplay.showImage(imageHash, imageData);
+            }
+        });
+    }
+
     @Override
     public void receiveInfoMessage(@NotNull final LocalDateTime timestamp, @NotNull final MessageBundle messageBundle) {
         Gdx.app.postRunnable(() -> {
@@ -460,18 +477,26 @@ public class Chati extends Game implements ViewControllerInterface, IModelObserv
     }
 
     @Override
-    public void receiveVoiceFrame(@NotNull final UUID userId, @NotNull final LocalDateTime timestamp, final byte[] voiceData)
-            throws UserNotFoundException {
+    public void receiveVoiceFrame(@NotNull final UUID userId, final int sequence, @NotNull final LocalDateTime timestamp,
+                                  final byte[] voiceData) throws UserNotFoundException {
         if (this.screen.equals(worldScreen)) {
-            multimediaManager.receiveVoiceData(userId, timestamp, voiceData);
+            multimediaManager.receiveVoiceData(userId, sequence, timestamp, voiceData);
         }
     }
 
     @Override
-    public void receiveMusicFrame(@NotNull final LocalDateTime timestamp, final byte[] musicData,
+    public void receiveMixedVoiceFrame(final int sequence, @NotNull final LocalDateTime timestamp, final byte[] voiceData,
+                                       @NotNull final Collection<UUID> speakerIds) {
+        if (this.screen.equals(worldScreen)) {
+            multimediaManager.receiveMixedVoiceData(sequence, timestamp, voiceData, speakerIds);
+        }
+    }
+
+    @Override
+    public void receiveMusicFrame(final int sequence, @NotNull final LocalDateTime timestamp, final byte[] musicData,
                                   final float position, final int seconds) {
         if (this.screen.equals(worldScreen)) {
-            multimediaManager.receiveMusicData(timestamp, musicData, position, seconds);
+            multimediaManager.receiveMusicData(sequence, timestamp, musicData, position, seconds);
         }
     }
 
@@ -483,6 +508,15 @@ public class Chati extends Game implements ViewControllerInterface, IModelObserv
         }
     }
 
+    @Override
+    public void receiveVideoTiles(@NotNull final UUID userId, @NotNull final LocalDateTime timestamp,
+                                  final boolean keyframe, final int sequence, final int[] tiles,
+                                  final byte[] tileData) throws UserNotFoundException {
+        if (this.screen.equals(worldScreen)) {
+            multimediaManager.receiveVideoTiles(userId, timestamp, keyframe, sequence, tiles, tileData);
+        }
+    }
+
     @Override
     public void openMenu(@NotNull final ContextID contextId, @NotNull final ContextMenu contextMenu) {
         Gdx.app.postRunnable(() -> {
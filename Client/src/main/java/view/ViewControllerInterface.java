@@ -9,7 +9,9 @@ import model.exception.UserNotFoundException;
 import model.user.User;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import utils.AudioCodec;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.UUID;
 
 /**
@@ -23,6 +25,12 @@ public interface ViewControllerInterface {
      */
     void setSender(@Nullable final ServerSender sender);
 
+    /**
+     * Setzt das mit dem Server ausgehandelte Verfahren, mit dem die aufgenommenen Sprachdaten kodiert werden.
+     * @param codec Das zu verwendende Verfahren.
+     */
+    void setVoiceCodec(@NotNull final AudioCodec codec);
+
     /**
      * Benachrichtigt die View, ob eine Registrierung von einem Benutzer erfolgreich beim Server durchgeführt wurde.
      * @param success true, falls die Registrierung erfolgreich war, sonst false.
@@ -92,13 +100,22 @@ public interface ViewControllerInterface {
      * @param timestamp Zeitpunkt, an dem diese Nachricht gesendet wurde.
      * @param messageType Typ der Nachricht. Spezifiziert, wie die Nachricht angezeigt werden soll.
      * @param message Nachricht, die angezeigt werden soll.
-     * @param imageData Daten des Bildanhangs.
+     * @param imageHash Hashwert des Bildanhangs, über den dieser angefordert werden kann, oder null.
+     * @param thumbnail Daten des Vorschaubilds des Bildanhangs.
      * @param imageName Name des Bildanhangs.
      * @throws UserNotFoundException wenn kein Benutzer mit der ID gefunden werden konnte.
      */
     void receiveChatMessage(@NotNull final UUID userId, @NotNull final LocalDateTime timestamp,
                             @NotNull final MessageType messageType, @NotNull final String message,
-                            final byte[] imageData, @Nullable final String imageName) throws UserNotFoundException;
+                            @Nullable final String imageHash, final byte[] thumbnail,
+                            @Nullable final String imageName) throws UserNotFoundException;
+
+    /**
+     * Benachrichtigt die View, dass ein angeforderter Bildanhang vollständig erhalten wurde.
+     * @param imageHash Hashwert des Bildanhangs.
+     * @param imageData Daten des Bildanhangs.
+     */
+    void receiveImage(@NotNull final String imageHash, final byte[] imageData);
 
     /**
      * Benachrichtigt die View, dass eine neue Informationsnachricht erhalten wurde.
@@ -110,21 +127,33 @@ public interface ViewControllerInterface {
     /**
      * Benachrichtigt die View, dass ein neues Voice-Paket erhalten wurde.
      * @param userId ID des Benutzers, der dieses Paket gesendet hat.
+     * @param sequence Fortlaufende Nummer der Sprachdaten des Benutzers.
      * @param timestamp Zeitpunkt, an dem dieses Paket gesendet wurde.
      * @param voiceData Sprachdaten, die abgespielt werden sollen.
      * @throws UserNotFoundException wenn kein Benutzer mit der ID gefunden werden konnte.
      */
-    void receiveVoiceFrame(@NotNull final UUID userId, @NotNull final LocalDateTime timestamp, final byte[] voiceData)
-            throws UserNotFoundException;
+    void receiveVoiceFrame(@NotNull final UUID userId, final int sequence, @NotNull final LocalDateTime timestamp,
+                           final byte[] voiceData) throws UserNotFoundException;
+
+    /**
+     * Benachrichtigt die View, dass ein neues Paket mit vom Server gemischten Sprachdaten erhalten wurde.
+     * @param sequence Fortlaufende Nummer der gemischten Sprachdaten.
+     * @param timestamp Zeitpunkt, an dem dieses Paket gesendet wurde.
+     * @param voiceData Gemischte Sprachdaten, die abgespielt werden sollen.
+     * @param speakerIds IDs der Benutzer, deren Sprachdaten in den gemischten Sprachdaten enthalten sind.
+     */
+    void receiveMixedVoiceFrame(final int sequence, @NotNull final LocalDateTime timestamp, final byte[] voiceData,
+                                @NotNull final Collection<UUID> speakerIds);
 
     /**
      * Benachrichtigt die View, dass ein neues Musikdaten-Paket erhalten wurde.
+     * @param sequence Fortlaufende Nummer der Musikdaten.
      * @param timestamp Zeitpunkt, an dem dieses Paket gesendet wurde.
      * @param musicData Musikdaten, die abgespielt werden sollen.
      * @param position Aktuelle Position im Musikstück.
      * @param seconds Aktuelle Sekunde im Musikstück.
      */
-    void receiveMusicFrame(@NotNull final LocalDateTime timestamp, final byte[] musicData,
+    void receiveMusicFrame(final int sequence, @NotNull final LocalDateTime timestamp, final byte[] musicData,
                            final float position, final int seconds);
 
     /**
@@ -138,6 +167,19 @@ public interface ViewControllerInterface {
     void receiveVideoFrame(@NotNull final UUID userId, @NotNull final LocalDateTime timestamp, final boolean screen,
                            final byte[] frameData) throws UserNotFoundException;
 
+    /**
+     * Benachrichtigt die View, dass die veränderten Kacheln einer Bildschirmaufnahme erhalten wurden.
+     * @param userId ID des Benutzers, der dieses Paket gesendet hat.
+     * @param timestamp Zeitpunkt, an dem dieses Paket gesendet wurde.
+     * @param keyframe true, wenn das Frame die vollständige Bildschirmaufnahme enthält, sonst false.
+     * @param sequence Fortlaufende Nummer des Frames.
+     * @param tiles Indizes der enthaltenen Kacheln.
+     * @param tileData Daten des Bildes, das die enthaltenen Kacheln beinhaltet.
+     * @throws UserNotFoundException wenn kein Benutzer mit der ID gefunden werden konnte.
+     */
+    void receiveVideoTiles(@NotNull final UUID userId, @NotNull final LocalDateTime timestamp, final boolean keyframe,
+                           final int sequence, final int[] tiles, final byte[] tileData) throws UserNotFoundException;
+
     /**
      * Benachrichtigt die View, dass das Menü eines Interaktionsobjekts geöffnet werden soll.
      * @param contextId ID des Interaktionsobjekts, dessen Menü geöffnet werden soll.
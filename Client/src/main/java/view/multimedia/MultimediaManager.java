@@ -2,6 +2,7 @@ package view.multimedia;
 
 import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.GdxRuntimeException;
+import utils.AudioCodec;
 import utils.AudioUtils;
 import model.exception.UserNotFoundException;
 import model.user.IInternUserView;
@@ -17,6 +18,7 @@ import view.multimedia.video.VideoReceiver;
 
 import java.awt.image.BufferedImage;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.UUID;
 import java.util.logging.Level;
 
@@ -180,31 +182,57 @@ public class MultimediaManager implements Disposable {
         }
     }
 
+    /**
+     * Setzt das Verfahren, mit dem die aufgenommenen Sprachdaten kodiert werden.
+     * @param codec Zu verwendendes Verfahren.
+     */
+    public void setVoiceCodec(@NotNull final AudioCodec codec) {
+        if (voiceRecorder != null) {
+            voiceRecorder.setCodec(codec);
+        }
+    }
+
     /**
      * Veranlasst das Abspielen erhaltener Sprachdaten.
      * @param senderId ID des sendenden Benutzers.
+     * @param sequence Fortlaufende Nummer der Sprachdaten.
      * @param timestamp Zeitstempel der Sprachdaten.
      * @param voiceData Abzuspielende Sprachdaten.
      * @throws UserNotFoundException falls kein Benutzer mit der ID gefunden wurde.
      */
-    public void receiveVoiceData(@NotNull final UUID senderId, @NotNull final LocalDateTime timestamp, final byte[] voiceData)
-            throws UserNotFoundException {
+    public void receiveVoiceData(@NotNull final UUID senderId, final int sequence, @NotNull final LocalDateTime timestamp,
+                                 final byte[] voiceData) throws UserNotFoundException {
+        if (audioConsumer != null && audioConsumer.isRunning()) {
+            audioConsumer.receiveVoiceData(senderId, sequence, timestamp, voiceData);
+        }
+    }
+
+    /**
+     * Veranlasst das Abspielen erhaltener, vom Server gemischter Sprachdaten.
+     * @param sequence Fortlaufende Nummer der Sprachdaten.
+     * @param timestamp Zeitstempel der Sprachdaten.
+     * @param voiceData Abzuspielende gemischte Sprachdaten.
+     * @param speakerIds IDs der Benutzer, deren Sprachdaten enthalten sind.
+     */
+    public void receiveMixedVoiceData(final int sequence, @NotNull final LocalDateTime timestamp, final byte[] voiceData,
+                                      @NotNull final Collection<UUID> speakerIds) {
         if (audioConsumer != null && audioConsumer.isRunning()) {
-            audioConsumer.receiveVoiceData(senderId, timestamp, voiceData);
+            audioConsumer.receiveMixedVoiceData(sequence, timestamp, voiceData, speakerIds);
         }
     }
 
     /**
      * Veranlasst das Abspielen erhaltener Musikdaten.
+     * @param sequence Fortlaufende Nummer der Musikdaten.
      * @param timestamp Zeitstempel der Sprachdaten.
      * @param musicData Abzuspielende Musikdaten.
      * @param position Aktuelle Position im Musikstück.
      * @param seconds Aktuelle Sekunde im Musikstück.
      */
-    public void receiveMusicData(@NotNull final LocalDateTime timestamp, final byte[] musicData,
+    public void receiveMusicData(final int sequence, @NotNull final LocalDateTime timestamp, final byte[] musicData,
                                  final float position, final int seconds) {
         if (audioConsumer != null && audioConsumer.isRunning()) {
-            audioConsumer.receiveMusicStream(timestamp, musicData, position, seconds);
+            audioConsumer.receiveMusicStream(sequence, timestamp, musicData, position, seconds);
         }
     }
 
@@ -232,6 +260,22 @@ public class MultimediaManager implements Disposable {
         videoReceiver.receiveVideoFrame(userId, timestamp, screen, frameData);
     }
 
+    /**
+     * Hinterlegt die erhaltenen Kacheln einer Bildschirmaufnahme von einem externen Benutzer.
+     * @param userId ID des Benutzers, dessen Frame erhalten wurde.
+     * @param timestamp Zeitstempel des Frames.
+     * @param keyframe true, wenn das Frame die vollständige Bildschirmaufnahme enthält, sonst false.
+     * @param sequence Fortlaufende Nummer des Frames.
+     * @param tiles Indizes der enthaltenen Kacheln.
+     * @param tileData Daten des Bildes, das die enthaltenen Kacheln beinhaltet.
+     * @throws UserNotFoundException falls kein Benutzer mit der ID gefunden wurde.
+     */
+    public void receiveVideoTiles(@NotNull final UUID userId, @NotNull final LocalDateTime timestamp,
+                                  final boolean keyframe, final int sequence, final int[] tiles,
+                                  final byte[] tileData) throws UserNotFoundException {
+        videoReceiver.receiveVideoTiles(userId, timestamp, keyframe, sequence, tiles, tileData);
+    }
+
     /**
      * Hinterlegt ein erhaltenes VideoFrame vom intern angemeldeten Benutzer.
      * @param frame Erhaltenes Videoframe.
@@ -4,6 +4,7 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.audio.AudioDevice;
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.utils.Disposable;
+import utils.AudioCodec;
 import utils.AudioUtils;
 import model.exception.UserNotFoundException;
 import model.user.IUserView;
@@ -12,15 +13,19 @@ import view.Chati;
 import view.multimedia.MultimediaManager;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
+import java.util.logging.Level;
 
 /**
  * Eine Klasse, durch welche das Mischen und Abspielen empfangener Audiodaten realisiert wird.
+ * <p>
+ *     Empfangene Audiodaten werden in wiederverwendete Puffer dekodiert und in die vorab angelegten Puffer der
+ *     jeweiligen Sender kopiert. Beim Mischen werden ebenfalls nur wiederverwendete Puffer genutzt, sodass während
+ *     des Abspielens keine Objekte erzeugt werden.
+ * </p>
  */
 public class AudioConsumer implements Runnable, Disposable {
 
@@ -31,7 +36,17 @@ public class AudioConsumer implements Runnable, Disposable {
 
     private final AudioDevice player;
     private final Map<IUserView, VoiceChatUser> voiceDataBuffer;
+    private final Map<IUserView, Float> speakerGains;
     private final MusicStream musicStream;
+    private final MixedVoiceStream mixedVoiceStream;
+    private final FrameMixer mixer;
+    private final short[] receiveBuffer;
+
+    /*
+     * Momentaufnahme der Sender, über die beim Mischen iteriert wird. Sie wird nur beim Hinzufügen und Entfernen
+     * eines Senders neu erzeugt, damit beim Mischen kein Iterator erzeugt werden muss.
+     */
+    private volatile VoiceChatUser[] voiceChatUsers;
 
     private float musicVolume;
     private float voiceVolume;
@@ -43,18 +58,21 @@ public class AudioConsumer implements Runnable, Disposable {
     public AudioConsumer() {
         this.player = Gdx.audio.newAudioDevice(AudioUtils.SAMPLING_RATE, AudioUtils.MONO);
         this.voiceDataBuffer = new ConcurrentHashMap<>();
+        this.speakerGains = new ConcurrentHashMap<>();
         this.musicStream = new MusicStream();
+        this.mixedVoiceStream = new MixedVoiceStream();
+        this.mixer = new FrameMixer(MultimediaManager.AUDIO_BLOCK_SIZE);
+        this.receiveBuffer = new short[MultimediaManager.AUDIO_BLOCK_SIZE];
+        this.voiceChatUsers = new VoiceChatUser[0];
     }
 
     @Override
     public void run() {
-        short[] mixedData = new short[MultimediaManager.AUDIO_BLOCK_SIZE];
-
         outer:
         while (isRunning) {
             synchronized (this) {
                 // Warte, solange keine Daten vorhanden sind.
-                while (voiceDataBuffer.isEmpty() && !musicStream.isReady()) {
+                while (voiceDataBuffer.isEmpty() && !mixedVoiceStream.isReady() && !musicStream.isReady()) {
                     if (!isRunning) {
                         break outer;
                     }
@@ -66,38 +84,35 @@ public class AudioConsumer implements Runnable, Disposable {
                 }
             }
 
-            // Entferne die obersten Elemente aus den Puffern des Voicechats und des Musikstreams.
-            Set<short[]> frames = voiceDataBuffer.values().stream().filter(VoiceChatUser::isReady)
-                    .map(VoiceChatUser::getNextFrame).collect(Collectors.toSet());
-            voiceDataBuffer.values().removeIf(Predicate.not(VoiceChatUser::isActive));
-            short[] musicFrame = new short[MultimediaManager.AUDIO_BLOCK_SIZE];
-            if (musicStream.isReady()) {
-                musicFrame = musicStream.getNextFrame();
-            }
+            // Ist der Ton ausgeschaltet, werden die Daten dennoch entnommen, damit die Puffer nicht volllaufen.
+            final boolean soundOn = Chati.CHATI.getPreferences().isSoundOn();
+            final float currentVoiceVolume = soundOn ? voiceVolume : 0;
+            final float currentMusicVolume = soundOn ? musicVolume : 0;
 
-            int[] temp = new int[MultimediaManager.AUDIO_BLOCK_SIZE];
-            for (int i = 0; i < MultimediaManager.AUDIO_BLOCK_SIZE; i++) {
-                if (Chati.CHATI.getPreferences().isSoundOn()) {
-                    // Mische Daten aller Teilnehmer des Voicechats und setze die entsprechende Lautstärke.
-                    for (short[] block : frames) {
-                        temp[i] += block[i];
-                    }
-                    temp[i] *= voiceVolume;
+            // Mische die obersten Elemente aus den Puffern des Voicechats und des Musikstreams.
+            mixer.clear();
+            final VoiceChatUser[] users = voiceChatUsers;
+            for (final VoiceChatUser voiceChatUser : users) {
+                mixer.add(voiceChatUser, currentVoiceVolume);
+            }
+            mixer.add(mixedVoiceStream, currentVoiceVolume);
+            mixer.add(musicStream, currentMusicVolume);
 
-                    // Mische Daten des Musikstreams dazu und setze die entsprechende Lautstärke.
-                    musicFrame[i] *= musicVolume;
-                    temp[i] += musicFrame[i];
+            for (final VoiceChatUser voiceChatUser : users) {
+                if (!voiceChatUser.isActive()) {
+                    removeVoiceChatUser(voiceChatUser);
                 }
-
-                // Verhindere einen Overflow der gemischten Daten.
-                mixedData[i] = (short) (temp[i] > Short.MAX_VALUE ? Short.MAX_VALUE
-                        : (temp[i] < Short.MIN_VALUE ? Short.MIN_VALUE : temp[i]));
             }
 
             // Spiele die gemischten Daten ab.
+            final short[] mixedData = mixer.mix();
             player.writeSamples(mixedData, 0, mixedData.length);
         }
-        this.voiceDataBuffer.clear();
+        synchronized (this) {
+            this.voiceDataBuffer.clear();
+            this.voiceChatUsers = new VoiceChatUser[0];
+        }
+        this.mixedVoiceStream.clear();
         this.musicStream.stop();
     }
 
@@ -138,7 +153,25 @@ public class AudioConsumer implements Runnable, Disposable {
      */
     public boolean isTalking(@NotNull final IUserView user) {
         VoiceChatUser voiceChatUser = voiceDataBuffer.get(user);
-        return voiceChatUser != null && voiceChatUser.isReady();
+        return (voiceChatUser != null && voiceChatUser.isReady()) || mixedVoiceStream.isSpeaking(user.getUserId());
+    }
+
+    /**
+     * Setzt den Faktor, mit dem die Sprachdaten eines Benutzers beim Mischen verstärkt werden.
+     * @param user Benutzer, dessen Verstärkung gesetzt wird.
+     * @param gain Verstärkungsfaktor, wobei 1 der unveränderten Lautstärke entspricht.
+     */
+    public void setSpeakerGain(@NotNull final IUserView user, final float gain) {
+        if (gain < 0 || Float.isNaN(gain)) {
+            return;
+        }
+        synchronized (this) {
+            speakerGains.put(user, gain);
+            VoiceChatUser voiceChatUser = voiceDataBuffer.get(user);
+            if (voiceChatUser != null) {
+                voiceChatUser.setGain(gain);
+            }
+        }
     }
 
     /**
@@ -159,44 +192,77 @@ public class AudioConsumer implements Runnable, Disposable {
     /**
      * Reiht empfangene Sprachdaten in die Warteschlange der abzuspielenden Daten ein.
      * @param senderId ID des sendenden Benutzers.
+     * @param sequence Fortlaufende Nummer der Sprachdaten.
      * @param timestamp Zeitstempel der Sprachdaten.
      * @param voiceData Abzuspielende Sprachdaten.
      * @throws UserNotFoundException falls kein Benutzer mit der ID gefunden wurde.
      */
-    public void receiveVoiceData(@NotNull final UUID senderId, @NotNull final LocalDateTime timestamp, final byte[] voiceData)
-            throws UserNotFoundException {
+    public void receiveVoiceData(@NotNull final UUID senderId, final int sequence, @NotNull final LocalDateTime timestamp,
+                                 final byte[] voiceData) throws UserNotFoundException {
         if (!isRunning) {
             return;
         }
         IUserView sender = Chati.CHATI.getUserManager().getExternUserView(senderId);
-        short[] receivedData = AudioUtils.toShort(voiceData, true);
 
         synchronized (this) {
-            if (!voiceDataBuffer.containsKey(sender)) {
-                voiceDataBuffer.put(sender, new VoiceChatUser(sender, timestamp, receivedData));
+            int length = decodeVoiceData(voiceData);
+            if (length < 0) {
+                return;
+            }
+            VoiceChatUser voiceChatUser = voiceDataBuffer.get(sender);
+            if (voiceChatUser == null) {
+                voiceChatUser = new VoiceChatUser(sender, sequence, timestamp, receiveBuffer, length);
+                Float gain = speakerGains.get(sender);
+                if (gain != null) {
+                    voiceChatUser.setGain(gain);
+                }
+                voiceDataBuffer.put(sender, voiceChatUser);
+                voiceChatUsers = voiceDataBuffer.values().toArray(new VoiceChatUser[0]);
             } else {
-                voiceDataBuffer.get(sender).addFrame(timestamp, receivedData);
+                voiceChatUser.addFrame(sequence, timestamp, receiveBuffer, length);
             }
             notifyAll();
         }
     }
 
+    /**
+     * Reiht empfangene, vom Server gemischte Sprachdaten in die Warteschlange der abzuspielenden Daten ein.
+     * @param sequence Fortlaufende Nummer der Sprachdaten.
+     * @param timestamp Zeitstempel der Sprachdaten.
+     * @param voiceData Abzuspielende gemischte Sprachdaten.
+     * @param speakerIds IDs der Benutzer, deren Sprachdaten enthalten sind.
+     */
+    public void receiveMixedVoiceData(final int sequence, @NotNull final LocalDateTime timestamp, final byte[] voiceData,
+                                      @NotNull final Collection<UUID> speakerIds) {
+        if (!isRunning) {
+            return;
+        }
+        synchronized (this) {
+            int length = decodeVoiceData(voiceData);
+            if (length < 0) {
+                return;
+            }
+            mixedVoiceStream.addFrame(sequence, timestamp, receiveBuffer, length, speakerIds);
+            notifyAll();
+        }
+    }
+
     /**
      * Reiht empfangene Daten eines Musikstreams in die Warteschlange der abzuspielenden Daten ein.
+     * @param sequence Fortlaufende Nummer der Musikstreamdaten.
      * @param timestamp Zeitstempel der Musikstreamdaten.
      * @param musicData Abzuspielende Musikdaten.
      * @param position Aktuelle Position im Musikstück.
      * @param seconds Aktuelle Sekunde im Musikstück.
      */
-    public void receiveMusicStream(@NotNull final LocalDateTime timestamp, final byte[] musicData,
+    public void receiveMusicStream(final int sequence, @NotNull final LocalDateTime timestamp, final byte[] musicData,
                                    final float position, final int seconds) {
         if (!isRunning) {
             return;
         }
-        short[] receivedData = AudioUtils.toShort(musicData, false);
-
         synchronized (this) {
-            musicStream.addAudioDataBlock(timestamp, receivedData, position, seconds);
+            int length = AudioUtils.toShort(musicData, receiveBuffer, false);
+            musicStream.addAudioDataBlock(sequence, timestamp, receiveBuffer, length, position, seconds);
             notifyAll();
         }
     }
@@ -279,4 +345,33 @@ public class AudioConsumer implements Runnable, Disposable {
         double a = Math.pow(1 / midValue - 1, 2);
         return (float) ((Math.pow(a, value) - 1) / (a - 1));
     }
+
+    /**
+     * Entfernt einen Sender, dessen Sprachdaten nicht mehr abgespielt werden.
+     * @param voiceChatUser Zu entfernender Sender.
+     */
+    private synchronized void removeVoiceChatUser(@NotNull final VoiceChatUser voiceChatUser) {
+        // Der Sender könnte zwischenzeitlich erneut Sprachdaten gesendet haben.
+        if (voiceChatUser.isActive() || !voiceDataBuffer.remove(voiceChatUser.getSender(), voiceChatUser)) {
+            return;
+        }
+        voiceChatUsers = voiceDataBuffer.values().toArray(new VoiceChatUser[0]);
+        Chati.LOGGER.fine("Voice stream of " + voiceChatUser.getSender().getUsername() + " ended: "
+                + voiceChatUser.getJitterBuffer());
+    }
+
+    /**
+     * Dekodiert empfangene Sprachdaten in den Empfangspuffer.
+     * @param voiceData Kodierte Sprachdaten.
+     * @return Anzahl der dekodierten Samples oder -1, falls die Sprachdaten nicht dekodiert werden konnten.
+     */
+    private int decodeVoiceData(final byte[] voiceData) {
+        try {
+            return AudioCodec.decode(voiceData, receiveBuffer);
+        } catch (IllegalArgumentException e) {
+            // Ungültige Sprachdaten werden verworfen.
+            Chati.LOGGER.log(Level.FINE, "Received invalid voice data", e);
+            return -1;
+        }
+    }
 }
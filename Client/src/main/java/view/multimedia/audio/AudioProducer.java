@@ -1,79 +1,100 @@
 package view.multimedia.audio;
 
-import utils.AudioUtils;
 import org.jetbrains.annotations.NotNull;
 import view.multimedia.MultimediaManager;
 
 import java.time.LocalDateTime;
-import java.util.Queue;
-import java.util.concurrent.LinkedBlockingQueue;
 
 /**
  * Eine Klasse, welche einen Sender von abzuspielenden Audiodaten repräsentiert.
  */
 public abstract class AudioProducer {
 
-    protected final Queue<Short> receivedDataQueue;
-    protected final int minBlocks;
+    /*
+     * Anzahl an Audioframes, um welche die Ziellatenz überschritten werden darf, bevor Audioframes verworfen werden.
+     * Verhindert, dass nach einer kurzzeitig schlechteren Verbindung dauerhaft mit einer erhöhten Latenz abgespielt
+     * wird.
+     */
+    private static final int CATCH_UP_THRESHOLD = 3;
+
+    protected final JitterBuffer jitterBuffer;
     protected LocalDateTime lastTimeReceived;
-    protected boolean ready;
+    private volatile float gain;
 
     /**
      * Erzeugt eine neue Instanz des AudioProducer.
-     * @param startingDelay Länge der Daten in Sekunden, die vorhanden sein muss, bevor Daten aus diesem AudioProducer
-     * entnommmen werden können.
+     * @param minFrames Minimale Latenz in Audioframes, mit der die Daten abgespielt werden.
+     * @param initialFrames Latenz in Audioframes, mit der die Daten zu Beginn abgespielt werden.
+     * @param maxFrames Maximale Latenz in Audioframes, mit der die Daten abgespielt werden.
      */
-    protected AudioProducer(final float startingDelay) {
-        this.receivedDataQueue = new LinkedBlockingQueue<>();
-        this.minBlocks = (int) (startingDelay * AudioUtils.FRAME_RATE);
+    protected AudioProducer(final int minFrames, final int initialFrames, final int maxFrames) {
+        this.jitterBuffer = new JitterBuffer(MultimediaManager.AUDIO_BLOCK_SIZE, minFrames, initialFrames, maxFrames);
+        this.gain = 1;
     }
 
     /**
-     * Fügt abzuspielende Daten in die Warteschlange des AudioProducer hinzu.
+     * Fügt abzuspielende Daten in den Puffer des AudioProducer hinzu.
+     * @param sequence Fortlaufende Nummer der abzuspielenden Daten.
      * @param timestamp Zeitstempel der abzuspielenden Daten.
-     * @param audioBlock Abzuspielende Daten.
+     * @param audioBlock Abzuspielende Daten. Die Daten werden in den Puffer kopiert.
+     * @param length Anzahl der gültigen Samples der abzuspielenden Daten.
      */
-    public void addFrame(@NotNull LocalDateTime timestamp, final short[] audioBlock) {
+    public void addFrame(final int sequence, @NotNull final LocalDateTime timestamp, final short[] audioBlock,
+                         final int length) {
         this.lastTimeReceived = timestamp;
-        if (!ready && queueSizeInFrames() > minBlocks) {
-            ready = true;
-        }
+        this.jitterBuffer.put(sequence, timestamp, audioBlock, length);
     }
 
     /**
-     * Entfernt den aktuell abzuspielenden Block mit Audiodaten aus der Warteschlange und gibt diesen zurück.
-     * @return Block mit aktuell abzuspielenden Audiodaten.
+     * Entfernt den aktuell abzuspielenden Block mit Audiodaten aus dem Puffer und kopiert diesen in das übergebene
+     * Array.
+     * @param target Array der Länge eines Blocks, in das die aktuell abzuspielenden Audiodaten kopiert werden.
+     * @return true, wenn Audiodaten in das Array kopiert wurden, sonst false.
      */
-    public short[] getNextFrame() {
-        short[] block = new short[MultimediaManager.AUDIO_BLOCK_SIZE];
-        for (int i = 0; i < block.length; i++) {
-            Short data = receivedDataQueue.poll();
-            block[i] = data != null ? data : 0;
-        }
-        if (!hasData()) {
-            ready = false;
+    public boolean readFrame(final short[] target) {
+        while (jitterBuffer.getDepth() > jitterBuffer.getTargetFrames() + CATCH_UP_THRESHOLD) {
+            jitterBuffer.skip();
         }
-        return block;
+        return jitterBuffer.poll(target);
     }
 
     /**
-     * Gibt zurück, ob die Warteschlange genug Daten zum Abspielen eines Blocks enthält.
-     * @return true, wenn sie genug Daten enthält, sonst false.
+     * Gibt zurück, ob der Puffer Daten zum Abspielen enthält.
+     * @return true, wenn er Daten enthält, sonst false.
      */
     public boolean hasData() {
-        return queueSizeInFrames() >= 1;
+        return jitterBuffer.getDepth() > 0;
     }
 
     /**
-     * Gibt zurück, ob die Warteschlange bereit zum Abspielen von Daten ist.
-     * @return true, wenn sie bereit ist, sonst false.
+     * Gibt zurück, ob der Puffer bereit zum Abspielen von Daten ist.
+     * @return true, wenn er bereit ist, sonst false.
      */
     public boolean isReady() {
-        return hasData() && ready;
+        return jitterBuffer.isReady();
+    }
+
+    /**
+     * Gibt den Faktor zurück, mit dem die Audiodaten dieses Senders beim Mischen verstärkt werden.
+     * @return Verstärkungsfaktor.
+     */
+    public float getGain() {
+        return gain;
+    }
+
+    /**
+     * Setzt den Faktor, mit dem die Audiodaten dieses Senders beim Mischen verstärkt werden.
+     * @param gain Verstärkungsfaktor.
+     */
+    public void setGain(final float gain) {
+        if (gain < 0 || Float.isNaN(gain)) {
+            throw new IllegalArgumentException("Gain must not be negative");
+        }
+        this.gain = gain;
     }
 
     /**
-     * Gibt den Zeitstempel zurück, an dem in dieser Warteschlange das letzte mal Daten empfangen wurde.
+     * Gibt den Zeitstempel zurück, an dem in diesem Puffer das letzte mal Daten empfangen wurden.
      * @return Zeitstempel der letzten empfangenen Daten.
      */
     public @NotNull LocalDateTime getLastTimeReceived() {
@@ -81,10 +102,10 @@ public abstract class AudioProducer {
     }
 
     /**
-     * Gibt die Größe der Warteschlange in der Anzahl abspielbarer Blöcke wieder.
-     * @return Größe der Warteschlange in der Anzahl abspielbarer Blöcke.
+     * Gibt den Puffer der empfangenen Daten zurück, über den die Statistiken des Empfangs abgefragt werden können.
+     * @return Puffer der empfangenen Daten.
      */
-    protected int queueSizeInFrames() {
-        return receivedDataQueue.size() / MultimediaManager.AUDIO_BLOCK_SIZE;
+    public @NotNull JitterBuffer getJitterBuffer() {
+        return jitterBuffer;
     }
 }
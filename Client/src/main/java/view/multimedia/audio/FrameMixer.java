@@ -0,0 +1,106 @@
+package view.multimedia.audio;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Eine Klasse, welche die Audioframes mehrerer Sender zu einem abspielbaren Audioframe mischt.
+ * <p>
+ *     Sämtliche Puffer werden einmalig angelegt und bei jedem Audioframe wiederverwendet, sodass beim Mischen keine
+ *     Objekte erzeugt werden. Die Audioframes werden mit der Verstärkung des jeweiligen Senders aufsummiert. Übersteigt
+ *     die Summe den darstellbaren Wertebereich, so wird sie weich begrenzt, anstatt sie hart abzuschneiden.
+ * </p>
+ */
+public class FrameMixer {
+
+    /** Betrag, ab dem Samples weich begrenzt werden. Darunter bleibt das Signal unverändert. */
+    private static final float SOFT_CLIP_KNEE = 0.75f * Short.MAX_VALUE;
+
+    /** Verbleibender Wertebereich oberhalb der weichen Begrenzung. */
+    private static final float SOFT_CLIP_RANGE = Short.MAX_VALUE - SOFT_CLIP_KNEE;
+
+    private final short[] frame;
+    private final float[] accumulator;
+    private final short[] output;
+    private int producers;
+
+    /**
+     * Erzeugt eine neue Instanz des FrameMixer.
+     * @param frameLength Anzahl der Samples eines Audioframes.
+     */
+    public FrameMixer(final int frameLength) {
+        if (frameLength < 1) {
+            throw new IllegalArgumentException("Frame length must be positive");
+        }
+        this.frame = new short[frameLength];
+        this.accumulator = new float[frameLength];
+        this.output = new short[frameLength];
+    }
+
+    /**
+     * Beginnt das Mischen eines neuen Audioframes.
+     */
+    public void clear() {
+        Arrays.fill(accumulator, 0);
+        producers = 0;
+    }
+
+    /**
+     * Entnimmt das nächste Audioframe eines Senders und fügt es dem aktuellen Audioframe hinzu. Das Audioframe wird
+     * auch dann entnommen, wenn es mit einer Lautstärke von 0 hinzugefügt wird, damit der Sender nicht hinterherhinkt.
+     * @param producer Sender des hinzuzufügenden Audioframes.
+     * @param volume Lautstärke, mit der das Audioframe zusätzlich zur Verstärkung des Senders hinzugefügt wird.
+     * @return true, wenn ein Audioframe hinzugefügt wurde, sonst false.
+     */
+    public boolean add(@NotNull final AudioProducer producer, final float volume) {
+        if (!producer.isReady() || !producer.readFrame(frame)) {
+            return false;
+        }
+
+        final float gain = volume * producer.getGain();
+        if (gain != 0) {
+            for (int i = 0; i < accumulator.length; i++) {
+                accumulator[i] += frame[i] * gain;
+            }
+        }
+        producers++;
+        return true;
+    }
+
+    /**
+     * Gibt das aus den hinzugefügten Audioframes gemischte Audioframe zurück. Das zurückgegebene Array wird beim
+     * Mischen des nächsten Audioframes überschrieben.
+     * @return Gemischtes Audioframe.
+     */
+    public short[] mix() {
+        for (int i = 0; i < output.length; i++) {
+            output[i] = softClip(accumulator[i]);
+        }
+        return output;
+    }
+
+    /**
+     * Gibt die Anzahl der Sender zurück, deren Audioframes dem aktuellen Audioframe hinzugefügt wurden.
+     * @return Anzahl der gemischten Sender.
+     */
+    public int getProducers() {
+        return producers;
+    }
+
+    /**
+     * Begrenzt ein Sample auf den darstellbaren Wertebereich. Oberhalb der Schwelle wird das Sample stetig gegen den
+     * maximalen Wert gestaucht, wodurch weniger Verzerrungen als bei hartem Abschneiden entstehen.
+     * @param sample Zu begrenzendes Sample.
+     * @return Begrenztes Sample.
+     */
+    static short softClip(final float sample) {
+        final float magnitude = Math.abs(sample);
+        if (magnitude <= SOFT_CLIP_KNEE) {
+            return (short) sample;
+        }
+        final float clipped = SOFT_CLIP_KNEE
+                + SOFT_CLIP_RANGE * (float) Math.tanh((magnitude - SOFT_CLIP_KNEE) / SOFT_CLIP_RANGE);
+        return (short) Math.copySign(Math.min(clipped, Short.MAX_VALUE), sample);
+    }
+}
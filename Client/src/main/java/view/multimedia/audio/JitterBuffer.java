@@ -0,0 +1,361 @@
+package view.multimedia.audio;
+
+import org.jetbrains.annotations.NotNull;
+import utils.AudioUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Eine Klasse, welche die empfangenen Audioframes eines Stroms bis zu ihrer Wiedergabe zwischenspeichert.
+ * <p>
+ *     Die Audioframes werden anhand ihrer fortlaufenden Nummer in die richtige Reihenfolge gebracht. Die Wiedergabe
+ *     beginnt erst, sobald so viele Audioframes vorhanden sind, wie die aktuelle Ziellatenz vorgibt. Die Ziellatenz
+ *     wird anhand der Schwankung der Übertragungsdauer angepasst, die aus den Zeitstempeln des Senders und den
+ *     Empfangszeitpunkten ermittelt wird. Bei guten Verbindungen wird somit nur wenig gepuffert, bei schlechten
+ *     Verbindungen entsprechend mehr.
+ * </p>
+ * <p>
+ *     Fehlt bei der Wiedergabe ein Audioframe, obwohl bereits spätere Audioframes empfangen wurden, so gilt es als
+ *     verloren und wird durch das abgeschwächte vorherige Audioframe ersetzt. Trifft ein Audioframe erst nach seiner
+ *     Wiedergabe ein, so wird es verworfen.
+ * </p>
+ * <p>
+ *     Die Plätze des Puffers werden einmalig angelegt und die Samples beim Einfügen und Entnehmen kopiert, sodass
+ *     während der Wiedergabe keine Objekte erzeugt werden.
+ * </p>
+ */
+public class JitterBuffer {
+
+    /** Abspieldauer eines Audioframes in Nanosekunden. */
+    private static final long FRAME_NANOS = 1_000_000_000L / AudioUtils.FRAME_RATE;
+
+    /** Gewichtung einer neuen Messung bei der Schätzung der Schwankung der Übertragungsdauer. */
+    private static final double JITTER_GAIN = 1.0 / 16;
+
+    /** Vielfaches der Schwankung der Übertragungsdauer, das als Ziellatenz gepuffert wird. */
+    private static final double JITTER_FACTOR = 4;
+
+    /** Maximale Anzahl aufeinanderfolgender Audioframes, die durch ein vorheriges Audioframe ersetzt werden. */
+    private static final int MAX_CONCEALED_FRAMES = 3;
+
+    /** Faktor, mit dem ein ersetztes Audioframe gegenüber dem vorherigen Audioframe abgeschwächt wird. */
+    private static final float CONCEALMENT_ATTENUATION = 0.5f;
+
+    /*
+     * Weicht die Nummer eines empfangenen Audioframes um mehr als diese Anzahl an Audioframes von der erwarteten
+     * Nummer ab, so wird von einem neu begonnenen Strom ausgegangen.
+     */
+    private static final int MAX_SEQUENCE_GAP = 3 * AudioUtils.FRAME_RATE;
+
+    private final int minFrames;
+    private final int maxFrames;
+    private final short[][] frames;
+    private final int[] sequences;
+    private final boolean[] present;
+    private final short[] lastFrame;
+
+    private boolean hasLastFrame;
+    private boolean started;
+    private boolean playing;
+    private int nextSequence;
+    private int highestSequence;
+    private int concealment;
+
+    private boolean hasTransit;
+    private long lastTransit;
+    private double jitter;
+    private int targetFrames;
+
+    private long receivedFrames;
+    private long lateFrames;
+    private long lostFrames;
+    private long concealedFrames;
+    private long droppedFrames;
+    private long underruns;
+
+    /**
+     * Erzeugt eine neue Instanz des JitterBuffer.
+     * @param frameLength Anzahl der Samples eines Audioframes.
+     * @param minFrames Minimale Ziellatenz in Audioframes.
+     * @param initialFrames Ziellatenz in Audioframes, bevor die Schwankung der Übertragungsdauer bekannt ist.
+     * @param maxFrames Maximale Ziellatenz in Audioframes.
+     */
+    public JitterBuffer(final int frameLength, final int minFrames, final int initialFrames, final int maxFrames) {
+        if (frameLength < 1) {
+            throw new IllegalArgumentException("Frame length must be positive");
+        }
+        if (minFrames < 1 || initialFrames < minFrames || maxFrames < initialFrames) {
+            throw new IllegalArgumentException("Frame bounds must satisfy 1 <= min <= initial <= max");
+        }
+
+        this.minFrames = minFrames;
+        this.maxFrames = maxFrames;
+        this.frames = new short[2 * maxFrames][frameLength];
+        this.sequences = new int[this.frames.length];
+        this.present = new boolean[this.frames.length];
+        this.lastFrame = new short[frameLength];
+        this.jitter = (initialFrames - 1) * FRAME_NANOS / JITTER_FACTOR;
+        this.targetFrames = initialFrames;
+    }
+
+    /**
+     * Fügt ein empfangenes Audioframe in den Puffer ein. Die Samples werden dabei in den Puffer kopiert.
+     * @param sequence Fortlaufende Nummer des Audioframes.
+     * @param timestamp Zeitstempel des Senders.
+     * @param frame Samples des Audioframes.
+     * @param length Anzahl der gültigen Samples des Audioframes.
+     */
+    public void put(final int sequence, @NotNull final LocalDateTime timestamp, final short[] frame,
+                    final int length) {
+        put(sequence, timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + timestamp.getNano(),
+                System.nanoTime(), frame, length);
+    }
+
+    /**
+     * Fügt ein empfangenes Audioframe in den Puffer ein.
+     * @param sequence Fortlaufende Nummer des Audioframes.
+     * @param sent Sendezeitpunkt laut Zeitstempel des Senders in Nanosekunden.
+     * @param arrival Empfangszeitpunkt in Nanosekunden.
+     * @param frame Samples des Audioframes.
+     * @param length Anzahl der gültigen Samples des Audioframes.
+     */
+    synchronized void put(final int sequence, final long sent, final long arrival, final short[] frame,
+                          final int length) {
+        receivedFrames++;
+
+        // Da die Uhren von Sender und Empfänger nicht synchron sind, ist nur die Änderung der Übertragungsdauer
+        // zwischen zwei Audioframes aussagekräftig.
+        final long transit = arrival - sent;
+        if (hasTransit) {
+            jitter += (Math.abs(transit - lastTransit) - jitter) * JITTER_GAIN;
+            targetFrames = Math.max(minFrames, Math.min(maxFrames,
+                    (int) Math.ceil(JITTER_FACTOR * jitter / FRAME_NANOS) + 1));
+        }
+        lastTransit = transit;
+        hasTransit = true;
+
+        final int offset = sequence - nextSequence;
+
+        if (!started || offset < -MAX_SEQUENCE_GAP || offset > MAX_SEQUENCE_GAP) {
+            restart(sequence);
+        } else if (offset < 0) {
+            // Das Audioframe wurde bereits abgespielt oder ersetzt.
+            lateFrames++;
+            return;
+        } else if (offset >= frames.length) {
+            // Der Puffer kann das Audioframe nicht aufnehmen. Überspringe die ältesten Audioframes.
+            while (sequence - nextSequence >= frames.length) {
+                skip();
+            }
+        }
+
+        final int slot = Math.floorMod(sequence, frames.length);
+        if (present[slot] && sequences[slot] == sequence) {
+            // Das Audioframe wurde doppelt empfangen.
+            return;
+        }
+
+        // Zu kurze Audioframes werden mit Stille aufgefüllt, zu lange Audioframes abgeschnitten.
+        final int copied = Math.min(Math.max(length, 0), frames[slot].length);
+        System.arraycopy(frame, 0, frames[slot], 0, copied);
+        Arrays.fill(frames[slot], copied, frames[slot].length, (short) 0);
+        present[slot] = true;
+        sequences[slot] = sequence;
+        if (sequence - highestSequence > 0) {
+            highestSequence = sequence;
+        }
+        if (!playing && getDepth() >= targetFrames) {
+            playing = true;
+        }
+    }
+
+    /**
+     * Entnimmt das nächste abzuspielende Audioframe aus dem Puffer und kopiert dessen Samples in das übergebene Array.
+     * Fehlt das Audioframe, so wird es durch das abgeschwächte vorherige Audioframe ersetzt.
+     * @param target Array, in das die Samples des abzuspielenden Audioframes kopiert werden. Es muss mindestens so
+     * lang wie ein Audioframe sein.
+     * @return true, wenn Samples in das Array kopiert wurden, false, falls der Puffer nicht zum Abspielen bereit ist
+     * oder das fehlende Audioframe nicht ersetzt werden kann.
+     */
+    public synchronized boolean poll(final short[] target) {
+        if (!isReady()) {
+            return false;
+        }
+
+        final int slot = Math.floorMod(nextSequence, frames.length);
+        final boolean found = present[slot] && sequences[slot] == nextSequence;
+        present[slot] = false;
+        nextSequence++;
+
+        // Ist der Puffer leer, muss vor dem weiteren Abspielen erneut die Ziellatenz erreicht werden.
+        if (getDepth() <= 0) {
+            playing = false;
+            underruns++;
+        }
+
+        if (found) {
+            System.arraycopy(frames[slot], 0, lastFrame, 0, lastFrame.length);
+            System.arraycopy(frames[slot], 0, target, 0, lastFrame.length);
+            hasLastFrame = true;
+            concealment = 0;
+            return true;
+        }
+
+        lostFrames++;
+        if (!hasLastFrame || concealment >= MAX_CONCEALED_FRAMES) {
+            return false;
+        }
+
+        final float gain = (float) Math.pow(CONCEALMENT_ATTENUATION, ++concealment);
+        for (int i = 0; i < lastFrame.length; i++) {
+            target[i] = (short) (lastFrame[i] * gain);
+        }
+        concealedFrames++;
+        return true;
+    }
+
+    /**
+     * Verwirft das nächste abzuspielende Audioframe, um die Latenz zu verringern.
+     */
+    public synchronized void skip() {
+        final int slot = Math.floorMod(nextSequence, frames.length);
+        if (present[slot] && sequences[slot] == nextSequence) {
+            System.arraycopy(frames[slot], 0, lastFrame, 0, lastFrame.length);
+            hasLastFrame = true;
+        }
+        present[slot] = false;
+        nextSequence++;
+        droppedFrames++;
+
+        if (getDepth() <= 0) {
+            playing = false;
+        }
+    }
+
+    /**
+     * Verwirft alle Audioframes im Puffer. Das nächste empfangene Audioframe beginnt einen neuen Strom.
+     */
+    public synchronized void clear() {
+        Arrays.fill(present, false);
+        started = false;
+        playing = false;
+        hasLastFrame = false;
+        concealment = 0;
+    }
+
+    /**
+     * Gibt zurück, ob der Puffer bereit zum Abspielen von Audioframes ist.
+     * @return true, wenn Audioframes abgespielt werden können, sonst false.
+     */
+    public synchronized boolean isReady() {
+        return playing && getDepth() > 0;
+    }
+
+    /**
+     * Gibt die Anzahl der Audioframes zwischen dem nächsten abzuspielenden und dem neuesten empfangenen Audioframe
+     * zurück. Fehlende Audioframes werden dabei mitgezählt.
+     * @return Anzahl der gepufferten Audioframes.
+     */
+    public synchronized int getDepth() {
+        return started ? Math.max(0, highestSequence - nextSequence + 1) : 0;
+    }
+
+    /**
+     * Gibt die fortlaufende Nummer des nächsten abzuspielenden Audioframes zurück.
+     * @return Fortlaufende Nummer des nächsten Audioframes.
+     */
+    public synchronized int getNextSequence() {
+        return nextSequence;
+    }
+
+    /**
+     * Gibt die aktuelle Ziellatenz in Audioframes zurück.
+     * @return Ziellatenz in Audioframes.
+     */
+    public synchronized int getTargetFrames() {
+        return targetFrames;
+    }
+
+    /**
+     * Gibt die aktuelle Latenz des Puffers in Millisekunden zurück.
+     * @return Latenz in Millisekunden.
+     */
+    public synchronized long getLatency() {
+        return getDepth() * FRAME_NANOS / 1_000_000;
+    }
+
+    /**
+     * Gibt die geschätzte Schwankung der Übertragungsdauer in Millisekunden zurück.
+     * @return Schwankung der Übertragungsdauer in Millisekunden.
+     */
+    public synchronized double getJitter() {
+        return jitter / 1_000_000;
+    }
+
+    /**
+     * Gibt die Anzahl der empfangenen Audioframes zurück.
+     * @return Anzahl der empfangenen Audioframes.
+     */
+    public synchronized long getReceivedFrames() {
+        return receivedFrames;
+    }
+
+    /**
+     * Gibt die Anzahl der Audioframes zurück, die erst nach ihrer Wiedergabe empfangen wurden.
+     * @return Anzahl der verspäteten Audioframes.
+     */
+    public synchronized long getLateFrames() {
+        return lateFrames;
+    }
+
+    /**
+     * Gibt die Anzahl der Audioframes zurück, die zum Zeitpunkt ihrer Wiedergabe gefehlt haben.
+     * @return Anzahl der verlorenen Audioframes.
+     */
+    public synchronized long getLostFrames() {
+        return lostFrames;
+    }
+
+    /**
+     * Gibt die Anzahl der Audioframes zurück, die durch ein vorheriges Audioframe ersetzt wurden.
+     * @return Anzahl der ersetzten Audioframes.
+     */
+    public synchronized long getConcealedFrames() {
+        return concealedFrames;
+    }
+
+    /**
+     * Gibt die Anzahl der Audioframes zurück, die zur Verringerung der Latenz verworfen wurden.
+     * @return Anzahl der verworfenen Audioframes.
+     */
+    public synchronized long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    /**
+     * Gibt zurück, wie oft der Puffer während der Wiedergabe leer gelaufen ist.
+     * @return Anzahl der Unterläufe.
+     */
+    public synchronized long getUnderruns() {
+        return underruns;
+    }
+
+    @Override
+    public synchronized @NotNull String toString() {
+        return String.format("received=%d, late=%d, lost=%d, concealed=%d, dropped=%d, underruns=%d, latency=%dms, "
+                + "target=%d frames, jitter=%.1fms", receivedFrames, lateFrames, lostFrames, concealedFrames,
+                droppedFrames, underruns, getLatency(), targetFrames, getJitter());
+    }
+
+    private void restart(final int sequence) {
+        Arrays.fill(present, false);
+        started = true;
+        playing = false;
+        nextSequence = sequence;
+        highestSequence = sequence;
+        hasLastFrame = false;
+        concealment = 0;
+    }
+}
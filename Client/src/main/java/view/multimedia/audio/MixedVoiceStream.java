@@ -0,0 +1,62 @@
+package view.multimedia.audio;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Eine Klasse, welche die vom Server gemischten Sprachdaten mehrerer Sprecher repräsentiert.
+ */
+public class MixedVoiceStream extends AudioProducer {
+
+    /*
+     * Grenzen der Latenz in Audioframes, mit der die gemischten Sprachdaten abgespielt werden.
+     */
+    private static final int MIXED_VOICE_MIN_FRAMES = 2;
+    private static final int MIXED_VOICE_INITIAL_FRAMES = 4;
+    private static final int MIXED_VOICE_MAX_FRAMES = 15;
+
+    private volatile Set<UUID> speakers;
+
+    /**
+     * Erzeugt eine neue Instanz des MixedVoiceStream.
+     */
+    public MixedVoiceStream() {
+        super(MIXED_VOICE_MIN_FRAMES, MIXED_VOICE_INITIAL_FRAMES, MIXED_VOICE_MAX_FRAMES);
+        this.speakers = Set.of();
+    }
+
+    /**
+     * Fügt gemischte Sprachdaten in den Puffer hinzu.
+     * @param sequence Fortlaufende Nummer der Daten.
+     * @param timestamp Zeitstempel der Daten.
+     * @param voiceDataBlock Abzuspielende gemischte Daten.
+     * @param length Anzahl der gültigen Samples der abzuspielenden Daten.
+     * @param speakers IDs der Benutzer, deren Sprachdaten enthalten sind.
+     */
+    public void addFrame(final int sequence, @NotNull final LocalDateTime timestamp, final short[] voiceDataBlock,
+                         final int length, @NotNull final Collection<UUID> speakers) {
+        this.speakers = Set.copyOf(speakers);
+        super.addFrame(sequence, timestamp, voiceDataBlock, length);
+    }
+
+    /**
+     * Gibt zurück, ob die Sprachdaten eines Benutzers gerade in den abgespielten Daten enthalten sind.
+     * @param userId ID des zu überprüfenden Benutzers.
+     * @return true, wenn der Benutzer gerade spricht, sonst false.
+     */
+    public boolean isSpeaking(@NotNull final UUID userId) {
+        return isReady() && speakers.contains(userId);
+    }
+
+    /**
+     * Verwirft alle noch nicht abgespielten Daten.
+     */
+    public void clear() {
+        jitterBuffer.clear();
+        speakers = Set.of();
+    }
+}
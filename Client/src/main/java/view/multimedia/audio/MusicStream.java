@@ -1,10 +1,10 @@
 package view.multimedia.audio;
 
 import org.jetbrains.annotations.NotNull;
+import view.multimedia.MultimediaManager;
 
 import java.time.LocalDateTime;
-import java.util.Queue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.Arrays;
 
 /**
  * Eine Klasse, welche den Stream abzuspielender Musikdaten repräsentiert.
@@ -12,14 +12,28 @@ import java.util.concurrent.LinkedBlockingQueue;
 public class MusicStream extends AudioProducer {
 
     /*
-     * Beginne erst mit dem Abspielen von AudioDaten, wenn mindestens Daten für eine Abspieldauer von STARTING_DELAY in
-     * Sekunden vorhanden sind. Dies führt zu einer kleinen Verzögerung, verhindert aber, dass sich bei einem
-     * verspäteten Paket der Puffer direkt leert und das Abspielen der Daten unterbrochen wird.
+     * Grenzen der Latenz in Audioframes, mit der die Musikdaten abgespielt werden. Bei Musik ist eine höhere Latenz
+     * unproblematisch, dafür soll das Abspielen möglichst nicht unterbrochen werden.
      */
-    private static final float MUSIC_STARTING_DELAY = 1;
+    private static final int MUSIC_MIN_FRAMES = 10;
+    private static final int MUSIC_INITIAL_FRAMES = 30;
+    private static final int MUSIC_MAX_FRAMES = 60;
 
-    private final Queue<Float> positionQueue;
-    private final Queue<Integer> secondsQueue;
+    /*
+     * Die aufbereiteten Samples werden in einem Ringpuffer gehalten. Da vor dem Aufbereiten eines weiteren
+     * Audioframes weniger als ein Block enthalten ist und ein Audioframe höchstens einen Block ergibt, genügt die
+     * doppelte Blockgröße.
+     */
+    private static final int PLAYBACK_CAPACITY = 2 * MultimediaManager.AUDIO_BLOCK_SIZE;
+
+    private final short[] frame;
+    private final short[] playbackSamples;
+    private int playbackStart;
+    private int playbackSize;
+
+    private final int[] positionSequences;
+    private final float[] positions;
+    private final int[] seconds;
 
     private float currentPosition;
     private int currentSeconds;
@@ -28,57 +42,89 @@ public class MusicStream extends AudioProducer {
      * Erzeugt eine neue Instanz des MusicStream.
      */
     public MusicStream() {
-        super(MUSIC_STARTING_DELAY);
-        this.positionQueue = new LinkedBlockingQueue<>();
-        this.secondsQueue = new LinkedBlockingQueue<>();
+        super(MUSIC_MIN_FRAMES, MUSIC_INITIAL_FRAMES, MUSIC_MAX_FRAMES);
+        this.frame = new short[MultimediaManager.AUDIO_BLOCK_SIZE];
+        this.playbackSamples = new short[PLAYBACK_CAPACITY];
+        this.positionSequences = new int[2 * MUSIC_MAX_FRAMES];
+        this.positions = new float[this.positionSequences.length];
+        this.seconds = new int[this.positionSequences.length];
         this.currentPosition = 0;
         this.currentSeconds = 0;
     }
 
     /**
-     * Fügt abzuspielende Daten in die Warteschlange des MusicStream hinzu.
+     * Fügt abzuspielende Daten in den Puffer des MusicStream hinzu.
+     * @param sequence Fortlaufende Nummer der abzuspielenden Daten.
      * @param timestamp Zeitstempel der abzuspielenden Daten.
-     * @param musicDataBlock Abzuspielende Daten.
+     * @param musicDataBlock Abzuspielende Daten. Die Daten werden in den Puffer kopiert.
+     * @param length Anzahl der gültigen Samples der abzuspielenden Daten.
      * @param position Aktuelle Position in zusammenhängenden Daten.
      * @param seconds Aktuelle Sekunde in zusammenhängenden Daten.
      */
-    public void addAudioDataBlock(@NotNull final LocalDateTime timestamp, final short[] musicDataBlock,
-                                  final float position, final int seconds) {
-        int sizeBefore = queueSizeInFrames();
-        this.addFrame(timestamp, musicDataBlock);
-        int sizeAfter = queueSizeInFrames();
-        int difference = sizeAfter - sizeBefore;
-        for (int i = 0; i < difference; i++) {
-            this.positionQueue.add(position);
-            this.secondsQueue.add(seconds);
+    public void addAudioDataBlock(final int sequence, @NotNull final LocalDateTime timestamp,
+                                  final short[] musicDataBlock, final int length, final float position,
+                                  final int seconds) {
+        synchronized (this) {
+            final int slot = Math.floorMod(sequence, positionSequences.length);
+            this.positionSequences[slot] = sequence;
+            this.positions[slot] = position;
+            this.seconds[slot] = seconds;
         }
+        this.addFrame(sequence, timestamp, musicDataBlock, length);
     }
 
     @Override
-    public void addFrame(@NotNull final LocalDateTime timestamp, final short[] musicDataBlock) {
-        /*
-         * Der Server liefert die Streamingdaten ggf. mit einer leicht abweichenden Geschwindigkeit, als sie vom Client
-         * abgespielt werden. In diesem Fall wird die Geschwindigkeit des Abspielens von Musikdaten leicht angepasst, um
-         * einen leeren oder unendlich steigenden Puffer zu vermeiden.
-         */
-        float slowDownRate = -queueSizeInFrames() / 448f + 1;
-
-        float numPlaybackSample = 0;
-        for (short musicData : musicDataBlock) {
-            numPlaybackSample += slowDownRate;
-            for (int i = (int) numPlaybackSample; i > 0; i--) {
-                receivedDataQueue.add(musicData);
-                numPlaybackSample--;
+    public synchronized boolean readFrame(final short[] target) {
+        while (playbackSize < MultimediaManager.AUDIO_BLOCK_SIZE && jitterBuffer.isReady()) {
+            // Fehlende Daten, die nicht ersetzt werden konnten, werden als Stille abgespielt.
+            if (!jitterBuffer.poll(frame)) {
+                Arrays.fill(frame, (short) 0);
+            }
+            updatePosition(jitterBuffer.getNextSequence() - 1);
+
+            /*
+             * Der Server liefert die Streamingdaten ggf. mit einer leicht abweichenden Geschwindigkeit, als sie vom
+             * Client abgespielt werden. In diesem Fall wird die Geschwindigkeit des Abspielens von Musikdaten leicht
+             * angepasst, um einen leeren oder unendlich steigenden Puffer zu vermeiden.
+             */
+            float slowDownRate = -queueSizeInFrames() / 448f + 1;
+
+            float numPlaybackSample = 0;
+            for (final short musicData : frame) {
+                numPlaybackSample += slowDownRate;
+                for (int j = (int) numPlaybackSample; j > 0; j--) {
+                    playbackSamples[(playbackStart + playbackSize++) % PLAYBACK_CAPACITY] = musicData;
+                    numPlaybackSample--;
+                }
+            }
+        }
+
+        if (playbackSize == 0) {
+            if (!jitterBuffer.isReady()) {
+                currentPosition = 0;
+                currentSeconds = 0;
             }
+            return false;
+        }
+
+        final int length = Math.min(playbackSize, MultimediaManager.AUDIO_BLOCK_SIZE);
+        for (int i = 0; i < length; i++) {
+            target[i] = playbackSamples[(playbackStart + i) % PLAYBACK_CAPACITY];
         }
-        super.addFrame(timestamp, musicDataBlock);
+        Arrays.fill(target, length, MultimediaManager.AUDIO_BLOCK_SIZE, (short) 0);
+        playbackStart = (playbackStart + length) % PLAYBACK_CAPACITY;
+        playbackSize -= length;
+        return true;
     }
 
     @Override
-    public short[] getNextFrame() {
-        this.currentPosition = !positionQueue.isEmpty() ? positionQueue.poll() : (hasData() ? currentPosition : 0);
-        this.currentSeconds = !secondsQueue.isEmpty() ? secondsQueue.poll() : (hasData() ? currentSeconds : 0);
-        return super.getNextFrame();
+    public synchronized boolean hasData() {
+        return playbackSize > 0 || super.hasData();
+    }
+
+    @Override
+    public synchronized boolean isReady() {
+        return playbackSize >= MultimediaManager.AUDIO_BLOCK_SIZE || super.isReady();
     }
 
     /**
@@ -98,14 +144,34 @@ public class MusicStream extends AudioProducer {
     }
 
     /**
-     * Leert den Queue der Musikdaten.
+     * Leert den Puffer der Musikdaten.
      */
-    public void stop() {
-        ready = false;
-        receivedDataQueue.clear();
-        positionQueue.clear();
-        secondsQueue.clear();
+    public synchronized void stop() {
+        jitterBuffer.clear();
+        playbackStart = 0;
+        playbackSize = 0;
         currentPosition = 0;
         currentSeconds = 0;
     }
+
+    /**
+     * Setzt die Position im Musikstück auf die der zuletzt abgespielten Daten. Wurden die Daten ersetzt, so bleibt die
+     * Position der davor abgespielten Daten erhalten.
+     * @param sequence Fortlaufende Nummer der zuletzt abgespielten Daten.
+     */
+    private void updatePosition(final int sequence) {
+        final int slot = Math.floorMod(sequence, positionSequences.length);
+        if (positionSequences[slot] == sequence) {
+            currentPosition = positions[slot];
+            currentSeconds = seconds[slot];
+        }
+    }
+
+    /**
+     * Gibt die Anzahl der gepufferten Audioframes einschließlich der bereits zum Abspielen aufbereiteten Daten zurück.
+     * @return Anzahl der gepufferten Audioframes.
+     */
+    private int queueSizeInFrames() {
+        return jitterBuffer.getDepth() + playbackSize / MultimediaManager.AUDIO_BLOCK_SIZE;
+    }
 }
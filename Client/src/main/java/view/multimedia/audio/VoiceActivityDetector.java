@@ -0,0 +1,107 @@
+package view.multimedia.audio;
+
+/**
+ * Eine Klasse, welche anhand der Energie der aufgenommenen Audioframes erkennt, ob gerade gesprochen wird.
+ * <p>
+ *     Für jedes Audioframe wird der Effektivwert der Samples berechnet. Überschreitet dieser sowohl die durch die
+ *     Mikrofonempfindlichkeit vorgegebene Schwelle als auch ein Vielfaches des geschätzten Hintergrundrauschens, so
+ *     enthält das Audioframe Sprache. Das Hintergrundrauschen wird während der Stille fortlaufend geschätzt, sodass
+ *     gleichmäßige Geräusche wie Lüfter nicht als Sprache erkannt werden.
+ * </p>
+ * <p>
+ *     Nach dem letzten Audioframe mit Sprache gilt für eine gewisse Anzahl an Audioframes weiterhin Sprache als
+ *     erkannt, damit leise Silbenenden und kurze Pausen zwischen Wörtern nicht abgeschnitten werden.
+ * </p>
+ */
+public class VoiceActivityDetector {
+
+    /** Faktor, um den die Energie eines Audioframes das Hintergrundrauschen übersteigen muss. */
+    private static final float NOISE_FACTOR = 3;
+
+    /** Gewichtung einer neuen Messung bei der Schätzung des Hintergrundrauschens. */
+    private static final float NOISE_ADAPTATION = 0.05f;
+
+    /** Geringster angenommener Effektivwert des Hintergrundrauschens. */
+    private static final float MIN_NOISE_FLOOR = 16;
+
+    private final int hangoverFrames;
+    private float threshold;
+    private float noiseFloor;
+    private float energy;
+    private int hangover;
+
+    /**
+     * Erzeugt eine neue Instanz des VoiceActivityDetector.
+     * @param hangoverFrames Anzahl an Audioframes, für die nach dem Ende der Sprache weiterhin Sprache erkannt wird.
+     */
+    public VoiceActivityDetector(final int hangoverFrames) {
+        if (hangoverFrames < 0) {
+            throw new IllegalArgumentException("Hangover must not be negative");
+        }
+        this.hangoverFrames = hangoverFrames;
+        this.noiseFloor = MIN_NOISE_FLOOR;
+    }
+
+    /**
+     * Verarbeitet ein aufgenommenes Audioframe und gibt zurück, ob es gesendet werden soll.
+     * @param frame Samples des Audioframes.
+     * @return true, wenn in dem Audioframe gesprochen wird oder die Sprache erst vor Kurzem geendet hat, sonst false.
+     */
+    public boolean process(final short[] frame) {
+        double sum = 0;
+        for (final short sample : frame) {
+            sum += sample * sample;
+        }
+        energy = frame.length > 0 ? (float) Math.sqrt(sum / frame.length) : 0;
+
+        final boolean speech = threshold <= 0 || (energy >= threshold && energy >= NOISE_FACTOR * noiseFloor);
+        if (speech) {
+            hangover = hangoverFrames;
+            return true;
+        }
+
+        // Das Hintergrundrauschen wird nur außerhalb von Sprache geschätzt. Leisere Audioframes werden sofort
+        // übernommen, damit die Schätzung nach lauten Geräuschen schnell wieder sinkt.
+        noiseFloor = energy < noiseFloor ? Math.max(MIN_NOISE_FLOOR, energy)
+                : noiseFloor + (energy - noiseFloor) * NOISE_ADAPTATION;
+
+        if (hangover > 0) {
+            hangover--;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Setzt die Schwelle, die der Effektivwert eines Audioframes mindestens erreichen muss, damit Sprache erkannt wird.
+     * Bei einer Schwelle von 0 wird jedes Audioframe gesendet.
+     * @param threshold Schwelle des Effektivwerts.
+     */
+    public void setThreshold(final float threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Gibt den Effektivwert des zuletzt verarbeiteten Audioframes zurück.
+     * @return Effektivwert des letzten Audioframes.
+     */
+    public float getEnergy() {
+        return energy;
+    }
+
+    /**
+     * Gibt den geschätzten Effektivwert des Hintergrundrauschens zurück.
+     * @return Effektivwert des Hintergrundrauschens.
+     */
+    public float getNoiseFloor() {
+        return noiseFloor;
+    }
+
+    /**
+     * Setzt die Erkennung zurück, etwa wenn die Aufnahme unterbrochen wurde.
+     */
+    public void reset() {
+        hangover = 0;
+        noiseFloor = MIN_NOISE_FLOOR;
+    }
+}
@@ -11,40 +11,50 @@ import java.time.LocalDateTime;
 public class VoiceChatUser extends AudioProducer {
 
     /*
-     * Beginne erst mit dem Abspielen von AudioDaten, wenn mindestens Daten für eine Abspieldauer von STARTING_DELAY in
-     * Sekunden vorhanden sind. Dies führt zu einer kleinen Verzögerung, verhindert aber, dass sich bei einem
-     * verspäteten Paket der Puffer direkt leert und das Abspielen der Daten unterbrochen wird.
+     * Grenzen der Latenz in Audioframes, mit der die Sprachdaten abgespielt werden. Zu Beginn wird mit einer geringen
+     * Latenz abgespielt, die bei einer schwankenden Übertragungsdauer erhöht wird.
      */
-    private static final float VOICE_STARTING_DELAY = 0.25f;
+    private static final int VOICE_MIN_FRAMES = 2;
+    private static final int VOICE_INITIAL_FRAMES = 4;
+    private static final int VOICE_MAX_FRAMES = 15;
+
+    /*
+     * Dauer in Sekunden, für die der Sender nach dem letzten Empfang von Sprachdaten erhalten bleibt, damit die
+     * geschätzte Schwankung der Übertragungsdauer bei kurzen Sprechpausen nicht verloren geht.
+     */
+    private static final float VOICE_TIMEOUT = 1;
 
     private final IUserView sender;
+    private long lastArrival;
 
     /**
      * Erzeugt eine neue Instanz des VoiceChatUser.
      * @param sender Sendender Benutzer.
+     * @param sequence Fortlaufende Nummer der Daten.
      * @param timestamp Zeitstempel der Daten.
      * @param voiceDataBlock Abzuspielende Daten.
+     * @param length Anzahl der gültigen Samples der abzuspielenden Daten.
      */
-    public VoiceChatUser(@NotNull final IUserView sender, @NotNull final LocalDateTime timestamp, final short[] voiceDataBlock) {
-        super(VOICE_STARTING_DELAY);
+    public VoiceChatUser(@NotNull final IUserView sender, final int sequence, @NotNull final LocalDateTime timestamp,
+                         final short[] voiceDataBlock, final int length) {
+        super(VOICE_MIN_FRAMES, VOICE_INITIAL_FRAMES, VOICE_MAX_FRAMES);
         this.sender = sender;
-        addFrame(timestamp, voiceDataBlock);
+        addFrame(sequence, timestamp, voiceDataBlock, length);
     }
 
     @Override
-    public void addFrame(@NotNull final LocalDateTime timestamp, final short[] voiceDataBlock) {
-        for (short sample : voiceDataBlock) {
-            receivedDataQueue.add(sample);
-        }
-        super.addFrame(timestamp, voiceDataBlock);
+    public void addFrame(final int sequence, @NotNull final LocalDateTime timestamp, final short[] voiceDataBlock,
+                         final int length) {
+        this.lastArrival = System.nanoTime();
+        super.addFrame(sequence, timestamp, voiceDataBlock, length);
     }
 
     /**
-     * Gibt zurück, ob der Benutzer gerade spricht.
-     * @return true, wenn der Benutzer gerade spricht, sonst false.
+     * Gibt zurück, ob Sprachdaten des Benutzers abgespielt werden oder in Kürze erwartet werden.
+     * @return true, wenn der Benutzer gerade spricht oder eine kurze Sprechpause macht, sonst false.
      */
     public boolean isActive() {
-        return hasData() && sender.canTalk();
+        return (hasData() || System.nanoTime() - lastArrival < VOICE_TIMEOUT * 1_000_000_000L) && sender.canTalk();
     }
 
     /**
@@ -3,6 +3,8 @@ package view.multimedia.audio;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.audio.AudioRecorder;
 import com.badlogic.gdx.utils.Disposable;
+import org.jetbrains.annotations.NotNull;
+import utils.AudioCodec;
 import utils.AudioUtils;
 import controller.network.ServerSender;
 import view.Chati;
@@ -13,16 +15,29 @@ import java.util.Queue;
 
 /**
  * Eine Klasse, durch welche das Aufnehmen und Senden von Sprachdaten realisiert wird.
+ * <p>
+ *     Es werden nur Audioframes gesendet, in denen gesprochen wird. Wird Sprache erkannt, so werden zusätzlich die
+ *     kurz zuvor aufgenommenen Audioframes gesendet, damit der Anfang eines Sprachabschnitts nicht abgeschnitten wird.
+ *     Am Ende eines Sprachabschnitts wird eine Stillemarkierung gesendet.
+ * </p>
  */
 public class VoiceRecorder implements Runnable, Disposable {
 
     private static final float LOOK_AHEAD = 0.15f; // in Sekunden
     private static final int MAX_FRAMES = (int) (LOOK_AHEAD * AudioUtils.FRAME_RATE);
     private static final float STOP_SENDING_DELAY = 0.3f; // in Sekunden
+    private static final int HANGOVER_FRAMES = (int) (STOP_SENDING_DELAY * AudioUtils.FRAME_RATE);
+
+    /*
+     * Verhältnis zwischen dem Spitzenwert und dem Effektivwert gesprochener Sprache, mit dem das Gate der
+     * Mikrofonempfindlichkeit in eine Schwelle des Effektivwerts umgerechnet wird.
+     */
+    private static final float SPEECH_CREST_FACTOR = 4;
 
     private final AudioRecorder recorder;
     private final Queue<short[]> sendDataQueue;
-    private float sendGate;
+    private final VoiceActivityDetector detector;
+    private volatile AudioCodec codec;
     private boolean isRunning;
     private boolean isRecording;
     private boolean isSending;
@@ -33,18 +48,22 @@ public class VoiceRecorder implements Runnable, Disposable {
     public VoiceRecorder() {
         this.recorder = Gdx.audio.newAudioRecorder(AudioUtils.SAMPLING_RATE, AudioUtils.MONO);
         this.sendDataQueue = new LinkedList<>();
+        this.detector = new VoiceActivityDetector(HANGOVER_FRAMES);
+        this.codec = AudioCodec.PCM;
     }
 
     @Override
     public void run() {
-        long timestamp = System.currentTimeMillis();
-
         outer:
         while (isRunning) {
             synchronized (this) {
                 // Warte, solange nicht gesendet werden soll.
                 while (!isRecording) {
-                    isSending = false;
+                    if (isSending) {
+                        stopSending();
+                    }
+                    sendDataQueue.clear();
+                    detector.reset();
                     if (!isRunning) {
                         break outer;
                     }
@@ -63,27 +82,22 @@ public class VoiceRecorder implements Runnable, Disposable {
                 sendDataQueue.poll();
             }
 
-            // Überprüfe ob Lautstärke eines Samples gewissen Wert überschreitet, sende dann alle Pakete im Sendepuffer
-            // und setze Zeitstempel. Sende ab diesem Zeitpunkt mindestens für eine gewisse Dauer weiter, bevor das
-            // Senden gestoppt wird. Dadurch wird ein Dauersenden verhindert, ohne am Ende "abgehackt" zu werden.
-            for (short sample : recordedData) {
-                if (Math.abs(sample) >= sendGate) {
-                    timestamp = System.currentTimeMillis();
-                    break;
-                }
-            }
-            if (System.currentTimeMillis() - timestamp < 1000 * STOP_SENDING_DELAY) {
+            // Wird gesprochen, so sende alle Pakete im Sendepuffer. Nach dem Ende der Sprache wird noch für eine
+            // gewisse Dauer weitergesendet, damit der Sprachabschnitt am Ende nicht "abgehackt" wird.
+            if (detector.process(recordedData)) {
                 short[] sendData = sendDataQueue.poll();
                 while (sendData != null) {
-                    Chati.CHATI.send(ServerSender.SendAction.VOICE, AudioUtils.toByte(sendData, true));
+                    Chati.CHATI.send(ServerSender.SendAction.VOICE, codec.encode(sendData));
                     sendData = sendDataQueue.poll();
                 }
                 isSending = true;
-            } else {
-                isSending = false;
+            } else if (isSending) {
+                stopSending();
             }
         }
-        isSending = false;
+        if (isSending) {
+            stopSending();
+        }
     }
 
     /**
@@ -152,6 +166,22 @@ public class VoiceRecorder implements Runnable, Disposable {
         recorder.dispose();
     }
 
+    /**
+     * Setzt das Verfahren, mit dem die Sprachdaten vor dem Senden kodiert werden.
+     * @param codec Zu verwendendes Verfahren.
+     */
+    public void setCodec(@NotNull final AudioCodec codec) {
+        this.codec = codec;
+    }
+
+    /**
+     * Beendet den aktuellen Sprachabschnitt und sendet eine Stillemarkierung.
+     */
+    private void stopSending() {
+        isSending = false;
+        Chati.CHATI.send(ServerSender.SendAction.VOICE, new byte[0], true);
+    }
+
     /**
      * Setzt das Gate zum Senden von Sprachdaten anhand der Mikrofonempfindlichkeit.
      * @param microphoneSensitivity Mikrofonempfindlichkeit zwischen 0 und 1.
@@ -168,7 +198,8 @@ public class VoiceRecorder implements Runnable, Disposable {
          *   geeignet herausgestellt, um normale Gesprächslautstärke aufzunehmen.
          */
         double a = 32847;
-        this.sendGate = (float) (a * Math.pow((a - Short.MAX_VALUE + 1) / a, microphoneSensitivity)
+        float sendGate = (float) (a * Math.pow((a - Short.MAX_VALUE + 1) / a, microphoneSensitivity)
                 + Short.MAX_VALUE + 1 - a);
+        detector.setThreshold(sendGate > Short.MAX_VALUE ? Float.POSITIVE_INFINITY : sendGate / SPEECH_CREST_FACTOR);
     }
 }
@@ -2,8 +2,6 @@ package view.multimedia.video;
 
 import com.github.sarxos.webcam.Webcam;
 import com.github.sarxos.webcam.WebcamException;
-import utils.VideoUtils;
-import controller.network.ServerSender;
 import view.Chati;
 
 import java.awt.*;
@@ -21,6 +19,13 @@ public class CameraRecorder extends VideoRecorder {
 
     private Webcam webcam;
 
+    /**
+     * Erzeugt eine neue Instanz des CameraRecorder.
+     */
+    public CameraRecorder() {
+        super(COMPRESSION_QUALITIY);
+    }
+
     @Override
     public void start() {
         if (webcam != null && webcam.isOpen()) {
@@ -64,8 +69,8 @@ public class CameraRecorder extends VideoRecorder {
                 deltaTime = System.currentTimeMillis() - now;
                 now = System.currentTimeMillis();
                 timer += deltaTime;
-                if (timer < 1000 / MAX_FPS) {
-                    Thread.sleep(1000 / MAX_FPS - timer);
+                if (timer < getFrameInterval()) {
+                    Thread.sleep(getFrameInterval() - timer);
                     continue;
                 }
                 timer = 0;
@@ -76,10 +81,7 @@ public class CameraRecorder extends VideoRecorder {
             BufferedImage webcamImage = webcam.getImage();
             if (webcamImage != null) {
                 Chati.CHATI.getMultimediaManager().receiveVideoFrame(webcamImage, false);
-                byte[] compressedData = VideoUtils.compress(webcamImage, COMPRESSION_QUALITIY, MAX_DATA_SIZE);
-                if (compressedData.length != 0 && compressedData.length <= MAX_DATA_SIZE) {
-                    Chati.CHATI.send(ServerSender.SendAction.VIDEO, false, compressedData);
-                }
+                send(webcamImage, false);
             }
         }
 
@@ -1,6 +1,7 @@
 package view.multimedia.video;
 
 import controller.network.ServerSender;
+import org.jetbrains.annotations.NotNull;
 import utils.VideoUtils;
 import view.Chati;
 
@@ -17,8 +18,23 @@ public class ScreenRecorder extends VideoRecorder {
     public static final int FRAME_HEIGHT = 480;
     private static final float COMPRESSION_QUALITIY = 0.25f;
 
+    private final ScreenTileEncoder tileEncoder;
     private Robot robot;
 
+    /**
+     * Erzeugt eine neue Instanz des ScreenRecorder.
+     */
+    public ScreenRecorder() {
+        super(COMPRESSION_QUALITIY);
+        this.tileEncoder = new ScreenTileEncoder();
+    }
+
+    @Override
+    public synchronized void startRecording() {
+        tileEncoder.requestKeyframe();
+        super.startRecording();
+    }
+
     @Override
     public void start() {
         if (robot != null) {
@@ -55,8 +71,8 @@ public class ScreenRecorder extends VideoRecorder {
                 deltaTime = System.currentTimeMillis() - now;
                 now = System.currentTimeMillis();
                 timer += deltaTime;
-                if (timer < 1000 / MAX_FPS) {
-                    Thread.sleep(1000 / MAX_FPS - timer);
+                if (timer < getFrameInterval()) {
+                    Thread.sleep(getFrameInterval() - timer);
                     continue;
                 }
                 timer = 0;
@@ -68,10 +84,7 @@ public class ScreenRecorder extends VideoRecorder {
             if (screenshot != null) {
                 BufferedImage scaledScreenshot = VideoUtils.scaleImage(screenshot, FRAME_WIDTH, FRAME_HEIGHT);
                 Chati.CHATI.getMultimediaManager().receiveVideoFrame(scaledScreenshot, true);
-                byte[] compressedData = VideoUtils.compress(scaledScreenshot, COMPRESSION_QUALITIY, MAX_DATA_SIZE);
-                if (compressedData.length != 0 && compressedData.length <= MAX_DATA_SIZE) {
-                    Chati.CHATI.send(ServerSender.SendAction.VIDEO, true, compressedData);
-                }
+                sendTiles(scaledScreenshot);
             }
         }
 
@@ -80,6 +93,32 @@ public class ScreenRecorder extends VideoRecorder {
         robot = null;
     }
 
+    /**
+     * Sendet die seit dem letzten Frame veränderten Kacheln einer Bildschirmaufnahme. Die Qualität wird dabei wie bei
+     * vollständigen Frames von der Regelung anhand der Größe des zu komprimierenden Bildes vorgegeben.
+     * @param frame Aufgenommene Bildschirmaufnahme.
+     */
+    private void sendTiles(@NotNull final BufferedImage frame) {
+        final long start = System.nanoTime();
+        final ScreenTileEncoder.TileFrame tileFrame = tileEncoder.next(scale(frame));
+        if (tileFrame == null) {
+            // Es hat sich keine Kachel verändert.
+            return;
+        }
+
+        final int width = tileFrame.getImage().getWidth();
+        final int height = tileFrame.getImage().getHeight();
+        final float quality = rateController.nextQuality(width, height);
+        final byte[] compressedData = VideoUtils.compress(tileFrame.getImage(), quality);
+        if (rateController.update(width, height, quality, compressedData.length, System.nanoTime() - start)) {
+            Chati.CHATI.send(ServerSender.SendAction.VIDEO_TILES, tileFrame.isKeyframe(), tileFrame.getSequence(),
+                    tileFrame.getTiles(), compressedData);
+        } else {
+            // Die Empfänger kennen die Kacheln des verworfenen Frames nicht.
+            tileEncoder.requestKeyframe();
+        }
+    }
+
     @Override
     public boolean isRunning() {
         return super.isRunning() && robot != null;
@@ -0,0 +1,79 @@
+package view.multimedia.video;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import utils.VideoUtils;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Eine Klasse, welche die von einem {@link ScreenTileEncoder} erzeugten Frames eines Senders wieder zu vollständigen
+ * Bildschirmaufnahmen zusammensetzt.
+ * <p>
+ *     Die Kacheln eines Frames werden in das zuletzt zusammengesetzte Bild übernommen. Fehlt ein Frame, so werden alle
+ *     folgenden Frames bis zum nächsten Schlüsselframe verworfen, da das Bild sonst veraltete Kacheln enthalten würde.
+ * </p>
+ */
+public class ScreenTileDecoder {
+
+    private BufferedImage canvas;
+    private int columns;
+    private int expectedSequence;
+
+    /**
+     * Setzt ein erhaltenes Frame mit dem zuletzt zusammengesetzten Bild zusammen.
+     * @param keyframe true, wenn das Frame die vollständige Bildschirmaufnahme enthält, sonst false.
+     * @param sequence Fortlaufende Nummer des Frames.
+     * @param tiles Indizes der enthaltenen Kacheln.
+     * @param tileData Daten des Bildes, das die enthaltenen Kacheln beinhaltet.
+     * @return Zusammengesetzte Bildschirmaufnahme, oder null, falls das Frame nicht angezeigt werden kann. Das Bild
+     * wird vom nächsten Frame überschrieben.
+     */
+    public synchronized @Nullable BufferedImage decode(final boolean keyframe, final int sequence, final int[] tiles,
+                                                       final byte[] tileData) {
+        if (!keyframe && (canvas == null || sequence != expectedSequence)) {
+            // Ein Frame fehlt oder wurde in falscher Reihenfolge erhalten. Warte auf das nächste Schlüsselframe.
+            canvas = null;
+            return null;
+        }
+
+        final BufferedImage image = VideoUtils.read(tileData);
+        if (image == null) {
+            canvas = null;
+            return null;
+        }
+
+        if (keyframe) {
+            canvas = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_3BYTE_BGR);
+            columns = (canvas.getWidth() + VideoUtils.TILE_SIZE - 1) / VideoUtils.TILE_SIZE;
+            final Graphics2D graphics = canvas.createGraphics();
+            graphics.drawImage(image, 0, 0, null);
+            graphics.dispose();
+        } else {
+            final int atlasColumns = image.getWidth() / VideoUtils.TILE_SIZE;
+            final int rows = (canvas.getHeight() + VideoUtils.TILE_SIZE - 1) / VideoUtils.TILE_SIZE;
+            if (tiles.length == 0 || atlasColumns == 0 || tiles[tiles.length - 1] >= columns * rows
+                    || (tiles.length + atlasColumns - 1) / atlasColumns * VideoUtils.TILE_SIZE > image.getHeight()) {
+                canvas = null;
+                return null;
+            }
+
+            final Graphics2D graphics = canvas.createGraphics();
+            for (int i = 0; i < tiles.length; i++) {
+                final int x = (tiles[i] % columns) * VideoUtils.TILE_SIZE;
+                final int y = (tiles[i] / columns) * VideoUtils.TILE_SIZE;
+                final int sourceX = (i % atlasColumns) * VideoUtils.TILE_SIZE;
+                final int sourceY = (i / atlasColumns) * VideoUtils.TILE_SIZE;
+                final int width = Math.min(VideoUtils.TILE_SIZE, canvas.getWidth() - x);
+                final int height = Math.min(VideoUtils.TILE_SIZE, canvas.getHeight() - y);
+                graphics.drawImage(image, x, y, x + width, y + height, sourceX, sourceY, sourceX + width,
+                        sourceY + height, null);
+            }
+            graphics.dispose();
+        }
+
+        expectedSequence = sequence + 1;
+        return canvas;
+    }
+}
@@ -0,0 +1,242 @@
+package view.multimedia.video;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import utils.VideoUtils;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Eine Klasse, welche Bildschirmaufnahmen in Kacheln zerlegt und nur die seit dem letzten Frame veränderten Kacheln
+ * zum Senden bereitstellt.
+ * <p>
+ *     Jede Kachel wird über ihre Bildpunkte gehasht. Die Kacheln, deren Hash sich verändert hat, werden zeilenweise in
+ *     ein gemeinsames Bild gelegt, welches anschließend einmalig komprimiert wird. Hat sich keine Kachel verändert, so
+ *     wird nichts gesendet.
+ * </p>
+ * <p>
+ *     Da Frames ohne Rückmeldung der Empfänger über UDP versendet werden, wird regelmäßig ein Schlüsselframe mit der
+ *     vollständigen Bildschirmaufnahme gesendet, an dem sich neu hinzukommende Empfänger und Empfänger nach einem
+ *     verlorenen Frame wieder ausrichten können. Ebenso wird ein Schlüsselframe gesendet, wenn sich die Auflösung
+ *     geändert hat oder so viele Kacheln verändert sind, dass das vollständige Bild nicht größer wäre.
+ * </p>
+ */
+public class ScreenTileEncoder {
+
+    /** Zeit zwischen zwei Schlüsselframes in Sekunden. */
+    private static final int KEYFRAME_INTERVAL = 2;
+
+    /** Anteil veränderter Kacheln, ab dem statt der Kacheln ein Schlüsselframe gesendet wird. */
+    private static final float KEYFRAME_RATIO = 0.6f;
+
+    private final LongSupplier clock;
+
+    private long[] hashes;
+    private int width;
+    private int height;
+    private int columns;
+    private int sequence;
+    private long lastKeyframe;
+    private boolean keyframeRequested;
+
+    /**
+     * Erzeugt eine neue Instanz des ScreenTileEncoder.
+     */
+    public ScreenTileEncoder() {
+        this(System::nanoTime);
+    }
+
+    /**
+     * Erzeugt eine neue Instanz des ScreenTileEncoder mit einer vorgegebenen Uhr.
+     * @param clock Uhr, welche die aktuelle Zeit in Nanosekunden liefert.
+     */
+    ScreenTileEncoder(@NotNull final LongSupplier clock) {
+        this.clock = clock;
+        this.keyframeRequested = true;
+    }
+
+    /**
+     * Veranlasst, dass als nächstes ein Schlüsselframe gesendet wird. Muss aufgerufen werden, wenn ein erzeugtes Frame
+     * nicht gesendet wurde, da die Empfänger sonst nicht den Stand des Encoders kennen.
+     */
+    public synchronized void requestKeyframe() {
+        keyframeRequested = true;
+    }
+
+    /**
+     * Ermittelt die seit dem letzten Aufruf veränderten Kacheln einer Bildschirmaufnahme.
+     * @param frame Aufgenommenes Frame.
+     * @return Zu sendendes Frame, oder null, falls sich keine Kachel verändert hat.
+     */
+    public synchronized @Nullable TileFrame next(@NotNull final BufferedImage frame) {
+        final BufferedImage image = toBGR(frame);
+        final long now = clock.getAsLong();
+
+        boolean keyframe = keyframeRequested || image.getWidth() != width || image.getHeight() != height
+                || now - lastKeyframe >= TimeUnit.SECONDS.toNanos(KEYFRAME_INTERVAL);
+        if (image.getWidth() != width || image.getHeight() != height) {
+            width = image.getWidth();
+            height = image.getHeight();
+            columns = (width + VideoUtils.TILE_SIZE - 1) / VideoUtils.TILE_SIZE;
+            final int rows = (height + VideoUtils.TILE_SIZE - 1) / VideoUtils.TILE_SIZE;
+            hashes = new long[columns * rows];
+        }
+
+        // Ermittle die veränderten Kacheln und merke die neuen Hashes.
+        final byte[] data = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        final int[] changed = new int[hashes.length];
+        int count = 0;
+        for (int tile = 0; tile < hashes.length; tile++) {
+            final long hash = hash(data, tile);
+            if (hash != hashes[tile]) {
+                hashes[tile] = hash;
+                changed[count++] = tile;
+            }
+        }
+
+        if (!keyframe && count == 0) {
+            return null;
+        }
+
+        if (keyframe || count > KEYFRAME_RATIO * hashes.length) {
+            keyframeRequested = false;
+            lastKeyframe = now;
+            return new TileFrame(true, sequence++, new int[0], image);
+        }
+
+        final int[] tiles = Arrays.copyOf(changed, count);
+        return new TileFrame(false, sequence++, tiles, atlas(image, tiles));
+    }
+
+    /**
+     * Berechnet einen 64-Bit Hash über die Bildpunkte einer Kachel.
+     * @param data BGR-Daten des Frames.
+     * @param tile Index der Kachel.
+     * @return Hash der Kachel.
+     */
+    private long hash(final byte[] data, final int tile) {
+        final int x = (tile % columns) * VideoUtils.TILE_SIZE;
+        final int y = (tile / columns) * VideoUtils.TILE_SIZE;
+        final int length = Math.min(VideoUtils.TILE_SIZE, width - x) * VideoRecorder.COLOR_BYTES;
+        final int rows = Math.min(VideoUtils.TILE_SIZE, height - y);
+
+        // FNV-1a, zu Beginn mit dem Index der Kachel verknüpft, damit gleiche Kacheln unterschiedliche Hashes haben.
+        long hash = 0xcbf29ce484222325L ^ tile;
+        for (int row = 0; row < rows; row++) {
+            final int offset = ((y + row) * width + x) * VideoRecorder.COLOR_BYTES;
+            for (int i = offset; i < offset + length; i++) {
+                hash = (hash ^ (data[i] & 0xff)) * 0x100000001b3L;
+            }
+        }
+        return hash == 0 ? 1 : hash;
+    }
+
+    /**
+     * Legt die übergebenen Kacheln zeilenweise in ein gemeinsames, möglichst quadratisches Bild.
+     * @param image Frame, aus dem die Kacheln entnommen werden.
+     * @param tiles Indizes der Kacheln.
+     * @return Bild, das die Kacheln beinhaltet.
+     */
+    private @NotNull BufferedImage atlas(@NotNull final BufferedImage image, final int[] tiles) {
+        final int atlasColumns = (int) Math.ceil(Math.sqrt(tiles.length));
+        final int atlasRows = (tiles.length + atlasColumns - 1) / atlasColumns;
+        final BufferedImage atlas = new BufferedImage(atlasColumns * VideoUtils.TILE_SIZE,
+                atlasRows * VideoUtils.TILE_SIZE, BufferedImage.TYPE_3BYTE_BGR);
+        final byte[] source = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        final byte[] target = ((DataBufferByte) atlas.getRaster().getDataBuffer()).getData();
+        final int atlasWidth = atlas.getWidth() * VideoRecorder.COLOR_BYTES;
+
+        for (int i = 0; i < tiles.length; i++) {
+            final int x = (tiles[i] % columns) * VideoUtils.TILE_SIZE;
+            final int y = (tiles[i] / columns) * VideoUtils.TILE_SIZE;
+            final int length = Math.min(VideoUtils.TILE_SIZE, width - x) * VideoRecorder.COLOR_BYTES;
+            final int rows = Math.min(VideoUtils.TILE_SIZE, height - y);
+            final int targetX = (i % atlasColumns) * VideoUtils.TILE_SIZE * VideoRecorder.COLOR_BYTES;
+            final int targetY = (i / atlasColumns) * VideoUtils.TILE_SIZE;
+
+            for (int row = 0; row < rows; row++) {
+                System.arraycopy(source, ((y + row) * width + x) * VideoRecorder.COLOR_BYTES, target,
+                        (targetY + row) * atlasWidth + targetX, length);
+            }
+        }
+        return atlas;
+    }
+
+    /**
+     * Stellt sicher, dass die Bildpunkte eines Frames als BGR-Daten vorliegen.
+     * @param frame Aufgenommenes Frame.
+     * @return Frame mit BGR-Daten.
+     */
+    private static @NotNull BufferedImage toBGR(@NotNull final BufferedImage frame) {
+        if (frame.getType() == BufferedImage.TYPE_3BYTE_BGR) {
+            return frame;
+        }
+        final BufferedImage image = new BufferedImage(frame.getWidth(), frame.getHeight(),
+                BufferedImage.TYPE_3BYTE_BGR);
+        image.getGraphics().drawImage(frame, 0, 0, null);
+        return image;
+    }
+
+    /**
+     * Eine Klasse, welche ein zu sendendes, in Kacheln zerlegtes Frame repräsentiert.
+     */
+    public static class TileFrame {
+
+        private final boolean keyframe;
+        private final int sequence;
+        private final int[] tiles;
+        private final BufferedImage image;
+
+        /**
+         * Erzeugt eine neue Instanz des TileFrame.
+         * @param keyframe true, wenn das Frame die vollständige Bildschirmaufnahme enthält, sonst false.
+         * @param sequence Fortlaufende Nummer des Frames.
+         * @param tiles Indizes der enthaltenen Kacheln.
+         * @param image Zu komprimierendes Bild.
+         */
+        private TileFrame(final boolean keyframe, final int sequence, final int[] tiles,
+                          @NotNull final BufferedImage image) {
+            this.keyframe = keyframe;
+            this.sequence = sequence;
+            this.tiles = tiles;
+            this.image = image;
+        }
+
+        /**
+         * Gibt zurück, ob das Frame die vollständige Bildschirmaufnahme enthält.
+         * @return true, wenn das Frame ein Schlüsselframe ist, sonst false.
+         */
+        public boolean isKeyframe() {
+            return keyframe;
+        }
+
+        /**
+         * Gibt die fortlaufende Nummer des Frames zurück.
+         * @return Nummer des Frames.
+         */
+        public int getSequence() {
+            return sequence;
+        }
+
+        /**
+         * Gibt die Indizes der enthaltenen Kacheln zurück.
+         * @return Indizes der Kacheln, oder ein leeres Array bei einem Schlüsselframe.
+         */
+        public int[] getTiles() {
+            return tiles;
+        }
+
+        /**
+         * Gibt das zu komprimierende Bild zurück, welches entweder die vollständige Bildschirmaufnahme oder die
+         * aneinandergereihten Kacheln enthält.
+         * @return Zu komprimierendes Bild.
+         */
+        public @NotNull BufferedImage getImage() {
+            return image;
+        }
+    }
+}
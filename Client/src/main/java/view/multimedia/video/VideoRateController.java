@@ -0,0 +1,354 @@
+package view.multimedia.video;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Eine Klasse, welche die Qualität, Auflösung und Bildrate gesendeter Videoframes an eine Zielbitrate anpasst.
+ * <p>
+ *     Die Größe eines komprimierten Frames wird anhand der Komplexität der vorherigen Frames vorhergesagt.
+ *     Daraus wird die höchste Qualität bestimmt, mit der das nächste Frame noch in das verfügbare Datenvolumen
+ *     passt, sodass jedes Frame nur einmal komprimiert werden muss. Das verfügbare Datenvolumen ergibt sich aus der
+ *     tatsächlich gesendeten Datenmenge, sodass zu große Frames durch kleinere nachfolgende Frames ausgeglichen
+ *     werden.
+ * </p>
+ * <p>
+ *     Reicht das Datenvolumen selbst bei geringster Qualität nicht aus oder dauert das Komprimieren zu lange, so wird
+ *     zunächst die Auflösung und anschließend die Bildrate verringert. Ist über längere Zeit ausreichend Spielraum
+ *     vorhanden, werden Bildrate und Auflösung in umgekehrter Reihenfolge wieder erhöht.
+ * </p>
+ */
+public class VideoRateController {
+
+    /** Geringste Qualität, mit der Videoframes komprimiert werden. */
+    static final float MIN_QUALITY = 0.1f;
+
+    /** Qualität, die nach einer Erhöhung von Bildrate oder Auflösung mindestens noch erreicht werden muss. */
+    static final float UPGRADE_QUALITY = 0.4f;
+
+    /** Stufen aus Auflösung und Bildrate, jeweils relativ zur aufgenommenen Auflösung und zur maximalen Bildrate. */
+    private static final float[] SCALES = {1, 0.75f, 0.5f, 0.5f, 0.5f, 0.5f};
+    private static final float[] FPS_FACTORS = {1, 1, 1, 2 / 3f, 1 / 2f, 1 / 3f};
+
+    /** Stützstellen der relativen Größe eines JPEG-Bildes abhängig von der Qualität, 1 entspricht Qualität 0.5. */
+    private static final float[] QUALITIES = {0, 0.1f, 0.25f, 0.5f, 0.75f, 0.9f, 1};
+    private static final float[] RELATIVE_SIZES = {0.25f, 0.35f, 0.6f, 1, 1.5f, 2.5f, 6};
+
+    /** Gewichtung eines neuen Frames bei der Schätzung der Komplexität und der Komprimierungsdauer. */
+    private static final double SMOOTHING = 0.3;
+
+    /** Anteil der Zeit zwischen zwei Frames, den das Komprimieren höchstens beanspruchen soll. */
+    private static final double MAX_ENCODE_SHARE = 0.5;
+
+    /** Anzahl aufeinanderfolgender Frames ohne ausreichendes Datenvolumen, nach denen verringert wird. */
+    private static final int DOWNGRADE_FRAMES = 3;
+
+    /** Dauer, über die ausreichend Spielraum vorhanden sein muss, bevor erhöht wird, in Sekunden. */
+    private static final int UPGRADE_SECONDS = 2;
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final float maxQuality;
+    private final int maxFrameSize;
+    private final int maxFps;
+    private final int targetBitrate;
+    private final LongSupplier clock;
+
+    private int level;
+    private int downgradeFrames;
+    private int upgradeFrames;
+
+    /* Geschätzte Größe pro Bildpunkt bei Qualität 0.5 und geschätzte Komprimierungsdauer in Nanosekunden. */
+    private double complexity;
+    private double encodeTime;
+
+    /* Verfügbares Datenvolumen in Bytes und Zeitpunkt der letzten Aktualisierung. */
+    private double credit;
+    private long lastFrame;
+
+    /* Messung der erreichten Bitrate. */
+    private long windowStart;
+    private long windowBytes;
+    private long bitrate;
+
+    private float quality;
+    private long frames;
+    private long droppedFrames;
+
+    /**
+     * Erzeugt eine neue Instanz des VideoRateController.
+     * @param maxQuality Höchste Qualität, mit der Videoframes komprimiert werden.
+     * @param maxFrameSize Maximale Größe eines komprimierten Videoframes in Bytes.
+     * @param maxFps Maximale Anzahl an Videoframes pro Sekunde.
+     * @param targetBitrate Angestrebte Datenmenge in Bytes pro Sekunde.
+     */
+    public VideoRateController(final float maxQuality, final int maxFrameSize, final int maxFps,
+                               final int targetBitrate) {
+        this(maxQuality, maxFrameSize, maxFps, targetBitrate, System::nanoTime);
+    }
+
+    /**
+     * Erzeugt eine neue Instanz des VideoRateController.
+     * @param maxQuality Höchste Qualität, mit der Videoframes komprimiert werden.
+     * @param maxFrameSize Maximale Größe eines komprimierten Videoframes in Bytes.
+     * @param maxFps Maximale Anzahl an Videoframes pro Sekunde.
+     * @param targetBitrate Angestrebte Datenmenge in Bytes pro Sekunde.
+     * @param clock Monotone Uhr in Nanosekunden.
+     */
+    VideoRateController(final float maxQuality, final int maxFrameSize, final int maxFps, final int targetBitrate,
+                        @NotNull final LongSupplier clock) {
+        if (maxQuality < MIN_QUALITY || maxQuality > 1) {
+            throw new IllegalArgumentException("Quality must be between " + MIN_QUALITY + " and 1");
+        }
+        if (maxFrameSize <= 0 || maxFps <= 0 || targetBitrate <= 0) {
+            throw new IllegalArgumentException("Frame size, fps and bitrate must be positive");
+        }
+        this.maxQuality = maxQuality;
+        this.maxFrameSize = maxFrameSize;
+        this.maxFps = maxFps;
+        this.targetBitrate = targetBitrate;
+        this.clock = clock;
+        reset();
+    }
+
+    /**
+     * Setzt die Schätzungen und Messwerte zurück. Wird beim Beginn einer neuen Aufnahme aufgerufen.
+     */
+    public synchronized void reset() {
+        level = 0;
+        downgradeFrames = 0;
+        upgradeFrames = 0;
+        complexity = 0;
+        encodeTime = 0;
+        credit = getFrameShare(level);
+        lastFrame = clock.getAsLong();
+        windowStart = lastFrame;
+        windowBytes = 0;
+        bitrate = 0;
+        quality = maxQuality;
+    }
+
+    /**
+     * Bestimmt die Qualität, mit der das nächste Videoframe komprimiert werden soll.
+     * @param width Breite des zu komprimierenden Videoframes.
+     * @param height Höhe des zu komprimierenden Videoframes.
+     * @return Qualität des nächsten Videoframes.
+     */
+    public synchronized float nextQuality(final int width, final int height) {
+        final long now = clock.getAsLong();
+        final double frameShare = getFrameShare(level);
+        credit = Math.min(credit + (double) targetBitrate * (now - lastFrame) / SECOND, 2 * frameShare);
+        lastFrame = now;
+
+        if (complexity > 0) {
+            final double budget = Math.min(maxFrameSize, Math.max(credit, frameShare / 4));
+            quality = predictQuality(budget, (long) width * height);
+        }
+        return quality;
+    }
+
+    /**
+     * Verarbeitet ein komprimiertes Videoframe und passt die Schätzungen sowie Auflösung und Bildrate an.
+     * @param width Breite des komprimierten Videoframes.
+     * @param height Höhe des komprimierten Videoframes.
+     * @param quality Qualität, mit der das Videoframe komprimiert wurde.
+     * @param size Größe des komprimierten Videoframes in Bytes.
+     * @param encodeNanos Dauer des Komprimierens in Nanosekunden.
+     * @return true, wenn das Videoframe gesendet werden kann, sonst false.
+     */
+    public synchronized boolean update(final int width, final int height, final float quality, final int size,
+                                       final long encodeNanos) {
+        final long pixels = (long) width * height;
+        if (pixels <= 0) {
+            return false;
+        }
+
+        final double frameComplexity = size / (pixels * relativeSize(quality));
+        complexity = complexity > 0 ? complexity + SMOOTHING * (frameComplexity - complexity) : frameComplexity;
+        encodeTime = encodeTime > 0 ? encodeTime + SMOOTHING * (encodeNanos - encodeTime) : encodeNanos;
+
+        final boolean send = size > 0 && size <= maxFrameSize;
+        if (send) {
+            frames++;
+            credit -= size;
+            windowBytes += size;
+        } else {
+            droppedFrames++;
+        }
+
+        final long now = clock.getAsLong();
+        if (now - windowStart >= SECOND) {
+            bitrate = windowBytes * SECOND / (now - windowStart);
+            windowStart = now;
+            windowBytes = 0;
+        }
+
+        adapt(pixels / (getScale(level) * getScale(level)));
+        return send;
+    }
+
+    /**
+     * Passt Auflösung und Bildrate anhand der geschätzten Komplexität und Komprimierungsdauer an.
+     * @param basePixels Anzahl der Bildpunkte bei aufgenommener Auflösung.
+     */
+    private void adapt(final double basePixels) {
+        final double pixels = basePixels * square(getScale(level));
+        final boolean starving = predictSize(MIN_QUALITY, pixels) > getFrameShare(level)
+                || encodeTime > MAX_ENCODE_SHARE * getFrameInterval(level);
+        downgradeFrames = starving ? downgradeFrames + 1 : 0;
+
+        if (downgradeFrames >= DOWNGRADE_FRAMES && level < SCALES.length - 1) {
+            level++;
+            downgradeFrames = 0;
+            upgradeFrames = 0;
+            return;
+        }
+
+        if (level > 0) {
+            final double upgradedPixels = basePixels * square(getScale(level - 1));
+            final double expectedEncodeTime = encodeTime * square(getScale(level - 1) / getScale(level));
+            final boolean headroom = predictSize(Math.min(maxQuality, UPGRADE_QUALITY), upgradedPixels)
+                    <= getFrameShare(level - 1)
+                    && expectedEncodeTime <= MAX_ENCODE_SHARE * getFrameInterval(level - 1);
+            upgradeFrames = headroom ? upgradeFrames + 1 : 0;
+
+            if (upgradeFrames >= UPGRADE_SECONDS * getFps()) {
+                level--;
+                upgradeFrames = 0;
+                credit = Math.min(credit, getFrameShare(level));
+            }
+        }
+    }
+
+    /**
+     * Sagt die höchste Qualität vorher, mit der ein Videoframe nicht größer als das gegebene Datenvolumen wird.
+     * @param budget Verfügbares Datenvolumen in Bytes.
+     * @param pixels Anzahl der Bildpunkte des Videoframes.
+     * @return vorhergesagte Qualität.
+     */
+    private float predictQuality(final double budget, final double pixels) {
+        final double relativeSize = budget / (complexity * pixels);
+        if (relativeSize <= RELATIVE_SIZES[0]) {
+            return MIN_QUALITY;
+        }
+
+        for (int i = 1; i < QUALITIES.length; i++) {
+            if (relativeSize < RELATIVE_SIZES[i]) {
+                final double share = (relativeSize - RELATIVE_SIZES[i - 1])
+                        / (RELATIVE_SIZES[i] - RELATIVE_SIZES[i - 1]);
+                final float predicted = (float) (QUALITIES[i - 1] + share * (QUALITIES[i] - QUALITIES[i - 1]));
+                return Math.max(MIN_QUALITY, Math.min(maxQuality, predicted));
+            }
+        }
+        return maxQuality;
+    }
+
+    /**
+     * Sagt die Größe eines Videoframes vorher, das mit der gegebenen Qualität komprimiert wird.
+     * @param quality Qualität des Videoframes.
+     * @param pixels Anzahl der Bildpunkte des Videoframes.
+     * @return vorhergesagte Größe in Bytes.
+     */
+    private double predictSize(final float quality, final double pixels) {
+        return complexity * pixels * relativeSize(quality);
+    }
+
+    /**
+     * Gibt die relative Größe eines mit der gegebenen Qualität komprimierten JPEG-Bildes zurück.
+     * @param quality Qualität des Bildes.
+     * @return relative Größe des Bildes.
+     */
+    private static double relativeSize(final float quality) {
+        for (int i = 1; i < QUALITIES.length; i++) {
+            if (quality <= QUALITIES[i]) {
+                final double share = (quality - QUALITIES[i - 1]) / (QUALITIES[i] - QUALITIES[i - 1]);
+                return RELATIVE_SIZES[i - 1] + Math.max(0, share) * (RELATIVE_SIZES[i] - RELATIVE_SIZES[i - 1]);
+            }
+        }
+        return RELATIVE_SIZES[RELATIVE_SIZES.length - 1];
+    }
+
+    private double getFrameShare(final int level) {
+        return (double) targetBitrate / getFps(level);
+    }
+
+    private double getFrameInterval(final int level) {
+        return (double) SECOND / getFps(level);
+    }
+
+    private int getFps(final int level) {
+        return Math.max(1, Math.round(maxFps * FPS_FACTORS[level]));
+    }
+
+    private static float getScale(final int level) {
+        return SCALES[level];
+    }
+
+    private static double square(final double value) {
+        return value * value;
+    }
+
+    /**
+     * Gibt den Faktor zurück, mit dem die aufgenommenen Videoframes vor dem Komprimieren skaliert werden.
+     * @return Faktor der Auflösung.
+     */
+    public synchronized float getScale() {
+        return getScale(level);
+    }
+
+    /**
+     * Gibt die Anzahl an Videoframes zurück, die pro Sekunde aufgenommen werden sollen.
+     * @return Bildrate.
+     */
+    public synchronized int getFps() {
+        return getFps(level);
+    }
+
+    /**
+     * Gibt die Qualität zurück, mit der das letzte Videoframe komprimiert wurde.
+     * @return Qualität des letzten Videoframes.
+     */
+    public synchronized float getQuality() {
+        return quality;
+    }
+
+    /**
+     * Gibt die geschätzte Dauer des Komprimierens eines Videoframes in Millisekunden zurück.
+     * @return Komprimierungsdauer in Millisekunden.
+     */
+    public synchronized double getEncodeTime() {
+        return encodeTime / 1_000_000;
+    }
+
+    /**
+     * Gibt die in der letzten Sekunde erreichte Bitrate in Kilobit pro Sekunde zurück.
+     * @return erreichte Bitrate in Kilobit pro Sekunde.
+     */
+    public synchronized long getBitrate() {
+        return bitrate * 8 / 1000;
+    }
+
+    /**
+     * Gibt die Anzahl der gesendeten Videoframes zurück.
+     * @return Anzahl der gesendeten Videoframes.
+     */
+    public synchronized long getFrames() {
+        return frames;
+    }
+
+    /**
+     * Gibt die Anzahl der Videoframes zurück, die aufgrund ihrer Größe nicht gesendet werden konnten.
+     * @return Anzahl der verworfenen Videoframes.
+     */
+    public synchronized long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    @Override
+    public synchronized @NotNull String toString() {
+        return String.format("frames=%d, dropped=%d, bitrate=%dkbit/s, encode=%.1fms, quality=%.2f, scale=%.2f, "
+                + "fps=%d", frames, droppedFrames, getBitrate(), getEncodeTime(), quality, getScale(), getFps());
+    }
+}
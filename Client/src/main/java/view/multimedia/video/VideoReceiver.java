@@ -12,8 +12,10 @@ import java.awt.image.BufferedImage;
 import java.awt.image.DataBufferByte;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.Map;
 import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 
 /**
@@ -24,12 +26,14 @@ public class VideoReceiver {
     private static final float DELAY = 0.25f; // In Sekunden.
 
     private final Queue<VideoFrame> videoFrameBuffer;
+    private final Map<UUID, ScreenTileDecoder> screenDecoders;
 
     /**
      * Erzeugt eine neue Instanz des VideoReceiver.
      */
     public VideoReceiver() {
         this.videoFrameBuffer = new LinkedBlockingQueue<>();
+        this.screenDecoders = new ConcurrentHashMap<>();
     }
 
     /**
@@ -45,11 +49,52 @@ public class VideoReceiver {
         IUserView sender = Chati.CHATI.getUserManager().getExternUserView(userId);
         BufferedImage frame = VideoUtils.read(frameData);
         if (frame != null) {
-            byte[] decompressedData = ((DataBufferByte) frame.getRaster().getDataBuffer()).getData();
-            videoFrameBuffer.add(new VideoFrame(sender, timestamp, screen, VideoUtils.toRGB(decompressedData)));
+            addFrame(sender, timestamp, screen, frame);
         }
     }
 
+    /**
+     * Setzt die erhaltenen Kacheln einer Bildschirmaufnahme eines externen Benutzers zusammen und hinterlegt das
+     * entstandene VideoFrame.
+     * @param userId ID des Benutzers, dessen Frame erhalten wurde.
+     * @param timestamp Zeitstempel des Frames.
+     * @param keyframe true, wenn das Frame die vollständige Bildschirmaufnahme enthält, sonst false.
+     * @param sequence Fortlaufende Nummer des Frames.
+     * @param tiles Indizes der enthaltenen Kacheln.
+     * @param tileData Daten des Bildes, das die enthaltenen Kacheln beinhaltet.
+     * @throws UserNotFoundException falls kein Benutzer mit der ID gefunden wurde.
+     */
+    public void receiveVideoTiles(@NotNull final UUID userId, @NotNull final LocalDateTime timestamp,
+                                  final boolean keyframe, final int sequence, final int[] tiles,
+                                  final byte[] tileData) throws UserNotFoundException {
+        IUserView sender = Chati.CHATI.getUserManager().getExternUserView(userId);
+        ScreenTileDecoder decoder = screenDecoders.computeIfAbsent(userId, id -> new ScreenTileDecoder());
+        BufferedImage frame = decoder.decode(keyframe, sequence, tiles, tileData);
+        if (frame != null) {
+            addFrame(sender, timestamp, true, frame);
+        }
+    }
+
+    /**
+     * Bringt ein erhaltenes Frame eines externen Benutzers auf die angezeigte Auflösung und hinterlegt es.
+     * @param sender Sender des Frames.
+     * @param timestamp Zeitstempel des Frames.
+     * @param screen true, wenn dieser Frame Teil einer Bildschirmaufnahme ist.
+     * @param frame Dekomprimiertes Frame.
+     */
+    private void addFrame(@NotNull final IUserView sender, @NotNull final LocalDateTime timestamp,
+                          final boolean screen, @NotNull BufferedImage frame) {
+        // Der Sender verringert die Auflösung bei zu geringer Bitrate. Das Frame wird wieder auf die angezeigte
+        // Auflösung vergrößert.
+        int width = screen ? ScreenRecorder.FRAME_WIDTH : CameraRecorder.FRAME_WIDTH;
+        int height = screen ? ScreenRecorder.FRAME_HEIGHT : CameraRecorder.FRAME_HEIGHT;
+        if (frame.getWidth() != width || frame.getHeight() != height) {
+            frame = VideoUtils.scaleImage(frame, width, height);
+        }
+        byte[] decompressedData = ((DataBufferByte) frame.getRaster().getDataBuffer()).getData();
+        videoFrameBuffer.add(new VideoFrame(sender, timestamp, screen, VideoUtils.toRGB(decompressedData)));
+    }
+
     /**
      * Hinterlegt ein erhaltenes VideoFrame vom intern angemeldeten Benutzer.
      * @param frame Erhaltenes Videoframe.
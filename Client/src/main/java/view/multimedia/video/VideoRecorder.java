@@ -1,14 +1,31 @@
 package view.multimedia.video;
 
+import controller.network.ServerSender;
+import org.jetbrains.annotations.NotNull;
+import utils.VideoUtils;
+import view.Chati;
+
+import java.awt.image.BufferedImage;
+
 public abstract class VideoRecorder implements Runnable {
 
     public static final int MAX_FPS = 15;
     public static final int COLOR_BYTES = 3;
     protected static final int MAX_DATA_SIZE = 42768;
+    protected static final int TARGET_BITRATE = 256000; // In Bytes pro Sekunde.
 
+    protected final VideoRateController rateController;
     protected boolean isRunning;
     protected boolean isRecording;
 
+    /**
+     * Erzeugt eine neue Instanz des VideoRecorder.
+     * @param maxQuality Höchste Qualität, mit der die Videoframes komprimiert werden.
+     */
+    protected VideoRecorder(final float maxQuality) {
+        this.rateController = new VideoRateController(maxQuality, MAX_DATA_SIZE, MAX_FPS, TARGET_BITRATE);
+    }
+
     /**
      * Startet einen Thread zum Aufnehmen von Videodaten, sofern nicht bereits einer läuft.
      */
@@ -35,6 +52,7 @@ public abstract class VideoRecorder implements Runnable {
      * Startet das Aufnehmen und Senden von Videoframes.
      */
     public synchronized void startRecording() {
+        rateController.reset();
         isRecording = true;
         notifyAll();
     }
@@ -44,6 +62,7 @@ public abstract class VideoRecorder implements Runnable {
      */
     public void stopRecording() {
         isRecording = false;
+        Chati.LOGGER.fine(getClass().getSimpleName() + " stopped: " + rateController);
     }
 
     /**
@@ -62,7 +81,51 @@ public abstract class VideoRecorder implements Runnable {
         return isRecording;
     }
 
-    protected void send() {
+    /**
+     * Gibt die Regelung von Qualität, Auflösung und Bildrate der gesendeten Videoframes zurück.
+     * @return Regelung der gesendeten Videoframes.
+     */
+    public @NotNull VideoRateController getRateController() {
+        return rateController;
+    }
 
+    /**
+     * Gibt die Zeit zwischen zwei aufzunehmenden Videoframes in Millisekunden zurück.
+     * @return Zeit zwischen zwei Videoframes.
+     */
+    protected long getFrameInterval() {
+        return 1000 / rateController.getFps();
+    }
+
+    /**
+     * Skaliert ein aufgenommenes Videoframe auf die aktuelle Auflösung, komprimiert es einmalig mit der vorhergesagten
+     * Qualität und sendet es, sofern es die maximale Größe nicht überschreitet.
+     * @param frame Aufgenommenes Videoframe.
+     * @param screen true, wenn das Videoframe Teil einer Bildschirmaufnahme ist, sonst false.
+     */
+    protected void send(@NotNull final BufferedImage frame, final boolean screen) {
+        final long start = System.nanoTime();
+        final BufferedImage scaledFrame = scale(frame);
+        final int width = scaledFrame.getWidth();
+        final int height = scaledFrame.getHeight();
+        final float quality = rateController.nextQuality(width, height);
+        final byte[] compressedData = VideoUtils.compress(scaledFrame, quality);
+        if (rateController.update(width, height, quality, compressedData.length, System.nanoTime() - start)) {
+            Chati.CHATI.send(ServerSender.SendAction.VIDEO, screen, compressedData);
+        }
+    }
+
+    /**
+     * Skaliert ein aufgenommenes Videoframe auf die von der Regelung vorgegebene Auflösung.
+     * @param frame Aufgenommenes Videoframe.
+     * @return Skaliertes Videoframe, oder das aufgenommene Videoframe, falls keine Skalierung notwendig ist.
+     */
+    protected @NotNull BufferedImage scale(@NotNull final BufferedImage frame) {
+        final float scale = rateController.getScale();
+        if (scale < 1) {
+            return VideoUtils.scaleImage(frame, Math.round(scale * frame.getWidth()),
+                    Math.round(scale * frame.getHeight()));
+        }
+        return frame;
     }
 }
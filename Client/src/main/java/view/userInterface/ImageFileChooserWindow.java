@@ -5,6 +5,7 @@ import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.PixmapIO;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 import org.jetbrains.annotations.NotNull;
+import utils.ImageUtils;
 import view.Chati;
 
 import java.util.logging.Level;
@@ -15,7 +16,7 @@ import java.util.logging.Logger;
  */
 public class ImageFileChooserWindow extends FileChooserWindow {
 
-    private static final int MAX_FILE_SIZE = (int) Math.pow(2, 18);
+    private static final int MAX_FILE_SIZE = ImageUtils.MAX_IMAGE_SIZE;
     private static final String IMAGE_FILE_EXTENSIONS = ".*(?:jpg|jpeg|png|bmp)";
 
     private final Pixmap image;
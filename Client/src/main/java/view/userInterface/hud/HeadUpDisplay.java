@@ -444,14 +444,16 @@ public class HeadUpDisplay extends Table implements Translatable {
      * @param timestamp Zeitstempel der Nachricht.
      * @param messageType Typ der Nachricht.
      * @param message Anzuzeigende Nachricht.
-     * @param imageData Daten des Bildanhangs.
+     * @param imageHash Hashwert des Bildanhangs.
+     * @param thumbnail Daten des Vorschaubilds des Bildanhangs.
      * @param imageName Name des Bildanhangs.
      * @throws UserNotFoundException falls kein Benutzer mit der ID gefunden wurde.
      */
     public void showChatMessage(@NotNull final UUID senderId, @NotNull final LocalDateTime timestamp,
                                 @NotNull final MessageType messageType, @NotNull final String message,
-                                final byte[] imageData, @Nullable final String imageName) throws UserNotFoundException {
-        chatWindow.showUserMessage(senderId, timestamp, messageType, message, imageData, imageName);
+                                @Nullable final String imageHash, final byte[] thumbnail,
+                                @Nullable final String imageName) throws UserNotFoundException {
+        chatWindow.showUserMessage(senderId, timestamp, messageType, message, imageHash, thumbnail, imageName);
         if (!isChatOpen()) {
             chatButton.startBlinking();
         }
@@ -461,6 +463,15 @@ public class HeadUpDisplay extends Table implements Translatable {
         }
     }
 
+    /**
+     * Zeigt einen angeforderten Bildanhang an.
+     * @param imageHash Hashwert des Bildanhangs.
+     * @param imageData Daten des Bildanhangs.
+     */
+    public void showImage(@NotNull final String imageHash, final byte[] imageData) {
+        chatWindow.showImage(imageHash, imageData);
+    }
+
     /**
      * Zeigt eine Informationsnachricht im Chatfenster an.
      * @param timestamp Zeitstempel der Nachricht.
@@ -63,6 +63,7 @@ public class ChatWindow extends ResizableWindow implements Translatable {
 
     private final List<ChatMessage> chatMessages;
     private final Map<IUserView, Long> typingUsers;
+    private final Map<String, String> requestedImages;
     private final Stack chatStack;
     private final Table messageContainer;
     private final ScrollPane historyScrollPane;
@@ -84,6 +85,7 @@ public class ChatWindow extends ResizableWindow implements Translatable {
         super(Chati.CHATI.getLocalization().translate("window.title.chat"));
         chatMessages = new LinkedList<>();
         typingUsers = new HashMap<>();
+        requestedImages = new HashMap<>();
 
         messageContainer = new Table();
         historyScrollPane = new ScrollPane(messageContainer, Chati.CHATI.getSkin());
@@ -280,13 +282,15 @@ public class ChatWindow extends ResizableWindow implements Translatable {
      * @param timestamp Zeitstempel der Nachricht.
      * @param messageType Typ der Nachricht.
      * @param userMessage Anzuzeigende Nachricht.
-     * @param imageData Daten des Bildanhangs.
+     * @param imageHash Hashwert des Bildanhangs.
+     * @param thumbnail Daten des Vorschaubilds des Bildanhangs.
      * @param imageName Name des Bildanhangs.
      * @throws UserNotFoundException falls kein Benutzer mit der ID gefunden wurde.
      */
     public void showUserMessage(@NotNull final UUID senderId, @NotNull final LocalDateTime timestamp,
                                 @NotNull final MessageType messageType, @NotNull final String userMessage,
-                                final byte[] imageData, @Nullable final String imageName) throws UserNotFoundException {
+                                @Nullable final String imageHash, final byte[] thumbnail,
+                                @Nullable final String imageName) throws UserNotFoundException {
         String username;
         IInternUserView internUser = Chati.CHATI.getInternUser();
         if (internUser != null && internUser.getUserId().equals(senderId)) {
@@ -323,12 +327,39 @@ public class ChatWindow extends ResizableWindow implements Translatable {
         }
         ChatMessage chatMessage = new ChatMessage(timestamp, Chati.CHATI.getLocalization().format("pattern.chat.message",
                 username, userMessage), messageColor);
-        if (imageData.length != 0 && imageName != null) {
-            chatMessage.setImage(imageName, imageData);
+        if (imageHash != null && imageName != null) {
+            chatMessage.setImage(imageName, thumbnail, () -> requestImage(imageName, imageHash));
         }
         showChatMessage(chatMessage);
     }
 
+    /**
+     * Fordert einen Bildanhang an, der nach dem Erhalt in einem eigenen Fenster geöffnet wird.
+     * @param imageName Name des Bildanhangs.
+     * @param imageHash Hashwert des Bildanhangs.
+     */
+    private void requestImage(@NotNull final String imageName, @NotNull final String imageHash) {
+        requestedImages.put(imageHash, imageName);
+        Chati.CHATI.send(ServerSender.SendAction.IMAGE, imageHash);
+    }
+
+    /**
+     * Öffnet einen angeforderten Bildanhang in einem eigenen Fenster.
+     * @param imageHash Hashwert des Bildanhangs.
+     * @param imageData Daten des Bildanhangs.
+     */
+    public void showImage(@NotNull final String imageHash, final byte[] imageData) {
+        String imageName = requestedImages.remove(imageHash);
+        if (imageName == null) {
+            return;
+        }
+        try {
+            new ImageWindow(imageName, imageData).open();
+        } catch (GdxRuntimeException e) {
+            Chati.LOGGER.log(Level.WARNING, "Could not show received image", e);
+        }
+    }
+
     /**
      * Zeigt eine Info-Nachricht an.
      * @param timestamp Zeitstempel der Nachricht.
@@ -546,14 +577,16 @@ public class ChatWindow extends ResizableWindow implements Translatable {
         }
 
         /**
-         * Fügt der Textnachricht ein anzuzeigendes Bild hinzu.
+         * Fügt der Textnachricht ein anzuzeigendes Bild hinzu. Es wird nur das Vorschaubild angezeigt, das
+         * vollständige Bild wird erst beim Anklicken vom Server angefordert.
          * @param imageName Name des anzuzeigenden Bildes.
-         * @param imageData Daten des anzuzeigenden Bildes.
+         * @param thumbnail Daten des Vorschaubilds.
+         * @param request Aufruf, der das vollständige Bild anfordert.
          */
-        public void setImage(@NotNull final String imageName, final byte[] imageData) {
+        public void setImage(@NotNull final String imageName, final byte[] thumbnail, @NotNull final Runnable request) {
             Pixmap image;
             try {
-                image = new Pixmap(imageData, 0, imageData.length);
+                image = new Pixmap(thumbnail, 0, thumbnail.length);
             } catch (GdxRuntimeException e) {
                 Chati.LOGGER.log(Level.WARNING, "Could not show received image", e);
                 return;
@@ -573,7 +606,7 @@ public class ChatWindow extends ResizableWindow implements Translatable {
             imageButton.addListener(new ClickListener() {
                 @Override
                 public void clicked(@NotNull final InputEvent event, final float x, final float y) {
-                    new ImageWindow(imageName, imageData).open();
+                    request.run();
                 }
             });
 
@@ -78,6 +78,15 @@ public class WorldCamera extends OrthographicCamera {
         }
     }
 
+    /**
+     * Gibt zu gegebener Größe des Fensters die Größe des Bereichs der Karte zurück, der bei maximalem Zoom sichtbar ist.
+     * @param value Größe des Fensters in Pixel.
+     * @return Größe des sichtbaren Bereichs der Karte in Pixel.
+     */
+    public static float getMaxVisibleSize(final float value) {
+        return value * (MAX_ZOOM + ZOOM_STEP);
+    }
+
     /**
      * Gibt zu gegebener Größe in Pixel die entsprechende Größe in den innerhalb der Welt verwendeten Einheit zurück.
      * @param value Größe in Pixel.
@@ -13,6 +13,7 @@ import com.badlogic.gdx.physics.box2d.Body;
 import com.badlogic.gdx.physics.box2d.World;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.viewport.ExtendViewport;
+import controller.network.ServerSender;
 import model.MessageBundle;
 import model.context.ContextID;
 import model.context.spatial.ContextMenu;
@@ -144,6 +145,10 @@ public class WorldScreen extends ChatiScreen {
         viewport.setMinWorldHeight(WorldCamera.scaleToUnit(height));
         viewport.update(width, height, true);
         super.resize(width, height);
+
+        // Der Server sendet ausschließlich die Avatare innerhalb des Sichtbereichs.
+        Chati.CHATI.send(ServerSender.SendAction.VIEWPORT, WorldCamera.getMaxVisibleSize(width),
+                WorldCamera.getMaxVisibleSize(height));
     }
 
     @Override
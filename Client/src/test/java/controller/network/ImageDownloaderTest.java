@@ -0,0 +1,137 @@
+package controller.network;
+
+import controller.network.protocol.Packet;
+import controller.network.protocol.PacketImageChunk;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import utils.ContentStore;
+import utils.ImageUtils;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class ImageDownloaderTest {
+
+    private File directory;
+    private ContentStore cache;
+    private ImageDownloader downloader;
+    private List<PacketImageChunk> requests;
+
+    @Before
+    public void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("chati-cache").toFile();
+        this.cache = new ContentStore(this.directory, ImageUtils.MAX_IMAGE_SIZE);
+        this.downloader = new ImageDownloader(this.cache);
+        this.requests = new ArrayList<>();
+    }
+
+    @After
+    public void tearDown() {
+        final File[] files = this.directory.listFiles();
+        if (files != null) {
+            Arrays.stream(files).forEach(File::delete);
+        }
+        this.directory.delete();
+    }
+
+    @Test
+    public void downloadTest() throws IOException {
+        final byte[] image = randomImage(6 * ImageUtils.CHUNK_SIZE + 123);
+        final String hash = ImageUtils.hash(image);
+
+        Assert.assertNull(this.downloader.request(new PacketImageChunk(hash, 0), this::request));
+        // Eine erneute Anfrage während des Ladens fordert den Bildanhang nicht doppelt an.
+        Assert.assertNull(this.downloader.request(new PacketImageChunk(hash, 0), this::request));
+        Assert.assertEquals(1, this.requests.size());
+        Assert.assertTrue(this.downloader.isLoading(hash));
+
+        byte[] result = null;
+        int maxPending = 0;
+
+        while (!this.requests.isEmpty()) {
+            maxPending = Math.max(maxPending, this.requests.size());
+
+            final PacketImageChunk request = this.requests.remove(0);
+            Assert.assertNull(result);
+            result = this.downloader.receive(respond(image, request), this::request);
+        }
+
+        // Es sind nie mehr Abschnitte gleichzeitig angefordert, als das Fenster erlaubt.
+        Assert.assertEquals(ImageDownloader.WINDOW, maxPending);
+        Assert.assertArrayEquals(image, result);
+        Assert.assertFalse(this.downloader.isLoading(hash));
+
+        // Bereits geladene Bildanhänge werden aus dem Zwischenspeicher übernommen.
+        Assert.assertArrayEquals(image, this.downloader.request(new PacketImageChunk(hash, 0), this::request));
+        Assert.assertTrue(this.requests.isEmpty());
+    }
+
+    @Test
+    public void notFoundTest() {
+        final String hash = ImageUtils.hash(randomImage(100));
+
+        this.downloader.request(new PacketImageChunk(hash, 0), this::request);
+        Assert.assertNull(this.downloader.receive(new PacketImageChunk(hash, 0, -1, new byte[0]), this::request));
+        Assert.assertFalse(this.downloader.isLoading(hash));
+    }
+
+    @Test
+    public void corruptedImageTest() {
+        final byte[] image = randomImage(2 * ImageUtils.CHUNK_SIZE);
+        final String hash = ImageUtils.hash(image);
+
+        this.downloader.request(new PacketImageChunk(hash, 0), this::request);
+        image[0]++;
+
+        byte[] result = null;
+        while (!this.requests.isEmpty()) {
+            result = this.downloader.receive(respond(image, this.requests.remove(0)), this::request);
+        }
+
+        // Bildanhänge, die nicht zu ihrem Hashwert passen, werden verworfen.
+        Assert.assertNull(result);
+        Assert.assertFalse(this.downloader.isLoading(hash));
+        Assert.assertFalse(this.cache.contains(hash));
+    }
+
+    @Test
+    public void invalidChunkTest() {
+        final byte[] image = randomImage(3 * ImageUtils.CHUNK_SIZE);
+        final String hash = ImageUtils.hash(image);
+
+        // Nicht angeforderte Abschnitte werden ignoriert.
+        Assert.assertNull(this.downloader.receive(respond(image, new PacketImageChunk(hash, 0)), this::request));
+        Assert.assertTrue(this.requests.isEmpty());
+
+        this.downloader.request(new PacketImageChunk(hash, 0), this::request);
+        this.downloader.receive(respond(image, this.requests.remove(0)), this::request);
+
+        // Ein bereits erhaltener Abschnitt bricht das Laden ab.
+        Assert.assertNull(this.downloader.receive(respond(image, new PacketImageChunk(hash, 0)), this::request));
+        Assert.assertFalse(this.downloader.isLoading(hash));
+    }
+
+    private void request(final Packet<?> packet) {
+        Assert.assertTrue(packet instanceof PacketImageChunk);
+        this.requests.add((PacketImageChunk) packet);
+    }
+
+    private static PacketImageChunk respond(final byte[] image, final PacketImageChunk request) {
+        final int end = Math.min(image.length, request.getOffset() + ImageUtils.CHUNK_SIZE);
+
+        return new PacketImageChunk(request.getHash(), request.getOffset(), image.length,
+                Arrays.copyOfRange(image, request.getOffset(), end));
+    }
+
+    private static byte[] randomImage(final int size) {
+        final byte[] image = new byte[size];
+        new Random(size).nextBytes(image);
+        return image;
+    }
+}
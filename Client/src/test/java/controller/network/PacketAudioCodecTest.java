@@ -0,0 +1,38 @@
+package controller.network;
+
+import controller.network.protocol.PacketAudioCodec;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import utils.AudioCodec;
+import java.util.logging.Level;
+
+public class PacketAudioCodecTest extends PacketClientTest {
+
+    @Test
+    public void handleInvalidPacketTest() {
+        final PacketAudioCodec packet = Mockito.mock(PacketAudioCodec.class);
+
+        Mockito.when(packet.getCodecs()).thenReturn(AudioCodec.values());
+
+        this.handler.reset();
+        this.connection.handle(packet);
+
+        Assert.assertTrue(this.handler.logged());
+        Assert.assertTrue(this.handler.logged(Level.WARNING, "Server must select exactly one voice codec"));
+        Assert.assertFalse(this.view.called("set-voice-codec"));
+    }
+
+    @Test
+    public void handleCorrectPacketTest() {
+        final PacketAudioCodec packet = Mockito.mock(PacketAudioCodec.class);
+
+        Mockito.when(packet.getCodecs()).thenReturn(new AudioCodec[]{randomEnum(AudioCodec.class)});
+
+        this.handler.reset();
+        this.connection.handle(packet);
+
+        Assert.assertFalse(this.handler.logged());
+        Assert.assertTrue(this.view.called("set-voice-codec"));
+    }
+}
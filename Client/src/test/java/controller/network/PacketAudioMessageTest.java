@@ -6,6 +6,7 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
 import java.time.LocalDateTime;
+import java.util.UUID;
 import java.util.logging.Level;
 
 public class PacketAudioMessageTest extends PacketClientTest {
@@ -32,6 +33,16 @@ public class PacketAudioMessageTest extends PacketClientTest {
 
         Assert.assertNull(packet.getSenderId());
         Assert.assertArrayEquals(voiceData, packet.getAudioData());
+        Assert.assertFalse(packet.isSilence());
+    }
+
+    @Test
+    public void silencePackagingTest() {
+        final PacketAudioMessage packet = this.getPacket(PacketAudioMessage.class, new byte[0], true);
+
+        Assert.assertNull(packet.getSenderId());
+        Assert.assertTrue(packet.isSilence());
+        Assert.assertEquals(0, packet.getAudioData().length);
     }
 
     @Test
@@ -103,4 +114,24 @@ public class PacketAudioMessageTest extends PacketClientTest {
         Assert.assertFalse(this.view.called("play-music-data"));
         Assert.assertTrue(this.view.called("play-voice-data"));
     }
+
+    @Test
+    public void handleMixedPacketTest() {
+        final PacketAudioMessage packet = Mockito.mock(PacketAudioMessage.class);
+
+        Mockito.when(packet.getTimestamp()).thenReturn(LocalDateTime.now());
+        Mockito.when(packet.getAudioData()).thenReturn(randomBytes());
+        Mockito.when(packet.getSpeakers()).thenReturn(new UUID[]{randomUniqueId(), randomUniqueId()});
+        Mockito.when(packet.isMixed()).thenReturn(true);
+
+        this.login();
+        this.joinWorld();
+        this.handler.reset();
+        this.connection.handle(packet);
+
+        Assert.assertFalse(this.handler.logged());
+        Assert.assertTrue(this.view.called("play-mixed-voice-data"));
+        Assert.assertFalse(this.view.called("play-music-data"));
+        Assert.assertFalse(this.view.called("play-voice-data"));
+    }
 }
@@ -131,5 +131,14 @@ public class PacketAvatarMoveTest extends PacketClientTest {
 
         Assert.assertFalse(this.handler.logged());
         Assert.assertTrue(this.intern.called("leave-room"));
+        Mockito.when(packet.getAction()).thenReturn(AvatarAction.HIDE_AVATAR);
+
+        this.intern.reset();
+        this.handler.reset();
+        this.connection.handle(packet);
+
+        Assert.assertFalse(this.handler.logged());
+        Assert.assertTrue(this.intern.called("discard-location"));
+        Assert.assertFalse(this.intern.called("leave-room"));
     }
 }
@@ -6,6 +6,7 @@ import model.communication.message.MessageType;
 import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
+import utils.ImageUtils;
 import java.time.LocalDateTime;
 import java.util.logging.Level;
 
@@ -87,14 +88,22 @@ public class PacketChatMessageTest extends PacketClientTest {
         Assert.assertTrue(this.handler.logged());
         Assert.assertTrue(this.handler.logged(Level.WARNING, "Message can not be null"));
         Mockito.when(packet.getMessage()).thenReturn(randomString());
-        Mockito.when(packet.getImageData()).thenReturn(randomBytes());
+        Mockito.when(packet.getImageHash()).thenReturn(ImageUtils.hash(randomBytes()));
 
         this.handler.reset();
         this.connection.handle(packet);
 
         Assert.assertTrue(this.handler.logged());
-        Assert.assertTrue(this.handler.logged(Level.WARNING, "Image-Name can not be null if an image was sent"));
+        Assert.assertTrue(this.handler.logged(Level.WARNING, "Image-Name and valid Image-Hash required"));
         Mockito.when(packet.getImageName()).thenReturn(randomString());
+        Mockito.when(packet.getImageHash()).thenReturn(randomString());
+
+        this.handler.reset();
+        this.connection.handle(packet);
+
+        Assert.assertTrue(this.handler.logged());
+        Assert.assertTrue(this.handler.logged(Level.WARNING, "Image-Name and valid Image-Hash required"));
+        Mockito.when(packet.getImageHash()).thenReturn(ImageUtils.hash(randomBytes()));
 
         this.view.showChatMessage(true);
         this.handler.reset();
@@ -119,7 +128,7 @@ public class PacketChatMessageTest extends PacketClientTest {
         Mockito.when(packet.getMessageType()).thenReturn(MessageType.STANDARD);
         Mockito.when(packet.getSenderId()).thenReturn(randomUniqueId());
         Mockito.when(packet.getMessage()).thenReturn(randomString());
-        Mockito.when(packet.getImageData()).thenReturn(new byte[0]);
+        Mockito.when(packet.getThumbnail()).thenReturn(new byte[0]);
 
         this.login();
         this.joinWorld();
@@ -7,6 +7,7 @@ import controller.network.mock.MockIInternUser;
 import controller.network.mock.MockIUserManager;
 import controller.network.mock.MockViewController;
 import controller.network.protocol.Packet;
+import controller.network.protocol.PacketCodec;
 import controller.network.protocol.PacketProfileAction;
 import controller.network.protocol.PacketProfileAction.Action;
 import controller.network.protocol.PacketWorldAction;
@@ -46,6 +47,7 @@ public abstract class PacketClientTest extends RandomTest {
         Mockito.when(connection.getID()).thenReturn(randomInt(100));
         Mockito.when(connection.isConnected()).thenReturn(true);
         Mockito.when(connection.toString()).thenReturn("Mock Connection");
+        Mockito.when(client.getCodec()).thenReturn(codec());
 
         this.connection = new ServerConnection(client);
         this.manager = new MockIUserManager();
@@ -114,4 +116,11 @@ public abstract class PacketClientTest extends RandomTest {
 
         throw new IllegalStateException(String.format("Illegal SendAction: %s does not return class of type %s", action, clazz.getSimpleName()));
     }
+
+    private static @NotNull PacketCodec codec() {
+        final PacketSerialization serialization = new PacketSerialization();
+
+        NetworkManager.register(serialization.getKryo());
+        return serialization;
+    }
 }
@@ -0,0 +1,56 @@
+package controller.network;
+
+import controller.network.ServerSender.SendAction;
+import controller.network.protocol.PacketImageChunk;
+import org.junit.Assert;
+import org.junit.Test;
+import utils.ImageUtils;
+import java.util.logging.Level;
+
+public class PacketImageChunkTest extends PacketClientTest {
+
+    public PacketImageChunkTest() {
+        super(SendAction.IMAGE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalPackagingTest() {
+        this.getPacket(PacketImageChunk.class, new Object());
+    }
+
+    @Test
+    public void imagePackagingTest() {
+        final String hash = ImageUtils.hash(randomBytes());
+        final PacketImageChunk packet = this.getPacket(PacketImageChunk.class, hash);
+
+        Assert.assertEquals(hash, packet.getHash());
+        Assert.assertEquals(0, packet.getOffset());
+        Assert.assertEquals(-1, packet.getSize());
+        Assert.assertEquals(0, packet.getData().length);
+    }
+
+    @Test
+    public void handleUnexpectedPacketTest() {
+        final PacketImageChunk packet = new PacketImageChunk(ImageUtils.hash(randomBytes()), 0, 0, new byte[0]);
+
+        this.handler.reset();
+        this.connection.handle(packet);
+
+        Assert.assertTrue(this.handler.logged());
+        Assert.assertTrue(this.handler.logged(Level.WARNING, "Can not receive image while user is not logged in"));
+        Assert.assertFalse(this.view.called("receive-image"));
+    }
+
+    @Test
+    public void handleInvalidPacketTest() {
+        final PacketImageChunk packet = new PacketImageChunk(randomString(), 0, 0, new byte[0]);
+
+        this.login();
+        this.handler.reset();
+        this.connection.handle(packet);
+
+        Assert.assertTrue(this.handler.logged());
+        Assert.assertTrue(this.handler.logged(Level.WARNING, "Image-Hash must be valid"));
+        Assert.assertFalse(this.view.called("receive-image"));
+    }
+}
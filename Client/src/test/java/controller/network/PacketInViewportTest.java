@@ -0,0 +1,34 @@
+package controller.network;
+
+import controller.network.ServerSender.SendAction;
+import controller.network.protocol.PacketInViewport;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PacketInViewportTest extends PacketClientTest {
+
+    public PacketInViewportTest() {
+        super(SendAction.VIEWPORT);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalArgsPackagingTest() {
+        this.getPacket(PacketInViewport.class, randomFloat());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalTypesPackagingTest() {
+        this.getPacket(PacketInViewport.class, new Object(), new Object());
+    }
+
+    @Test
+    public void viewportPackagingTest() {
+        final float width = randomFloat();
+        final float height = randomFloat();
+
+        final PacketInViewport packet = this.getPacket(PacketInViewport.class, width, height);
+
+        Assert.assertEquals(width, packet.getWidth(), 0.0f);
+        Assert.assertEquals(height, packet.getHeight(), 0.0f);
+    }
+}
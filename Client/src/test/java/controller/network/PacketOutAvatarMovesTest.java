@@ -0,0 +1,88 @@
+package controller.network;
+
+import controller.network.protocol.PacketOutAvatarMoves;
+import controller.network.protocol.PacketOutAvatarMoves.AvatarMove;
+import model.context.spatial.Direction;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import java.util.logging.Level;
+
+public class PacketOutAvatarMovesTest extends PacketClientTest {
+
+    public PacketOutAvatarMovesTest() {
+
+    }
+
+    @Test
+    public void handleUnexpectedPacketTest() {
+        final PacketOutAvatarMoves packet = Mockito.mock(PacketOutAvatarMoves.class);
+
+        this.handler.reset();
+        this.connection.handle(packet);
+
+        Assert.assertTrue(this.handler.logged());
+        Assert.assertTrue(this.handler.logged(Level.WARNING, "Can not move avatars while user is not logged in"));
+
+        this.login();
+        this.handler.reset();
+        this.connection.handle(packet);
+
+        Assert.assertTrue(this.handler.logged());
+        Assert.assertTrue(this.handler.logged(Level.WARNING, "Can not move avatars while user is not in a world"));
+    }
+
+    @Test
+    public void handleInvalidPacketTest() {
+        final PacketOutAvatarMoves packet = Mockito.mock(PacketOutAvatarMoves.class);
+        final AvatarMove move = new AvatarMove(randomUniqueId(), randomEnum(Direction.class), randomFloat(),
+                randomFloat(), randomBoolean(), randomBoolean());
+
+        Mockito.when(packet.getMoves()).thenReturn(new AvatarMove[]{move});
+
+        this.login();
+        this.joinWorld();
+        this.manager.getExternUserController(true);
+        this.handler.reset();
+        this.connection.handle(packet);
+
+        Assert.assertTrue(this.handler.logged());
+        Assert.assertTrue(this.handler.logged(Level.WARNING, "Server tried to move unknown user"));
+    }
+
+    @Test
+    public void handleUndecodablePacketTest() {
+        final PacketOutAvatarMoves packet = Mockito.mock(PacketOutAvatarMoves.class);
+
+        Mockito.doThrow(new IllegalArgumentException("Unknown session id: 0")).when(packet).decode(Mockito.any());
+
+        this.login();
+        this.joinWorld();
+        this.handler.reset();
+        this.connection.handle(packet);
+
+        Assert.assertTrue(this.handler.logged());
+        Assert.assertTrue(this.handler.logged(Level.WARNING, "Unknown session id"));
+        Assert.assertFalse(this.intern.called("set-location"));
+    }
+
+    @Test
+    public void handleCorrectActionTest() {
+        final PacketOutAvatarMoves packet = Mockito.mock(PacketOutAvatarMoves.class);
+
+        this.login();
+        this.joinWorld();
+
+        final AvatarMove move = new AvatarMove(this.intern.getUserId(), randomEnum(Direction.class), randomFloat(),
+                randomFloat(), randomBoolean(), randomBoolean());
+
+        Mockito.when(packet.getMoves()).thenReturn(new AvatarMove[]{move});
+
+        this.handler.reset();
+        this.connection.handle(packet);
+
+        Assert.assertFalse(this.handler.logged());
+        Assert.assertTrue(this.intern.called("set-movable"));
+        Assert.assertTrue(this.intern.called("set-location"));
+    }
+}
@@ -0,0 +1,37 @@
+package controller.network;
+
+import controller.network.protocol.PacketAvatarMove;
+import controller.network.protocol.PacketOutContextRole;
+import controller.network.protocol.PacketOutUserInfo;
+import controller.network.protocol.PacketOutWorldSnapshot;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import java.util.logging.Level;
+
+public class PacketOutWorldSnapshotTest extends PacketClientTest {
+
+    public PacketOutWorldSnapshotTest() {
+
+    }
+
+    @Test
+    public void handleContainedPacketsTest() {
+        final PacketOutWorldSnapshot packet = Mockito.mock(PacketOutWorldSnapshot.class);
+        final PacketOutContextRole role = Mockito.mock(PacketOutContextRole.class);
+
+        Mockito.when(role.getUserId()).thenReturn(randomUniqueId());
+        Mockito.when(packet.getInfos()).thenReturn(new PacketOutUserInfo[0]);
+        Mockito.when(packet.getRoles()).thenReturn(new PacketOutContextRole[]{role});
+        Mockito.when(packet.getAvatars()).thenReturn(new PacketAvatarMove[0]);
+
+        this.login();
+        this.manager.getExternUserController(true);
+        this.handler.reset();
+        this.connection.handle(packet);
+
+        // Die enthaltenen Pakete werden wie einzeln empfangene Pakete verarbeitet.
+        Assert.assertTrue(this.handler.logged());
+        Assert.assertTrue(this.handler.logged(Level.WARNING, "Server tried to send context-role of unknown user"));
+    }
+}
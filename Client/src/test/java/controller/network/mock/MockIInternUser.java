@@ -225,6 +225,11 @@ public class MockIInternUser implements IInternUserController {
         this.calls.add("set-location");
     }
 
+    @Override
+    public void discardLocation() {
+        this.calls.add("discard-location");
+    }
+
     public boolean called(@NotNull final String method) {
         return this.calls.contains(method);
     }
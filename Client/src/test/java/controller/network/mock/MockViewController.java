@@ -8,8 +8,10 @@ import model.context.spatial.ContextMenu;
 import model.exception.UserNotFoundException;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import utils.AudioCodec;
 import view.ViewControllerInterface;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
@@ -27,6 +29,11 @@ public class MockViewController implements ViewControllerInterface {
         this.calls.add("set-sender");
     }
 
+    @Override
+    public void setVoiceCodec(@NotNull final AudioCodec codec) {
+        this.calls.add("set-voice-codec");
+    }
+
     @Override
     public void registrationResponse(final boolean success, @Nullable final MessageBundle messageBundle) {
         this.calls.add("registration-response");
@@ -77,7 +84,8 @@ public class MockViewController implements ViewControllerInterface {
     @Override
     public void receiveChatMessage(@NotNull final UUID userId, @NotNull final LocalDateTime timestamp,
                                    @NotNull final MessageType messageType, @NotNull final String message,
-                                   final byte[] imageData, @Nullable final String imageName) throws UserNotFoundException {
+                                   @Nullable final String imageHash, final byte[] thumbnail,
+                                   @Nullable final String imageName) throws UserNotFoundException {
         this.calls.add("show-chat-message");
 
         if (this.unknownSender) {
@@ -85,6 +93,11 @@ public class MockViewController implements ViewControllerInterface {
         }
     }
 
+    @Override
+    public void receiveImage(@NotNull final String imageHash, final byte[] imageData) {
+        this.calls.add("receive-image");
+    }
+
     public void showChatMessage(final boolean throwUnknown) {
         this.unknownSender = throwUnknown;
     }
@@ -95,7 +108,7 @@ public class MockViewController implements ViewControllerInterface {
     }
 
     @Override
-    public void receiveVoiceFrame(@NotNull final UUID userId, @NotNull final LocalDateTime timestamp,
+    public void receiveVoiceFrame(@NotNull final UUID userId, final int sequence, @NotNull final LocalDateTime timestamp,
                                   final byte[] voiceData) throws UserNotFoundException {
         this.calls.add("play-voice-data");
 
@@ -109,7 +122,13 @@ public class MockViewController implements ViewControllerInterface {
     }
 
     @Override
-    public void receiveMusicFrame(@NotNull final LocalDateTime timestamp, final byte[] musicData,
+    public void receiveMixedVoiceFrame(final int sequence, @NotNull final LocalDateTime timestamp, final byte[] voiceData,
+                                       @NotNull final Collection<UUID> speakerIds) {
+        this.calls.add("play-mixed-voice-data");
+    }
+
+    @Override
+    public void receiveMusicFrame(final int sequence, @NotNull final LocalDateTime timestamp, final byte[] musicData,
                                   final float position, final int seconds) {
         this.calls.add("play-music-data");
     }
@@ -120,6 +139,13 @@ public class MockViewController implements ViewControllerInterface {
         this.calls.add("show-camera-frame");
     }
 
+    @Override
+    public void receiveVideoTiles(@NotNull final UUID userId, @NotNull final LocalDateTime timestamp,
+                                  final boolean keyframe, final int sequence, final int[] tiles,
+                                  final byte[] tileData) {
+        this.calls.add("show-screen-tiles");
+    }
+
     @Override
     public void openMenu(@NotNull final ContextID contextId, @NotNull final ContextMenu menu) {
         this.calls.add("open-menu");
@@ -131,6 +131,15 @@ public class UserTest {
         Assert.assertTrue(testUserView.isInCurrentRoom());
     }
 
+    @Test
+    public void discardLocation() throws ContextNotFoundException {
+        setIsInCurrentRoom();
+        testUserController.discardLocation();
+        Assert.assertFalse(testUserView.isInCurrentRoom());
+        Assert.assertNull(testUserView.getLocation());
+        Assert.assertEquals(room, testUserView.getCurrentRoom());
+    }
+
     @Test
     public void setIsFriend() {
         boolean isFriend = RandomValues.randomBoolean();
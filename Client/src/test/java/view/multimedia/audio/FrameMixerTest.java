@@ -0,0 +1,153 @@
+package view.multimedia.audio;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import util.Benchmark;
+import utils.AudioUtils;
+import view.multimedia.MultimediaManager;
+
+import java.lang.management.ManagementFactory;
+
+public class FrameMixerTest {
+
+    private static final long FRAME_NANOS = 1_000_000_000L / AudioUtils.FRAME_RATE;
+    private static final int FRAME_LENGTH = MultimediaManager.AUDIO_BLOCK_SIZE;
+
+    private FrameMixer mixer;
+
+    @Before
+    public void setUp() {
+        this.mixer = new FrameMixer(FRAME_LENGTH);
+    }
+
+    @Test
+    public void mixTest() {
+        final TestProducer first = new TestProducer();
+        final TestProducer second = new TestProducer();
+        fill(first, (short) 1000, 3);
+        fill(second, (short) -300, 3);
+        second.setGain(2);
+
+        this.mixer.clear();
+        Assert.assertTrue(this.mixer.add(first, 1));
+        Assert.assertTrue(this.mixer.add(second, 0.5f));
+        Assert.assertEquals(2, this.mixer.getProducers());
+        Assert.assertEquals(700, this.mixer.mix()[0]);
+    }
+
+    @Test
+    public void notReadyTest() {
+        final TestProducer producer = new TestProducer();
+        fill(producer, (short) 1000, 1);
+
+        this.mixer.clear();
+        Assert.assertFalse(this.mixer.add(producer, 1));
+        Assert.assertEquals(0, this.mixer.getProducers());
+        Assert.assertEquals(0, this.mixer.mix()[0]);
+    }
+
+    @Test
+    public void mutedTest() {
+        final TestProducer producer = new TestProducer();
+        fill(producer, (short) 1000, 3);
+
+        // Auch stumm geschaltete Audioframes werden entnommen.
+        this.mixer.clear();
+        Assert.assertTrue(this.mixer.add(producer, 0));
+        Assert.assertEquals(0, this.mixer.mix()[0]);
+        Assert.assertEquals(2, producer.getJitterBuffer().getDepth());
+    }
+
+    @Test
+    public void softClipTest() {
+        Assert.assertEquals(1000, FrameMixer.softClip(1000));
+        Assert.assertEquals(-1000, FrameMixer.softClip(-1000));
+
+        short previous = FrameMixer.softClip(20000);
+        for (int sample = 20001; sample < 200000; sample += 97) {
+            final short clipped = FrameMixer.softClip(sample);
+            Assert.assertTrue(clipped >= previous);
+            Assert.assertEquals(-clipped, FrameMixer.softClip(-sample));
+            previous = clipped;
+        }
+        Assert.assertTrue(FrameMixer.softClip(40000) < Short.MAX_VALUE);
+        Assert.assertEquals(Short.MAX_VALUE, FrameMixer.softClip(Float.MAX_VALUE));
+        Assert.assertEquals(-Short.MAX_VALUE, FrameMixer.softClip(-Float.MAX_VALUE));
+    }
+
+    @Test
+    @Category(Benchmark.class)
+    public void benchmarkTest() {
+        final com.sun.management.ThreadMXBean threads
+                = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long thread = Thread.currentThread().getId();
+        final short[] input = new short[FRAME_LENGTH];
+        for (int i = 0; i < input.length; i++) {
+            input[i] = (short) (8000 * Math.sin(2 * Math.PI * 440 * i / AudioUtils.SAMPLING_RATE));
+        }
+
+        for (final int speakers : new int[]{2, 8, 32}) {
+            final TestProducer[] producers = new TestProducer[speakers];
+            for (int i = 0; i < speakers; i++) {
+                producers[i] = new TestProducer();
+            }
+
+            // Fülle die Puffer bis zur Ziellatenz und wärme die Schleife auf, bevor gemessen wird.
+            int sequence = 0;
+            for (; sequence < 2; sequence++) {
+                put(producers, input, sequence);
+            }
+            for (int i = 0; i < 5000; i++, sequence++) {
+                mixFrame(producers, input, sequence);
+            }
+
+            final int frames = 5000;
+            final long allocatedStart = threads.getThreadAllocatedBytes(thread);
+            final long start = System.nanoTime();
+            for (int i = 0; i < frames; i++, sequence++) {
+                mixFrame(producers, input, sequence);
+            }
+            final long time = System.nanoTime() - start;
+            final long allocated = threads.getThreadAllocatedBytes(thread) - allocatedStart;
+
+            System.out.printf("%2d speakers: %7.1f us/frame, %5.2f bytes/frame allocated%n", speakers,
+                    time / 1e3 / frames, (double) allocated / frames);
+            Assert.assertEquals(speakers, this.mixer.getProducers());
+            Assert.assertTrue(speakers + " speakers allocate per frame", allocated < frames);
+        }
+    }
+
+    private void mixFrame(final TestProducer[] producers, final short[] input, final int sequence) {
+        put(producers, input, sequence);
+        this.mixer.clear();
+        for (final TestProducer producer : producers) {
+            this.mixer.add(producer, 0.5f);
+        }
+        this.mixer.mix();
+    }
+
+    private static void put(final TestProducer[] producers, final short[] input, final int sequence) {
+        for (final TestProducer producer : producers) {
+            producer.getJitterBuffer().put(sequence, sequence * FRAME_NANOS, sequence * FRAME_NANOS, input,
+                    input.length);
+        }
+    }
+
+    private static void fill(final TestProducer producer, final short value, final int frames) {
+        final short[] frame = new short[FRAME_LENGTH];
+        java.util.Arrays.fill(frame, value);
+        for (int sequence = 0; sequence < frames; sequence++) {
+            producer.getJitterBuffer().put(sequence, sequence * FRAME_NANOS, sequence * FRAME_NANOS, frame,
+                    frame.length);
+        }
+    }
+
+    private static class TestProducer extends AudioProducer {
+
+        TestProducer() {
+            super(3, 3, 15);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package view.multimedia.audio;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import utils.AudioUtils;
+
+public class JitterBufferTest {
+
+    private static final long FRAME_NANOS = 1_000_000_000L / AudioUtils.FRAME_RATE;
+
+    private static final int FRAME_LENGTH = 2;
+
+    private JitterBuffer buffer;
+    private short[] frame;
+
+    @Before
+    public void setUp() {
+        this.buffer = new JitterBuffer(FRAME_LENGTH, 2, 3, 10);
+        this.frame = new short[FRAME_LENGTH];
+    }
+
+    @Test
+    public void startingDelayTest() {
+        put(0);
+        put(1);
+        Assert.assertFalse(this.buffer.isReady());
+        Assert.assertFalse(this.buffer.poll(this.frame));
+
+        put(2);
+        Assert.assertTrue(this.buffer.isReady());
+        Assert.assertEquals(3, this.buffer.getDepth());
+        Assert.assertEquals(0, poll());
+    }
+
+    @Test
+    public void reorderTest() {
+        put(0);
+        put(2);
+        put(1);
+        put(3);
+
+        for (int sequence = 0; sequence < 4; sequence++) {
+            Assert.assertEquals(sequence, poll());
+        }
+
+        Assert.assertEquals(0, this.buffer.getLostFrames());
+        Assert.assertEquals(0, this.buffer.getLateFrames());
+    }
+
+    @Test
+    public void concealmentTest() {
+        put(0);
+        put(1);
+        put(3);
+
+        Assert.assertEquals(0, poll());
+        Assert.assertEquals(1, poll());
+
+        // Das fehlende Audioframe wird durch das abgeschwächte vorherige Audioframe ersetzt.
+        Assert.assertTrue(this.buffer.poll(this.frame));
+        Assert.assertEquals(1000, this.frame[1]);
+        Assert.assertEquals(1, this.buffer.getLostFrames());
+        Assert.assertEquals(1, this.buffer.getConcealedFrames());
+
+        Assert.assertEquals(3, poll());
+
+        // Das fehlende Audioframe trifft erst nach seiner Wiedergabe ein.
+        put(2);
+        Assert.assertEquals(1, this.buffer.getLateFrames());
+    }
+
+    @Test
+    public void underrunTest() {
+        put(0);
+        put(1);
+        put(2);
+
+        for (int sequence = 0; sequence < 3; sequence++) {
+            Assert.assertTrue(this.buffer.poll(this.frame));
+        }
+
+        Assert.assertFalse(this.buffer.isReady());
+        Assert.assertEquals(1, this.buffer.getUnderruns());
+
+        // Nach einem Unterlauf wird erst wieder abgespielt, wenn die Ziellatenz erreicht ist.
+        put(3);
+        Assert.assertFalse(this.buffer.isReady());
+    }
+
+    @Test
+    public void adaptationTest() {
+        // Bei gleichmäßiger Übertragungsdauer sinkt die Ziellatenz auf das Minimum.
+        for (int sequence = 0; sequence < 100; sequence++) {
+            put(sequence, sequence * FRAME_NANOS);
+            this.buffer.poll(this.frame);
+        }
+        Assert.assertEquals(2, this.buffer.getTargetFrames());
+
+        // Bei stark schwankender Übertragungsdauer steigt die Ziellatenz.
+        for (int sequence = 100; sequence < 200; sequence++) {
+            put(sequence, sequence * FRAME_NANOS + (sequence % 2) * 3 * FRAME_NANOS);
+        }
+        Assert.assertTrue(this.buffer.getTargetFrames() > 2);
+        Assert.assertTrue(this.buffer.getJitter() > 0);
+    }
+
+    @Test
+    public void restartTest() {
+        put(0);
+        put(1);
+        put(2);
+        Assert.assertEquals(0, poll());
+
+        // Eine stark abweichende Nummer beginnt einen neuen Strom.
+        put(10000);
+        Assert.assertEquals(1, this.buffer.getDepth());
+        Assert.assertEquals(10000, this.buffer.getNextSequence());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalBoundsTest() {
+        new JitterBuffer(FRAME_LENGTH, 4, 2, 10);
+    }
+
+    @Test
+    public void copyTest() {
+        final short[] samples = {7, 8};
+        this.buffer.put(0, 0, 0, samples, 1);
+        put(1);
+        put(2);
+
+        // Das Audioframe wird beim Einfügen kopiert und fehlende Samples mit Stille aufgefüllt.
+        samples[0] = 0;
+        Assert.assertEquals(7, poll());
+        Assert.assertEquals(0, this.frame[1]);
+    }
+
+    private int poll() {
+        Assert.assertTrue(this.buffer.poll(this.frame));
+        return this.frame[0];
+    }
+
+    private void put(final int sequence) {
+        put(sequence, sequence * FRAME_NANOS);
+    }
+
+    private void put(final int sequence, final long arrival) {
+        this.buffer.put(sequence, sequence * FRAME_NANOS, arrival, new short[]{(short) sequence, 2000}, FRAME_LENGTH);
+    }
+}
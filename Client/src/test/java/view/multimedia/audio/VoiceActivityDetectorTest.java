@@ -0,0 +1,160 @@
+package view.multimedia.audio;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import utils.AudioCodec;
+import utils.AudioUtils;
+import view.multimedia.MultimediaManager;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Random;
+
+public class VoiceActivityDetectorTest {
+
+    private static final int FRAME_LENGTH = MultimediaManager.AUDIO_BLOCK_SIZE;
+    private static final int HANGOVER_FRAMES = 9;
+    private static final int LOOK_AHEAD_FRAMES = 4;
+
+    private VoiceActivityDetector detector;
+    private Random random;
+
+    @Before
+    public void setUp() {
+        this.detector = new VoiceActivityDetector(HANGOVER_FRAMES);
+        this.detector.setThreshold(400);
+        this.random = new Random(15);
+    }
+
+    @Test
+    public void silenceTest() {
+        for (int i = 0; i < 100; i++) {
+            Assert.assertFalse(this.detector.process(frame(0, 50)));
+        }
+    }
+
+    @Test
+    public void speechTest() {
+        Assert.assertTrue(this.detector.process(frame(3000, 50)));
+        Assert.assertTrue(this.detector.getEnergy() > 400);
+    }
+
+    @Test
+    public void hangoverTest() {
+        Assert.assertTrue(this.detector.process(frame(3000, 50)));
+
+        // Nach dem Ende der Sprache wird noch für die Dauer der Nachlaufzeit gesendet.
+        for (int i = 0; i < HANGOVER_FRAMES; i++) {
+            Assert.assertTrue(this.detector.process(frame(0, 50)));
+        }
+        Assert.assertFalse(this.detector.process(frame(0, 50)));
+    }
+
+    @Test
+    public void noiseFloorTest() {
+        // Ein gleichmäßiges lautes Geräusch oberhalb der Schwelle wird nach kurzer Zeit nicht mehr als Sprache
+        // erkannt, wenn es leise beginnt.
+        for (int i = 0; i < 200; i++) {
+            this.detector.process(frame(0, 150 + i * 2));
+        }
+        Assert.assertTrue(this.detector.getNoiseFloor() > 300);
+        Assert.assertFalse(this.detector.process(frame(0, 550)));
+
+        // Sprache, die sich deutlich vom Geräusch abhebt, wird weiterhin erkannt.
+        Assert.assertTrue(this.detector.process(frame(4000, 550)));
+    }
+
+    @Test
+    public void alwaysSendTest() {
+        this.detector.setThreshold(0);
+
+        Assert.assertTrue(this.detector.process(frame(0, 0)));
+    }
+
+    @Test
+    public void bandwidthTest() {
+        final AudioCodec codec = AudioCodec.ADPCM_16K;
+        final Queue<short[]> lookAhead = new ArrayDeque<>();
+        final int totalFrames = 60 * AudioUtils.FRAME_RATE;
+        final boolean[] speaking = conversation(totalFrames);
+
+        long continuousBytes = 0;
+        long sentBytes = 0;
+        int spurts = 0;
+        int missedFrames = 0;
+        boolean sending = false;
+
+        for (int i = 0; i < totalFrames; i++) {
+            final short[] frame = frame(speaking[i] ? syllable(i) : 0, 60);
+            final int frameBytes = codec.encode(frame).length;
+            continuousBytes += frameBytes;
+
+            // Nachbildung des Sendepuffers des VoiceRecorder.
+            lookAhead.add(frame);
+            if (lookAhead.size() > LOOK_AHEAD_FRAMES) {
+                lookAhead.poll();
+            }
+
+            if (this.detector.process(frame)) {
+                if (!sending) {
+                    spurts++;
+                }
+                sentBytes += (long) lookAhead.size() * frameBytes;
+                lookAhead.clear();
+                sending = true;
+            } else {
+                if (speaking[i]) {
+                    missedFrames++;
+                }
+                if (sending) {
+                    // Stillemarkierung ohne Sprachdaten.
+                    sentBytes += 1;
+                    sending = false;
+                }
+            }
+        }
+
+        final double reduction = 1 - (double) sentBytes / continuousBytes;
+
+        Assert.assertTrue("Speech must not be suppressed", missedFrames <= spurts);
+        Assert.assertTrue("Silence must be suppressed", reduction > 0.3);
+    }
+
+    /**
+     * Erzeugt den Verlauf eines Gesprächs, in dem sich Redeanteile von 1 bis 4 Sekunden mit Zuhören von 1 bis 5
+     * Sekunden abwechseln. Innerhalb der Redeanteile entstehen kurze Pausen zwischen den Wörtern.
+     */
+    private boolean[] conversation(final int frames) {
+        final boolean[] speaking = new boolean[frames];
+        int frame = 0;
+
+        while (frame < frames) {
+            final int talk = AudioUtils.FRAME_RATE + this.random.nextInt(3 * AudioUtils.FRAME_RATE);
+            for (int i = 0; i < talk && frame < frames; i++, frame++) {
+                // Pausen zwischen den Wörtern von etwa 100 Millisekunden.
+                speaking[frame] = this.random.nextInt(8) != 0;
+            }
+            frame += AudioUtils.FRAME_RATE + this.random.nextInt(4 * AudioUtils.FRAME_RATE);
+        }
+        return speaking;
+    }
+
+    private int syllable(final int frame) {
+        // Die Lautstärke schwankt im Takt der Silben.
+        return (int) (2500 + 1500 * Math.sin(2 * Math.PI * 4 * frame / AudioUtils.FRAME_RATE));
+    }
+
+    /**
+     * Erzeugt ein Audioframe aus einem stimmhaften Signal mit Grundfrequenz und Obertönen sowie Rauschen.
+     */
+    private short[] frame(final int amplitude, final int noise) {
+        final short[] frame = new short[FRAME_LENGTH];
+        for (int i = 0; i < frame.length; i++) {
+            final double phase = 2 * Math.PI * 140 * i / AudioUtils.SAMPLING_RATE;
+            final double voiced = Math.sin(phase) + 0.5 * Math.sin(2 * phase) + 0.25 * Math.sin(3 * phase);
+            frame[i] = (short) (amplitude * voiced / 1.75 + noise * this.random.nextGaussian());
+        }
+        return frame;
+    }
+}
@@ -0,0 +1,304 @@
+package view.multimedia.video;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import util.Benchmark;
+import utils.VideoUtils;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+public class ScreenTileCodecTest {
+
+    private static final int WIDTH = ScreenRecorder.FRAME_WIDTH;
+    private static final int HEIGHT = ScreenRecorder.FRAME_HEIGHT;
+    private static final int COLUMNS = (WIDTH + VideoUtils.TILE_SIZE - 1) / VideoUtils.TILE_SIZE;
+    private static final int FPS = VideoRecorder.MAX_FPS;
+    private static final float QUALITY = 0.25f;
+
+    private long time;
+    private ScreenTileEncoder encoder;
+    private ScreenTileDecoder decoder;
+
+    @Before
+    public void setUp() {
+        this.time = 0;
+        this.encoder = new ScreenTileEncoder(() -> this.time);
+        this.decoder = new ScreenTileDecoder();
+    }
+
+    @Test
+    public void unchangedTest() {
+        final BufferedImage frame = new Presentation(0).frame(0);
+
+        Assert.assertTrue(next(frame).isKeyframe());
+        Assert.assertNull(next(frame));
+
+        // Nach einem verworfenen Frame wird auch ohne Veränderung ein Schlüsselframe gesendet.
+        this.encoder.requestKeyframe();
+        Assert.assertTrue(next(frame).isKeyframe());
+    }
+
+    @Test
+    public void changedTilesTest() {
+        final BufferedImage frame = new Presentation(0).frame(0);
+        next(frame);
+
+        // Verändere einen Bereich, der zwei nebeneinanderliegende Kacheln berührt.
+        final BufferedImage changed = copy(frame);
+        fill(changed, 2 * VideoUtils.TILE_SIZE - 2, VideoUtils.TILE_SIZE + 4, 4, 4, Color.RED);
+        final ScreenTileEncoder.TileFrame tileFrame = next(changed);
+
+        Assert.assertFalse(tileFrame.isKeyframe());
+        Assert.assertEquals(1, tileFrame.getSequence());
+        Assert.assertArrayEquals(new int[]{COLUMNS + 1, COLUMNS + 2}, tileFrame.getTiles());
+        Assert.assertEquals(2 * VideoUtils.TILE_SIZE, tileFrame.getImage().getWidth());
+        Assert.assertEquals(VideoUtils.TILE_SIZE, tileFrame.getImage().getHeight());
+    }
+
+    @Test
+    public void manyChangedTilesTest() {
+        final Presentation presentation = new Presentation(0);
+        next(presentation.frame(0));
+
+        // Bei einem Folienwechsel ist das vollständige Bild nicht größer als die veränderten Kacheln.
+        presentation.nextSlide();
+        Assert.assertTrue(next(presentation.frame(0)).isKeyframe());
+    }
+
+    @Test
+    public void keyframeIntervalTest() {
+        final BufferedImage frame = new Presentation(0).frame(0);
+        next(frame);
+
+        for (int i = 1; i < 2 * FPS; i++) {
+            this.time += TimeUnit.SECONDS.toNanos(1) / FPS;
+            Assert.assertNull(next(frame));
+        }
+
+        // Auch ohne Veränderung wird regelmäßig ein Schlüsselframe für neue Empfänger gesendet.
+        this.time = TimeUnit.SECONDS.toNanos(2);
+        Assert.assertTrue(next(frame).isKeyframe());
+    }
+
+    @Test
+    public void roundTripTest() {
+        final Presentation presentation = new Presentation(1);
+
+        for (int i = 0; i < 10 * FPS; i++) {
+            final BufferedImage frame = presentation.frame(i);
+            final ScreenTileEncoder.TileFrame tileFrame = next(frame);
+            this.time += TimeUnit.SECONDS.toNanos(1) / FPS;
+            if (tileFrame == null) {
+                continue;
+            }
+
+            final BufferedImage decoded = decode(tileFrame, 0.9f);
+            Assert.assertNotNull(decoded);
+            Assert.assertEquals(WIDTH, decoded.getWidth());
+            Assert.assertEquals(HEIGHT, decoded.getHeight());
+
+            // Das zusammengesetzte Bild weicht nicht stärker ab als ein vollständig komprimiertes Frame.
+            final BufferedImage full = VideoUtils.read(VideoUtils.compress(frame, 0.9f));
+            Assert.assertTrue("Frame " + i + " differs", difference(frame, decoded) < 1.1 * difference(frame, full));
+        }
+    }
+
+    @Test
+    public void edgeTileTest() {
+        final BufferedImage frame = new Presentation(0).frame(0);
+        decode(next(frame), 1);
+
+        // Die Kacheln am Rand sind schmaler als die übrigen Kacheln.
+        final BufferedImage changed = copy(frame);
+        fill(changed, WIDTH - 4, HEIGHT - 4, 4, 4, Color.BLUE);
+        final ScreenTileEncoder.TileFrame tileFrame = next(changed);
+        Assert.assertArrayEquals(new int[]{COLUMNS * (HEIGHT / VideoUtils.TILE_SIZE) - 1}, tileFrame.getTiles());
+
+        final Color color = new Color(decode(tileFrame, 1).getRGB(WIDTH - 2, HEIGHT - 2));
+        Assert.assertTrue(color.getBlue() > 200 && color.getRed() < 50 && color.getGreen() < 50);
+    }
+
+    @Test
+    public void sequenceGapTest() {
+        final Presentation presentation = new Presentation(2);
+        Assert.assertNotNull(decode(next(presentation.frame(0)), QUALITY));
+
+        presentation.nextBullet();
+        next(presentation.frame(0));
+        presentation.nextBullet();
+
+        // Nach einem verlorenen Frame werden alle Frames bis zum nächsten Schlüsselframe verworfen.
+        Assert.assertNull(decode(next(presentation.frame(0)), QUALITY));
+        presentation.nextBullet();
+        Assert.assertNull(decode(next(presentation.frame(0)), QUALITY));
+
+        this.encoder.requestKeyframe();
+        Assert.assertNotNull(decode(next(presentation.frame(0)), QUALITY));
+        presentation.nextBullet();
+        Assert.assertNotNull(decode(next(presentation.frame(0)), QUALITY));
+    }
+
+    @Test
+    public void bandwidthTest() {
+        final int frames = 30 * FPS;
+
+        // Die Kacheln benötigen weniger als ein Viertel der Daten vollständiger Frames.
+        Assert.assertTrue(share(frames, true) * 4 < share(frames, false));
+    }
+
+    @Test
+    @Category(Benchmark.class)
+    public void cpuBenchmark() {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        final int frames = 30 * FPS;
+
+        // Aufwärmen, damit beide Varianten kompiliert verglichen werden.
+        share(frames / 4, false);
+        share(frames / 4, true);
+
+        long start = bean.getCurrentThreadCpuTime();
+        final long fullBytes = share(frames, false);
+        final long fullTime = bean.getCurrentThreadCpuTime() - start;
+
+        start = bean.getCurrentThreadCpuTime();
+        final long tileBytes = share(frames, true);
+        final long tileTime = bean.getCurrentThreadCpuTime() - start;
+
+        System.out.printf("Screen share of %d s presentation: full frames %.1f kbit/s, %.2f ms per frame; tiles "
+                        + "%.1f kbit/s, %.2f ms per frame (%.1fx less data, %.1fx less CPU)%n", frames / FPS,
+                fullBytes * 8.0 / (frames / FPS) / 1000, fullTime / 1e6 / frames,
+                tileBytes * 8.0 / (frames / FPS) / 1000, tileTime / 1e6 / frames,
+                (double) fullBytes / tileBytes, (double) fullTime / tileTime);
+        Assert.assertTrue(tileTime < fullTime);
+    }
+
+    /**
+     * Sendet eine Präsentation entweder als vollständige Frames oder als veränderte Kacheln.
+     * @return Anzahl gesendeter Bytes.
+     */
+    private long share(final int frames, final boolean tiles) {
+        final Presentation presentation = new Presentation(3);
+        long bytes = 0;
+        for (int i = 0; i < frames; i++) {
+            final BufferedImage frame = presentation.frame(i);
+            if (tiles) {
+                final ScreenTileEncoder.TileFrame tileFrame = next(frame);
+                if (tileFrame != null) {
+                    bytes += VideoUtils.compress(tileFrame.getImage(), QUALITY).length;
+                }
+            } else {
+                bytes += VideoUtils.compress(frame, QUALITY).length;
+            }
+            this.time += TimeUnit.SECONDS.toNanos(1) / FPS;
+        }
+        return bytes;
+    }
+
+    private ScreenTileEncoder.TileFrame next(final BufferedImage frame) {
+        return this.encoder.next(frame);
+    }
+
+    private BufferedImage decode(final ScreenTileEncoder.TileFrame tileFrame, final float quality) {
+        return this.decoder.decode(tileFrame.isKeyframe(), tileFrame.getSequence(), tileFrame.getTiles(),
+                VideoUtils.compress(tileFrame.getImage(), quality));
+    }
+
+    /**
+     * Berechnet die mittlere Abweichung der Farbwerte zweier Bilder.
+     */
+    private static double difference(final BufferedImage expected, final BufferedImage actual) {
+        final byte[] first = ((DataBufferByte) expected.getRaster().getDataBuffer()).getData();
+        final byte[] second = ((DataBufferByte) actual.getRaster().getDataBuffer()).getData();
+        Assert.assertEquals(first.length, second.length);
+
+        long difference = 0;
+        for (int i = 0; i < first.length; i++) {
+            difference += Math.abs((first[i] & 0xff) - (second[i] & 0xff));
+        }
+        return (double) difference / first.length;
+    }
+
+    private static BufferedImage copy(final BufferedImage image) {
+        final BufferedImage copy = new BufferedImage(image.getWidth(), image.getHeight(), image.getType());
+        copy.setData(image.getData());
+        return copy;
+    }
+
+    private static void fill(final BufferedImage image, final int x, final int y, final int width, final int height,
+                             final Color color) {
+        final Graphics2D graphics = image.createGraphics();
+        graphics.setColor(color);
+        graphics.fillRect(x, y, width, height);
+        graphics.dispose();
+    }
+
+    /**
+     * Erzeugt Bildschirmaufnahmen einer Präsentation mit Folien aus Text, bei der sich der Mauszeiger bewegt, jede
+     * Sekunde ein Stichpunkt erscheint und alle zehn Sekunden die Folie gewechselt wird.
+     */
+    private static class Presentation {
+
+        private final Random random;
+        private BufferedImage slide;
+        private int bullets;
+
+        public Presentation(final long seed) {
+            this.random = new Random(seed);
+            this.nextSlide();
+        }
+
+        public void nextSlide() {
+            this.slide = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_3BYTE_BGR);
+            fill(this.slide, 0, 0, WIDTH, HEIGHT, new Color(this.random.nextInt(0x1000000)).brighter());
+            fill(this.slide, 0, 0, WIDTH, 60, new Color(this.random.nextInt(0x1000000)).darker());
+            this.text(40, 20, 400, 20, Color.WHITE);
+            this.bullets = 0;
+        }
+
+        public void nextBullet() {
+            if (this.bullets == 10) {
+                this.nextSlide();
+            }
+            final int y = 90 + this.bullets++ * 36;
+            fill(this.slide, 50, y + 4, 8, 8, Color.DARK_GRAY);
+            this.text(70, y, 200 + this.random.nextInt(500), 14, Color.BLACK);
+        }
+
+        public BufferedImage frame(final int index) {
+            if (index > 0 && index % FPS == 0) {
+                this.nextBullet();
+            }
+
+            // Der Mauszeiger bewegt sich in der ersten Hälfte jeder Sekunde über die Folie.
+            final BufferedImage frame = copy(this.slide);
+            final int step = Math.min(index % FPS, FPS / 2);
+            fill(frame, 300 + 12 * step, 200 + 5 * step, 10, 14, Color.BLACK);
+            return frame;
+        }
+
+        /**
+         * Zeichnet eine Textzeile aus Wörtern unterschiedlicher Länge.
+         */
+        private void text(final int x, final int y, final int width, final int height, final Color color) {
+            for (int position = x; position < x + width; ) {
+                final int word = 3 + this.random.nextInt(9);
+                for (int letter = 0; letter < word && position < x + width; letter++) {
+                    final int letterWidth = 4 + this.random.nextInt(5);
+                    final int letterHeight = height / 2 + this.random.nextInt(height / 2);
+                    fill(this.slide, position, y + height - letterHeight, letterWidth - 1, letterHeight, color);
+                    position += letterWidth;
+                }
+                position += 6;
+            }
+        }
+    }
+}
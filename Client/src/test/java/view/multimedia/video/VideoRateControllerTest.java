@@ -0,0 +1,196 @@
+package view.multimedia.video;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import util.Benchmark;
+import utils.VideoUtils;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+public class VideoRateControllerTest {
+
+    private static final int WIDTH = CameraRecorder.FRAME_WIDTH;
+    private static final int HEIGHT = CameraRecorder.FRAME_HEIGHT;
+    private static final int MAX_FRAME_SIZE = 42768;
+    private static final int MAX_FPS = VideoRecorder.MAX_FPS;
+    private static final int TARGET_BITRATE = 128000;
+
+    private long time;
+    private Random random;
+
+    @Before
+    public void setUp() {
+        this.time = 0;
+        this.random = new Random(19);
+    }
+
+    @Test
+    public void bitrateTest() {
+        final VideoRateController controller = controller(0.75f, TARGET_BITRATE);
+        final BufferedImage frame = image(16);
+        final int frames = 10 * MAX_FPS;
+
+        long bytes = 0;
+        for (int i = 0; i < frames; i++) {
+            final int size = encode(controller, frame, 0);
+            if (i >= frames / 2) {
+                bytes += size;
+            }
+        }
+
+        final double seconds = (frames / 2.0) / controller.getFps();
+        Assert.assertEquals(frames, controller.getFrames());
+        Assert.assertEquals(0, controller.getDroppedFrames());
+        Assert.assertEquals(bytes * 8 / seconds / 1000, controller.getBitrate(), 0.3 * TARGET_BITRATE * 8 / 1000);
+        Assert.assertEquals(TARGET_BITRATE, bytes / seconds, 0.2 * TARGET_BITRATE);
+        Assert.assertTrue(controller.getEncodeTime() > 0);
+    }
+
+    @Test
+    @Category(Benchmark.class)
+    public void encodeBenchmark() {
+        final VideoRateController controller = controller(0.75f, TARGET_BITRATE);
+        final BufferedImage frame = image(16);
+        final int frames = 10 * MAX_FPS;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < frames; i++) {
+            encode(controller, frame, 0);
+        }
+        final long encodeTime = System.nanoTime() - start;
+
+        // Vergleich mit dem bisherigen Komprimieren, bei dem die Qualität schrittweise bis zur Zielgröße verringert wurde.
+        int encodes = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < frames; i++) {
+            encodes += compressIteratively(frame, 0.75f, TARGET_BITRATE / MAX_FPS);
+        }
+        final long iterativeTime = System.nanoTime() - start;
+
+        System.out.printf("Video rate control: %.1f ms per frame with 1 encode, %s; iterative: %.1f ms per frame "
+                        + "with %.1f encodes%n", encodeTime / 1e6 / frames, controller, iterativeTime / 1e6 / frames,
+                (double) encodes / frames);
+        Assert.assertTrue(encodes >= frames);
+    }
+
+    @Test
+    public void downgradeTest() {
+        final VideoRateController controller = controller(0.75f, TARGET_BITRATE / 8);
+        final BufferedImage frame = image(2);
+
+        for (int i = 0; i < 3 * MAX_FPS; i++) {
+            encode(controller, frame, 0);
+        }
+
+        // Reicht selbst die geringste Qualität nicht aus, wird erst die Auflösung und dann die Bildrate verringert.
+        Assert.assertEquals(0.5f, controller.getScale(), 0);
+        Assert.assertTrue(controller.getFps() < MAX_FPS);
+    }
+
+    @Test
+    public void upgradeTest() {
+        final VideoRateController controller = controller(0.75f, TARGET_BITRATE);
+
+        for (int i = 0; i < 2 * MAX_FPS; i++) {
+            encode(controller, image(1), 0);
+        }
+        Assert.assertTrue(controller.getScale() < 1);
+
+        // Bei einfachen Bildinhalten wird die Verringerung wieder aufgehoben.
+        final BufferedImage frame = image(64);
+        for (int i = 0; i < 20 * MAX_FPS; i++) {
+            encode(controller, frame, 0);
+        }
+        Assert.assertEquals(1, controller.getScale(), 0);
+        Assert.assertEquals(MAX_FPS, controller.getFps());
+    }
+
+    @Test
+    public void encodeTimeTest() {
+        final VideoRateController controller = controller(0.75f, TARGET_BITRATE);
+        final BufferedImage frame = image(64);
+        final long encodeTime = TimeUnit.MILLISECONDS.toNanos(60);
+
+        for (int i = 0; i < 2 * MAX_FPS; i++) {
+            encode(controller, frame, encodeTime);
+        }
+
+        // Dauert das Komprimieren länger als die halbe Zeit zwischen zwei Frames, wird die Last verringert.
+        Assert.assertTrue(controller.getFps() < MAX_FPS);
+        Assert.assertTrue(TimeUnit.MILLISECONDS.toNanos(1000 / controller.getFps()) >= 2 * encodeTime
+                * controller.getScale() * controller.getScale());
+    }
+
+    @Test
+    public void droppedFrameTest() {
+        final VideoRateController controller = controller(0.75f, TARGET_BITRATE);
+
+        Assert.assertFalse(controller.update(WIDTH, HEIGHT, 0.75f, MAX_FRAME_SIZE + 1, 0));
+        Assert.assertFalse(controller.update(WIDTH, HEIGHT, 0.75f, 0, 0));
+        Assert.assertEquals(2, controller.getDroppedFrames());
+        Assert.assertEquals(0, controller.getFrames());
+
+        // Die Qualität des nächsten Frames wird entsprechend der zu großen Frames verringert.
+        Assert.assertTrue(controller.nextQuality(WIDTH, HEIGHT) < 0.75f);
+    }
+
+    private VideoRateController controller(final float maxQuality, final int targetBitrate) {
+        return new VideoRateController(maxQuality, MAX_FRAME_SIZE, MAX_FPS, targetBitrate, () -> this.time);
+    }
+
+    /**
+     * Komprimiert ein Frame wie der VideoRecorder und lässt die Zeit bis zum nächsten Frame vergehen.
+     * @param encodeTime Zusätzliche Dauer des Komprimierens, um einen langsamen Prozessor nachzubilden.
+     * @return Größe des gesendeten Frames oder 0, falls es verworfen wurde.
+     */
+    private int encode(final VideoRateController controller, final BufferedImage frame, final long encodeTime) {
+        final float scale = controller.getScale();
+        final BufferedImage scaledFrame = scale < 1 ? VideoUtils.scaleImage(frame, Math.round(scale * WIDTH),
+                Math.round(scale * HEIGHT)) : frame;
+        final long start = System.nanoTime();
+        final float quality = controller.nextQuality(scaledFrame.getWidth(), scaledFrame.getHeight());
+        final byte[] data = VideoUtils.compress(scaledFrame, quality);
+        final boolean sent = controller.update(scaledFrame.getWidth(), scaledFrame.getHeight(), quality, data.length,
+                System.nanoTime() - start + encodeTime);
+        this.time += TimeUnit.SECONDS.toNanos(1) / controller.getFps();
+        return sent ? data.length : 0;
+    }
+
+    /**
+     * Komprimiert ein Frame mit schrittweise verringerter Qualität, bis es die maximale Größe unterschreitet.
+     * @return Anzahl der benötigten Komprimierungen.
+     */
+    private static int compressIteratively(final BufferedImage frame, final float maxQuality, final int maxSize) {
+        int encodes = 0;
+        float quality = maxQuality;
+        byte[] data;
+        do {
+            data = VideoUtils.compress(frame, quality);
+            encodes++;
+            quality -= 0.1f;
+        } while (data.length > maxSize && quality > 0);
+        return encodes;
+    }
+
+    /**
+     * Erzeugt ein Bild aus Blöcken zufälliger Farbe und Rauschen. Je kleiner die Blöcke, desto komplexer das Bild.
+     */
+    private BufferedImage image(final int blockSize) {
+        final BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_3BYTE_BGR);
+        for (int y = 0; y < HEIGHT; y += blockSize) {
+            for (int x = 0; x < WIDTH; x += blockSize) {
+                final int color = this.random.nextInt(0x1000000);
+                for (int dy = 0; dy < blockSize && y + dy < HEIGHT; dy++) {
+                    for (int dx = 0; dx < blockSize && x + dx < WIDTH; dx++) {
+                        image.setRGB(x + dx, y + dy, color ^ this.random.nextInt(8));
+                    }
+                }
+            }
+        }
+        return image;
+    }
+}
@@ -3,13 +3,20 @@ package controller.network;
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryonet.EndPoint;
 import com.esotericsoftware.kryonet.Listener;
+import controller.network.protocol.PacketAudioCodec;
 import controller.network.protocol.PacketAudioMessage;
 import controller.network.protocol.PacketAvatarMove;
 import controller.network.protocol.PacketChatMessage;
+import controller.network.protocol.PacketChunk;
+import controller.network.protocol.PacketChunkCredit;
+import controller.network.protocol.PacketCodec;
+import controller.network.protocol.PacketImageChunk;
 import controller.network.protocol.PacketInContextInteract;
 import controller.network.protocol.PacketInUserManage;
+import controller.network.protocol.PacketInViewport;
 import controller.network.protocol.PacketMenuOption;
 import controller.network.protocol.PacketNotificationResponse;
+import controller.network.protocol.PacketOutAvatarMoves;
 import controller.network.protocol.PacketOutCommunicable;
 import controller.network.protocol.PacketOutContextInfo;
 import controller.network.protocol.PacketOutContextJoin;
@@ -18,13 +25,16 @@ import controller.network.protocol.PacketOutContextRole;
 import controller.network.protocol.PacketOutMenuAction;
 import controller.network.protocol.PacketOutNotification;
 import controller.network.protocol.PacketOutUserInfo;
+import controller.network.protocol.PacketOutWorldSnapshot;
 import controller.network.protocol.PacketProfileAction;
 import controller.network.protocol.PacketUserTyping;
 import controller.network.protocol.PacketVideoFrame;
+import controller.network.protocol.PacketVideoTileFrame;
 import controller.network.protocol.PacketWorldAction;
 import model.role.Permission;
 import org.jetbrains.annotations.NotNull;
 import java.time.LocalDateTime;
+import java.util.logging.Logger;
 
 /**
  * Eine abstrakte Klasse, die die Verbindung zwischen dem Client und dem Server verwaltet
@@ -41,17 +51,21 @@ public abstract class NetworkManager<T extends EndPoint> extends Listener {
 
     protected volatile boolean active;
     protected final T endPoint;
+    protected final PacketCodec codec;
+    protected final PacketTrace trace;
 
     protected String host;
     protected int tcp;
     protected int udp;
 
-    protected NetworkManager(@NotNull final T endPoint) {
+    protected NetworkManager(@NotNull final T endPoint, @NotNull final PacketCodec codec) {
         this.endPoint = endPoint;
+        this.codec = codec;
+        this.trace = new PacketTrace(Logger.getLogger("chati.network"));
         this.host = HOST_IP;
         this.tcp = HOST_TCP_PORT;
         this.udp = HOST_UDP_PORT;
-        this.register(endPoint.getKryo());
+        register(endPoint.getKryo());
 
         endPoint.addListener(this);
     }
@@ -60,7 +74,7 @@ public abstract class NetworkManager<T extends EndPoint> extends Listener {
      * Registriert alle Netzwerkpakete die zwischen der Server- und der Client-Anwendung ausgetauscht werden.
      * @param kryo Die Kryo-Instanz, in der die Netzwerkpakete registriert werden.
      */
-    private void register(@NotNull final Kryo kryo) {
+    static void register(@NotNull final Kryo kryo) {
         kryo.register(LocalDateTime.class);
         kryo.register(Permission.class);
         kryo.register(PacketAvatarMove.class);
@@ -82,6 +96,14 @@ public abstract class NetworkManager<T extends EndPoint> extends Listener {
         kryo.register(PacketOutMenuAction.class);
         kryo.register(PacketOutNotification.class);
         kryo.register(PacketOutUserInfo.class);
+        kryo.register(PacketOutAvatarMoves.class);
+        kryo.register(PacketInViewport.class);
+        kryo.register(PacketAudioCodec.class);
+        kryo.register(PacketVideoTileFrame.class);
+        kryo.register(PacketImageChunk.class);
+        kryo.register(PacketChunk.class);
+        kryo.register(PacketChunkCredit.class);
+        kryo.register(PacketOutWorldSnapshot.class);
     }
 
     /**
@@ -92,6 +114,22 @@ public abstract class NetworkManager<T extends EndPoint> extends Listener {
         return this.endPoint;
     }
 
+    /**
+     * Gibt die Serialisierung zurück, mit der große Pakete vor dem Versenden in Abschnitten serialisiert werden.
+     * @return die Serialisierung des Endpunkts.
+     */
+    public @NotNull PacketCodec getCodec() {
+        return this.codec;
+    }
+
+    /**
+     * Gibt die Verfolgung der Netzwerkpakete zurück, die über den Endpunkt gesendet und empfangen werden.
+     * @return die Verfolgung der Netzwerkpakete.
+     */
+    public @NotNull PacketTrace getPacketTrace() {
+        return this.trace;
+    }
+
     /**
      * Setzt den Hostnamen bzw. die IP-Adresse, die von dem Netzwerkmanager genutzt wird.
      * @param host der Hostname oder die IP-Adresse.
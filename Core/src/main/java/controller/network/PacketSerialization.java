@@ -0,0 +1,41 @@
+package controller.network;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryonet.KryoSerialization;
+import controller.network.protocol.Packet;
+import controller.network.protocol.PacketCodec;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Eine Serialisierung, welche die Pakete einer Verbindung zusätzlich unabhängig von der Verbindung serialisieren und
+ * deserialisieren kann, damit große Pakete in Abschnitten übertragen werden können.
+ * <p>
+ *     Die Daten entsprechen dabei exakt den Daten, die beim Schreiben des Pakets in die Verbindung entstehen würden.
+ * </p>
+ * @see controller.network.protocol.ChunkSender
+ */
+public class PacketSerialization extends KryoSerialization implements PacketCodec {
+
+    /** Anfängliche Größe des Puffers, in den Pakete serialisiert werden. */
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+
+    private final Output output;
+
+    public PacketSerialization() {
+        this.output = new Output(INITIAL_BUFFER_SIZE, -1);
+    }
+
+    @Override
+    public synchronized byte[] encode(@NotNull final Packet<?> packet) {
+        this.output.setPosition(0);
+        getKryo().writeClassAndObject(this.output, packet);
+
+        return this.output.toBytes();
+    }
+
+    @Override
+    public synchronized @NotNull Object decode(final byte[] data) {
+        return getKryo().readClassAndObject(new Input(data));
+    }
+}
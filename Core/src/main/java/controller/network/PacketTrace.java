@@ -0,0 +1,278 @@
+package controller.network;
+
+import controller.network.protocol.Packet;
+import controller.network.protocol.PacketAudioMessage;
+import controller.network.protocol.PacketAvatarMove;
+import controller.network.protocol.PacketOutAvatarMoves;
+import controller.network.protocol.PacketVideoFrame;
+import controller.network.protocol.PacketVideoTileFrame;
+import org.jetbrains.annotations.NotNull;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Verfolgt die gesendeten und empfangenen Netzwerkpakete eines Netzwerkmanagers.
+ * <p>
+ *     Ist weder die Aufzeichnung aktiv noch der Logger für die Pakete freigegeben, so kostet die Verfolgung eines
+ *     Pakets nur eine Abfrage. Pakete werden ausschließlich über die Parameter des Log-Eintrags übergeben, sodass die
+ *     Textdarstellung erst von einem Handler erzeugt wird, der den Eintrag auch tatsächlich ausgibt.
+ * </p>
+ * <p>
+ *     Die Aufzeichnung speichert jedes Paket als binären Eintrag aus Zeitpunkt, Verbindung, Pakettyp und Richtung in
+ *     einem Ringpuffer fester Größe, welcher bei Bedarf ausgegeben werden kann. Für jeden Pakettyp kann festgelegt
+ *     werden, dass nur jedes n-te Paket verfolgt wird.
+ * </p>
+ */
+public class PacketTrace {
+
+    /** Anzahl der Einträge des Ringpuffers. Muss eine Zweierpotenz sein. */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /** Pakettypen, die mit hoher Rate versendet werden und daher erst auf einer feineren Stufe geloggt werden. */
+    private static final Set<Class<?>> FREQUENT_PACKETS = Set.of(PacketAvatarMove.class, PacketOutAvatarMoves.class,
+            PacketAudioMessage.class, PacketVideoFrame.class, PacketVideoTileFrame.class);
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+
+    private final Logger logger;
+    private final int capacity;
+    private final Map<Class<?>, Type> types;
+    private final List<Type> typeIds;
+    private final AtomicLong position;
+
+    /* Zeitpunkt der Erzeugung, um die Zeitpunkte der Einträge in Uhrzeiten umzurechnen. */
+    private final long startNanos;
+    private final long startMillis;
+
+    /* Ringpuffer aus Zeitpunkten und Einträgen, wird erst bei Beginn der Aufzeichnung angelegt. */
+    private volatile long[] times;
+    private volatile long[] records;
+    private volatile boolean recording;
+
+    public PacketTrace(@NotNull final Logger logger) {
+        this(logger, DEFAULT_CAPACITY);
+    }
+
+    public PacketTrace(@NotNull final Logger logger, final int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two");
+        }
+
+        this.logger = logger;
+        this.capacity = capacity;
+        this.types = new ConcurrentHashMap<>();
+        this.typeIds = new ArrayList<>();
+        this.position = new AtomicLong();
+        this.startNanos = System.nanoTime();
+        this.startMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Verfolgt ein gesendetes Paket.
+     * @param packet das gesendete Paket.
+     * @param connection die ID der Verbindung, über die das Paket gesendet wurde.
+     */
+    public void sent(@NotNull final Packet<?> packet, final int connection) {
+        this.trace(packet, connection, true);
+    }
+
+    /**
+     * Verfolgt ein empfangenes Paket.
+     * @param packet das empfangene Paket.
+     * @param connection die ID der Verbindung, über die das Paket empfangen wurde.
+     */
+    public void received(@NotNull final Packet<?> packet, final int connection) {
+        this.trace(packet, connection, false);
+    }
+
+    private void trace(@NotNull final Packet<?> packet, final int connection, final boolean sent) {
+        if (!this.recording && !this.logger.isLoggable(Level.FINE)) {
+            return;
+        }
+
+        final Type type = this.getType(packet.getClass());
+
+        if (type.sampling > 1 && type.count.getAndIncrement() % type.sampling != 0) {
+            return;
+        }
+
+        final long[] records = this.records;
+
+        if (this.recording && records != null) {
+            final int slot = (int) (this.position.getAndIncrement() & (this.capacity - 1));
+
+            this.times[slot] = System.nanoTime();
+            records[slot] = (long) connection << 32 | (long) type.id << 1 | (sent ? 1 : 0);
+        }
+
+        if (this.logger.isLoggable(type.level)) {
+            this.logger.log(type.level, sent ? "Sent packet on connection {0}: {1}"
+                    : "Received packet on connection {0}: {1}", new Object[]{connection, packet});
+        }
+    }
+
+    /**
+     * Beginnt die Aufzeichnung der Pakete im Ringpuffer.
+     */
+    public synchronized void start() {
+        if (this.records == null) {
+            this.times = new long[this.capacity];
+            this.records = new long[this.capacity];
+        }
+
+        this.recording = true;
+    }
+
+    /**
+     * Beendet die Aufzeichnung der Pakete. Die bisherigen Einträge bleiben für die Ausgabe erhalten.
+     */
+    public synchronized void stop() {
+        this.recording = false;
+    }
+
+    /**
+     * Gibt zurück, ob die Pakete gerade aufgezeichnet werden.
+     * @return true, wenn die Pakete aufgezeichnet werden, ansonsten false.
+     */
+    public boolean isRecording() {
+        return this.recording;
+    }
+
+    /**
+     * Legt fest, dass von einem Pakettyp nur jedes n-te Paket verfolgt wird.
+     * @param packet die Klasse des Pakettyps.
+     * @param sampling der Abstand der verfolgten Pakete, 1 für jedes Paket.
+     */
+    public void setSampling(@NotNull final Class<? extends Packet<?>> packet, final int sampling) {
+        if (sampling < 1) {
+            throw new IllegalArgumentException("Sampling must be positive");
+        }
+
+        this.getType(packet).sampling = sampling;
+    }
+
+    /**
+     * Gibt zurück, das wievielte Paket eines Pakettyps verfolgt wird.
+     * @param packet die Klasse des Pakettyps.
+     * @return der Abstand der verfolgten Pakete.
+     */
+    public int getSampling(@NotNull final Class<? extends Packet<?>> packet) {
+        return this.getType(packet).sampling;
+    }
+
+    /**
+     * Gibt die Anzahl der aktuell im Ringpuffer enthaltenen Einträge zurück.
+     * @return die Anzahl der Einträge.
+     */
+    public int size() {
+        return this.records != null ? (int) Math.min(this.position.get(), this.capacity) : 0;
+    }
+
+    /**
+     * Gibt die Einträge des Ringpuffers in zeitlicher Reihenfolge als Text aus. Da die Aufzeichnung dabei nicht
+     * angehalten wird, können die zuletzt geschriebenen Einträge unvollständig sein.
+     * @param writer der Writer, auf den die Einträge geschrieben werden.
+     * @return die Anzahl der ausgegebenen Einträge.
+     * @throws IOException falls die Einträge nicht geschrieben werden konnten.
+     */
+    public int dump(@NotNull final Writer writer) throws IOException {
+        final long[] records = this.records;
+        final long[] times = this.times;
+
+        if (records == null) {
+            return 0;
+        }
+
+        final long end = this.position.get();
+        final long start = Math.max(0, end - this.capacity);
+
+        for (long index = start; index < end; index++) {
+            final int slot = (int) (index & (this.capacity - 1));
+            final long millis = this.startMillis + TimeUnit.NANOSECONDS.toMillis(times[slot] - this.startNanos);
+            final LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+            final long record = records[slot];
+            final Type type = this.getType((int) (record & 0xFFFFFFFFL) >>> 1);
+
+            writer.write(TIME_FORMAT.format(time) + ((record & 1) != 0 ? " sent " : " recv ") + (int) (record >>> 32)
+                    + " " + (type != null ? type.name : "?") + System.lineSeparator());
+        }
+
+        writer.flush();
+        return (int) (end - start);
+    }
+
+    @Override
+    public @NotNull String toString() {
+        final StringBuilder sampling = new StringBuilder();
+
+        synchronized (this.typeIds) {
+            for (final Type type : this.typeIds) {
+                if (type.sampling > 1) {
+                    sampling.append(sampling.length() > 0 ? ", " : "").append(type.name).append("=1/")
+                            .append(type.sampling);
+                }
+            }
+        }
+
+        return "recording=" + this.recording + ", records=" + this.size() + "/" + this.capacity
+                + ", sampling={" + sampling + "}";
+    }
+
+    private @NotNull Type getType(@NotNull final Class<?> clazz) {
+        final Type type = this.types.get(clazz);
+
+        if (type != null) {
+            return type;
+        }
+
+        synchronized (this.typeIds) {
+            return this.types.computeIfAbsent(clazz, key -> {
+                final Type created = new Type(this.typeIds.size(), key);
+
+                this.typeIds.add(created);
+                return created;
+            });
+        }
+    }
+
+    private Type getType(final int id) {
+        synchronized (this.typeIds) {
+            return id < this.typeIds.size() ? this.typeIds.get(id) : null;
+        }
+    }
+
+    /**
+     * Ein Pakettyp mit seiner ID im Ringpuffer und seiner Abtastung.
+     */
+    private static class Type {
+
+        private final int id;
+        private final String name;
+        private final Level level;
+        private final AtomicLong count;
+
+        private volatile int sampling;
+
+        public Type(final int id, @NotNull final Class<?> clazz) {
+            this.id = id;
+            this.name = clazz.getSimpleName();
+            this.level = FREQUENT_PACKETS.stream().anyMatch(frequent -> frequent.isAssignableFrom(clazz))
+                    ? Level.FINER : Level.FINE;
+            this.count = new AtomicLong();
+            this.sampling = 1;
+        }
+    }
+}
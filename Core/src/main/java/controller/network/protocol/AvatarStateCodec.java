@@ -0,0 +1,194 @@
+package controller.network.protocol;
+
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import controller.network.protocol.PacketOutAvatarMoves.AvatarMove;
+import model.context.spatial.Direction;
+import org.jetbrains.annotations.NotNull;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Eine Klasse, welche die Zustände der Avatare für eine einzelne Verbindung kompakt kodiert und dekodiert.
+ * <p>
+ *     Jeder Avatar erhält beim ersten Versenden eine kurze Sitzungs-ID, über die er anschließend anstelle seiner
+ *     Benutzer-ID referenziert wird. Die Positionen werden auf ein festes Raster innerhalb einer Kachel quantisiert
+ *     und als Differenz zum zuletzt über diese Verbindung versendeten Zustand übertragen. Da die Bewegungen über TCP
+ *     versendet werden, gilt jeder versendete Zustand als bestätigt, solange Server und Client für die Verbindung
+ *     jeweils eine eigene Instanz in der gleichen Reihenfolge verwenden.
+ * </p>
+ * <p>
+ *     Die Zustände eines entfernten Avatars werden mit {@link #remove(UUID)}, die aller Avatare beim Wechsel des Raums
+ *     mit {@link #reset()} verworfen. Beide Seiten müssen dies an der gleichen Stelle der Paketfolge tun.
+ * </p>
+ */
+public class AvatarStateCodec {
+
+    /** Abstand zweier benachbarter Rasterpunkte der Quantisierung in Pixeln. */
+    public static final float STEP = 0.5f;
+
+    private static final int FLAG_NEW = 1;
+    private static final int FLAG_SPRINTING = 1 << 1;
+    private static final int FLAG_MOVABLE = 1 << 2;
+    private static final int DIRECTION_SHIFT = 3;
+    private static final int DIRECTION_MASK = 0b11;
+
+    /** Die vergebenen Sitzungs-IDs der Avatare. */
+    private final Map<UUID, Integer> sessionIds;
+
+    /** Die zuletzt kodierten Zustände der Avatare nach ihrer Sitzungs-ID. */
+    private final Map<Integer, AvatarState> states;
+
+    /** Die Sitzungs-ID, die der nächste neue Avatar erhält. */
+    private int nextSessionId;
+
+    /**
+     * Erzeugt eine neue Instanz des AvatarStateCodec.
+     */
+    public AvatarStateCodec() {
+        this.sessionIds = new HashMap<>();
+        this.states = new HashMap<>();
+    }
+
+    /**
+     * Kodiert die Bewegungen der Avatare relativ zu den zuletzt kodierten Zuständen.
+     * @param moves die zu kodierenden Bewegungen.
+     * @return die kodierten Bewegungen.
+     */
+    public synchronized byte[] encode(@NotNull final AvatarMove[] moves) {
+        final Output output = new Output(32, -1);
+
+        output.writeVarInt(moves.length, true);
+
+        for (final AvatarMove move : moves) {
+            final int posX = quantize(move.getPosX());
+            final int posY = quantize(move.getPosY());
+            final Integer sessionId = this.sessionIds.get(move.getUserId());
+            int flags = move.getDirection().ordinal() << DIRECTION_SHIFT;
+
+            flags |= move.isSprinting() ? FLAG_SPRINTING : 0;
+            flags |= move.isMovable() ? FLAG_MOVABLE : 0;
+
+            if (sessionId == null) {
+                // Der Avatar wird über diese Verbindung das erste Mal versendet.
+                this.sessionIds.put(move.getUserId(), this.nextSessionId);
+                this.states.put(this.nextSessionId, new AvatarState(move.getUserId(), posX, posY));
+
+                output.writeVarInt(this.nextSessionId++, true);
+                output.writeByte(flags | FLAG_NEW);
+                PacketUtils.writeUniqueId(output, move.getUserId());
+                output.writeVarInt(posX, false);
+                output.writeVarInt(posY, false);
+            } else {
+                final AvatarState state = this.states.get(sessionId);
+
+                output.writeVarInt(sessionId, true);
+                output.writeByte(flags);
+                output.writeVarInt(posX - state.posX, false);
+                output.writeVarInt(posY - state.posY, false);
+
+                state.posX = posX;
+                state.posY = posY;
+            }
+        }
+
+        return output.toBytes();
+    }
+
+    /**
+     * Dekodiert die Bewegungen der Avatare relativ zu den zuletzt dekodierten Zuständen.
+     * @param data die kodierten Bewegungen.
+     * @return die dekodierten Bewegungen.
+     * @throws IllegalArgumentException falls die Daten nicht zu den bisher dekodierten Zuständen passen.
+     */
+    public synchronized @NotNull AvatarMove[] decode(final byte[] data) {
+        try {
+            final Input input = new Input(data);
+            final AvatarMove[] moves = new AvatarMove[input.readVarInt(true)];
+
+            for (int index = 0; index < moves.length; index++) {
+                final int sessionId = input.readVarInt(true);
+                final int flags = input.readByte();
+                final AvatarState state;
+
+                if ((flags & FLAG_NEW) != 0) {
+                    if (sessionId != this.nextSessionId) {
+                        throw new IllegalArgumentException("Unexpected session id for new avatar: " + sessionId);
+                    }
+
+                    state = new AvatarState(PacketUtils.readUniqueId(input), input.readVarInt(false), input.readVarInt(false));
+                    this.sessionIds.put(state.userId, sessionId);
+                    this.states.put(sessionId, state);
+                    this.nextSessionId++;
+                } else {
+                    state = this.states.get(sessionId);
+
+                    if (state == null) {
+                        throw new IllegalArgumentException("Unknown session id: " + sessionId);
+                    }
+
+                    state.posX += input.readVarInt(false);
+                    state.posY += input.readVarInt(false);
+                }
+
+                final Direction direction = Direction.values()[(flags >> DIRECTION_SHIFT) & DIRECTION_MASK];
+
+                moves[index] = new AvatarMove(state.userId, direction, state.posX * STEP, state.posY * STEP,
+                        (flags & FLAG_SPRINTING) != 0, (flags & FLAG_MOVABLE) != 0);
+            }
+
+            return moves;
+        } catch (KryoException | ArrayIndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("Malformed avatar states", ex);
+        }
+    }
+
+    /**
+     * Verwirft den Zustand eines Avatars, der aus dem Raum entfernt wurde. Wird der Avatar erneut versendet, erhält er
+     * eine neue Sitzungs-ID.
+     * @param userId die Benutzer-ID des entfernten Avatars.
+     */
+    public synchronized void remove(@NotNull final UUID userId) {
+        final Integer sessionId = this.sessionIds.remove(userId);
+
+        if (sessionId != null) {
+            this.states.remove(sessionId);
+        }
+    }
+
+    /**
+     * Verwirft die Zustände aller Avatare, wenn der Benutzer den Raum wechselt.
+     */
+    public synchronized void reset() {
+        this.sessionIds.clear();
+        this.states.clear();
+        this.nextSessionId = 0;
+    }
+
+    /**
+     * Quantisiert eine Koordinate auf das Raster des Codecs.
+     * @param position die zu quantisierende Koordinate.
+     * @return der nächstgelegene Rasterpunkt.
+     */
+    public static int quantize(final float position) {
+        return Math.round(position / STEP);
+    }
+
+    /**
+     * Eine Klasse, die den zuletzt kodierten Zustand eines Avatars hält.
+     */
+    private static class AvatarState {
+
+        private final UUID userId;
+        private int posX;
+        private int posY;
+
+        public AvatarState(@NotNull final UUID userId, final int posX, final int posY) {
+            this.userId = userId;
+            this.posX = posX;
+            this.posY = posY;
+        }
+    }
+}
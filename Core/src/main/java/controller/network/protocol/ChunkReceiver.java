@@ -0,0 +1,137 @@
+package controller.network.protocol;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Eine Klasse, welche die von einem {@link ChunkSender} empfangenen Abschnitte einer einzelnen Verbindung wieder zu
+ * den ursprünglichen Paketen zusammensetzt.
+ * <p>
+ *     Die Abschnitte einer Übertragung müssen lückenlos in der Reihenfolge ihrer Position eintreffen. Da der Sender je
+ *     Priorität höchstens eine Übertragung gleichzeitig versendet, werden auch nur entsprechend viele gleichzeitige
+ *     Übertragungen angenommen. Sobald ausreichend viele Daten verarbeitet wurden, wird dem Sender über
+ *     {@link PacketChunkCredit} weiteres Guthaben gewährt.
+ * </p>
+ */
+public class ChunkReceiver {
+
+    /** Maximale Anzahl an gleichzeitigen Übertragungen. */
+    private static final int MAX_TRANSFERS = ChunkSender.Priority.values().length;
+
+    /** Anzahl an verarbeiteten Bytes, ab der dem Sender weiteres Guthaben gewährt wird. */
+    private static final int CREDIT_THRESHOLD = ChunkSender.INITIAL_CREDIT / 4;
+
+    private final PacketCodec codec;
+    private final int maxSize;
+    private final Consumer<Packet<?>> writer;
+
+    /** Die aktuell empfangenen Übertragungen. */
+    private final Map<Integer, Transfer> transfers;
+
+    /** Die Anzahl an Bytes, die der Sender noch in Abschnitten versenden darf. */
+    private int credit;
+
+    /** Die Anzahl an verarbeiteten Bytes, die dem Sender noch nicht wieder gewährt wurden. */
+    private int consumed;
+
+    /**
+     * Erzeugt eine neue Instanz des ChunkReceiver.
+     * @param codec Serialisierung, mit der die zusammengesetzten Pakete deserialisiert werden.
+     * @param maxSize Maximale Größe einer Übertragung in Bytes.
+     * @param writer Funktion, welche die Pakete zur Gewährung von Guthaben an den Sender versendet.
+     */
+    public ChunkReceiver(@NotNull final PacketCodec codec, final int maxSize,
+                         @NotNull final Consumer<Packet<?>> writer) {
+        this.codec = codec;
+        this.maxSize = maxSize;
+        this.writer = writer;
+        this.transfers = new HashMap<>();
+        this.credit = ChunkSender.INITIAL_CREDIT;
+    }
+
+    /**
+     * Verarbeitet einen empfangenen Abschnitt.
+     * @param chunk Der empfangene Abschnitt.
+     * @return das zusammengesetzte Paket, falls die Übertragung mit dem Abschnitt abgeschlossen wurde, sonst null.
+     * @throws IllegalArgumentException falls der Abschnitt nicht dem Protokoll entspricht oder die zusammengesetzten
+     * Daten kein gültiges Paket enthalten.
+     */
+    public synchronized @Nullable Packet<?> receive(@NotNull final PacketChunk chunk) {
+        final byte[] data = chunk.getData();
+
+        if (data.length == 0 || data.length > this.credit) {
+            throw new IllegalArgumentException("Chunk of " + data.length + " bytes exceeds granted credit");
+        }
+
+        Transfer transfer = this.transfers.get(chunk.getTransfer());
+
+        if (transfer == null) {
+            if (chunk.getOffset() != 0) {
+                throw new IllegalArgumentException("Received chunk of unknown transfer " + chunk.getTransfer());
+            }
+
+            if (chunk.getSize() <= ChunkSender.MAX_INLINE_SIZE || chunk.getSize() > this.maxSize) {
+                throw new IllegalArgumentException("Illegal transfer size of " + chunk.getSize() + " bytes");
+            }
+
+            if (this.transfers.size() >= MAX_TRANSFERS) {
+                throw new IllegalArgumentException("Exceeded the limit of concurrent transfers");
+            }
+
+            transfer = new Transfer(chunk.getSize());
+            this.transfers.put(chunk.getTransfer(), transfer);
+        }
+
+        if (chunk.getSize() != transfer.data.length || chunk.getOffset() != transfer.received
+                || data.length > transfer.data.length - transfer.received) {
+            throw new IllegalArgumentException("Chunk does not match transfer " + chunk.getTransfer());
+        }
+
+        System.arraycopy(data, 0, transfer.data, transfer.received, data.length);
+        transfer.received += data.length;
+        this.credit -= data.length;
+        this.consumed += data.length;
+
+        if (this.consumed >= CREDIT_THRESHOLD) {
+            this.writer.accept(new PacketChunkCredit(this.consumed));
+            this.credit += this.consumed;
+            this.consumed = 0;
+        }
+
+        if (transfer.received < transfer.data.length) {
+            return null;
+        }
+
+        this.transfers.remove(chunk.getTransfer());
+
+        final Object object;
+
+        try {
+            object = this.codec.decode(transfer.data);
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Failed to decode transfer " + chunk.getTransfer(), ex);
+        }
+
+        if (!(object instanceof Packet) || object instanceof PacketChunk || object instanceof PacketChunkCredit) {
+            throw new IllegalArgumentException("Transfer " + chunk.getTransfer() + " does not contain a valid packet");
+        }
+
+        return (Packet<?>) object;
+    }
+
+    /**
+     * Eine Klasse, welche eine empfangene Übertragung repräsentiert.
+     */
+    private static class Transfer {
+
+        private final byte[] data;
+        private int received;
+
+        public Transfer(final int size) {
+            this.data = new byte[size];
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package controller.network.protocol;
+
+import org.jetbrains.annotations.NotNull;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Eine Klasse, welche die Pakete einer einzelnen Verbindung nach ihrer Priorität versendet und große Pakete in
+ * Abschnitten überträgt.
+ * <p>
+ *     Für jede Priorität wird eine eigene Warteschlange geführt, deren Pakete in der Reihenfolge ihres Versendens
+ *     geschrieben werden. Pakete der Priorität {@link Priority#HIGH} werden sofort geschrieben, solange keine
+ *     vorherigen Pakete der gleichen Priorität warten. Pakete der Priorität {@link Priority#LOW} und Abschnitte werden
+ *     nur geschrieben, solange die Verbindung schreibbar ist, also ihr Sendepuffer weitgehend geleert ist. Alle Pakete,
+ *     die den sichtbaren Zustand des Empfängers verändern, werden mit der Priorität {@link Priority#HIGH} versendet,
+ *     damit sie in der Reihenfolge ihres Versendens ankommen. Ein großes Paket dieser Priorität hält daher die
+ *     nachfolgenden Pakete zurück, bis es vollständig übertragen wurde.
+ * </p>
+ * <p>
+ *     Pakete der Priorität {@link Priority#REALTIME} werden unabhängig von den wartenden Paketen der anderen
+ *     Prioritäten sofort geschrieben und überholen dabei insbesondere große Pakete, deren Abschnitte auf Guthaben
+ *     warten. Der Versender muss daher sicherstellen, dass diese Pakete nicht von wartenden Paketen abhängen. Dazu
+ *     wird ihm über eine Funktion mitgeteilt, sobald ein Paket vollständig geschrieben wurde.
+ * </p>
+ * <p>
+ *     Sind die serialisierten Daten eines Pakets größer als {@link #MAX_INLINE_SIZE}, so werden sie in Abschnitten von
+ *     höchstens {@link #CHUNK_SIZE} Bytes übertragen. Die Menge der unbestätigten Daten in Abschnitten ist durch das
+ *     vom {@link ChunkReceiver} der Gegenseite gewährte Guthaben begrenzt, das anfänglich {@link #INITIAL_CREDIT}
+ *     Bytes beträgt und über {@link PacketChunkCredit} erneuert wird.
+ * </p>
+ */
+public class ChunkSender {
+
+    /** Maximale Größe eines Abschnitts in Bytes. */
+    public static final int CHUNK_SIZE = 1 << 14;
+
+    /** Maximale Größe eines Pakets in Bytes, bis zu der es nicht in Abschnitten übertragen wird. */
+    public static final int MAX_INLINE_SIZE = 1 << 16;
+
+    /** Anfängliches Guthaben eines Senders in Bytes. */
+    public static final int INITIAL_CREDIT = 1 << 18;
+
+    private final PacketCodec codec;
+    private final Consumer<Object> writer;
+    private final BooleanSupplier writable;
+    private final Consumer<Object> completed;
+
+    /** Die Warteschlangen der zu versendenden Pakete je Priorität. */
+    private final Map<Priority, Deque<Entry>> streams;
+
+    /** Die Anzahl an Bytes, die noch in Abschnitten versendet werden dürfen. */
+    private int credit;
+
+    /** Die Kennung der nächsten Übertragung. */
+    private int nextTransfer;
+
+    /**
+     * Erzeugt eine neue Instanz des ChunkSender.
+     * @param codec Serialisierung, mit der große Pakete vor dem Versenden serialisiert werden.
+     * @param writer Funktion, welche Pakete in die Verbindung schreibt.
+     * @param writable Funktion, die zurückgibt, ob der Sendepuffer der Verbindung weitere Daten aufnehmen soll.
+     */
+    public ChunkSender(@NotNull final PacketCodec codec, @NotNull final Consumer<Object> writer,
+                       @NotNull final BooleanSupplier writable) {
+        this(codec, writer, writable, object -> { });
+    }
+
+    /**
+     * Erzeugt eine neue Instanz des ChunkSender.
+     * @param codec Serialisierung, mit der große Pakete vor dem Versenden serialisiert werden.
+     * @param writer Funktion, welche Pakete in die Verbindung schreibt.
+     * @param writable Funktion, die zurückgibt, ob der Sendepuffer der Verbindung weitere Daten aufnehmen soll.
+     * @param completed Funktion, die mit dem versendeten Objekt aufgerufen wird, sobald es vollständig geschrieben
+     * wurde. Wird bei großen Paketen nach dem letzten Abschnitt aufgerufen.
+     */
+    public ChunkSender(@NotNull final PacketCodec codec, @NotNull final Consumer<Object> writer,
+                       @NotNull final BooleanSupplier writable, @NotNull final Consumer<Object> completed) {
+        this.codec = codec;
+        this.writer = writer;
+        this.writable = writable;
+        this.completed = completed;
+        this.streams = new EnumMap<>(Priority.class);
+        this.credit = INITIAL_CREDIT;
+
+        for (final Priority priority : Priority.values()) {
+            this.streams.put(priority, new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Versendet ein Paket mit der übergebenen Priorität. Große Pakete werden dazu vorab serialisiert.
+     * @param packet Das zu versendende Paket.
+     * @param priority Die Priorität des Pakets.
+     */
+    public synchronized void send(@NotNull final Packet<?> packet, @NotNull final Priority priority) {
+        if (packet.isBulk()) {
+            this.send(packet, this.codec.encode(packet), priority);
+        } else {
+            this.enqueue(new Entry(packet, null, 0), priority);
+        }
+    }
+
+    /**
+     * Versendet ein bereits serialisiertes Objekt mit der übergebenen Priorität.
+     * @param object Das Objekt, das in die Verbindung geschrieben wird, falls es nicht in Abschnitten übertragen wird.
+     * @param data Die serialisierten Daten des Objekts.
+     * @param priority Die Priorität des Objekts.
+     */
+    public synchronized void send(@NotNull final Object object, final byte[] data, @NotNull final Priority priority) {
+        if (data.length > MAX_INLINE_SIZE) {
+            this.enqueue(new Entry(object, data, this.nextTransfer), priority);
+            this.nextTransfer = (this.nextTransfer + 1) & Integer.MAX_VALUE;
+        } else {
+            this.enqueue(new Entry(object, null, 0), priority);
+        }
+    }
+
+    /**
+     * Erhöht das Guthaben des Senders um die von der Gegenseite freigegebenen Bytes und versendet wartende Abschnitte.
+     * @param credit Anzahl der freigegebenen Bytes.
+     * @throws IllegalArgumentException falls das Guthaben ungültig ist oder das anfängliche Guthaben überschreitet.
+     */
+    public synchronized void credit(final int credit) {
+        if (credit <= 0 || credit > INITIAL_CREDIT - this.credit) {
+            throw new IllegalArgumentException("Illegal credit of " + credit + " bytes");
+        }
+
+        this.credit += credit;
+        this.flush();
+    }
+
+    /**
+     * Schreibt alle wartenden Pakete und Abschnitte, die entsprechend ihrer Priorität, dem Guthaben und dem Zustand der
+     * Verbindung geschrieben werden dürfen. Wird aufgerufen, sobald der Sendepuffer der Verbindung geleert wurde.
+     */
+    public synchronized void flush() {
+        for (final Priority priority : Priority.values()) {
+            final Deque<Entry> stream = this.streams.get(priority);
+
+            while (!stream.isEmpty()) {
+                final Entry entry = stream.peek();
+
+                if ((priority == Priority.LOW || entry.data != null) && !this.writable.getAsBoolean()) {
+                    break;
+                }
+
+                if (entry.data == null) {
+                    this.writer.accept(entry.object);
+                    stream.poll();
+                    this.completed.accept(entry.object);
+                    continue;
+                }
+
+                if (this.credit <= 0) {
+                    break;
+                }
+
+                final int length = Math.min(Math.min(CHUNK_SIZE, this.credit), entry.data.length - entry.offset);
+
+                this.writer.accept(new PacketChunk(entry.transfer, entry.offset, entry.data.length,
+                        Arrays.copyOfRange(entry.data, entry.offset, entry.offset + length)));
+                this.credit -= length;
+                entry.offset += length;
+
+                if (entry.offset == entry.data.length) {
+                    stream.poll();
+                    this.completed.accept(entry.object);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gibt die Anzahl der wartenden Pakete zurück.
+     * @return Anzahl der wartenden Pakete aller Prioritäten.
+     */
+    public synchronized int getPending() {
+        return this.streams.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    private void enqueue(@NotNull final Entry entry, @NotNull final Priority priority) {
+        this.streams.get(priority).add(entry);
+        this.flush();
+    }
+
+    /**
+     * Eine Enumeration, welche die Prioritäten der versendeten Pakete repräsentiert.
+     */
+    public enum Priority {
+
+        /** Flüchtige Pakete, die wartende Pakete der anderen Prioritäten überholen. */
+        REALTIME,
+
+        /** Pakete, die den sichtbaren Zustand des Empfängers verändern. */
+        HIGH,
+
+        /** Pakete, die ohne Verzögerung für andere Pakete im Hintergrund versendet werden können. */
+        LOW
+    }
+
+    /**
+     * Eine Klasse, welche ein wartendes Paket repräsentiert.
+     */
+    private static class Entry {
+
+        private final Object object;
+        private final byte[] data;
+        private final int transfer;
+        private int offset;
+
+        public Entry(@NotNull final Object object, final byte[] data, final int transfer) {
+            this.object = object;
+            this.data = data;
+            this.transfer = transfer;
+        }
+    }
+}
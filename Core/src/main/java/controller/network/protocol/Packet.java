@@ -16,4 +16,14 @@ public interface Packet<T extends PacketListener> extends KryoSerializable {
      * @param listener Die Instanz des PacketListeners, der aufgerufen wird.
      */
     void call(@NotNull final T listener);
+
+    /**
+     * Gibt zurück, ob das Paket große Datenmengen enthalten kann. Solche Pakete werden vor dem Versenden serialisiert
+     * und bei Überschreitung von {@link ChunkSender#MAX_INLINE_SIZE} in Abschnitten übertragen, damit sie den
+     * Versand anderer Pakete nicht blockieren.
+     * @return true, wenn das Paket große Datenmengen enthalten kann, sonst false.
+     */
+    default boolean isBulk() {
+        return false;
+    }
 }
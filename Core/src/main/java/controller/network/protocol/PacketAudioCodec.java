@@ -0,0 +1,91 @@
+package controller.network.protocol;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.jetbrains.annotations.NotNull;
+import utils.AudioCodec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ein Paket, mit dem das Verfahren zur Kodierung der Sprachdaten einer Verbindung ausgehandelt wird.
+ * <p>
+ *     Das Paket wird von einem Client nach dem Verbindungsaufbau erzeugt und enthält alle Verfahren, die der Client
+ *     unterstützt. Der Server wählt daraus ein Verfahren aus und sendet das Paket mit ausschließlich diesem Verfahren
+ *     an den Client zurück. Der Client kodiert seine Sprachdaten anschließend mit dem gewählten Verfahren.
+ * </p>
+ */
+public class PacketAudioCodec implements Packet<PacketListener> {
+
+    private AudioCodec[] codecs;
+
+    /**
+     * @deprecated Ausschließlich für die Deserialisierung des Netzwerkpakets.
+     */
+    @Deprecated
+    public PacketAudioCodec() {
+
+    }
+
+    /**
+     * Ausschließlich für die Erzeugung des Netzwerkpakets von der Client-Anwendung.
+     * @param codecs die vom Client unterstützten Verfahren.
+     */
+    public PacketAudioCodec(@NotNull final AudioCodec[] codecs) {
+        this.codecs = codecs;
+    }
+
+    /**
+     * Ausschließlich für die Erzeugung des Netzwerkpakets von der Server-Anwendung.
+     * @param codec das vom Server gewählte Verfahren.
+     */
+    public PacketAudioCodec(@NotNull final AudioCodec codec) {
+        this.codecs = new AudioCodec[]{codec};
+    }
+
+    @Override
+    public void call(@NotNull final PacketListener listener) {
+        listener.handle(this);
+    }
+
+    @Override
+    public void write(@NotNull final Kryo kryo, @NotNull final Output output) {
+        output.writeVarInt(this.codecs.length, true);
+
+        for (final AudioCodec codec : this.codecs) {
+            output.writeByte(codec.getId());
+        }
+    }
+
+    @Override
+    public void read(@NotNull final Kryo kryo, @NotNull final Input input) {
+        final int size = input.readVarInt(true);
+        final List<AudioCodec> codecs = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            // Unbekannte Verfahren einer neueren Version werden ignoriert.
+            final AudioCodec codec = AudioCodec.fromId(input.readByte());
+
+            if (codec != null) {
+                codecs.add(codec);
+            }
+        }
+
+        this.codecs = codecs.toArray(new AudioCodec[0]);
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return this.getClass().getSimpleName() + "{codecs=" + Arrays.toString(this.codecs) + "}";
+    }
+
+    /**
+     * Gibt die unterstützten oder das gewählte Verfahren zur Kodierung der Sprachdaten zurück.
+     * @return die Verfahren zur Kodierung.
+     */
+    public @NotNull AudioCodec[] getCodecs() {
+        return this.codecs;
+    }
+}
@@ -17,14 +17,31 @@ import java.util.UUID;
  *     verteilt, die die Sprachnachricht empfangen dürfen.
  *     Zusätzlich wird das Paket vom Server erzeugt um die Audiodaten von Musikstücken an die Clients zu verteilen.
  * </p>
+ * <p>
+ *     Sprechen in einem Bereich viele Benutzer gleichzeitig, so mischt der Server die Sprachdaten und versendet an
+ *     jeden Empfänger nur noch einen gemischten Strom. Das Paket enthält dann anstelle eines Senders die Benutzer-IDs
+ *     der Sprecher, deren Sprachdaten in den gemischten Daten enthalten sind.
+ * </p>
+ * <p>
+ *     Der Server nummeriert die Audiodaten jedes Stroms fortlaufend, sodass der Client verlorene, verspätete oder in
+ *     falscher Reihenfolge empfangene Pakete erkennen kann.
+ * </p>
+ * <p>
+ *     Ein Client sendet Sprachdaten nur, während gesprochen wird. Am Ende eines Sprachabschnitts sendet er ein Paket
+ *     ohne Sprachdaten, das als Stillemarkierung gekennzeichnet ist. Stillemarkierungen werden vom Server nicht an
+ *     andere Clients verteilt.
+ * </p>
  */
 public class PacketAudioMessage implements Packet<PacketListener> {
 
     private UUID senderId;
     private LocalDateTime timestamp;
+    private int sequence;
+    private boolean silence;
     private byte[] audioData;
     private float position;
     private int seconds;
+    private UUID[] speakers;
 
     /**
      * @deprecated Ausschließlich für die Deserialisierung des Netzwerkpakets.
@@ -39,19 +56,31 @@ public class PacketAudioMessage implements Packet<PacketListener> {
      * @param audioData die eingesprochenen Sprachdaten des Benutzers.
      */
     public PacketAudioMessage(final byte[] audioData) {
+        this(audioData, false);
+    }
+
+    /**
+     * Ausschließlich für die Erzeugung des Netzwerkpakets von der Client-Anwendung.
+     * @param audioData die eingesprochenen Sprachdaten des Benutzers.
+     * @param silence true, wenn das Paket das Ende eines Sprachabschnitts markiert, sonst false.
+     */
+    public PacketAudioMessage(final byte[] audioData, final boolean silence) {
         this.audioData = audioData;
+        this.silence = silence;
     }
 
     /**
      * Ausschließlich für die Erzeugung des Netzwerkpakets von der Server-Anwendung.
      * @param timestamp der Zeitpunkt, an dem die Audiodaten versendet wurden.
+     * @param sequence die fortlaufende Nummer der Audiodaten im Musikstream.
      * @param audioData die Audiodaten des Musikstückes.
      * @param position die Position im Musikstück.
      * @param seconds die Sekunde im Musikstück.
      */
-    public PacketAudioMessage(@NotNull final LocalDateTime timestamp, final byte[] audioData, final float position,
-                              final int seconds) {
+    public PacketAudioMessage(@NotNull final LocalDateTime timestamp, final int sequence, final byte[] audioData,
+                              final float position, final int seconds) {
         this.timestamp = timestamp;
+        this.sequence = sequence;
         this.audioData = audioData;
         this.position = position;
         this.seconds = seconds;
@@ -61,13 +90,30 @@ public class PacketAudioMessage implements Packet<PacketListener> {
      * Ausschließlich für die Erzeugung des Netzwerkpakets von der Server-Anwendung.
      * @param senderId die Benutzer-ID des Senders der Sprachnachricht.
      * @param timestamp der Zeitpunkt, an dem die Sprachnachricht versendet wurde.
+     * @param sequence die fortlaufende Nummer der Sprachdaten des Senders.
      * @param audioData die eingesprochenen Sprachdaten des Benutzers.
      */
     public PacketAudioMessage(@Nullable final UUID senderId, @NotNull final LocalDateTime timestamp,
-                              final byte[] audioData) {
+                              final int sequence, final byte[] audioData) {
         this.senderId = senderId;
         this.timestamp = timestamp;
+        this.sequence = sequence;
+        this.audioData = audioData;
+    }
+
+    /**
+     * Ausschließlich für die Erzeugung des Netzwerkpakets von der Server-Anwendung.
+     * @param timestamp der Zeitpunkt, an dem die Sprachdaten gemischt wurden.
+     * @param sequence die fortlaufende Nummer der gemischten Sprachdaten.
+     * @param audioData die gemischten Sprachdaten.
+     * @param speakers die Benutzer-IDs der Sprecher, deren Sprachdaten enthalten sind.
+     */
+    public PacketAudioMessage(@NotNull final LocalDateTime timestamp, final int sequence, final byte[] audioData,
+                              @NotNull final UUID[] speakers) {
+        this.timestamp = timestamp;
+        this.sequence = sequence;
         this.audioData = audioData;
+        this.speakers = speakers;
     }
 
     @Override
@@ -79,26 +125,47 @@ public class PacketAudioMessage implements Packet<PacketListener> {
     public void write(@NotNull final Kryo kryo, @NotNull final Output output) {
         PacketUtils.writeNullableUniqueId(output, this.senderId);
         kryo.writeObjectOrNull(output, this.timestamp, LocalDateTime.class);
+        output.writeInt(this.sequence);
+        output.writeBoolean(this.silence);
         output.writeFloat(this.position);
         output.writeVarInt(this.seconds, true);
         output.writeVarInt(this.audioData.length, true);
         output.writeBytes(this.audioData);
+        output.writeVarInt(this.speakers != null ? this.speakers.length + 1 : 0, true);
+
+        if (this.speakers != null) {
+            for (final UUID speaker : this.speakers) {
+                PacketUtils.writeUniqueId(output, speaker);
+            }
+        }
     }
 
     @Override
     public void read(@NotNull final Kryo kryo, @NotNull final Input input) {
         this.senderId = PacketUtils.readNullableUniqueId(input);
         this.timestamp = kryo.readObjectOrNull(input, LocalDateTime.class);
+        this.sequence = input.readInt();
+        this.silence = input.readBoolean();
         this.position = input.readFloat();
         this.seconds = input.readVarInt(true);
         this.audioData = input.readBytes(input.readVarInt(true));
+
+        final int speakers = input.readVarInt(true);
+
+        if (speakers > 0) {
+            this.speakers = new UUID[speakers - 1];
+
+            for (int i = 0; i < this.speakers.length; i++) {
+                this.speakers[i] = PacketUtils.readUniqueId(input);
+            }
+        }
     }
 
     @Override
     public @NotNull String toString() {
         return this.getClass().getSimpleName() + "{senderId=" + this.senderId + ", timestamp=" + this.timestamp
-                + ",position=" + this.position + ",seconds=" + this.seconds + ", audioData="
-                + Arrays.toString(this.audioData) + "}";
+                + ", sequence=" + this.sequence + ", silence=" + this.silence + ",position=" + this.position + ",seconds=" + this.seconds + ", speakers=" + Arrays.toString(this.speakers)
+                + ", audioData=" + this.audioData.length + " bytes}";
     }
 
     /**
@@ -117,6 +184,22 @@ public class PacketAudioMessage implements Packet<PacketListener> {
         return this.timestamp;
     }
 
+    /**
+     * Gibt die fortlaufende Nummer der Audiodaten innerhalb ihres Stroms zurück.
+     * @return die fortlaufende Nummer der Audiodaten.
+     */
+    public int getSequence() {
+        return this.sequence;
+    }
+
+    /**
+     * Gibt zurück, ob das Paket das Ende eines Sprachabschnitts markiert.
+     * @return true, wenn das Paket eine Stillemarkierung ist, sonst false.
+     */
+    public boolean isSilence() {
+        return this.silence;
+    }
+
     /**
      * Gibt die eingesprochenen Sprachdaten des Benutzers oder die Audiodaten eines Musikstückes zurück.
      * @return die Sprachdaten des Benutzers oder die Audiodaten.
@@ -140,4 +223,20 @@ public class PacketAudioMessage implements Packet<PacketListener> {
     public int getSeconds() {
         return this.seconds;
     }
+
+    /**
+     * Gibt die Benutzer-IDs der Sprecher zurück, falls es sich um gemischte Sprachdaten handelt.
+     * @return die Benutzer-IDs der Sprecher, oder null.
+     */
+    public @Nullable UUID[] getSpeakers() {
+        return this.speakers;
+    }
+
+    /**
+     * Gibt zurück, ob es sich um vom Server gemischte Sprachdaten handelt.
+     * @return true, wenn die Sprachdaten gemischt wurden, sonst false.
+     */
+    public boolean isMixed() {
+        return this.speakers != null;
+    }
 }
@@ -56,7 +56,17 @@ public class PacketAvatarMove implements Packet<PacketListener> {
      * @param userId Die ID des zu entfernenden Benutzers.
      */
     public PacketAvatarMove(@NotNull final UUID userId) {
-        this.action = AvatarAction.REMOVE_AVATAR;
+        this(AvatarAction.REMOVE_AVATAR, userId);
+    }
+
+    /**
+     * Ausschließlich für die Erzeugung des Netzwerkpakets zum Entfernen oder Ausblenden des Benutzers von der
+     * Server-Anwendung.
+     * @param action Die Aktion auf den Avatar des Benutzers.
+     * @param userId Die ID des zu entfernenden oder auszublendenden Benutzers.
+     */
+    public PacketAvatarMove(@NotNull final AvatarAction action, @NotNull final UUID userId) {
+        this.action = action;
         this.userId = userId;
     }
 
@@ -189,5 +199,10 @@ public class PacketAvatarMove implements Packet<PacketListener> {
          * Führt dazu, dass die Position eines Avatars auf einer Karte aktualisiert wird.
          */
         SPAWN_AVATAR,
+
+        /**
+         * Führt dazu, dass ein Avatar ausgeblendet wird, da er den Sichtbereich des Benutzers verlassen hat.
+         */
+        HIDE_AVATAR,
     }
 }
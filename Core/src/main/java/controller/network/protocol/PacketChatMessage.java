@@ -17,6 +17,11 @@ import java.util.UUID;
  *     Nach der Verarbeitung des Pakets vom Server, wird der Sender, der Nachrichten-Typ und der Zeitstempel gesetzt
  *     und das Paket wird an all die Clients verteilt, die die Nachricht empfangen dürfen.
  * </p>
+ * <p>
+ *     Ein beigefügtes Bild wird nur vom Client an den Server mit vollständigen Daten gesendet. An die empfangenden
+ *     Clients wird lediglich der Hashwert sowie ein Vorschaubild des Bildes verteilt. Die vollständigen Daten können
+ *     bei Bedarf über {@link PacketImageChunk} angefordert werden.
+ * </p>
  */
 public class PacketChatMessage implements Packet<PacketListener> {
 
@@ -29,6 +34,8 @@ public class PacketChatMessage implements Packet<PacketListener> {
 
     private String imageName;
     private byte[] imageData;
+    private String imageHash;
+    private byte[] thumbnail;
 
     /**
      * @deprecated Ausschließlich für die Deserialisierung des Netzwerkpakets.
@@ -45,6 +52,7 @@ public class PacketChatMessage implements Packet<PacketListener> {
     public PacketChatMessage(@NotNull final String message) {
         this.message = message;
         this.imageData = new byte[0];
+        this.thumbnail = new byte[0];
     }
 
     /**
@@ -57,6 +65,7 @@ public class PacketChatMessage implements Packet<PacketListener> {
         this.message = message;
         this.imageName = imageName;
         this.imageData = imageData;
+        this.thumbnail = new byte[0];
     }
 
     /**
@@ -70,6 +79,7 @@ public class PacketChatMessage implements Packet<PacketListener> {
         this.type = MessageType.INFO;
         this.timestamp = timestamp;
         this.imageData = new byte[0];
+        this.thumbnail = new byte[0];
     }
 
     /**
@@ -83,11 +93,13 @@ public class PacketChatMessage implements Packet<PacketListener> {
      * @param message die Nachricht des Senders.
      * @param timestamp der Zeitpunkt, an dem der Server die Nachricht gesendet hat.
      * @param imageName der Name der beigefügten Bilddatei.
-     * @param imageData die Daten der beigefügten Bilddatei der Nachricht.
+     * @param imageHash der Hashwert der beigefügten Bilddatei.
+     * @param thumbnail die Daten des Vorschaubilds der beigefügten Bilddatei.
      */
     public PacketChatMessage(@NotNull final MessageType type, @NotNull final UUID senderId,
                              @NotNull final String message, @NotNull final LocalDateTime timestamp,
-                             @Nullable final String imageName, final byte[] imageData) {
+                             @Nullable final String imageName, @Nullable final String imageHash,
+                             final byte[] thumbnail) {
         if (type == MessageType.INFO) {
             throw new IllegalArgumentException("Invalid Constructor for creating InfoMessage-Packets");
         }
@@ -96,8 +108,10 @@ public class PacketChatMessage implements Packet<PacketListener> {
         this.senderId = senderId;
         this.message = message;
         this.timestamp = timestamp;
-        this.imageData = imageData;
         this.imageName = imageName;
+        this.imageData = new byte[0];
+        this.imageHash = imageHash;
+        this.thumbnail = thumbnail;
     }
 
     @Override
@@ -115,6 +129,9 @@ public class PacketChatMessage implements Packet<PacketListener> {
         output.writeString(this.imageName);
         output.writeInt(this.imageData.length);
         output.writeBytes(this.imageData);
+        output.writeString(this.imageHash);
+        output.writeInt(this.thumbnail.length);
+        output.writeBytes(this.thumbnail);
     }
 
     @Override
@@ -126,12 +143,19 @@ public class PacketChatMessage implements Packet<PacketListener> {
         this.timestamp = kryo.readObjectOrNull(input, LocalDateTime.class);
         this.imageName = input.readString();
         this.imageData = input.readBytes(input.readInt());
+        this.imageHash = input.readString();
+        this.thumbnail = input.readBytes(input.readInt());
+    }
+
+    @Override
+    public boolean isBulk() {
+        return this.imageData.length != 0;
     }
 
     @Override
     public @NotNull String toString() {
         return this.getClass().getSimpleName() + "{type=" + this.type + ", senderId=" + this.senderId + ", message='"
-                + this.message + "', timestamp=" + this.timestamp + ", imageName=" + this.imageName + ", bundle="
+                + this.message + "', timestamp=" + this.timestamp + ", imageName=" + this.imageName + ", imageHash=" + this.imageHash + ", bundle="
                 + this.bundle + "}";
     }
 
@@ -190,4 +214,20 @@ public class PacketChatMessage implements Packet<PacketListener> {
     public byte[] getImageData() {
         return this.imageData;
     }
+
+    /**
+     * Gibt den Hashwert der vom Sender angehängten Bilddatei zurück.
+     * @return den Hashwert der Bilddatei, oder null.
+     */
+    public @Nullable String getImageHash() {
+        return this.imageHash;
+    }
+
+    /**
+     * Gibt die Daten des Vorschaubilds der vom Sender angehängten Bilddatei zurück.
+     * @return die Daten des Vorschaubilds.
+     */
+    public byte[] getThumbnail() {
+        return this.thumbnail;
+    }
 }
@@ -0,0 +1,104 @@
+package controller.network.protocol;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Ein Paket, das einen Abschnitt eines in Abschnitten übertragenen Pakets enthält.
+ * <p>
+ *     Das Paket wird vom {@link ChunkSender} der Server- oder Client-Anwendung erzeugt, wenn die serialisierten Daten
+ *     eines Pakets größer als {@link ChunkSender#MAX_INLINE_SIZE} sind. Der {@link ChunkReceiver} der Gegenseite setzt
+ *     die Abschnitte einer Übertragung anhand ihrer Position wieder zu dem ursprünglichen Paket zusammen.
+ * </p>
+ */
+public class PacketChunk implements Packet<PacketListener> {
+
+    private int transfer;
+    private int offset;
+    private int size;
+    private byte[] data;
+
+    /**
+     * @deprecated Ausschließlich für die Deserialisierung des Netzwerkpakets.
+     */
+    @Deprecated
+    public PacketChunk() {
+
+    }
+
+    /**
+     * Ausschließlich für die Erzeugung des Netzwerkpakets von der Server- oder Client-Anwendung.
+     * @param transfer die Kennung der Übertragung, zu der der Abschnitt gehört.
+     * @param offset die Position des Abschnitts innerhalb der Übertragung.
+     * @param size die Gesamtgröße der Übertragung.
+     * @param data die Daten des Abschnitts.
+     */
+    public PacketChunk(final int transfer, final int offset, final int size, final byte[] data) {
+        this.transfer = transfer;
+        this.offset = offset;
+        this.size = size;
+        this.data = data;
+    }
+
+    @Override
+    public void call(@NotNull final PacketListener listener) {
+        listener.handle(this);
+    }
+
+    @Override
+    public void write(@NotNull final Kryo kryo, @NotNull final Output output) {
+        output.writeVarInt(this.transfer, true);
+        output.writeVarInt(this.offset, true);
+        output.writeVarInt(this.size, true);
+        output.writeVarInt(this.data.length, true);
+        output.writeBytes(this.data);
+    }
+
+    @Override
+    public void read(@NotNull final Kryo kryo, @NotNull final Input input) {
+        this.transfer = input.readVarInt(true);
+        this.offset = input.readVarInt(true);
+        this.size = input.readVarInt(true);
+        this.data = input.readBytes(input.readVarInt(true));
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return this.getClass().getSimpleName() + "{transfer=" + this.transfer + ", offset=" + this.offset + ", size="
+                + this.size + ", length=" + this.data.length + "}";
+    }
+
+    /**
+     * Gibt die Kennung der Übertragung zurück, zu der der Abschnitt gehört.
+     * @return die Kennung der Übertragung.
+     */
+    public int getTransfer() {
+        return this.transfer;
+    }
+
+    /**
+     * Gibt die Position des Abschnitts innerhalb der Übertragung zurück.
+     * @return die Position des Abschnitts.
+     */
+    public int getOffset() {
+        return this.offset;
+    }
+
+    /**
+     * Gibt die Gesamtgröße der Übertragung zurück.
+     * @return die Gesamtgröße der Übertragung.
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Gibt die Daten des Abschnitts zurück.
+     * @return die Daten des Abschnitts.
+     */
+    public byte[] getData() {
+        return this.data;
+    }
+}
@@ -0,0 +1,63 @@
+package controller.network.protocol;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Ein Paket, mit dem der Empfänger von Abschnitten dem Sender weitere Daten freigibt.
+ * <p>
+ *     Das Paket wird vom {@link ChunkReceiver} der Server- oder Client-Anwendung erzeugt, sobald er ausreichend viele
+ *     Daten von Abschnitten verarbeitet hat. Der {@link ChunkSender} der Gegenseite darf anschließend um die enthaltene
+ *     Anzahl an Bytes mehr Daten in Abschnitten versenden.
+ * </p>
+ */
+public class PacketChunkCredit implements Packet<PacketListener> {
+
+    private int credit;
+
+    /**
+     * @deprecated Ausschließlich für die Deserialisierung des Netzwerkpakets.
+     */
+    @Deprecated
+    public PacketChunkCredit() {
+
+    }
+
+    /**
+     * Ausschließlich für die Erzeugung des Netzwerkpakets von der Server- oder Client-Anwendung.
+     * @param credit die Anzahl an Bytes, die zusätzlich freigegeben werden.
+     */
+    public PacketChunkCredit(final int credit) {
+        this.credit = credit;
+    }
+
+    @Override
+    public void call(@NotNull final PacketListener listener) {
+        listener.handle(this);
+    }
+
+    @Override
+    public void write(@NotNull final Kryo kryo, @NotNull final Output output) {
+        output.writeVarInt(this.credit, true);
+    }
+
+    @Override
+    public void read(@NotNull final Kryo kryo, @NotNull final Input input) {
+        this.credit = input.readVarInt(true);
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return this.getClass().getSimpleName() + "{credit=" + this.credit + "}";
+    }
+
+    /**
+     * Gibt die Anzahl an Bytes zurück, die zusätzlich freigegeben werden.
+     * @return die freigegebene Anzahl an Bytes.
+     */
+    public int getCredit() {
+        return this.credit;
+    }
+}
@@ -0,0 +1,25 @@
+package controller.network.protocol;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Eine Schnittstelle, welche Pakete auf die gleiche Weise serialisiert und deserialisiert, wie sie über die Verbindung
+ * übertragen werden.
+ */
+public interface PacketCodec {
+
+    /**
+     * Serialisiert ein Paket.
+     * @param packet Das zu serialisierende Paket.
+     * @return die serialisierten Daten des Pakets.
+     */
+    byte[] encode(@NotNull final Packet<?> packet);
+
+    /**
+     * Deserialisiert die Daten eines Pakets.
+     * @param data Die serialisierten Daten.
+     * @return das deserialisierte Objekt.
+     * @throws RuntimeException falls die Daten nicht deserialisiert werden können.
+     */
+    @NotNull Object decode(final byte[] data);
+}
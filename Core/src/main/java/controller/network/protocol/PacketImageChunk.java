@@ -0,0 +1,115 @@
+package controller.network.protocol;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Ein Paket, das einen Abschnitt der Daten eines Bildanhangs anfordert oder enthält.
+ * <p>
+ *     Das Paket wird von einem Client mit dem Hashwert des Bildanhangs und der Position des Abschnitts erzeugt und an
+ *     den Server gesendet. Der Server antwortet mit einem Paket, das die Gesamtgröße des Bildanhangs sowie die Daten
+ *     des Abschnitts enthält. Ist kein Bildanhang mit dem Hashwert vorhanden, so ist die Gesamtgröße -1.
+ * </p>
+ * @see utils.ImageUtils#CHUNK_SIZE
+ */
+public class PacketImageChunk implements Packet<PacketListener> {
+
+    private String hash;
+    private int offset;
+    private int size;
+    private byte[] data;
+
+    /**
+     * @deprecated Ausschließlich für die Deserialisierung des Netzwerkpakets.
+     */
+    @Deprecated
+    public PacketImageChunk() {
+
+    }
+
+    /**
+     * Ausschließlich für die Erzeugung des Netzwerkpakets von der Client-Anwendung.
+     * @param hash der Hashwert des angeforderten Bildanhangs.
+     * @param offset die Position des angeforderten Abschnitts.
+     */
+    public PacketImageChunk(@NotNull final String hash, final int offset) {
+        this(hash, offset, -1, new byte[0]);
+    }
+
+    /**
+     * Ausschließlich für die Erzeugung des Netzwerkpakets von der Server-Anwendung.
+     * @param hash der Hashwert des angeforderten Bildanhangs.
+     * @param offset die Position des enthaltenen Abschnitts.
+     * @param size die Gesamtgröße des Bildanhangs, oder -1, falls der Bildanhang nicht vorhanden ist.
+     * @param data die Daten des Abschnitts.
+     */
+    public PacketImageChunk(@NotNull final String hash, final int offset, final int size, final byte[] data) {
+        this.hash = hash;
+        this.offset = offset;
+        this.size = size;
+        this.data = data;
+    }
+
+    @Override
+    public void call(@NotNull final PacketListener listener) {
+        listener.handle(this);
+    }
+
+    @Override
+    public void write(@NotNull final Kryo kryo, @NotNull final Output output) {
+        output.writeString(this.hash);
+        output.writeVarInt(this.offset, true);
+        output.writeVarInt(this.size + 1, true);
+        output.writeVarInt(this.data.length, true);
+        output.writeBytes(this.data);
+    }
+
+    @Override
+    public void read(@NotNull final Kryo kryo, @NotNull final Input input) {
+        this.hash = input.readString();
+        this.offset = input.readVarInt(true);
+        this.size = input.readVarInt(true) - 1;
+        this.data = input.readBytes(input.readVarInt(true));
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return this.getClass().getSimpleName() + "{hash=" + this.hash + ", offset=" + this.offset + ", size="
+                + this.size + ", length=" + this.data.length + "}";
+    }
+
+    /**
+     * Gibt den Hashwert des Bildanhangs zurück.
+     * @return der Hashwert des Bildanhangs.
+     */
+    public @Nullable String getHash() {
+        return this.hash;
+    }
+
+    /**
+     * Gibt die Position des Abschnitts innerhalb des Bildanhangs zurück.
+     * @return die Position des Abschnitts.
+     */
+    public int getOffset() {
+        return this.offset;
+    }
+
+    /**
+     * Gibt die Gesamtgröße des Bildanhangs zurück.
+     * @return die Gesamtgröße des Bildanhangs, oder -1, falls der Bildanhang nicht vorhanden ist oder angefordert wird.
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Gibt die Daten des Abschnitts zurück.
+     * @return die Daten des Abschnitts.
+     */
+    public byte[] getData() {
+        return this.data;
+    }
+}
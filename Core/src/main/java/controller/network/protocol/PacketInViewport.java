@@ -0,0 +1,76 @@
+package controller.network.protocol;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Ein Paket, das Informationen über den Sichtbereich eines Benutzers enthält.
+ * <p>
+ *     Das Paket wird von einem Client erzeugt und an den Server gesendet, sobald sich die Größe des Sichtbereichs
+ *     ändert. Der Server versendet anschließend ausschließlich die Avatare an den Client, die sich innerhalb des
+ *     Sichtbereichs des Benutzers befinden.
+ * </p>
+ */
+public class PacketInViewport implements Packet<PacketListenerIn> {
+
+    private float width;
+    private float height;
+
+    /**
+     * @deprecated Ausschließlich für die Deserialisierung des Netzwerkpakets.
+     */
+    @Deprecated
+    public PacketInViewport() {
+
+    }
+
+    /**
+     * Ausschließlich für die Erzeugung des Netzwerkpakets von der Client-Anwendung.
+     * @param width die maximale Breite des Sichtbereichs auf der Karte.
+     * @param height die maximale Höhe des Sichtbereichs auf der Karte.
+     */
+    public PacketInViewport(final float width, final float height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    @Override
+    public void call(@NotNull final PacketListenerIn listener) {
+        listener.handle(this);
+    }
+
+    @Override
+    public void write(@NotNull final Kryo kryo, @NotNull final Output output) {
+        output.writeFloat(this.width);
+        output.writeFloat(this.height);
+    }
+
+    @Override
+    public void read(@NotNull final Kryo kryo, @NotNull final Input input) {
+        this.width = input.readFloat();
+        this.height = input.readFloat();
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return this.getClass().getSimpleName() + "{width=" + this.width + ", height=" + this.height + "}";
+    }
+
+    /**
+     * Gibt die maximale Breite des Sichtbereichs auf der Karte zurück.
+     * @return die Breite des Sichtbereichs.
+     */
+    public float getWidth() {
+        return this.width;
+    }
+
+    /**
+     * Gibt die maximale Höhe des Sichtbereichs auf der Karte zurück.
+     * @return die Höhe des Sichtbereichs.
+     */
+    public float getHeight() {
+        return this.height;
+    }
+}
@@ -56,9 +56,39 @@ public interface PacketListener {
      */
     void handle(@NotNull final PacketVideoFrame packet);
 
+    /**
+     * Prüft die Korrektheit der Daten des Pakets und verarbeitet anschließend das Paket.
+     * @param packet Das zu verarbeitende Paket.
+     */
+    void handle(@NotNull final PacketVideoTileFrame packet);
+
+    /**
+     * Prüft die Korrektheit der Daten des Pakets und verarbeitet anschließend das Paket.
+     * @param packet Das zu verarbeitende Paket.
+     */
+    void handle(@NotNull final PacketImageChunk packet);
+
+    /**
+     * Prüft die Korrektheit der Daten des Pakets und verarbeitet anschließend das Paket.
+     * @param packet Das zu verarbeitende Paket.
+     */
+    void handle(@NotNull final PacketChunk packet);
+
+    /**
+     * Prüft die Korrektheit der Daten des Pakets und verarbeitet anschließend das Paket.
+     * @param packet Das zu verarbeitende Paket.
+     */
+    void handle(@NotNull final PacketChunkCredit packet);
+
     /**
      * Prüft die Korrektheit der Daten des Pakets und verarbeitet anschließend das Paket.
      * @param packet Das zu verarbeitende Paket.
      */
     void handle(@NotNull final PacketWorldAction packet);
+
+    /**
+     * Prüft die Korrektheit der Daten des Pakets und verarbeitet anschließend das Paket.
+     * @param packet Das zu verarbeitende Paket.
+     */
+    void handle(@NotNull final PacketAudioCodec packet);
 }
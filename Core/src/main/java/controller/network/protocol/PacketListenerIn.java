@@ -20,4 +20,10 @@ public interface PacketListenerIn extends PacketListener {
      * @param packet Das zu verarbeitende Paket.
      */
     void handle(@NotNull final PacketInUserManage packet);
+
+    /**
+     * Prüft die Korrektheit der Daten des Pakets und verarbeitet anschließend das Paket.
+     * @param packet Das zu verarbeitende Paket.
+     */
+    void handle(@NotNull final PacketInViewport packet);
 }
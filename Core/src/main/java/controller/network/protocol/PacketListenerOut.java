@@ -56,4 +56,16 @@ public interface PacketListenerOut extends PacketListener {
      * @param packet Das zu verarbeitende Paket.
      */
     void handle(@NotNull final PacketOutUserInfo packet);
+
+    /**
+     * Prüft die Korrektheit der Daten des Pakets und verarbeitet anschließend das Paket.
+     * @param packet Das zu verarbeitende Paket.
+     */
+    void handle(@NotNull final PacketOutAvatarMoves packet);
+
+    /**
+     * Prüft die Korrektheit der Daten des Pakets und verarbeitet anschließend das Paket.
+     * @param packet Das zu verarbeitende Paket.
+     */
+    void handle(@NotNull final PacketOutWorldSnapshot packet);
 }
@@ -0,0 +1,196 @@
+package controller.network.protocol;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import model.context.spatial.Direction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Ein Paket, das Informationen über die Bewegungen mehrerer Avatare auf einer Karte enthält.
+ * <p>
+ *     Das Paket wird vom Server in einem festen Takt erzeugt und an die Clients aller Benutzer gesendet, die sich
+ *     innerhalb des gleichen Raums befinden. Das Paket enthält für jeden Avatar, der sich seit dem letzten Takt bewegt
+ *     hat, ausschließlich dessen aktuelle Position.
+ * </p>
+ * <p>
+ *     Die Bewegungen werden vor dem Versenden mit dem {@link AvatarStateCodec} der jeweiligen Verbindung kodiert und
+ *     nach dem Empfangen mit dem entsprechenden Codec der Gegenseite dekodiert.
+ * </p>
+ */
+public class PacketOutAvatarMoves implements Packet<PacketListenerOut> {
+
+    private AvatarMove[] moves;
+    private byte[] data;
+
+    /**
+     * @deprecated Ausschließlich für die Deserialisierung des Netzwerkpakets.
+     */
+    @Deprecated
+    public PacketOutAvatarMoves() {
+
+    }
+
+    /**
+     * Ausschließlich für die Erzeugung des Netzwerkpakets von der Server-Anwendung.
+     * @param moves die Bewegungen der Avatare seit dem letzten Takt.
+     */
+    public PacketOutAvatarMoves(@NotNull final Collection<AvatarMove> moves) {
+        this.moves = moves.toArray(new AvatarMove[0]);
+    }
+
+    @Override
+    public void call(@NotNull final PacketListenerOut listener) {
+        listener.handle(this);
+    }
+
+    @Override
+    public void write(@NotNull final Kryo kryo, @NotNull final Output output) {
+        if (this.data == null) {
+            throw new IllegalStateException("Avatar moves must be encoded before serialization");
+        }
+
+        output.writeVarInt(this.data.length, true);
+        output.writeBytes(this.data);
+    }
+
+    @Override
+    public void read(@NotNull final Kryo kryo, @NotNull final Input input) {
+        this.data = input.readBytes(input.readVarInt(true));
+    }
+
+    /**
+     * Kodiert die Bewegungen der Avatare mit dem Codec der Verbindung, über die das Paket versendet wird.
+     * @param codec der Codec der Verbindung.
+     */
+    public void encode(@NotNull final AvatarStateCodec codec) {
+        this.data = codec.encode(this.moves);
+    }
+
+    /**
+     * Dekodiert die Bewegungen der Avatare mit dem Codec der Verbindung, über die das Paket empfangen wurde.
+     * @param codec der Codec der Verbindung.
+     * @throws IllegalArgumentException falls die empfangenen Daten nicht dekodiert werden konnten.
+     */
+    public void decode(@NotNull final AvatarStateCodec codec) {
+        if (this.moves == null) {
+            this.moves = codec.decode(this.data);
+        }
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return this.getClass().getSimpleName() + "{moves=" + Arrays.toString(this.moves) + "}";
+    }
+
+    /**
+     * Gibt die Bewegungen der Avatare seit dem letzten Takt zurück.
+     * @return die Bewegungen der Avatare.
+     */
+    public @NotNull AvatarMove[] getMoves() {
+        return this.moves;
+    }
+
+    /**
+     * Eine Klasse, die die aktuelle Position eines einzelnen Avatars hält.
+     */
+    public static class AvatarMove {
+
+        private final UUID userId;
+        private final Direction direction;
+        private final float posX;
+        private final float posY;
+        private final boolean sprinting;
+        private final boolean movable;
+
+        public AvatarMove(@NotNull final UUID userId, @NotNull final Direction direction, final float posX,
+                          final float posY, final boolean sprinting, final boolean movable) {
+            this.userId = userId;
+            this.direction = direction;
+            this.posX = posX;
+            this.posY = posY;
+            this.sprinting = sprinting;
+            this.movable = movable;
+        }
+
+        /**
+         * Gibt die Benutzer-ID des zum Avatar gehörenden Benutzers zurück.
+         * @return die Benutzer-ID.
+         */
+        public @NotNull UUID getUserId() {
+            return this.userId;
+        }
+
+        /**
+         * Gibt die Richtung, in die der Avatar schaut, zurück.
+         * @return die Richtung des Avatars.
+         */
+        public @NotNull Direction getDirection() {
+            return this.direction;
+        }
+
+        /**
+         * Gibt die aktuelle X-Position des Avatars im Raum zurück.
+         * @return die aktuelle X-Koordinate.
+         */
+        public float getPosX() {
+            return this.posX;
+        }
+
+        /**
+         * Gibt die aktuelle Y-Position des Avatars im Raum zurück.
+         * @return die aktuelle Y-Koordinate.
+         */
+        public float getPosY() {
+            return this.posY;
+        }
+
+        /**
+         * Gibt zurück, ob sich der Benutzer schnell fortbewegt.
+         * @return true, wenn sich der Benutzer schnell fortbewegt, ansonsten false.
+         */
+        public boolean isSprinting() {
+            return this.sprinting;
+        }
+
+        /**
+         * Gibt zurück, ob sich der Benutzer bewegen kann.
+         * @return true, wenn sich der Benutzer bewegen kann, ansonsten false.
+         */
+        public boolean isMovable() {
+            return this.movable;
+        }
+
+        @Override
+        public @NotNull String toString() {
+            return "{userId=" + this.userId + ", direction=" + this.direction + ", posX=" + this.posX
+                    + ", posY=" + this.posY + ", sprinting=" + this.sprinting + ", movable=" + this.movable + "}";
+        }
+
+        @Override
+        public boolean equals(@Nullable final Object object) {
+            if (this == object) {
+                return true;
+            }
+
+            if (object == null || getClass() != object.getClass()) {
+                return false;
+            }
+
+            final AvatarMove other = (AvatarMove) object;
+
+            return this.userId.equals(other.userId) && this.direction == other.direction && this.posX == other.posX
+                    && this.posY == other.posY && this.sprinting == other.sprinting && this.movable == other.movable;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.userId, this.direction, this.posX, this.posY, this.sprinting, this.movable);
+        }
+    }
+}
@@ -68,6 +68,11 @@ public class PacketOutContextList implements Packet<PacketListenerOut> {
         }
     }
 
+    @Override
+    public boolean isBulk() {
+        return true;
+    }
+
     @Override
     public @NotNull String toString() {
         return this.getClass().getSimpleName() + "{contextId=" + this.contextId + ", infos=" +
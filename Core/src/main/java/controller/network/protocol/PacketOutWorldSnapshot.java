@@ -0,0 +1,204 @@
+package controller.network.protocol;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.jetbrains.annotations.NotNull;
+import java.io.ByteArrayOutputStream;
+import java.util.Collection;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Ein Paket, das einen Schnappschuss des Zustands einer Welt enthält.
+ * <p>
+ *     Das Paket wird vom Server erzeugt und an einen Client gesendet, dessen Benutzer eine Welt betreten hat. Es enthält
+ *     die Informationen und Rollen der Benutzer der Welt sowie die Positionen der Avatare im Sichtbereich des Benutzers,
+ *     die sonst in einzelnen Paketen versendet werden. Betritt ein Benutzer eine Welt, so erhalten die anderen Benutzer
+ *     der Welt ebenfalls ein solches Paket, welches nur die Informationen und Rollen des neuen Benutzers enthält.
+ * </p>
+ * <p>
+ *     Die enthaltenen Pakete werden gemeinsam serialisiert und komprimiert. Der Client verarbeitet sie in der
+ *     Reihenfolge Benutzerinformationen, Rollen und Avatare, so als wären sie einzeln empfangen worden.
+ * </p>
+ */
+public class PacketOutWorldSnapshot implements Packet<PacketListenerOut> {
+
+    /** Maximale Größe der unkomprimierten Daten eines Schnappschusses in Bytes. */
+    public static final int MAX_SIZE = 1 << 24;
+
+    private PacketOutUserInfo[] infos;
+    private PacketOutContextRole[] roles;
+    private PacketAvatarMove[] avatars;
+
+    /**
+     * @deprecated Ausschließlich für die Deserialisierung des Netzwerkpakets.
+     */
+    @Deprecated
+    public PacketOutWorldSnapshot() {
+
+    }
+
+    /**
+     * Ausschließlich für die Erzeugung des Netzwerkpakets von der Server-Anwendung.
+     * @param infos die Informationen der Benutzer.
+     * @param roles die Rollen der Benutzer.
+     * @param avatars die Avatare im Sichtbereich des Benutzers.
+     */
+    public PacketOutWorldSnapshot(@NotNull final Collection<PacketOutUserInfo> infos,
+                                  @NotNull final Collection<PacketOutContextRole> roles,
+                                  @NotNull final Collection<PacketAvatarMove> avatars) {
+        this.infos = infos.toArray(new PacketOutUserInfo[0]);
+        this.roles = roles.toArray(new PacketOutContextRole[0]);
+        this.avatars = avatars.toArray(new PacketAvatarMove[0]);
+    }
+
+    @Override
+    public void call(@NotNull final PacketListenerOut listener) {
+        listener.handle(this);
+    }
+
+    @Override
+    public void write(@NotNull final Kryo kryo, @NotNull final Output output) {
+        final Output body = new Output(1024, MAX_SIZE);
+
+        body.writeVarInt(this.infos.length, true);
+        for (final PacketOutUserInfo info : this.infos) {
+            info.write(kryo, body);
+        }
+
+        body.writeVarInt(this.roles.length, true);
+        for (final PacketOutContextRole role : this.roles) {
+            role.write(kryo, body);
+        }
+
+        body.writeVarInt(this.avatars.length, true);
+        for (final PacketAvatarMove avatar : this.avatars) {
+            avatar.write(kryo, body);
+        }
+
+        final byte[] data = compress(body.getBuffer(), body.position());
+
+        output.writeVarInt(body.position(), true);
+        output.writeVarInt(data.length, true);
+        output.writeBytes(data);
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public void read(@NotNull final Kryo kryo, @NotNull final Input input) {
+        final int size = input.readVarInt(true);
+
+        if (size > MAX_SIZE) {
+            throw new IllegalArgumentException("World snapshot exceeds maximum size: " + size);
+        }
+
+        final Input body = new Input(decompress(input.readBytes(input.readVarInt(true)), size));
+
+        this.infos = new PacketOutUserInfo[body.readVarInt(true)];
+        for (int index = 0; index < this.infos.length; index++) {
+            this.infos[index] = new PacketOutUserInfo();
+            this.infos[index].read(kryo, body);
+        }
+
+        this.roles = new PacketOutContextRole[body.readVarInt(true)];
+        for (int index = 0; index < this.roles.length; index++) {
+            this.roles[index] = new PacketOutContextRole();
+            this.roles[index].read(kryo, body);
+        }
+
+        this.avatars = new PacketAvatarMove[body.readVarInt(true)];
+        for (int index = 0; index < this.avatars.length; index++) {
+            this.avatars[index] = new PacketAvatarMove();
+            this.avatars[index].read(kryo, body);
+        }
+    }
+
+    @Override
+    public boolean isBulk() {
+        return true;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return this.getClass().getSimpleName() + "{infos=" + this.infos.length + ", roles=" + this.roles.length
+                + ", avatars=" + this.avatars.length + "}";
+    }
+
+    /**
+     * Gibt die Informationen der Benutzer zurück.
+     * @return die Informationen der Benutzer.
+     */
+    public @NotNull PacketOutUserInfo[] getInfos() {
+        return this.infos;
+    }
+
+    /**
+     * Gibt die Rollen der Benutzer zurück.
+     * @return die Rollen der Benutzer.
+     */
+    public @NotNull PacketOutContextRole[] getRoles() {
+        return this.roles;
+    }
+
+    /**
+     * Gibt die Avatare im Sichtbereich des Benutzers zurück.
+     * @return die Avatare im Sichtbereich.
+     */
+    public @NotNull PacketAvatarMove[] getAvatars() {
+        return this.avatars;
+    }
+
+    /**
+     * Komprimiert die serialisierten Daten des Schnappschusses.
+     * @param buffer Puffer der serialisierten Daten.
+     * @param length Länge der serialisierten Daten.
+     * @return die komprimierten Daten.
+     */
+    private static byte[] compress(final byte[] buffer, final int length) {
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        final ByteArrayOutputStream data = new ByteArrayOutputStream(length / 2 + 64);
+        final byte[] chunk = new byte[4096];
+
+        try {
+            deflater.setInput(buffer, 0, length);
+            deflater.finish();
+
+            while (!deflater.finished()) {
+                data.write(chunk, 0, deflater.deflate(chunk));
+            }
+        } finally {
+            deflater.end();
+        }
+
+        return data.toByteArray();
+    }
+
+    /**
+     * Dekomprimiert die empfangenen Daten des Schnappschusses.
+     * @param data Komprimierte Daten.
+     * @param size Erwartete Länge der dekomprimierten Daten.
+     * @return die dekomprimierten Daten.
+     * @throws IllegalArgumentException falls die Daten nicht der erwarteten Länge entsprechend dekomprimiert werden
+     * konnten.
+     */
+    private static byte[] decompress(final byte[] data, final int size) {
+        final Inflater inflater = new Inflater();
+        final byte[] buffer = new byte[size];
+
+        try {
+            inflater.setInput(data);
+
+            if (inflater.inflate(buffer) != size || !inflater.finished()) {
+                throw new IllegalArgumentException("World snapshot does not match its size");
+            }
+        } catch (DataFormatException ex) {
+            throw new IllegalArgumentException("Invalid world snapshot data", ex);
+        } finally {
+            inflater.end();
+        }
+
+        return buffer;
+    }
+}
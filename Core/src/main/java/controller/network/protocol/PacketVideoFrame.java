@@ -6,7 +6,6 @@ import com.esotericsoftware.kryo.io.Output;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.UUID;
 
 /**
@@ -77,13 +76,12 @@ public class PacketVideoFrame implements Packet<PacketListener> {
         this.timestamp = kryo.readObjectOrNull(input, LocalDateTime.class);
         this.screenshot = input.readBoolean();
         this.frameData = input.readBytes(input.readVarInt(true));
-        System.out.println("Read PacketVideoFrame with total of " + input.total() + " bytes.");
     }
 
     @Override
     public @NotNull String toString() {
         return this.getClass().getSimpleName() + "{senderId=" + this.senderId + ", timestamp=" + this.timestamp
-                + ", isScreen=" + this.screenshot + ", frameData=" + Arrays.toString(this.frameData) + "}";
+                + ", isScreen=" + this.screenshot + ", frameData=" + this.frameData.length + " bytes}";
     }
 
     /**
@@ -0,0 +1,170 @@
+package controller.network.protocol;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Ein Paket, das die seit dem letzten Frame veränderten Kacheln einer Bildschirmaufnahme eines Benutzers enthält.
+ * <p>
+ *     Das Paket wird von einem Client mit den Daten der Bildschirmaufnahme erzeugt und an den Server gesendet.
+ *     Nach der Verarbeitung des Pakets vom Server, wird der Sender gesetzt und das Paket wird an all die Clients
+ *     verteilt, die das Frame empfangen dürfen.
+ * </p>
+ * <p>
+ *     Ein Schlüsselframe enthält die vollständige Bildschirmaufnahme. Alle anderen Frames enthalten nur die Indizes
+ *     der veränderten Kacheln sowie ein Bild, in dem diese Kacheln zeilenweise aneinandergereiht sind. Die Kacheln
+ *     beziehen sich auf das Raster von {@link utils.VideoUtils#TILE_SIZE} Bildpunkten des letzten Schlüsselframes.
+ * </p>
+ */
+public class PacketVideoTileFrame implements Packet<PacketListener> {
+
+    private UUID senderId;
+    private LocalDateTime timestamp;
+    private boolean keyframe;
+    private int sequence;
+    private int[] tiles;
+    private byte[] tileData;
+
+    /**
+     * @deprecated Ausschließlich für die Deserialisierung des Netzwerkpakets.
+     */
+    @Deprecated
+    public PacketVideoTileFrame() {
+
+    }
+
+    /**
+     * Ausschließlich für die Erzeugung des Netzwerkpakets von der Client-Anwendung.
+     * @param keyframe falls true, enthält dieses Frame die vollständige Bildschirmaufnahme.
+     * @param sequence die fortlaufende Nummer des Frames.
+     * @param tiles die aufsteigend sortierten Indizes der enthaltenen Kacheln.
+     * @param tileData die Daten des Bildes, das die enthaltenen Kacheln beinhaltet.
+     */
+    public PacketVideoTileFrame(final boolean keyframe, final int sequence, final int[] tiles, final byte[] tileData) {
+        this.keyframe = keyframe;
+        this.sequence = sequence;
+        this.tiles = tiles;
+        this.tileData = tileData;
+    }
+
+    /**
+     * Ausschließlich für die Erzeugung des Netzwerkpakets von der Server-Anwendung.
+     * @param senderId die Benutzer-ID des Senders des Frames.
+     * @param timestamp der Zeitpunkt, an dem das Frame versendet wurde.
+     * @param keyframe falls true, enthält dieses Frame die vollständige Bildschirmaufnahme.
+     * @param sequence die fortlaufende Nummer des Frames.
+     * @param tiles die aufsteigend sortierten Indizes der enthaltenen Kacheln.
+     * @param tileData die Daten des Bildes, das die enthaltenen Kacheln beinhaltet.
+     */
+    public PacketVideoTileFrame(@Nullable final UUID senderId, @NotNull final LocalDateTime timestamp,
+                                final boolean keyframe, final int sequence, final int[] tiles, final byte[] tileData) {
+        this.senderId = senderId;
+        this.timestamp = timestamp;
+        this.keyframe = keyframe;
+        this.sequence = sequence;
+        this.tiles = tiles;
+        this.tileData = tileData;
+    }
+
+    @Override
+    public void call(@NotNull final PacketListener listener) {
+        listener.handle(this);
+    }
+
+    @Override
+    public void write(@NotNull final Kryo kryo, @NotNull final Output output) {
+        PacketUtils.writeNullableUniqueId(output, this.senderId);
+        kryo.writeObjectOrNull(output, this.timestamp, LocalDateTime.class);
+        output.writeBoolean(this.keyframe);
+        output.writeVarInt(this.sequence, true);
+        output.writeVarInt(this.tiles.length, true);
+
+        // Die aufsteigenden Indizes werden als Abstand zum vorherigen Index geschrieben.
+        int previous = 0;
+        for (final int tile : this.tiles) {
+            output.writeVarInt(tile - previous, true);
+            previous = tile;
+        }
+
+        output.writeVarInt(this.tileData.length, true);
+        output.writeBytes(this.tileData);
+    }
+
+    @Override
+    public void read(@NotNull final Kryo kryo, @NotNull final Input input) {
+        this.senderId = PacketUtils.readNullableUniqueId(input);
+        this.timestamp = kryo.readObjectOrNull(input, LocalDateTime.class);
+        this.keyframe = input.readBoolean();
+        this.sequence = input.readVarInt(true);
+        this.tiles = new int[input.readVarInt(true)];
+
+        int previous = 0;
+        for (int i = 0; i < this.tiles.length; i++) {
+            previous += input.readVarInt(true);
+            this.tiles[i] = previous;
+        }
+
+        this.tileData = input.readBytes(input.readVarInt(true));
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return this.getClass().getSimpleName() + "{senderId=" + this.senderId + ", timestamp=" + this.timestamp
+                + ", keyframe=" + this.keyframe + ", sequence=" + this.sequence + ", tiles=" + this.tiles.length
+                + ", tileData=" + this.tileData.length + " bytes}";
+    }
+
+    /**
+     * Gibt die Benutzer-ID des Senders des Frames zurück.
+     * @return die Benutzer-ID des Senders, oder null.
+     */
+    public @Nullable UUID getSenderId() {
+        return this.senderId;
+    }
+
+    /**
+     * Gibt den Zeitpunkt, an dem das Frame gesendet wurde, zurück.
+     * @return der Zeitstempel des Frames.
+     */
+    public @Nullable LocalDateTime getTimestamp() {
+        return this.timestamp;
+    }
+
+    /**
+     * Gibt an, ob dieses Frame die vollständige Bildschirmaufnahme enthält.
+     * @return true, falls dieses Frame ein Schlüsselframe ist, sonst false.
+     */
+    public boolean isKeyframe() {
+        return this.keyframe;
+    }
+
+    /**
+     * Gibt die fortlaufende Nummer des Frames zurück.
+     * @return die Nummer des Frames.
+     */
+    public int getSequence() {
+        return this.sequence;
+    }
+
+    /**
+     * Gibt die aufsteigend sortierten Indizes der im Frame enthaltenen Kacheln zurück.
+     * @return die Indizes der Kacheln.
+     */
+    public int[] getTiles() {
+        return this.tiles;
+    }
+
+    /**
+     * Gibt die Daten des Bildes zurück, das die enthaltenen Kacheln beinhaltet.
+     * @return die Daten der Kacheln.
+     */
+    public byte[] getTileData() {
+        return this.tileData;
+    }
+}
@@ -0,0 +1,372 @@
+package utils;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Eine Enumeration der Verfahren, mit denen Sprachdaten vor dem Versenden kodiert werden können.
+ * <p>
+ *     Jedes kodierte Audioframe beginnt mit der ID des verwendeten Verfahrens und enthält alle Informationen, die zum
+ *     Dekodieren benötigt werden. Die Audioframes können somit unabhängig voneinander und ohne Kenntnis des beim Sender
+ *     verwendeten Verfahrens dekodiert werden, sodass der Server die Sprachdaten unverändert weiterleiten kann. Jeder
+ *     Client muss daher alle Verfahren dekodieren können.
+ * </p>
+ * <p>
+ *     Die ADPCM-Verfahren verwenden IMA-ADPCM, das jedes Sample mit 4 Bit kodiert. Die Kopfdaten eines Audioframes
+ *     enthalten dabei die Anzahl der dekodierten und kodierten Samples, das erste Sample sowie den Index der
+ *     anfänglichen Schrittweite.
+ * </p>
+ */
+public enum AudioCodec {
+
+    /**
+     * Unkomprimierte 16-Bit-Samples im Big-Endian-Format.
+     */
+    PCM(0, AudioUtils.SAMPLING_RATE),
+
+    /**
+     * IMA-ADPCM mit der ursprünglichen Abtastrate.
+     */
+    ADPCM(1, AudioUtils.SAMPLING_RATE),
+
+    /**
+     * IMA-ADPCM nach Reduzierung der Abtastrate auf 16 kHz.
+     */
+    ADPCM_16K(2, 16000);
+
+    /** Größe der Kopfdaten eines mit ADPCM kodierten Audioframes in Bytes. */
+    private static final int ADPCM_HEADER_SIZE = 8;
+
+    private static final int[] INDEX_TABLE = {
+            -1, -1, -1, -1, 2, 4, 6, 8,
+            -1, -1, -1, -1, 2, 4, 6, 8
+    };
+
+    private static final int[] STEP_TABLE = {
+            7, 8, 9, 10, 11, 12, 13, 14, 16, 17, 19, 21, 23, 25, 28, 31, 34, 37, 41, 45, 50, 55, 60, 66, 73, 80, 88,
+            97, 107, 118, 130, 143, 157, 173, 190, 209, 230, 253, 279, 307, 337, 371, 408, 449, 494, 544, 598, 658,
+            724, 796, 876, 963, 1060, 1166, 1282, 1411, 1552, 1707, 1878, 2066, 2272, 2499, 2749, 3024, 3327, 3660,
+            4026, 4428, 4871, 5358, 5894, 6484, 7132, 7845, 8630, 9493, 10442, 11487, 12635, 13899, 15289, 16818,
+            18500, 20350, 22385, 24623, 27086, 29794, 32767
+    };
+
+    private final int id;
+    private final int samplingRate;
+
+    AudioCodec(final int id, final int samplingRate) {
+        this.id = id;
+        this.samplingRate = samplingRate;
+    }
+
+    /**
+     * Gibt die ID des Verfahrens zurück, die in den kodierten Audioframes und Netzwerkpaketen verwendet wird.
+     * @return die ID des Verfahrens.
+     */
+    public int getId() {
+        return this.id;
+    }
+
+    /**
+     * Gibt die Abtastrate zurück, mit der die Samples kodiert werden.
+     * @return die Abtastrate in Hertz.
+     */
+    public int getSamplingRate() {
+        return this.samplingRate;
+    }
+
+    /**
+     * Kodiert die Samples eines Audioframes.
+     * @param samples die zu kodierenden Samples mit der Abtastrate {@link AudioUtils#SAMPLING_RATE}.
+     * @return das kodierte Audioframe.
+     */
+    public byte[] encode(final short[] samples) {
+        if (this == PCM) {
+            final byte[] frame = new byte[1 + samples.length * 2];
+
+            frame[0] = (byte) this.id;
+            for (int i = 0; i < samples.length; i++) {
+                frame[1 + 2 * i] = (byte) (samples[i] >> 8);
+                frame[2 + 2 * i] = (byte) samples[i];
+            }
+            return frame;
+        }
+
+        if (samples.length > 0xFFFF) {
+            throw new IllegalArgumentException("Audio frame exceeds maximum of 65535 samples");
+        }
+
+        final short[] encoded = this.samplingRate != AudioUtils.SAMPLING_RATE && samples.length > 0
+                ? sampleDown(samples, (int) Math.max(1, Math.round((double) samples.length * this.samplingRate
+                        / AudioUtils.SAMPLING_RATE)))
+                : samples;
+
+        final byte[] frame = new byte[ADPCM_HEADER_SIZE + encoded.length / 2];
+        int predictor = encoded.length > 0 ? encoded[0] : 0;
+        int index = encoded.length > 1 ? initialIndex(Math.abs(encoded[1] - encoded[0])) : 0;
+
+        frame[0] = (byte) this.id;
+        writeShort(frame, 1, samples.length);
+        writeShort(frame, 3, encoded.length);
+        writeShort(frame, 5, predictor);
+        frame[7] = (byte) index;
+
+        for (int i = 1; i < encoded.length; i++) {
+            int step = STEP_TABLE[index];
+            int diff = encoded[i] - predictor;
+            int nibble = 0;
+
+            if (diff < 0) {
+                nibble = 8;
+                diff = -diff;
+            }
+
+            int delta = step >> 3;
+
+            if (diff >= step) {
+                nibble |= 4;
+                diff -= step;
+                delta += step;
+            }
+
+            step >>= 1;
+
+            if (diff >= step) {
+                nibble |= 2;
+                diff -= step;
+                delta += step;
+            }
+
+            step >>= 1;
+
+            if (diff >= step) {
+                nibble |= 1;
+                delta += step;
+            }
+
+            predictor = clamp((nibble & 8) != 0 ? predictor - delta : predictor + delta);
+            index = Math.max(0, Math.min(STEP_TABLE.length - 1, index + INDEX_TABLE[nibble]));
+            frame[ADPCM_HEADER_SIZE + (i - 1) / 2] |= (i - 1) % 2 == 0 ? nibble : nibble << 4;
+        }
+
+        return frame;
+    }
+
+    /**
+     * Dekodiert ein Audioframe, das mit einem beliebigen Verfahren kodiert wurde.
+     * @param frame das kodierte Audioframe.
+     * @return die dekodierten Samples mit der Abtastrate {@link AudioUtils#SAMPLING_RATE}.
+     * @throws IllegalArgumentException falls das Audioframe mit keinem bekannten Verfahren kodiert wurde oder
+     * unvollständig ist.
+     */
+    public static short[] decode(final byte[] frame) throws IllegalArgumentException {
+        final AudioCodec codec = codecOf(frame);
+        final int length;
+
+        if (codec == PCM) {
+            length = (frame.length - 1) / 2;
+        } else if (frame.length >= ADPCM_HEADER_SIZE) {
+            length = Math.max(readShort(frame, 1) & 0xFFFF, readShort(frame, 3) & 0xFFFF);
+        } else {
+            length = 0;
+        }
+
+        final short[] samples = new short[length];
+        final int decoded = decode(frame, samples);
+        return decoded != samples.length ? Arrays.copyOf(samples, decoded) : samples;
+    }
+
+    /**
+     * Dekodiert ein Audioframe, das mit einem beliebigen Verfahren kodiert wurde, in ein bereits vorhandenes Array.
+     * Dabei werden keine neuen Arrays erzeugt.
+     * @param frame das kodierte Audioframe.
+     * @param samples das Array, in das die dekodierten Samples mit der Abtastrate {@link AudioUtils#SAMPLING_RATE}
+     * geschrieben werden.
+     * @return die Anzahl der dekodierten Samples.
+     * @throws IllegalArgumentException falls das Audioframe mit keinem bekannten Verfahren kodiert wurde, unvollständig
+     * ist oder nicht in das Array passt.
+     */
+    public static int decode(final byte[] frame, final short[] samples) throws IllegalArgumentException {
+        final AudioCodec codec = codecOf(frame);
+
+        if (codec == PCM) {
+            if (frame.length % 2 == 0) {
+                throw new IllegalArgumentException("Audio frame contains incomplete samples");
+            }
+
+            final int length = (frame.length - 1) / 2;
+
+            if (length > samples.length) {
+                throw new IllegalArgumentException("Audio frame does not fit into the sample buffer");
+            }
+
+            for (int i = 0; i < length; i++) {
+                samples[i] = (short) ((frame[1 + 2 * i] << 8) | (frame[2 + 2 * i] & 0xff));
+            }
+            return length;
+        }
+
+        if (frame.length < ADPCM_HEADER_SIZE) {
+            throw new IllegalArgumentException("Audio frame is missing the header");
+        }
+
+        final int length = readShort(frame, 1) & 0xFFFF;
+        final int count = readShort(frame, 3) & 0xFFFF;
+        int predictor = readShort(frame, 5);
+        int index = frame[7];
+
+        if (frame.length < ADPCM_HEADER_SIZE + count / 2 || index < 0 || index >= STEP_TABLE.length) {
+            throw new IllegalArgumentException("Audio frame contains an invalid header");
+        }
+
+        if (Math.max(length, count) > samples.length) {
+            throw new IllegalArgumentException("Audio frame does not fit into the sample buffer");
+        }
+
+        if (count > 0) {
+            samples[0] = (short) predictor;
+        }
+
+        for (int i = 1; i < count; i++) {
+            final int nibble = (frame[ADPCM_HEADER_SIZE + (i - 1) / 2] >> ((i - 1) % 2 == 0 ? 0 : 4)) & 0x0F;
+            final int step = STEP_TABLE[index];
+            int delta = step >> 3;
+
+            if ((nibble & 4) != 0) {
+                delta += step;
+            }
+            if ((nibble & 2) != 0) {
+                delta += step >> 1;
+            }
+            if ((nibble & 1) != 0) {
+                delta += step >> 2;
+            }
+
+            predictor = clamp((nibble & 8) != 0 ? predictor - delta : predictor + delta);
+            index = Math.max(0, Math.min(STEP_TABLE.length - 1, index + INDEX_TABLE[nibble]));
+            samples[i] = (short) predictor;
+        }
+
+        if (count != length) {
+            resample(samples, count, length);
+        }
+        return length;
+    }
+
+    /**
+     * Wählt das Verfahren aus, mit dem ein Client seine Sprachdaten kodieren soll.
+     * @param preferred das bevorzugte Verfahren.
+     * @param supported die vom Client unterstützten Verfahren.
+     * @return das bevorzugte Verfahren, falls es vom Client unterstützt wird, sonst {@link #PCM}.
+     */
+    public static @NotNull AudioCodec select(@NotNull final AudioCodec preferred,
+                                             @NotNull final Collection<AudioCodec> supported) {
+        return supported.contains(preferred) ? preferred : PCM;
+    }
+
+    /**
+     * Gibt das Verfahren mit der angegebenen ID zurück.
+     * @param id die ID des Verfahrens.
+     * @return das Verfahren, oder null, falls kein Verfahren mit der ID existiert.
+     */
+    public static @Nullable AudioCodec fromId(final int id) {
+        for (final AudioCodec codec : values()) {
+            if (codec.id == id) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reduziert die Abtastrate, indem jeweils die Samples eines Abschnitts gemittelt werden. Die Mittelung dient
+     * zugleich als einfacher Tiefpass gegen Aliasing.
+     * @param samples die Samples mit der ursprünglichen Abtastrate.
+     * @param length die Anzahl der Samples nach der Reduzierung.
+     * @return die Samples mit der reduzierten Abtastrate.
+     */
+    private static short[] sampleDown(final short[] samples, final int length) {
+        final short[] result = new short[length];
+
+        for (int i = 0; i < length; i++) {
+            final int start = (int) ((long) i * samples.length / length);
+            final int end = Math.max(start + 1, (int) ((long) (i + 1) * samples.length / length));
+            int sum = 0;
+
+            for (int j = start; j < end; j++) {
+                sum += samples[j];
+            }
+            result[i] = (short) (sum / (end - start));
+        }
+
+        return result;
+    }
+
+    /**
+     * Ändert die Abtastrate durch lineare Interpolation zwischen den Mittelpunkten der Abschnitte. Die Samples werden
+     * dabei innerhalb des Arrays umgerechnet. Bei einer Erhöhung der Abtastrate wird von hinten nach vorne
+     * gerechnet, sodass jedes Sample erst überschrieben wird, nachdem es zuletzt gelesen wurde.
+     * @param samples das Array mit den Samples, das Platz für die größere der beiden Anzahlen bieten muss.
+     * @param count die Anzahl der Samples vor der Umrechnung.
+     * @param length die Anzahl der Samples nach der Umrechnung.
+     */
+    private static void resample(final short[] samples, final int count, final int length) {
+        if (count == 0) {
+            Arrays.fill(samples, 0, length, (short) 0);
+            return;
+        }
+
+        final double ratio = (double) count / length;
+
+        if (ratio < 1) {
+            for (int i = length - 1; i >= 0; i--) {
+                samples[i] = interpolate(samples, count, (i + 0.5) * ratio - 0.5);
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                samples[i] = interpolate(samples, count, (i + 0.5) * ratio - 0.5);
+            }
+        }
+    }
+
+    private static short interpolate(final short[] samples, final int count, final double target) {
+        final double position = Math.max(0, Math.min(count - 1, target));
+        final int lower = (int) position;
+        final int upper = Math.min(count - 1, lower + 1);
+        final double fraction = position - lower;
+
+        return (short) Math.round(samples[lower] + (samples[upper] - samples[lower]) * fraction);
+    }
+
+    private static @NotNull AudioCodec codecOf(final byte[] frame) {
+        final AudioCodec codec = frame.length > 0 ? fromId(frame[0]) : null;
+
+        if (codec == null) {
+            throw new IllegalArgumentException("Audio frame is not encoded with a known codec");
+        }
+        return codec;
+    }
+
+    private static int initialIndex(final int difference) {
+        int index = 0;
+
+        while (index < STEP_TABLE.length - 1 && STEP_TABLE[index] < difference) {
+            index++;
+        }
+        return index;
+    }
+
+    private static int clamp(final int sample) {
+        return Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, sample));
+    }
+
+    private static void writeShort(final byte[] data, final int offset, final int value) {
+        data[offset] = (byte) (value >> 8);
+        data[offset + 1] = (byte) value;
+    }
+
+    private static short readShort(final byte[] data, final int offset) {
+        return (short) ((data[offset] << 8) | (data[offset + 1] & 0xff));
+    }
+}
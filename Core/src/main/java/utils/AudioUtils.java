@@ -46,16 +46,30 @@ public class AudioUtils {
      */
     public static short[] toShort(final byte[] bytes, final boolean bigEndian) {
         short[] shorts = new short[bytes.length / 2];
+        toShort(bytes, shorts, bigEndian);
+        return shorts;
+    }
+
+    /**
+     * Kopiert Daten aus einem Byte-Array in einen bereits vorhandenen Short-Array, ohne dabei ein neues Array zu
+     * erzeugen. Passen nicht alle Daten in den Short-Array, so werden nur die ersten Daten kopiert.
+     * @param bytes Byte-Array der zu kopierenden Daten.
+     * @param shorts Short-Array, in den die Daten kopiert werden.
+     * @param bigEndian Endianität der Daten.
+     * @return Anzahl der kopierten Shorts.
+     */
+    public static int toShort(final byte[] bytes, final short[] shorts, final boolean bigEndian) {
+        int length = Math.min(bytes.length / 2, shorts.length);
         if (bigEndian) {
-            for (int i = 0; i < shorts.length; i++) {
+            for (int i = 0; i < length; i++) {
                 shorts[i] = (short) ((bytes[2 * i] << 8) | (bytes[2 * i + 1] & 0xff));
             }
         } else {
-            for (int i = 0; i < shorts.length; i++) {
+            for (int i = 0; i < length; i++) {
                 shorts[i] = (short) ((bytes[2 * i] & 0xff) | (bytes[2 * i + 1] << 8));
             }
         }
-        return shorts;
+        return length;
     }
 
     /**
@@ -0,0 +1,230 @@
+package utils;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Ein Speicher, welcher Daten unter dem Hashwert ihres Inhalts in einem Verzeichnis ablegt.
+ * <p>
+ *     Gleiche Daten werden nur einmal gespeichert. Überschreitet die Größe aller gespeicherten Daten die Kapazität des
+ *     Speichers, so werden die am längsten nicht verwendeten Daten gelöscht. Die Reihenfolge der Verwendung bleibt über
+ *     das Änderungsdatum der Dateien auch nach einem Neustart erhalten.
+ * </p>
+ * @see ImageUtils#hash(byte[])
+ */
+public class ContentStore {
+
+    private static final Logger LOGGER = Logger.getLogger("chati.store");
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private final File directory;
+    private final long capacity;
+
+    /* Größe der gespeicherten Daten in der Reihenfolge ihrer letzten Verwendung. */
+    private final LinkedHashMap<String, Long> entries;
+    private long size;
+
+    /**
+     * Erzeugt eine neue Instanz des ContentStore und übernimmt die bereits im Verzeichnis gespeicherten Daten.
+     * @param directory Verzeichnis, in dem die Daten gespeichert werden.
+     * @param capacity Maximale Größe aller gespeicherten Daten in Bytes.
+     */
+    public ContentStore(@NotNull final File directory, final long capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+
+        this.directory = directory;
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            LOGGER.warning("Failed to create content directory " + directory);
+        }
+
+        final File[] files = directory.listFiles();
+
+        if (files != null) {
+            Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+
+            for (final File file : files) {
+                if (ImageUtils.isHash(file.getName())) {
+                    this.entries.put(file.getName(), file.length());
+                    this.size += file.length();
+                } else if (file.getName().endsWith(TEMPORARY_SUFFIX) && !file.delete()) {
+                    LOGGER.warning("Failed to delete incomplete content file " + file);
+                }
+            }
+        }
+
+        synchronized (this) {
+            this.evict(null);
+        }
+    }
+
+    /**
+     * Speichert Daten unter dem Hashwert ihres Inhalts, sofern sie noch nicht gespeichert sind.
+     * @param data Zu speichernde Daten.
+     * @return der Hashwert der Daten.
+     * @throws IOException falls die Daten nicht gespeichert werden konnten.
+     */
+    public @NotNull String put(final byte[] data) throws IOException {
+        final String hash = ImageUtils.hash(data);
+
+        synchronized (this) {
+            if (this.entries.get(hash) != null) {
+                this.touch(hash);
+                return hash;
+            }
+        }
+
+        // Die Daten werden zuerst vollständig geschrieben, sodass nie unvollständige Daten gelesen werden können.
+        final File temporary = File.createTempFile(hash, TEMPORARY_SUFFIX, this.directory);
+
+        try {
+            Files.write(temporary.toPath(), data);
+            Files.move(temporary.toPath(), this.getFile(hash).toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary.toPath());
+        }
+
+        synchronized (this) {
+            if (this.entries.put(hash, (long) data.length) == null) {
+                this.size += data.length;
+            }
+
+            this.evict(hash);
+        }
+
+        return hash;
+    }
+
+    /**
+     * Gibt zurück, ob Daten mit einem Hashwert gespeichert sind.
+     * @param hash Hashwert der Daten.
+     * @return true, wenn die Daten gespeichert sind, sonst false.
+     */
+    public synchronized boolean contains(@NotNull final String hash) {
+        return this.entries.containsKey(hash);
+    }
+
+    /**
+     * Gibt die Größe der Daten mit einem Hashwert zurück.
+     * @param hash Hashwert der Daten.
+     * @return die Größe der Daten in Bytes, oder -1, falls keine Daten mit dem Hashwert gespeichert sind.
+     */
+    public synchronized long getSize(@NotNull final String hash) {
+        final Long length = this.entries.get(hash);
+
+        return length != null ? length : -1;
+    }
+
+    /**
+     * Gibt die vollständigen Daten mit einem Hashwert zurück.
+     * @param hash Hashwert der Daten.
+     * @return die gespeicherten Daten, oder null, falls keine Daten mit dem Hashwert gespeichert sind.
+     * @throws IOException falls die Daten nicht gelesen werden konnten.
+     */
+    public @Nullable byte[] get(@NotNull final String hash) throws IOException {
+        final long length = this.getSize(hash);
+
+        return length >= 0 ? this.read(hash, 0, (int) length) : null;
+    }
+
+    /**
+     * Gibt einen Abschnitt der Daten mit einem Hashwert zurück.
+     * @param hash Hashwert der Daten.
+     * @param offset Position des Abschnitts innerhalb der Daten.
+     * @param length Maximale Länge des Abschnitts.
+     * @return der Abschnitt der Daten, welcher am Ende der Daten kürzer sein kann, oder null, falls keine Daten mit
+     * dem Hashwert gespeichert sind.
+     * @throws IOException falls die Daten nicht gelesen werden konnten.
+     */
+    public @Nullable byte[] read(@NotNull final String hash, final long offset, final int length) throws IOException {
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("Offset and length must not be negative");
+        }
+
+        synchronized (this) {
+            if (this.entries.get(hash) == null) {
+                return null;
+            }
+
+            if (offset == 0) {
+                this.touch(hash);
+            }
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(this.getFile(hash), "r")) {
+            final byte[] data = new byte[(int) Math.max(0, Math.min(length, file.length() - offset))];
+
+            file.seek(offset);
+            file.readFully(data);
+            return data;
+        } catch (FileNotFoundException ex) {
+            // Die Daten wurden zwischenzeitlich verdrängt.
+            return null;
+        }
+    }
+
+    /**
+     * Gibt die Größe aller gespeicherten Daten zurück.
+     * @return die Größe aller gespeicherten Daten in Bytes.
+     */
+    public synchronized long size() {
+        return this.size;
+    }
+
+    @Override
+    public synchronized @NotNull String toString() {
+        return "{directory=" + this.directory + ", entries=" + this.entries.size() + ", size=" + this.size / 1024
+                + "KB, capacity=" + this.capacity / 1024 + "KB}";
+    }
+
+    private @NotNull File getFile(@NotNull final String hash) {
+        return new File(this.directory, hash);
+    }
+
+    private void touch(@NotNull final String hash) {
+        if (!this.getFile(hash).setLastModified(System.currentTimeMillis())) {
+            LOGGER.fine("Failed to update last use of content " + hash);
+        }
+    }
+
+    /**
+     * Löscht die am längsten nicht verwendeten Daten, bis die Kapazität des Speichers eingehalten wird.
+     * @param keep Hashwert der Daten, die nicht gelöscht werden dürfen, oder null.
+     */
+    private void evict(@Nullable final String keep) {
+        final Iterator<Map.Entry<String, Long>> iterator = this.entries.entrySet().iterator();
+
+        while (this.size > this.capacity && iterator.hasNext()) {
+            final Map.Entry<String, Long> entry = iterator.next();
+
+            if (entry.getKey().equals(keep)) {
+                continue;
+            }
+
+            if (!this.getFile(entry.getKey()).delete()) {
+                LOGGER.warning("Failed to delete content file " + entry.getKey());
+            }
+
+            this.size -= entry.getValue();
+            iterator.remove();
+        }
+    }
+}
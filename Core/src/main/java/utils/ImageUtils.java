@@ -0,0 +1,99 @@
+package utils;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.regex.Pattern;
+
+/**
+ * Eine Klasse, welche Hilfsmethoden für Bildanhänge von Chat-Nachrichten zur Verfügung stellt.
+ * <p>
+ *     Bildanhänge werden über den Hashwert ihrer Daten identifiziert, sodass gleiche Bilder nur einmal gespeichert und
+ *     übertragen werden müssen.
+ * </p>
+ */
+public class ImageUtils {
+
+    /** Maximale Größe eines Bildanhangs in Bytes. */
+    public static final int MAX_IMAGE_SIZE = 1 << 18;
+
+    /** Größe der Abschnitte, in denen Bildanhänge übertragen werden, in Bytes. */
+    public static final int CHUNK_SIZE = 1 << 15;
+
+    /** Maximale Kantenlänge der Vorschaubilder in Bildpunkten. */
+    public static final int THUMBNAIL_SIZE = 180;
+
+    private static final float THUMBNAIL_QUALITY = 0.75f;
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private ImageUtils() {
+    }
+
+    /**
+     * Berechnet den Hashwert, über den ein Bildanhang identifiziert wird.
+     * @param data Daten des Bildanhangs.
+     * @return SHA-256 Hashwert der Daten in hexadezimaler Darstellung.
+     */
+    public static @NotNull String hash(final byte[] data) {
+        final byte[] digest;
+
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException ex) {
+            // Jede Java-Plattform muss SHA-256 unterstützen.
+            throw new IllegalStateException("SHA-256 is not supported", ex);
+        }
+
+        final byte[] hex = new byte[2 * digest.length];
+        for (int i = 0; i < digest.length; i++) {
+            hex[2 * i] = HEX[(digest[i] >> 4) & 0xF];
+            hex[2 * i + 1] = HEX[digest[i] & 0xF];
+        }
+        return new String(hex, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Überprüft, ob eine Zeichenkette ein gültiger Hashwert eines Bildanhangs ist.
+     * @param hash Zu überprüfende Zeichenkette.
+     * @return true, wenn die Zeichenkette ein gültiger Hashwert ist, sonst false.
+     */
+    public static boolean isHash(@Nullable final String hash) {
+        return hash != null && HASH_PATTERN.matcher(hash).matches();
+    }
+
+    /**
+     * Erzeugt ein verkleinertes Vorschaubild eines Bildanhangs.
+     * @param imageData Daten des Bildanhangs.
+     * @return Daten des Vorschaubilds, oder ein leeres Array, falls die Daten kein lesbares Bild enthalten.
+     */
+    public static byte[] createThumbnail(final byte[] imageData) {
+        final BufferedImage image = VideoUtils.read(imageData);
+
+        if (image == null || image.getWidth() <= 0 || image.getHeight() <= 0) {
+            return new byte[0];
+        }
+
+        final float ratio = Math.min(1, (float) THUMBNAIL_SIZE / Math.max(image.getWidth(), image.getHeight()));
+        final int width = Math.max(1, Math.round(ratio * image.getWidth()));
+        final int height = Math.max(1, Math.round(ratio * image.getHeight()));
+
+        // Transparente Bereiche werden vor einem weißen Hintergrund dargestellt.
+        final BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+        final Graphics2D graphics = thumbnail.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, width, height);
+        graphics.drawImage(image, 0, 0, width, height, null);
+        graphics.dispose();
+
+        return VideoUtils.compress(thumbnail, THUMBNAIL_QUALITY);
+    }
+}
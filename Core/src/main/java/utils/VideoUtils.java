@@ -19,27 +19,22 @@ import java.util.Iterator;
 
 public class VideoUtils {
 
+    /** Kantenlänge der Kacheln, in die Bildschirmaufnahmen zerlegt werden, in Bildpunkten. */
+    public static final int TILE_SIZE = 32;
+
     private VideoUtils() {
     }
 
     /**
-     * Komprimiert ein gegebenes Bild mit einer gewünschten Qualität, bis eine maximale Größe unterschritten wurde.
+     * Komprimiert ein gegebenes Bild einmalig mit einer vorgegebenen Qualität.
      * @param image Zu komprimierendes Bild.
      * @param compressionQuality Komprimierungsqualität.
-     * @param maxSize Maximale Größe.
      * @return Komprimiertes Bild.
      */
-    public static byte[] compress(@NotNull final BufferedImage image, final float compressionQuality, final int maxSize) {
+    public static byte[] compress(@NotNull final BufferedImage image, final float compressionQuality) {
         ByteArrayOutputStream out = new ByteArrayOutputStream();
-        byte[] outData;
-        float quality = compressionQuality;
-        do {
-            write(out, image, quality);
-            outData = out.toByteArray();
-            out.reset();
-            quality -= 0.1f;
-        } while (outData.length > maxSize && quality > 0);
-        return outData;
+        write(out, image, compressionQuality);
+        return out.toByteArray();
     }
 
     /**
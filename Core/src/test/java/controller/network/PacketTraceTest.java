@@ -0,0 +1,232 @@
+package controller.network;
+
+import controller.network.protocol.PacketAudioMessage;
+import controller.network.protocol.PacketUserTyping;
+import org.jetbrains.annotations.NotNull;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import util.Benchmark;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+
+public class PacketTraceTest extends RandomTest {
+
+    private static final int CAPACITY = 16;
+
+    private Logger logger;
+    private RecordingHandler handler;
+    private PacketTrace trace;
+
+    @Before
+    public void setup() {
+        this.logger = Logger.getLogger("chati.network.test");
+        this.logger.setUseParentHandlers(false);
+        this.logger.setLevel(Level.INFO);
+        this.handler = new RecordingHandler();
+        this.logger.addHandler(this.handler);
+        this.trace = new PacketTrace(this.logger, CAPACITY);
+    }
+
+    @After
+    public void teardown() {
+        this.logger.removeHandler(this.handler);
+    }
+
+    @Test
+    public void disabledTest() throws IOException {
+        final CountingPacket packet = new CountingPacket();
+
+        for (int i = 0; i < 100; i++) {
+            this.trace.sent(packet, 1);
+            this.trace.received(packet, 1);
+        }
+
+        Assert.assertEquals(0, packet.rendered);
+        Assert.assertEquals(0, this.trace.size());
+        Assert.assertEquals(0, this.trace.dump(new StringWriter()));
+        Assert.assertTrue(this.handler.records.isEmpty());
+    }
+
+    @Test
+    public void deferredFormatTest() {
+        final CountingPacket packet = new CountingPacket();
+
+        // Auch wenn der Logger freigegeben ist, wird das Paket nur von einem ausgebenden Handler dargestellt.
+        this.logger.setLevel(Level.ALL);
+        this.handler.setLevel(Level.OFF);
+        this.trace.sent(packet, 3);
+        Assert.assertEquals(0, packet.rendered);
+
+        this.handler.setLevel(Level.ALL);
+        this.trace.sent(packet, 3);
+        Assert.assertEquals(1, packet.rendered);
+        Assert.assertEquals(1, this.handler.records.size());
+        Assert.assertEquals(Level.FINER, this.handler.records.get(0).getLevel());
+        Assert.assertEquals("Sent packet on connection 3: " + CountingPacket.TEXT,
+                new SimpleFormatter().formatMessage(this.handler.records.get(0)));
+
+        this.trace.received(new PacketUserTyping(randomUniqueId()), 4);
+        Assert.assertEquals(Level.FINE, this.handler.records.get(1).getLevel());
+    }
+
+    @Test
+    public void recordTest() throws IOException {
+        this.trace.start();
+        this.trace.sent(new CountingPacket(), 1);
+        this.trace.received(new PacketUserTyping(randomUniqueId()), 2);
+        this.trace.stop();
+        this.trace.sent(new CountingPacket(), 3);
+
+        final String[] lines = dump(2);
+        Assert.assertTrue(lines[0].endsWith(" sent 1 CountingPacket"));
+        Assert.assertTrue(lines[1].endsWith(" recv 2 PacketUserTyping"));
+        Assert.assertFalse(this.trace.isRecording());
+    }
+
+    @Test
+    public void ringBufferTest() throws IOException {
+        this.trace.start();
+
+        for (int i = 0; i < 3 * CAPACITY + 5; i++) {
+            this.trace.sent(new CountingPacket(), i);
+        }
+
+        // Es bleiben nur die zuletzt aufgezeichneten Pakete in zeitlicher Reihenfolge erhalten.
+        Assert.assertEquals(CAPACITY, this.trace.size());
+        final String[] lines = dump(CAPACITY);
+        for (int i = 0; i < CAPACITY; i++) {
+            Assert.assertTrue(lines[i].endsWith(" sent " + (2 * CAPACITY + 5 + i) + " CountingPacket"));
+        }
+    }
+
+    @Test
+    public void samplingTest() throws IOException {
+        this.trace.setSampling(CountingPacket.class, 5);
+        this.trace.start();
+
+        for (int i = 0; i < 10; i++) {
+            this.trace.sent(new CountingPacket(), i);
+            this.trace.received(new PacketUserTyping(randomUniqueId()), i);
+        }
+
+        // Nur jedes fünfte Paket des Typs wird verfolgt, alle anderen Typen vollständig.
+        Assert.assertEquals(5, this.trace.getSampling(CountingPacket.class));
+        Assert.assertEquals(1, this.trace.getSampling(PacketUserTyping.class));
+        Assert.assertEquals(12, dump(12).length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalSamplingTest() {
+        this.trace.setSampling(CountingPacket.class, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalCapacityTest() {
+        new PacketTrace(this.logger, 100);
+    }
+
+    @Test
+    @Category(Benchmark.class)
+    public void overheadTest() {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        final Logger logger = Logger.getLogger("chati.network.test.overhead");
+        final PacketAudioMessage packet = new PacketAudioMessage(randomBytes(1024));
+        final int packets = 20000;
+
+        logger.setLevel(Level.INFO);
+
+        long eager = 0;
+        long traced = 0;
+        for (int round = 0; round < 3; round++) {
+            // Bisher wurde jedes Paket mitsamt seiner Daten als Text formatiert, bevor der Log-Eintrag verworfen wurde.
+            long start = bean.getCurrentThreadCpuTime();
+            for (int i = 0; i < packets; i++) {
+                logger.log(Level.FINER, String.format("Sent packet to connection %s: %s", i,
+                        packet + Arrays.toString(packet.getAudioData())));
+            }
+            eager = bean.getCurrentThreadCpuTime() - start;
+
+            start = bean.getCurrentThreadCpuTime();
+            for (int i = 0; i < packets; i++) {
+                this.trace.sent(packet, i);
+            }
+            traced = bean.getCurrentThreadCpuTime() - start;
+        }
+
+        System.out.printf("Packet logging with disabled level: eager formatting %.1f us per packet, "
+                + "packet trace %.3f us per packet%n", eager / 1e3 / packets, traced / 1e3 / packets);
+
+        Assert.assertTrue(traced * 10 < eager);
+    }
+
+    private @NotNull String[] dump(final int expected) throws IOException {
+        final StringWriter writer = new StringWriter();
+
+        Assert.assertEquals(expected, this.trace.dump(writer));
+
+        final String[] lines = writer.toString().split(System.lineSeparator());
+        Assert.assertEquals(expected, lines.length);
+        return lines;
+    }
+
+    private static byte[] randomBytes(final int length) {
+        final byte[] bytes = new byte[length];
+        new Random().nextBytes(bytes);
+        return bytes;
+    }
+
+    private static class CountingPacket extends PacketAudioMessage {
+
+        private static final String TEXT = "CountingPacket{}";
+
+        private int rendered;
+
+        public CountingPacket() {
+            super(new byte[0]);
+        }
+
+        @Override
+        public @NotNull String toString() {
+            this.rendered++;
+            return TEXT;
+        }
+    }
+
+    private static class RecordingHandler extends Handler {
+
+        private final List<LogRecord> records = new ArrayList<>();
+
+        @Override
+        public void publish(final LogRecord record) {
+            if (this.isLoggable(record)) {
+                // Wie ein ausgebender Handler wird die Nachricht erst hier formatiert.
+                new SimpleFormatter().formatMessage(record);
+                this.records.add(record);
+            }
+        }
+
+        @Override
+        public void flush() {
+
+        }
+
+        @Override
+        public void close() {
+
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package controller.network.protocol;
+
+import controller.network.RandomTest;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import utils.AudioCodec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ChunkReceiverTest extends RandomTest {
+
+    private static final int MAX_SIZE = 4 * ChunkSender.MAX_INLINE_SIZE;
+
+    private ChunkSenderTest.TestCodec codec;
+    private List<Packet<?>> credits;
+    private ChunkReceiver receiver;
+
+    @Before
+    public void setUp() {
+        this.codec = new ChunkSenderTest.TestCodec();
+        this.credits = new ArrayList<>();
+        this.receiver = new ChunkReceiver(this.codec, MAX_SIZE, this.credits::add);
+    }
+
+    @Test
+    public void transferTest() {
+        final byte[] data = this.codec.encode(ChunkSenderTest.contextList(8000));
+        final ChunkReceiver receiver = new ChunkReceiver(this.codec, data.length, this.credits::add);
+        Packet<?> completed = null;
+
+        for (int offset = 0; offset < data.length; offset += ChunkSender.CHUNK_SIZE) {
+            Assert.assertNull(completed);
+            completed = receiver.receive(new PacketChunk(0, offset, data.length,
+                    Arrays.copyOfRange(data, offset, Math.min(data.length, offset + ChunkSender.CHUNK_SIZE))));
+        }
+
+        Assert.assertTrue(completed instanceof PacketOutContextList);
+        Assert.assertEquals(8000, ((PacketOutContextList) completed).getInfos().length);
+
+        // Nach jedem Viertel des anfänglichen Guthabens wird dem Sender weiteres Guthaben gewährt.
+        Assert.assertEquals(data.length / (ChunkSender.INITIAL_CREDIT / 4), this.credits.size());
+        Assert.assertEquals(ChunkSender.INITIAL_CREDIT / 4, ((PacketChunkCredit) this.credits.get(0)).getCredit());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownTransferTest() {
+        this.receiver.receive(chunk(0, ChunkSender.CHUNK_SIZE, MAX_SIZE, ChunkSender.CHUNK_SIZE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalOffsetTest() {
+        this.receiver.receive(chunk(0, 0, MAX_SIZE, ChunkSender.CHUNK_SIZE));
+        this.receiver.receive(chunk(0, 2 * ChunkSender.CHUNK_SIZE, MAX_SIZE, ChunkSender.CHUNK_SIZE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalSizeTest() {
+        this.receiver.receive(chunk(0, 0, MAX_SIZE + 1, ChunkSender.CHUNK_SIZE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void concurrentTransfersTest() {
+        for (int transfer = 0; transfer <= ChunkSender.Priority.values().length; transfer++) {
+            this.receiver.receive(chunk(transfer, 0, MAX_SIZE, ChunkSender.CHUNK_SIZE));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void exceededCreditTest() {
+        final int size = 2 * ChunkSender.INITIAL_CREDIT;
+
+        new ChunkReceiver(this.codec, size, this.credits::add)
+                .receive(chunk(0, 0, size, ChunkSender.INITIAL_CREDIT + 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nestedChunkTest() {
+        final byte[] data = this.codec.encode(new PacketChunk(0, 0, MAX_SIZE, new byte[ChunkSender.MAX_INLINE_SIZE]));
+
+        this.receiver.receive(new PacketChunk(0, 0, data.length, data));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidDataTest() {
+        final byte[] data = new byte[ChunkSender.MAX_INLINE_SIZE + 1];
+        Arrays.fill(data, (byte) -1);
+
+        this.receiver.receive(new PacketChunk(0, 0, data.length, data));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void inlineSizeTest() {
+        final byte[] data = this.codec.encode(new PacketAudioCodec(AudioCodec.values()));
+
+        // Kleine Pakete werden nie in Abschnitten übertragen.
+        this.receiver.receive(new PacketChunk(0, 0, data.length, data));
+    }
+
+    private PacketChunk chunk(final int transfer, final int offset, final int size, final int length) {
+        return new PacketChunk(transfer, offset, size, new byte[length]);
+    }
+}
@@ -0,0 +1,218 @@
+package controller.network.protocol;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import controller.network.RandomTest;
+import controller.network.protocol.ChunkSender.Priority;
+import controller.network.protocol.PacketOutContextList.ContextInfo;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import utils.AudioCodec;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ChunkSenderTest extends RandomTest {
+
+    private TestCodec codec;
+    private List<Object> written;
+    private List<Packet<?>> credits;
+    private boolean writable;
+    private ChunkSender sender;
+    private ChunkReceiver receiver;
+
+    @Before
+    public void setUp() {
+        this.codec = new TestCodec();
+        this.written = new ArrayList<>();
+        this.credits = new ArrayList<>();
+        this.writable = true;
+        this.sender = new ChunkSender(this.codec, this.written::add, () -> this.writable);
+        this.receiver = new ChunkReceiver(this.codec, 1 << 22, this.credits::add);
+    }
+
+    @Test
+    public void inlineTest() {
+        final PacketAudioCodec small = new PacketAudioCodec(AudioCodec.values());
+        final PacketOutContextList list = contextList(10);
+
+        this.sender.send(small, Priority.HIGH);
+        this.sender.send(list, Priority.LOW);
+
+        // Kleine Pakete werden unverändert geschrieben.
+        Assert.assertEquals(2, this.written.size());
+        Assert.assertSame(small, this.written.get(0));
+        Assert.assertSame(list, this.written.get(1));
+        Assert.assertEquals(0, this.sender.getPending());
+    }
+
+    @Test
+    public void transferTest() {
+        final PacketOutContextList list = contextList(20000);
+        final int size = this.codec.encode(list).length;
+        Assert.assertTrue(size > ChunkSender.INITIAL_CREDIT);
+
+        this.sender.send(list, Priority.HIGH);
+
+        final Packet<?> completed = this.exchange();
+        Assert.assertTrue(completed instanceof PacketOutContextList);
+
+        final ContextInfo[] expected = list.getInfos();
+        final ContextInfo[] actual = ((PacketOutContextList) completed).getInfos();
+        Assert.assertEquals(expected.length, actual.length);
+
+        for (int index = 0; index < expected.length; index++) {
+            Assert.assertEquals(expected[index].getContextId(), actual[index].getContextId());
+            Assert.assertEquals(expected[index].getName(), actual[index].getName());
+        }
+
+        Assert.assertEquals(0, this.sender.getPending());
+    }
+
+    @Test
+    public void creditTest() {
+        final PacketAudioCodec small = new PacketAudioCodec(AudioCodec.values());
+
+        this.sender.send(contextList(20000), Priority.HIGH);
+        this.sender.send(small, Priority.HIGH);
+
+        // Ohne gewährtes Guthaben wird höchstens das anfängliche Guthaben in Abschnitten versendet und nachfolgende
+        // Pakete der gleichen Priorität warten auf die Übertragung.
+        Assert.assertEquals(ChunkSender.INITIAL_CREDIT, this.written.stream()
+                .mapToInt(object -> ((PacketChunk) object).getData().length).sum());
+        Assert.assertEquals(2, this.sender.getPending());
+
+        this.exchange();
+        Assert.assertSame(small, this.written.get(this.written.size() - 1));
+        Assert.assertEquals(0, this.sender.getPending());
+    }
+
+    @Test
+    public void priorityTest() {
+        final PacketAudioCodec high = new PacketAudioCodec(AudioCodec.values());
+        final PacketOutContextList low = contextList(10);
+
+        // Pakete niedriger Priorität und Abschnitte warten, bis die Verbindung wieder schreibbar ist.
+        this.writable = false;
+        this.sender.send(low, Priority.LOW);
+        this.sender.send(contextList(20000), Priority.HIGH);
+        this.sender.send(high, Priority.HIGH);
+        Assert.assertTrue(this.written.isEmpty());
+
+        this.writable = true;
+        this.sender.flush();
+        this.exchange();
+
+        final int index = this.written.indexOf(low);
+        Assert.assertTrue(index >= 0);
+        Assert.assertTrue(this.written.subList(0, index).stream().allMatch(PacketChunk.class::isInstance));
+        Assert.assertSame(high, this.written.get(this.written.size() - 1));
+    }
+
+    @Test
+    public void realtimeTest() {
+        final PacketAudioCodec high = new PacketAudioCodec(AudioCodec.values());
+        final PacketAudioCodec realtime = new PacketAudioCodec(AudioCodec.values());
+
+        this.sender.send(contextList(20000), Priority.HIGH);
+        this.sender.send(high, Priority.HIGH);
+        this.writable = false;
+        this.sender.send(realtime, Priority.REALTIME);
+
+        // Pakete der höchsten Priorität überholen die auf Guthaben wartende Übertragung und die ihr folgenden Pakete.
+        Assert.assertSame(realtime, this.written.get(this.written.size() - 1));
+        Assert.assertFalse(this.written.contains(high));
+        Assert.assertEquals(2, this.sender.getPending());
+
+        this.writable = true;
+        this.exchange();
+        Assert.assertSame(high, this.written.get(this.written.size() - 1));
+    }
+
+    @Test
+    public void completedTest() {
+        final List<Object> completed = new ArrayList<>();
+        final PacketOutContextList large = contextList(20000);
+        final PacketAudioCodec small = new PacketAudioCodec(AudioCodec.values());
+
+        this.sender = new ChunkSender(this.codec, this.written::add, () -> this.writable, completed::add);
+        this.sender.send(large, Priority.HIGH);
+        this.sender.send(small, Priority.REALTIME);
+
+        // Große Pakete gelten erst nach ihrem letzten Abschnitt als vollständig geschrieben.
+        Assert.assertEquals(List.of(small), completed);
+
+        this.exchange();
+        Assert.assertEquals(List.of(small, large), completed);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalCreditTest() {
+        this.sender.credit(1);
+    }
+
+    /**
+     * Überträgt alle geschriebenen Abschnitte an den Empfänger und dessen Guthaben zurück an den Sender, bis keine
+     * weiteren Abschnitte mehr versendet werden.
+     * @return das zuletzt zusammengesetzte Paket.
+     */
+    private Packet<?> exchange() {
+        Packet<?> completed = null;
+        int position = 0;
+
+        while (position < this.written.size()) {
+            for (; position < this.written.size(); position++) {
+                final Object object = this.written.get(position);
+
+                if (object instanceof PacketChunk) {
+                    final Packet<?> packet = this.receiver.receive((PacketChunk) object);
+                    completed = packet != null ? packet : completed;
+                }
+            }
+
+            final List<Packet<?>> granted = new ArrayList<>(this.credits);
+            this.credits.clear();
+            granted.forEach(credit -> this.sender.credit(((PacketChunkCredit) credit).getCredit()));
+        }
+
+        return completed;
+    }
+
+    static @NotNull PacketOutContextList contextList(final int size) {
+        final List<ContextInfo> infos = new ArrayList<>();
+
+        for (int index = 0; index < size; index++) {
+            infos.add(new ContextInfo(randomContextId(), randomString(), randomBoolean()));
+        }
+
+        return new PacketOutContextList(null, infos);
+    }
+
+    static class TestCodec implements PacketCodec {
+
+        private final Kryo kryo;
+
+        public TestCodec() {
+            this.kryo = new Kryo();
+            this.kryo.register(PacketAudioCodec.class);
+            this.kryo.register(PacketOutContextList.class);
+            this.kryo.register(PacketChunk.class);
+            this.kryo.register(PacketChunkCredit.class);
+        }
+
+        @Override
+        public byte[] encode(@NotNull final Packet<?> packet) {
+            final Output output = new Output(1024, -1);
+
+            this.kryo.writeClassAndObject(output, packet);
+            return output.toBytes();
+        }
+
+        @Override
+        public @NotNull Object decode(final byte[] data) {
+            return this.kryo.readClassAndObject(new Input(data));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package controller.network.protocol;
+
+import controller.network.protocol.mock.MockPacketListener;
+import org.junit.Assert;
+import org.junit.Test;
+import utils.AudioCodec;
+
+public class PacketAudioCodecTest extends PacketTest<PacketAudioCodec> {
+
+    public PacketAudioCodecTest() {
+        super(PacketAudioCodec.class);
+    }
+
+    @Test
+    public void callListenerTest() {
+        final MockPacketListener listener = new MockPacketListener();
+
+        this.before = new PacketAudioCodec(AudioCodec.values());
+        this.before.call(listener);
+
+        Assert.assertTrue(listener.handled(PacketAudioCodec.class));
+    }
+
+    @Test
+    public void clientSerializationTest() {
+        this.before = new PacketAudioCodec(AudioCodec.values());
+
+        this.serialize();
+        this.equals();
+    }
+
+    @Test
+    public void serverSerializationTest() {
+        this.before = new PacketAudioCodec(randomEnum(AudioCodec.class));
+
+        this.serialize();
+        this.equals();
+        Assert.assertEquals(1, this.after.getCodecs().length);
+    }
+
+    @Override
+    public void equals() {
+        // Vergleiche Verfahren
+        Assert.assertArrayEquals(this.before.getCodecs(), this.after.getCodecs());
+    }
+}
@@ -4,6 +4,7 @@ import controller.network.protocol.mock.MockPacketListener;
 import org.junit.Assert;
 import org.junit.Test;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 public class PacketAudioMessageTest extends PacketTest<PacketAudioMessage> {
 
@@ -29,9 +30,18 @@ public class PacketAudioMessageTest extends PacketTest<PacketAudioMessage> {
         this.equals();
     }
 
+    @Test
+    public void clientSilenceSerializationTest() {
+        this.before = new PacketAudioMessage(new byte[0], true);
+
+        this.serialize();
+        this.equals();
+        Assert.assertTrue(this.after.isSilence());
+    }
+
     @Test
     public void serverAudioSerializationTest() {
-        this.before = new PacketAudioMessage(LocalDateTime.now(), randomBytes(), randomFloat(), randomInt());
+        this.before = new PacketAudioMessage(LocalDateTime.now(), randomInt(), randomBytes(), randomFloat(), randomInt());
 
         this.serialize();
         this.equals();
@@ -39,12 +49,21 @@ public class PacketAudioMessageTest extends PacketTest<PacketAudioMessage> {
 
     @Test
     public void serverVoiceSerializationTest() {
-        this.before = new PacketAudioMessage(randomUniqueId(), LocalDateTime.now(), randomBytes());
+        this.before = new PacketAudioMessage(randomUniqueId(), LocalDateTime.now(), randomInt(), randomBytes());
 
         this.serialize();
         this.equals();
     }
 
+    @Test
+    public void serverMixedSerializationTest() {
+        this.before = new PacketAudioMessage(LocalDateTime.now(), randomInt(), randomBytes(), new UUID[]{randomUniqueId(), randomUniqueId()});
+
+        this.serialize();
+        this.equals();
+        Assert.assertTrue(this.after.isMixed());
+    }
+
     @Override
     public void equals() {
         // Vergleiche Sender
@@ -64,8 +83,14 @@ public class PacketAudioMessageTest extends PacketTest<PacketAudioMessage> {
         }
 
         // Vergleiche Sprachdaten
+        Assert.assertEquals(this.before.getSequence(), this.after.getSequence());
+        Assert.assertEquals(this.before.isSilence(), this.after.isSilence());
         Assert.assertArrayEquals(this.before.getAudioData(), this.after.getAudioData());
         Assert.assertEquals(this.before.getPosition(), this.after.getPosition(), 0.0f);
         Assert.assertEquals(this.before.getSeconds(), this.after.getSeconds());
+
+        // Vergleiche Sprecher
+        Assert.assertEquals(this.before.isMixed(), this.after.isMixed());
+        Assert.assertArrayEquals(this.before.getSpeakers(), this.after.getSpeakers());
     }
 }
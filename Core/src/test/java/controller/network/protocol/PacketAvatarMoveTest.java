@@ -30,6 +30,14 @@ public class PacketAvatarMoveTest extends PacketTest<PacketAvatarMove> {
         this.equals();
     }
 
+    @Test
+    public void hideSerializationTest() {
+        this.before = new PacketAvatarMove(AvatarAction.HIDE_AVATAR, randomUniqueId());
+
+        this.serialize();
+        this.equals();
+    }
+
     @Test
     public void serverSerializationTest() {
         this.before = new PacketAvatarMove(randomEnum(AvatarAction.class), randomUniqueId(), randomEnum(Direction.class),
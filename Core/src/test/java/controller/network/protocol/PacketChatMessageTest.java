@@ -4,6 +4,7 @@ import controller.network.protocol.mock.MockPacketListener;
 import model.communication.message.MessageType;
 import org.junit.Assert;
 import org.junit.Test;
+import utils.ImageUtils;
 import java.time.LocalDateTime;
 
 public class PacketChatMessageTest extends PacketTest<PacketChatMessage> {
@@ -24,7 +25,8 @@ public class PacketChatMessageTest extends PacketTest<PacketChatMessage> {
 
     @Test(expected = IllegalArgumentException.class)
     public void illegalCreationTest() {
-        new PacketChatMessage(MessageType.INFO, randomUniqueId(), randomString(), LocalDateTime.now(), randomString(), randomBytes());
+        new PacketChatMessage(MessageType.INFO, randomUniqueId(), randomString(), LocalDateTime.now(), randomString(),
+                ImageUtils.hash(randomBytes()), randomBytes());
     }
 
     @Test
@@ -35,6 +37,14 @@ public class PacketChatMessageTest extends PacketTest<PacketChatMessage> {
         this.equals();
     }
 
+    @Test
+    public void imageUploadSerializationTest() {
+        this.before = new PacketChatMessage(randomString(), randomString(), randomBytes());
+
+        this.serialize();
+        this.equals();
+    }
+
     @Test
     public void infoSerializationTest() {
         this.before = new PacketChatMessage(randomBundle(), LocalDateTime.now());
@@ -46,7 +56,7 @@ public class PacketChatMessageTest extends PacketTest<PacketChatMessage> {
     @Test
     public void messageSerializationTest() {
         this.before = new PacketChatMessage(randomEnum(MessageType.class, MessageType.INFO), randomUniqueId(),
-                randomString(),  LocalDateTime.now(), randomString(), randomBytes());
+                randomString(),  LocalDateTime.now(), randomString(), ImageUtils.hash(randomBytes()), randomBytes());
 
         this.serialize();
         this.equals();
@@ -104,5 +114,9 @@ public class PacketChatMessageTest extends PacketTest<PacketChatMessage> {
 
         Assert.assertEquals(this.before.getImageData().length, this.after.getImageData().length);
         Assert.assertArrayEquals(this.before.getImageData(), this.after.getImageData());
+
+        // Vergleiche Hashwert und Vorschaubild
+        Assert.assertEquals(this.before.getImageHash(), this.after.getImageHash());
+        Assert.assertArrayEquals(this.before.getThumbnail(), this.after.getThumbnail());
     }
 }
@@ -0,0 +1,35 @@
+package controller.network.protocol;
+
+import controller.network.protocol.mock.MockPacketListener;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PacketChunkCreditTest extends PacketTest<PacketChunkCredit> {
+
+    public PacketChunkCreditTest() {
+        super(PacketChunkCredit.class);
+    }
+
+    @Test
+    public void callListenerTest() {
+        final MockPacketListener listener = new MockPacketListener();
+
+        this.before = new PacketChunkCredit(ChunkSender.CHUNK_SIZE);
+        this.before.call(listener);
+
+        Assert.assertTrue(listener.handled(PacketChunkCredit.class));
+    }
+
+    @Test
+    public void serializationTest() {
+        this.before = new PacketChunkCredit(randomInt(ChunkSender.INITIAL_CREDIT) + 1);
+
+        this.serialize();
+        this.equals();
+    }
+
+    @Override
+    public void equals() {
+        Assert.assertEquals(this.before.getCredit(), this.after.getCredit());
+    }
+}
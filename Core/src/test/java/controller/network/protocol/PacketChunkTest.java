@@ -0,0 +1,39 @@
+package controller.network.protocol;
+
+import controller.network.protocol.mock.MockPacketListener;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PacketChunkTest extends PacketTest<PacketChunk> {
+
+    public PacketChunkTest() {
+        super(PacketChunk.class);
+    }
+
+    @Test
+    public void callListenerTest() {
+        final MockPacketListener listener = new MockPacketListener();
+
+        this.before = new PacketChunk(randomInt(), 0, ChunkSender.MAX_INLINE_SIZE + 1, randomBytes());
+        this.before.call(listener);
+
+        Assert.assertTrue(listener.handled(PacketChunk.class));
+    }
+
+    @Test
+    public void serializationTest() {
+        this.before = new PacketChunk(randomInt(Integer.MAX_VALUE), randomInt(ChunkSender.INITIAL_CREDIT),
+                ChunkSender.INITIAL_CREDIT, randomBytes());
+
+        this.serialize();
+        this.equals();
+    }
+
+    @Override
+    public void equals() {
+        Assert.assertEquals(this.before.getTransfer(), this.after.getTransfer());
+        Assert.assertEquals(this.before.getOffset(), this.after.getOffset());
+        Assert.assertEquals(this.before.getSize(), this.after.getSize());
+        Assert.assertArrayEquals(this.before.getData(), this.after.getData());
+    }
+}
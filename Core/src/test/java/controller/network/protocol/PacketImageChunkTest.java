@@ -0,0 +1,57 @@
+package controller.network.protocol;
+
+import controller.network.protocol.mock.MockPacketListener;
+import org.junit.Assert;
+import org.junit.Test;
+import utils.ImageUtils;
+
+public class PacketImageChunkTest extends PacketTest<PacketImageChunk> {
+
+    public PacketImageChunkTest() {
+        super(PacketImageChunk.class);
+    }
+
+    @Test
+    public void callListenerTest() {
+        final MockPacketListener listener = new MockPacketListener();
+
+        this.before = new PacketImageChunk(ImageUtils.hash(randomBytes()), 0);
+        this.before.call(listener);
+
+        Assert.assertTrue(listener.handled(PacketImageChunk.class));
+    }
+
+    @Test
+    public void requestSerializationTest() {
+        this.before = new PacketImageChunk(ImageUtils.hash(randomBytes()), randomInt(ImageUtils.MAX_IMAGE_SIZE));
+
+        this.serialize();
+        this.equals();
+        Assert.assertEquals(-1, this.after.getSize());
+    }
+
+    @Test
+    public void chunkSerializationTest() {
+        final byte[] data = randomBytes();
+        this.before = new PacketImageChunk(ImageUtils.hash(data), 0, data.length, data);
+
+        this.serialize();
+        this.equals();
+    }
+
+    @Test
+    public void notFoundSerializationTest() {
+        this.before = new PacketImageChunk(ImageUtils.hash(randomBytes()), 0, -1, new byte[0]);
+
+        this.serialize();
+        this.equals();
+    }
+
+    @Override
+    public void equals() {
+        Assert.assertEquals(this.before.getHash(), this.after.getHash());
+        Assert.assertEquals(this.before.getOffset(), this.after.getOffset());
+        Assert.assertEquals(this.before.getSize(), this.after.getSize());
+        Assert.assertArrayEquals(this.before.getData(), this.after.getData());
+    }
+}
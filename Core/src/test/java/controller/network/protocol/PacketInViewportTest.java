@@ -0,0 +1,37 @@
+package controller.network.protocol;
+
+import controller.network.protocol.mock.MockPacketListenerIn;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PacketInViewportTest extends PacketTest<PacketInViewport> {
+
+    public PacketInViewportTest() {
+        super(PacketInViewport.class);
+    }
+
+    @Test
+    public void callListenerTest() {
+        final MockPacketListenerIn listener = new MockPacketListenerIn();
+
+        this.before = new PacketInViewport(randomFloat(), randomFloat());
+        this.before.call(listener);
+
+        Assert.assertTrue(listener.handled(PacketInViewport.class));
+    }
+
+    @Test
+    public void serializationTest() {
+        this.before = new PacketInViewport(randomFloat(), randomFloat());
+
+        this.serialize();
+        this.equals();
+    }
+
+    @Override
+    public void equals() {
+        // Vergleiche Größe des Sichtbereichs
+        Assert.assertEquals(this.before.getWidth(), this.after.getWidth(), 0.0f);
+        Assert.assertEquals(this.before.getHeight(), this.after.getHeight(), 0.0f);
+    }
+}
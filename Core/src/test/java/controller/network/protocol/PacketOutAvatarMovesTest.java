@@ -0,0 +1,235 @@
+package controller.network.protocol;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Output;
+import controller.network.protocol.PacketAvatarMove.AvatarAction;
+import controller.network.protocol.PacketOutAvatarMoves.AvatarMove;
+import controller.network.protocol.mock.MockPacketListenerOut;
+import model.context.spatial.Direction;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class PacketOutAvatarMovesTest extends PacketTest<PacketOutAvatarMoves> {
+
+    private static final float STEP = AvatarStateCodec.STEP;
+
+    public PacketOutAvatarMovesTest() {
+        super(PacketOutAvatarMoves.class);
+    }
+
+    @Test
+    public void callListenerTest() {
+        final MockPacketListenerOut listener = new MockPacketListenerOut();
+
+        this.before = new PacketOutAvatarMoves(Collections.emptyList());
+        this.before.call(listener);
+
+        Assert.assertTrue(listener.handled(PacketOutAvatarMoves.class));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void unencodedSerializationTest() {
+        this.before = new PacketOutAvatarMoves(Collections.singletonList(randomMove()));
+
+        this.serialize();
+    }
+
+    @Test
+    public void emptySerializationTest() {
+        this.before = new PacketOutAvatarMoves(Collections.emptyList());
+        this.before.encode(new AvatarStateCodec());
+
+        this.serialize();
+        this.after.decode(new AvatarStateCodec());
+        this.equals();
+    }
+
+    @Test
+    public void singleSerializationTest() {
+        this.before = new PacketOutAvatarMoves(Collections.singletonList(randomMove()));
+        this.before.encode(new AvatarStateCodec());
+
+        this.serialize();
+        this.after.decode(new AvatarStateCodec());
+        this.equals();
+    }
+
+    @Test
+    public void multipleSerializationTest() {
+        final List<AvatarMove> moves = new ArrayList<>();
+        final int size = randomInt(31) + 1;
+
+        while (moves.size() < size) {
+            moves.add(randomMove());
+        }
+
+        this.before = new PacketOutAvatarMoves(moves);
+        this.before.encode(new AvatarStateCodec());
+
+        this.serialize();
+        this.after.decode(new AvatarStateCodec());
+        this.equals();
+    }
+
+    @Test
+    public void deltaSerializationTest() {
+        final AvatarStateCodec encoder = new AvatarStateCodec();
+        final AvatarStateCodec decoder = new AvatarStateCodec();
+        final List<AvatarMove> moves = new ArrayList<>();
+
+        while (moves.size() < 16) {
+            moves.add(randomMove());
+        }
+
+        for (int tick = 0; tick < 8; tick++) {
+            final List<AvatarMove> next = new ArrayList<>();
+
+            for (final AvatarMove move : moves) {
+                next.add(new AvatarMove(move.getUserId(), randomEnum(Direction.class),
+                        move.getPosX() + (randomInt(33) - 16) * STEP, move.getPosY() + (randomInt(33) - 16) * STEP,
+                        randomBoolean(), randomBoolean()));
+            }
+
+            moves.clear();
+            moves.addAll(next);
+
+            this.setup();
+            this.before = new PacketOutAvatarMoves(moves);
+            this.before.encode(encoder);
+
+            this.serialize();
+            this.after.decode(decoder);
+            this.equals();
+        }
+    }
+
+    @Test
+    public void quantizationTest() {
+        final AvatarStateCodec encoder = new AvatarStateCodec();
+        final AvatarMove move = new AvatarMove(randomUniqueId(), Direction.UP, 100.2f, 99.8f, false, true);
+        final AvatarMove decoded = new AvatarStateCodec().decode(encoder.encode(new AvatarMove[]{move}))[0];
+
+        Assert.assertEquals(move.getPosX(), decoded.getPosX(), STEP / 2);
+        Assert.assertEquals(move.getPosY(), decoded.getPosY(), STEP / 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownSessionTest() {
+        final AvatarStateCodec encoder = new AvatarStateCodec();
+        final AvatarMove[] moves = new AvatarMove[]{randomMove()};
+
+        encoder.encode(moves);
+
+        // Der Decoder hat den ersten Zustand des Avatars nie erhalten.
+        new AvatarStateCodec().decode(encoder.encode(moves));
+    }
+
+    @Test
+    public void removeTest() {
+        final AvatarStateCodec encoder = new AvatarStateCodec();
+        final AvatarStateCodec decoder = new AvatarStateCodec();
+        final AvatarMove removed = randomMove();
+        final AvatarMove other = randomMove();
+
+        decoder.decode(encoder.encode(new AvatarMove[]{removed, other}));
+        encoder.remove(removed.getUserId());
+        decoder.remove(removed.getUserId());
+
+        // Der entfernte Avatar erhält beim erneuten Versenden eine neue Sitzungs-ID.
+        final AvatarMove[] moves = new AvatarMove[]{other, removed};
+        Assert.assertArrayEquals(moves, decoder.decode(encoder.encode(moves)));
+    }
+
+    @Test
+    public void resetTest() {
+        final AvatarStateCodec encoder = new AvatarStateCodec();
+        final AvatarStateCodec decoder = new AvatarStateCodec();
+        final AvatarMove[] moves = new AvatarMove[]{randomMove(), randomMove()};
+
+        decoder.decode(encoder.encode(moves));
+        encoder.reset();
+        decoder.reset();
+
+        // Nach dem Wechsel des Raums werden alle Avatare erneut vollständig übertragen.
+        Assert.assertArrayEquals(moves, decoder.decode(encoder.encode(moves)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void removedSessionTest() {
+        final AvatarStateCodec encoder = new AvatarStateCodec();
+        final AvatarStateCodec decoder = new AvatarStateCodec();
+        final AvatarMove[] moves = new AvatarMove[]{randomMove()};
+
+        decoder.decode(encoder.encode(moves));
+        decoder.remove(moves[0].getUserId());
+
+        // Der Decoder kennt den Zustand des entfernten Avatars nicht mehr.
+        decoder.decode(encoder.encode(moves));
+    }
+
+    @Test
+    public void bandwidthTest() {
+        final AvatarStateCodec encoder = new AvatarStateCodec();
+        final List<AvatarMove> moves = new ArrayList<>();
+        final int avatars = 200;
+        final int tickRate = 20;
+
+        while (moves.size() < avatars) {
+            moves.add(randomMove());
+        }
+
+        long legacy = 0;
+        long encoded = 0;
+
+        // Simuliere eine Sekunde, in der sich alle Avatare in jedem Takt bewegen.
+        for (int tick = 0; tick < tickRate; tick++) {
+            final List<AvatarMove> next = new ArrayList<>();
+
+            for (final AvatarMove move : moves) {
+                next.add(new AvatarMove(move.getUserId(), move.getDirection(), move.getPosX() + 4 * STEP,
+                        move.getPosY() - 2 * STEP, move.isSprinting(), move.isMovable()));
+            }
+
+            moves.clear();
+            moves.addAll(next);
+
+            for (final AvatarMove move : moves) {
+                legacy += size(new PacketAvatarMove(AvatarAction.MOVE_AVATAR, move.getUserId(), move.getDirection(),
+                        move.getPosX(), move.getPosY(), move.isSprinting(), move.isMovable()));
+            }
+
+            final PacketOutAvatarMoves packet = new PacketOutAvatarMoves(moves);
+            packet.encode(encoder);
+            encoded += size(packet);
+        }
+
+        // Die kodierten Bewegungen benötigen weniger als ein Viertel der Bandbreite einzelner Pakete.
+        Assert.assertTrue(encoded * 4 < legacy);
+    }
+
+    @Override
+    public void equals() {
+        // Vergleiche die Bewegungen der Avatare.
+        Assert.assertEquals(this.before.getMoves().length, this.after.getMoves().length);
+        Assert.assertArrayEquals(this.before.getMoves(), this.after.getMoves());
+    }
+
+    private static int size(@NotNull final Packet<?> packet) {
+        final Output output = new Output(64, -1);
+
+        packet.write(new Kryo(), output);
+        return output.position();
+    }
+
+    /*
+     * Die Positionen liegen auf dem Raster des Codecs, damit sie nach der Quantisierung unverändert bleiben.
+     */
+    private static AvatarMove randomMove() {
+        return new AvatarMove(randomUniqueId(), randomEnum(Direction.class), randomInt(6400) * STEP,
+                randomInt(6400) * STEP, randomBoolean(), randomBoolean());
+    }
+}
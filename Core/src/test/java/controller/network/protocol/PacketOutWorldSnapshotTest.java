@@ -0,0 +1,187 @@
+package controller.network.protocol;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import controller.network.protocol.PacketAvatarMove.AvatarAction;
+import controller.network.protocol.PacketOutUserInfo.Action;
+import controller.network.protocol.PacketOutUserInfo.UserInfo;
+import controller.network.protocol.mock.MockPacketListenerOut;
+import model.context.ContextID;
+import model.context.spatial.Direction;
+import model.role.Role;
+import model.user.Avatar;
+import model.user.Status;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import util.Benchmark;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+public class PacketOutWorldSnapshotTest extends PacketTest<PacketOutWorldSnapshot> {
+
+    private static final ContextID WORLD = new ContextID("Global.World");
+    private static final ContextID ROOM = new ContextID("Global.World.Room");
+
+    public PacketOutWorldSnapshotTest() {
+        super(PacketOutWorldSnapshot.class);
+    }
+
+    @Test
+    public void callListenerTest() {
+        final MockPacketListenerOut listener = new MockPacketListenerOut();
+
+        this.before = new PacketOutWorldSnapshot(Collections.emptyList(), Collections.emptyList(),
+                Collections.emptyList());
+        this.before.call(listener);
+
+        Assert.assertTrue(listener.handled(PacketOutWorldSnapshot.class));
+    }
+
+    @Test
+    public void emptySerializationTest() {
+        this.before = new PacketOutWorldSnapshot(Collections.emptyList(), Collections.emptyList(),
+                Collections.emptyList());
+
+        this.serialize();
+        this.equals();
+    }
+
+    @Test
+    public void serializationTest() {
+        this.before = createSnapshot(5);
+
+        this.serialize();
+        this.equals();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidDataTest() {
+        final Output output = new Output(1024, -1);
+
+        createSnapshot(5).write(new Kryo(), output);
+
+        // Eine abweichende Größe der unkomprimierten Daten wird beim Dekomprimieren erkannt.
+        final Input input = new Input(output.toBytes());
+        final int size = input.readVarInt(true);
+        final byte[] data = input.readBytes(input.readVarInt(true));
+        final Output invalid = new Output(1024, -1);
+
+        invalid.writeVarInt(size + 1, true);
+        invalid.writeVarInt(data.length, true);
+        invalid.writeBytes(data);
+
+        this.after.read(new Kryo(), new Input(invalid.toBytes()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void exceedingSizeTest() {
+        final Output output = new Output(16);
+
+        output.writeVarInt(PacketOutWorldSnapshot.MAX_SIZE + 1, true);
+        output.writeVarInt(0, true);
+
+        this.after.read(new Kryo(), new Input(output.toBytes()));
+    }
+
+    @Test
+    @Category(Benchmark.class)
+    @SuppressWarnings("deprecation")
+    public void joinSizeTest() {
+        final Kryo kryo = new Kryo();
+
+        for (final int count : new int[]{50, 300, 1000}) {
+            final PacketOutWorldSnapshot snapshot = createSnapshot(count);
+            final List<Packet<?>> packets = new ArrayList<>();
+
+            Collections.addAll(packets, snapshot.getInfos());
+            Collections.addAll(packets, snapshot.getRoles());
+            Collections.addAll(packets, snapshot.getAvatars());
+
+            int single = 0;
+            long start = System.nanoTime();
+            for (final Packet<?> packet : packets) {
+                final Output output = new Output(256, -1);
+                packet.write(kryo, output);
+                single += output.position();
+            }
+            long singleTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            final Output output = new Output(1024, -1);
+            snapshot.write(kryo, output);
+            final PacketOutWorldSnapshot received = new PacketOutWorldSnapshot();
+            received.read(kryo, new Input(output.toBytes()));
+            long snapshotTime = System.nanoTime() - start;
+
+            Assert.assertEquals(count, received.getInfos().length);
+            Assert.assertTrue(output.position() < single);
+            System.out.printf("%d users: %d packets with %d bytes in %.3f ms, snapshot with %d bytes in %.3f ms%n",
+                    count, packets.size(), single, singleTime / 1e6, output.position(), snapshotTime / 1e6);
+        }
+    }
+
+    @Override
+    public void equals() {
+        Assert.assertEquals(this.before.getInfos().length, this.after.getInfos().length);
+        Assert.assertEquals(this.before.getRoles().length, this.after.getRoles().length);
+        Assert.assertEquals(this.before.getAvatars().length, this.after.getAvatars().length);
+
+        for (int index = 0; index < this.before.getInfos().length; index++) {
+            Assert.assertEquals(this.before.getInfos()[index].getContextId(), this.after.getInfos()[index].getContextId());
+            Assert.assertEquals(this.before.getInfos()[index].getAction(), this.after.getInfos()[index].getAction());
+            Assert.assertEquals(this.before.getInfos()[index].getInfo(), this.after.getInfos()[index].getInfo());
+        }
+
+        for (int index = 0; index < this.before.getRoles().length; index++) {
+            Assert.assertEquals(this.before.getRoles()[index].getContextId(), this.after.getRoles()[index].getContextId());
+            Assert.assertEquals(this.before.getRoles()[index].getUserId(), this.after.getRoles()[index].getUserId());
+            Assert.assertArrayEquals(this.before.getRoles()[index].getRoles(), this.after.getRoles()[index].getRoles());
+        }
+
+        for (int index = 0; index < this.before.getAvatars().length; index++) {
+            final PacketAvatarMove before = this.before.getAvatars()[index];
+            final PacketAvatarMove after = this.after.getAvatars()[index];
+
+            Assert.assertEquals(before.getAction(), after.getAction());
+            Assert.assertEquals(before.getUserId(), after.getUserId());
+            Assert.assertEquals(before.getDirection(), after.getDirection());
+            Assert.assertEquals(before.getPosX(), after.getPosX(), 0.0f);
+            Assert.assertEquals(before.getPosY(), after.getPosY(), 0.0f);
+            Assert.assertEquals(before.isMovable(), after.isMovable());
+        }
+    }
+
+    /**
+     * Erzeugt einen Schnappschuss einer Welt, in der sich alle Benutzer im gleichen Raum befinden.
+     * @param count Anzahl der Benutzer.
+     * @return der erzeugte Schnappschuss.
+     */
+    private static @NotNull PacketOutWorldSnapshot createSnapshot(final int count) {
+        final List<PacketOutUserInfo> infos = new ArrayList<>();
+        final List<PacketOutContextRole> roles = new ArrayList<>();
+        final List<PacketAvatarMove> avatars = new ArrayList<>();
+
+        for (int index = 0; index < count; index++) {
+            final UUID userId = randomUniqueId();
+            final UserInfo info = new UserInfo(userId, "user" + index, randomEnum(Status.class));
+
+            info.setWorld(WORLD);
+            info.setRoom(ROOM);
+            info.setAvatar(randomEnum(Avatar.class));
+
+            infos.add(new PacketOutUserInfo(WORLD, Action.UPDATE_USER, info));
+            roles.add(new PacketOutContextRole(new ContextID("Global"), userId, Collections.emptySet()));
+            roles.add(new PacketOutContextRole(WORLD, userId, index == 0 ? Set.of(Role.OWNER) : Collections.emptySet()));
+            avatars.add(new PacketAvatarMove(AvatarAction.SPAWN_AVATAR, userId, randomEnum(Direction.class),
+                    randomFloat() * 2000, randomFloat() * 2000, false, true));
+        }
+
+        return new PacketOutWorldSnapshot(infos, roles, avatars);
+    }
+}
@@ -0,0 +1,83 @@
+package controller.network.protocol;
+
+import controller.network.protocol.mock.MockPacketListener;
+import org.junit.Assert;
+import org.junit.Test;
+import java.time.LocalDateTime;
+
+public class PacketVideoTileFrameTest extends PacketTest<PacketVideoTileFrame> {
+
+    public PacketVideoTileFrameTest() {
+        super(PacketVideoTileFrame.class, LocalDateTime.class);
+    }
+
+    @Test
+    public void callListenerTest() {
+        final MockPacketListener listener = new MockPacketListener();
+
+        this.before = new PacketVideoTileFrame(true, randomInt(), new int[0], randomBytes());
+        this.before.call(listener);
+
+        Assert.assertTrue(listener.handled(PacketVideoTileFrame.class));
+    }
+
+    @Test
+    public void clientKeyframeSerializationTest() {
+        this.before = new PacketVideoTileFrame(true, randomInt(), new int[0], randomBytes());
+
+        this.serialize();
+        this.equals();
+    }
+
+    @Test
+    public void clientSerializationTest() {
+        this.before = new PacketVideoTileFrame(false, randomInt(), randomTiles(), randomBytes());
+
+        this.serialize();
+        this.equals();
+    }
+
+    @Test
+    public void serverSerializationTest() {
+        this.before = new PacketVideoTileFrame(randomUniqueId(), LocalDateTime.now(), false, randomInt(),
+                randomTiles(), randomBytes());
+
+        this.serialize();
+        this.equals();
+    }
+
+    @Override
+    public void equals() {
+        // Vergleiche Sender
+        if (this.before.getSenderId() != null) {
+            Assert.assertNotNull(this.after.getSenderId());
+            Assert.assertEquals(this.before.getSenderId(), this.after.getSenderId());
+        } else {
+            Assert.assertNull(this.after.getSenderId());
+        }
+
+        // Vergleiche Zeitstempel
+        if (this.before.getTimestamp() != null) {
+            Assert.assertNotNull(this.after.getTimestamp());
+            Assert.assertEquals(this.before.getTimestamp(), this.after.getTimestamp());
+        } else {
+            Assert.assertNull(this.after.getTimestamp());
+        }
+
+        // Vergleiche Kacheln
+        Assert.assertEquals(this.before.isKeyframe(), this.after.isKeyframe());
+        Assert.assertEquals(this.before.getSequence(), this.after.getSequence());
+        Assert.assertArrayEquals(this.before.getTiles(), this.after.getTiles());
+        Assert.assertArrayEquals(this.before.getTileData(), this.after.getTileData());
+    }
+
+    private static int[] randomTiles() {
+        final int[] tiles = new int[1 + randomInt(32)];
+        int tile = randomInt(16);
+        for (int i = 0; i < tiles.length; i++) {
+            tiles[i] = tile;
+            tile += 1 + randomInt(16);
+        }
+        return tiles;
+    }
+}
@@ -58,8 +58,33 @@ public class MockPacketListener implements PacketListener {
 
     }
 
+    @Override
+    public void handle(@NotNull final PacketVideoTileFrame packet) {
+        this.calls.add(packet.getClass());
+    }
+
+    @Override
+    public void handle(@NotNull final PacketImageChunk packet) {
+        this.calls.add(packet.getClass());
+    }
+
+    @Override
+    public void handle(@NotNull final PacketChunk packet) {
+        this.calls.add(packet.getClass());
+    }
+
+    @Override
+    public void handle(@NotNull final PacketChunkCredit packet) {
+        this.calls.add(packet.getClass());
+    }
+
     @Override
     public void handle(@NotNull final PacketWorldAction packet) {
         this.calls.add(packet.getClass());
     }
+
+    @Override
+    public void handle(@NotNull final PacketAudioCodec packet) {
+        this.calls.add(packet.getClass());
+    }
 }
@@ -2,6 +2,7 @@ package controller.network.protocol.mock;
 
 import controller.network.protocol.PacketInContextInteract;
 import controller.network.protocol.PacketInUserManage;
+import controller.network.protocol.PacketInViewport;
 import controller.network.protocol.PacketListenerIn;
 import org.jetbrains.annotations.NotNull;
 
@@ -16,4 +17,9 @@ public class MockPacketListenerIn extends MockPacketListener implements PacketLi
     public void handle(@NotNull final PacketInUserManage packet) {
         this.calls.add(packet.getClass());
     }
+
+    @Override
+    public void handle(@NotNull final PacketInViewport packet) {
+        this.calls.add(packet.getClass());
+    }
 }
@@ -1,6 +1,7 @@
 package controller.network.protocol.mock;
 
 import controller.network.protocol.PacketListenerOut;
+import controller.network.protocol.PacketOutAvatarMoves;
 import controller.network.protocol.PacketOutCommunicable;
 import controller.network.protocol.PacketOutContextInfo;
 import controller.network.protocol.PacketOutContextJoin;
@@ -9,6 +10,7 @@ import controller.network.protocol.PacketOutContextRole;
 import controller.network.protocol.PacketOutMenuAction;
 import controller.network.protocol.PacketOutNotification;
 import controller.network.protocol.PacketOutUserInfo;
+import controller.network.protocol.PacketOutWorldSnapshot;
 import org.jetbrains.annotations.NotNull;
 
 public class MockPacketListenerOut extends MockPacketListener implements PacketListenerOut {
@@ -52,4 +54,14 @@ public class MockPacketListenerOut extends MockPacketListener implements PacketL
     public void handle(@NotNull final PacketOutUserInfo packet) {
         this.calls.add(packet.getClass());
     }
+
+    @Override
+    public void handle(@NotNull final PacketOutAvatarMoves packet) {
+        this.calls.add(packet.getClass());
+    }
+
+    @Override
+    public void handle(@NotNull final PacketOutWorldSnapshot packet) {
+        this.calls.add(packet.getClass());
+    }
 }
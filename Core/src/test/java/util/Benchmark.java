@@ -0,0 +1,8 @@
+package util;
+
+/**
+ * Kategorie für Tests, die Laufzeiten oder Bandbreiten messen und ausgeben. Diese Tests hängen von der Umgebung ab
+ * und werden deshalb nur im Profil benchmark ausgeführt: mvn test -P benchmark
+ */
+public interface Benchmark {
+}
@@ -0,0 +1,183 @@
+package utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import util.Benchmark;
+import java.util.List;
+import java.util.Random;
+
+public class AudioCodecTest {
+
+    private static final int FRAME_SAMPLES = AudioUtils.FRAME_SIZE / AudioUtils.SAMPLE_SIZE_IN_BYTES;
+
+    @Test
+    public void pcmLosslessTest() {
+        final short[] samples = noise(new Random(1), FRAME_SAMPLES);
+
+        Assert.assertArrayEquals(samples, AudioCodec.decode(AudioCodec.PCM.encode(samples)));
+    }
+
+    @Test
+    public void adpcmQualityTest() {
+        final short[] samples = speech(FRAME_SAMPLES, 0);
+
+        for (final AudioCodec codec : List.of(AudioCodec.ADPCM, AudioCodec.ADPCM_16K)) {
+            final short[] decoded = AudioCodec.decode(codec.encode(samples));
+
+            Assert.assertEquals(FRAME_SAMPLES, decoded.length);
+            Assert.assertTrue(codec + " SNR too low", snr(samples, decoded) > 20);
+        }
+    }
+
+    @Test
+    public void compressionTest() {
+        final short[] samples = speech(FRAME_SAMPLES, 0);
+
+        Assert.assertEquals(AudioUtils.FRAME_SIZE + 1, AudioCodec.PCM.encode(samples).length);
+        Assert.assertTrue(AudioCodec.ADPCM.encode(samples).length <= AudioUtils.FRAME_SIZE / 4 + 8);
+        Assert.assertTrue(AudioCodec.ADPCM_16K.encode(samples).length <= AudioUtils.FRAME_SIZE / 10 + 8);
+    }
+
+    @Test
+    public void edgeCaseTest() {
+        for (final AudioCodec codec : AudioCodec.values()) {
+            Assert.assertEquals(0, AudioCodec.decode(codec.encode(new short[0])).length);
+            Assert.assertArrayEquals(new short[]{Short.MAX_VALUE},
+                    AudioCodec.decode(codec.encode(new short[]{Short.MAX_VALUE})));
+
+            // Sprünge zwischen den Extremwerten dürfen nicht überlaufen.
+            final short[] extremes = new short[FRAME_SAMPLES];
+            for (int i = 0; i < extremes.length; i++) {
+                extremes[i] = i % 2 == 0 ? Short.MAX_VALUE : Short.MIN_VALUE;
+            }
+            Assert.assertEquals(FRAME_SAMPLES, AudioCodec.decode(codec.encode(extremes)).length);
+        }
+    }
+
+    @Test
+    public void decodeIntoBufferTest() {
+        final short[] samples = speech(FRAME_SAMPLES, 0);
+        final short[] buffer = new short[FRAME_SAMPLES];
+
+        for (final AudioCodec codec : AudioCodec.values()) {
+            final byte[] frame = codec.encode(samples);
+
+            Assert.assertEquals(FRAME_SAMPLES, AudioCodec.decode(frame, buffer));
+            Assert.assertArrayEquals(AudioCodec.decode(frame), buffer);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void bufferTooSmallTest() {
+        AudioCodec.decode(AudioCodec.ADPCM_16K.encode(speech(FRAME_SAMPLES, 0)), new short[FRAME_SAMPLES - 1]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownCodecTest() {
+        AudioCodec.decode(new byte[]{(byte) 0x7F, 0, 0});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void truncatedFrameTest() {
+        final byte[] frame = AudioCodec.ADPCM.encode(speech(FRAME_SAMPLES, 0));
+
+        AudioCodec.decode(java.util.Arrays.copyOf(frame, frame.length / 2));
+    }
+
+    @Test
+    public void selectTest() {
+        Assert.assertEquals(AudioCodec.ADPCM_16K, AudioCodec.select(AudioCodec.ADPCM_16K, List.of(AudioCodec.values())));
+        Assert.assertEquals(AudioCodec.PCM, AudioCodec.select(AudioCodec.ADPCM_16K, List.of(AudioCodec.ADPCM)));
+        Assert.assertEquals(AudioCodec.PCM, AudioCodec.select(AudioCodec.ADPCM, List.of()));
+    }
+
+    @Test
+    @Category(Benchmark.class)
+    public void benchmarkTest() {
+        final int frames = 3000;
+        final short[][] input = new short[frames][];
+
+        for (int i = 0; i < frames; i++) {
+            input[i] = speech(FRAME_SAMPLES, i * FRAME_SAMPLES);
+        }
+
+        for (final AudioCodec codec : AudioCodec.values()) {
+            final byte[][] encoded = new byte[frames][];
+            long bytes = 0;
+            double quality = 0;
+
+            // Aufwärmen, damit der JIT-Compiler die Methoden übersetzt hat.
+            for (int i = 0; i < frames; i++) {
+                AudioCodec.decode(codec.encode(input[i]));
+            }
+
+            final long encodeStart = System.nanoTime();
+            for (int i = 0; i < frames; i++) {
+                encoded[i] = codec.encode(input[i]);
+            }
+            final long encodeTime = System.nanoTime() - encodeStart;
+
+            final short[][] decoded = new short[frames][];
+            final long decodeStart = System.nanoTime();
+            for (int i = 0; i < frames; i++) {
+                decoded[i] = AudioCodec.decode(encoded[i]);
+            }
+            final long decodeTime = System.nanoTime() - decodeStart;
+
+            for (int i = 0; i < frames; i++) {
+                bytes += encoded[i].length;
+                quality += snr(input[i], decoded[i]);
+            }
+
+            System.out.printf("%-9s %6.0f bytes/frame %7.1f kbit/s, encode %6.1f us/frame, decode %6.1f us/frame, "
+                            + "SNR %5.1f dB%n", codec, (double) bytes / frames,
+                    bytes * 8.0 * AudioUtils.FRAME_RATE / frames / 1000, encodeTime / 1e3 / frames,
+                    decodeTime / 1e3 / frames, quality / frames);
+        }
+    }
+
+    /**
+     * Erzeugt ein sprachähnliches Signal aus mehreren Obertönen mit schwankender Grundfrequenz und Lautstärke.
+     */
+    private static short[] speech(final int length, final int offset) {
+        final short[] samples = new short[length];
+
+        for (int i = 0; i < length; i++) {
+            final double t = (double) (offset + i) / AudioUtils.SAMPLING_RATE;
+            // Phase einer Grundfrequenz, die mit 3 Hz zwischen 110 und 170 Hz schwankt.
+            final double phase = 2 * Math.PI * 140 * t - 10 * Math.cos(2 * Math.PI * 3 * t);
+            final double envelope = 0.6 + 0.4 * Math.sin(2 * Math.PI * 4 * t);
+            double value = 0;
+
+            for (int harmonic = 1; harmonic <= 8; harmonic++) {
+                value += Math.sin(harmonic * phase) / harmonic;
+            }
+            samples[i] = (short) (4000 * envelope * value);
+        }
+
+        return samples;
+    }
+
+    private static short[] noise(final Random random, final int length) {
+        final short[] samples = new short[length];
+
+        for (int i = 0; i < length; i++) {
+            samples[i] = (short) random.nextInt(1 << 16);
+        }
+
+        return samples;
+    }
+
+    private static double snr(final short[] original, final short[] decoded) {
+        double signal = 0;
+        double noise = 0;
+
+        for (int i = 0; i < original.length; i++) {
+            signal += (double) original[i] * original[i];
+            noise += (double) (original[i] - decoded[i]) * (original[i] - decoded[i]);
+        }
+
+        return noise == 0 ? Double.POSITIVE_INFINITY : 10 * Math.log10(signal / noise);
+    }
+}
@@ -0,0 +1,143 @@
+package utils;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+import javax.imageio.ImageIO;
+
+public class ContentStoreTest {
+
+    private static final int SIZE = 1000;
+
+    private File directory;
+    private Random random;
+
+    @Before
+    public void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("chati-store").toFile();
+        this.random = new Random(0);
+    }
+
+    @After
+    public void tearDown() {
+        final File[] files = this.directory.listFiles();
+        if (files != null) {
+            Arrays.stream(files).forEach(File::delete);
+        }
+        this.directory.delete();
+    }
+
+    @Test
+    public void putTest() throws IOException {
+        final ContentStore store = new ContentStore(this.directory, 10 * SIZE);
+        final byte[] data = randomData();
+
+        final String hash = store.put(data);
+        Assert.assertEquals(ImageUtils.hash(data), hash);
+        Assert.assertTrue(ImageUtils.isHash(hash));
+
+        // Gleiche Daten werden nur einmal gespeichert.
+        Assert.assertEquals(hash, store.put(data.clone()));
+        Assert.assertEquals(SIZE, store.size());
+        Assert.assertEquals(1, this.directory.listFiles().length);
+        Assert.assertArrayEquals(data, store.get(hash));
+    }
+
+    @Test
+    public void readTest() throws IOException {
+        final ContentStore store = new ContentStore(this.directory, 10 * SIZE);
+        final byte[] data = randomData();
+        final String hash = store.put(data);
+
+        Assert.assertArrayEquals(Arrays.copyOfRange(data, 300, 700), store.read(hash, 300, 400));
+        // Der letzte Abschnitt ist kürzer als angefordert.
+        Assert.assertArrayEquals(Arrays.copyOfRange(data, 900, SIZE), store.read(hash, 900, 400));
+        Assert.assertEquals(0, store.read(hash, SIZE, 400).length);
+        Assert.assertNull(store.read(ImageUtils.hash(new byte[0]), 0, 400));
+        Assert.assertEquals(-1, store.getSize(ImageUtils.hash(new byte[0])));
+    }
+
+    @Test
+    public void evictionTest() throws IOException {
+        final ContentStore store = new ContentStore(this.directory, 3 * SIZE);
+        final String first = store.put(randomData());
+        final String second = store.put(randomData());
+        final String third = store.put(randomData());
+
+        // Die am längsten nicht verwendeten Daten werden zuerst verdrängt.
+        store.read(first, 0, SIZE);
+        final String fourth = store.put(randomData());
+
+        Assert.assertTrue(store.contains(first));
+        Assert.assertFalse(store.contains(second));
+        Assert.assertTrue(store.contains(third));
+        Assert.assertTrue(store.contains(fourth));
+        Assert.assertEquals(3 * SIZE, store.size());
+        Assert.assertEquals(3, this.directory.listFiles().length);
+    }
+
+    @Test
+    public void reloadTest() throws IOException {
+        final ContentStore store = new ContentStore(this.directory, 10 * SIZE);
+        final byte[] data = randomData();
+        final String hash = store.put(data);
+        final String other = store.put(randomData());
+        Assert.assertTrue(new File(this.directory, hash).setLastModified(System.currentTimeMillis() + 10000));
+        Files.write(new File(this.directory, "incomplete.tmp").toPath(), randomData());
+
+        // Bereits gespeicherte Daten werden in der Reihenfolge ihrer Verwendung übernommen und unvollständige Dateien
+        // gelöscht.
+        final ContentStore reloaded = new ContentStore(this.directory, SIZE);
+        Assert.assertEquals(SIZE, reloaded.size());
+        Assert.assertEquals(1, this.directory.listFiles().length);
+        Assert.assertTrue(reloaded.contains(hash));
+        Assert.assertFalse(reloaded.contains(other));
+        Assert.assertArrayEquals(data, reloaded.get(hash));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalCapacityTest() {
+        new ContentStore(this.directory, 0);
+    }
+
+    @Test
+    public void thumbnailTest() throws IOException {
+        final BufferedImage image = new BufferedImage(1200, 600, BufferedImage.TYPE_INT_ARGB);
+        final Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, 600, 600);
+        graphics.dispose();
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+
+        final BufferedImage thumbnail = VideoUtils.read(ImageUtils.createThumbnail(out.toByteArray()));
+        Assert.assertNotNull(thumbnail);
+        Assert.assertEquals(ImageUtils.THUMBNAIL_SIZE, thumbnail.getWidth());
+        Assert.assertEquals(ImageUtils.THUMBNAIL_SIZE / 2, thumbnail.getHeight());
+
+        // Transparente Bereiche werden weiß dargestellt.
+        final Color left = new Color(thumbnail.getRGB(10, 10));
+        final Color right = new Color(thumbnail.getRGB(ImageUtils.THUMBNAIL_SIZE - 10, 10));
+        Assert.assertTrue(left.getRed() > 200 && left.getGreen() < 60);
+        Assert.assertTrue(right.getRed() > 200 && right.getGreen() > 200 && right.getBlue() > 200);
+
+        Assert.assertEquals(0, ImageUtils.createThumbnail(randomData()).length);
+    }
+
+    private byte[] randomData() {
+        final byte[] data = new byte[SIZE];
+        this.random.nextBytes(data);
+        return data;
+    }
+}
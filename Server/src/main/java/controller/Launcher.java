@@ -4,23 +4,36 @@ import com.badlogic.gdx.ApplicationAdapter;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.backends.headless.HeadlessApplication;
 import com.badlogic.gdx.backends.headless.mock.graphics.MockGL20;
+import controller.metrics.ServerMetrics;
+import controller.network.PacketTrace;
 import controller.network.ServerNetworkManager;
 import controller.network.UserConnection;
+import controller.network.protocol.Packet;
 import joptsimple.OptionException;
 import joptsimple.OptionParser;
 import joptsimple.OptionSet;
+import model.communication.AudioMixer;
+import model.communication.CommunicationHandler;
+import model.communication.MediaScheduler;
 import model.context.global.GlobalContext;
+import model.database.Database;
 import model.exception.UserNotFoundException;
 import model.role.Role;
 import model.user.User;
 import model.user.account.UserAccountManager;
 import org.jetbrains.annotations.NotNull;
+import utils.AudioCodec;
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -31,14 +44,21 @@ import java.util.stream.Collectors;
 
 public class Launcher implements Runnable {
 
+    /** Standardmäßiger Abstand der Messwert-Ausgaben in Sekunden. */
+    private static final long DEFAULT_METRICS_INTERVAL = 60;
+
     private final ServerNetworkManager network;
     private final UserAccountManager manager;
     private final GlobalContext global;
 
+    /** Abstand der Messwert-Ausgaben in Sekunden, 0 für keine Ausgabe. */
+    private long metricsInterval;
+
     private Launcher() {
         this.global = GlobalContext.getInstance();
         this.manager = UserAccountManager.getInstance();
         this.network = new ServerNetworkManager(this.manager, this.global);
+        this.metricsInterval = DEFAULT_METRICS_INTERVAL;
     }
 
     @Override
@@ -85,10 +105,35 @@ public class Launcher implements Runnable {
         this.global.load();
         this.manager.load();
         this.global.loadWorldInfos();
+        Database.startPersistenceQueue();
+        this.startMetrics();
 
         new Thread(this, "Console-Handler").start();
     }
 
+    /**
+     * Registriert die Messgrößen des Servers und beginnt mit der regelmäßigen Ausgabe der Messwerte.
+     */
+    private void startMetrics() {
+        final ServerMetrics metrics = ServerMetrics.getInstance();
+
+        metrics.registerGauge("connections", () -> this.network.getConnections().size());
+        metrics.registerGauge("worlds", () -> this.global.getWorlds().size());
+        metrics.registerGauge("rooms", () -> this.global.getWorlds().values().stream()
+                .mapToLong(world -> 1 + world.getPrivateRooms().size()).sum());
+        metrics.registerGauge("users.online", () -> this.manager.getUsers().values().stream()
+                .filter(User::isOnline).count());
+        metrics.registerGauge("users.inWorld", () -> this.manager.getUsers().values().stream()
+                .filter(user -> user.isOnline() && user.getWorld() != null).count());
+
+        if (this.metricsInterval > 0) {
+            final String time = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            final File file = new File(new File(System.getProperty("user.dir"), "logs"), "metrics-" + time + ".jsonl");
+
+            metrics.startSnapshots(file, this.metricsInterval);
+        }
+    }
+
     public static void main(@NotNull final String[] args) {
         final OptionParser parser = new OptionParser() {
             {
@@ -103,6 +148,25 @@ public class Launcher implements Runnable {
                         .withRequiredArg()
                         .ofType(Integer.class)
                         .describedAs("UDP-Port");
+
+                this.acceptsAll(List.of("p", "packet-threads"), "Threads processing received packets (0 = network thread, default up to 4)")
+                        .withRequiredArg()
+                        .ofType(Integer.class)
+                        .describedAs("Threads");
+
+                this.accepts("mix-threshold", "Active speakers in an area from which voice is mixed (0 = never)")
+                        .withRequiredArg()
+                        .ofType(Integer.class)
+                        .describedAs("Speakers");
+
+                this.accepts("voice-codec", "Preferred codec of the voice data (pcm, adpcm, adpcm_16k)")
+                        .withRequiredArg()
+                        .describedAs("Codec");
+
+                this.accepts("metrics-interval", "Seconds between the metrics snapshots in the logs directory (0 = never)")
+                        .withRequiredArg()
+                        .ofType(Integer.class)
+                        .describedAs("Seconds");
             }
         };
 
@@ -140,6 +204,53 @@ public class Launcher implements Runnable {
                     launcher.network.setPorts(-1, udpPort);
                 }
 
+                if (options.has("packet-threads")) {
+                    final int packetThreads = (int) options.valueOf("packet-threads");
+
+                    if (packetThreads < 0) {
+                        System.err.println("Packet-Threads must not be negative.");
+                        return;
+                    }
+
+                    launcher.network.setPacketThreads(packetThreads);
+                }
+
+                if (options.has("mix-threshold")) {
+                    final int mixThreshold = (int) options.valueOf("mix-threshold");
+
+                    if (mixThreshold < 0) {
+                        System.err.println("Mix-Threshold must not be negative.");
+                        return;
+                    }
+
+                    AudioMixer.getInstance().setThreshold(mixThreshold);
+                }
+
+                if (options.has("voice-codec")) {
+                    final AudioCodec voiceCodec;
+
+                    try {
+                        voiceCodec = AudioCodec.valueOf(((String) options.valueOf("voice-codec")).toUpperCase());
+                    } catch (IllegalArgumentException ex) {
+                        System.err.println("Voice-Codec must be one of " + Arrays.toString(AudioCodec.values()) + ".");
+                        return;
+                    }
+
+                    launcher.network.setVoiceCodec(voiceCodec);
+                    CommunicationHandler.setVoiceCodec(voiceCodec);
+                }
+
+                if (options.has("metrics-interval")) {
+                    final int metricsInterval = (int) options.valueOf("metrics-interval");
+
+                    if (metricsInterval < 0) {
+                        System.err.println("Metrics-Interval must not be negative.");
+                        return;
+                    }
+
+                    launcher.metricsInterval = metricsInterval;
+                }
+
                 try {
                     final InputStream properties = Launcher.class.getClassLoader().getResourceAsStream("logging.properties");
                     final File home = new File(System.getProperty("user.dir"), "logs");
@@ -201,6 +312,30 @@ public class Launcher implements Runnable {
             }
         },
 
+        MEDIA("Shows the pacing of the server-side audio sources.") {
+            @Override
+            public void execute(@NotNull final Launcher launcher, @NotNull final String[] arguments) {
+                if (arguments.length > 0) {
+                    System.out.println("Invalid usage: media");
+                    return;
+                }
+
+                System.out.println("Media scheduler: " + MediaScheduler.getInstance());
+            }
+        },
+
+        MIXER("Shows the state of the server-side voice mixing.") {
+            @Override
+            public void execute(@NotNull final Launcher launcher, @NotNull final String[] arguments) {
+                if (arguments.length > 0) {
+                    System.out.println("Invalid usage: mixer");
+                    return;
+                }
+
+                System.out.println("Audio mixer: " + AudioMixer.getInstance());
+            }
+        },
+
         SET_OWNER("set-owner", "Sets the owner of this server.") {
             @Override
             public void execute(@NotNull final Launcher launcher, @NotNull final String[] arguments) {
@@ -249,6 +384,83 @@ public class Launcher implements Runnable {
             }
         },
 
+        TRACE("Records the network packets (trace [start|stop|dump|sample <packet> <n>]).") {
+            @Override
+            public void execute(@NotNull final Launcher launcher, @NotNull final String[] arguments) {
+                final PacketTrace trace = launcher.network.getPacketTrace();
+
+                if (arguments.length == 0) {
+                    System.out.println("Packet trace: " + trace);
+                    return;
+                }
+
+                switch (arguments[0].toLowerCase()) {
+                    case "start":
+                        trace.start();
+                        System.out.println("Started recording network packets.");
+                        break;
+
+                    case "stop":
+                        trace.stop();
+                        System.out.println("Stopped recording network packets.");
+                        break;
+
+                    case "dump":
+                        final String time = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+                        final File file = new File(new File(System.getProperty("user.dir"), "logs"),
+                                "packet-trace-" + time + ".log");
+
+                        try (Writer writer = new BufferedWriter(new FileWriter(file, StandardCharsets.UTF_8))) {
+                            System.out.println("Dumped " + trace.dump(writer) + " network packets to " + file);
+                        } catch (IOException ex) {
+                            System.err.println("Failed to dump network packets: " + ex.getMessage());
+                        }
+                        break;
+
+                    case "sample":
+                        if (arguments.length != 3) {
+                            System.out.println("Invalid usage: trace sample <packet> <n>");
+                            return;
+                        }
+
+                        try {
+                            final Class<?> packet = Class.forName(Packet.class.getPackageName() + "." + arguments[1]);
+                            final int sampling = Integer.parseInt(arguments[2]);
+
+                            if (!Packet.class.isAssignableFrom(packet) || sampling < 1) {
+                                throw new IllegalArgumentException();
+                            }
+
+                            @SuppressWarnings("unchecked")
+                            final Class<? extends Packet<?>> packetClass = (Class<? extends Packet<?>>) packet;
+
+                            trace.setSampling(packetClass, sampling);
+                            System.out.println("Tracing every " + sampling + ". packet of " + packet.getSimpleName());
+                        } catch (ClassNotFoundException | IllegalArgumentException ex) {
+                            System.err.println("Invalid packet or sampling: " + arguments[1] + " " + arguments[2]);
+                        }
+                        break;
+
+                    default:
+                        System.out.println("Invalid usage: trace [start|stop|dump|sample <packet> <n>]");
+                }
+            }
+        },
+
+        STATS("Shows the network metrics of the server (stats [reset]).") {
+            @Override
+            public void execute(@NotNull final Launcher launcher, @NotNull final String[] arguments) {
+                if (arguments.length == 0) {
+                    System.out.print(ServerMetrics.getInstance().toReport());
+                } else if (arguments.length == 1 && arguments[0].equalsIgnoreCase("reset")) {
+                    ServerMetrics.getInstance().reset();
+                    System.out.println("Reset the network metrics.");
+                } else {
+                    System.out.println("Invalid usage: stats [reset]");
+                }
+            }
+        },
+
         STOP("Stops the server.") {
             @Override
             public void execute(@NotNull final Launcher launcher, @NotNull final String[] arguments) {
@@ -259,6 +471,7 @@ public class Launcher implements Runnable {
 
                 System.out.println("Stopping Server...");
                 launcher.network.stop();
+                Database.shutdown();
                 Gdx.app.exit();
             }
         };
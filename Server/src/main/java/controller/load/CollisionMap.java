@@ -0,0 +1,130 @@
+package controller.load;
+
+import model.context.spatial.ContextMap;
+import org.jetbrains.annotations.NotNull;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Eine Klasse, welche die Kollisionen einer Karte ohne LibGDX direkt aus der TMX-Datei liest.
+ * <p>
+ *     Die Kollisionen werden wie in {@link model.context.spatial.MapUtils#createCollisionMap} um den Radius eines
+ *     Avatars erweitert, sodass die virtuellen Clients nur Positionen betreten, die auch der Server als erlaubt ansieht.
+ * </p>
+ */
+public class CollisionMap {
+
+    private static final int AVATAR_RADIUS = 15;
+    private static final Map<ContextMap, CollisionMap> MAPS = new ConcurrentHashMap<>();
+
+    private final int width;
+    private final int height;
+    private final BitSet collisions;
+
+    private CollisionMap(final int width, final int height, @NotNull final BitSet collisions) {
+        this.width = width;
+        this.height = height;
+        this.collisions = collisions;
+    }
+
+    /**
+     * Gibt die Breite der Karte zurück.
+     * @return Breite der Karte.
+     */
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * Gibt die Höhe der Karte zurück.
+     * @return Höhe der Karte.
+     */
+    public int getHeight() {
+        return this.height;
+    }
+
+    /**
+     * Gibt zurück, ob die Position an den übergebenen Koordinaten erlaubt ist.
+     * @param posX X-Koordinate.
+     * @param posY Y-Koordinate.
+     * @return true, wenn die Position erlaubt ist, sonst false.
+     * @see model.context.spatial.Room#isLegal(float, float)
+     */
+    public boolean isLegal(final float posX, final float posY) {
+        if (0 <= posX && posX <= this.width && 0 <= posY && posY <= this.height) {
+            return !this.collisions.get(Math.round(posY) * this.width + Math.round(posX));
+        }
+
+        return false;
+    }
+
+    /**
+     * Gibt die Kollisionen einer Karte zurück. Jede Karte wird nur einmal gelesen.
+     * @param map Karte, deren Kollisionen ermittelt werden sollen.
+     * @return die Kollisionen der Karte.
+     * @throws IllegalStateException falls die Karte nicht gelesen werden konnte.
+     */
+    public static @NotNull CollisionMap get(@NotNull final ContextMap map) {
+        return MAPS.computeIfAbsent(map, CollisionMap::load);
+    }
+
+    private static @NotNull CollisionMap load(@NotNull final ContextMap map) {
+        try (InputStream stream = CollisionMap.class.getClassLoader().getResourceAsStream(map.getPath())) {
+            if (stream == null) {
+                throw new IllegalStateException("Map " + map.getPath() + " not found");
+            }
+
+            final Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(stream);
+            final Element root = document.getDocumentElement();
+            final int width = Integer.parseInt(root.getAttribute("width")) * Integer.parseInt(root.getAttribute("tilewidth"));
+            final int height = Integer.parseInt(root.getAttribute("height")) * Integer.parseInt(root.getAttribute("tileheight"));
+            final BitSet collisions = new BitSet(width * height);
+            final NodeList groups = root.getElementsByTagName("objectgroup");
+
+            for (int group = 0; group < groups.getLength(); group++) {
+                final Element element = (Element) groups.item(group);
+
+                if (!element.getAttribute("name").equals("Collisions")) {
+                    continue;
+                }
+
+                final NodeList objects = element.getElementsByTagName("object");
+
+                for (int index = 0; index < objects.getLength(); index++) {
+                    final Element object = (Element) objects.item(index);
+                    final float objectWidth = parse(object, "width");
+                    final float objectHeight = parse(object, "height");
+
+                    // Die Y-Achse einer TMX-Datei zeigt nach unten, die der geladenen Karten nach oben.
+                    final int posX = Math.max(0, Math.round(parse(object, "x")) - AVATAR_RADIUS);
+                    final int posY = Math.max(0, Math.round(height - parse(object, "y") - objectHeight) - AVATAR_RADIUS);
+                    final int sizeX = Math.min(width - posX, Math.round(objectWidth) + AVATAR_RADIUS + (posX > 0 ? AVATAR_RADIUS : 0));
+                    final int sizeY = Math.min(height - posY, Math.round(objectHeight) + AVATAR_RADIUS + (posY > 0 ? AVATAR_RADIUS : 0));
+
+                    for (int row = posY; row < posY + sizeY; row++) {
+                        collisions.set(row * width + posX, row * width + posX + sizeX);
+                    }
+                }
+            }
+
+            return new CollisionMap(width, height, collisions);
+        } catch (IOException | ParserConfigurationException | SAXException | NumberFormatException ex) {
+            throw new IllegalStateException("Failed to read collisions of map " + map.getPath(), ex);
+        }
+    }
+
+    private static float parse(@NotNull final Element element, @NotNull final String attribute) {
+        final String value = element.getAttribute(attribute);
+
+        return value.isEmpty() ? 0 : Float.parseFloat(value);
+    }
+}
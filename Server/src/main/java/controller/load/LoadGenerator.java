@@ -0,0 +1,450 @@
+package controller.load;
+
+import joptsimple.OptionException;
+import joptsimple.OptionParser;
+import joptsimple.OptionSet;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Ein Lastgenerator, der eine große Anzahl an virtuellen Clients ohne Darstellung mit dem Server verbindet.
+ * <p>
+ *     Die Clients werden mit der angegebenen Rate gestartet und führen anschließend für die angegebene Dauer
+ *     Bewegungen, Chatnachrichten sowie Sprach- und Videoübertragungen aus. In regelmäßigen Abständen werden der
+ *     Durchsatz, die Latenzen und die Raten der vom Server versendeten Pakete ausgegeben.
+ * </p>
+ * <p>
+ *     Wird die Datei angegeben, in welche der Server seine Messwerte schreibt, so werden die vom Server erfassten
+ *     Pakete am Ende des Lasttests mit der erzeugten Last verglichen.
+ * </p>
+ */
+public class LoadGenerator {
+
+    private static final Logger LOGGER = Logger.getLogger("chati.load");
+
+    /** Abstand, in dem die Aktionen der virtuellen Clients ausgeführt werden, in Millisekunden. */
+    private static final long TICK_INTERVAL = 10;
+
+    /** Maximale Wartezeit auf die nächsten Messwerte des Servers nach dem Lasttest in Sekunden. */
+    private static final long SERVER_METRICS_TIMEOUT = 120;
+
+    private final LoadStatistics statistics;
+    private final List<VirtualClient> clients;
+
+    private String host;
+    private int tcp;
+    private int udp;
+    private String prefix;
+    private String password;
+    private String world;
+    private int clientCount;
+    private double rampUp;
+    private long duration;
+    private long reportInterval;
+    private double moveRate;
+    private double chatRate;
+    private double audioRate;
+    private int audioSize;
+    private double videoRate;
+    private int videoSize;
+    private File serverMetrics;
+
+    private LoadGenerator() {
+        this.statistics = new LoadStatistics();
+        this.clients = new ArrayList<>();
+    }
+
+    /**
+     * Startet die virtuellen Clients, führt den Lasttest für die angegebene Dauer aus und beendet die Clients.
+     */
+    public void run() {
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "Load-Scheduler");
+
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        scheduler.scheduleAtFixedRate(this::update, TICK_INTERVAL, TICK_INTERVAL, TimeUnit.MILLISECONDS);
+        scheduler.scheduleAtFixedRate(() -> System.out.print(this.statistics.report()),
+                this.reportInterval, this.reportInterval, TimeUnit.SECONDS);
+
+        LOGGER.info(String.format("Starting %d virtual clients on %s with %.1f clients per second",
+                this.clientCount, this.host, this.rampUp));
+
+        final String metricsBefore = this.serverMetrics != null ? readLastLine(this.serverMetrics) : null;
+        final long start = System.nanoTime();
+
+        for (int index = 0; index < this.clientCount; index++) {
+            final long due = start + (long) (index * TimeUnit.SECONDS.toNanos(1) / this.rampUp);
+
+            parkUntil(due);
+
+            final VirtualClient client = new VirtualClient(this, this.prefix + index);
+
+            client.setHost(this.host);
+            client.setPorts(this.tcp, this.udp);
+            client.start();
+
+            synchronized (this.clients) {
+                this.clients.add(client);
+            }
+        }
+
+        parkUntil(start + TimeUnit.SECONDS.toNanos(this.duration));
+        scheduler.shutdownNow();
+
+        System.out.print(this.statistics.summary());
+
+        if (this.serverMetrics != null) {
+            this.compareServerMetrics(metricsBefore);
+        }
+
+        synchronized (this.clients) {
+            this.clients.forEach(VirtualClient::stop);
+        }
+    }
+
+    /**
+     * Gibt die Messwerte des Lasttests zurück.
+     * @return die Messwerte des Lasttests.
+     */
+    public @NotNull LoadStatistics getStatistics() {
+        return this.statistics;
+    }
+
+    /**
+     * Gibt das Passwort der virtuellen Clients zurück.
+     * @return Passwort der virtuellen Clients.
+     */
+    public @NotNull String getPassword() {
+        return this.password;
+    }
+
+    /**
+     * Gibt den Namen der Welt zurück, welche die virtuellen Clients betreten.
+     * @return Name der Welt, oder null, wenn die erste verfügbare Welt betreten wird.
+     */
+    public @Nullable String getWorld() {
+        return this.world;
+    }
+
+    /**
+     * Gibt die Anzahl der Bewegungen pro Sekunde und Client zurück.
+     * @return Rate der Bewegungen.
+     */
+    public double getMoveRate() {
+        return this.moveRate;
+    }
+
+    /**
+     * Gibt die Anzahl der Chatnachrichten pro Sekunde und Client zurück.
+     * @return Rate der Chatnachrichten.
+     */
+    public double getChatRate() {
+        return this.chatRate;
+    }
+
+    /**
+     * Gibt die Anzahl der Sprachnachrichten pro Sekunde und Client zurück.
+     * @return Rate der Sprachnachrichten.
+     */
+    public double getAudioRate() {
+        return this.audioRate;
+    }
+
+    /**
+     * Gibt die Größe einer Sprachnachricht in Bytes zurück.
+     * @return Größe einer Sprachnachricht.
+     */
+    public int getAudioSize() {
+        return this.audioSize;
+    }
+
+    /**
+     * Gibt die Anzahl der Videoframes pro Sekunde und Client zurück.
+     * @return Rate der Videoframes.
+     */
+    public double getVideoRate() {
+        return this.videoRate;
+    }
+
+    /**
+     * Gibt die Größe eines Videoframes in Bytes zurück.
+     * @return Größe eines Videoframes.
+     */
+    public int getVideoSize() {
+        return this.videoSize;
+    }
+
+    /**
+     * Wartet auf die nächsten Messwerte, die der Server nach dem Ende des Lasttests schreibt, und vergleicht diese mit
+     * den von den virtuellen Clients versendeten und empfangenen Paketen.
+     * @param before Letzte Messwerte des Servers vor dem Lasttest oder null, falls keine vorhanden waren.
+     */
+    private void compareServerMetrics(@Nullable final String before) {
+        final String last = readLastLine(this.serverMetrics);
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SERVER_METRICS_TIMEOUT);
+        String after = last;
+
+        while ((after == null || after.equals(last)) && System.nanoTime() < deadline) {
+            parkUntil(System.nanoTime() + TimeUnit.SECONDS.toNanos(1));
+            after = readLastLine(this.serverMetrics);
+        }
+
+        if (after == null || after.equals(last)) {
+            System.err.println("Server did not write metrics to " + this.serverMetrics + " after the load test.");
+            return;
+        }
+
+        System.out.print(this.statistics.compare(before, after));
+    }
+
+    private void update() {
+        final VirtualClient[] clients;
+
+        synchronized (this.clients) {
+            clients = this.clients.toArray(new VirtualClient[0]);
+        }
+
+        final long now = System.nanoTime();
+
+        for (final VirtualClient client : clients) {
+            try {
+                client.update(now);
+            } catch (RuntimeException ex) {
+                LOGGER.log(Level.WARNING, "Unhandled exception in virtual client " + client.getUsername(), ex);
+            }
+        }
+    }
+
+    /**
+     * Blockiert den aufrufenden Thread bis zu einem Zeitpunkt. Da LockSupport#parkNanos vorzeitig zurückkehren kann,
+     * wird so lange erneut gewartet, bis der Zeitpunkt erreicht ist.
+     * @param deadline Zeitpunkt im Format von System#nanoTime.
+     */
+    static void parkUntil(final long deadline) {
+        long remaining;
+
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    /**
+     * Liest die letzte Zeile einer Datei.
+     * @param file Zu lesende Datei.
+     * @return die letzte nicht leere Zeile oder null, falls die Datei nicht existiert oder keine Zeile enthält.
+     */
+    static @Nullable String readLastLine(@NotNull final File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String last = null;
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    last = line;
+                }
+            }
+
+            return last;
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Failed to read server metrics from " + file, ex);
+            return null;
+        }
+    }
+
+    public static void main(@NotNull final String[] args) {
+        final OptionParser parser = new OptionParser() {
+            {
+                this.acceptsAll(List.of("?", "help"), "Shows the help");
+
+                this.acceptsAll(List.of("h", "host"), "Host of the server")
+                        .withRequiredArg()
+                        .defaultsTo("localhost")
+                        .describedAs("Host");
+
+                this.acceptsAll(List.of("t", "tcp-port"), "TCP-Port of the server")
+                        .withRequiredArg()
+                        .ofType(Integer.class)
+                        .defaultsTo(54777)
+                        .describedAs("TCP-Port");
+
+                this.acceptsAll(List.of("u", "udp-port"), "UDP-Port of the server")
+                        .withRequiredArg()
+                        .ofType(Integer.class)
+                        .defaultsTo(59001)
+                        .describedAs("UDP-Port");
+
+                this.acceptsAll(List.of("c", "clients"), "Number of virtual clients")
+                        .withRequiredArg()
+                        .ofType(Integer.class)
+                        .defaultsTo(100)
+                        .describedAs("Clients");
+
+                this.acceptsAll(List.of("r", "ramp-up"), "Virtual clients started per second")
+                        .withRequiredArg()
+                        .ofType(Double.class)
+                        .defaultsTo(20.0)
+                        .describedAs("Clients/s");
+
+                this.acceptsAll(List.of("d", "duration"), "Duration of the load test in seconds")
+                        .withRequiredArg()
+                        .ofType(Long.class)
+                        .defaultsTo(60L)
+                        .describedAs("Seconds");
+
+                this.acceptsAll(List.of("w", "world"), "Name of the world to join (default: first world)")
+                        .withRequiredArg()
+                        .describedAs("World");
+
+                this.acceptsAll(List.of("n", "name-prefix"), "Prefix of the usernames of the virtual clients")
+                        .withRequiredArg()
+                        .defaultsTo("load")
+                        .describedAs("Prefix");
+
+                this.acceptsAll(List.of("p", "password"), "Password of the virtual clients")
+                        .withRequiredArg()
+                        .defaultsTo("load")
+                        .describedAs("Password");
+
+                this.acceptsAll(List.of("m", "move-rate"), "Avatar moves per second and client")
+                        .withRequiredArg()
+                        .ofType(Double.class)
+                        .defaultsTo(10.0)
+                        .describedAs("Moves/s");
+
+                this.accepts("chat-rate", "Chat messages per second and client")
+                        .withRequiredArg()
+                        .ofType(Double.class)
+                        .defaultsTo(0.1)
+                        .describedAs("Messages/s");
+
+                this.accepts("audio-rate", "Voice messages per second and client")
+                        .withRequiredArg()
+                        .ofType(Double.class)
+                        .defaultsTo(0.0)
+                        .describedAs("Messages/s");
+
+                this.accepts("audio-size", "Size of a voice message in bytes")
+                        .withRequiredArg()
+                        .ofType(Integer.class)
+                        .defaultsTo(1764)
+                        .describedAs("Bytes");
+
+                this.accepts("video-rate", "Video frames per second and client")
+                        .withRequiredArg()
+                        .ofType(Double.class)
+                        .defaultsTo(0.0)
+                        .describedAs("Frames/s");
+
+                this.accepts("video-size", "Size of a video frame in bytes")
+                        .withRequiredArg()
+                        .ofType(Integer.class)
+                        .defaultsTo(8192)
+                        .describedAs("Bytes");
+
+                this.accepts("server-metrics", "Metrics file of the server to compare with the generated load")
+                        .withRequiredArg()
+                        .ofType(File.class)
+                        .describedAs("File");
+
+                this.accepts("report-interval", "Interval of the reports in seconds")
+                        .withRequiredArg()
+                        .ofType(Long.class)
+                        .defaultsTo(5L)
+                        .describedAs("Seconds");
+            }
+        };
+
+        try {
+            final OptionSet options = parser.parse(args);
+
+            if (options == null || options.has("?")) {
+                try {
+                    parser.printHelpOn(System.out);
+                } catch (IOException ex) {
+                    System.err.println("Failed to print help: " + ex.getMessage());
+                }
+                return;
+            }
+
+            final LoadGenerator generator = new LoadGenerator();
+
+            generator.host = (String) options.valueOf("host");
+            generator.tcp = (int) options.valueOf("tcp-port");
+            generator.udp = (int) options.valueOf("udp-port");
+            generator.clientCount = (int) options.valueOf("clients");
+            generator.rampUp = (double) options.valueOf("ramp-up");
+            generator.duration = (long) options.valueOf("duration");
+            generator.world = options.has("world") ? (String) options.valueOf("world") : null;
+            generator.prefix = (String) options.valueOf("name-prefix");
+            generator.password = (String) options.valueOf("password");
+            generator.moveRate = (double) options.valueOf("move-rate");
+            generator.chatRate = (double) options.valueOf("chat-rate");
+            generator.audioRate = (double) options.valueOf("audio-rate");
+            generator.audioSize = (int) options.valueOf("audio-size");
+            generator.videoRate = (double) options.valueOf("video-rate");
+            generator.videoSize = (int) options.valueOf("video-size");
+            generator.reportInterval = (long) options.valueOf("report-interval");
+            generator.serverMetrics = options.has("server-metrics") ? (File) options.valueOf("server-metrics") : null;
+
+            if (generator.tcp <= 0 || generator.udp <= 0) {
+                System.err.println("TCP- and UDP-Port must be greater than 0.");
+                return;
+            }
+
+            if (generator.clientCount <= 0 || generator.rampUp <= 0 || generator.duration <= 0
+                    || generator.reportInterval <= 0) {
+                System.err.println("Clients, ramp-up, duration and report interval must be greater than 0.");
+                return;
+            }
+
+            if (generator.moveRate < 0 || generator.chatRate < 0 || generator.audioRate < 0 || generator.videoRate < 0) {
+                System.err.println("Rates must not be negative.");
+                return;
+            }
+
+            // Die Benutzernamen müssen dem Format der Benutzernamen des Servers entsprechen.
+            if (!(generator.prefix + (generator.clientCount - 1)).matches("^\\w{2,16}$")) {
+                System.err.println("Name-Prefix must only contain word characters and leave room for the client index.");
+                return;
+            }
+
+            if (!generator.password.matches("^.{4,32}$")) {
+                System.err.println("Password must contain between 4 and 32 characters.");
+                return;
+            }
+
+            // Sprachnachrichten und Videoframes werden über UDP in einem einzelnen Datagramm versendet.
+            if (generator.audioSize <= 0 || generator.videoSize <= 0
+                    || Math.max(generator.audioSize, generator.videoSize) > VirtualClient.WRITE_BUFFER_SIZE / 2) {
+                System.err.println("Audio- and Video-Size must be between 1 and " + VirtualClient.WRITE_BUFFER_SIZE / 2 + " bytes.");
+                return;
+            }
+
+            generator.run();
+        } catch (OptionException ex) {
+            System.err.println("Failed to parse arguments: " + ex.getMessage());
+        } catch (Exception ex) {
+            LOGGER.log(Level.SEVERE, "Exception while running load generator", ex);
+        }
+    }
+}
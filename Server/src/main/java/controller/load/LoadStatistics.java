@@ -0,0 +1,307 @@
+package controller.load;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Eine Klasse, welche die Messwerte aller virtuellen Clients eines Lasttests sammelt und auswertet.
+ * <p>
+ *     Gezählt werden die versendeten und empfangenen Pakete je Pakettyp. Die empfangenen Pakete entsprechen dabei den
+ *     Paketen, die der Server an die virtuellen Clients versendet. Die Latenzen werden je Messgröße erfasst und für
+ *     jedes Intervall der Auswertung neu ermittelt.
+ * </p>
+ */
+public class LoadStatistics {
+
+    /** Maximale Anzahl an Latenzen, die je Messgröße und Intervall gespeichert werden. */
+    private static final int SAMPLE_LIMIT = 65536;
+
+    /** Muster der empfangenen und versendeten Pakete eines Pakettyps in den Messwerten des Servers. */
+    private static final Pattern SERVER_PACKET = Pattern.compile("\"(\\w+)\":\\{\"received\":(\\d+),\"sent\":(\\d+)");
+
+    private final Map<String, LongAdder> sentPackets;
+    private final Map<String, LongAdder> receivedPackets;
+    private final Map<String, Long> reportedSent;
+    private final Map<String, Long> reportedReceived;
+    private final Map<String, Latency> intervalLatencies;
+    private final Map<String, Latency> totalLatencies;
+
+    private final AtomicInteger connectedClients;
+    private final AtomicInteger loggedInClients;
+    private final AtomicInteger joinedClients;
+    private final AtomicInteger failedClients;
+
+    private final long started;
+    private long reported;
+
+    /**
+     * Erzeugt eine neue Instanz der LoadStatistics.
+     */
+    public LoadStatistics() {
+        this.sentPackets = new ConcurrentHashMap<>();
+        this.receivedPackets = new ConcurrentHashMap<>();
+        this.reportedSent = new TreeMap<>();
+        this.reportedReceived = new TreeMap<>();
+        this.intervalLatencies = new ConcurrentHashMap<>();
+        this.totalLatencies = new ConcurrentHashMap<>();
+        this.connectedClients = new AtomicInteger();
+        this.loggedInClients = new AtomicInteger();
+        this.joinedClients = new AtomicInteger();
+        this.failedClients = new AtomicInteger();
+        this.started = System.nanoTime();
+        this.reported = this.started;
+    }
+
+    /**
+     * Zählt ein versendetes Paket.
+     * @param packet das versendete Paket.
+     */
+    public void sent(@NotNull final Object packet) {
+        this.sentPackets.computeIfAbsent(packet.getClass().getSimpleName(), type -> new LongAdder()).increment();
+    }
+
+    /**
+     * Zählt ein empfangenes Paket.
+     * @param packet das empfangene Paket.
+     */
+    public void received(@NotNull final Object packet) {
+        this.receivedPackets.computeIfAbsent(packet.getClass().getSimpleName(), type -> new LongAdder()).increment();
+    }
+
+    /**
+     * Erfasst eine gemessene Latenz.
+     * @param metric Name der Messgröße.
+     * @param nanos gemessene Latenz in Nanosekunden.
+     */
+    public void latency(@NotNull final String metric, final long nanos) {
+        this.intervalLatencies.computeIfAbsent(metric, name -> new Latency()).add(nanos);
+        this.totalLatencies.computeIfAbsent(metric, name -> new Latency()).add(nanos);
+    }
+
+    /**
+     * Gibt den Zähler der verbundenen Clients zurück.
+     * @return Anzahl der verbundenen Clients.
+     */
+    public @NotNull AtomicInteger getConnectedClients() {
+        return this.connectedClients;
+    }
+
+    /**
+     * Gibt den Zähler der angemeldeten Clients zurück.
+     * @return Anzahl der angemeldeten Clients.
+     */
+    public @NotNull AtomicInteger getLoggedInClients() {
+        return this.loggedInClients;
+    }
+
+    /**
+     * Gibt den Zähler der Clients zurück, die einer Welt beigetreten sind.
+     * @return Anzahl der Clients innerhalb einer Welt.
+     */
+    public @NotNull AtomicInteger getJoinedClients() {
+        return this.joinedClients;
+    }
+
+    /**
+     * Gibt den Zähler der Clients zurück, die nicht verbunden, angemeldet oder beigetreten werden konnten.
+     * @return Anzahl der fehlgeschlagenen Clients.
+     */
+    public @NotNull AtomicInteger getFailedClients() {
+        return this.failedClients;
+    }
+
+    /**
+     * Erzeugt die Auswertung des Intervalls seit der letzten Auswertung.
+     * @return die Auswertung des Intervalls.
+     */
+    public synchronized @NotNull String report() {
+        final long now = System.nanoTime();
+        final double seconds = Math.max(1, now - this.reported) / 1e9;
+        final StringBuilder builder = new StringBuilder();
+
+        builder.append(String.format("[%4ds] clients: connected=%d, logged in=%d, joined=%d, failed=%d%n",
+                TimeUnit.NANOSECONDS.toSeconds(now - this.started), this.connectedClients.get(),
+                this.loggedInClients.get(), this.joinedClients.get(), this.failedClients.get()));
+        builder.append(String.format("  sent:     %s%n", rates(this.sentPackets, this.reportedSent, seconds)));
+        builder.append(String.format("  received: %s%n", rates(this.receivedPackets, this.reportedReceived, seconds)));
+        builder.append("  latency:  ").append(latencies(this.intervalLatencies, true));
+
+        this.reported = now;
+        return builder.toString();
+    }
+
+    /**
+     * Erzeugt die Auswertung über die gesamte Dauer des Lasttests.
+     * @return die Auswertung des Lasttests.
+     */
+    public synchronized @NotNull String summary() {
+        final double seconds = Math.max(1, System.nanoTime() - this.started) / 1e9;
+        final StringBuilder builder = new StringBuilder();
+
+        builder.append(String.format("Summary after %.0fs: joined=%d, failed=%d%n", seconds,
+                this.joinedClients.get(), this.failedClients.get()));
+        builder.append(String.format("  sent:     %s%n", rates(this.sentPackets, new TreeMap<>(), seconds)));
+        builder.append(String.format("  received: %s%n", rates(this.receivedPackets, new TreeMap<>(), seconds)));
+        builder.append("  latency:  ").append(latencies(this.totalLatencies, false));
+
+        return builder.toString();
+    }
+
+    /**
+     * Vergleicht die von den virtuellen Clients versendeten und empfangenen Pakete mit den Messwerten des Servers. Die
+     * Messwerte des Servers werden im Format von ServerMetrics#toJson erwartet. Da der Server seine Messwerte seit
+     * seinem Start erfasst, werden die Differenzen der Messwerte vor und nach dem Lasttest verglichen.
+     * @param before Messwerte des Servers vor dem Lasttest oder null, falls der Server noch keine Messwerte erfasst hat.
+     * @param after Messwerte des Servers nach dem Lasttest.
+     * @return der Vergleich je Pakettyp.
+     */
+    public synchronized @NotNull String compare(@Nullable final String before, @NotNull final String after) {
+        final Map<String, long[]> server = parseServerPackets(after);
+        final Map<String, long[]> previous = before != null ? parseServerPackets(before) : Map.of();
+        final StringBuilder builder = new StringBuilder();
+
+        // Die vom Server empfangenen Pakete entsprechen den von den Clients versendeten Paketen und umgekehrt.
+        builder.append(String.format("Server comparison:%n"));
+        builder.append(String.format("  clients sent / server received: %s%n",
+                comparison(this.sentPackets, server, previous, 0)));
+        builder.append(String.format("  clients received / server sent: %s%n",
+                comparison(this.receivedPackets, server, previous, 1)));
+
+        return builder.toString();
+    }
+
+    /**
+     * Liest die Anzahl der empfangenen und versendeten Pakete je Pakettyp aus den Messwerten des Servers.
+     * @param json Messwerte des Servers im Format von ServerMetrics#toJson.
+     * @return Anzahl der empfangenen und versendeten Pakete je Pakettyp.
+     */
+    static @NotNull Map<String, long[]> parseServerPackets(@NotNull final String json) {
+        final Map<String, long[]> packets = new TreeMap<>();
+        final Matcher matcher = SERVER_PACKET.matcher(json);
+
+        while (matcher.find()) {
+            packets.put(matcher.group(1), new long[]{Long.parseLong(matcher.group(2)), Long.parseLong(matcher.group(3))});
+        }
+
+        return packets;
+    }
+
+    private static @NotNull String comparison(@NotNull final Map<String, LongAdder> counters,
+                                              @NotNull final Map<String, long[]> server,
+                                              @NotNull final Map<String, long[]> previous, final int index) {
+        final StringJoiner joiner = new StringJoiner(", ");
+
+        for (final Map.Entry<String, LongAdder> counter : new TreeMap<>(counters).entrySet()) {
+            final long count = counter.getValue().sum();
+            final long[] total = server.get(counter.getKey());
+            final long[] last = previous.get(counter.getKey());
+
+            if (total == null) {
+                joiner.add(String.format("%s=%d/-", counter.getKey().replace("Packet", ""), count));
+                continue;
+            }
+
+            // Wurden die Messwerte des Servers zwischenzeitlich zurückgesetzt, so wird ab dem Zurücksetzen gezählt.
+            final long serverCount = last != null && last[index] <= total[index] ? total[index] - last[index] : total[index];
+
+            joiner.add(String.format("%s=%d/%d (%.1f%%)", counter.getKey().replace("Packet", ""), count, serverCount,
+                    count > 0 ? 100.0 * serverCount / count : 0));
+        }
+
+        return joiner.toString();
+    }
+
+    private static @NotNull String rates(@NotNull final Map<String, LongAdder> counters,
+                                         @NotNull final Map<String, Long> previous, final double seconds) {
+        final StringBuilder builder = new StringBuilder();
+        long total = 0;
+
+        for (final Map.Entry<String, LongAdder> counter : new TreeMap<>(counters).entrySet()) {
+            final long count = counter.getValue().sum();
+            final Long last = previous.put(counter.getKey(), count);
+            final long delta = count - (last != null ? last : 0);
+
+            total += delta;
+            builder.append(String.format(", %s=%.1f/s", counter.getKey().replace("Packet", ""), delta / seconds));
+        }
+
+        return String.format("%.1f packets/s", total / seconds) + builder;
+    }
+
+    private static @NotNull String latencies(@NotNull final Map<String, Latency> latencies, final boolean reset) {
+        final StringBuilder builder = new StringBuilder();
+
+        for (final Map.Entry<String, Latency> latency : new TreeMap<>(latencies).entrySet()) {
+            final long[] samples = latency.getValue().snapshot(reset);
+
+            if (samples.length == 0) {
+                continue;
+            }
+
+            Arrays.sort(samples);
+            builder.append(String.format("%s p50=%.2fms p99=%.2fms (n=%d); ", latency.getKey(),
+                    percentile(samples, 0.5) / 1e6, percentile(samples, 0.99) / 1e6, samples.length));
+        }
+
+        return builder.append(System.lineSeparator()).toString();
+    }
+
+    private static long percentile(final long[] sorted, final double percentile) {
+        return sorted[Math.min(sorted.length - 1, Math.max(0, (int) Math.ceil(percentile * sorted.length) - 1))];
+    }
+
+    /**
+     * Eine Klasse, welche die Latenzen einer Messgröße speichert. Wird die maximale Anzahl an Latenzen überschritten,
+     * so werden zufällig gewählte Latenzen ersetzt, sodass die gespeicherten Latenzen eine gleichverteilte
+     * Stichprobe bleiben.
+     */
+    private static class Latency {
+
+        private long[] samples;
+        private int size;
+        private long count;
+
+        public Latency() {
+            this.samples = new long[1024];
+        }
+
+        public synchronized void add(final long nanos) {
+            this.count++;
+
+            if (this.size < this.samples.length) {
+                this.samples[this.size++] = nanos;
+            } else if (this.size < SAMPLE_LIMIT) {
+                this.samples = Arrays.copyOf(this.samples, Math.min(SAMPLE_LIMIT, this.samples.length * 2));
+                this.samples[this.size++] = nanos;
+            } else {
+                final long index = ThreadLocalRandom.current().nextLong(this.count);
+
+                if (index < this.size) {
+                    this.samples[(int) index] = nanos;
+                }
+            }
+        }
+
+        public synchronized long[] snapshot(final boolean reset) {
+            final long[] snapshot = Arrays.copyOf(this.samples, this.size);
+
+            if (reset) {
+                this.size = 0;
+                this.count = 0;
+            }
+
+            return snapshot;
+        }
+    }
+}
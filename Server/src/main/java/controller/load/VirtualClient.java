@@ -0,0 +1,657 @@
+package controller.load;
+
+import com.esotericsoftware.kryonet.Client;
+import com.esotericsoftware.kryonet.Connection;
+import controller.network.NetworkManager;
+import controller.network.PacketSerialization;
+import controller.network.protocol.AvatarStateCodec;
+import controller.network.protocol.ChunkReceiver;
+import controller.network.protocol.Packet;
+import controller.network.protocol.PacketAudioCodec;
+import controller.network.protocol.PacketAudioMessage;
+import controller.network.protocol.PacketAvatarMove;
+import controller.network.protocol.PacketAvatarMove.AvatarAction;
+import controller.network.protocol.PacketChatMessage;
+import controller.network.protocol.PacketChunk;
+import controller.network.protocol.PacketChunkCredit;
+import controller.network.protocol.PacketImageChunk;
+import controller.network.protocol.PacketInViewport;
+import controller.network.protocol.PacketListener;
+import controller.network.protocol.PacketListenerOut;
+import controller.network.protocol.PacketMenuOption;
+import controller.network.protocol.PacketNotificationResponse;
+import controller.network.protocol.PacketOutAvatarMoves;
+import controller.network.protocol.PacketOutAvatarMoves.AvatarMove;
+import controller.network.protocol.PacketOutCommunicable;
+import controller.network.protocol.PacketOutContextInfo;
+import controller.network.protocol.PacketOutContextJoin;
+import controller.network.protocol.PacketOutContextList;
+import controller.network.protocol.PacketOutContextList.ContextInfo;
+import controller.network.protocol.PacketOutContextRole;
+import controller.network.protocol.PacketOutMenuAction;
+import controller.network.protocol.PacketOutNotification;
+import controller.network.protocol.PacketOutUserInfo;
+import controller.network.protocol.PacketOutWorldSnapshot;
+import controller.network.protocol.PacketProfileAction;
+import controller.network.protocol.PacketUserTyping;
+import controller.network.protocol.PacketVideoFrame;
+import controller.network.protocol.PacketVideoTileFrame;
+import controller.network.protocol.PacketWorldAction;
+import model.context.spatial.Direction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Ein virtueller Client ohne Darstellung, der das Verhalten eines Benutzers für einen Lasttest nachbildet.
+ * <p>
+ *     Der Client registriert und meldet sich an, betritt eine Welt und bewegt sich anschließend auf zufälligen Wegen
+ *     durch den Raum, wobei die Kollisionen der Karte beachtet werden. Zusätzlich versendet der Client in den
+ *     konfigurierten Raten Chatnachrichten sowie synthetische Sprachnachrichten und Videoframes.
+ * </p>
+ * <p>
+ *     Die Latenz der Bewegungen und Chatnachrichten wird anhand der Bestätigungen des Servers als Round-Trip-Zeit
+ *     gemessen. Beim Betreten der Welt wird die Zeit bis zum Erscheinen des eigenen Avatars gemessen. Da alle
+ *     virtuellen Clients in der gleichen Anwendung laufen, enthalten die synthetischen Sprach- und Videodaten den
+ *     Zeitpunkt ihres Versands, sodass die empfangenden Clients die Zustellzeit ermitteln können.
+ * </p>
+ */
+public class VirtualClient extends NetworkManager<Client> implements PacketListenerOut {
+
+    private static final Logger LOGGER = Logger.getLogger("chati.load");
+
+    /** Größe des Puffers für zu versendende Daten. Kleiner als beim Client, da tausende Clients gestartet werden. */
+    static final int WRITE_BUFFER_SIZE = (int) Math.pow(2, 16);
+
+    /** Größe des Puffers für ein einzelnes empfangenes Paket. */
+    static final int OBJECT_BUFFER_SIZE = (int) Math.pow(2, 17);
+
+    /** Maximale Größe eines in Abschnitten empfangenen Pakets in Bytes. */
+    private static final int MAX_TRANSFER_SIZE = 1 << 24;
+
+    private static final String CHAT_PREFIX = "load ";
+    private static final int MEDIA_MAGIC = 0x4C4F4144;
+    private static final int MEDIA_HEADER = Integer.BYTES + Long.BYTES;
+    private static final int PENDING_MOVES = 64;
+
+    private static final float WALK_SPEED = 100;
+    private static final float VIEWPORT_WIDTH = 1280;
+    private static final float VIEWPORT_HEIGHT = 720;
+    private static final long MIN_WALK_TIME = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final long MAX_WALK_TIME = TimeUnit.SECONDS.toNanos(3);
+
+    private final LoadGenerator generator;
+    private final LoadStatistics statistics;
+    private final String username;
+    private final AvatarStateCodec avatarCodec;
+    private final ChunkReceiver receiver;
+    private final Map<Long, Long> pendingMoves;
+
+    private volatile State state;
+    private UUID userId;
+    private CollisionMap collisions;
+
+    private Direction direction;
+    private float posX;
+    private float posY;
+    private boolean movable;
+
+    private long nextMove;
+    private long nextTurn;
+    private long nextChat;
+    private long nextAudio;
+    private long nextVideo;
+    private long joinRequested;
+
+    /**
+     * Erzeugt eine neue Instanz des VirtualClient.
+     * @param generator Lastgenerator, dessen Einstellungen verwendet werden.
+     * @param username Benutzername, mit dem sich der Client registriert und anmeldet.
+     */
+    public VirtualClient(@NotNull final LoadGenerator generator, @NotNull final String username) {
+        this(generator, username, new PacketSerialization());
+    }
+
+    private VirtualClient(@NotNull final LoadGenerator generator, @NotNull final String username,
+                          @NotNull final PacketSerialization serialization) {
+        super(new Client(WRITE_BUFFER_SIZE, OBJECT_BUFFER_SIZE, serialization), serialization);
+
+        this.generator = generator;
+        this.statistics = generator.getStatistics();
+        this.username = username;
+        this.avatarCodec = new AvatarStateCodec();
+        this.receiver = new ChunkReceiver(serialization, MAX_TRANSFER_SIZE, this.endPoint::sendTCP);
+        this.pendingMoves = new LinkedHashMap<>(PENDING_MOVES, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(@NotNull final Map.Entry<Long, Long> eldest) {
+                return this.size() > PENDING_MOVES;
+            }
+        };
+        this.state = State.DISCONNECTED;
+        this.direction = Direction.DOWN;
+    }
+
+    @Override
+    public void start() {
+        if (this.active) {
+            return;
+        }
+
+        // Der Verbindungsaufbau darf nicht synchronisiert erfolgen, da der Netzwerk-Thread des Clients währenddessen
+        // bereits Pakete empfangen kann.
+        try {
+            this.active = true;
+            this.state = State.CONNECTING;
+            this.endPoint.start();
+            this.endPoint.connect(5000, this.host, this.tcp, this.udp);
+            this.statistics.getConnectedClients().incrementAndGet();
+
+            // Das Konto kann bereits aus einem vorherigen Lasttest existieren. Die Anmeldung erfolgt daher in jedem Fall.
+            this.state = State.REGISTERING;
+            this.send(new PacketProfileAction(this.username, this.generator.getPassword(), true));
+        } catch (IOException ex) {
+            this.fail("Failed to connect to server: " + ex.getMessage());
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (!this.active) {
+            return;
+        }
+
+        this.active = false;
+        this.endPoint.stop();
+    }
+
+    @Override
+    public void disconnected(@NotNull final Connection connection) {
+        final State previous = this.state;
+
+        if (previous == State.FAILED || previous == State.DISCONNECTED) {
+            return;
+        }
+
+        this.state = State.DISCONNECTED;
+
+        if (previous != State.CONNECTING) {
+            this.statistics.getConnectedClients().decrementAndGet();
+        }
+
+        if (previous == State.JOINED) {
+            this.statistics.getJoinedClients().decrementAndGet();
+        }
+
+        if (previous == State.JOINED || previous == State.JOINING || previous == State.LOGGED_IN) {
+            this.statistics.getLoggedInClients().decrementAndGet();
+        }
+
+        if (this.active) {
+            LOGGER.warning("Client " + this.username + " lost connection to server in state " + previous);
+        }
+    }
+
+    @Override
+    public void received(@NotNull final Connection connection, @NotNull final Object object) {
+        if (object instanceof Packet<?>) {
+            this.statistics.received(object);
+
+            try {
+                synchronized (this) {
+                    call((Packet<?>) object, this);
+                }
+            } catch (ClassCastException ex) {
+                LOGGER.warning("Client " + this.username + " received unexpected packet: " + object);
+            }
+        }
+    }
+
+    /**
+     * Führt die Aktionen des Clients aus, die bis zum übergebenen Zeitpunkt fällig sind.
+     * @param now aktueller Zeitpunkt in Nanosekunden.
+     */
+    public synchronized void update(final long now) {
+        if (this.state != State.JOINED || this.collisions == null) {
+            return;
+        }
+
+        final long moveInterval = interval(this.generator.getMoveRate());
+        final long chatInterval = interval(this.generator.getChatRate());
+        final long audioInterval = interval(this.generator.getAudioRate());
+        final long videoInterval = interval(this.generator.getVideoRate());
+
+        if (moveInterval > 0 && this.movable && now >= this.nextMove) {
+            this.walk(now, this.generator.getMoveRate());
+            this.nextMove = Math.max(this.nextMove + moveInterval, now - moveInterval);
+        }
+
+        if (chatInterval > 0 && now >= this.nextChat) {
+            this.send(new PacketChatMessage(CHAT_PREFIX + System.nanoTime()));
+            this.nextChat = Math.max(this.nextChat + chatInterval, now - chatInterval);
+        }
+
+        if (audioInterval > 0 && now >= this.nextAudio) {
+            this.send(new PacketAudioMessage(media(this.generator.getAudioSize())));
+            this.nextAudio = Math.max(this.nextAudio + audioInterval, now - audioInterval);
+        }
+
+        if (videoInterval > 0 && now >= this.nextVideo) {
+            this.send(new PacketVideoFrame(false, media(this.generator.getVideoSize())));
+            this.nextVideo = Math.max(this.nextVideo + videoInterval, now - videoInterval);
+        }
+    }
+
+    /**
+     * Gibt den Benutzernamen des Clients zurück.
+     * @return Benutzername des Clients.
+     */
+    public @NotNull String getUsername() {
+        return this.username;
+    }
+
+    @Override
+    public void handle(@NotNull final PacketProfileAction packet) {
+        switch (packet.getAction()) {
+            case REGISTER:
+                if (this.state == State.REGISTERING) {
+                    this.state = State.LOGGING_IN;
+                    this.send(new PacketProfileAction(this.username, this.generator.getPassword(), false));
+                }
+                break;
+
+            case LOGIN:
+                if (this.state != State.LOGGING_IN) {
+                    break;
+                }
+
+                if (packet.isSuccess() && packet.getUserId() != null) {
+                    this.userId = packet.getUserId();
+                    this.state = State.LOGGED_IN;
+                    this.statistics.getLoggedInClients().incrementAndGet();
+                } else {
+                    this.fail("Failed to login: " + packet.getMessage());
+                }
+                break;
+
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void handle(@NotNull final PacketOutContextList packet) {
+        // Nach der Anmeldung erhält der Client die Liste der Welten, deren Kontext-ID nicht gesetzt ist.
+        if (this.state != State.LOGGED_IN || packet.getContextId() != null) {
+            return;
+        }
+
+        final ContextInfo world = this.selectWorld(packet.getInfos());
+
+        if (world == null) {
+            this.fail("Found no world to join" + (this.generator.getWorld() != null
+                    ? " with name " + this.generator.getWorld() : ""));
+            return;
+        }
+
+        this.state = State.JOINING;
+        this.joinRequested = System.nanoTime();
+        this.send(new PacketWorldAction(PacketWorldAction.Action.JOIN, world.getContextId()));
+    }
+
+    @Override
+    public void handle(@NotNull final PacketWorldAction packet) {
+        if (this.state == State.JOINING && packet.getAction() == PacketWorldAction.Action.JOIN && !packet.isSuccess()) {
+            this.fail("Failed to join world: " + packet.getMessage());
+        }
+    }
+
+    @Override
+    public void handle(@NotNull final PacketOutContextJoin packet) {
+        this.avatarCodec.reset();
+
+        if (!packet.isJoin() || packet.getMap() == null) {
+            return;
+        }
+
+        try {
+            this.collisions = CollisionMap.get(packet.getMap());
+            this.send(new PacketInViewport(VIEWPORT_WIDTH, VIEWPORT_HEIGHT));
+        } catch (IllegalStateException ex) {
+            this.fail(ex.getMessage());
+        }
+    }
+
+    @Override
+    public void handle(@NotNull final PacketAvatarMove packet) {
+        if (packet.getAction() == AvatarAction.REMOVE_AVATAR && packet.getUserId() != null) {
+            this.avatarCodec.remove(packet.getUserId());
+        }
+
+        if (packet.getAction() != AvatarAction.SPAWN_AVATAR || this.userId == null
+                || !this.userId.equals(packet.getUserId())) {
+            return;
+        }
+
+        // Der eigene Avatar wurde erzeugt, teleportiert oder auf eine erlaubte Position zurückgesetzt.
+        this.posX = packet.getPosX();
+        this.posY = packet.getPosY();
+        this.direction = packet.getDirection() != null ? packet.getDirection() : this.direction;
+        this.movable = packet.isMovable();
+        this.pendingMoves.clear();
+
+        if (this.state == State.JOINING) {
+            final long now = System.nanoTime();
+
+            this.state = State.JOINED;
+            this.statistics.getJoinedClients().incrementAndGet();
+            this.statistics.latency("join", now - this.joinRequested);
+
+            // Die Aktionen der Clients werden zufällig verteilt, damit nicht alle Clients gleichzeitig senden.
+            this.nextMove = now + random(interval(this.generator.getMoveRate()));
+            this.nextChat = now + random(interval(this.generator.getChatRate()));
+            this.nextAudio = now + random(interval(this.generator.getAudioRate()));
+            this.nextVideo = now + random(interval(this.generator.getVideoRate()));
+        }
+    }
+
+    @Override
+    public void handle(@NotNull final PacketOutAvatarMoves packet) {
+        try {
+            packet.decode(this.avatarCodec);
+        } catch (IllegalArgumentException ex) {
+            this.fail("Failed to decode avatar moves: " + ex.getMessage());
+            return;
+        }
+
+        for (final AvatarMove move : packet.getMoves()) {
+            if (move.getUserId().equals(this.userId)) {
+                // Der Server bestätigt nur die zuletzt empfangene Bewegung, ältere Bewegungen bleiben unbestätigt.
+                final Long sent = this.pendingMoves.remove(key(move.getPosX(), move.getPosY()));
+
+                if (sent != null) {
+                    this.statistics.latency("move", System.nanoTime() - sent);
+                }
+
+                this.movable = move.isMovable();
+            }
+        }
+    }
+
+    @Override
+    public void handle(@NotNull final PacketChatMessage packet) {
+        final String message = packet.getMessage();
+
+        if (message == null || !message.startsWith(CHAT_PREFIX) || this.userId == null
+                || !this.userId.equals(packet.getSenderId())) {
+            return;
+        }
+
+        try {
+            this.statistics.latency("chat", System.nanoTime() - Long.parseLong(message.substring(CHAT_PREFIX.length())));
+        } catch (NumberFormatException ignored) {
+
+        }
+    }
+
+    @Override
+    public void handle(@NotNull final PacketImageChunk packet) {
+        // Virtuelle Clients fordern keine Bildanhänge an.
+    }
+
+    @Override
+    public void handle(@NotNull final PacketChunk packet) {
+        final Packet<?> completed;
+
+        try {
+            completed = this.receiver.receive(packet);
+        } catch (IllegalArgumentException ex) {
+            this.fail("Received invalid chunk: " + ex.getMessage());
+            return;
+        }
+
+        if (completed != null) {
+            this.received(this.endPoint, completed);
+        }
+    }
+
+    @Override
+    public void handle(@NotNull final PacketChunkCredit packet) {
+        // Virtuelle Clients versenden keine Abschnitte.
+    }
+
+    @Override
+    public void handle(@NotNull final PacketAudioMessage packet) {
+        this.measure("audio", packet.getAudioData());
+    }
+
+    @Override
+    public void handle(@NotNull final PacketAudioCodec packet) {
+        // Die Sprachnachrichten der virtuellen Clients enthalten Messdaten und werden daher nicht kodiert.
+    }
+
+    @Override
+    public void handle(@NotNull final PacketVideoFrame packet) {
+        this.measure("video", packet.getFrameData());
+    }
+
+    @Override
+    public void handle(@NotNull final PacketVideoTileFrame packet) {
+        this.measure("video", packet.getTileData());
+    }
+
+    @Override
+    public void handle(@NotNull final PacketOutCommunicable packet) {
+
+    }
+
+    @Override
+    public void handle(@NotNull final PacketOutContextInfo packet) {
+
+    }
+
+    @Override
+    public void handle(@NotNull final PacketOutContextRole packet) {
+
+    }
+
+    @Override
+    public void handle(@NotNull final PacketOutMenuAction packet) {
+
+    }
+
+    @Override
+    public void handle(@NotNull final PacketOutNotification packet) {
+
+    }
+
+    @Override
+    public void handle(@NotNull final PacketOutUserInfo packet) {
+
+    }
+
+    @Override
+    public void handle(@NotNull final PacketOutWorldSnapshot packet) {
+
+    }
+
+    @Override
+    public void handle(@NotNull final PacketMenuOption packet) {
+
+    }
+
+    @Override
+    public void handle(@NotNull final PacketNotificationResponse packet) {
+
+    }
+
+    @Override
+    public void handle(@NotNull final PacketUserTyping packet) {
+
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return this.getClass().getSimpleName() + "{username=" + this.username + ", state=" + this.state + "}";
+    }
+
+    /**
+     * Bewegt den Avatar einen Schritt in seine aktuelle Richtung. Ist der Weg versperrt oder ist die Zeit für die
+     * aktuelle Richtung abgelaufen, so wird eine neue zufällige Richtung gewählt.
+     * @param now aktueller Zeitpunkt in Nanosekunden.
+     * @param rate Anzahl der Bewegungen pro Sekunde.
+     */
+    private void walk(final long now, final double rate) {
+        final float step = (float) (WALK_SPEED / rate);
+
+        for (int attempt = 0; attempt < Direction.values().length; attempt++) {
+            if (attempt > 0 || now >= this.nextTurn) {
+                this.direction = Direction.values()[ThreadLocalRandom.current().nextInt(Direction.values().length)];
+                this.nextTurn = now + ThreadLocalRandom.current().nextLong(MIN_WALK_TIME, MAX_WALK_TIME);
+            }
+
+            float posX = this.posX;
+            float posY = this.posY;
+
+            switch (this.direction) {
+                case UP:
+                    posY += step;
+                    break;
+
+                case RIGHT:
+                    posX += step;
+                    break;
+
+                case DOWN:
+                    posY -= step;
+                    break;
+
+                case LEFT:
+                    posX -= step;
+                    break;
+            }
+
+            if (this.collisions.isLegal(posX, posY)) {
+                this.posX = posX;
+                this.posY = posY;
+                this.pendingMoves.put(key(posX, posY), System.nanoTime());
+                this.send(new PacketAvatarMove(this.direction, posX, posY, false));
+                return;
+            }
+        }
+    }
+
+    private @Nullable ContextInfo selectWorld(@NotNull final ContextInfo[] worlds) {
+        for (final ContextInfo world : worlds) {
+            if (this.generator.getWorld() == null || this.generator.getWorld().equals(world.getName())) {
+                return world;
+            }
+        }
+
+        return null;
+    }
+
+    private void measure(@NotNull final String metric, final byte[] data) {
+        if (data == null || data.length < MEDIA_HEADER) {
+            return;
+        }
+
+        final ByteBuffer buffer = ByteBuffer.wrap(data);
+
+        if (buffer.getInt() == MEDIA_MAGIC) {
+            this.statistics.latency(metric, System.nanoTime() - buffer.getLong());
+        }
+    }
+
+    private void send(@NotNull final Packet<?> packet) {
+        if (!this.endPoint.isConnected()) {
+            return;
+        }
+
+        if (packet instanceof PacketAudioMessage || packet instanceof PacketVideoFrame
+                || packet instanceof PacketVideoTileFrame) {
+            this.endPoint.sendUDP(packet);
+        } else {
+            this.endPoint.sendTCP(packet);
+        }
+
+        this.statistics.sent(packet);
+    }
+
+    private void fail(@NotNull final String reason) {
+        final State previous = this.state;
+
+        this.state = State.FAILED;
+        this.statistics.getFailedClients().incrementAndGet();
+
+        if (previous != State.CONNECTING && previous != State.DISCONNECTED) {
+            this.statistics.getConnectedClients().decrementAndGet();
+        }
+
+        if (previous == State.JOINED) {
+            this.statistics.getJoinedClients().decrementAndGet();
+        }
+
+        if (previous == State.JOINED || previous == State.JOINING || previous == State.LOGGED_IN) {
+            this.statistics.getLoggedInClients().decrementAndGet();
+        }
+
+        LOGGER.log(Level.WARNING, "Client " + this.username + " failed: " + reason);
+        this.endPoint.close();
+    }
+
+    private static byte[] media(final int size) {
+        final byte[] data = new byte[Math.max(MEDIA_HEADER, size)];
+
+        ThreadLocalRandom.current().nextBytes(data);
+        ByteBuffer.wrap(data).putInt(MEDIA_MAGIC).putLong(System.nanoTime());
+        return data;
+    }
+
+    private static long interval(final double rate) {
+        return rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / rate) : 0;
+    }
+
+    private static long random(final long bound) {
+        return bound > 0 ? ThreadLocalRandom.current().nextLong(bound) : 0;
+    }
+
+    private static long key(final float posX, final float posY) {
+        return ((long) AvatarStateCodec.quantize(posX) << Integer.SIZE) | (AvatarStateCodec.quantize(posY) & 0xFFFFFFFFL);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends PacketListener> void call(@NotNull final Packet<T> packet,
+                                                        @NotNull final PacketListener listener) {
+        packet.call((T) listener);
+    }
+
+    /**
+     * Eine Enumeration für die Zustände eines virtuellen Clients.
+     */
+    private enum State {
+
+        DISCONNECTED,
+
+        CONNECTING,
+
+        REGISTERING,
+
+        LOGGING_IN,
+
+        LOGGED_IN,
+
+        JOINING,
+
+        JOINED,
+
+        FAILED
+    }
+}
@@ -0,0 +1,164 @@
+package controller.metrics;
+
+import org.jetbrains.annotations.NotNull;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ein Histogramm, welches nicht-negative Messwerte ohne Sperren in logarithmisch-linearen Klassen zählt.
+ * <p>
+ *     Jede Zweierpotenz wird in {@link #SUB_BUCKETS} gleich breite Klassen unterteilt, sodass die Perzentile mit
+ *     einem relativen Fehler von höchstens 1/{@link #SUB_BUCKETS} ermittelt werden, unabhängig von der Größenordnung
+ *     der Messwerte. Werte unterhalb von {@link #SUB_BUCKETS} werden exakt gezählt.
+ * </p>
+ */
+public class Histogram {
+
+    /** Anzahl der Klassen je Zweierpotenz. */
+    static final int SUB_BUCKETS = 16;
+    private static final int SUB_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+
+    /** Höchstes gesetztes Bit der erfassten Werte. Größere Werte werden in der letzten Klasse gezählt. */
+    private static final int MAX_BIT = 47;
+
+    private final AtomicLongArray buckets;
+    private final LongAdder count;
+    private final LongAdder sum;
+    private final LongAccumulator max;
+
+    public Histogram() {
+        this.buckets = new AtomicLongArray(index((1L << (MAX_BIT + 1)) - 1) + 1);
+        this.count = new LongAdder();
+        this.sum = new LongAdder();
+        this.max = new LongAccumulator(Math::max, 0);
+    }
+
+    /**
+     * Erfasst einen Messwert.
+     * @param value der erfasste Messwert. Negative Werte werden als 0 gezählt.
+     */
+    public void record(final long value) {
+        final long clamped = Math.max(0, Math.min(value, (1L << (MAX_BIT + 1)) - 1));
+
+        this.buckets.incrementAndGet(index(clamped));
+        this.count.increment();
+        this.sum.add(clamped);
+        this.max.accumulate(clamped);
+    }
+
+    /**
+     * Gibt die Anzahl der erfassten Messwerte zurück.
+     * @return die Anzahl der Messwerte.
+     */
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    /**
+     * Gibt die Summe der erfassten Messwerte zurück.
+     * @return die Summe der Messwerte.
+     */
+    public long getSum() {
+        return this.sum.sum();
+    }
+
+    /**
+     * Gibt den größten erfassten Messwert zurück.
+     * @return der größte Messwert, oder 0, falls keine Messwerte erfasst wurden.
+     */
+    public long getMax() {
+        return this.max.get();
+    }
+
+    /**
+     * Gibt den Mittelwert der erfassten Messwerte zurück.
+     * @return der Mittelwert, oder 0, falls keine Messwerte erfasst wurden.
+     */
+    public double getMean() {
+        final long count = this.getCount();
+
+        return count > 0 ? (double) this.getSum() / count : 0;
+    }
+
+    /**
+     * Gibt eine Schätzung des Perzentils der erfassten Messwerte zurück. Die Schätzung ist die Mitte der Klasse, in
+     * die das Perzentil fällt, und ist nie größer als der größte erfasste Messwert.
+     * @param percentile das Perzentil zwischen 0 und 1.
+     * @return die Schätzung des Perzentils, oder 0, falls keine Messwerte erfasst wurden.
+     */
+    public long getPercentile(final double percentile) {
+        long total = 0;
+
+        for (int index = 0; index < this.buckets.length(); index++) {
+            total += this.buckets.get(index);
+        }
+
+        if (total == 0) {
+            return 0;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(percentile * total));
+        long seen = 0;
+
+        for (int index = 0; index < this.buckets.length(); index++) {
+            seen += this.buckets.get(index);
+
+            if (seen >= rank) {
+                final long lower = lowerBound(index);
+                final long width = lowerBound(index + 1) - lower;
+
+                return Math.min(lower + (width - 1) / 2, this.getMax());
+            }
+        }
+
+        return this.getMax();
+    }
+
+    /**
+     * Setzt alle erfassten Messwerte zurück. Gleichzeitig erfasste Messwerte können dabei teilweise verloren gehen.
+     */
+    public void reset() {
+        for (int index = 0; index < this.buckets.length(); index++) {
+            this.buckets.set(index, 0);
+        }
+
+        this.count.reset();
+        this.sum.reset();
+        this.max.reset();
+    }
+
+    /**
+     * Gibt die Kennzahlen des Histogramms als JSON-Objekt zurück.
+     * @param scale der Faktor, durch den die Messwerte für die Ausgabe geteilt werden.
+     * @return das JSON-Objekt.
+     */
+    public @NotNull String toJson(final double scale) {
+        return String.format(Locale.ROOT, "{\"count\":%d,\"mean\":%.3f,\"p50\":%.3f,\"p90\":%.3f,\"p99\":%.3f,"
+                        + "\"p999\":%.3f,\"max\":%.3f}", this.getCount(), this.getMean() / scale,
+                this.getPercentile(0.5) / scale, this.getPercentile(0.9) / scale, this.getPercentile(0.99) / scale,
+                this.getPercentile(0.999) / scale, this.getMax() / scale);
+    }
+
+    private static int index(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        final int bit = 63 - Long.numberOfLeadingZeros(value);
+        final int shift = bit - SUB_BITS;
+
+        return SUB_BUCKETS + shift * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    private static long lowerBound(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+
+        final int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+
+        return (long) (SUB_BUCKETS + (index - SUB_BUCKETS) % SUB_BUCKETS) << shift;
+    }
+}
@@ -0,0 +1,402 @@
+package controller.metrics;
+
+import controller.network.ClientSender.SendAction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Sammelt die Messwerte der Netzwerkkommunikation des Servers.
+ * <p>
+ *     Für jeden Pakettyp werden die Dauer der Deserialisierung, der Verarbeitung und der Serialisierung in
+ *     Histogrammen sowie die Anzahl und Größe der empfangenen und versendeten Pakete gezählt. Für jede
+ *     {@link SendAction} wird erfasst, an wie viele Benutzer eine Information jeweils versendet wird. Zusätzlich können
+ *     Messgrößen registriert werden, deren aktueller Wert bei jeder Auswertung abgefragt wird.
+ * </p>
+ * <p>
+ *     Alle Messwerte werden ohne Sperren erfasst, sodass die Erfassung auch auf den Netzwerk-Threads nur wenige
+ *     Nanosekunden benötigt.
+ * </p>
+ */
+public class ServerMetrics {
+
+    private static final Logger LOGGER = Logger.getLogger("chati.metrics");
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    /** Faktor, mit dem die in Nanosekunden erfassten Dauern in Mikrosekunden ausgegeben werden. */
+    private static final double MICROS = 1e3;
+
+    private static ServerMetrics serverMetrics;
+
+    private final Map<Class<?>, PacketMetrics> packets;
+    private final Map<SendAction, Histogram> fanOuts;
+    private final Map<String, LongSupplier> gauges;
+
+    private volatile long resetTime;
+    private ScheduledExecutorService snapshotExecutor;
+
+    /**
+     * Erzeugt eine neue Instanz der ServerMetrics. Außerhalb von Tests wird die Singleton-Instanz verwendet.
+     */
+    public ServerMetrics() {
+        this.packets = new ConcurrentHashMap<>();
+        this.fanOuts = new EnumMap<>(SendAction.class);
+        this.gauges = new ConcurrentSkipListMap<>();
+        this.resetTime = System.nanoTime();
+
+        for (final SendAction action : SendAction.values()) {
+            this.fanOuts.put(action, new Histogram());
+        }
+    }
+
+    /**
+     * Erfasst ein empfangenes und deserialisiertes Paket.
+     * @param packet Klasse des empfangenen Pakets.
+     * @param nanos Dauer der Deserialisierung in Nanosekunden.
+     * @param bytes Größe des Pakets in Bytes.
+     */
+    public void decoded(@NotNull final Class<?> packet, final long nanos, final int bytes) {
+        final PacketMetrics metrics = this.getPacketMetrics(packet);
+
+        metrics.decode.record(nanos);
+        metrics.bytesReceived.add(bytes);
+    }
+
+    /**
+     * Erfasst die Verarbeitung eines empfangenen Pakets.
+     * @param packet Klasse des verarbeiteten Pakets.
+     * @param nanos Dauer der Verarbeitung in Nanosekunden.
+     */
+    public void handled(@NotNull final Class<?> packet, final long nanos) {
+        this.getPacketMetrics(packet).handle.record(nanos);
+    }
+
+    /**
+     * Erfasst die Serialisierung eines zu versendenden Pakets. Geteilte Pakete werden dabei nur einmal erfasst.
+     * @param packet Klasse des serialisierten Pakets.
+     * @param nanos Dauer der Serialisierung in Nanosekunden.
+     */
+    public void encoded(@NotNull final Class<?> packet, final long nanos) {
+        this.getPacketMetrics(packet).encode.record(nanos);
+    }
+
+    /**
+     * Erfasst ein an eine Verbindung versendetes Paket.
+     * @param packet Klasse des versendeten Pakets.
+     * @param bytes Größe des Pakets in Bytes.
+     */
+    public void sent(@NotNull final Class<?> packet, final int bytes) {
+        final PacketMetrics metrics = this.getPacketMetrics(packet);
+
+        metrics.sent.increment();
+        metrics.bytesSent.add(bytes);
+    }
+
+    /**
+     * Erfasst das Versenden einer Information an mehrere Benutzer. Wird von den Stellen aufgerufen, welche dieselbe
+     * Information an alle Empfänger versenden. Ein Versand ohne Empfänger wird nicht erfasst.
+     * @param action Die versendete Aktion.
+     * @param receivers Anzahl der Empfänger.
+     */
+    public void fanOut(@NotNull final SendAction action, final int receivers) {
+        if (receivers > 0) {
+            this.fanOuts.get(action).record(receivers);
+        }
+    }
+
+    /**
+     * Registriert eine Messgröße, deren aktueller Wert bei jeder Auswertung abgefragt wird.
+     * @param name Name der Messgröße.
+     * @param gauge Funktion, die den aktuellen Wert der Messgröße liefert.
+     */
+    public void registerGauge(@NotNull final String name, @NotNull final LongSupplier gauge) {
+        this.gauges.put(name, gauge);
+    }
+
+    /**
+     * Gibt die Messwerte eines Pakettyps zurück.
+     * @param packet Klasse des Pakettyps.
+     * @return die Messwerte des Pakettyps.
+     */
+    public @NotNull PacketMetrics getPacketMetrics(@NotNull final Class<?> packet) {
+        final PacketMetrics metrics = this.packets.get(packet);
+
+        return metrics != null ? metrics : this.packets.computeIfAbsent(packet, PacketMetrics::new);
+    }
+
+    /**
+     * Gibt das Histogramm der Empfängeranzahl einer Aktion zurück.
+     * @param action Die versendete Aktion.
+     * @return das Histogramm der Empfängeranzahl.
+     */
+    public @NotNull Histogram getFanOut(@NotNull final SendAction action) {
+        return this.fanOuts.get(action);
+    }
+
+    /**
+     * Setzt alle erfassten Messwerte zurück. Die registrierten Messgrößen bleiben erhalten.
+     */
+    public void reset() {
+        this.packets.values().forEach(PacketMetrics::reset);
+        this.fanOuts.values().forEach(Histogram::reset);
+        this.resetTime = System.nanoTime();
+    }
+
+    /**
+     * Beginnt, die Messwerte in regelmäßigen Abständen als JSON-Zeile an eine Datei anzuhängen.
+     * @param file Datei, an welche die Messwerte angehängt werden.
+     * @param interval Abstand der Ausgaben in Sekunden.
+     */
+    public synchronized void startSnapshots(@NotNull final File file, final long interval) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Interval must be positive");
+        }
+
+        if (this.snapshotExecutor != null) {
+            this.snapshotExecutor.shutdownNow();
+        }
+
+        this.snapshotExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread metricsThread = new Thread(runnable, "Metrics-Snapshot");
+            metricsThread.setDaemon(true);
+            return metricsThread;
+        });
+
+        this.snapshotExecutor.scheduleAtFixedRate(() -> {
+            try (Writer writer = new BufferedWriter(new FileWriter(file, StandardCharsets.UTF_8, true))) {
+                writer.write(this.toJson() + System.lineSeparator());
+            } catch (IOException ex) {
+                LOGGER.log(Level.WARNING, "Failed to write metrics snapshot to " + file, ex);
+            }
+        }, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Gibt alle Messwerte als einzeiliges JSON-Objekt zurück. Dauern werden in Mikrosekunden angegeben.
+     * @return das JSON-Objekt.
+     */
+    public @NotNull String toJson() {
+        final StringBuilder json = new StringBuilder();
+
+        json.append("{\"time\":\"").append(LocalDateTime.now().format(TIME_FORMAT)).append("\",\"seconds\":")
+                .append(this.getSeconds()).append(",\"gauges\":{");
+
+        String separator = "";
+        for (final Map.Entry<String, LongSupplier> gauge : this.gauges.entrySet()) {
+            json.append(separator).append('"').append(gauge.getKey()).append("\":").append(readGauge(gauge.getValue()));
+            separator = ",";
+        }
+
+        json.append("},\"packets\":{");
+        separator = "";
+        for (final PacketMetrics metrics : this.getSortedPackets().values()) {
+            json.append(separator).append('"').append(metrics.name).append("\":{\"received\":")
+                    .append(metrics.decode.getCount()).append(",\"sent\":").append(metrics.getSent())
+                    .append(",\"bytesReceived\":").append(metrics.getBytesReceived())
+                    .append(",\"bytesSent\":").append(metrics.getBytesSent())
+                    .append(",\"decode\":").append(metrics.decode.toJson(MICROS))
+                    .append(",\"handle\":").append(metrics.handle.toJson(MICROS))
+                    .append(",\"encode\":").append(metrics.encode.toJson(MICROS)).append('}');
+            separator = ",";
+        }
+
+        json.append("},\"fanOut\":{");
+        separator = "";
+        for (final Map.Entry<SendAction, Histogram> fanOut : this.fanOuts.entrySet()) {
+            if (fanOut.getValue().getCount() > 0) {
+                json.append(separator).append('"').append(fanOut.getKey()).append("\":")
+                        .append(fanOut.getValue().toJson(1));
+                separator = ",";
+            }
+        }
+
+        return json.append("}}").toString();
+    }
+
+    /**
+     * Gibt alle Messwerte als lesbare Tabelle zurück. Dauern werden in Mikrosekunden angegeben.
+     * @return die Tabelle der Messwerte.
+     */
+    public @NotNull String toReport() {
+        final StringBuilder report = new StringBuilder();
+        final String lineSeparator = System.lineSeparator();
+
+        report.append(String.format(Locale.ROOT, "Metrics of the last %d seconds%s", this.getSeconds(),
+                lineSeparator));
+
+        for (final Map.Entry<String, LongSupplier> gauge : this.gauges.entrySet()) {
+            report.append("  ").append(gauge.getKey()).append(": ").append(readGauge(gauge.getValue()))
+                    .append(lineSeparator);
+        }
+
+        report.append(String.format(Locale.ROOT, "%-28s %9s %9s %11s %11s %19s %19s %19s%s", "Packet", "Received",
+                "Sent", "KB in", "KB out", "Decode p50/p99 us", "Handle p50/p99 us", "Encode p50/p99 us",
+                lineSeparator));
+
+        for (final PacketMetrics metrics : this.getSortedPackets().values()) {
+            report.append(String.format(Locale.ROOT, "%-28s %9d %9d %11.1f %11.1f %19s %19s %19s%s", metrics.name,
+                    metrics.decode.getCount(), metrics.getSent(), metrics.getBytesReceived() / 1024.0,
+                    metrics.getBytesSent() / 1024.0, percentiles(metrics.decode, MICROS),
+                    percentiles(metrics.handle, MICROS), percentiles(metrics.encode, MICROS), lineSeparator));
+        }
+
+        report.append(String.format(Locale.ROOT, "%-28s %9s %9s %9s %9s%s", "Fan-out", "Sends", "Mean", "p99",
+                "Max", lineSeparator));
+
+        for (final Map.Entry<SendAction, Histogram> fanOut : this.fanOuts.entrySet()) {
+            final Histogram histogram = fanOut.getValue();
+
+            if (histogram.getCount() > 0) {
+                report.append(String.format(Locale.ROOT, "%-28s %9d %9.1f %9d %9d%s", fanOut.getKey(),
+                        histogram.getCount(), histogram.getMean(), histogram.getPercentile(0.99), histogram.getMax(),
+                        lineSeparator));
+            }
+        }
+
+        return report.toString();
+    }
+
+    private long getSeconds() {
+        return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - this.resetTime);
+    }
+
+    private @NotNull Map<String, PacketMetrics> getSortedPackets() {
+        final Map<String, PacketMetrics> sorted = new TreeMap<>();
+
+        for (final PacketMetrics metrics : this.packets.values()) {
+            sorted.put(metrics.name, metrics);
+        }
+
+        return sorted;
+    }
+
+    private static @Nullable Long readGauge(@NotNull final LongSupplier gauge) {
+        try {
+            return gauge.getAsLong();
+        } catch (RuntimeException ex) {
+            // Die Messgröße wird parallel zur Auswertung verändert.
+            return null;
+        }
+    }
+
+    private static @NotNull String percentiles(@NotNull final Histogram histogram, final double scale) {
+        if (histogram.getCount() == 0) {
+            return "-";
+        }
+
+        return String.format(Locale.ROOT, "%.1f/%.1f", histogram.getPercentile(0.5) / scale,
+                histogram.getPercentile(0.99) / scale);
+    }
+
+    /**
+     * Gibt die Singleton-Instanz der ServerMetrics zurück.
+     * @return Singleton-Instanz der ServerMetrics.
+     */
+    public static synchronized @NotNull ServerMetrics getInstance() {
+        if (serverMetrics == null) {
+            serverMetrics = new ServerMetrics();
+        }
+        return serverMetrics;
+    }
+
+    /**
+     * Die Messwerte eines einzelnen Pakettyps.
+     */
+    public static class PacketMetrics {
+
+        private final String name;
+        private final Histogram decode;
+        private final Histogram handle;
+        private final Histogram encode;
+        private final LongAdder sent;
+        private final LongAdder bytesReceived;
+        private final LongAdder bytesSent;
+
+        private PacketMetrics(@NotNull final Class<?> packet) {
+            this.name = packet.getSimpleName();
+            this.decode = new Histogram();
+            this.handle = new Histogram();
+            this.encode = new Histogram();
+            this.sent = new LongAdder();
+            this.bytesReceived = new LongAdder();
+            this.bytesSent = new LongAdder();
+        }
+
+        /**
+         * Gibt das Histogramm der Deserialisierungsdauern in Nanosekunden zurück.
+         * @return das Histogramm der Deserialisierung.
+         */
+        public @NotNull Histogram getDecode() {
+            return this.decode;
+        }
+
+        /**
+         * Gibt das Histogramm der Verarbeitungsdauern in Nanosekunden zurück.
+         * @return das Histogramm der Verarbeitung.
+         */
+        public @NotNull Histogram getHandle() {
+            return this.handle;
+        }
+
+        /**
+         * Gibt das Histogramm der Serialisierungsdauern in Nanosekunden zurück.
+         * @return das Histogramm der Serialisierung.
+         */
+        public @NotNull Histogram getEncode() {
+            return this.encode;
+        }
+
+        /**
+         * Gibt die Anzahl der versendeten Pakete zurück.
+         * @return die Anzahl der versendeten Pakete.
+         */
+        public long getSent() {
+            return this.sent.sum();
+        }
+
+        /**
+         * Gibt die Anzahl der empfangenen Bytes zurück.
+         * @return die Anzahl der empfangenen Bytes.
+         */
+        public long getBytesReceived() {
+            return this.bytesReceived.sum();
+        }
+
+        /**
+         * Gibt die Anzahl der versendeten Bytes zurück.
+         * @return die Anzahl der versendeten Bytes.
+         */
+        public long getBytesSent() {
+            return this.bytesSent.sum();
+        }
+
+        private void reset() {
+            this.decode.reset();
+            this.handle.reset();
+            this.encode.reset();
+            this.sent.reset();
+            this.bytesReceived.reset();
+            this.bytesSent.reset();
+        }
+    }
+}
@@ -6,6 +6,8 @@ import controller.network.protocol.PacketAvatarMove;
 import controller.network.protocol.PacketAvatarMove.AvatarAction;
 import controller.network.protocol.PacketChatMessage;
 import controller.network.protocol.PacketNotificationResponse;
+import controller.network.protocol.PacketOutAvatarMoves;
+import controller.network.protocol.PacketOutAvatarMoves.AvatarMove;
 import controller.network.protocol.PacketOutCommunicable;
 import controller.network.protocol.PacketOutContextInfo;
 import controller.network.protocol.PacketOutContextJoin;
@@ -19,26 +21,34 @@ import controller.network.protocol.PacketOutUserInfo;
 import controller.network.protocol.PacketOutUserInfo.Action;
 import controller.network.protocol.PacketOutUserInfo.UserInfo;
 import controller.network.protocol.PacketOutUserInfo.UserInfo.Flag;
+import controller.network.protocol.PacketOutWorldSnapshot;
 import controller.network.protocol.PacketUserTyping;
 import controller.network.protocol.PacketVideoFrame;
+import controller.network.protocol.PacketVideoTileFrame;
 import controller.network.protocol.PacketWorldAction;
 import model.communication.message.IAudioMessage;
 import model.communication.message.ITextMessage;
 import model.communication.message.IVideoFrame;
+import model.communication.message.IVideoTileFrame;
 import model.communication.message.MessageType;
+import model.communication.message.MixedAudioMessage;
 import model.context.IContext;
 import model.context.global.IGlobalContext;
 import model.context.spatial.Direction;
 import model.context.spatial.IArea;
 import model.context.spatial.IRoom;
 import model.context.spatial.IWorld;
+import model.context.spatial.WorldSnapshot;
 import model.context.spatial.objects.IInteractable;
 import model.notification.INotification;
 import model.notification.NotificationAction;
 import model.role.IContextRole;
 import model.user.IUser;
 import org.jetbrains.annotations.NotNull;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.Predicate;
@@ -57,6 +67,15 @@ public interface ClientSender {
      */
     void send(@NotNull final SendAction action, @NotNull final Object object);
 
+    /**
+     * Sendet ein Paket, welches unverändert an mehrere Benutzer versendet wird. Sofern dies unterstützt wird, wird das
+     * Paket dabei nur einmal für alle Empfänger serialisiert.
+     * @param packet Das geteilte Paket, das gesendet werden soll.
+     */
+    default void send(@NotNull final SharedPacket packet) {
+        this.send(packet.getAction(), packet.getObject());
+    }
+
     /**
      * Eine Enumeration über die verschiedenen Informationen, die vom Model aus an den Client gesendet werden können.
      */
@@ -172,6 +191,63 @@ public interface ClientSender {
             }
         },
 
+        /**
+         * Information, dass der Zustand einer Welt gesammelt in einem Paket versendet werden soll.
+         * <p>
+         *     Erwartet als Objekt die Klasse: {@link WorldSnapshot}
+         * </p>
+         */
+        WORLD_SNAPSHOT {
+            @Override
+            protected @NotNull Packet<?> getPacket(@NotNull final IUser user, @NotNull final Object object) {
+                if (object instanceof WorldSnapshot) {
+                    final WorldSnapshot snapshot = (WorldSnapshot) object;
+                    final List<PacketOutUserInfo> infos = new ArrayList<>();
+                    final List<PacketOutContextRole> roles = new ArrayList<>();
+                    final List<PacketAvatarMove> avatars = new ArrayList<>();
+
+                    for (final IUser other : snapshot.getUsers()) {
+                        infos.add((PacketOutUserInfo) USER_INFO.getPacket(user, other));
+                    }
+
+                    for (final IContextRole role : snapshot.getRoles()) {
+                        roles.add((PacketOutContextRole) CONTEXT_ROLE.getPacket(user, role));
+                    }
+
+                    for (final IUser other : snapshot.getAvatars()) {
+                        avatars.add((PacketAvatarMove) AVATAR_SPAWN.getPacket(user, other));
+                    }
+
+                    return new PacketOutWorldSnapshot(infos, roles, avatars);
+                } else {
+                    throw new IllegalArgumentException("Expected WorldSnapshot, got " + object.getClass());
+                }
+            }
+        },
+
+        /**
+         * Information, dass ein Benutzer eine Welt betreten hat. Die Information wird gesammelt in einem Paket an alle
+         * anderen Benutzer der Welt versendet.
+         * <p>
+         *     Da das Paket für alle Empfänger anhand des ersten Empfängers erzeugt wird, darf es nur mit Benutzern
+         *     geteilt werden, die mit dem neuen Benutzer weder befreundet sind noch ihn ignorieren.
+         * </p>
+         * <p>
+         *     Erwartet als Objekt die Klasse: {@link WorldSnapshot}
+         * </p>
+         */
+        USER_JOIN {
+            @Override
+            protected @NotNull Packet<?> getPacket(@NotNull final IUser user, @NotNull final Object object) {
+                return WORLD_SNAPSHOT.getPacket(user, object);
+            }
+
+            @Override
+            protected boolean isShareable() {
+                return true;
+            }
+        },
+
         /**
          * Information, dass die verfügbaren Welten oder private Räume an den Client versendet werden sollen.
          * <p>
@@ -347,6 +423,56 @@ public interface ClientSender {
             }
         },
 
+        /**
+         * Information, dass ein Avatar ausgeblendet werden soll, da er den Sichtbereich des Benutzers verlassen hat.
+         * <p>
+         *     Erwartet als Objekt die Schnittstelle: {@link IUser}
+         * </p>
+         */
+        AVATAR_HIDE {
+            @Override
+            protected @NotNull Packet<?> getPacket(@NotNull final IUser self, @NotNull final Object object) {
+                if (object instanceof IUser) {
+                    return new PacketAvatarMove(AvatarAction.HIDE_AVATAR, ((IUser) object).getUserId());
+                } else {
+                    throw new IllegalArgumentException("Expected IUser, got " + object.getClass());
+                }
+            }
+        },
+
+        /**
+         * Information, dass die Positionen mehrerer Avatare im Raum gebündelt aktualisiert werden sollen.
+         * <p>
+         *     Erwartet als Objekt eine Sammlung der Schnittstelle: {@link IUser}
+         * </p>
+         */
+        AVATAR_MOVES {
+            @Override
+            protected @NotNull Packet<?> getPacket(@NotNull final IUser self, @NotNull final Object object) {
+                if (object instanceof Collection) {
+                    final List<AvatarMove> moves = new ArrayList<>();
+
+                    for (final Object element : (Collection<?>) object) {
+                        if (!(element instanceof IUser)) {
+                            throw new IllegalArgumentException("Expected Collection of IUser, got " + element.getClass());
+                        }
+
+                        final IUser other = (IUser) element;
+
+                        if (other.getLocation() != null) {
+                            moves.add(new AvatarMove(other.getUserId(), other.getLocation().getDirection(),
+                                    other.getLocation().getPosX(), other.getLocation().getPosY(),
+                                    other.isSprinting(), other.isMovable()));
+                        }
+                    }
+
+                    return new PacketOutAvatarMoves(moves);
+                } else {
+                    throw new IllegalArgumentException("Expected Collection of IUser, got " + object.getClass());
+                }
+            }
+        },
+
         /**
          * Information, dass ein Menü geöffnet werden soll.
          * <p>
@@ -486,7 +612,8 @@ public interface ClientSender {
                         }
 
                         return new PacketChatMessage(message.getMessageType(), message.getSender().getUserId(),
-                                message.getTextMessage(), message.getTimestamp(), message.getImageName(), message.getImageData());
+                                message.getTextMessage(), message.getTimestamp(), message.getImageName(),
+                                message.getImageHash(), message.getThumbnail());
                     }
 
                     if (message.getMessageBundle() == null) {
@@ -512,23 +639,36 @@ public interface ClientSender {
                 if (object instanceof IAudioMessage) {
                     final IAudioMessage message = (IAudioMessage) object;
 
+                    if (message instanceof MixedAudioMessage) {
+                        final UUID[] speakers = ((MixedAudioMessage) message).getSpeakers().stream()
+                                .map(IUser::getUserId).toArray(UUID[]::new);
+
+                        return new PacketAudioMessage(message.getTimestamp(), message.getSequence(),
+                                message.getAudioData(), speakers);
+                    }
+
                     if (message.getSender() != null) {
                         return new PacketAudioMessage(message.getSender().getUserId(), message.getTimestamp(),
-                                message.getAudioData());
+                                message.getSequence(), message.getAudioData());
                     }
 
-                    return new PacketAudioMessage(message.getTimestamp(), message.getAudioData(), message.getPosition(),
-                            message.getSeconds());
+                    return new PacketAudioMessage(message.getTimestamp(), message.getSequence(), message.getAudioData(),
+                            message.getPosition(), message.getSeconds());
                 } else {
                     throw new IllegalArgumentException("Expected IAudioMessage, got " + object.getClass());
                 }
             }
+
+            @Override
+            protected boolean isShareable() {
+                return true;
+            }
         },
 
         /**
          * Information, dass ein Video-Frame gesendet werden soll.
          * <p>
-         *     Erwartet als Objekt die Schnittstelle: {@link IVideoFrame}
+         *     Erwartet als Objekt die Schnittstelle: {@link IVideoFrame} oder {@link IVideoTileFrame}
          * </p>
          */
         VIDEO {
@@ -541,12 +681,25 @@ public interface ClientSender {
                         throw new IllegalArgumentException("Expected Sender from IVideoFrame, got null");
                     }
 
+                    if (frame instanceof IVideoTileFrame) {
+                        final IVideoTileFrame tileFrame = (IVideoTileFrame) frame;
+
+                        return new PacketVideoTileFrame(frame.getSender().getUserId(), frame.getTimestamp(),
+                                tileFrame.isKeyframe(), tileFrame.getSequence(), tileFrame.getTiles(),
+                                frame.getFrameData());
+                    }
+
                     return new PacketVideoFrame(frame.getSender().getUserId(), frame.getTimestamp(),
                             frame.isScreenshot(), frame.getFrameData());
                 } else {
                     throw new IllegalArgumentException("Expected IVideoFrame, got " + object.getClass());
                 }
             }
+
+            @Override
+            protected boolean isShareable() {
+                return true;
+            }
         };
 
         /**
@@ -555,5 +708,15 @@ public interface ClientSender {
          * @return Das erzeugte Paket.
          */
         protected abstract @NotNull Packet<?> getPacket(@NotNull final IUser user, @NotNull final Object object);
+
+        /**
+         * Gibt zurück, ob das erzeugte Paket unabhängig vom empfangenden Benutzer ist und daher für mehrere Empfänger
+         * gemeinsam erzeugt und serialisiert werden kann.
+         * @return true, wenn das Paket geteilt werden kann, ansonsten false.
+         * @see SharedPacket
+         */
+        protected boolean isShareable() {
+            return false;
+        }
     }
 }
@@ -0,0 +1,296 @@
+package controller.network;
+
+import org.jetbrains.annotations.NotNull;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Eine Klasse, welche die Verarbeitung der empfangenen Pakete vom Netzwerk-Thread auf einen Pool von Threads verlagert.
+ * <p>
+ *     Jede Verbindung erhält eine eigene {@link Lane}, in der ihre Pakete nacheinander in der Reihenfolge ihres Empfangs
+ *     verarbeitet werden. Die Pakete verschiedener Verbindungen werden parallel verarbeitet. Veränderungen einer Welt
+ *     werden dabei über die {@link WorldLocks} wie von einem Aktor der Welt serialisiert: Ein Paket, das innerhalb einer
+ *     Welt verarbeitet wird, hält während der Verarbeitung die Sperre dieser Welt. Pakete ohne Welt, wie An- und
+ *     Abmeldungen oder das Betreten und Verlassen von Welten, werden exklusiv gegenüber allen anderen Aufgaben
+ *     verarbeitet.
+ * </p>
+ */
+public class PacketExecutor {
+
+    private static final Logger LOGGER = Logger.getLogger("chati.network");
+
+    /** Maximale Anzahl an Paketen, die eine Lane am Stück verarbeitet, bevor andere Lanes an der Reihe sind. */
+    private static final int DRAIN_LIMIT = 32;
+
+    private final ExecutorService workers;
+    private final int softLimit;
+    private final int hardLimit;
+
+    private final WorldLocks worldLocks;
+
+    private final AtomicInteger queuedPackets;
+    private final AtomicLong processedPackets;
+    private final AtomicLong droppedPackets;
+    private final AtomicLong latency;
+    private final AtomicLong maxLatency;
+
+    /**
+     * Erzeugt eine neue Instanz des PacketExecutor.
+     * @param threads Anzahl der Threads, welche die Pakete verarbeiten.
+     * @param softLimit Anzahl an wartenden Paketen einer Verbindung, ab der verzichtbare Pakete verworfen werden.
+     * @param hardLimit Anzahl an wartenden Paketen einer Verbindung, ab der keine Pakete mehr angenommen werden.
+     */
+    public PacketExecutor(final int threads, final int softLimit, final int hardLimit) {
+        if (threads <= 0 || softLimit <= 0 || hardLimit < softLimit) {
+            throw new IllegalArgumentException("Invalid thread count or packet limits");
+        }
+
+        final AtomicInteger counter = new AtomicInteger();
+        final ThreadFactory factory = runnable -> {
+            final Thread thread = new Thread(runnable, "Packet-Worker-" + counter.incrementAndGet());
+
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        this.workers = Executors.newFixedThreadPool(threads, factory);
+        this.softLimit = softLimit;
+        this.hardLimit = hardLimit;
+        this.worldLocks = WorldLocks.getInstance();
+        this.queuedPackets = new AtomicInteger();
+        this.processedPackets = new AtomicLong();
+        this.droppedPackets = new AtomicLong();
+        this.latency = new AtomicLong();
+        this.maxLatency = new AtomicLong();
+    }
+
+    /**
+     * Erzeugt eine neue Lane, deren Aufgaben nacheinander verarbeitet werden.
+     * @return die erzeugte Lane.
+     */
+    public @NotNull Lane createLane() {
+        return new Lane();
+    }
+
+    /**
+     * Beendet die Verarbeitung der Pakete. Bereits angenommene Pakete werden noch verarbeitet.
+     */
+    public void shutdown() {
+        this.workers.shutdown();
+
+        try {
+            if (!this.workers.awaitTermination(5, TimeUnit.SECONDS)) {
+                LOGGER.warning("Packet workers did not terminate in time");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        LOGGER.info("Stopped packet executor: " + this);
+    }
+
+    /**
+     * Gibt die Anzahl der Pakete zurück, die auf ihre Verarbeitung warten.
+     * @return Anzahl der wartenden Pakete.
+     */
+    public int getQueuedPackets() {
+        return this.queuedPackets.get();
+    }
+
+    /**
+     * Gibt die Anzahl der verarbeiteten Pakete zurück.
+     * @return Anzahl der verarbeiteten Pakete.
+     */
+    public long getProcessedPackets() {
+        return this.processedPackets.get();
+    }
+
+    /**
+     * Gibt die Anzahl der Pakete zurück, die aufgrund einer überlasteten Verbindung verworfen wurden.
+     * @return Anzahl der verworfenen Pakete.
+     */
+    public long getDroppedPackets() {
+        return this.droppedPackets.get();
+    }
+
+    /**
+     * Gibt die durchschnittliche Zeit vom Empfang bis zum Ende der Verarbeitung eines Pakets in Mikrosekunden zurück.
+     * @return durchschnittliche Latenz der Verarbeitung.
+     */
+    public double getAverageLatency() {
+        final long processed = this.processedPackets.get();
+
+        return processed > 0 ? this.latency.get() / 1000.0 / processed : 0;
+    }
+
+    /**
+     * Gibt die längste Zeit vom Empfang bis zum Ende der Verarbeitung eines Pakets in Mikrosekunden zurück.
+     * @return längste Latenz der Verarbeitung.
+     */
+    public double getMaxLatency() {
+        return this.maxLatency.get() / 1000.0;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return this.getClass().getSimpleName() + "{queued=" + this.getQueuedPackets()
+                + ", processed=" + this.getProcessedPackets() + ", dropped=" + this.getDroppedPackets()
+                + ", averageLatency=" + String.format("%.1f", this.getAverageLatency()) + "us"
+                + ", maxLatency=" + String.format("%.1f", this.getMaxLatency()) + "us}";
+    }
+
+    /**
+     * Eine Klasse, welche die Aufgaben einer einzelnen Verbindung nacheinander auf den Threads des PacketExecutor
+     * ausführt.
+     */
+    public class Lane {
+
+        private final Queue<Task> tasks;
+        private boolean running;
+        private boolean closed;
+
+        private Lane() {
+            this.tasks = new ArrayDeque<>();
+            this.running = false;
+            this.closed = false;
+        }
+
+        /**
+         * Reiht eine Aufgabe ein. Überschreitet die Anzahl der wartenden Aufgaben die Grenzen des PacketExecutor, so
+         * wird die Aufgabe nicht angenommen.
+         * @param task Auszuführende Aufgabe.
+         * @param scope Funktion, welche die Welt liefert, innerhalb der die Aufgabe ausgeführt wird.
+         * @param droppable true, wenn die Aufgabe bereits ab der weichen Grenze verworfen werden darf.
+         * @return true, wenn die Aufgabe angenommen wurde, sonst false.
+         */
+        public boolean submit(@NotNull final Runnable task, @NotNull final Supplier<Object> scope,
+                              final boolean droppable) {
+            synchronized (this) {
+                if (this.closed) {
+                    return false;
+                }
+
+                if (this.tasks.size() >= (droppable ? softLimit : hardLimit)) {
+                    droppedPackets.incrementAndGet();
+                    return false;
+                }
+
+                return this.enqueue(new Task(task, scope));
+            }
+        }
+
+        /**
+         * Reiht eine letzte Aufgabe ohne Beachtung der Grenzen ein. Anschließend werden keine Aufgaben mehr angenommen.
+         * @param task Letzte auszuführende Aufgabe.
+         * @param scope Funktion, welche die Welt liefert, innerhalb der die Aufgabe ausgeführt wird.
+         */
+        public void close(@NotNull final Runnable task, @NotNull final Supplier<Object> scope) {
+            synchronized (this) {
+                if (this.closed) {
+                    return;
+                }
+
+                this.closed = true;
+
+                if (this.enqueue(new Task(task, scope))) {
+                    return;
+                }
+            }
+
+            // Die Threads wurden bereits beendet, daher wird die Aufgabe direkt ausgeführt.
+            worldLocks.execute(scope, task);
+        }
+
+        /**
+         * Gibt die Anzahl der wartenden Aufgaben dieser Lane zurück.
+         * @return Anzahl der wartenden Aufgaben.
+         */
+        public synchronized int size() {
+            return this.tasks.size();
+        }
+
+        private boolean enqueue(@NotNull final Task task) {
+            this.tasks.add(task);
+            queuedPackets.incrementAndGet();
+
+            if (!this.running) {
+                try {
+                    workers.execute(this::drain);
+                    this.running = true;
+                } catch (RejectedExecutionException ex) {
+                    this.tasks.clear();
+                    queuedPackets.decrementAndGet();
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private void drain() {
+            for (int count = 0; count < DRAIN_LIMIT; count++) {
+                final Task task;
+
+                synchronized (this) {
+                    task = this.tasks.poll();
+
+                    if (task == null) {
+                        this.running = false;
+                        return;
+                    }
+                }
+
+                queuedPackets.decrementAndGet();
+
+                try {
+                    worldLocks.execute(task.scope, task.runnable);
+                } catch (RuntimeException ex) {
+                    LOGGER.log(Level.WARNING, "Unhandled exception while processing packet", ex);
+                }
+
+                final long duration = System.nanoTime() - task.submitted;
+
+                processedPackets.incrementAndGet();
+                latency.addAndGet(duration);
+                maxLatency.accumulateAndGet(duration, Math::max);
+            }
+
+            // Die Lane gibt den Thread frei, damit die Pakete anderer Verbindungen nicht zu lange warten.
+            synchronized (this) {
+                try {
+                    workers.execute(this::drain);
+                } catch (RejectedExecutionException ex) {
+                    queuedPackets.addAndGet(-this.tasks.size());
+                    this.tasks.clear();
+                    this.running = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Eine Klasse, die eine eingereihte Aufgabe, deren Welt und den Zeitpunkt ihres Empfangs hält.
+     */
+    private static class Task {
+
+        private final Runnable runnable;
+        private final Supplier<Object> scope;
+        private final long submitted;
+
+        public Task(@NotNull final Runnable runnable, @NotNull final Supplier<Object> scope) {
+            this.runnable = runnable;
+            this.scope = scope;
+            this.submitted = System.nanoTime();
+        }
+    }
+}
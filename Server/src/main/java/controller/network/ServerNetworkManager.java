@@ -5,6 +5,8 @@ import com.esotericsoftware.kryonet.Server;
 import model.context.global.IGlobalContext;
 import model.user.account.IUserAccountManager;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import utils.AudioCodec;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
@@ -18,18 +20,85 @@ import java.util.logging.Logger;
 public class ServerNetworkManager extends NetworkManager<Server> {
 
     private static final Logger LOGGER = Logger.getLogger("chati.network");
+
+    /** Anzahl an wartenden Paketen einer Verbindung, ab der verzichtbare Pakete verworfen werden. */
+    private static final int SOFT_PACKET_LIMIT = 256;
+
+    /** Anzahl an wartenden Paketen einer Verbindung, ab der die Verbindung getrennt wird. */
+    private static final int HARD_PACKET_LIMIT = 1024;
+
+    /**
+     * Standardmäßige Anzahl an Threads, welche die empfangenen Pakete verarbeiten. Da alle Veränderungen einer Welt über
+     * die {@link WorldLocks} serialisiert werden, werden die Pakete verschiedener Welten auf bis zu vier Threads parallel
+     * verarbeitet.
+     */
+    private static final int DEFAULT_PACKET_THREADS = Math.min(4, Runtime.getRuntime().availableProcessors());
+
     private final Map<Integer, UserConnection> connections;
 
     private final IUserAccountManager accountManager;
     private final IGlobalContext global;
 
+    private PacketExecutor executor;
+    private int packetThreads;
+    private volatile AudioCodec voiceCodec;
+
     public ServerNetworkManager(@NotNull final IUserAccountManager accountManager,
                                 @NotNull final IGlobalContext global) {
-        super(new Server(BUFFER_SIZE, BUFFER_SIZE));
+        this(accountManager, global, new SharedPacketSerialization());
+    }
+
+    private ServerNetworkManager(@NotNull final IUserAccountManager accountManager,
+                                 @NotNull final IGlobalContext global,
+                                 @NotNull final SharedPacketSerialization serialization) {
+        super(new Server(BUFFER_SIZE, BUFFER_SIZE, serialization), serialization);
 
         this.connections = new ConcurrentHashMap<>();
         this.accountManager = accountManager;
         this.global = global;
+        this.packetThreads = DEFAULT_PACKET_THREADS;
+        this.voiceCodec = AudioCodec.ADPCM_16K;
+    }
+
+    /**
+     * Setzt das Verfahren, mit dem die Clients ihre Sprachdaten bevorzugt kodieren sollen.
+     * @param voiceCodec das bevorzugte Verfahren.
+     */
+    public void setVoiceCodec(@NotNull final AudioCodec voiceCodec) {
+        this.voiceCodec = voiceCodec;
+    }
+
+    /**
+     * Gibt das Verfahren zurück, mit dem die Clients ihre Sprachdaten bevorzugt kodieren sollen.
+     * @return das bevorzugte Verfahren.
+     */
+    public @NotNull AudioCodec getVoiceCodec() {
+        return this.voiceCodec;
+    }
+
+    /**
+     * Setzt die Anzahl der Threads, welche die empfangenen Pakete verarbeiten. Bei 0 Threads werden die Pakete direkt
+     * auf dem Netzwerk-Thread verarbeitet. Mehrere Threads verarbeiten die Pakete verschiedener Welten parallel.
+     * @param packetThreads Anzahl der Threads.
+     */
+    public void setPacketThreads(final int packetThreads) {
+        if (this.active) {
+            throw new IllegalStateException("Can not change packet threads while server is active");
+        }
+
+        if (packetThreads < 0) {
+            throw new IllegalArgumentException("Packet thread count must not be negative");
+        }
+
+        this.packetThreads = packetThreads;
+    }
+
+    /**
+     * Gibt den PacketExecutor zurück, der die empfangenen Pakete verarbeitet.
+     * @return die PacketExecutor-Instanz oder null, wenn die Pakete auf dem Netzwerk-Thread verarbeitet werden.
+     */
+    public @Nullable PacketExecutor getPacketExecutor() {
+        return this.executor;
     }
 
     @Override
@@ -90,6 +159,10 @@ public class ServerNetworkManager extends NetworkManager<Server> {
             throw new IllegalStateException("TCP- and UDP-Port can not be equal");
         }
 
+        if (this.packetThreads > 0) {
+            this.executor = new PacketExecutor(this.packetThreads, SOFT_PACKET_LIMIT, HARD_PACKET_LIMIT);
+        }
+
         try {
             this.endPoint.start();
             this.endPoint.bind(this.tcp, this.udp);
@@ -108,6 +181,11 @@ public class ServerNetworkManager extends NetworkManager<Server> {
         this.endPoint.stop();
         this.active = false;
 
+        if (this.executor != null) {
+            this.executor.shutdown();
+            this.executor = null;
+        }
+
         LOGGER.info("Closed Server.");
     }
 }
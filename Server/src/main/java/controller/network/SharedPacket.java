@@ -0,0 +1,101 @@
+package controller.network;
+
+import controller.network.ClientSender.SendAction;
+import controller.network.protocol.Packet;
+import model.user.IUser;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.util.function.Function;
+
+/**
+ * Eine Klasse, welche ein Paket repräsentiert, das unverändert an mehrere Benutzer versendet wird.
+ * <p>
+ *     Das Paket wird für alle Empfänger nur einmal erzeugt und beim ersten Versenden einmal serialisiert. Die
+ *     serialisierten Daten werden anschließend unverändert in die Verbindungen aller weiteren Empfänger geschrieben.
+ *     Daher dürfen nur Informationen geteilt werden, deren Paket nicht vom empfangenden Benutzer abhängt.
+ * </p>
+ * @see SharedPacketSerialization
+ */
+public final class SharedPacket {
+
+    private final SendAction action;
+    private final Object object;
+
+    private Packet<?> packet;
+    private byte[] data;
+
+    /**
+     * Erzeugt eine neue Instanz des SharedPacket.
+     * @param action Die Aktion, die an alle Empfänger gesendet werden soll.
+     * @param object Die Information, die an alle Empfänger gesendet werden soll.
+     * @throws IllegalArgumentException falls das Paket der Aktion vom empfangenden Benutzer abhängt.
+     */
+    public SharedPacket(@NotNull final SendAction action, @NotNull final Object object) {
+        if (!action.isShareable()) {
+            throw new IllegalArgumentException("Packets of action " + action + " can not be shared");
+        }
+
+        this.action = action;
+        this.object = object;
+    }
+
+    /**
+     * Gibt die Aktion zurück, die an alle Empfänger gesendet wird.
+     * @return die gesendete Aktion.
+     */
+    public @NotNull SendAction getAction() {
+        return this.action;
+    }
+
+    /**
+     * Gibt die Information zurück, die an alle Empfänger gesendet wird.
+     * @return die gesendete Information.
+     */
+    public @NotNull Object getObject() {
+        return this.object;
+    }
+
+    /**
+     * Gibt das Paket zurück, welches an alle Empfänger gesendet wird. Das Paket wird beim ersten Aufruf erzeugt.
+     * @param user Der Benutzer, an den das Paket als erstes gesendet wird.
+     * @return das gesendete Paket.
+     */
+    synchronized @NotNull Packet<?> getPacket(@NotNull final IUser user) {
+        if (this.packet == null) {
+            this.packet = this.action.getPacket(user, this.object);
+        }
+
+        return this.packet;
+    }
+
+    /**
+     * Gibt das bereits erzeugte Paket zurück, ohne es zu erzeugen.
+     * @return das gesendete Paket, oder null, falls es noch nicht erzeugt wurde.
+     */
+    synchronized @Nullable Packet<?> getCreatedPacket() {
+        return this.packet;
+    }
+
+    /**
+     * Gibt die serialisierten Daten des Pakets zurück. Die Daten werden beim ersten Aufruf serialisiert.
+     * @param encoder Die Funktion, mit der das Paket serialisiert wird.
+     * @return die serialisierten Daten des Pakets.
+     * @throws IllegalStateException falls das Paket noch nicht erzeugt wurde.
+     */
+    synchronized byte[] getData(@NotNull final Function<Packet<?>, byte[]> encoder) {
+        if (this.data == null) {
+            if (this.packet == null) {
+                throw new IllegalStateException("Shared packet has not been created yet");
+            }
+
+            this.data = encoder.apply(this.packet);
+        }
+
+        return this.data;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "SharedPacket{action=" + this.action + ", packet=" + this.packet + "}";
+    }
+}
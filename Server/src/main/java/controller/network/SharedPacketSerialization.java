@@ -0,0 +1,172 @@
+package controller.network;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Registration;
+import com.esotericsoftware.kryo.io.ByteBufferOutputStream;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryonet.Connection;
+import controller.metrics.ServerMetrics;
+import controller.network.protocol.Packet;
+import org.jetbrains.annotations.NotNull;
+import java.nio.ByteBuffer;
+
+/**
+ * Eine Serialisierung, welche geteilte Pakete nur einmal serialisiert und deren Daten für jeden weiteren Empfänger
+ * unverändert in die Verbindung schreibt.
+ * <p>
+ *     Die geschriebenen Daten entsprechen dabei exakt den Daten, die beim Serialisieren des Pakets selbst entstehen
+ *     würden, sodass die Clients geteilte Pakete nicht von einzeln versendeten Paketen unterscheiden können.
+ * </p>
+ * <p>
+ *     Zusätzlich werden die Dauer der Serialisierung und Deserialisierung sowie die Größe der Pakete in den
+ *     {@link ServerMetrics} erfasst.
+ * </p>
+ * <p>
+ *     Da Pakete von mehreren Threads gleichzeitig versendet werden, serialisiert jeder Thread die Pakete mit einer
+ *     eigenen Kryo-Instanz, welche dieselben Registrierungen wie die Kryo-Instanz der Serialisierung besitzt. Das
+ *     Schreiben und Serialisieren von Paketen ist dadurch nicht synchronisiert. Das Lesen von Paketen findet nur im
+ *     Netzwerk-Thread statt und verwendet weiterhin die Kryo-Instanz der Serialisierung.
+ * </p>
+ * @see SharedPacket
+ */
+public class SharedPacketSerialization extends PacketSerialization {
+
+    /** Anfängliche Größe des Puffers, in den Pakete serialisiert werden. */
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+
+    /** Größe des Puffers, über den Pakete in die Verbindung geschrieben werden. */
+    private static final int WRITE_BUFFER_SIZE = 512;
+
+    private final ServerMetrics metrics;
+    private final ThreadLocal<Encoder> encoders;
+
+    public SharedPacketSerialization() {
+        this(ServerMetrics.getInstance());
+    }
+
+    SharedPacketSerialization(@NotNull final ServerMetrics metrics) {
+        this.metrics = metrics;
+        this.encoders = ThreadLocal.withInitial(Encoder::new);
+    }
+
+    @Override
+    public void write(@NotNull final Connection connection, @NotNull final ByteBuffer buffer,
+                                   @NotNull final Object object) {
+        if (object instanceof SharedPacket) {
+            final SharedPacket shared = (SharedPacket) object;
+            final byte[] data = shared.getData(this::encode);
+            final Packet<?> packet = shared.getCreatedPacket();
+
+            buffer.put(data);
+
+            if (packet != null) {
+                this.metrics.sent(packet.getClass(), data.length);
+            }
+            return;
+        }
+
+        if (!(object instanceof Packet)) {
+            // Nachrichten von KryoNet selbst werden nicht erfasst.
+            encoder().write(connection, buffer, object);
+            return;
+        }
+
+        final int position = buffer.position();
+        final long start = System.nanoTime();
+
+        encoder().write(connection, buffer, object);
+
+        this.metrics.encoded(object.getClass(), System.nanoTime() - start);
+        this.metrics.sent(object.getClass(), buffer.position() - position);
+    }
+
+    @Override
+    public synchronized @NotNull Object read(@NotNull final Connection connection, @NotNull final ByteBuffer buffer) {
+        final int position = buffer.position();
+        final long start = System.nanoTime();
+        final Object object = super.read(connection, buffer);
+
+        if (object instanceof Packet) {
+            this.metrics.decoded(object.getClass(), System.nanoTime() - start, buffer.position() - position);
+        }
+
+        return object;
+    }
+
+    @Override
+    public byte[] encode(@NotNull final Packet<?> packet) {
+        final long start = System.nanoTime();
+        final byte[] data = encoder().encode(packet);
+
+        this.metrics.encoded(packet.getClass(), System.nanoTime() - start);
+        return data;
+    }
+
+    /**
+     * Gibt die Kryo-Instanz des aktuellen Threads zurück und übernimmt zuvor alle Registrierungen, die seit der letzten
+     * Verwendung hinzugekommen sind.
+     * @return Kryo-Instanz des aktuellen Threads.
+     */
+    private @NotNull Encoder encoder() {
+        final Encoder encoder = this.encoders.get();
+        encoder.register(getKryo());
+        return encoder;
+    }
+
+    /**
+     * Eine Klasse, welche die Kryo-Instanz und die Puffer eines Threads enthält.
+     */
+    private static class Encoder {
+
+        private final Kryo kryo;
+        private final ByteBufferOutputStream stream;
+        private final Output writeOutput;
+        private final Output encodeOutput;
+        private int registered;
+
+        public Encoder() {
+            this.kryo = new Kryo();
+            this.kryo.setReferences(false);
+            this.kryo.setRegistrationRequired(true);
+            this.stream = new ByteBufferOutputStream();
+            this.writeOutput = new Output(this.stream, WRITE_BUFFER_SIZE);
+            this.encodeOutput = new Output(INITIAL_BUFFER_SIZE, -1);
+        }
+
+        /**
+         * Übernimmt die Registrierungen einer Kryo-Instanz mit denselben IDs.
+         * @param source Kryo-Instanz, deren Registrierungen übernommen werden.
+         */
+        public void register(@NotNull final Kryo source) {
+            final int next = source.getNextRegistrationId();
+
+            if (next == this.registered) {
+                return;
+            }
+
+            for (int id = 0; id < next; id++) {
+                final Registration registration = source.getRegistration(id);
+
+                if (registration != null) {
+                    this.kryo.register(registration.getType(), id);
+                }
+            }
+
+            this.registered = next;
+        }
+
+        public void write(@NotNull final Connection connection, @NotNull final ByteBuffer buffer,
+                          @NotNull final Object object) {
+            this.stream.setByteBuffer(buffer);
+            this.kryo.getContext().put("connection", connection);
+            this.kryo.writeClassAndObject(this.writeOutput, object);
+            this.writeOutput.flush();
+        }
+
+        public byte[] encode(@NotNull final Packet<?> packet) {
+            this.encodeOutput.setPosition(0);
+            this.kryo.writeClassAndObject(this.encodeOutput, packet);
+            return this.encodeOutput.toBytes();
+        }
+    }
+}
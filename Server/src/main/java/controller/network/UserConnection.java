@@ -2,17 +2,30 @@ package controller.network;
 
 import com.esotericsoftware.kryonet.Connection;
 import com.esotericsoftware.kryonet.Listener;
+import controller.metrics.ServerMetrics;
+import controller.network.protocol.AvatarStateCodec;
+import controller.network.protocol.ChunkReceiver;
+import controller.network.protocol.ChunkSender;
+import controller.network.protocol.ChunkSender.Priority;
 import controller.network.protocol.Packet;
+import controller.network.protocol.PacketAudioCodec;
 import controller.network.protocol.PacketAudioMessage;
 import controller.network.protocol.PacketAvatarMove;
 import controller.network.protocol.PacketAvatarMove.AvatarAction;
 import controller.network.protocol.PacketChatMessage;
+import controller.network.protocol.PacketChunk;
+import controller.network.protocol.PacketChunkCredit;
+import controller.network.protocol.PacketImageChunk;
 import controller.network.protocol.PacketInContextInteract;
 import controller.network.protocol.PacketInUserManage;
+import controller.network.protocol.PacketInViewport;
 import controller.network.protocol.PacketListener;
 import controller.network.protocol.PacketListenerIn;
 import controller.network.protocol.PacketMenuOption;
 import controller.network.protocol.PacketNotificationResponse;
+import controller.network.protocol.PacketOutAvatarMoves;
+import controller.network.protocol.PacketOutAvatarMoves.AvatarMove;
+import controller.network.protocol.PacketOutContextJoin;
 import controller.network.protocol.PacketOutContextList;
 import controller.network.protocol.PacketOutContextRole;
 import controller.network.protocol.PacketOutNotification;
@@ -20,11 +33,15 @@ import controller.network.protocol.PacketOutNotification.Notification;
 import controller.network.protocol.PacketOutUserInfo;
 import controller.network.protocol.PacketOutUserInfo.UserInfo;
 import controller.network.protocol.PacketOutUserInfo.UserInfo.Flag;
+import controller.network.protocol.PacketOutWorldSnapshot;
 import controller.network.protocol.PacketProfileAction;
 import controller.network.protocol.PacketProfileAction.Action;
 import controller.network.protocol.PacketUserTyping;
 import controller.network.protocol.PacketVideoFrame;
+import controller.network.protocol.PacketVideoTileFrame;
 import controller.network.protocol.PacketWorldAction;
+import model.communication.CommunicationHandler;
+import model.communication.ImageStore;
 import model.context.spatial.Direction;
 import model.context.spatial.IWorld;
 import model.exception.ContextNotFoundException;
@@ -44,8 +61,17 @@ import model.role.IContextRole;
 import model.user.AdministrativeAction;
 import model.user.IUser;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import utils.AudioCodec;
+import utils.ImageUtils;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -56,28 +82,151 @@ public class UserConnection extends Listener implements PacketListenerIn, Client
 
     private static final Logger LOGGER = Logger.getLogger("chati.network");
 
+    /** Maximale Größe eines in Abschnitten empfangenen Pakets in Bytes. */
+    private static final int MAX_TRANSFER_SIZE = 1 << 20;
+
     private final ServerNetworkManager manager;
     private final Connection connection;
+    private final AvatarStateCodec avatarCodec;
+
+    /**
+     * Die Anzahl der wartenden Pakete hoher Priorität, die einen Avatar betreffen, je Benutzer-ID. Wird nur unter der
+     * Sperre des ChunkSender verwendet.
+     */
+    private final Map<UUID, Integer> pendingAvatars;
+    private final ChunkSender sender;
+    private final ChunkReceiver receiver;
+    private final PacketExecutor.Lane lane;
+    private final ServerMetrics metrics;
 
-    private IUser user;
+    private volatile IUser user;
 
     public UserConnection(@NotNull final ServerNetworkManager manager, @NotNull final Connection connection) {
+        final PacketExecutor executor = manager.getPacketExecutor();
+
         this.manager = manager;
         this.connection = connection;
+        this.avatarCodec = new AvatarStateCodec();
+        this.pendingAvatars = new HashMap<>();
+        this.sender = new ChunkSender(manager.getCodec(), this::write, connection::isIdle, this::completed);
+        this.receiver = new ChunkReceiver(manager.getCodec(), MAX_TRANSFER_SIZE, connection::sendTCP);
+        this.lane = executor != null ? executor.createLane() : null;
+        this.metrics = ServerMetrics.getInstance();
+    }
+
+    @Override
+    public void send(@NotNull final SharedPacket packet) {
+        if (this.connection.isConnected()) {
+            final Packet<?> shared = packet.getPacket(this.user);
+
+            // Das geteilte Paket wird von der Serialisierung nur beim ersten Empfänger serialisiert.
+            if (shared instanceof PacketAudioMessage || shared instanceof PacketVideoFrame
+                    || shared instanceof PacketVideoTileFrame) {
+                this.connection.sendUDP(packet);
+            } else {
+                this.sender.send(packet, packet.getData(this.manager.getCodec()::encode), getPriority(shared));
+            }
+
+            this.logPacket(shared, true);
+        }
     }
 
     public void send(@NotNull final Packet<?> packet) {
         if (this.connection.isConnected()) {
-            if (packet instanceof PacketAudioMessage || packet instanceof PacketVideoFrame) {
+            if (packet instanceof PacketAudioMessage || packet instanceof PacketVideoFrame
+                    || packet instanceof PacketVideoTileFrame) {
                 this.connection.sendUDP(packet);
+            } else if (packet instanceof PacketOutAvatarMoves) {
+                this.sendMoves((PacketOutAvatarMoves) packet);
             } else {
-                this.connection.sendTCP(packet);
+                synchronized (this.sender) {
+                    this.retainAvatars(packet);
+                    this.sender.send(packet, getPriority(packet));
+                }
             }
 
             this.logPacket(packet, true);
         }
     }
 
+    /**
+     * Versendet die Bewegungen von Avataren. Die Bewegungen der Avatare, deren Erscheinen beim Client noch in der
+     * Warteschlange hoher Priorität wartet, werden nach diesem versendet. Alle übrigen Bewegungen überholen die
+     * wartenden Pakete, damit sie nicht durch große Pakete wie einen Weltzustand verzögert werden.
+     * @param packet Zu versendende Bewegungen.
+     */
+    private void sendMoves(@NotNull final PacketOutAvatarMoves packet) {
+        synchronized (this.sender) {
+            final List<AvatarMove> realtime = new ArrayList<>();
+            final List<AvatarMove> ordered = new ArrayList<>();
+
+            for (final AvatarMove move : packet.getMoves()) {
+                if (this.pendingAvatars.containsKey(move.getUserId())) {
+                    ordered.add(move);
+                } else {
+                    realtime.add(move);
+                }
+            }
+
+            if (ordered.isEmpty()) {
+                this.sender.send(packet, Priority.REALTIME);
+                return;
+            }
+
+            if (!realtime.isEmpty()) {
+                this.sender.send(new PacketOutAvatarMoves(realtime), Priority.REALTIME);
+            }
+
+            final PacketOutAvatarMoves held = new PacketOutAvatarMoves(ordered);
+
+            this.retainAvatars(held);
+            this.sender.send(held, Priority.HIGH);
+        }
+    }
+
+    /**
+     * Schreibt ein Paket in die Verbindung. Die Bewegungen von Avataren werden dabei relativ zum zuletzt geschriebenen
+     * Zustand kodiert, sodass der Client sie in der Reihenfolge dekodiert, in der sie kodiert wurden.
+     * @param object Zu schreibendes Objekt.
+     */
+    private void write(@NotNull final Object object) {
+        if (object instanceof PacketOutAvatarMoves) {
+            ((PacketOutAvatarMoves) object).encode(this.avatarCodec);
+        }
+
+        this.connection.sendTCP(object);
+    }
+
+    /**
+     * Wird aufgerufen, sobald ein Paket vollständig geschrieben wurde. Der Client verwirft die Zustände der Avatare beim
+     * Empfang des Betretens eines Kontexts und beim Entfernen eines Avatars an der gleichen Stelle der Paketfolge.
+     * @param object Geschriebenes Objekt.
+     */
+    private void completed(@NotNull final Object object) {
+        if (!(object instanceof Packet<?>)) {
+            return;
+        }
+
+        final Packet<?> packet = (Packet<?>) object;
+
+        if (packet instanceof PacketOutContextJoin) {
+            this.avatarCodec.reset();
+        } else if (isAvatarRemove(packet)) {
+            this.avatarCodec.remove(((PacketAvatarMove) packet).getUserId());
+        }
+
+        getAvatars(packet).forEach(userId -> this.pendingAvatars.computeIfPresent(userId,
+                (key, count) -> count > 1 ? count - 1 : null));
+    }
+
+    /**
+     * Vermerkt die Avatare, deren Erscheinen oder Bewegung ein wartendes Paket hoher Priorität enthält.
+     * @param packet Einzureihendes Paket.
+     */
+    private void retainAvatars(@NotNull final Packet<?> packet) {
+        getAvatars(packet).forEach(userId -> this.pendingAvatars.merge(userId, 1, Integer::sum));
+    }
+
     @Override
     public void send(@NotNull final SendAction action, @NotNull final Object object) {
         this.send(action.getPacket(this.user, object));
@@ -92,19 +241,146 @@ public class UserConnection extends Listener implements PacketListenerIn, Client
         }
 
         if (object instanceof Packet<?>) {
-            this.logPacket((Packet<?>) object, false);
+            final Packet<?> packet = (Packet<?>) object;
 
-            try {
-                call((Packet<?>) object, this);
-            } catch (ClassCastException ex) {
-                // Illegales Netzwerkpaket erhalten. Verbindung trennen.
-                this.connection.close();
-            } catch (Exception ex) {
-                // Unerwartete Exceptions abfangen, sodass ein Fehler nicht direkt zum Absturz der Anwendung führt.
-                LOGGER.log(Level.WARNING, "Unhandled exception while processing network-packet "
-                        + object.getClass().getSimpleName() + " from connection " + connection.getID(), ex);
+            this.logPacket(packet, false);
+
+            // Abschnitte werden direkt auf dem Netzwerk-Thread zusammengesetzt, damit das Guthaben des Senders
+            // unabhängig von der Auslastung der Verarbeitung erneuert wird.
+            if (packet instanceof PacketChunk || packet instanceof PacketChunkCredit) {
+                this.process(packet);
+                return;
+            }
+
+            if (this.lane == null) {
+                WorldLocks.getInstance().execute(() -> this.getScope(packet), () -> this.process(packet));
+                return;
+            }
+
+            final boolean droppable = isDroppable(packet);
+
+            // Die Verarbeitung findet nicht auf dem Netzwerk-Thread statt, damit dieser nicht blockiert wird.
+            if (!this.lane.submit(() -> this.process(packet), () -> this.getScope(packet), droppable)) {
+                if (droppable) {
+                    LOGGER.fine(String.format("Dropped packet %s from overloaded connection %s",
+                            packet.getClass().getSimpleName(), this.connection.getID()));
+                } else {
+                    LOGGER.warning(String.format("Connection %s exceeded the limit of pending packets. Closing connection...",
+                            this.connection.getID()));
+                    this.connection.close();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void idle(@NotNull final Connection connection) {
+        if (this.connection.equals(connection)) {
+            this.sender.flush();
+        }
+    }
+
+    /**
+     * Verarbeitet ein empfangenes Paket.
+     * @param packet Zu verarbeitendes Paket.
+     */
+    private void process(@NotNull final Packet<?> packet) {
+        final long start = System.nanoTime();
+
+        try {
+            call(packet, this);
+        } catch (ClassCastException ex) {
+            // Illegales Netzwerkpaket erhalten. Verbindung trennen.
+            this.connection.close();
+        } catch (Exception ex) {
+            // Unerwartete Exceptions abfangen, sodass ein Fehler nicht direkt zum Absturz der Anwendung führt.
+            LOGGER.log(Level.WARNING, "Unhandled exception while processing network-packet "
+                    + packet.getClass().getSimpleName() + " from connection " + this.connection.getID(), ex);
+        } finally {
+            this.metrics.handled(packet.getClass(), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Gibt die Welt zurück, innerhalb der ein Paket verarbeitet wird. Pakete, die den Benutzer an- oder abmelden, seine
+     * Welt verändern oder Benutzer in anderen Welten betreffen können, werden außerhalb einer Welt verarbeitet. Dazu
+     * gehören die Verwaltung anderer Benutzer, die Antworten auf Benachrichtigungen und Chatbefehle wie
+     * Flüsternachrichten.
+     * @param packet Zu verarbeitendes Paket.
+     * @return Welt des Benutzers oder null, wenn das Paket außerhalb einer Welt verarbeitet werden muss.
+     */
+    private @Nullable Object getScope(@NotNull final Packet<?> packet) {
+        final IUser user = this.user;
+
+        if (user == null || packet instanceof PacketProfileAction || packet instanceof PacketWorldAction
+                || packet instanceof PacketInUserManage || packet instanceof PacketNotificationResponse) {
+            return null;
+        }
+
+        if (packet instanceof PacketChatMessage && ((PacketChatMessage) packet).getMessage() != null
+                && CommunicationHandler.isChatCommand(((PacketChatMessage) packet).getMessage())) {
+            return null;
+        }
+
+        return user.getWorld();
+    }
+
+    /**
+     * Gibt die Priorität zurück, mit der ein Paket versendet wird. Pakete, die keinen sichtbaren Zustand des Clients
+     * verändern, werden im Hintergrund versendet.
+     * @param packet Zu versendendes Paket.
+     * @return Priorität des Pakets.
+     */
+    private static @NotNull Priority getPriority(@NotNull final Packet<?> packet) {
+        return packet instanceof PacketOutContextList || packet instanceof PacketImageChunk
+                ? Priority.LOW : Priority.HIGH;
+    }
+
+    /**
+     * Gibt die Benutzer-IDs der Avatare zurück, die ein Paket beim Client erscheinen lässt oder bewegt, nachdem sie
+     * erschienen sind.
+     * @param packet Zu überprüfendes Paket.
+     * @return Benutzer-IDs der betroffenen Avatare.
+     */
+    private static @NotNull List<UUID> getAvatars(@NotNull final Packet<?> packet) {
+        final List<UUID> avatars = new ArrayList<>();
+
+        if (packet instanceof PacketOutWorldSnapshot) {
+            for (final PacketAvatarMove avatar : ((PacketOutWorldSnapshot) packet).getAvatars()) {
+                avatars.add(avatar.getUserId());
+            }
+        } else if (packet instanceof PacketAvatarMove && ((PacketAvatarMove) packet).getUserId() != null
+                && ((PacketAvatarMove) packet).getAction() == AvatarAction.SPAWN_AVATAR) {
+            avatars.add(((PacketAvatarMove) packet).getUserId());
+        } else if (packet instanceof PacketOutAvatarMoves) {
+            for (final AvatarMove move : ((PacketOutAvatarMoves) packet).getMoves()) {
+                avatars.add(move.getUserId());
             }
         }
+
+        return avatars;
+    }
+
+    /**
+     * Gibt zurück, ob ein Paket einen Avatar aus dem Raum des Clients entfernt.
+     * @param packet Zu überprüfendes Paket.
+     * @return true, wenn das Paket einen Avatar entfernt, sonst false.
+     */
+    private static boolean isAvatarRemove(@NotNull final Packet<?> packet) {
+        return packet instanceof PacketAvatarMove && ((PacketAvatarMove) packet).getAction() == AvatarAction.REMOVE_AVATAR
+                && ((PacketAvatarMove) packet).getUserId() != null;
+    }
+
+    /**
+     * Gibt zurück, ob ein Paket bei einer überlasteten Verbindung verworfen werden darf, da es durch nachfolgende
+     * Pakete ersetzt wird oder nur flüchtige Daten enthält.
+     * @param packet Zu überprüfendes Paket.
+     * @return true, wenn das Paket verworfen werden darf, sonst false.
+     */
+    private static boolean isDroppable(@NotNull final Packet<?> packet) {
+        return packet instanceof PacketAvatarMove || packet instanceof PacketAudioMessage
+                || packet instanceof PacketVideoFrame || packet instanceof PacketVideoTileFrame
+                || packet instanceof PacketUserTyping;
     }
 
     @Override
@@ -115,9 +391,20 @@ public class UserConnection extends Listener implements PacketListenerIn, Client
             return;
         }
 
-        if (this.user != null) {
+        if (this.lane != null) {
+            // Die Abmeldung erfolgt erst, nachdem alle zuvor empfangenen Pakete verarbeitet wurden.
+            this.lane.close(this::logout, () -> null);
+        } else {
+            WorldLocks.getInstance().executeExclusive(this::logout);
+        }
+    }
+
+    private void logout() {
+        final IUser user = this.user;
+
+        if (user != null) {
             try {
-                this.manager.getAccountManager().logoutUser(this.user.getUserId());
+                this.manager.getAccountManager().logoutUser(user.getUserId());
                 this.user = null;
             } catch (UserNotFoundException ex) {
                 // Sollte niemals der Fall sein.
@@ -193,6 +480,12 @@ public class UserConnection extends Listener implements PacketListenerIn, Client
                 return;
             }
 
+            // Stillemarkierungen beenden nur den Sprachabschnitt und werden nicht an andere Benutzer verteilt.
+            if (packet.isSilence()) {
+                this.user.stopTalking();
+                return;
+            }
+
             this.user.talk(packet.getAudioData());
         } else {
             this.logUnexpectedPacket(packet, "Can not talk while not in a world");
@@ -223,12 +516,71 @@ public class UserConnection extends Listener implements PacketListenerIn, Client
                 return;
             }
 
+            if (packet.getImageData().length > ImageUtils.MAX_IMAGE_SIZE) {
+                this.logInvalidPacket(packet, "Image can not be larger than " + ImageUtils.MAX_IMAGE_SIZE + " bytes");
+                return;
+            }
+
             this.user.chat(packet.getMessage(), packet.getImageData(), packet.getImageName());
         } else {
             this.logUnexpectedPacket(packet, "Can not chat while not in a world");
         }
     }
 
+    @Override
+    public void handle(@NotNull final PacketImageChunk packet) {
+        if (this.user == null) {
+            this.logUnexpectedPacket(packet, "Can not request image while not logged in");
+            return;
+        }
+
+        if (!ImageUtils.isHash(packet.getHash()) || packet.getOffset() < 0) {
+            this.logInvalidPacket(packet, "Image-Hash must be valid and offset must not be negative");
+            return;
+        }
+
+        // Die Bildanhänge werden erst auf Anfrage und nur abschnittsweise versendet, sodass andere Pakete der
+        // Verbindung nicht durch große Bildanhänge verzögert werden.
+        final ImageStore store = ImageStore.getInstance();
+        final int size = store.getSize(packet.getHash());
+        final byte[] data = size >= 0 ? store.read(packet.getHash(), packet.getOffset()) : null;
+
+        if (data != null) {
+            this.send(new PacketImageChunk(packet.getHash(), packet.getOffset(), size, data));
+        } else {
+            this.send(new PacketImageChunk(packet.getHash(), packet.getOffset(), -1, new byte[0]));
+        }
+    }
+
+    @Override
+    public void handle(@NotNull final PacketChunk packet) {
+        final Packet<?> completed;
+
+        try {
+            completed = this.receiver.receive(packet);
+        } catch (IllegalArgumentException ex) {
+            // Der Client hält sich nicht an das Protokoll der Übertragung. Verbindung trennen.
+            this.logInvalidPacket(packet, ex.getMessage());
+            this.connection.close();
+            return;
+        }
+
+        if (completed != null) {
+            // Das zusammengesetzte Paket wird wie ein direkt empfangenes Paket verarbeitet.
+            this.received(this.connection, completed);
+        }
+    }
+
+    @Override
+    public void handle(@NotNull final PacketChunkCredit packet) {
+        try {
+            this.sender.credit(packet.getCredit());
+        } catch (IllegalArgumentException ex) {
+            this.logInvalidPacket(packet, ex.getMessage());
+            this.connection.close();
+        }
+    }
+
     @Override
     public void handle(@NotNull final PacketMenuOption packet) {
         if (this.user == null) {
@@ -465,6 +817,31 @@ public class UserConnection extends Listener implements PacketListenerIn, Client
         }
     }
 
+    @Override
+    public void handle(@NotNull final PacketVideoTileFrame packet) {
+        if (this.user == null) {
+            this.logUnexpectedPacket(packet, "Can not share screen while not logged in");
+            return;
+        }
+
+        if (this.user.getWorld() != null) {
+            // Überprüfung, ob gegebenenfalls eine falsche User-ID versendet wurde.
+            if (packet.getSenderId() != null && !packet.getSenderId().equals(this.user.getUserId())) {
+                this.logInvalidPacket(packet, "User-ID must be the own or null");
+                return;
+            }
+
+            if (packet.isKeyframe() == (packet.getTiles().length > 0)) {
+                this.logInvalidPacket(packet, "Keyframes must contain the full screen, other frames at least one tile");
+                return;
+            }
+
+            this.user.shareTiles(packet.isKeyframe(), packet.getSequence(), packet.getTiles(), packet.getTileData());
+        } else {
+            this.logUnexpectedPacket(packet, "Can not share screen while not in a world");
+        }
+    }
+
     @Override
     public void handle(@NotNull final PacketWorldAction packet) {
         if (this.user == null) {
@@ -570,6 +947,31 @@ public class UserConnection extends Listener implements PacketListenerIn, Client
         }
     }
 
+    @Override
+    public void handle(@NotNull final PacketInViewport packet) {
+        if (this.user == null) {
+            this.logUnexpectedPacket(packet, "Can not change viewport while not logged in");
+            return;
+        }
+
+        if (!Float.isFinite(packet.getWidth()) || !Float.isFinite(packet.getHeight())
+                || packet.getWidth() <= 0 || packet.getHeight() <= 0) {
+            this.logInvalidPacket(packet, "Viewport size must be positive");
+            return;
+        }
+
+        this.user.setViewport(packet.getWidth(), packet.getHeight());
+    }
+
+    @Override
+    public void handle(@NotNull final PacketAudioCodec packet) {
+        // Das Verfahren wird für die Verbindung unabhängig von der Anmeldung des Benutzers ausgehandelt.
+        final AudioCodec codec = AudioCodec.select(this.manager.getVoiceCodec(), Arrays.asList(packet.getCodecs()));
+
+        LOGGER.fine(String.format("Selected voice codec %s for connection %s", codec, this.connection.getID()));
+        this.send(new PacketAudioCodec(codec));
+    }
+
     @Override
     public @NotNull String toString() {
         if (this.user != null) {
@@ -580,13 +982,10 @@ public class UserConnection extends Listener implements PacketListenerIn, Client
     }
 
     private void logPacket(@NotNull final Packet<?> packet, final boolean sent) {
-        final Level level = (packet instanceof PacketAvatarMove && ((PacketAvatarMove) packet).getAction() == AvatarAction.MOVE_AVATAR)
-                || packet instanceof PacketAudioMessage || packet instanceof PacketVideoFrame ? Level.FINER : Level.FINE;
-
         if (sent) {
-            LOGGER.log(level, String.format("Sent packet to connection %s: %s", this.connection.getID(), packet));
+            this.manager.getPacketTrace().sent(packet, this.connection.getID());
         } else {
-            LOGGER.log(level, String.format("Received packet from connection %s: %s", this.connection.getID(), packet));
+            this.manager.getPacketTrace().received(packet, this.connection.getID());
         }
     }
 
@@ -0,0 +1,110 @@
+package controller.network;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Eine Klasse, welche die Veränderungen einer Welt wie von einem Aktor der Welt serialisiert.
+ * <p>
+ *     Jede Aufgabe, die den Zustand einer Welt, ihrer Räume oder ihrer Benutzer liest oder verändert, wird innerhalb der
+ *     Sperre dieser Welt ausgeführt. Aufgaben verschiedener Welten werden dabei parallel ausgeführt. Aufgaben ohne Welt,
+ *     wie An- und Abmeldungen oder Ereignisse, die Benutzer in beliebigen Welten betreffen können, werden exklusiv
+ *     gegenüber allen anderen Aufgaben ausgeführt.
+ * </p>
+ * <p>
+ *     Neben den empfangenen Paketen werden auch die Aufgaben der Hintergrund-Threads, wie das Versenden der Bewegungen,
+ *     das Mischen von Sprachdaten, die Quellen des MediaScheduler, das Verhalten der Bots und die zeitlich geplanten
+ *     Ereignisse, über diese Klasse ausgeführt. Eine Aufgabe innerhalb einer Welt darf keine exklusive Aufgabe direkt
+ *     ausführen, da die Sperre einer Welt nicht in die exklusive Sperre umgewandelt werden kann.
+ * </p>
+ * @see PacketExecutor
+ */
+public class WorldLocks {
+
+    /** Singleton-Instanz der Klasse. */
+    private static WorldLocks worldLocks;
+
+    private final ReentrantReadWriteLock globalLock;
+    private final Map<Object, ReentrantLock> locks;
+
+    /**
+     * Erzeugt eine neue Instanz der WorldLocks. Außerhalb von Tests wird die Singleton-Instanz verwendet.
+     */
+    WorldLocks() {
+        this.globalLock = new ReentrantReadWriteLock();
+        this.locks = Collections.synchronizedMap(new WeakHashMap<>());
+    }
+
+    /**
+     * Führt eine Aufgabe exklusiv gegenüber allen anderen Aufgaben aus.
+     * @param task Auszuführende Aufgabe.
+     */
+    public void executeExclusive(@NotNull final Runnable task) {
+        this.execute(() -> null, task);
+    }
+
+    /**
+     * Führt eine Aufgabe innerhalb der Sperre einer Welt aus.
+     * @param world Welt der Aufgabe oder null, wenn die Aufgabe exklusiv ausgeführt werden muss.
+     * @param task Auszuführende Aufgabe.
+     */
+    public void execute(@Nullable final Object world, @NotNull final Runnable task) {
+        this.execute(() -> world, task);
+    }
+
+    /**
+     * Führt eine Aufgabe innerhalb der Sperre ihrer Welt aus. Ändert sich die Welt, während auf die Sperre gewartet
+     * wird, so wird die Sperre der neuen Welt verwendet.
+     * @param scope Funktion, welche die Welt der Aufgabe liefert, oder null, wenn die Aufgabe exklusiv ausgeführt
+     * werden muss.
+     * @param task Auszuführende Aufgabe.
+     */
+    public void execute(@NotNull final Supplier<Object> scope, @NotNull final Runnable task) {
+        while (true) {
+            final Object world = scope.get();
+
+            if (world == null) {
+                this.globalLock.writeLock().lock();
+
+                try {
+                    task.run();
+                    return;
+                } finally {
+                    this.globalLock.writeLock().unlock();
+                }
+            }
+
+            final ReentrantLock worldLock = this.locks.computeIfAbsent(world, key -> new ReentrantLock());
+
+            this.globalLock.readLock().lock();
+            worldLock.lock();
+
+            try {
+                if (world == scope.get()) {
+                    task.run();
+                    return;
+                }
+            } finally {
+                worldLock.unlock();
+                this.globalLock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Gibt die Singleton-Instanz der WorldLocks zurück.
+     * @return Singleton-Instanz der WorldLocks.
+     */
+    public static synchronized @NotNull WorldLocks getInstance() {
+        if (worldLocks == null) {
+            worldLocks = new WorldLocks();
+        }
+        return worldLocks;
+    }
+}
@@ -0,0 +1,504 @@
+package model.communication;
+
+import controller.metrics.ServerMetrics;
+import controller.network.ClientSender.SendAction;
+import controller.network.SharedPacket;
+import controller.network.WorldLocks;
+import model.communication.message.MixedAudioMessage;
+import model.context.spatial.Area;
+import model.user.User;
+import org.jetbrains.annotations.NotNull;
+import utils.AudioCodec;
+import utils.AudioUtils;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Eine Klasse, welche die Sprachdaten in Bereichen mit vielen gleichzeitigen Sprechern auf dem Server mischt.
+ * <p>
+ *     Solange in einem Bereich nur wenige Benutzer sprechen, werden die Sprachdaten eines Sprechers unverändert an
+ *     jeden empfangsberechtigten Benutzer weitergeleitet. Erreicht die Anzahl der aktiven Sprecher eines Bereichs den
+ *     Schwellwert, so werden die Sprachdaten der Sprecher gepuffert und einmal pro Audioframe zu einem einzelnen
+ *     Datenstrom gemischt. Jeder Zuhörer erhält dabei nur die Sprachdaten der übrigen Sprecher, sodass er seine eigene
+ *     Stimme nicht hört. Zuhörer, welche dieselben Sprecher hören, erhalten dieselbe Mischung.
+ * </p>
+ * <p>
+ *     Sinkt die Anzahl der aktiven Sprecher deutlich unter den Schwellwert, so wird wieder zur direkten Weiterleitung
+ *     gewechselt.
+ * </p>
+ * <p>
+ *     Die empfangenen Sprachdaten werden vor dem Mischen dekodiert. Die gemischten Sprachdaten werden mit dem Verfahren
+ *     aus {@link CommunicationHandler#getVoiceCodec()} kodiert.
+ * </p>
+ */
+public class AudioMixer {
+
+    private static final Logger LOGGER = Logger.getLogger("chati.audio-mixer");
+
+    /** Standardmäßige Anzahl an aktiven Sprechern, ab der die Sprachdaten eines Bereichs gemischt werden. */
+    public static final int DEFAULT_THRESHOLD = 4;
+
+    /** Anzahl an Sprechern, um die der Schwellwert unterschritten werden muss, bevor das Mischen beendet wird. */
+    private static final int HYSTERESIS = 1;
+
+    /** Zeit ohne empfangene Sprachdaten, nach der ein Sprecher nicht mehr als aktiv gilt, in Nanosekunden. */
+    private static final long SPEAKER_TIMEOUT = TimeUnit.MILLISECONDS.toNanos(500);
+
+    /** Anzahl an Audioframes, die je Sprecher maximal gepuffert werden. */
+    private static final int BUFFERED_FRAMES = 8;
+
+    /** Anzahl an Audioframes, die gepuffert sein müssen, bevor die Sprachdaten eines Sprechers gemischt werden. */
+    private static final int PRIMED_FRAMES = 2;
+
+    /** Maximale Anzahl an Sprechern, deren Sprachdaten in einem Bereich gemischt werden. */
+    private static final int MAX_SPEAKERS = Long.SIZE;
+
+    /** Anzahl der Samples eines Audioframes. */
+    private static final int FRAME_SAMPLES = AudioUtils.FRAME_SIZE / AudioUtils.SAMPLE_SIZE_IN_BYTES;
+
+    /** Singleton-Instanz der Klasse. */
+    private static AudioMixer mixer;
+
+    /** Bereiche, in denen Benutzer gerade sprechen. */
+    private final Map<Area, Region> regions;
+
+    /** Schnittstelle zur Messung der Rechenzeit des Mischens, falls diese unterstützt wird. */
+    private final ThreadMXBean threadBean;
+
+    /** Anzahl an aktiven Sprechern, ab der die Sprachdaten eines Bereichs gemischt werden. */
+    private volatile int threshold;
+
+    /* Die Messwerte werden ausschließlich vom Thread des Mischers geschrieben. */
+    private volatile long mixedFrames;
+    private volatile long totalMixTime;
+    private volatile long maxMixTime;
+
+    /**
+     * Erzeugt eine neue Instanz des AudioMixer.
+     * @param threshold Anzahl an aktiven Sprechern, ab der gemischt wird.
+     */
+    AudioMixer(final int threshold) {
+        this.regions = new ConcurrentHashMap<>();
+        this.threshold = threshold;
+
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        this.threadBean = bean.isCurrentThreadCpuTimeSupported() && bean.isThreadCpuTimeEnabled() ? bean : null;
+    }
+
+    /**
+     * Startet das Mischen im Takt der Audioframes.
+     */
+    void start() {
+        final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread mixerThread = new Thread(runnable, "Audio-Mixer");
+            mixerThread.setDaemon(true);
+            return mixerThread;
+        });
+
+        final long period = TimeUnit.SECONDS.toNanos(1) / AudioUtils.FRAME_RATE;
+        executor.scheduleAtFixedRate(this::tick, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Übergibt die Sprachdaten eines Sprechers an den Mischer.
+     * @param area Bereich, in dem sich der Sprecher befindet.
+     * @param speaker Sprechender Benutzer.
+     * @param voiceData Sprachdaten des Sprechers.
+     * @return true, wenn die Sprachdaten gemischt werden und nicht direkt weitergeleitet werden dürfen, sonst false.
+     */
+    public boolean submit(@NotNull final Area area, @NotNull final User speaker, final byte[] voiceData) {
+        final int threshold = this.threshold;
+
+        if (threshold <= 0) {
+            return false;
+        }
+
+        return regions.computeIfAbsent(area, Region::new).submit(speaker, voiceData, System.nanoTime(), threshold);
+    }
+
+    /**
+     * Teilt dem Mischer mit, dass ein Sprecher seinen Sprachabschnitt beendet hat. Der Sprecher gilt danach nicht
+     * mehr als aktiv, seine bereits gepufferten Sprachdaten werden jedoch noch gemischt.
+     * @param area Bereich, in dem sich der Sprecher befindet.
+     * @param speaker Sprecher, der seinen Sprachabschnitt beendet hat.
+     */
+    public void release(@NotNull final Area area, @NotNull final User speaker) {
+        final Region region = regions.get(area);
+
+        if (region != null) {
+            region.release(speaker, System.nanoTime(), this.threshold);
+        }
+    }
+
+    /**
+     * Setzt die Anzahl an aktiven Sprechern, ab der die Sprachdaten eines Bereichs gemischt werden.
+     * @param threshold Anzahl an aktiven Sprechern, oder 0, wenn nicht gemischt werden soll.
+     */
+    public void setThreshold(final int threshold) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("Threshold must not be negative");
+        }
+
+        this.threshold = threshold;
+    }
+
+    /**
+     * Gibt die Anzahl an aktiven Sprechern zurück, ab der die Sprachdaten eines Bereichs gemischt werden.
+     * @return Anzahl an aktiven Sprechern, oder 0, wenn nicht gemischt wird.
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Gibt die Anzahl der Bereiche zurück, deren Sprachdaten gerade gemischt werden.
+     * @return Anzahl der gemischten Bereiche.
+     */
+    public int getMixingAreas() {
+        return (int) regions.values().stream().filter(Region::isMixing).count();
+    }
+
+    /**
+     * Gibt die Anzahl der bisher gemischten Audioframes zurück.
+     * @return Anzahl der gemischten Audioframes.
+     */
+    public long getMixedFrames() {
+        return mixedFrames;
+    }
+
+    /**
+     * Gibt die durchschnittliche Rechenzeit des Mischens eines Audioframes zurück.
+     * @return durchschnittliche Rechenzeit in Mikrosekunden.
+     */
+    public long getAverageMixTime() {
+        final long frames = mixedFrames;
+        return frames > 0 ? TimeUnit.NANOSECONDS.toMicros(totalMixTime / frames) : 0;
+    }
+
+    /**
+     * Gibt die maximale Rechenzeit des Mischens eines Audioframes zurück.
+     * @return maximale Rechenzeit in Mikrosekunden.
+     */
+    public long getMaxMixTime() {
+        return TimeUnit.NANOSECONDS.toMicros(maxMixTime);
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "{threshold=" + threshold + ", mixingAreas=" + getMixingAreas() + ", mixedFrames=" + mixedFrames
+                + ", averageMixTime=" + getAverageMixTime() + "us, maxMixTime=" + getMaxMixTime() + "us}";
+    }
+
+    /**
+     * Mischt für jeden Bereich, in dem gemischt wird, ein Audioframe und versendet die Mischungen an die Zuhörer.
+     */
+    void tick() {
+        final long now = System.nanoTime();
+        final List<Mix> mixes = new ArrayList<>();
+        final long start = time();
+
+        for (final Map.Entry<Area, Region> entry : regions.entrySet()) {
+            final Region region = entry.getValue();
+
+            try {
+                // Die Zuhörer werden innerhalb der Sperre der Welt ermittelt, in der sich der Bereich befindet.
+                WorldLocks.getInstance().execute(entry.getKey().getWorld(), () -> region.mix(now, threshold, mixes));
+            } catch (RuntimeException ex) {
+                // Eine Ausnahme darf den Takt nicht beenden, da sonst keine weiteren Sprachdaten gemischt werden.
+                LOGGER.log(Level.WARNING, "Failed to mix voice data in area " + entry.getKey().getContextName(), ex);
+            }
+
+            if (region.isEmpty()) {
+                regions.remove(entry.getKey(), region);
+            }
+        }
+
+        if (mixes.isEmpty()) {
+            return;
+        }
+
+        final long mixTime = time() - start;
+
+        mixedFrames++;
+        totalMixTime += mixTime;
+        maxMixTime = Math.max(maxMixTime, mixTime);
+
+        // Das Versenden zählt nicht zur Rechenzeit des Mischens.
+        for (final Mix mix : mixes) {
+            final SharedPacket packet = new SharedPacket(SendAction.AUDIO, mix.message);
+            mix.listeners.forEach(listener -> listener.send(packet));
+            ServerMetrics.getInstance().fanOut(SendAction.AUDIO, mix.listeners.size());
+        }
+    }
+
+    private long time() {
+        return threadBean != null ? threadBean.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    /**
+     * Gibt die Singleton-Instanz des AudioMixer zurück.
+     * @return Singleton-Instanz des AudioMixer.
+     */
+    public static synchronized @NotNull AudioMixer getInstance() {
+        if (mixer == null) {
+            mixer = new AudioMixer(DEFAULT_THRESHOLD);
+            mixer.start();
+        }
+        return mixer;
+    }
+
+    /**
+     * Eine Klasse, welche eine gemischte Audionachricht und die Zuhörer, die diese erhalten, repräsentiert.
+     */
+    private static class Mix {
+
+        private final Collection<User> listeners;
+        private final MixedAudioMessage message;
+
+        public Mix(@NotNull final Collection<User> listeners, @NotNull final MixedAudioMessage message) {
+            this.listeners = listeners;
+            this.message = message;
+        }
+    }
+
+    /**
+     * Eine Klasse, welche die Sprecher eines Bereichs verwaltet.
+     */
+    private static class Region {
+
+        private final Area area;
+        private final Map<User, Speaker> speakers;
+        private final int[] total;
+        private boolean mixing;
+        private int sequence;
+
+        public Region(@NotNull final Area area) {
+            this.area = area;
+            this.speakers = new LinkedHashMap<>();
+            this.total = new int[FRAME_SAMPLES];
+        }
+
+        public synchronized boolean submit(@NotNull final User user, final byte[] voiceData, final long now,
+                                           final int threshold) {
+            final Speaker speaker = speakers.computeIfAbsent(user, Speaker::new);
+            speaker.lastActive = now;
+
+            update(now, threshold);
+
+            if (mixing) {
+                // Die Zuhörer werden auf dem Thread der Paketverarbeitung ermittelt, da die kommunizierbaren Benutzer
+                // nicht auf dem Thread des Mischers gelesen werden dürfen.
+                speaker.listeners = user.getLocation() != null
+                        ? List.copyOf(user.getCommunicableUsers().values()) : List.of();
+
+                try {
+                    speaker.write(AudioCodec.decode(voiceData));
+                } catch (IllegalArgumentException ex) {
+                    // Ungültige Sprachdaten können nicht gemischt werden und werden verworfen.
+                    LOGGER.fine("Dropped invalid voice data of user " + user.getUsername() + ": " + ex.getMessage());
+                }
+            }
+
+            return mixing;
+        }
+
+        public synchronized void release(@NotNull final User user, final long now, final int threshold) {
+            final Speaker speaker = speakers.get(user);
+
+            if (speaker != null) {
+                speaker.lastActive = now - SPEAKER_TIMEOUT - 1;
+                update(now, threshold);
+            }
+        }
+
+        public synchronized boolean isMixing() {
+            return mixing;
+        }
+
+        public synchronized boolean isEmpty() {
+            return speakers.isEmpty();
+        }
+
+        public synchronized void mix(final long now, final int threshold, @NotNull final List<Mix> mixes) {
+            speakers.values().removeIf(speaker -> now - speaker.lastActive > SPEAKER_TIMEOUT && speaker.size == 0);
+            update(now, threshold);
+
+            if (!mixing) {
+                return;
+            }
+
+            final List<Speaker> frameSpeakers = new ArrayList<>();
+
+            for (final Speaker speaker : speakers.values()) {
+                if (frameSpeakers.size() < MAX_SPEAKERS && speaker.read()) {
+                    frameSpeakers.add(speaker);
+                }
+            }
+
+            if (frameSpeakers.isEmpty()) {
+                return;
+            }
+
+            // Ermittle für jeden Zuhörer die Sprecher, die er hören darf. Ein Sprecher hört sich selbst nicht.
+            final Map<User, Long> listeners = new HashMap<>();
+
+            for (int index = 0; index < frameSpeakers.size(); index++) {
+                final Speaker speaker = frameSpeakers.get(index);
+                final long bit = 1L << index;
+
+                for (final User listener : speaker.listeners) {
+                    if (!listener.equals(speaker.user)) {
+                        listeners.merge(listener, bit, (first, second) -> first | second);
+                    }
+                }
+            }
+
+            final Map<Long, List<User>> groups = new HashMap<>();
+            listeners.forEach((listener, mask) -> groups.computeIfAbsent(mask, key -> new ArrayList<>()).add(listener));
+
+            Arrays.fill(total, 0);
+            for (final Speaker speaker : frameSpeakers) {
+                for (int sample = 0; sample < FRAME_SAMPLES; sample++) {
+                    total[sample] += speaker.frame[sample];
+                }
+            }
+
+            final AudioCodec codec = CommunicationHandler.getVoiceCodec();
+            final int[] sum = new int[FRAME_SAMPLES];
+            final short[] samples = new short[FRAME_SAMPLES];
+
+            for (final Map.Entry<Long, List<User>> group : groups.entrySet()) {
+                final long mask = group.getKey();
+                final List<User> included = new ArrayList<>(Long.bitCount(mask));
+
+                // Je nach Anzahl der enthaltenen Sprecher ist es günstiger, die fehlenden Sprecher von der
+                // Gesamtsumme abzuziehen, anstatt die enthaltenen Sprecher aufzusummieren.
+                final boolean subtract = Long.bitCount(mask) > frameSpeakers.size() / 2;
+
+                if (subtract) {
+                    System.arraycopy(total, 0, sum, 0, FRAME_SAMPLES);
+                } else {
+                    Arrays.fill(sum, 0);
+                }
+
+                for (int index = 0; index < frameSpeakers.size(); index++) {
+                    final Speaker speaker = frameSpeakers.get(index);
+                    final boolean contained = (mask & (1L << index)) != 0;
+
+                    if (contained) {
+                        included.add(speaker.user);
+                    }
+
+                    if (contained != subtract) {
+                        final int sign = subtract ? -1 : 1;
+
+                        for (int sample = 0; sample < FRAME_SAMPLES; sample++) {
+                            sum[sample] += sign * speaker.frame[sample];
+                        }
+                    }
+                }
+
+                for (int sample = 0; sample < FRAME_SAMPLES; sample++) {
+                    samples[sample] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, sum[sample]));
+                }
+
+                mixes.add(new Mix(group.getValue(),
+                        new MixedAudioMessage(codec.encode(samples), sequence, included)));
+            }
+
+            sequence++;
+        }
+
+        private void update(final long now, final int threshold) {
+            final int active = (int) speakers.values().stream()
+                    .filter(speaker -> now - speaker.lastActive <= SPEAKER_TIMEOUT).count();
+
+            if (!mixing && threshold > 0 && active >= threshold) {
+                mixing = true;
+                LOGGER.fine(String.format("Started mixing voice data of %d speakers in area %s",
+                        active, area.getContextName()));
+            } else if (mixing && (threshold <= 0 || active < threshold - HYSTERESIS)) {
+                mixing = false;
+                speakers.values().forEach(Speaker::clear);
+                LOGGER.fine(String.format("Stopped mixing voice data of %d speakers in area %s",
+                        active, area.getContextName()));
+            }
+        }
+    }
+
+    /**
+     * Eine Klasse, welche die gepufferten Sprachdaten eines Sprechers verwaltet.
+     */
+    private static class Speaker {
+
+        private final User user;
+        private final short[] buffer;
+        private final short[] frame;
+        private List<User> listeners;
+        private long lastActive;
+        private int head;
+        private int size;
+        private boolean primed;
+
+        public Speaker(@NotNull final User user) {
+            this.user = user;
+            this.buffer = new short[BUFFERED_FRAMES * FRAME_SAMPLES];
+            this.frame = new short[FRAME_SAMPLES];
+            this.listeners = List.of();
+        }
+
+        public void write(final short[] samples) {
+            // Sind zu viele Sprachdaten gepuffert, werden die ältesten Sprachdaten verworfen.
+            final int length = Math.min(samples.length, buffer.length);
+            final int overflow = size + length - buffer.length;
+
+            if (overflow > 0) {
+                head = (head + overflow) % buffer.length;
+                size -= overflow;
+            }
+
+            for (int index = samples.length - length; index < samples.length; index++) {
+                buffer[(head + size++) % buffer.length] = samples[index];
+            }
+
+            primed |= size >= PRIMED_FRAMES * FRAME_SAMPLES;
+        }
+
+        public boolean read() {
+            if (!primed || size == 0) {
+                primed = false;
+                return false;
+            }
+
+            final int length = Math.min(size, FRAME_SAMPLES);
+
+            for (int index = 0; index < length; index++) {
+                frame[index] = buffer[(head + index) % buffer.length];
+            }
+
+            Arrays.fill(frame, length, FRAME_SAMPLES, (short) 0);
+            head = (head + length) % buffer.length;
+            size -= length;
+            return true;
+        }
+
+        public void clear() {
+            head = 0;
+            size = 0;
+            primed = false;
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package model.communication;
 
+import controller.metrics.ServerMetrics;
 import controller.network.ClientSender.SendAction;
+import controller.network.SharedPacket;
 import model.communication.message.MessageType;
 import model.communication.message.TextMessage;
 import model.communication.message.AudioMessage;
 import model.communication.message.VideoFrame;
+import model.communication.message.VideoTileFrame;
 import model.context.Context;
 import model.context.global.GlobalContext;
 import model.context.spatial.Area;
@@ -18,6 +21,7 @@ import model.user.account.UserAccountManager;
 import model.user.bot.BotManager;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import utils.AudioCodec;
 import java.util.Map;
 import java.util.UUID;
 import java.util.function.Function;
@@ -28,9 +32,29 @@ public class CommunicationHandler {
     /** Ein regulärer Ausdruck für das Verwenden eines Chatbefehls in einer Nachricht.*/
     private static final String CHAT_COMMAND = "\\\\.*";
 
+    /** Das Verfahren, mit dem auf dem Server erzeugte Sprachdaten kodiert werden. */
+    private static volatile AudioCodec voiceCodec = AudioCodec.ADPCM_16K;
+
     private CommunicationHandler() {
     }
 
+    /**
+     * Setzt das Verfahren, mit dem auf dem Server erzeugte Sprachdaten, wie gemischte Sprachdaten oder die
+     * Sprachdaten von Bots, kodiert werden.
+     * @param codec Zu verwendendes Verfahren.
+     */
+    public static void setVoiceCodec(@NotNull final AudioCodec codec) {
+        voiceCodec = codec;
+    }
+
+    /**
+     * Gibt das Verfahren zurück, mit dem auf dem Server erzeugte Sprachdaten kodiert werden.
+     * @return Verwendetes Verfahren.
+     */
+    public static @NotNull AudioCodec getVoiceCodec() {
+        return voiceCodec;
+    }
+
     /**
      * Ermittelt die Benutzer, die sehen sollen dass ein Benutzer gerade tippt und leitet diese Information weiter.
      * @param typingUser Tippender Benutzer.
@@ -53,6 +77,17 @@ public class CommunicationHandler {
 
         // Versende die Information.
         receivers.values().forEach(user -> user.send(SendAction.TYPING, typingUser));
+        ServerMetrics.getInstance().fanOut(SendAction.TYPING, receivers.size());
+    }
+
+    /**
+     * Überprüft, ob eine Nachricht einen Chatbefehl enthält. Chatbefehle können Benutzer außerhalb der Welt des Senders
+     * betreffen.
+     * @param message Zu überprüfende Nachricht.
+     * @return true, wenn die Nachricht einen Chatbefehl enthält, sonst false.
+     */
+    public static boolean isChatCommand(@NotNull final String message) {
+        return message.matches(CHAT_COMMAND);
     }
 
     /**
@@ -123,8 +158,10 @@ public class CommunicationHandler {
         Map<UUID, User> receivers = sender.getCommunicableUsers();
 
         // Versende die Textnachricht.
-        TextMessage textMessage = new TextMessage(sender, message, imageData, imageName, MessageType.STANDARD);
+        TextMessage textMessage = new TextMessage(sender, message,
+                ImageStore.attach(imageData, imageName), MessageType.STANDARD);
         receivers.values().forEach(user -> user.send(SendAction.MESSAGE, textMessage));
+        ServerMetrics.getInstance().fanOut(SendAction.MESSAGE, receivers.size());
     }
 
     /**
@@ -146,13 +183,34 @@ public class CommunicationHandler {
             return;
         }
 
+        // Sprechen in dem Bereich viele Benutzer gleichzeitig, so werden die Sprachdaten gemischt und gesammelt an die
+        // Zuhörer versendet.
+        if (AudioMixer.getInstance().submit(communicationContext, sender, voiceData)) {
+            return;
+        }
+
         // Ermittle die empfangsberechtigten Benutzer gemäß der Kommunikationsform, ohne den sendenden Benutzer.
         Map<UUID, User> receivers = sender.getCommunicableUsers();
         receivers.remove(sender.getUserId());
 
         // Versende die Sprachnachricht.
-        AudioMessage audioMessage = new AudioMessage(sender, voiceData);
-        receivers.values().forEach(user -> user.send(SendAction.AUDIO, audioMessage));
+        AudioMessage audioMessage = new AudioMessage(sender, voiceData, sender.nextVoiceSequence());
+        SharedPacket packet = new SharedPacket(SendAction.AUDIO, audioMessage);
+        receivers.values().forEach(user -> user.send(packet));
+        ServerMetrics.getInstance().fanOut(SendAction.AUDIO, receivers.size());
+    }
+
+    /**
+     * Beendet den Sprachabschnitt eines Benutzers, sodass dieser beim Mischen nicht länger als aktiver Sprecher gilt.
+     * Da während der Stille keine Sprachdaten versendet werden, wird die Stillemarkierung nicht weitergeleitet.
+     * @param sender Benutzer, dessen Sprachabschnitt beendet ist.
+     */
+    public static void handleVoiceSilence(@NotNull final User sender) {
+        if (sender.getLocation() == null) {
+            throw new IllegalStateException("Communicators location is not available.");
+        }
+
+        AudioMixer.getInstance().release(sender.getLocation().getArea(), sender);
     }
 
     /**
@@ -179,7 +237,9 @@ public class CommunicationHandler {
 
         // Versende das Frame.
         VideoFrame videoFrame = new VideoFrame(sender, false, frameData);
-        receivers.values().forEach(user -> user.send(SendAction.VIDEO, videoFrame));
+        SharedPacket packet = new SharedPacket(SendAction.VIDEO, videoFrame);
+        receivers.values().forEach(user -> user.send(packet));
+        ServerMetrics.getInstance().fanOut(SendAction.VIDEO, receivers.size());
     }
 
     /**
@@ -189,6 +249,29 @@ public class CommunicationHandler {
      * @param frameData Zu versendendes Frame.
      */
     public static void handleScreenFrame(@NotNull final User sender, final byte[] frameData) {
+        handleScreenFrame(sender, new VideoFrame(sender, true, frameData));
+    }
+
+    /**
+     * Ermittelt die Nutzer, die die veränderten Kacheln einer Bildschirmaufnahme gemäß der im räumlichen Kontext des
+     * Senders geltenden Kommunikationsform empfangen sollen und leitet sie an diese weiter.
+     * @param sender Kommunizierender Benutzer.
+     * @param keyframe true, wenn die vollständige Bildschirmaufnahme versendet wird, sonst false.
+     * @param sequence Fortlaufende Nummer des Frames.
+     * @param tiles Indizes der zu versendenden Kacheln.
+     * @param tileData Daten des Bildes, das die zu versendenden Kacheln beinhaltet.
+     */
+    public static void handleScreenTiles(@NotNull final User sender, final boolean keyframe, final int sequence,
+                                         final int[] tiles, final byte[] tileData) {
+        handleScreenFrame(sender, new VideoTileFrame(sender, keyframe, sequence, tiles, tileData));
+    }
+
+    /**
+     * Leitet ein Frame einer Bildschirmaufnahme an die empfangsberechtigten Benutzer weiter.
+     * @param sender Kommunizierender Benutzer.
+     * @param videoFrame Zu versendendes Frame.
+     */
+    private static void handleScreenFrame(@NotNull final User sender, @NotNull final VideoFrame videoFrame) {
         if (sender.getLocation() == null) {
             throw new IllegalStateException("Communicators location is not available.");
         }
@@ -206,8 +289,9 @@ public class CommunicationHandler {
         receivers.remove(sender.getUserId());
 
         // Versende das Frame.
-        VideoFrame videoFrame = new VideoFrame(sender, true, frameData);
-        receivers.values().forEach(user -> user.send(SendAction.VIDEO, videoFrame));
+        SharedPacket packet = new SharedPacket(SendAction.VIDEO, videoFrame);
+        receivers.values().forEach(user -> user.send(packet));
+        ServerMetrics.getInstance().fanOut(SendAction.VIDEO, receivers.size());
     }
 
     /**
@@ -300,7 +384,8 @@ public class CommunicationHandler {
                 }
 
                 // Versende die Textnachricht an den Benutzer.
-                TextMessage textMessage = new TextMessage(sender, usernameMessage[1], imageData, imageName, MessageType.WHISPER);
+                TextMessage textMessage = new TextMessage(sender, usernameMessage[1],
+                        ImageStore.attach(imageData, imageName), MessageType.WHISPER);
                 sender.send(SendAction.MESSAGE, textMessage);
                 receiver.send(SendAction.MESSAGE, textMessage);
             }
@@ -353,8 +438,10 @@ public class CommunicationHandler {
                 filterIgnoredUsers(sender, receivers);
 
                 // Versende die Textnachricht.
-                TextMessage textMessage = new TextMessage(sender, commandParts[1], imageData, imageName, MessageType.AREA);
+                TextMessage textMessage = new TextMessage(sender, commandParts[1],
+                        ImageStore.attach(imageData, imageName), MessageType.AREA);
                 receivers.values().forEach(user -> user.send(SendAction.MESSAGE, textMessage));
+                ServerMetrics.getInstance().fanOut(SendAction.MESSAGE, receivers.size());
             }
         },
 
@@ -405,8 +492,10 @@ public class CommunicationHandler {
                 filterIgnoredUsers(sender, receivers);
 
                 // Versende die Textnachricht.
-                TextMessage textMessage = new TextMessage(sender, commandParts[1], imageData, imageName, MessageType.ROOM);
+                TextMessage textMessage = new TextMessage(sender, commandParts[1],
+                        ImageStore.attach(imageData, imageName), MessageType.ROOM);
                 receivers.values().forEach(user -> user.send(SendAction.MESSAGE, textMessage));
+                ServerMetrics.getInstance().fanOut(SendAction.MESSAGE, receivers.size());
             }
         },
 
@@ -461,8 +550,10 @@ public class CommunicationHandler {
                 filterIgnoredUsers(sender, receivers);
 
                 // Versende die Textnachricht.
-                TextMessage textMessage = new TextMessage(sender, commandParts[1], imageData, imageName, MessageType.WORLD);
+                TextMessage textMessage = new TextMessage(sender, commandParts[1],
+                        ImageStore.attach(imageData, imageName), MessageType.WORLD);
                 receivers.values().forEach(user -> user.send(SendAction.MESSAGE, textMessage));
+                ServerMetrics.getInstance().fanOut(SendAction.MESSAGE, receivers.size());
             }
         },
 
@@ -509,8 +600,10 @@ public class CommunicationHandler {
                         .filter(User::isInWorld).collect(Collectors.toMap(User::getUserId, Function.identity()));
 
                 // Versende die Textnachricht.
-                TextMessage textMessage = new TextMessage(sender, commandParts[1], imageData, imageName, MessageType.GLOBAL);
+                TextMessage textMessage = new TextMessage(sender, commandParts[1],
+                        ImageStore.attach(imageData, imageName), MessageType.GLOBAL);
                 receivers.values().forEach(user -> user.send(SendAction.MESSAGE, textMessage));
+                ServerMetrics.getInstance().fanOut(SendAction.MESSAGE, receivers.size());
             }
         },
 
@@ -0,0 +1,116 @@
+package model.communication;
+
+import model.communication.message.ImageAttachment;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import utils.ContentStore;
+import utils.ImageUtils;
+import java.io.File;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Eine Klasse, welche die Bildanhänge aller Textnachrichten verwaltet.
+ * <p>
+ *     Die Daten eines Bildanhangs werden einmalig unter ihrem Hashwert auf dem Datenträger gespeichert, sodass
+ *     Textnachrichten nur noch den Hashwert und ein Vorschaubild an die Empfänger übertragen. Die Clients fordern die
+ *     vollständigen Daten bei Bedarf abschnittsweise an. Überschreitet die Größe aller Bildanhänge die Kapazität, so
+ *     werden die am längsten nicht angeforderten Bildanhänge gelöscht.
+ * </p>
+ */
+public class ImageStore {
+
+    private static final Logger LOGGER = Logger.getLogger("chati.store");
+
+    /** Standardmäßige Kapazität des Speichers in Bytes. */
+    public static final long DEFAULT_CAPACITY = 256L << 20;
+
+    /** Singleton-Instanz der Klasse. */
+    private static ImageStore store;
+
+    /** Der Speicher, in dem die Daten der Bildanhänge abgelegt werden. */
+    private final ContentStore content;
+
+    /**
+     * Erzeugt eine neue Instanz des ImageStore.
+     * @param directory Verzeichnis, in dem die Bildanhänge gespeichert werden.
+     * @param capacity Maximale Größe aller Bildanhänge in Bytes.
+     */
+    ImageStore(@NotNull final File directory, final long capacity) {
+        this.content = new ContentStore(directory, capacity);
+    }
+
+    /**
+     * Speichert die Daten eines Bildanhangs und erzeugt dessen Vorschaubild.
+     * @param imageData Daten des Bildanhangs.
+     * @param imageName Name des Bildanhangs.
+     * @return Der gespeicherte Bildanhang, oder null, falls kein Bildanhang vorhanden ist oder dieser nicht gespeichert
+     * werden konnte.
+     */
+    public @Nullable ImageAttachment store(final byte[] imageData, @Nullable final String imageName) {
+        if (imageData.length == 0 || imageName == null) {
+            return null;
+        }
+
+        try {
+            return new ImageAttachment(imageName, content.put(imageData), ImageUtils.createThumbnail(imageData));
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Failed to store image " + imageName, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Gibt die Größe eines Bildanhangs zurück.
+     * @param hash Hashwert des Bildanhangs.
+     * @return Größe des Bildanhangs in Bytes, oder -1, falls kein Bildanhang mit dem Hashwert vorhanden ist.
+     */
+    public int getSize(@NotNull final String hash) {
+        return (int) content.getSize(hash);
+    }
+
+    /**
+     * Gibt einen Abschnitt der Daten eines Bildanhangs zurück.
+     * @param hash Hashwert des Bildanhangs.
+     * @param offset Position des Abschnitts innerhalb des Bildanhangs.
+     * @return Daten des Abschnitts, oder null, falls kein Bildanhang mit dem Hashwert vorhanden ist.
+     * @see ImageUtils#CHUNK_SIZE
+     */
+    public @Nullable byte[] read(@NotNull final String hash, final int offset) {
+        try {
+            return content.read(hash, offset, ImageUtils.CHUNK_SIZE);
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Failed to read image " + hash, ex);
+            return null;
+        }
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return content.toString();
+    }
+
+    /**
+     * Gibt die Singleton-Instanz des ImageStore zurück.
+     * @return Instanz des ImageStore.
+     */
+    public static synchronized @NotNull ImageStore getInstance() {
+        if (store == null) {
+            store = new ImageStore(new File(System.getProperty("user.dir"), "images"), DEFAULT_CAPACITY);
+        }
+        return store;
+    }
+
+    /**
+     * Speichert den Bildanhang einer Textnachricht, sofern die Nachricht einen Bildanhang besitzt.
+     * @param imageData Daten des Bildanhangs.
+     * @param imageName Name des Bildanhangs.
+     * @return Der gespeicherte Bildanhang, oder null, falls kein Bildanhang vorhanden ist oder dieser nicht gespeichert
+     * werden konnte.
+     */
+    public static @Nullable ImageAttachment attach(final byte[] imageData, @Nullable final String imageName) {
+        // Der Speicher wird erst beim ersten Bildanhang angelegt.
+        return imageData.length != 0 && imageName != null ? getInstance().store(imageData, imageName) : null;
+    }
+}
@@ -0,0 +1,267 @@
+package model.communication;
+
+import org.jetbrains.annotations.NotNull;
+import utils.AudioUtils;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Eine Klasse, welche die vom Server erzeugten Audiodaten im Takt der Audioframes versendet.
+ * <p>
+ *     Jede Quelle von Audiodaten, etwa ein MusicStreamer oder die Sprachausgabe der Bots, wird beim MediaScheduler
+ *     angemeldet und erhält für jedes Audioframe einen Aufruf. Alle Quellen teilen sich dabei einen kleinen Pool an
+ *     Threads. Die Zeitpunkte der Audioframes werden anhand der monotonen Uhr aus {@link System#nanoTime()} als feste
+ *     Fristen berechnet, sodass Verzögerungen eines Aufrufs nicht in die folgenden Audioframes übernommen werden.
+ * </p>
+ * <p>
+ *     Wird eine Frist verpasst, so werden die ausstehenden Audioframes direkt nacheinander nachgeholt, um den
+ *     Wiedergabepuffer der Clients wieder aufzufüllen. Liegt eine Quelle mehr als {@link #MAX_CATCH_UP_FRAMES}
+ *     Audioframes zurück, so werden die übrigen Audioframes übersprungen, da die Clients diese ohnehin verwerfen würden.
+ * </p>
+ */
+public class MediaScheduler {
+
+    private static final Logger LOGGER = Logger.getLogger("chati.media");
+
+    /** Standardmäßige Anzahl an Threads, auf denen die Quellen ausgeführt werden. */
+    public static final int DEFAULT_THREADS = 2;
+
+    /** Maximale Anzahl an Audioframes, die nach einer verpassten Frist direkt nacheinander nachgeholt werden. */
+    static final int MAX_CATCH_UP_FRAMES = 3;
+
+    /** Zeitspanne zwischen zwei Audioframes in Nanosekunden. */
+    static final long FRAME_PERIOD = TimeUnit.SECONDS.toNanos(1) / AudioUtils.FRAME_RATE;
+
+    /** Singleton-Instanz der Klasse. */
+    private static MediaScheduler scheduler;
+
+    /** Der Executor, auf dem die Quellen ausgeführt werden. */
+    private final ScheduledExecutorService executor;
+
+    /* Messwerte über alle Quellen. */
+    private final AtomicInteger sources;
+    private final LongAdder frames;
+    private final LongAdder lateFrames;
+    private final LongAdder missedFrames;
+    private final LongAdder totalLateness;
+    private final AtomicLong maxLateness;
+
+    /**
+     * Erzeugt eine neue Instanz des MediaScheduler.
+     * @param threads Anzahl der Threads, auf denen die Quellen ausgeführt werden.
+     */
+    MediaScheduler(final int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads must be positive");
+        }
+
+        final AtomicInteger count = new AtomicInteger();
+        this.executor = Executors.newScheduledThreadPool(threads, runnable -> {
+            final Thread mediaThread = new Thread(runnable, "Media-Scheduler-" + count.incrementAndGet());
+            mediaThread.setDaemon(true);
+            mediaThread.setPriority(Thread.MAX_PRIORITY);
+            return mediaThread;
+        });
+
+        this.sources = new AtomicInteger();
+        this.frames = new LongAdder();
+        this.lateFrames = new LongAdder();
+        this.missedFrames = new LongAdder();
+        this.totalLateness = new LongAdder();
+        this.maxLateness = new AtomicLong();
+    }
+
+    /**
+     * Meldet eine Quelle an, die ab dem nächsten Audioframe in jedem Audioframe einmal aufgerufen wird.
+     * @param frameTask Aufruf, der ein Audioframe der Quelle versendet.
+     * @return Die angemeldete Quelle.
+     */
+    public @NotNull Source schedule(@NotNull final Runnable frameTask) {
+        final Source source = new Source(frameTask, System.nanoTime() + FRAME_PERIOD);
+        sources.incrementAndGet();
+        source.reschedule();
+        return source;
+    }
+
+    /**
+     * Beendet die Ausführung aller Quellen.
+     */
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Gibt die Anzahl der angemeldeten Quellen zurück.
+     * @return Anzahl der Quellen.
+     */
+    public int getSources() {
+        return sources.get();
+    }
+
+    /**
+     * Gibt die Anzahl der bisher versendeten Audioframes aller Quellen zurück.
+     * @return Anzahl der versendeten Audioframes.
+     */
+    public long getFrames() {
+        return frames.sum();
+    }
+
+    /**
+     * Gibt die Anzahl der Audioframes zurück, die erst nach der Frist des folgenden Audioframes versendet wurden und
+     * daher nachgeholt werden mussten.
+     * @return Anzahl der nachgeholten Audioframes.
+     */
+    public long getLateFrames() {
+        return lateFrames.sum();
+    }
+
+    /**
+     * Gibt die Anzahl der Audioframes zurück, die aufgrund einer zu großen Verzögerung übersprungen wurden.
+     * @return Anzahl der übersprungenen Audioframes.
+     */
+    public long getMissedFrames() {
+        return missedFrames.sum();
+    }
+
+    /**
+     * Gibt die durchschnittliche Verzögerung eines Aufrufs gegenüber seiner Frist zurück, die beim Berechnen des
+     * nächsten Aufrufs ausgeglichen wurde.
+     * @return durchschnittliche Verzögerung in Mikrosekunden.
+     */
+    public long getAverageLateness() {
+        final long count = frames.sum();
+        return count > 0 ? TimeUnit.NANOSECONDS.toMicros(totalLateness.sum() / count) : 0;
+    }
+
+    /**
+     * Gibt die maximale Verzögerung eines Aufrufs gegenüber seiner Frist zurück.
+     * @return maximale Verzögerung in Mikrosekunden.
+     */
+    public long getMaxLateness() {
+        return TimeUnit.NANOSECONDS.toMicros(maxLateness.get());
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "{sources=" + getSources() + ", frames=" + getFrames() + ", lateFrames=" + getLateFrames()
+                + ", missedFrames=" + getMissedFrames() + ", averageLateness=" + getAverageLateness()
+                + "us, maxLateness=" + getMaxLateness() + "us}";
+    }
+
+    /**
+     * Gibt die Singleton-Instanz des MediaScheduler zurück.
+     * @return Singleton-Instanz des MediaScheduler.
+     */
+    public static synchronized @NotNull MediaScheduler getInstance() {
+        if (scheduler == null) {
+            scheduler = new MediaScheduler(DEFAULT_THREADS);
+        }
+        return scheduler;
+    }
+
+    /**
+     * Eine Klasse, welche eine beim MediaScheduler angemeldete Quelle repräsentiert.
+     */
+    public class Source implements Runnable {
+
+        /** Aufruf, der ein Audioframe der Quelle versendet. */
+        private final Runnable frameTask;
+
+        /** Frist des nächsten Audioframes der Quelle. Wird nur vom ausführenden Thread verändert. */
+        private long deadline;
+
+        /** Information, ob die Quelle abgemeldet wurde. */
+        private volatile boolean cancelled;
+
+        /**
+         * Erzeugt eine neue Instanz der Source.
+         * @param frameTask Aufruf, der ein Audioframe der Quelle versendet.
+         * @param deadline Frist des ersten Audioframes.
+         */
+        private Source(@NotNull final Runnable frameTask, final long deadline) {
+            this.frameTask = frameTask;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+
+            final long lateness = System.nanoTime() - deadline;
+
+            if (lateness >= 0) {
+                int due = (int) Math.min(lateness / FRAME_PERIOD + 1, Integer.MAX_VALUE);
+
+                if (due > MAX_CATCH_UP_FRAMES) {
+                    // Zu weit zurückliegende Audioframes werden übersprungen.
+                    missedFrames.add(due - MAX_CATCH_UP_FRAMES);
+                    deadline += (due - MAX_CATCH_UP_FRAMES) * FRAME_PERIOD;
+                    LOGGER.fine(String.format("Media source missed %d frames, %d us behind", due - MAX_CATCH_UP_FRAMES,
+                            TimeUnit.NANOSECONDS.toMicros(lateness)));
+                    due = MAX_CATCH_UP_FRAMES;
+                }
+
+                frames.add(due);
+                lateFrames.add(due - 1);
+                totalLateness.add(lateness);
+                maxLateness.accumulateAndGet(lateness, Math::max);
+
+                for (int i = 0; i < due && !cancelled; i++) {
+                    try {
+                        frameTask.run();
+                    } catch (RuntimeException ex) {
+                        // Eine Ausnahme darf den Takt nicht beenden, da sonst keine weiteren Audioframes versendet werden.
+                        LOGGER.log(Level.WARNING, "Exception in media source", ex);
+                    }
+                    deadline += FRAME_PERIOD;
+                }
+            }
+
+            reschedule();
+        }
+
+        /**
+         * Meldet die Quelle ab. Ein gerade laufender Aufruf wird noch beendet.
+         */
+        public synchronized void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                sources.decrementAndGet();
+            }
+        }
+
+        /**
+         * Gibt zurück, ob die Quelle abgemeldet wurde.
+         * @return true, wenn die Quelle abgemeldet wurde, sonst false.
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Plant den Aufruf zur Frist des nächsten Audioframes ein. Die Wartezeit wird dabei jedes Mal neu anhand der Frist
+         * berechnet, sodass sich Verzögerungen nicht aufsummieren.
+         */
+        private void reschedule() {
+            if (cancelled) {
+                return;
+            }
+
+            try {
+                executor.schedule(this, deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException ex) {
+                LOGGER.log(Level.WARNING, "Media scheduler has been shut down", ex);
+                cancel();
+            }
+        }
+    }
+}
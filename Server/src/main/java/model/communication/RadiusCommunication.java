@@ -1,8 +1,10 @@
 package model.communication;
 
+import model.context.spatial.Location;
 import model.context.spatial.MapUtils;
 import model.user.User;
 import org.jetbrains.annotations.NotNull;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 
@@ -12,7 +14,7 @@ import java.util.UUID;
 public class RadiusCommunication extends AreaCommunication {
 
     /** Standardmäßiger Radius, innerhalb dem Benutzer kommunizieren können. */
-    private static final float DEFAULT_RADIUS = 2 * MapUtils.TILE_SIZE;
+    public static final float DEFAULT_RADIUS = 2 * MapUtils.TILE_SIZE;
 
     /** Radius, innerhalb dem Benutzer kommunizieren können.*/
     private final float radius;
@@ -34,12 +36,31 @@ public class RadiusCommunication extends AreaCommunication {
 
     @Override
     public @NotNull Map<UUID, User> getCommunicableUsers(@NotNull final User user) {
-        if (user.getLocation() == null) {
+        final Location location = user.getLocation();
+
+        if (location == null) {
             throw new IllegalStateException("Users location is not available");
         }
 
-        Map<UUID, User> communicableUsers = super.getCommunicableUsers(user);
-        communicableUsers.values().removeIf(other -> other.getLocation() == null || user.getLocation().distance(other.getLocation()) > radius);
+        if (!area.contains(user)) {
+            return new HashMap<>();
+        }
+
+        /*
+         * Ermittle zunächst über das Gitter des Raums nur die Benutzer innerhalb des Radius und überprüfe anschließend,
+         * ob diese auch über die Kommunikationsform des Bereichs erreichbar sind.
+         */
+        final Map<UUID, User> communicableUsers = location.getRoom().getUserGrid().getUsers(location, radius);
+
+        if (!exclusive && area.getParent() != null) {
+            final Map<UUID, User> parentUsers = area.getParent().getCommunicableUsers(user);
+
+            communicableUsers.values().removeIf(other -> !area.isCommunicableUser(other)
+                    && !parentUsers.containsKey(other.getUserId()));
+        } else {
+            communicableUsers.values().removeIf(other -> !area.isCommunicableUser(other));
+        }
+
         return communicableUsers;
     }
-}
\ No newline at end of file
+}
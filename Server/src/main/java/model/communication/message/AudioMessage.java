@@ -12,6 +12,9 @@ public class AudioMessage extends Message implements IAudioMessage {
     /** Die Audiodaten der Sprachnachricht. */
     private final byte[] audioData;
 
+    /** Die fortlaufende Nummer der Audiodaten innerhalb ihres Stroms. */
+    private final int sequence;
+
     /** Die aktuelle Position in einer zusammenhängenden Audionachricht. */
     private final float position;
 
@@ -21,32 +24,37 @@ public class AudioMessage extends Message implements IAudioMessage {
     /**
      * Erzeugt eine neue Instanz der Audionachricht. Wird für das Senden von Musikdaten verwendet.
      * @param musicData Die Musikdaten der Nachricht.
+     * @param sequence Die fortlaufende Nummer der Musikdaten.
      * @param position Die aktuelle Position im Musikstück.
      * @param seconds Die aktuelle Sekunde im Musikstück.
      */
-    public AudioMessage(final byte[] musicData, final float position, final int seconds) {
-        this(null, musicData, position, seconds);
+    public AudioMessage(final byte[] musicData, final int sequence, final float position, final int seconds) {
+        this(null, musicData, sequence, position, seconds);
     }
 
     /**
      * Erzeugt eine neue Instanz der Audionachricht. Wird für Sprachnachrichten verwendet.
      * @param sender Der Sender dieser Nachricht.
      * @param voiceData die Sprachdaten der Nachricht.
+     * @param sequence Die fortlaufende Nummer der Sprachdaten des Senders.
      */
-    public AudioMessage(@NotNull final User sender, final byte[] voiceData) {
-        this(sender, voiceData, 0, 0);
+    public AudioMessage(@NotNull final User sender, final byte[] voiceData, final int sequence) {
+        this(sender, voiceData, sequence, 0, 0);
     }
 
     /**
      * Erzeugt eine neue Instanz der Audionachricht.
      * @param sender Der Sender dieser Nachricht.
      * @param audioData Die Audiodaten der Nachricht.
+     * @param sequence Die fortlaufende Nummer der Audiodaten.
      * @param position Aktuelle Position einer zusammenhängenden Audionachricht.
      * @param seconds Aktuelle Sekunde einer zusammenhängenden Audionachricht.
      */
-    private AudioMessage(@Nullable final User sender, final byte[] audioData, final float position, final int seconds) {
+    private AudioMessage(@Nullable final User sender, final byte[] audioData, final int sequence, final float position,
+                         final int seconds) {
         super(sender);
         this.audioData = audioData;
+        this.sequence = sequence;
         this.position = position;
         this.seconds = seconds;
     }
@@ -56,6 +64,11 @@ public class AudioMessage extends Message implements IAudioMessage {
         return audioData;
     }
 
+    @Override
+    public int getSequence() {
+        return sequence;
+    }
+
     @Override
     public float getPosition() {
         return position;
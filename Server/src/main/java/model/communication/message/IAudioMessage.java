@@ -12,6 +12,12 @@ public interface IAudioMessage extends IMessage {
      */
     byte[] getAudioData();
 
+    /**
+     * Gibt die fortlaufende Nummer der Audiodaten innerhalb ihres Stroms zurück.
+     * @return Fortlaufende Nummer der Audiodaten.
+     */
+    int getSequence();
+
     /**
      * Gibt die aktuelle Position in einer zusammenhängenden Audionachricht zurück.
      * @return Position in Audionachricht.
@@ -16,18 +16,24 @@ public interface ITextMessage extends IMessage {
      */
     @Nullable String getTextMessage();
 
-    /**
-     * Gibt die Daten des Bildanhangs zurück.
-     * @return Daten des Bildanhangs.
-     */
-    byte[] getImageData();
-
     /**
      * Gibt den Namen des Bildanhangs zurück.
      * @return Name des Bildanhangs.
      */
     @Nullable String getImageName();
 
+    /**
+     * Gibt den Hashwert des Bildanhangs zurück, unter dem dessen Daten gespeichert sind.
+     * @return Hashwert des Bildanhangs, oder null, falls die Nachricht keinen Bildanhang besitzt.
+     */
+    @Nullable String getImageHash();
+
+    /**
+     * Gibt die Daten des Vorschaubilds des Bildanhangs zurück.
+     * @return Daten des Vorschaubilds, oder ein leeres Array, falls die Nachricht keinen Bildanhang besitzt.
+     */
+    byte[] getThumbnail();
+
     /**
      * Gibt den Nachrichtentyp der Nachricht zurück.
      * @return Nachrichtentyp der Textnachricht.
@@ -0,0 +1,26 @@
+package model.communication.message;
+
+/**
+ * Ein Interface, welches dem Controller Methoden zur Verwaltung von in Kacheln zerlegten Frames einer
+ * Bildschirmaufnahme zur Verfügung stellt. Wird von {@link VideoTileFrame} implementiert.
+ */
+public interface IVideoTileFrame extends IVideoFrame {
+
+    /**
+     * Gibt an, ob dieses Frame die vollständige Bildschirmaufnahme enthält.
+     * @return true, falls dieses Frame ein Schlüsselframe ist, sonst false.
+     */
+    boolean isKeyframe();
+
+    /**
+     * Gibt die fortlaufende Nummer des Frames zurück.
+     * @return Nummer des Frames.
+     */
+    int getSequence();
+
+    /**
+     * Gibt die aufsteigend sortierten Indizes der im Frame enthaltenen Kacheln zurück.
+     * @return Indizes der Kacheln.
+     */
+    int[] getTiles();
+}
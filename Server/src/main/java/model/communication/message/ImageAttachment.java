@@ -0,0 +1,58 @@
+package model.communication.message;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Eine Klasse, welche den Bildanhang einer Textnachricht repräsentiert.
+ * <p>
+ *     Die Daten des Bildanhangs sind im {@link model.communication.ImageStore} unter ihrem Hashwert gespeichert. Eine
+ *     Textnachricht enthält nur den Namen, den Hashwert und ein verkleinertes Vorschaubild des Bildanhangs.
+ * </p>
+ */
+public class ImageAttachment {
+
+    /** Der Name des Bildanhangs. */
+    private final String name;
+
+    /** Der Hashwert der Daten des Bildanhangs. */
+    private final String hash;
+
+    /** Die Daten des Vorschaubilds. */
+    private final byte[] thumbnail;
+
+    /**
+     * Erzeugt eine neue Instanz des Bildanhangs.
+     * @param name Der Name des Bildanhangs.
+     * @param hash Der Hashwert der Daten des Bildanhangs.
+     * @param thumbnail Die Daten des Vorschaubilds.
+     */
+    public ImageAttachment(@NotNull final String name, @NotNull final String hash, final byte[] thumbnail) {
+        this.name = name;
+        this.hash = hash;
+        this.thumbnail = thumbnail;
+    }
+
+    /**
+     * Gibt den Namen des Bildanhangs zurück.
+     * @return Name des Bildanhangs.
+     */
+    public @NotNull String getName() {
+        return name;
+    }
+
+    /**
+     * Gibt den Hashwert der Daten des Bildanhangs zurück.
+     * @return Hashwert des Bildanhangs.
+     */
+    public @NotNull String getHash() {
+        return hash;
+    }
+
+    /**
+     * Gibt die Daten des Vorschaubilds zurück.
+     * @return Daten des Vorschaubilds.
+     */
+    public byte[] getThumbnail() {
+        return thumbnail;
+    }
+}
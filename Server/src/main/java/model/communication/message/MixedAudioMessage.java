@@ -0,0 +1,62 @@
+package model.communication.message;
+
+import model.user.User;
+import org.jetbrains.annotations.NotNull;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Eine Klasse, welche die gemischten Sprachdaten mehrerer Sprecher repräsentiert.
+ */
+public class MixedAudioMessage extends Message implements IAudioMessage {
+
+    /** Die gemischten Sprachdaten. */
+    private final byte[] audioData;
+
+    /** Die fortlaufende Nummer der gemischten Sprachdaten innerhalb des Bereichs. */
+    private final int sequence;
+
+    /** Die Sprecher, deren Sprachdaten in den gemischten Sprachdaten enthalten sind. */
+    private final List<User> speakers;
+
+    /**
+     * Erzeugt eine neue Instanz der gemischten Audionachricht.
+     * @param audioData Die gemischten Sprachdaten.
+     * @param sequence Die fortlaufende Nummer der gemischten Sprachdaten.
+     * @param speakers Die Sprecher, deren Sprachdaten enthalten sind.
+     */
+    public MixedAudioMessage(final byte[] audioData, final int sequence, @NotNull final Collection<User> speakers) {
+        super(null);
+        this.audioData = audioData;
+        this.sequence = sequence;
+        this.speakers = List.copyOf(speakers);
+    }
+
+    @Override
+    public byte[] getAudioData() {
+        return audioData;
+    }
+
+    @Override
+    public int getSequence() {
+        return sequence;
+    }
+
+    @Override
+    public float getPosition() {
+        return 0;
+    }
+
+    @Override
+    public int getSeconds() {
+        return 0;
+    }
+
+    /**
+     * Gibt die Sprecher zurück, deren Sprachdaten in den gemischten Sprachdaten enthalten sind.
+     * @return die enthaltenen Sprecher.
+     */
+    public @NotNull List<User> getSpeakers() {
+        return speakers;
+    }
+}
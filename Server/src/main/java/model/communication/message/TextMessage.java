@@ -14,10 +14,7 @@ public class TextMessage extends Message implements ITextMessage {
     private final String textMessage;
 
     /** Der Bildanhang der Nachricht. */
-    private final byte[] imageData;
-
-    /** Der Name des Bildanhangs. */
-    private final String imageName;
+    private final ImageAttachment image;
 
     /** Der Schlüssel einer übersetzbaren Nachricht. Wird nur für TextNachrichten verwendet, die vom System generiert
      * werden und den Typ {@link MessageType#INFO} besitzen. */
@@ -30,18 +27,16 @@ public class TextMessage extends Message implements ITextMessage {
      * Erzeugt eine neue Instanz der Textnachricht.
      * @param sender Der Sender dieser Nachricht.
      * @param textMessage Der Text dieser Nachricht.
-     * @param imageData Die Daten des Bildanhangs dieser Nachricht.
-     * @param imageName Der Name des Bildanhangs dieser Nachricht.
+     * @param image Der gespeicherte Bildanhang dieser Nachricht.
      * @param messageBundle Die übersetzbare Nachricht und deren Argumente.
      * @param messageType Der Typ dieser Nachricht.
      */
-    public TextMessage(@Nullable final User sender, @Nullable final String textMessage, final byte[] imageData,
-                       @Nullable final String imageName, @Nullable MessageBundle messageBundle,
+    public TextMessage(@Nullable final User sender, @Nullable final String textMessage,
+                       @Nullable final ImageAttachment image, @Nullable MessageBundle messageBundle,
                        @NotNull final MessageType messageType) {
         super(sender);
         this.textMessage = textMessage;
-        this.imageData = imageData;
-        this.imageName = imageName;
+        this.image = image;
         this.messageBundle = messageBundle;
         this.messageType = messageType;
     }
@@ -50,13 +45,12 @@ public class TextMessage extends Message implements ITextMessage {
      * Erzeugt eine neue Instanz der Textnachricht. Wird verwendet, um von Benutzern gesendete Nachrichten zu erzeugen.
      * @param sender Der Sender dieser Nachricht.
      * @param textMessage Der Text dieser Nachricht.
-     * @param imageData Daten des Bildanhangs.
-     * @param imageName Name des Bildanhangs.
+     * @param image Gespeicherter Bildanhang.
      * @param messageType Der Typ dieser Nachricht.
      */
-    public TextMessage(@NotNull final User sender, @NotNull final String textMessage, final byte[] imageData,
-                       @Nullable final String imageName, @NotNull final MessageType messageType) {
-        this(sender, textMessage, imageData, imageName, null, messageType);
+    public TextMessage(@NotNull final User sender, @NotNull final String textMessage,
+                       @Nullable final ImageAttachment image, @NotNull final MessageType messageType) {
+        this(sender, textMessage, image, null, messageType);
     }
 
     /**
@@ -65,7 +59,7 @@ public class TextMessage extends Message implements ITextMessage {
      * @param messageBundle Der Nachrichtenschlüssel der übersetzbaren Nachricht und deren Argumente.
      */
     public TextMessage(@NotNull final MessageBundle messageBundle) {
-        this(null, null, new byte[0], null, messageBundle, MessageType.INFO);
+        this(null, null, null, messageBundle, MessageType.INFO);
     }
 
     /**
@@ -84,13 +78,18 @@ public class TextMessage extends Message implements ITextMessage {
     }
 
     @Override
-    public byte[] getImageData() {
-        return imageData;
+    public @Nullable String getImageName() {
+        return image != null ? image.getName() : null;
     }
 
     @Override
-    public @Nullable String getImageName() {
-        return imageName;
+    public @Nullable String getImageHash() {
+        return image != null ? image.getHash() : null;
+    }
+
+    @Override
+    public byte[] getThumbnail() {
+        return image != null ? image.getThumbnail() : new byte[0];
     }
 
     @Override
@@ -0,0 +1,50 @@
+package model.communication.message;
+
+import model.user.User;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Eine Klasse, welche ein in Kacheln zerlegtes Frame einer Bildschirmaufnahme repräsentiert.
+ */
+public class VideoTileFrame extends VideoFrame implements IVideoTileFrame {
+
+    /** Gibt an, ob dieses Frame die vollständige Bildschirmaufnahme enthält. */
+    private final boolean keyframe;
+
+    /** Fortlaufende Nummer des Frames. */
+    private final int sequence;
+
+    /** Indizes der im Frame enthaltenen Kacheln. */
+    private final int[] tiles;
+
+    /**
+     * Erzeugt eine neue Instanz eines in Kacheln zerlegten Frames.
+     * @param sender Sender des Frames.
+     * @param keyframe falls true, enthält dieses Frame die vollständige Bildschirmaufnahme.
+     * @param sequence Fortlaufende Nummer des Frames.
+     * @param tiles Indizes der im Frame enthaltenen Kacheln.
+     * @param tileData Daten des Bildes, das die enthaltenen Kacheln beinhaltet.
+     */
+    public VideoTileFrame(@NotNull final User sender, final boolean keyframe, final int sequence, final int[] tiles,
+                          final byte[] tileData) {
+        super(sender, true, tileData);
+        this.keyframe = keyframe;
+        this.sequence = sequence;
+        this.tiles = tiles;
+    }
+
+    @Override
+    public boolean isKeyframe() {
+        return keyframe;
+    }
+
+    @Override
+    public int getSequence() {
+        return sequence;
+    }
+
+    @Override
+    public int[] getTiles() {
+        return tiles;
+    }
+}
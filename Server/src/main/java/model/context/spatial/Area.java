@@ -139,6 +139,31 @@ public class Area extends Context implements IArea {
         return communicableUsers;
     }
 
+    /**
+     * Überprüft, ob ein Benutzer in der Menge der nicht exklusiv kommunizierbaren Benutzer dieses Bereichs enthalten
+     * ist, ohne diese Menge zu erzeugen.
+     * @param user Zu überprüfender Benutzer.
+     * @return true, wenn der Benutzer in dieser Menge enthalten ist, sonst false.
+     * @see Area#getCommunicableUsers()
+     */
+    public boolean isCommunicableUser(@NotNull final User user) {
+        if (!this.contains(user)) {
+            return false;
+        }
+
+        boolean inChild = false;
+        for (final Area child : children.values()) {
+            if (child.contains(user)) {
+                if (!child.isCommunicateExclusive() && child.isCommunicableUser(user)) {
+                    return true;
+                }
+                inChild = true;
+            }
+        }
+
+        return !inChild;
+    }
+
     @Override
     public boolean canCommunicateWith(@NotNull final CommunicationMedium medium) {
         if (this.communicationMedia == null) {
@@ -0,0 +1,311 @@
+package model.context.spatial;
+
+import controller.network.ClientSender.SendAction;
+import model.user.User;
+import org.jetbrains.annotations.NotNull;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Eine Klasse, welche verwaltet, welche Avatare eines Raums den Clients der Benutzer bekannt sind.
+ * <p>
+ *     Ein Avatar wird einem Benutzer nur dann gesendet, wenn er sich innerhalb des Sichtbereichs des Benutzers befindet.
+ *     Betritt ein Avatar den Sichtbereich, wird er beim Benutzer eingeblendet. Verlässt er den Sichtbereich, wird er
+ *     beim Benutzer ausgeblendet und erhält keine weiteren Bewegungen dieses Avatars. Benutzer, deren Sichtbereich nicht
+ *     bekannt ist, erhalten weiterhin die Avatare aller Benutzer des Raums.
+ * </p>
+ */
+public class InterestManager {
+
+    /**
+     * Rand um den Sichtbereich, innerhalb dem ein Avatar eingeblendet wird. Ausgeblendet wird ein Avatar erst außerhalb
+     * des doppelten Randes, sodass Avatare an der Grenze des Sichtbereichs nicht ständig ein- und ausgeblendet werden.
+     */
+    public static final float INTEREST_MARGIN = 2 * MapUtils.TILE_SIZE;
+
+    /** Gitter der Benutzer des Raums. */
+    private final SpatialGrid grid;
+
+    /** Die den Benutzern bekannten Avatare der anderen Benutzer. */
+    private final Map<UUID, Map<UUID, User>> knownUsers;
+
+    /** Breite der Karte des Raums. */
+    private float mapWidth;
+
+    /** Höhe der Karte des Raums. */
+    private float mapHeight;
+
+    /**
+     * Erzeugt eine neue Instanz des InterestManager.
+     * @param grid Gitter der Benutzer des Raums.
+     */
+    public InterestManager(@NotNull final SpatialGrid grid) {
+        this.grid = grid;
+        this.knownUsers = new HashMap<>();
+        this.mapWidth = Float.POSITIVE_INFINITY;
+        this.mapHeight = Float.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Setzt die Größe der Karte, an deren Rändern der Sichtbereich der Benutzer begrenzt wird.
+     * @param mapWidth Breite der Karte.
+     * @param mapHeight Höhe der Karte.
+     */
+    public synchronized void setMapSize(final float mapWidth, final float mapHeight) {
+        this.mapWidth = mapWidth;
+        this.mapHeight = mapHeight;
+    }
+
+    /**
+     * Fügt einen Benutzer hinzu, dem bisher keine Avatare bekannt sind.
+     * @param user Hinzuzufügender Benutzer.
+     */
+    public synchronized void add(@NotNull final User user) {
+        knownUsers.putIfAbsent(user.getUserId(), new HashMap<>());
+    }
+
+    /**
+     * Entfernt einen Benutzer, sodass weder ihm Avatare bekannt sind, noch sein Avatar anderen Benutzern bekannt ist.
+     * @param user Zu entfernender Benutzer.
+     */
+    public synchronized void remove(@NotNull final User user) {
+        knownUsers.remove(user.getUserId());
+        knownUsers.values().forEach(known -> known.remove(user.getUserId()));
+    }
+
+    /**
+     * Gibt zurück, ob einem Benutzer der Avatar eines anderen Benutzers bekannt ist.
+     * @param receiver Benutzer, dessen bekannte Avatare überprüft werden.
+     * @param other Benutzer, dessen Avatar überprüft wird.
+     * @return true, wenn der Avatar dem Benutzer bekannt ist, sonst false.
+     */
+    public synchronized boolean isKnown(@NotNull final User receiver, @NotNull final User other) {
+        final Map<UUID, User> known = knownUsers.get(receiver.getUserId());
+
+        return receiver.equals(other) || (known != null && known.containsKey(other.getUserId()));
+    }
+
+    /**
+     * Versendet den Avatar eines Benutzers, der an eine neue Position gesetzt wurde, an alle Benutzer, in deren
+     * Sichtbereich er sich befindet. Anschließend werden dem Benutzer die Avatare in seinem neuen Sichtbereich gesendet.
+     * @param user Benutzer, der an eine neue Position gesetzt wurde.
+     * @param users Benutzer des Raums.
+     */
+    public synchronized void spawn(@NotNull final User user, @NotNull final Collection<User> users) {
+        final Map<UUID, User> own = knownUsers.get(user.getUserId());
+
+        if (own == null) {
+            return;
+        }
+
+        for (final User receiver : users) {
+            final Map<UUID, User> known = knownUsers.get(receiver.getUserId());
+
+            if (receiver.equals(user)) {
+                receiver.send(SendAction.AVATAR_SPAWN, user);
+            } else if (known != null) {
+                if (isVisible(receiver, user, known.containsKey(user.getUserId()))) {
+                    known.put(user.getUserId(), user);
+                    receiver.send(SendAction.AVATAR_SPAWN, user);
+                } else if (known.remove(user.getUserId()) != null) {
+                    receiver.send(SendAction.AVATAR_HIDE, user);
+                }
+            }
+        }
+
+        updateView(user, own, users);
+    }
+
+    /**
+     * Ermittelt die Avatare im Sichtbereich eines Benutzers und vermerkt diese als ihm bekannt, ohne sie zu versenden.
+     * Wird verwendet, wenn die Avatare gesammelt mit dem Zustand der Welt versendet werden.
+     * @param receiver Benutzer, dessen Sichtbereich ermittelt wird.
+     * @param users Benutzer des Raums.
+     * @return Benutzer, deren Avatare sich neu im Sichtbereich befinden.
+     * @see WorldSnapshot
+     */
+    public synchronized @NotNull List<User> collect(@NotNull final User receiver, @NotNull final Collection<User> users) {
+        final Map<UUID, User> known = knownUsers.get(receiver.getUserId());
+
+        return known != null ? discover(receiver, known, users) : new ArrayList<>();
+    }
+
+    /**
+     * Aktualisiert die einem Benutzer bekannten Avatare, nachdem sich sein Sichtbereich verändert hat.
+     * @param receiver Benutzer, dessen Sichtbereich sich verändert hat.
+     * @param users Benutzer des Raums.
+     */
+    public synchronized void update(@NotNull final User receiver, @NotNull final Collection<User> users) {
+        final Map<UUID, User> known = knownUsers.get(receiver.getUserId());
+
+        if (known != null) {
+            updateView(receiver, known, users);
+        }
+    }
+
+    /**
+     * Versendet die Bewegungen von Benutzern an alle Benutzer, in deren Sichtbereich sie sich befinden. Dabei werden
+     * die Avatare, die einen Sichtbereich betreten oder verlassen, entsprechend ein- oder ausgeblendet.
+     * @param moved Benutzer, die sich bewegt haben.
+     * @param users Benutzer des Raums.
+     */
+    public synchronized void sendMoves(@NotNull final Map<UUID, User> moved, @NotNull final Collection<User> users) {
+        for (final User receiver : users) {
+            final Map<UUID, User> known = knownUsers.get(receiver.getUserId());
+
+            if (known == null) {
+                continue;
+            }
+
+            final List<User> visible = new ArrayList<>();
+
+            for (final User other : moved.values()) {
+                if (other.equals(receiver)) {
+                    // Der eigene Benutzer erhält eine Bestätigung seiner Bewegung.
+                    visible.add(other);
+                } else if (isVisible(receiver, other, known.containsKey(other.getUserId()))) {
+                    if (known.put(other.getUserId(), other) == null) {
+                        receiver.send(SendAction.AVATAR_SPAWN, other);
+                    } else {
+                        visible.add(other);
+                    }
+                } else if (known.remove(other.getUserId()) != null) {
+                    receiver.send(SendAction.AVATAR_HIDE, other);
+                }
+            }
+
+            // Hat sich der Benutzer selbst bewegt, hat sich auch sein Sichtbereich verschoben.
+            if (moved.containsKey(receiver.getUserId())) {
+                updateView(receiver, known, users);
+            }
+
+            if (!visible.isEmpty()) {
+                receiver.send(SendAction.AVATAR_MOVES, visible);
+            }
+        }
+    }
+
+    /**
+     * Blendet bei einem Benutzer alle Avatare ein, die sich neu in seinem Sichtbereich befinden und blendet alle Avatare
+     * aus, die seinen Sichtbereich verlassen haben.
+     * @param receiver Benutzer, dessen Sichtbereich aktualisiert wird.
+     * @param known Die dem Benutzer bekannten Avatare.
+     * @param users Benutzer des Raums.
+     */
+    private void updateView(@NotNull final User receiver, @NotNull final Map<UUID, User> known,
+                            @NotNull final Collection<User> users) {
+        if (receiver.getLocation() == null) {
+            return;
+        }
+
+        discover(receiver, known, users).forEach(other -> receiver.send(SendAction.AVATAR_SPAWN, other));
+
+        final Iterator<User> iterator = known.values().iterator();
+
+        while (iterator.hasNext()) {
+            final User other = iterator.next();
+
+            if (!isVisible(receiver, other, true)) {
+                iterator.remove();
+                receiver.send(SendAction.AVATAR_HIDE, other);
+            }
+        }
+    }
+
+    /**
+     * Ermittelt die Avatare, die sich neu im Sichtbereich eines Benutzers befinden, und vermerkt diese als ihm bekannt.
+     * @param receiver Benutzer, dessen Sichtbereich ermittelt wird.
+     * @param known Die dem Benutzer bekannten Avatare.
+     * @param users Benutzer des Raums.
+     * @return Benutzer, deren Avatare sich neu im Sichtbereich befinden.
+     */
+    private @NotNull List<User> discover(@NotNull final User receiver, @NotNull final Map<UUID, User> known,
+                                         @NotNull final Collection<User> users) {
+        final Location location = receiver.getLocation();
+        final List<User> discovered = new ArrayList<>();
+
+        if (location == null) {
+            return discovered;
+        }
+
+        final Collection<User> candidates;
+
+        if (hasViewport(receiver)) {
+            final float halfWidth = receiver.getViewportWidth() / 2 + INTEREST_MARGIN;
+            final float halfHeight = receiver.getViewportHeight() / 2 + INTEREST_MARGIN;
+            final float centerX = getCenter(location.getPosX(), receiver.getViewportWidth(), mapWidth);
+            final float centerY = getCenter(location.getPosY(), receiver.getViewportHeight(), mapHeight);
+
+            candidates = grid.getUsers(centerX - halfWidth, centerY - halfHeight,
+                    centerX + halfWidth, centerY + halfHeight).values();
+        } else {
+            candidates = users;
+        }
+
+        for (final User other : candidates) {
+            if (!other.equals(receiver) && !known.containsKey(other.getUserId()) && isVisible(receiver, other, false)) {
+                known.put(other.getUserId(), other);
+                discovered.add(other);
+            }
+        }
+
+        return discovered;
+    }
+
+    /**
+     * Überprüft, ob sich der Avatar eines Benutzers im Sichtbereich eines anderen Benutzers befindet.
+     * @param receiver Benutzer, dessen Sichtbereich überprüft wird.
+     * @param other Benutzer, dessen Avatar überprüft wird.
+     * @param known Information, ob der Avatar dem Benutzer bereits bekannt ist.
+     * @return true, wenn sich der Avatar im Sichtbereich befindet, sonst false.
+     */
+    private boolean isVisible(@NotNull final User receiver, @NotNull final User other, final boolean known) {
+        final Location location = receiver.getLocation();
+        final Location otherLocation = other.getLocation();
+
+        if (location == null || otherLocation == null || !location.getRoom().equals(otherLocation.getRoom())) {
+            return false;
+        }
+
+        if (!hasViewport(receiver)) {
+            return true;
+        }
+
+        final float margin = known ? 2 * INTEREST_MARGIN : INTEREST_MARGIN;
+        final float centerX = getCenter(location.getPosX(), receiver.getViewportWidth(), mapWidth);
+        final float centerY = getCenter(location.getPosY(), receiver.getViewportHeight(), mapHeight);
+
+        return Math.abs(otherLocation.getPosX() - centerX) <= receiver.getViewportWidth() / 2 + margin
+                && Math.abs(otherLocation.getPosY() - centerY) <= receiver.getViewportHeight() / 2 + margin;
+    }
+
+    /**
+     * Gibt zurück, ob der Sichtbereich eines Benutzers bekannt ist.
+     * @param user Zu überprüfender Benutzer.
+     * @return true, wenn der Sichtbereich bekannt ist, sonst false.
+     */
+    private static boolean hasViewport(@NotNull final User user) {
+        return user.getViewportWidth() > 0 && user.getViewportHeight() > 0;
+    }
+
+    /**
+     * Ermittelt den Mittelpunkt des Sichtbereichs entlang einer Achse. Wie bei der Kamera des Clients wird der
+     * Sichtbereich an den Rändern der Karte begrenzt.
+     * @param position Koordinate des Benutzers.
+     * @param size Größe des Sichtbereichs.
+     * @param bound Größe der Karte.
+     * @return Koordinate des Mittelpunkts des Sichtbereichs.
+     */
+    private static float getCenter(final float position, final float size, final float bound) {
+        if (bound < size) {
+            return bound / 2;
+        }
+
+        return Math.max(size / 2, Math.min(position, bound - size / 2));
+    }
+}
@@ -0,0 +1,88 @@
+package model.context.spatial;
+
+import controller.network.WorldLocks;
+import org.jetbrains.annotations.NotNull;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Eine Klasse, welche in einem festen Takt die gesammelten Bewegungen der Avatare in den Räumen versendet.
+ * <p>
+ *     Anstatt jede Bewegung eines Avatars sofort an alle Benutzer eines Raums zu verteilen, werden die Bewegungen
+ *     gesammelt und einmal pro Takt als ein einzelnes Paket versendet. Zwischenpositionen eines Avatars innerhalb eines
+ *     Takts werden dabei verworfen. Die Bewegungen eines Raums werden innerhalb der Sperre seiner Welt versendet.
+ * </p>
+ */
+public class MovementTicker {
+
+    private static final Logger LOGGER = Logger.getLogger("chati.movement");
+
+    /** Anzahl der Takte pro Sekunde. */
+    public static final int TICK_RATE = 20;
+
+    /** Singleton-Instanz der Klasse. */
+    private static MovementTicker ticker;
+
+    /** Räume, in denen sich seit dem letzten Takt Avatare bewegt haben. */
+    private final Set<Room> movedRooms;
+
+    /**
+     * Erzeugt eine neue Instanz des MovementTicker.
+     */
+    private MovementTicker() {
+        this.movedRooms = ConcurrentHashMap.newKeySet();
+
+        final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread tickerThread = new Thread(runnable, "Movement-Ticker");
+            tickerThread.setDaemon(true);
+            return tickerThread;
+        });
+
+        final long period = TimeUnit.SECONDS.toNanos(1) / TICK_RATE;
+        executor.scheduleAtFixedRate(this::tick, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Merkt einen Raum für den nächsten Takt vor, in dem sich ein Avatar bewegt hat.
+     * @param room Raum, in dem sich ein Avatar bewegt hat.
+     */
+    public void schedule(@NotNull final Room room) {
+        movedRooms.add(room);
+    }
+
+    /**
+     * Versendet die gesammelten Bewegungen aller vorgemerkten Räume.
+     */
+    private void tick() {
+        final Iterator<Room> iterator = movedRooms.iterator();
+
+        while (iterator.hasNext()) {
+            final Room room = iterator.next();
+            iterator.remove();
+
+            try {
+                WorldLocks.getInstance().execute(room.getWorld(), room::sendMovedUsers);
+            } catch (RuntimeException ex) {
+                // Eine Ausnahme darf den Takt nicht beenden, da sonst keine weiteren Bewegungen versendet werden.
+                LOGGER.log(Level.WARNING, "Failed to send avatar moves in room " + room.getContextName(), ex);
+            }
+        }
+    }
+
+    /**
+     * Gibt die Singleton-Instanz des MovementTicker zurück.
+     * @return Singleton-Instanz des MovementTicker.
+     */
+    public static synchronized @NotNull MovementTicker getInstance() {
+        if (ticker == null) {
+            ticker = new MovementTicker();
+        }
+        return ticker;
+    }
+}
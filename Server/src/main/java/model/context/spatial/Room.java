@@ -3,13 +3,21 @@ package model.context.spatial;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import controller.metrics.ServerMetrics;
 import controller.network.ClientSender.SendAction;
+import model.communication.RadiusCommunication;
 import model.communication.message.TextMessage;
+import model.role.ContextRole;
 import model.role.Role;
 import model.user.User;
 import org.jetbrains.annotations.NotNull;
 import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.FutureTask;
 
@@ -33,6 +41,15 @@ public class Room extends Area implements IRoom {
     /** Die Größe eines Tiles in der Map definiert die Interaktionsdistanz. */
     private float interactionDistance;
 
+    /** Gitter zur schnellen Ermittlung der Benutzer in der Nähe einer Position. */
+    private final SpatialGrid userGrid;
+
+    /** Verwaltung der den Benutzern bekannten Avatare. */
+    private final InterestManager interestManager;
+
+    /** Benutzer, die sich seit dem letzten Takt des {@link MovementTicker} bewegt haben. */
+    private final Map<UUID, User> movedUsers;
+
     /**
      * Erzeugt eine Instanz eines (öffentlichen) Raums.
      * @param roomName Name des Raums.
@@ -43,6 +60,9 @@ public class Room extends Area implements IRoom {
                    @NotNull final ContextMap map) {
         super(roomName, world, world, null, null, null);
         this.map = map;
+        this.userGrid = new SpatialGrid(RadiusCommunication.DEFAULT_RADIUS);
+        this.interestManager = new InterestManager(userGrid);
+        this.movedUsers = new ConcurrentHashMap<>();
         this.isPrivate = false;
         this.password = null;
     }
@@ -110,24 +130,129 @@ public class Room extends Area implements IRoom {
         return interactionDistance;
     }
 
+    /**
+     * Gibt das Gitter zurück, über welches die Benutzer in der Nähe einer Position ermittelt werden können.
+     * @return Gitter der Benutzer in diesem Raum.
+     */
+    public @NotNull SpatialGrid getUserGrid() {
+        return userGrid;
+    }
+
+    /**
+     * Gibt die Verwaltung der den Benutzern in diesem Raum bekannten Avatare zurück.
+     * @return Verwaltung der bekannten Avatare.
+     */
+    public @NotNull InterestManager getInterestManager() {
+        return interestManager;
+    }
+
+    /**
+     * Aktualisiert die Position eines Benutzers im Gitter dieses Raums.
+     * @param user Benutzer, dessen Position sich geändert hat.
+     */
+    public void updatePosition(@NotNull final User user) {
+        final Location location = user.getLocation();
+
+        if (contains(user) && location != null && location.getRoom().equals(this)) {
+            userGrid.update(user, location);
+        }
+    }
+
+    /**
+     * Versendet den Avatar eines Benutzers, der an eine neue Position in diesem Raum gesetzt wurde, an alle Benutzer, in
+     * deren Sichtbereich er sich befindet.
+     * @param user Benutzer, der an eine neue Position gesetzt wurde.
+     * @see InterestManager
+     */
+    public void spawnUser(@NotNull final User user) {
+        if (contains(user)) {
+            interestManager.spawn(user, containedUsers.values());
+        }
+    }
+
+    /**
+     * Aktualisiert die einem Benutzer bekannten Avatare, nachdem sich sein Sichtbereich verändert hat.
+     * @param user Benutzer, dessen Sichtbereich sich verändert hat.
+     * @see InterestManager
+     */
+    public void updateInterest(@NotNull final User user) {
+        if (contains(user)) {
+            interestManager.update(user, containedUsers.values());
+        }
+    }
+
+    /**
+     * Merkt die Bewegung eines Benutzers für den nächsten Takt vor. Die Bewegung wird anschließend gebündelt mit den
+     * Bewegungen der anderen Benutzer an alle Benutzer in diesem Raum versendet, in deren Sichtbereich er sich befindet.
+     * @param user Benutzer, der sich bewegt hat.
+     * @see MovementTicker
+     */
+    public void addMovedUser(@NotNull final User user) {
+        movedUsers.put(user.getUserId(), user);
+        MovementTicker.getInstance().schedule(this);
+    }
+
+    /**
+     * Versendet die aktuellen Positionen aller Benutzer, die sich seit dem letzten Takt bewegt haben, an alle Benutzer
+     * in diesem Raum, in deren Sichtbereich sie sich befinden.
+     */
+    public void sendMovedUsers() {
+        final Map<UUID, User> moved = new HashMap<>();
+
+        for (final UUID userId : movedUsers.keySet()) {
+            final User user = movedUsers.remove(userId);
+
+            // Benutzer, die den Raum seit ihrer Bewegung verlassen haben, werden nicht mehr versendet.
+            if (user != null && contains(user) && user.getLocation() != null && user.getLocation().getRoom().equals(this)) {
+                moved.put(userId, user);
+            }
+        }
+
+        if (!moved.isEmpty()) {
+            interestManager.sendMoves(moved, containedUsers.values());
+        }
+    }
+
     @Override
     public void addUser(@NotNull final User user) {
         if (!contains(user)) {
+            // Betritt der Benutzer mit diesem Raum auch die Welt, erhält er den Zustand der Welt gesammelt.
+            final boolean joined = !world.contains(user);
+
             world.addUser(user);
 
             user.send(SendAction.CONTEXT_JOIN, this);
             super.addUser(user);
-            user.updateUserInfo(true);
+            updatePosition(user);
+
+            if (joined) {
+                // Die Avatare im Sichtbereich werden mit dem Zustand der Welt anstatt beim Setzen der Position versendet.
+                // Der Zustand wird innerhalb der Sperre der Sichtbereiche eingereiht, damit der Benutzer Bewegungen und
+                // eingeblendete Avatare des Takts erst nach dem Zustand erhält.
+                synchronized (interestManager) {
+                    interestManager.add(user);
+                    world.sendSnapshot(user, this, interestManager.collect(user, containedUsers.values()));
+                }
+                user.updateUserInfo(false, false);
+            } else {
+                interestManager.add(user);
+                user.updateUserInfo(true);
+
+                // Die Avatare der anderen Benutzer werden erst beim Setzen der Position des Benutzers versendet.
+                containedUsers.values().forEach(other -> other.getRoomRoles().values()
+                        .forEach(role -> user.send(SendAction.CONTEXT_ROLE, role)));
+            }
+
             user.updateCommunicableUsers();
-            user.getRoomRoles().values().forEach(role -> user.send(SendAction.CONTEXT_ROLE, role));
 
-            // Sende die Positionen der anderen Benutzer an den beitretenden Benutzer.
-            containedUsers.values().stream().filter(other -> !other.equals(user)).forEach(other -> {
-                user.send(SendAction.AVATAR_SPAWN, other);
-                // Versenden der Raumrollen.
-                other.getRoomRoles().values().forEach(role -> user.send(SendAction.CONTEXT_ROLE, role));
-                user.getRoomRoles().values().forEach(role -> other.send(SendAction.CONTEXT_ROLE, role));
-            });
+            // Versenden der Raumrollen an die anderen Benutzer.
+            final Collection<ContextRole> roles = user.getRoomRoles().values();
+
+            if (!roles.isEmpty()) {
+                containedUsers.values().stream()
+                        .filter(other -> !other.equals(user))
+                        .forEach(other -> roles.forEach(role -> other.send(SendAction.CONTEXT_ROLE, role)));
+            }
 
             if (isPrivate) {
                 final TextMessage info = new TextMessage("context.room.joined", user.getUsername());
@@ -142,11 +267,14 @@ public class Room extends Area implements IRoom {
     public void removeUser(@NotNull final User user) {
         if (contains(user)) {
             super.removeUser(user);
+            userGrid.remove(user);
+            interestManager.remove(user);
             user.setMovable(true);
             user.setCurrentInteractable(null);
             user.updateCommunicableUsers();
 
             containedUsers.values().forEach(receiver -> receiver.send(SendAction.AVATAR_REMOVE, user));
+            ServerMetrics.getInstance().fanOut(SendAction.AVATAR_REMOVE, containedUsers.size());
 
             if (isPrivate) {
                 if (!containedUsers.isEmpty()) {
@@ -183,6 +311,7 @@ public class Room extends Area implements IRoom {
             TiledMap tiledMap = new TmxMapLoader().load(map.getPath());
 
             expanse = MapUtils.createMapExpanse(Room.this, tiledMap);
+            interestManager.setMapSize(expanse.getWidth(), expanse.getHeight());
             interactionDistance = MapUtils.parseInteractionDistance(Room.this, tiledMap);
             spawnLocation = MapUtils.parseLocation(Room.this, tiledMap.getProperties());
             communicationRegion = MapUtils.parseCommunication(tiledMap.getProperties());
@@ -0,0 +1,180 @@
+package model.context.spatial;
+
+import model.user.User;
+import org.jetbrains.annotations.NotNull;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Eine Klasse, welche ein gleichmäßiges Gitter über der Karte eines Raums repräsentiert. Das Gitter ordnet jeden
+ * Benutzer anhand seiner Position einer Zelle zu, sodass bei der Suche nach Benutzern innerhalb eines Radius nur die
+ * benachbarten Zellen betrachtet werden müssen.
+ */
+public class SpatialGrid {
+
+    /** Seitenlänge einer Zelle des Gitters. */
+    private final float cellSize;
+
+    /** Die in den Zellen des Gitters enthaltenen Benutzer. */
+    private final Map<Long, Map<UUID, User>> cells;
+
+    /** Die Zellen, in denen sich die Benutzer gerade befinden. */
+    private final Map<UUID, Long> userCells;
+
+    /**
+     * Erzeugt eine neue Instanz eines Gitters.
+     * @param cellSize Seitenlänge einer Zelle des Gitters.
+     */
+    public SpatialGrid(final float cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive");
+        }
+
+        this.cellSize = cellSize;
+        this.cells = new HashMap<>();
+        this.userCells = new HashMap<>();
+    }
+
+    /**
+     * Aktualisiert die Zelle eines Benutzers anhand seiner übergebenen Position. Ist der Benutzer noch nicht im Gitter
+     * enthalten, so wird er hinzugefügt.
+     * @param user Zu aktualisierender Benutzer.
+     * @param location Aktuelle Position des Benutzers.
+     */
+    public synchronized void update(@NotNull final User user, @NotNull final Location location) {
+        final long cell = getCell(toCell(location.getPosX()), toCell(location.getPosY()));
+        final Long oldCell = userCells.put(user.getUserId(), cell);
+
+        if (oldCell != null) {
+            if (oldCell == cell) {
+                return;
+            }
+
+            removeFromCell(user, oldCell);
+        }
+
+        cells.computeIfAbsent(cell, key -> new HashMap<>()).put(user.getUserId(), user);
+    }
+
+    /**
+     * Entfernt einen Benutzer aus dem Gitter, wenn dieser enthalten ist.
+     * @param user Zu entfernender Benutzer.
+     */
+    public synchronized void remove(@NotNull final User user) {
+        final Long cell = userCells.remove(user.getUserId());
+
+        if (cell != null) {
+            removeFromCell(user, cell);
+        }
+    }
+
+    /**
+     * Gibt die Benutzer zurück, deren Distanz zu einer Position den übergebenen Radius nicht überschreitet. Dabei
+     * werden nur die Zellen betrachtet, die den Radius um die Position überdecken.
+     * @param location Position, um die gesucht werden soll.
+     * @param radius Radius, innerhalb dem sich die Benutzer befinden müssen.
+     * @return Menge der Benutzer innerhalb des Radius.
+     * @see Location#distance(Location)
+     */
+    public synchronized @NotNull Map<UUID, User> getUsers(@NotNull final Location location, final float radius) {
+        final Map<UUID, User> users = new HashMap<>();
+
+        // Die Distanz zwischen zwei Positionen wird abgerundet, daher wird der Suchbereich um eine Einheit erweitert.
+        final int minX = toCell(location.getPosX() - radius - 1);
+        final int maxX = toCell(location.getPosX() + radius + 1);
+        final int minY = toCell(location.getPosY() - radius - 1);
+        final int maxY = toCell(location.getPosY() + radius + 1);
+
+        for (int cellX = minX; cellX <= maxX; cellX++) {
+            for (int cellY = minY; cellY <= maxY; cellY++) {
+                final Map<UUID, User> cellUsers = cells.get(getCell(cellX, cellY));
+
+                if (cellUsers == null) {
+                    continue;
+                }
+
+                for (final User other : cellUsers.values()) {
+                    final Location otherLocation = other.getLocation();
+
+                    if (otherLocation != null && otherLocation.getRoom().equals(location.getRoom())
+                            && location.distance(otherLocation) <= radius) {
+                        users.put(other.getUserId(), other);
+                    }
+                }
+            }
+        }
+
+        return users;
+    }
+
+    /**
+     * Gibt die Benutzer zurück, deren Zelle einen rechteckigen Bereich überdeckt. Die zurückgegebenen Benutzer können
+     * sich daher auch knapp außerhalb des Bereichs befinden.
+     * @param minX Minimale X-Koordinate des Bereichs.
+     * @param minY Minimale Y-Koordinate des Bereichs.
+     * @param maxX Maximale X-Koordinate des Bereichs.
+     * @param maxY Maximale Y-Koordinate des Bereichs.
+     * @return Menge der Benutzer in den Zellen des Bereichs.
+     */
+    public synchronized @NotNull Map<UUID, User> getUsers(final float minX, final float minY,
+                                                          final float maxX, final float maxY) {
+        final Map<UUID, User> users = new HashMap<>();
+
+        for (int cellX = toCell(minX); cellX <= toCell(maxX); cellX++) {
+            for (int cellY = toCell(minY); cellY <= toCell(maxY); cellY++) {
+                final Map<UUID, User> cellUsers = cells.get(getCell(cellX, cellY));
+
+                if (cellUsers != null) {
+                    users.putAll(cellUsers);
+                }
+            }
+        }
+
+        return users;
+    }
+
+    /**
+     * Gibt die Anzahl der im Gitter enthaltenen Benutzer zurück.
+     * @return Anzahl der enthaltenen Benutzer.
+     */
+    public synchronized int size() {
+        return userCells.size();
+    }
+
+    /**
+     * Entfernt einen Benutzer aus einer Zelle und verwirft die Zelle, falls diese anschließend leer ist.
+     * @param user Zu entfernender Benutzer.
+     * @param cell Zelle, aus der der Benutzer entfernt werden soll.
+     */
+    private void removeFromCell(@NotNull final User user, final long cell) {
+        final Map<UUID, User> cellUsers = cells.get(cell);
+
+        if (cellUsers != null) {
+            cellUsers.remove(user.getUserId());
+
+            if (cellUsers.isEmpty()) {
+                cells.remove(cell);
+            }
+        }
+    }
+
+    /**
+     * Ermittelt den Index der Zelle, in der sich eine Koordinate befindet.
+     * @param coordinate Zu überprüfende Koordinate.
+     * @return Index der Zelle.
+     */
+    private int toCell(final float coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    /**
+     * Ermittelt den eindeutigen Schlüssel einer Zelle aus deren Indizes.
+     * @param cellX Index der Zelle in X-Richtung.
+     * @param cellY Index der Zelle in Y-Richtung.
+     * @return Schlüssel der Zelle.
+     */
+    private static long getCell(final int cellX, final int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+    }
+}
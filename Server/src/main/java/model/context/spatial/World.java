@@ -1,12 +1,15 @@
 package model.context.spatial;
 
+import controller.metrics.ServerMetrics;
 import controller.network.ClientSender.SendAction;
+import controller.network.SharedPacket;
 import model.communication.CommunicationMedium;
 import model.context.ContextID;
 import model.context.global.GlobalContext;
 import model.role.Permission;
 import model.user.User;
 import org.jetbrains.annotations.NotNull;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -91,26 +94,65 @@ public class World extends Area implements IWorld {
 
             super.addUser(user);
 
-            // Zuerst die Benutzerinformationen senden und danach die Positionen der Avatare.
-            containedUsers.values().stream()
-                    .filter(receiver -> !receiver.equals(user))
-                    .forEach(receiver -> {
-                        // Versenden der Benutzerinformationen.
-                        user.send(SendAction.USER_INFO, receiver);
-                        receiver.send(SendAction.USER_INFO, user);
-                        // Versenden der globalen und weltbezogenen Rollen.
-                        user.send(SendAction.CONTEXT_ROLE, receiver.getGlobalRoles());
-                        user.send(SendAction.CONTEXT_ROLE, receiver.getWorldRoles());
-                        receiver.send(SendAction.CONTEXT_ROLE, user.getGlobalRoles());
-                        receiver.send(SendAction.CONTEXT_ROLE, user.getWorldRoles());
-                    });
-
-            if (user.hasPermission(this, Permission.BAN_USER) || user.hasPermission(this, Permission.BAN_MODERATOR)) {
-                bannedUsers.values().forEach(banned -> user.send(SendAction.USER_INFO, banned));
+            // Die Informationen über die anderen Benutzer werden erst beim Betreten des Raums gesammelt versendet.
+            user.getWorldNotifications().values().forEach(notification -> user.send(SendAction.NOTIFICATION, notification));
+        }
+    }
+
+    /**
+     * Sendet einem Benutzer, der die Welt betreten hat, den Zustand der Welt gesammelt in einem Paket. Die anderen
+     * Benutzer der Welt erhalten die Informationen und Rollen des Benutzers ebenfalls gesammelt in einem Paket, das für
+     * alle Empfänger ohne Beziehung zu dem Benutzer nur einmal erzeugt und serialisiert wird.
+     * @param user Benutzer, der die Welt betreten hat.
+     * @param room Raum, in dem sich der Benutzer befindet.
+     * @param avatars Benutzer, deren Avatare sich im Sichtbereich des Benutzers befinden.
+     */
+    void sendSnapshot(@NotNull final User user, @NotNull final Room room, @NotNull final Collection<User> avatars) {
+        final WorldSnapshot snapshot = new WorldSnapshot();
+
+        containedUsers.values().forEach(other -> {
+            snapshot.addUser(other);
+
+            if (!other.equals(user)) {
+                snapshot.addRole(other.getGlobalRoles());
+                snapshot.addRole(other.getWorldRoles());
             }
+        });
 
-            user.getWorldNotifications().values().forEach(notification -> user.send(SendAction.NOTIFICATION, notification));
+        room.getUsers().values().forEach(other -> other.getRoomRoles().values().forEach(snapshot::addRole));
+
+        if (user.hasPermission(this, Permission.BAN_USER) || user.hasPermission(this, Permission.BAN_MODERATOR)) {
+            bannedUsers.values().forEach(snapshot::addUser);
         }
+
+        avatars.forEach(snapshot::addAvatar);
+        user.send(SendAction.WORLD_SNAPSHOT, snapshot);
+
+        final WorldSnapshot joined = new WorldSnapshot();
+
+        joined.addUser(user);
+        joined.addRole(user.getGlobalRoles());
+        joined.addRole(user.getWorldRoles());
+
+        // Freunde und ignorierende Benutzer erhalten eine eigene Benutzerinformation mit der jeweiligen Beziehung.
+        final SharedPacket packet = new SharedPacket(SendAction.USER_JOIN, joined);
+        int receivers = 0;
+
+        for (final User receiver : containedUsers.values()) {
+            if (receiver.equals(user)) {
+                continue;
+            }
+
+            if (receiver.getFriends().containsKey(user.getUserId())
+                    || receiver.getIgnoredUsers().containsKey(user.getUserId())) {
+                receiver.send(SendAction.WORLD_SNAPSHOT, joined);
+            } else {
+                receiver.send(packet);
+                receivers++;
+            }
+        }
+
+        ServerMetrics.getInstance().fanOut(SendAction.USER_JOIN, receivers);
     }
 
     @Override
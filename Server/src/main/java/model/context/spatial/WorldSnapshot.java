@@ -0,0 +1,86 @@
+package model.context.spatial;
+
+import model.role.IContextRole;
+import model.user.IUser;
+import org.jetbrains.annotations.NotNull;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Eine Klasse, welche die Informationen über eine Welt sammelt, die einem Benutzer beim Betreten der Welt gemeinsam
+ * in einem Paket gesendet werden.
+ * <p>
+ *     Welche Informationen ein Benutzer über die enthaltenen Benutzer erhält, wird erst beim Erzeugen des Pakets für
+ *     den jeweiligen Empfänger ermittelt.
+ * </p>
+ */
+public class WorldSnapshot {
+
+    /** Die Benutzer, deren Informationen gesendet werden. */
+    private final List<IUser> users;
+
+    /** Die Rollen, die gesendet werden. */
+    private final List<IContextRole> roles;
+
+    /** Die Benutzer, deren Avatare gesendet werden. */
+    private final List<IUser> avatars;
+
+    /**
+     * Erzeugt eine neue Instanz des WorldSnapshot.
+     */
+    public WorldSnapshot() {
+        this.users = new ArrayList<>();
+        this.roles = new ArrayList<>();
+        this.avatars = new ArrayList<>();
+    }
+
+    /**
+     * Fügt einen Benutzer hinzu, dessen Informationen gesendet werden.
+     * @param user Hinzuzufügender Benutzer.
+     */
+    public void addUser(@NotNull final IUser user) {
+        this.users.add(user);
+    }
+
+    /**
+     * Fügt eine Rolle hinzu, die gesendet wird.
+     * @param role Hinzuzufügende Rolle.
+     */
+    public void addRole(@NotNull final IContextRole role) {
+        this.roles.add(role);
+    }
+
+    /**
+     * Fügt einen Benutzer hinzu, dessen Avatar gesendet wird.
+     * @param user Hinzuzufügender Benutzer.
+     */
+    public void addAvatar(@NotNull final IUser user) {
+        this.avatars.add(user);
+    }
+
+    /**
+     * Gibt die Benutzer zurück, deren Informationen gesendet werden.
+     * @return Benutzer, deren Informationen gesendet werden.
+     */
+    public @NotNull Collection<IUser> getUsers() {
+        return Collections.unmodifiableList(this.users);
+    }
+
+    /**
+     * Gibt die Rollen zurück, die gesendet werden.
+     * @return Zu sendende Rollen.
+     */
+    public @NotNull Collection<IContextRole> getRoles() {
+        return Collections.unmodifiableList(this.roles);
+    }
+
+    /**
+     * Gibt die Benutzer zurück, deren Avatare gesendet werden.
+     * @return Benutzer, deren Avatare gesendet werden.
+     */
+    public @NotNull Collection<IUser> getAvatars() {
+        return Collections.unmodifiableList(this.avatars);
+    }
+}
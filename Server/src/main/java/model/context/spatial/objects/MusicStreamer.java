@@ -1,9 +1,13 @@
 package model.context.spatial.objects;
 
 import utils.AudioUtils;
+import controller.metrics.ServerMetrics;
 import controller.network.ClientSender;
+import controller.network.SharedPacket;
+import controller.network.WorldLocks;
 import model.communication.CommunicationMedium;
 import model.communication.CommunicationRegion;
+import model.communication.MediaScheduler;
 import model.communication.message.AudioMessage;
 import model.context.spatial.Area;
 import model.context.spatial.ContextMenu;
@@ -14,19 +18,17 @@ import model.exception.IllegalMenuActionException;
 import model.user.User;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import javax.sound.sampled.AudioInputStream;
-import javax.sound.sampled.AudioSystem;
 import javax.sound.sampled.UnsupportedAudioFileException;
-import java.io.BufferedInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.UUID;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-public class MusicStreamer extends Interactable implements Runnable {
+public class MusicStreamer extends Interactable {
 
     private static final Logger LOGGER = Logger.getLogger("chati.stream");
 
@@ -54,11 +56,26 @@ public class MusicStreamer extends Interactable implements Runnable {
     /** Menü-Option zum Ein- und Ausschalten von zufällig abzuspielenden Musikstücken. */
     private static final int MENU_OPTION_RANDOM = 7;
 
-    /** Der ByteBuffer der abzuspielenden Musik. */
-    private ByteBuffer musicStreamBuffer;
+    /** Die dekodierten Daten der abzuspielenden Musik, die mit anderen MusicStreamern geteilt werden. */
+    private MusicTrack track;
 
-    /** Die Information, ob der Streamingthread gerade aktiv ist. */
-    private boolean isRunning;
+    /** Der Leser, mit dem die dekodierten Daten der abzuspielenden Musik gelesen werden. */
+    private MusicTrack.Reader trackReader;
+
+    /** Die aktuelle Position in den dekodierten Daten der abzuspielenden Musik in Bytes. */
+    private long trackPosition;
+
+    /** Der zu sendende Block an Musikdaten. */
+    private final byte[] sendData;
+
+    /** Die Sequenznummer des nächsten zu sendenden Blocks. */
+    private int sequence;
+
+    /** Die beim MediaScheduler angemeldete Quelle, welche die Musikdaten im Takt der Audioframes sendet. */
+    private MediaScheduler.Source source;
+
+    /** Die Information, ob das Senden von Musikdaten gerade aktiv ist. */
+    private volatile boolean isRunning;
 
     /** Die Information, ob das Senden von Musikdaten gerade pausiert ist. */
     private boolean isPaused;
@@ -75,7 +92,11 @@ public class MusicStreamer extends Interactable implements Runnable {
                        @NotNull final CommunicationRegion communicationRegion,
                        @NotNull final Set<CommunicationMedium> communicationMedia, @NotNull final Expanse expanse) {
         super(objectName, parent, communicationRegion, communicationMedia, expanse, ContextMenu.MUSIC_STREAMER_MENU);
-        this.musicStreamBuffer = null;
+        this.track = null;
+        this.trackReader = null;
+        this.trackPosition = 0;
+        this.sendData = new byte[AudioUtils.FRAME_SIZE];
+        this.sequence = 0;
         this.isRunning = false;
         this.isPaused = false;
         start();
@@ -111,11 +132,11 @@ public class MusicStreamer extends Interactable implements Runnable {
                     throw new IllegalMenuActionException("", e, "object.music-player.music-not-found", args[0]);
                 }
                 setMusic(music);
-                loadBuffer();
+                loadTrack();
                 play();
                 break;
             case MENU_OPTION_PAUSE: // Pausiere das Abspielen des Musikstücks oder setze es fort, falls es pausiert ist.
-                if (musicStreamBuffer == null || !isRunning) {
+                if (track == null || !isRunning) {
                     throw new IllegalMenuActionException("", "object.music-player.pause-not-possible");
                 }
                 if (isPaused) {
@@ -125,14 +146,14 @@ public class MusicStreamer extends Interactable implements Runnable {
                 }
                 break;
             case MENU_OPTION_STOP: // Stoppe das Abspielen des Musikstücks.
-                if (musicStreamBuffer == null || musicStreamBuffer.position() == 0 || !isRunning) {
+                if (track == null || trackPosition == 0 || !isRunning) {
                     throw new IllegalMenuActionException("", "object.music-player.stop-not-possible");
                 }
                 setMusic(null);
                 break;
             case MENU_OPTION_PREVIOUS: // Beginne das momentane Musikstück von vorn, oder spiele das letzte ab, falls
                                         // das momentane am Anfang ist.
-                if (musicStreamBuffer == null || !isRunning || getMusic() == null) {
+                if (track == null || !isRunning || getMusic() == null) {
                     throw new IllegalMenuActionException("", "object.music-player.previous-not-possible");
                 }
                 if (getCurrentPlaytime() < RESTART_SECONDS) {
@@ -140,17 +161,17 @@ public class MusicStreamer extends Interactable implements Runnable {
                 } else {
                     setMusic(getMusic());
                 }
-                loadBuffer();
+                loadTrack();
                 if (!isPaused) {
                     play();
                 }
                 break;
             case MENU_OPTION_NEXT: // Spiele das nächste Musikstück ab.
-                if (musicStreamBuffer == null || !isRunning || getMusic() == null) {
+                if (track == null || !isRunning || getMusic() == null) {
                     throw new IllegalMenuActionException("", "object.music-player.next-not-possible");
                 }
                 setMusic(ContextMusic.values()[(getMusic().ordinal() + 1) % ContextMusic.values().length]);
-                loadBuffer();
+                loadTrack();
                 if (!isPaused) {
                     play();
                 }
@@ -168,127 +189,148 @@ public class MusicStreamer extends Interactable implements Runnable {
     }
 
     /**
-     * Lädt den Buffer mit Daten des aktuell ausgewählten Musikstücks.
+     * Fordert die dekodierten Daten des aktuell ausgewählten Musikstücks an und setzt die Position auf den Anfang.
+     * Wird das Musikstück bereits abgespielt, so werden dessen Daten weiterverwendet.
      * @throws IllegalMenuActionException falls das Laden der Daten fehlschlägt.
      */
-    private void loadBuffer() throws IllegalMenuActionException {
-        try {
-            if (getMusic() == null) {
-                throw new IllegalMenuActionException("", "object.music-player.failed-loading");
-            }
-            InputStream file = getClass().getClassLoader().getResourceAsStream(getMusic().getPath());
-            if (file == null) {
-                throw new IllegalMenuActionException("", "object.music-player.failed-loading");
+    private synchronized void loadTrack() throws IllegalMenuActionException {
+        final ContextMusic music = getMusic();
+        if (music == null) {
+            throw new IllegalMenuActionException("", "object.music-player.failed-loading");
+        }
+
+        if (track == null || !track.getPath().equals(music.getPath())) {
+            final MusicTrack loaded;
+            try {
+                loaded = MusicTrackCache.getInstance().acquire(music);
+            } catch (UnsupportedAudioFileException | IOException e) {
+                LOGGER.log(Level.WARNING, "Exception during music loading", e);
+                throw new IllegalMenuActionException("", e, "object.music-player.failed-loading");
             }
-            AudioInputStream audioInputStream = AudioSystem.getAudioInputStream(new BufferedInputStream(file));
-            byte[] inputData = audioInputStream.readAllBytes();
-            byte[] musicStreamData = AudioUtils.MONO ? AudioUtils.toMono(inputData) : inputData;
-            musicStreamBuffer = ByteBuffer.allocate(musicStreamData.length);
-            musicStreamBuffer.put(musicStreamData);
-            musicStreamBuffer.position(0);
-            LOGGER.info("Loaded music file from path: " + getMusic().getPath());
-        } catch (UnsupportedAudioFileException | IOException e) {
-            LOGGER.log(Level.WARNING, "Exception during music loading", e);
-            throw new IllegalMenuActionException("", e, "object.music-player.failed-loading");
+            releaseTrack();
+            track = loaded;
+            trackReader = loaded.openReader();
         }
+        trackPosition = 0;
+        LOGGER.info("Loaded music file from path: " + music.getPath());
+    }
+
+    /**
+     * Gibt die dekodierten Daten des aktuell abgespielten Musikstücks wieder frei.
+     */
+    private synchronized void releaseTrack() {
+        if (track != null) {
+            trackReader.close();
+            MusicTrackCache.getInstance().release(track);
+            track = null;
+            trackReader = null;
+        }
+        trackPosition = 0;
     }
 
     @Override
     public synchronized void stop() {
         isRunning = false;
-        notifyAll();
+        if (source != null) {
+            source.cancel();
+            source = null;
+            LOGGER.info("Stopped music streaming for jukebox " + getContextId());
+        }
+        releaseTrack();
     }
 
     /**
-     * Startet einen Thread zum Senden von Musikstreamingdaten.
+     * Meldet den MusicStreamer beim MediaScheduler an, um Musikstreamingdaten zu senden.
      */
-    private void start() {
+    private synchronized void start() {
         if (isRunning) {
             return;
         }
         this.isRunning = true;
-
-        Thread streamingThread = new Thread(this);
-        streamingThread.setDaemon(true);
-        streamingThread.start();
-        LOGGER.info("Started music thread for jukebox " + getContextId());
+        this.source = MediaScheduler.getInstance()
+                .schedule(() -> WorldLocks.getInstance().execute(getWorld(), this::sendFrame));
+        LOGGER.info("Started music streaming for jukebox " + getContextId());
     }
 
-    @Override
-    public void run() {
-        byte[] sendData = new byte[AudioUtils.FRAME_SIZE];
+    /**
+     * Sendet einen Block an Musikdaten des laufenden Musikstücks. Wird vom MediaScheduler in jedem Audioframe
+     * aufgerufen.
+     */
+    private void sendFrame() {
+        final AudioMessage message;
 
-        outer:
-        while (isRunning) {
+        synchronized (this) {
+            // Sende nichts, solange die Musik pausiert ist oder keine Daten verfügbar sind.
+            if (!isRunning || isPaused || track == null) {
+                return;
+            }
+
+            // Lese die Daten des laufenden Musikstücks blockweise aus den gemeinsam verwendeten Daten.
+            int read;
             try {
-                synchronized (this) {
-                    // Warte, solange die Musik pausiert ist oder keine Daten verfügbar sind.
-                    while (isPaused || musicStreamBuffer == null || !musicStreamBuffer.hasRemaining()) {
-                        if (!isRunning) {
-                            break outer;
-                        }
-                        wait();
-                    }
-                }
+                read = trackReader.read(trackPosition, sendData);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Exception during music decoding", e);
+                read = 0;
+            }
+            trackPosition += read;
 
-                // Sende Daten des laufenden Musikstücks, solange diese vorhanden sind.
-                if (musicStreamBuffer.remaining() > sendData.length) {
-                    musicStreamBuffer.get(sendData);
-                } else {
-                    // Sende letzten Block des laufenden Musikstücks.
-                    musicStreamBuffer.get(sendData, 0, musicStreamBuffer.remaining());
-                    try {
-                        if (!parent.isLooping()) {
-                            if (parent.isRandom()) { // Starte zufälliges nächstes Lied, wenn Random und nicht Looping eingestellt ist.
-                                setMusic(ContextMusic.values()[new Random().nextInt(ContextMusic.values().length)]);
-                            } else { // Starte nächstes Lied in der Liste, wenn nicht Random und nicht Looping eingestellt ist.
-                                if (getMusic() != null) {
-                                    setMusic(ContextMusic.values()[(getMusic().ordinal() + 1) % ContextMusic.values().length]);
-                                }
+            if (read < sendData.length || (track.isComplete() && trackPosition >= track.getLength())) {
+                // Sende letzten Block des laufenden Musikstücks.
+                Arrays.fill(sendData, read, sendData.length, (byte) 0);
+                try {
+                    if (!parent.isLooping()) {
+                        if (parent.isRandom()) { // Starte zufälliges nächstes Lied, wenn Random und nicht Looping eingestellt ist.
+                            setMusic(ContextMusic.values()[new Random().nextInt(ContextMusic.values().length)]);
+                        } else { // Starte nächstes Lied in der Liste, wenn nicht Random und nicht Looping eingestellt ist.
+                            if (getMusic() != null) {
+                                setMusic(ContextMusic.values()[(getMusic().ordinal() + 1) % ContextMusic.values().length]);
                             }
-                        } else { // Gebe gleiches Lied nochmal wieder, wenn Looping eingestellt ist.
-                            setMusic(getMusic());
                         }
-                        loadBuffer();
-                    } catch (IllegalMenuActionException e) {
-                        LOGGER.log(Level.WARNING, "Exception during music change", e);
+                    } else { // Gebe gleiches Lied nochmal wieder, wenn Looping eingestellt ist.
+                        setMusic(getMusic());
                     }
+                    loadTrack();
+                } catch (IllegalMenuActionException e) {
+                    LOGGER.log(Level.WARNING, "Exception during music change", e);
                 }
+            }
 
-                // Ermittle die aktuelle Position im laufenden Musikstück und erzeuge die Nachricht.
-                float position = (float) musicStreamBuffer.position() / musicStreamBuffer.capacity();
-                if (getMusic() != null) {
-                    AudioMessage message = new AudioMessage(sendData, position, getCurrentPlaytime());
-
-                    // Sende das Paket mit Musikdaten.
-                    getParent().getUsers().values().forEach(receiver -> receiver.send(ClientSender.SendAction.AUDIO, message));
-                }
-
-                // Warte für die ungefähre Abspielzeit eines Pakets. Die genaue Zeitspanne die gewartet werden muss, kann
-                // individuell sein und muss ermittelt werden, da sich die Geschwindigkeit von Server und Client
-                // unterscheiden können.
-                Thread.sleep(955 / AudioUtils.FRAME_RATE);
-            } catch (InterruptedException e) {
-                LOGGER.log(Level.WARNING, "Exception during music streaming", e);
+            // Ermittle die aktuelle Position im laufenden Musikstück und erzeuge die Nachricht.
+            final long length = track != null ? track.getLength() : -1;
+            float position = length > 0 ? (float) trackPosition / length : 0;
+            if (getMusic() == null) {
+                return;
             }
+            message = new AudioMessage(sendData, sequence++, position, getCurrentPlaytime());
         }
-        LOGGER.info("Ended music thread for jukebox " + getContextId());
+
+        // Sende das Paket mit Musikdaten. Das Paket wird für alle Empfänger nur einmal serialisiert.
+        final SharedPacket packet = new SharedPacket(ClientSender.SendAction.AUDIO, message);
+        final Map<UUID, User> receivers = getParent().getUsers();
+        receivers.values().forEach(receiver -> receiver.send(packet));
+        ServerMetrics.getInstance().fanOut(ClientSender.SendAction.AUDIO, receivers.size());
     }
 
     /**
      * Gibt die Position des aktuell abgespielten Lieds in Sekunden zurück.
      * @return Position des aktuell abgespielten Lieds in Sekunden.
      */
-    public int getCurrentPlaytime() {
+    public synchronized int getCurrentPlaytime() {
         if (getMusic() == null) {
             return 0;
         }
-        return musicStreamBuffer.position() / (2 * AudioUtils.SAMPLING_RATE);
+        return (int) (trackPosition / (2 * AudioUtils.SAMPLING_RATE));
     }
 
     @Override
-    public void setMusic(@Nullable final ContextMusic music) {
-        musicStreamBuffer = ByteBuffer.allocate(0);
+    public synchronized void setMusic(@Nullable final ContextMusic music) {
+        // Die Daten werden nur freigegeben, wenn sich das Musikstück ändert, damit beim Wiederholen des gleichen
+        // Musikstücks nicht erneut dekodiert werden muss.
+        if (track != null && (music == null || !track.getPath().equals(music.getPath()))) {
+            releaseTrack();
+        }
+        trackPosition = 0;
         parent.setMusic(music);
     }
 
@@ -300,17 +342,14 @@ public class MusicStreamer extends Interactable implements Runnable {
     /**
      * Sendet Musik.
      */
-    private void play() {
+    private synchronized void play() {
         isPaused = false;
-        synchronized (this) {
-            notifyAll();
-        }
     }
 
     /**
      * Unterbricht das Senden von Musik.
      */
-    private void pause() {
+    private synchronized void pause() {
         isPaused = true;
     }
 }
@@ -0,0 +1,369 @@
+package model.context.spatial.objects;
+
+import model.context.spatial.objects.MusicTrackCache.TrackSource;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Eine Klasse, welche ein dekodiertes Musikstück repräsentiert, das von mehreren MusicStreamern gemeinsam verwendet
+ * wird.
+ * <p>
+ *     Das Musikstück wird nicht beim Laden vollständig dekodiert, sondern in Blöcken fester Größe aus dem
+ *     AudioInputStream gelesen, sobald die Daten zum ersten Mal benötigt werden. Dabei werden die Daten in 16-Bit-Samples
+ *     im Little-Endian-Format umgewandelt und auf den ersten Kanal reduziert. Die dekodierten Blöcke bleiben im
+ *     Speicher, bis deren Größe das Speicherbudget des Musikstücks überschreitet. Erst dann werden die ältesten Blöcke
+ *     entfernt. MusicStreamer, die das Musikstück versetzt oder wiederholt abspielen, lesen die Daten dadurch ohne
+ *     erneutes Dekodieren, solange das Musikstück oder der Abstand der MusicStreamer in das Budget passt.
+ * </p>
+ * <p>
+ *     Liegt die Position eines {@link Reader} vor den gehaltenen Blöcken, so dekodiert dieser das Musikstück mit einem
+ *     eigenen Stream erneut und hält dabei nur seinen aktuellen Block im Speicher. Das Öffnen und Dekodieren dieses
+ *     Streams erfolgt außerhalb der Sperre des Musikstücks, sodass die übrigen Leser nicht blockiert werden.
+ * </p>
+ * @see MusicTrackCache
+ */
+public class MusicTrack {
+
+    /** Größe eines dekodierten Blocks in Bytes. Entspricht bei 44,1 kHz etwa 0,74 Sekunden. */
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    /** Budget der gemeinsam im Speicher gehaltenen Blöcke in Bytes. Entspricht bei 44,1 kHz etwa 47 Sekunden. */
+    static final long MEMORY_BUDGET = 4L * 1024 * 1024;
+
+    /** Größe eines Samples der dekodierten Daten in Bytes. */
+    private static final int SAMPLE_SIZE = 2;
+
+    private final String path;
+    private final TrackSource source;
+    private final Decoder decoder;
+    private final Deque<byte[]> window;
+    private final long budget;
+    private final long length;
+    private final AtomicLong readerSize;
+    private long windowStart;
+    private int references;
+
+    /**
+     * Erzeugt eine neue Instanz des MusicTrack.
+     * @param path Pfad des Musikstücks.
+     * @param source Quelle, aus der das Musikstück für jeden Stream erneut geöffnet wird.
+     * @throws IOException falls die Datei des Musikstücks nicht gelesen werden kann.
+     * @throws UnsupportedAudioFileException falls das Format des Musikstücks nicht unterstützt wird.
+     */
+    MusicTrack(@NotNull final String path, @NotNull final TrackSource source)
+            throws IOException, UnsupportedAudioFileException {
+        this(path, source, MEMORY_BUDGET);
+    }
+
+    /**
+     * Erzeugt eine neue Instanz des MusicTrack.
+     * @param path Pfad des Musikstücks.
+     * @param source Quelle, aus der das Musikstück für jeden Stream erneut geöffnet wird.
+     * @param budget Größe der dekodierten Blöcke in Bytes, die gemeinsam im Speicher gehalten werden.
+     * @throws IOException falls die Datei des Musikstücks nicht gelesen werden kann.
+     * @throws UnsupportedAudioFileException falls das Format des Musikstücks nicht unterstützt wird.
+     */
+    MusicTrack(@NotNull final String path, @NotNull final TrackSource source, final long budget)
+            throws IOException, UnsupportedAudioFileException {
+        this.path = path;
+        this.source = source;
+        this.decoder = new Decoder(source.open());
+        this.window = new ArrayDeque<>();
+        this.budget = Math.max(budget, CHUNK_SIZE);
+        this.length = this.decoder.length;
+        this.readerSize = new AtomicLong();
+    }
+
+    /**
+     * Erzeugt einen Leser, mit dem ein MusicStreamer das Musikstück abspielt. Der Leser muss mit
+     * {@link Reader#close()} geschlossen werden, sobald das Musikstück nicht mehr abgespielt wird.
+     * @return Leser des Musikstücks.
+     */
+    public @NotNull Reader openReader() {
+        return new Reader();
+    }
+
+    /**
+     * Gibt die Länge der dekodierten Daten des gesamten Musikstücks in Bytes zurück.
+     * @return Länge des Musikstücks in Bytes, oder -1, falls diese erst nach dem vollständigen Dekodieren bekannt ist.
+     */
+    public synchronized long getLength() {
+        return decoder.complete ? decoder.decoded : length;
+    }
+
+    /**
+     * Gibt die Größe der dekodierten und im Speicher gehaltenen Daten in Bytes zurück. Dazu gehören die gemeinsam
+     * gehaltenen Blöcke und die aktuellen Blöcke der Leser, die das Musikstück erneut dekodieren.
+     * @return Größe der dekodierten Daten in Bytes.
+     */
+    public synchronized long getDecodedSize() {
+        return decoder.decoded - windowStart + readerSize.get();
+    }
+
+    /**
+     * Gibt zurück, ob das Musikstück vollständig dekodiert ist.
+     * @return true, wenn das Musikstück vollständig dekodiert ist, sonst false.
+     */
+    public synchronized boolean isComplete() {
+        return decoder.complete;
+    }
+
+    /**
+     * Gibt den Pfad des Musikstücks zurück.
+     * @return Pfad des Musikstücks.
+     */
+    public @NotNull String getPath() {
+        return path;
+    }
+
+    /**
+     * Erhöht die Anzahl der MusicStreamer, die das Musikstück verwenden.
+     */
+    void retain() {
+        references++;
+    }
+
+    /**
+     * Verringert die Anzahl der MusicStreamer, die das Musikstück verwenden.
+     * @return true, wenn das Musikstück nicht mehr verwendet wird, sonst false.
+     */
+    boolean release() {
+        return --references <= 0;
+    }
+
+    /**
+     * Schließt den Stream des Musikstücks und gibt die dekodierten Daten frei.
+     */
+    synchronized void close() {
+        window.clear();
+        windowStart = decoder.decoded;
+        decoder.close();
+    }
+
+    /**
+     * Liest die Daten ab einer Position aus den gemeinsam gehaltenen Blöcken. Noch nicht dekodierte Daten werden dabei
+     * aus dem Stream gelesen, wobei die ältesten Blöcke entfernt werden, sobald das Speicherbudget überschritten ist.
+     * @param position Position in den dekodierten Daten in Bytes.
+     * @param target Array, in das die Daten kopiert werden.
+     * @return Anzahl der gelesenen Bytes oder -1, falls die Position vor den gehaltenen Blöcken liegt.
+     * @throws IOException falls beim Dekodieren ein Fehler auftritt.
+     */
+    private synchronized int readWindow(final long position, final byte[] target) throws IOException {
+        if (position < windowStart) {
+            return -1;
+        }
+
+        while (!decoder.complete && decoder.decoded < position + target.length) {
+            final byte[] chunk = decoder.next();
+
+            if (chunk != null) {
+                window.addLast(chunk);
+            }
+
+            while (window.size() > 1 && decoder.decoded - windowStart > budget) {
+                windowStart += window.removeFirst().length;
+            }
+        }
+
+        if (position < windowStart) {
+            return -1;
+        }
+
+        int read = 0;
+        long chunkStart = windowStart;
+
+        for (final byte[] chunk : window) {
+            final long offset = position + read;
+
+            if (read == target.length || offset >= decoder.decoded) {
+                break;
+            }
+
+            if (offset < chunkStart + chunk.length) {
+                final int chunkOffset = (int) (offset - chunkStart);
+                final int count = Math.min(target.length - read, chunk.length - chunkOffset);
+
+                System.arraycopy(chunk, chunkOffset, target, read, count);
+                read += count;
+            }
+
+            chunkStart += chunk.length;
+        }
+
+        return read;
+    }
+
+    /**
+     * Eine Klasse, über die ein MusicStreamer die dekodierten Daten des Musikstücks liest.
+     */
+    public class Reader {
+
+        private Decoder own;
+        private byte[] chunk;
+        private long chunkStart;
+
+        private Reader() {
+            this.chunk = new byte[0];
+        }
+
+        /**
+         * Liest die dekodierten Daten ab einer Position. Liegt die Position vor den gemeinsam gehaltenen Blöcken, so
+         * wird das Musikstück für diesen Leser erneut dekodiert.
+         * @param position Position in den dekodierten Daten in Bytes.
+         * @param target Array, in das die Daten kopiert werden.
+         * @return Anzahl der gelesenen Bytes. Ist diese kleiner als die Länge des Arrays, so ist das Ende des
+         * Musikstücks erreicht.
+         * @throws IOException falls beim Dekodieren ein Fehler auftritt.
+         */
+        public synchronized int read(final long position, final byte[] target) throws IOException {
+            final int read = readWindow(position, target);
+
+            if (read >= 0) {
+                // Der Leser hat die gemeinsam gehaltenen Blöcke wieder erreicht.
+                close();
+                return read;
+            }
+
+            // Der eigene Stream wird außerhalb der Sperre des Musikstücks gelesen.
+            return readOwn(position, target);
+        }
+
+        /**
+         * Schließt den eigenen Stream des Lesers und gibt dessen dekodierte Daten frei.
+         */
+        public synchronized void close() {
+            if (own != null) {
+                own.close();
+                own = null;
+            }
+
+            readerSize.addAndGet(-chunk.length);
+            chunk = new byte[0];
+            chunkStart = 0;
+        }
+
+        private int readOwn(final long position, final byte[] target) throws IOException {
+            if (own == null || position < chunkStart) {
+                close();
+
+                try {
+                    own = new Decoder(source.open());
+                } catch (UnsupportedAudioFileException ex) {
+                    throw new IOException("Failed to reopen music file " + path, ex);
+                }
+            }
+
+            int read = 0;
+
+            while (read < target.length) {
+                final long offset = position + read;
+
+                if (offset >= chunkStart + chunk.length) {
+                    final byte[] next = own.next();
+
+                    if (next == null) {
+                        break;
+                    }
+
+                    readerSize.addAndGet(next.length - chunk.length);
+                    chunkStart += chunk.length;
+                    chunk = next;
+                    continue;
+                }
+
+                final int chunkOffset = (int) (offset - chunkStart);
+                final int count = Math.min(target.length - read, chunk.length - chunkOffset);
+
+                System.arraycopy(chunk, chunkOffset, target, read, count);
+                read += count;
+            }
+
+            return read;
+        }
+    }
+
+    /**
+     * Eine Klasse, welche ein Musikstück blockweise aus einem Stream dekodiert.
+     */
+    private static class Decoder {
+
+        private final AudioInputStream stream;
+        private final int sourceFrameSize;
+        private final long length;
+        private byte[] sourceBuffer;
+        private long decoded;
+        private boolean complete;
+
+        public Decoder(@NotNull final AudioInputStream source) throws UnsupportedAudioFileException {
+            final AudioFormat format = source.getFormat();
+            AudioInputStream stream = source;
+
+            if (!AudioFormat.Encoding.PCM_SIGNED.equals(format.getEncoding()) || format.getSampleSizeInBits() != 16
+                    || format.isBigEndian()) {
+                final AudioFormat target = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, format.getSampleRate(), 16,
+                        format.getChannels(), format.getChannels() * SAMPLE_SIZE, format.getSampleRate(), false);
+                try {
+                    stream = AudioSystem.getAudioInputStream(target, source);
+                } catch (IllegalArgumentException e) {
+                    throw new UnsupportedAudioFileException("Can not convert " + format + " to " + target);
+                }
+            }
+
+            this.stream = stream;
+            this.sourceFrameSize = stream.getFormat().getFrameSize();
+            this.length = stream.getFrameLength() != AudioSystem.NOT_SPECIFIED
+                    ? stream.getFrameLength() * SAMPLE_SIZE : -1;
+            this.sourceBuffer = new byte[CHUNK_SIZE / SAMPLE_SIZE * this.sourceFrameSize];
+        }
+
+        /**
+         * Dekodiert den nächsten Block des Musikstücks.
+         * @return der dekodierte Block oder null, falls das Ende des Musikstücks erreicht ist.
+         * @throws IOException falls beim Lesen aus dem Stream ein Fehler auftritt.
+         */
+        public @Nullable byte[] next() throws IOException {
+            if (complete) {
+                return null;
+            }
+
+            final int read = stream.readNBytes(sourceBuffer, 0, sourceBuffer.length);
+            final int frames = read / sourceFrameSize;
+            final byte[] chunk = new byte[frames * SAMPLE_SIZE];
+
+            // Übernehme jeweils das erste Sample eines Frames.
+            for (int frame = 0; frame < frames; frame++) {
+                chunk[SAMPLE_SIZE * frame] = sourceBuffer[sourceFrameSize * frame];
+                chunk[SAMPLE_SIZE * frame + 1] = sourceBuffer[sourceFrameSize * frame + 1];
+            }
+
+            decoded += chunk.length;
+
+            if (read < sourceBuffer.length) {
+                close();
+            }
+
+            return chunk.length > 0 ? chunk : null;
+        }
+
+        /**
+         * Schließt den Stream des Musikstücks.
+         */
+        public void close() {
+            complete = true;
+            sourceBuffer = null;
+            try {
+                stream.close();
+            } catch (IOException e) {
+                // Der Stream wird nicht mehr benötigt.
+            }
+        }
+    }
+}
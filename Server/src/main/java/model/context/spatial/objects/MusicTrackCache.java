@@ -0,0 +1,136 @@
+package model.context.spatial.objects;
+
+import model.context.spatial.ContextMusic;
+import org.jetbrains.annotations.NotNull;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.BufferedInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Eine Klasse, welche die dekodierten Musikstücke aller MusicStreamer verwaltet.
+ * <p>
+ *     Spielen mehrere MusicStreamer dasselbe Musikstück ab, so verwenden sie dieselben dekodierten Daten. Jeder
+ *     MusicStreamer fordert das Musikstück beim Abspielen an und gibt es wieder frei, sobald er es nicht mehr abspielt.
+ *     Wird ein Musikstück von keinem MusicStreamer mehr verwendet, so werden dessen dekodierte Daten freigegeben.
+ * </p>
+ */
+public class MusicTrackCache {
+
+    private static final Logger LOGGER = Logger.getLogger("chati.stream");
+
+    /** Singleton-Instanz der Klasse. */
+    private static MusicTrackCache cache;
+
+    /** Die aktuell verwendeten Musikstücke. */
+    private final Map<String, MusicTrack> tracks;
+
+    /**
+     * Erzeugt eine neue Instanz des MusicTrackCache.
+     */
+    MusicTrackCache() {
+        this.tracks = new HashMap<>();
+    }
+
+    /**
+     * Fordert die dekodierten Daten eines Musikstücks an. Die Daten müssen mit {@link #release(MusicTrack)} wieder
+     * freigegeben werden, sobald das Musikstück nicht mehr abgespielt wird.
+     * @param music Anzufordernes Musikstück.
+     * @return Dekodierte Daten des Musikstücks.
+     * @throws IOException falls die Datei des Musikstücks nicht gelesen werden kann.
+     * @throws UnsupportedAudioFileException falls das Format des Musikstücks nicht unterstützt wird.
+     */
+    public @NotNull MusicTrack acquire(@NotNull final ContextMusic music)
+            throws IOException, UnsupportedAudioFileException {
+        return acquire(music.getPath(), () -> {
+            final InputStream file = getClass().getClassLoader().getResourceAsStream(music.getPath());
+            if (file == null) {
+                throw new FileNotFoundException("Music file not found: " + music.getPath());
+            }
+            return AudioSystem.getAudioInputStream(new BufferedInputStream(file));
+        });
+    }
+
+    /**
+     * Fordert die dekodierten Daten eines Musikstücks an und öffnet dieses, falls es gerade nicht verwendet wird.
+     * @param path Pfad des Musikstücks.
+     * @param source Quelle, aus der das Musikstück geöffnet wird.
+     * @return Dekodierte Daten des Musikstücks.
+     * @throws IOException falls die Datei des Musikstücks nicht gelesen werden kann.
+     * @throws UnsupportedAudioFileException falls das Format des Musikstücks nicht unterstützt wird.
+     */
+    synchronized @NotNull MusicTrack acquire(@NotNull final String path, @NotNull final TrackSource source)
+            throws IOException, UnsupportedAudioFileException {
+        MusicTrack track = tracks.get(path);
+
+        if (track == null) {
+            track = new MusicTrack(path, source);
+            tracks.put(path, track);
+            LOGGER.info("Opened music file from path: " + path);
+        }
+
+        track.retain();
+        return track;
+    }
+
+    /**
+     * Gibt die angeforderten Daten eines Musikstücks wieder frei.
+     * @param track Freizugebende Daten des Musikstücks.
+     */
+    public synchronized void release(@NotNull final MusicTrack track) {
+        if (track.release() && tracks.remove(track.getPath(), track)) {
+            LOGGER.fine(String.format("Released music file from path: %s (%d bytes decoded)", track.getPath(),
+                    track.getDecodedSize()));
+            track.close();
+        }
+    }
+
+    /**
+     * Gibt die Anzahl der gerade verwendeten Musikstücke zurück.
+     * @return Anzahl der verwendeten Musikstücke.
+     */
+    public synchronized int getTrackCount() {
+        return tracks.size();
+    }
+
+    /**
+     * Gibt die Größe der dekodierten Daten aller verwendeten Musikstücke in Bytes zurück.
+     * @return Größe der dekodierten Daten in Bytes.
+     */
+    public synchronized long getMemoryUsage() {
+        return tracks.values().stream().mapToLong(MusicTrack::getDecodedSize).sum();
+    }
+
+    /**
+     * Gibt die Singleton-Instanz des MusicTrackCache zurück.
+     * @return Instanz des MusicTrackCache.
+     */
+    public static synchronized @NotNull MusicTrackCache getInstance() {
+        if (cache == null) {
+            cache = new MusicTrackCache();
+        }
+        return cache;
+    }
+
+    /**
+     * Eine Schnittstelle, über welche ein Musikstück zum Dekodieren geöffnet wird. Ein Musikstück wird erneut geöffnet,
+     * wenn ein MusicStreamer die Daten vor den gemeinsam gehaltenen Blöcken benötigt.
+     */
+    @FunctionalInterface
+    interface TrackSource {
+
+        /**
+         * Öffnet das Musikstück.
+         * @return Stream, aus dem das Musikstück dekodiert wird.
+         * @throws IOException falls die Datei des Musikstücks nicht gelesen werden kann.
+         * @throws UnsupportedAudioFileException falls das Format des Musikstücks nicht unterstützt wird.
+         */
+        @NotNull AudioInputStream open() throws IOException, UnsupportedAudioFileException;
+    }
+}
@@ -0,0 +1,584 @@
+package model.database;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.lang.ref.Cleaner;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Eine Klasse, welche eine beschränkte Anzahl an Verbindungen zur Datenbank verwaltet und wiederverwendet.
+ * <p>
+ *     Die herausgegebenen Verbindungen werden beim Schließen an den Pool zurückgegeben, anstatt die physische Verbindung
+ *     zu schließen. Die über eine Verbindung vorbereiteten Anweisungen werden pro Verbindung zwischengespeichert und beim
+ *     Schließen lediglich zurückgesetzt, sodass die festen Anweisungen der Datenbank nur einmal pro Verbindung
+ *     vorbereitet werden müssen.
+ * </p>
+ */
+public class ConnectionPool {
+
+    private static final Logger LOGGER = Logger.getLogger("chati.database");
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    /**
+     * Standardmäßige maximale Wartezeit auf eine freie Verbindung in Millisekunden. Ist der Pool danach noch immer
+     * erschöpft, so ist die Datenbank überlastet und der Zugriff schlägt fehl, anstatt weitere Verbindungen zu öffnen.
+     */
+    private static final long BORROW_TIMEOUT = 5000;
+
+    /** Zeit in Millisekunden, nach der eine unbenutzte Verbindung vor der Herausgabe überprüft wird. */
+    private static final long VALIDATION_INTERVAL = 30000;
+
+    /** Maximale Wartezeit für die Überprüfung einer Verbindung in Sekunden. */
+    private static final int VALIDATION_TIMEOUT = 1;
+
+    /** Maximale Anzahl an zwischengespeicherten Anweisungen pro Verbindung. */
+    private static final int STATEMENT_CACHE_SIZE = 64;
+
+    private final String url;
+    private final int maxSize;
+    private final long borrowTimeout;
+    private final Semaphore permits;
+    private final BlockingDeque<PooledConnection> idleConnections;
+
+    private final AtomicLong createdConnections;
+    private final AtomicLong discardedConnections;
+    private final AtomicLong borrowedConnections;
+    private final AtomicLong timeouts;
+    private final AtomicLong waitTime;
+    private final AtomicLong statementHits;
+    private final AtomicLong statementMisses;
+
+    private volatile boolean closed;
+
+    /**
+     * Erzeugt eine neue Instanz des ConnectionPool.
+     * @param url URL der Datenbank.
+     * @param maxSize Maximale Anzahl an gleichzeitig herausgegebenen Verbindungen.
+     */
+    public ConnectionPool(@NotNull final String url, final int maxSize) {
+        this(url, maxSize, BORROW_TIMEOUT);
+    }
+
+    /**
+     * Erzeugt eine neue Instanz des ConnectionPool.
+     * @param url URL der Datenbank.
+     * @param maxSize Maximale Anzahl an gleichzeitig herausgegebenen Verbindungen.
+     * @param borrowTimeout Maximale Wartezeit auf eine freie Verbindung in Millisekunden.
+     */
+    public ConnectionPool(@NotNull final String url, final int maxSize, final long borrowTimeout) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive");
+        }
+
+        this.url = url;
+        this.maxSize = maxSize;
+        this.borrowTimeout = borrowTimeout;
+        this.permits = new Semaphore(maxSize, true);
+        this.idleConnections = new LinkedBlockingDeque<>();
+        this.createdConnections = new AtomicLong();
+        this.discardedConnections = new AtomicLong();
+        this.borrowedConnections = new AtomicLong();
+        this.timeouts = new AtomicLong();
+        this.waitTime = new AtomicLong();
+        this.statementHits = new AtomicLong();
+        this.statementMisses = new AtomicLong();
+        this.closed = false;
+    }
+
+    /**
+     * Gibt eine Verbindung zur Datenbank zurück. Die Verbindung muss nach der Verwendung geschlossen werden, wodurch
+     * sie an den Pool zurückgegeben wird.
+     * <p>
+     *     Ist innerhalb der maximalen Wartezeit keine Verbindung verfügbar, so wird keine zusätzliche Verbindung
+     *     geöffnet, sondern der Zugriff schlägt fehl. Die Anzahl dieser Fehlschläge wird in den Metriken des Pools
+     *     gezählt.
+     * </p>
+     * @return Verbindung zur Datenbank.
+     * @throws SQLException falls keine Verbindung zur Datenbank hergestellt werden konnte oder innerhalb der maximalen
+     * Wartezeit keine Verbindung verfügbar war.
+     */
+    public @NotNull Connection getConnection() throws SQLException {
+        if (this.closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        final long start = System.nanoTime();
+
+        try {
+            if (!this.permits.tryAcquire(this.borrowTimeout, TimeUnit.MILLISECONDS)) {
+                this.timeouts.incrementAndGet();
+                throw new SQLException("Timed out after " + this.borrowTimeout
+                        + " ms waiting for a database connection");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", ex);
+        }
+
+        this.waitTime.addAndGet(System.nanoTime() - start);
+
+        try {
+            PooledConnection connection;
+
+            while ((connection = this.idleConnections.pollFirst()) != null) {
+                if (connection.validate()) {
+                    break;
+                }
+
+                this.discard(connection);
+            }
+
+            if (connection == null) {
+                connection = new PooledConnection(this.openConnection());
+                this.createdConnections.incrementAndGet();
+            }
+
+            this.borrowedConnections.incrementAndGet();
+
+            return connection.borrow();
+        } catch (SQLException | RuntimeException ex) {
+            this.permits.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Schließt alle unbenutzten Verbindungen des Pools. Noch herausgegebene Verbindungen werden bei ihrer Rückgabe
+     * geschlossen.
+     */
+    public void close() {
+        this.closed = true;
+
+        PooledConnection connection;
+
+        while ((connection = this.idleConnections.pollFirst()) != null) {
+            this.discard(connection);
+        }
+
+        LOGGER.info("Closed connection pool: " + this);
+    }
+
+    /**
+     * Gibt die Anzahl der gerade herausgegebenen Verbindungen zurück.
+     * @return Anzahl der herausgegebenen Verbindungen.
+     */
+    public int getActiveConnections() {
+        return this.maxSize - this.permits.availablePermits();
+    }
+
+    /**
+     * Gibt die Anzahl der unbenutzten Verbindungen im Pool zurück.
+     * @return Anzahl der unbenutzten Verbindungen.
+     */
+    public int getIdleConnections() {
+        return this.idleConnections.size();
+    }
+
+    /**
+     * Gibt die Anzahl der bisher erzeugten physischen Verbindungen des Pools zurück.
+     * @return Anzahl der erzeugten Verbindungen.
+     */
+    public long getCreatedConnections() {
+        return this.createdConnections.get();
+    }
+
+    /**
+     * Gibt die Anzahl der bisher verworfenen physischen Verbindungen des Pools zurück.
+     * @return Anzahl der verworfenen Verbindungen.
+     */
+    public long getDiscardedConnections() {
+        return this.discardedConnections.get();
+    }
+
+    /**
+     * Gibt die Anzahl der bisher herausgegebenen Verbindungen des Pools zurück.
+     * @return Anzahl der herausgegebenen Verbindungen.
+     */
+    public long getBorrowedConnections() {
+        return this.borrowedConnections.get();
+    }
+
+    /**
+     * Gibt die Anzahl der Zugriffe zurück, die aufgrund eines erschöpften Pools fehlgeschlagen sind.
+     * @return Anzahl der fehlgeschlagenen Zugriffe.
+     */
+    public long getTimeouts() {
+        return this.timeouts.get();
+    }
+
+    /**
+     * Gibt die durchschnittliche Wartezeit auf eine Verbindung in Mikrosekunden zurück.
+     * @return durchschnittliche Wartezeit.
+     */
+    public double getAverageWaitTime() {
+        final long borrowed = this.borrowedConnections.get();
+
+        return borrowed > 0 ? this.waitTime.get() / 1000.0 / borrowed : 0;
+    }
+
+    /**
+     * Gibt die Anzahl der Anweisungen zurück, die aus dem Zwischenspeicher der Verbindungen verwendet wurden.
+     * @return Anzahl der wiederverwendeten Anweisungen.
+     */
+    public long getStatementHits() {
+        return this.statementHits.get();
+    }
+
+    /**
+     * Gibt die Anzahl der Anweisungen zurück, die neu vorbereitet werden mussten.
+     * @return Anzahl der neu vorbereiteten Anweisungen.
+     */
+    public long getStatementMisses() {
+        return this.statementMisses.get();
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return this.getClass().getSimpleName() + "{active=" + this.getActiveConnections()
+                + ", idle=" + this.getIdleConnections() + ", created=" + this.getCreatedConnections()
+                + ", discarded=" + this.getDiscardedConnections() + ", borrowed=" + this.getBorrowedConnections()
+                + ", timeouts=" + this.getTimeouts()
+                + ", averageWait=" + String.format("%.1f", this.getAverageWaitTime()) + "us"
+                + ", statementHits=" + this.getStatementHits() + ", statementMisses=" + this.getStatementMisses() + "}";
+    }
+
+    /**
+     * Öffnet eine neue physische Verbindung zur Datenbank.
+     * @return physische Verbindung zur Datenbank.
+     * @throws SQLException falls keine Verbindung zur Datenbank hergestellt werden konnte.
+     */
+    private @NotNull Connection openConnection() throws SQLException {
+        try {
+            Class.forName("org.apache.derby.jdbc.EmbeddedDriver");
+
+            return DriverManager.getConnection(this.url);
+        } catch (ClassNotFoundException ex) {
+            throw new SQLException("Failed to find apache derby driver", ex);
+        }
+    }
+
+    /**
+     * Nimmt eine zurückgegebene Verbindung wieder in den Pool auf oder verwirft sie, falls sie nicht mehr verwendet
+     * werden kann.
+     * @param connection Zurückgegebene Verbindung.
+     */
+    private void release(@NotNull final PooledConnection connection) {
+        try {
+            if (this.closed || connection.broken || !connection.reset()) {
+                this.discard(connection);
+            } else {
+                this.idleConnections.offerFirst(connection);
+            }
+        } finally {
+            this.permits.release();
+        }
+    }
+
+    /**
+     * Verwirft eine Verbindung des Pools und schließt die physische Verbindung.
+     * @param connection Zu verwerfende Verbindung.
+     */
+    private void discard(@NotNull final PooledConnection connection) {
+        this.discardedConnections.incrementAndGet();
+
+        try {
+            connection.physical.close();
+        } catch (SQLException ex) {
+            LOGGER.log(Level.FINE, "Failed to close discarded database connection", ex);
+        }
+    }
+
+    /**
+     * Eine Klasse, die eine physische Verbindung des Pools und deren zwischengespeicherte Anweisungen hält.
+     */
+    private class PooledConnection {
+
+        private final Connection physical;
+        private final Map<String, PreparedStatement> statements;
+        private long lastUsed;
+        private volatile boolean broken;
+
+        public PooledConnection(@NotNull final Connection physical) {
+            this.physical = physical;
+            this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(@NotNull final Map.Entry<String, PreparedStatement> eldest) {
+                    if (size() > STATEMENT_CACHE_SIZE) {
+                        closeQuietly(eldest.getValue());
+                        return true;
+                    }
+
+                    return false;
+                }
+            };
+            this.lastUsed = System.currentTimeMillis();
+            this.broken = false;
+        }
+
+        /**
+         * Gibt eine neue Sicht auf diese Verbindung heraus, die beim Schließen die Verbindung an den Pool zurückgibt.
+         * Wird die Sicht nicht geschlossen, so wird die Verbindung zurückgegeben, sobald die Sicht nicht mehr
+         * erreichbar ist.
+         * @return herausgegebene Verbindung.
+         */
+        public @NotNull Connection borrow() {
+            final ConnectionHandler handler = new ConnectionHandler(this);
+            final Connection connection = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, handler);
+
+            CLEANER.register(connection, handler::leak);
+            return connection;
+        }
+
+        /**
+         * Überprüft eine längere Zeit unbenutzte Verbindung vor ihrer erneuten Herausgabe.
+         * @return true, wenn die Verbindung verwendet werden kann, sonst false.
+         */
+        public boolean validate() {
+            if (System.currentTimeMillis() - this.lastUsed < VALIDATION_INTERVAL) {
+                return true;
+            }
+
+            try {
+                return this.physical.isValid(VALIDATION_TIMEOUT);
+            } catch (SQLException ex) {
+                return false;
+            }
+        }
+
+        /**
+         * Setzt den Zustand der Verbindung für die nächste Herausgabe zurück.
+         * @return true, wenn die Verbindung zurückgesetzt werden konnte, sonst false.
+         */
+        public boolean reset() {
+            try {
+                if (this.physical.isClosed()) {
+                    return false;
+                }
+
+                if (!this.physical.getAutoCommit()) {
+                    this.physical.rollback();
+                    this.physical.setAutoCommit(true);
+                }
+
+                this.lastUsed = System.currentTimeMillis();
+                return true;
+            } catch (SQLException ex) {
+                return false;
+            }
+        }
+
+        /**
+         * Gibt eine zwischengespeicherte Anweisung zurück oder bereitet sie vor, falls sie noch nicht vorhanden ist.
+         * @param sql SQL-Anweisung.
+         * @param type Typ der Ergebnismenge.
+         * @param concurrency Nebenläufigkeit der Ergebnismenge.
+         * @return vorbereitete Anweisung.
+         * @throws SQLException falls die Anweisung nicht vorbereitet werden konnte.
+         */
+        public @NotNull PreparedStatement prepare(@NotNull final String sql, final int type,
+                                                  final int concurrency) throws SQLException {
+            final String key = type + ":" + concurrency + ":" + sql;
+            PreparedStatement statement = this.statements.get(key);
+
+            if (statement == null) {
+                final PreparedStatement physicalStatement = this.physical.prepareStatement(sql, type, concurrency);
+
+                statement = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                        new Class<?>[]{PreparedStatement.class}, new StatementHandler(this, physicalStatement));
+                this.statements.put(key, statement);
+                statementMisses.incrementAndGet();
+            } else {
+                statementHits.incrementAndGet();
+            }
+
+            return statement;
+        }
+    }
+
+    /**
+     * Eine Klasse, welche die Aufrufe auf eine herausgegebene Verbindung an die physische Verbindung weiterleitet.
+     */
+    private class ConnectionHandler implements InvocationHandler {
+
+        private final PooledConnection connection;
+        private volatile boolean returned;
+
+        public ConnectionHandler(@NotNull final PooledConnection connection) {
+            this.connection = connection;
+            this.returned = false;
+        }
+
+        @Override
+        public @Nullable Object invoke(@NotNull final Object proxy, @NotNull final Method method,
+                                       @Nullable final Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    this.giveBack();
+                    return null;
+
+                case "isClosed":
+                    return this.returned || this.connection.physical.isClosed();
+
+                case "equals":
+                    return proxy == Objects.requireNonNull(args)[0];
+
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+
+                case "toString":
+                    return "Pooled" + this.connection.physical;
+
+                default:
+                    break;
+            }
+
+            if (this.returned) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+
+            if (method.getName().equals("prepareStatement") && args != null) {
+                if (args.length == 1) {
+                    return this.connection.prepare((String) args[0], ResultSet.TYPE_FORWARD_ONLY,
+                            ResultSet.CONCUR_READ_ONLY);
+                }
+
+                if (args.length == 3 && method.getParameterTypes()[1] == int.class
+                        && method.getParameterTypes()[2] == int.class) {
+                    return this.connection.prepare((String) args[0], (int) args[1], (int) args[2]);
+                }
+            }
+
+            return invokeOn(this.connection, this.connection.physical, method, args);
+        }
+
+        /**
+         * Gibt die Verbindung an den Pool zurück, falls dies noch nicht geschehen ist.
+         */
+        private synchronized void giveBack() {
+            if (!this.returned) {
+                this.returned = true;
+                release(this.connection);
+            }
+        }
+
+        /**
+         * Gibt die Verbindung an den Pool zurück, nachdem die herausgegebene Verbindung ohne Schließen verworfen wurde.
+         */
+        private void leak() {
+            if (!this.returned) {
+                LOGGER.warning("Database connection was not closed and has been returned to the pool");
+                this.giveBack();
+            }
+        }
+    }
+
+    /**
+     * Eine Klasse, welche die Aufrufe auf eine zwischengespeicherte Anweisung an die physische Anweisung weiterleitet.
+     */
+    private class StatementHandler implements InvocationHandler {
+
+        private final PooledConnection connection;
+        private final PreparedStatement statement;
+        private ResultSet result;
+
+        public StatementHandler(@NotNull final PooledConnection connection, @NotNull final PreparedStatement statement) {
+            this.connection = connection;
+            this.statement = statement;
+            this.result = null;
+        }
+
+        @Override
+        public @Nullable Object invoke(@NotNull final Object proxy, @NotNull final Method method,
+                                       @Nullable final Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    // Die Anweisung bleibt für die nächste Verwendung vorbereitet.
+                    if (this.result != null) {
+                        closeQuietly(this.result);
+                        this.result = null;
+                    }
+
+                    this.statement.clearParameters();
+                    this.statement.clearBatch();
+                    return null;
+
+                case "isClosed":
+                    return this.statement.isClosed();
+
+                case "equals":
+                    return proxy == Objects.requireNonNull(args)[0];
+
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+
+                case "toString":
+                    return "Cached" + this.statement;
+
+                default:
+                    break;
+            }
+
+            final Object value = invokeOn(this.connection, this.statement, method, args);
+
+            if (value instanceof ResultSet) {
+                this.result = (ResultSet) value;
+            }
+
+            return value;
+        }
+    }
+
+    /**
+     * Ruft eine Methode auf dem physischen Objekt auf. Deutet eine dabei auftretende Ausnahme auf eine unterbrochene
+     * Verbindung hin, wird die Verbindung bei ihrer Rückgabe verworfen.
+     * @param connection Verbindung, zu der das Objekt gehört.
+     * @param target Physisches Objekt.
+     * @param method Aufzurufende Methode.
+     * @param args Argumente der Methode.
+     * @return Rückgabewert der Methode.
+     * @throws Throwable die von der Methode geworfene Ausnahme.
+     */
+    private static @Nullable Object invokeOn(@NotNull final PooledConnection connection, @NotNull final Object target,
+                                             @NotNull final Method method, @Nullable final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            final Throwable cause = ex.getCause();
+
+            // SQL-Status der Klasse 08 kennzeichnet Fehler der Verbindung.
+            if (cause instanceof SQLException && ((SQLException) cause).getSQLState() != null
+                    && ((SQLException) cause).getSQLState().startsWith("08")) {
+                connection.broken = true;
+            }
+
+            throw cause;
+        }
+    }
+
+    private static void closeQuietly(@NotNull final AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception ex) {
+            LOGGER.log(Level.FINE, "Failed to close database resource", ex);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import model.context.spatial.Area;
 import model.context.spatial.AreaReservation;
 import model.context.spatial.ContextMap;
 import model.context.spatial.World;
+import model.database.PersistenceQueue.Mutation;
 import model.exception.ContextNotFoundException;
 import model.exception.EncryptionException;
 import model.exception.UserNotFoundException;
@@ -24,7 +25,6 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -45,9 +45,17 @@ public class Database implements IUserAccountManagerDatabase, IUserDatabase, ICo
 
     private static final Logger LOGGER = Logger.getLogger("chati.database");
     private static final String dbURL = "jdbc:derby:ChatiDB;create=true";
+    private static final int POOL_SIZE = 8;
+    private static final int QUEUE_CAPACITY = 10000;
+    private static final int BATCH_SIZE = 256;
+    private static final long FLUSH_TIMEOUT = 10000;
     private static Database database;
 
+    private final ConnectionPool pool;
+    private volatile PersistenceQueue queue;
+
     private Database() {
+        this.pool = new ConnectionPool(dbURL, POOL_SIZE);
         initialize();
     }
 
@@ -275,42 +283,31 @@ public class Database implements IUserAccountManagerDatabase, IUserDatabase, ICo
 
     @Override
     public void changeAvatar(@NotNull final User user, @NotNull final Avatar avatar) {
-        try {
-            Connection con = this.getConnection();
-            PreparedStatement ps = con.prepareStatement(SQL_UPDATE_AVATAR);
-
+        this.write(new Mutation(SQL_UPDATE_AVATAR, user.getUserId(), "update avatar for user " + user.getUsername(), ps -> {
             ps.setString(1, avatar.name());
             ps.setString(2, user.getUserId().toString());
-            ps.executeUpdate();
-            ps.close();
-            con.close();
-        } catch (SQLException ex) {
-            LOGGER.log(Level.WARNING, "Failed to update avatar for user " + user.getUsername(), ex);
-        }
+        }));
     }
 
     private static final String SQL_UPDATE_ONLINE_TIME = "UPDATE USER_ACCOUNT SET LAST_ONLINE_TIME = ? WHERE USER_ID = ?";
 
     @Override
     public void updateLastOnlineTime(@NotNull final User user) {
-        try {
-            Connection con = this.getConnection();
-            PreparedStatement ps = con.prepareStatement(SQL_UPDATE_ONLINE_TIME);
+        final Timestamp lastLogout = Timestamp.valueOf(user.getLastLogout());
 
-            ps.setTimestamp(1, Timestamp.valueOf(user.getLastLogout()));
+        this.write(new Mutation(SQL_UPDATE_ONLINE_TIME, user.getUserId(), "update last online time for user " + user.getUsername(), ps -> {
+            ps.setTimestamp(1, lastLogout);
             ps.setString(2, user.getUserId().toString());
-            ps.executeUpdate();
-            ps.close();
-            con.close();
-        } catch (SQLException ex) {
-            LOGGER.log(Level.WARNING, "Failed to update last online time for user " + user.getUsername(), ex);
-        }
+        }));
     }
 
     private static final String SQL_DELETE_USER = "DELETE FROM USER_ACCOUNT WHERE USER_ID = ?";
 
     @Override
     public void deleteAccount(@NotNull final User user) {
+        // Noch ausstehende Änderungen des Benutzers dürfen nicht nach dem Löschen geschrieben werden.
+        this.flush();
+
         try {
             Connection con = this.getConnection();
             PreparedStatement ps = con.prepareStatement(SQL_DELETE_USER);
@@ -482,38 +479,22 @@ public class Database implements IUserAccountManagerDatabase, IUserDatabase, ICo
 
     @Override
     public void addFriendship(@NotNull final User first, @NotNull final User second) {
-        try {
-            Connection con = this.getConnection();
-            PreparedStatement ps = con.prepareStatement(SQL_INSERT_FRIENDSHIP);
-
+        this.write(new Mutation(SQL_INSERT_FRIENDSHIP, null, "insert friendship into the database", ps -> {
             ps.setString(1, first.getUserId().toString());
             ps.setString(2, second.getUserId().toString());
-            ps.executeUpdate();
-            ps.close();
-            con.close();
-        } catch (SQLException ex) {
-            LOGGER.log(Level.WARNING, "Failed to insert friendship into the database", ex);
-        }
+        }));
     }
 
     private static final String SQL_DELETE_FRIENDSHIP = "DELETE FROM FRIENDSHIP WHERE (USER_ID1 = ? AND USER_ID2 = ?) OR (USER_ID1 = ? AND USER_ID2 = ?)";
 
     @Override
     public void removeFriendship(@NotNull final User first, @NotNull final User second) {
-        try {
-            Connection con = this.getConnection();
-            PreparedStatement ps = con.prepareStatement(SQL_DELETE_FRIENDSHIP);
-
+        this.write(new Mutation(SQL_DELETE_FRIENDSHIP, null, "delete friendship from the database", ps -> {
             ps.setString(1, first.getUserId().toString());
             ps.setString(4, first.getUserId().toString());
             ps.setString(2, second.getUserId().toString());
             ps.setString(3, second.getUserId().toString());
-            ps.executeUpdate();
-            ps.close();
-            con.close();
-        } catch (SQLException ex) {
-            LOGGER.log(Level.WARNING, "Failed to delete friendship from the database", ex);
-        }
+        }));
     }
 
     private static final String SQL_QUERY_IGNORE = "SELECT IGNORED_ID FROM IGNORE WHERE USER_ID = ?";
@@ -765,100 +746,87 @@ public class Database implements IUserAccountManagerDatabase, IUserDatabase, ICo
 
     @Override
     public void addNotification(@NotNull final User user, @NotNull final Notification notification) {
-        try {
-            final Connection con = this.getConnection();
-            final PreparedStatement ps = con.prepareStatement(SQL_INSERT_NOTIFICATION);
+        final String[] arguments = new String[4];
+
+        switch (notification.getNotificationType()) {
+            case AREA_MANAGING_REQUEST:
+                final AreaManagingRequest areaRequest = (AreaManagingRequest) notification;
+                arguments[0] = areaRequest.getRequestingUser().getUserId().toString();
+                arguments[1] = areaRequest.getRequestedArea().getContextId().getId();
+                arguments[2] = areaRequest.getFrom().toString();
+                arguments[3] = areaRequest.getTo().toString();
+                break;
+
+            case FRIEND_REQUEST:
+                final FriendRequest friendRequest = (FriendRequest) notification;
+                arguments[0] = friendRequest.getRequestingUser().getUserId().toString();
+                arguments[1] = friendRequest.getUserMessage();
+                break;
+
+            case INFORMATION:
+                final MessageBundle bundle = notification.getMessageBundle();
+                arguments[0] = bundle.getMessageKey();
+
+                for (int index = 0; index < 3; index++) {
+                    if (bundle.getArguments().length > index) {
+                        arguments[1 + index] = bundle.getArguments()[index].toString();
+                    }
+                }
+                break;
 
-            ps.setString(1, notification.getNotificationId().toString());
-            ps.setString(2, notification.getNotificationType().name());
-            ps.setString(3, notification.getContext().getContextId().getId());
+            default:
+                return;
+        }
+
+        final String notificationId = notification.getNotificationId().toString();
+        final String type = notification.getNotificationType().name();
+        final String contextId = notification.getContext().getContextId().getId();
+        final Timestamp timestamp = Timestamp.valueOf(notification.getTimestamp());
+        final boolean read = notification.isRead();
+        final boolean accepted = notification.isAccepted();
+        final boolean declined = notification.isDeclined();
+
+        this.write(new Mutation(SQL_INSERT_NOTIFICATION, null, "insert notification for " + user.getUsername() + " into the database", ps -> {
+            ps.setString(1, notificationId);
+            ps.setString(2, type);
+            ps.setString(3, contextId);
             ps.setString(4, user.getUserId().toString());
-            ps.setTimestamp(5, Timestamp.valueOf(notification.getTimestamp()));
-            ps.setBoolean(6, notification.isRead());
-            ps.setBoolean(7, notification.isAccepted());
-            ps.setBoolean(8, notification.isDeclined());
-
-            switch (notification.getNotificationType()) {
-                case AREA_MANAGING_REQUEST:
-                    final AreaManagingRequest areaRequest = (AreaManagingRequest) notification;
-                    ps.setString(9, areaRequest.getRequestingUser().getUserId().toString());
-                    ps.setString(10, areaRequest.getRequestedArea().getContextId().getId());
-                    ps.setString(11, areaRequest.getFrom().toString());
-                    ps.setString(12, areaRequest.getTo().toString());
-                    break;
-
-                case FRIEND_REQUEST:
-                    final FriendRequest friendRequest = (FriendRequest) notification;
-                    ps.setString(9, friendRequest.getRequestingUser().getUserId().toString());
-                    ps.setString(10, friendRequest.getUserMessage());
-                    ps.setString(11, null);
-                    ps.setString(12, null);
-                    break;
-
-                case INFORMATION:
-                    final MessageBundle bundle = notification.getMessageBundle();
-                    ps.setString(9, bundle.getMessageKey());
-
-                    for (int index = 0; index < 3; index++) {
-                        if (bundle.getArguments().length > index) {
-                            ps.setString(10 + index, bundle.getArguments()[index].toString());
-                        } else {
-                            ps.setString(10 + index, null);
-                        }
-                    }
-                    break;
+            ps.setTimestamp(5, timestamp);
+            ps.setBoolean(6, read);
+            ps.setBoolean(7, accepted);
+            ps.setBoolean(8, declined);
 
-                default:
-                    ps.close();
-                    con.close();
-                    return;
+            for (int index = 0; index < arguments.length; index++) {
+                ps.setString(9 + index, arguments[index]);
             }
-
-            ps.executeUpdate();
-            ps.close();
-            con.close();
-        } catch (SQLException ex) {
-            LOGGER.log(Level.WARNING, "Failed to insert notification for " + user.getUsername() + " into the database", ex);
-        }
+        }));
     }
 
     private static final String SQL_UPDATE_NOTIFICATION = "UPDATE NOTIFICATION SET IS_READ = ?, IS_ACCEPTED = ?, IS_DECLINED = ? WHERE USER_ID = ? AND NOTIFICATION_ID = ?";
 
     @Override
     public void updateNotification(@NotNull final User user, @NotNull final Notification notification) {
-        try {
-            final Connection con = this.getConnection();
-            final PreparedStatement ps = con.prepareStatement(SQL_UPDATE_NOTIFICATION);
-
-            ps.setBoolean(1, notification.isRead());
-            ps.setBoolean(2, notification.isAccepted());
-            ps.setBoolean(3, notification.isDeclined());
+        final boolean read = notification.isRead();
+        final boolean accepted = notification.isAccepted();
+        final boolean declined = notification.isDeclined();
+
+        this.write(new Mutation(SQL_UPDATE_NOTIFICATION, notification.getNotificationId(), "update notification of " + user.getUsername(), ps -> {
+            ps.setBoolean(1, read);
+            ps.setBoolean(2, accepted);
+            ps.setBoolean(3, declined);
             ps.setString(4, user.getUserId().toString());
             ps.setString(5, notification.getNotificationId().toString());
-            ps.executeUpdate();
-            ps.close();
-            con.close();
-        } catch (SQLException ex) {
-            LOGGER.log(Level.WARNING, "Failed to update notification of " + user.getUsername(), ex);
-        }
+        }));
     }
 
     private static final String SQL_DELETE_NOTIFICATION = "DELETE FROM NOTIFICATION WHERE USER_ID = ? AND NOTIFICATION_ID = ?";
 
     @Override
     public void removeNotification(@NotNull final User user, @NotNull final Notification notification) {
-        try {
-            final Connection con = this.getConnection();
-            final PreparedStatement ps = con.prepareStatement(SQL_DELETE_NOTIFICATION);
-
+        this.write(new Mutation(SQL_DELETE_NOTIFICATION, null, "delete notification of " + user.getUsername() + " from the database", ps -> {
             ps.setString(1, user.getUserId().toString());
             ps.setString(2, notification.getNotificationId().toString());
-            ps.executeUpdate();
-            ps.close();
-            con.close();
-        } catch (SQLException ex) {
-            LOGGER.log(Level.WARNING, "Failed to delete notification of " + user.getUsername() + " from the database", ex);
-        }
+        }));
     }
 
     private static final String SQL_QUERY_BAN = "SELECT USER_ID FROM BAN WHERE WORLD_ID = ?";
@@ -897,36 +865,20 @@ public class Database implements IUserAccountManagerDatabase, IUserDatabase, ICo
 
     @Override
     public void addBannedUser(@NotNull final User user, @NotNull final Context world) {
-        try {
-            Connection con = this.getConnection();
-            PreparedStatement ps = con.prepareStatement(SQL_INSERT_BAN);
-            
+        this.write(new Mutation(SQL_INSERT_BAN, null, "insert banned user into the database", ps -> {
             ps.setString(1, user.getUserId().toString());
             ps.setString(2, world.getContextId().getId());
-            ps.executeUpdate();
-            ps.close();
-            con.close();
-        } catch (SQLException ex) {
-            LOGGER.log(Level.WARNING, "Failed to insert banned user into the database", ex);
-        }
+        }));
     }
 
     private static final String SQL_DELETE_BAN = "DELETE FROM BAN WHERE USER_ID = ? AND WORLD_ID = ?";
 
     @Override
     public void removeBannedUser(@NotNull final User user, @NotNull final Context world) {
-        try {
-            Connection con = this.getConnection();
-            PreparedStatement ps = con.prepareStatement(SQL_DELETE_BAN);
-
+        this.write(new Mutation(SQL_DELETE_BAN, null, "delete banned user from the database", ps -> {
             ps.setString(1, user.getUserId().toString());
             ps.setString(2, world.getContextId().getId());
-            ps.executeUpdate();
-            ps.close();
-            con.close();
-        } catch (SQLException ex) {
-            LOGGER.log(Level.WARNING, "Failed to delete banned user from the database", ex);
-        }
+        }));
     }
 
     private static final String SQL_QUERY_RESERVATION = "SELECT USER_ID, CONTEXT_ID, START_TIME, END_TIME FROM USER_RESERVATION WHERE WORLD_ID = ?";
@@ -1010,12 +962,50 @@ public class Database implements IUserAccountManagerDatabase, IUserDatabase, ICo
     }
 
     public @NotNull Connection getConnection() throws SQLException {
+        return this.pool.getConnection();
+    }
+
+    public @NotNull ConnectionPool getConnectionPool() {
+        return this.pool;
+    }
+
+    public @Nullable PersistenceQueue getPersistenceQueue() {
+        return this.queue;
+    }
+
+    /**
+     * Schreibt eine Änderung in die Datenbank. Ist die Warteschlange für Änderungen gestartet, so wird die Änderung
+     * eingereiht, ansonsten wird sie direkt geschrieben.
+     * @param mutation Zu schreibende Änderung.
+     */
+    private void write(@NotNull final Mutation mutation) {
+        final PersistenceQueue queue = this.queue;
+
+        if (queue != null && queue.submit(mutation)) {
+            return;
+        }
+
         try {
-            Class.forName("org.apache.derby.jdbc.EmbeddedDriver");
+            Connection con = this.getConnection();
+            PreparedStatement ps = con.prepareStatement(mutation.getSql());
 
-            return DriverManager.getConnection(dbURL);
-        } catch (ClassNotFoundException ex) {
-            throw new SQLException("Failed to find apache derby driver", ex);
+            mutation.bind(ps);
+            ps.executeUpdate();
+            ps.close();
+            con.close();
+        } catch (SQLException ex) {
+            LOGGER.log(Level.WARNING, "Failed to " + mutation.getDescription(), ex);
+        }
+    }
+
+    /**
+     * Wartet, bis alle eingereihten Änderungen in die Datenbank geschrieben wurden.
+     */
+    private void flush() {
+        final PersistenceQueue queue = this.queue;
+
+        if (queue != null && !queue.flush(FLUSH_TIMEOUT)) {
+            LOGGER.warning("Timed out while waiting for pending database mutations");
         }
     }
 
@@ -1120,4 +1110,34 @@ public class Database implements IUserAccountManagerDatabase, IUserDatabase, ICo
     public static @NotNull IContextDatabase getContextDatabase() {
         return getInstance();
     }
+
+    /**
+     * Startet die Warteschlange für Änderungen. Damit beim Beenden der Anwendung keine eingereihten Änderungen verloren
+     * gehen, wird die Warteschlange auch beim Herunterfahren der virtuellen Maschine geleert.
+     */
+    public static synchronized void startPersistenceQueue() {
+        final Database instance = getInstance();
+
+        if (instance.queue == null) {
+            instance.queue = new PersistenceQueue(instance.pool, QUEUE_CAPACITY, BATCH_SIZE);
+            instance.queue.start();
+
+            Runtime.getRuntime().addShutdownHook(new Thread(Database::shutdown, "Database-Shutdown"));
+        }
+    }
+
+    /**
+     * Schreibt alle eingereihten Änderungen in die Datenbank und schließt anschließend die Verbindungen.
+     */
+    public static synchronized void shutdown() {
+        if (database != null) {
+            if (database.queue != null) {
+                database.flush();
+                database.queue.close();
+                database.queue = null;
+            }
+
+            database.pool.close();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,553 @@
+package model.database;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Eine Klasse, welche Änderungen an der Datenbank in einer beschränkten Warteschlange sammelt und diese in einem eigenen
+ * Thread gebündelt in die Datenbank schreibt.
+ * <p>
+ *     Die Änderungen werden in der Reihenfolge ihres Eingangs geschrieben. Aufeinanderfolgende Änderungen mit der
+ *     gleichen SQL-Anweisung werden als Batch innerhalb einer Transaktion ausgeführt. Besitzt eine Änderung einen
+ *     Schlüssel, so ersetzt sie eine noch nicht geschriebene Änderung mit dem gleichen Schlüssel, anstatt erneut in die
+ *     Warteschlange eingereiht zu werden.
+ * </p>
+ * <p>
+ *     Ist die Warteschlange voll, so wartet der übergebende Thread nur begrenzt auf freien Platz und schreibt die Änderung
+ *     danach selbst in die Datenbank. Eine so geschriebene Änderung kann dabei noch wartende Änderungen überholen.
+ * </p>
+ */
+public class PersistenceQueue implements Runnable {
+
+    private static final Logger LOGGER = Logger.getLogger("chati.database");
+
+    /** Standardmäßige maximale Wartezeit auf freien Platz in der Warteschlange in Millisekunden. */
+    private static final long SUBMIT_TIMEOUT = 500;
+
+    private final ConnectionPool pool;
+    private final int capacity;
+    private final int batchSize;
+    private final long submitTimeout;
+
+    private final ReentrantLock lock;
+    private final Condition notEmpty;
+    private final Condition notFull;
+    private final Condition drained;
+    private final Deque<Mutation> queue;
+    private final Map<String, Mutation> pending;
+
+    private final AtomicLong submittedMutations;
+    private final AtomicLong coalescedMutations;
+    private final AtomicLong overflowMutations;
+    private final AtomicLong committedMutations;
+    private final AtomicLong failedMutations;
+    private final AtomicLong committedBatches;
+    private final AtomicLong commitTime;
+    private final AtomicLong maxCommitTime;
+
+    private Thread thread;
+    private boolean writing;
+    private boolean closed;
+
+    /**
+     * Erzeugt eine neue Instanz der PersistenceQueue.
+     * @param pool Pool, aus dem die Verbindungen zur Datenbank bezogen werden.
+     * @param capacity Maximale Anzahl an Änderungen in der Warteschlange.
+     * @param batchSize Maximale Anzahl an Änderungen, die in einer Transaktion geschrieben werden.
+     */
+    public PersistenceQueue(@NotNull final ConnectionPool pool, final int capacity, final int batchSize) {
+        this(pool, capacity, batchSize, SUBMIT_TIMEOUT);
+    }
+
+    /**
+     * Erzeugt eine neue Instanz der PersistenceQueue.
+     * @param pool Pool, aus dem die Verbindungen zur Datenbank bezogen werden.
+     * @param capacity Maximale Anzahl an Änderungen in der Warteschlange.
+     * @param batchSize Maximale Anzahl an Änderungen, die in einer Transaktion geschrieben werden.
+     * @param submitTimeout Maximale Wartezeit auf freien Platz in der Warteschlange in Millisekunden.
+     */
+    public PersistenceQueue(@NotNull final ConnectionPool pool, final int capacity, final int batchSize,
+                            final long submitTimeout) {
+        if (capacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Capacity and batch size must be positive");
+        }
+
+        this.pool = pool;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.submitTimeout = submitTimeout;
+        this.lock = new ReentrantLock();
+        this.notEmpty = this.lock.newCondition();
+        this.notFull = this.lock.newCondition();
+        this.drained = this.lock.newCondition();
+        this.queue = new ArrayDeque<>();
+        this.pending = new HashMap<>();
+        this.submittedMutations = new AtomicLong();
+        this.coalescedMutations = new AtomicLong();
+        this.overflowMutations = new AtomicLong();
+        this.committedMutations = new AtomicLong();
+        this.failedMutations = new AtomicLong();
+        this.committedBatches = new AtomicLong();
+        this.commitTime = new AtomicLong();
+        this.maxCommitTime = new AtomicLong();
+        this.writing = false;
+        this.closed = false;
+    }
+
+    /**
+     * Startet den Thread, der die Änderungen in die Datenbank schreibt.
+     */
+    public void start() {
+        this.lock.lock();
+
+        try {
+            if (this.thread == null && !this.closed) {
+                this.thread = new Thread(this, "Database-Writer");
+                this.thread.setDaemon(true);
+                this.thread.start();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Reiht eine Änderung in die Warteschlange ein. Ist die Warteschlange voll, so wird begrenzt gewartet, bis wieder
+     * Platz verfügbar ist. Wird innerhalb der Wartezeit kein Platz frei oder wird der Thread unterbrochen, so wird die
+     * Änderung im aufrufenden Thread in die Datenbank geschrieben.
+     * @param mutation Einzureihende Änderung.
+     * @return true, wenn die Änderung eingereiht oder geschrieben wurde, false, wenn die Warteschlange bereits
+     * geschlossen wurde.
+     */
+    public boolean submit(@NotNull final Mutation mutation) {
+        this.lock.lock();
+
+        try {
+            if (this.closed) {
+                return false;
+            }
+
+            this.submittedMutations.incrementAndGet();
+
+            if (mutation.key != null) {
+                final Mutation previous = this.pending.get(mutation.key);
+
+                if (previous != null) {
+                    previous.binder = mutation.binder;
+                    previous.description = mutation.description;
+                    this.coalescedMutations.incrementAndGet();
+                    return true;
+                }
+            }
+
+            long remaining = TimeUnit.MILLISECONDS.toNanos(this.submitTimeout);
+
+            while (this.queue.size() >= this.capacity && !this.closed && remaining > 0) {
+                remaining = this.notFull.awaitNanos(remaining);
+            }
+
+            if (this.closed) {
+                return false;
+            }
+
+            if (this.queue.size() < this.capacity) {
+                if (mutation.key != null) {
+                    this.pending.put(mutation.key, mutation);
+                }
+
+                this.queue.addLast(mutation);
+                this.notEmpty.signal();
+                return true;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            this.lock.unlock();
+        }
+
+        // Die Warteschlange ist weiterhin voll, daher wird die Änderung direkt geschrieben.
+        this.overflowMutations.incrementAndGet();
+        LOGGER.warning("Persistence queue is full, writing mutation synchronously: " + mutation.description);
+        this.commit(Collections.singletonList(mutation));
+        return true;
+    }
+
+    /**
+     * Wartet, bis alle bisher eingereihten Änderungen in die Datenbank geschrieben wurden.
+     * @param timeout Maximale Wartezeit in Millisekunden.
+     * @return true, wenn alle Änderungen geschrieben wurden, sonst false.
+     */
+    public boolean flush(final long timeout) {
+        this.lock.lock();
+
+        try {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(timeout);
+
+            while ((!this.queue.isEmpty() || this.writing) && this.thread != null && this.thread.isAlive()) {
+                if (remaining <= 0) {
+                    return false;
+                }
+
+                remaining = this.drained.awaitNanos(remaining);
+            }
+
+            return this.queue.isEmpty() && !this.writing;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Schließt die Warteschlange. Alle bereits eingereihten Änderungen werden noch in die Datenbank geschrieben, bevor
+     * diese Methode zurückkehrt.
+     */
+    public void close() {
+        final Thread writer;
+
+        this.lock.lock();
+
+        try {
+            this.closed = true;
+            this.notEmpty.signalAll();
+            this.notFull.signalAll();
+            writer = this.thread;
+        } finally {
+            this.lock.unlock();
+        }
+
+        if (writer != null) {
+            try {
+                writer.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // Wurde der Thread nie gestartet, werden die verbliebenen Änderungen im aufrufenden Thread geschrieben.
+        List<Mutation> batch;
+
+        while (!(batch = this.poll()).isEmpty()) {
+            this.commit(batch);
+        }
+
+        LOGGER.info("Closed persistence queue: " + this);
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            final List<Mutation> batch;
+
+            this.lock.lock();
+
+            try {
+                while (this.queue.isEmpty() && !this.closed) {
+                    this.notEmpty.awaitUninterruptibly();
+                }
+
+                if (this.queue.isEmpty()) {
+                    this.drained.signalAll();
+                    return;
+                }
+
+                batch = this.poll();
+                this.writing = true;
+            } finally {
+                this.lock.unlock();
+            }
+
+            try {
+                this.commit(batch);
+            } catch (RuntimeException ex) {
+                this.failedMutations.addAndGet(batch.size());
+                LOGGER.log(Level.SEVERE, "Unexpected exception while writing to the database", ex);
+            } finally {
+                this.lock.lock();
+
+                try {
+                    this.writing = false;
+
+                    if (this.queue.isEmpty()) {
+                        this.drained.signalAll();
+                    }
+                } finally {
+                    this.lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Gibt die Anzahl der Änderungen zurück, die sich gerade in der Warteschlange befinden.
+     * @return Anzahl der wartenden Änderungen.
+     */
+    public int getQueueDepth() {
+        this.lock.lock();
+
+        try {
+            return this.queue.size();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Gibt die Anzahl der bisher übergebenen Änderungen zurück.
+     * @return Anzahl der übergebenen Änderungen.
+     */
+    public long getSubmittedMutations() {
+        return this.submittedMutations.get();
+    }
+
+    /**
+     * Gibt die Anzahl der Änderungen zurück, die mit einer wartenden Änderung zusammengefasst wurden.
+     * @return Anzahl der zusammengefassten Änderungen.
+     */
+    public long getCoalescedMutations() {
+        return this.coalescedMutations.get();
+    }
+
+    /**
+     * Gibt die Anzahl der Änderungen zurück, die aufgrund einer vollen Warteschlange direkt geschrieben wurden.
+     * @return Anzahl der direkt geschriebenen Änderungen.
+     */
+    public long getOverflowMutations() {
+        return this.overflowMutations.get();
+    }
+
+    /**
+     * Gibt die Anzahl der erfolgreich geschriebenen Änderungen zurück.
+     * @return Anzahl der geschriebenen Änderungen.
+     */
+    public long getCommittedMutations() {
+        return this.committedMutations.get();
+    }
+
+    /**
+     * Gibt die Anzahl der Änderungen zurück, die nicht geschrieben werden konnten.
+     * @return Anzahl der fehlgeschlagenen Änderungen.
+     */
+    public long getFailedMutations() {
+        return this.failedMutations.get();
+    }
+
+    /**
+     * Gibt die Anzahl der bisher ausgeführten Transaktionen zurück.
+     * @return Anzahl der Transaktionen.
+     */
+    public long getCommittedBatches() {
+        return this.committedBatches.get();
+    }
+
+    /**
+     * Gibt die durchschnittliche Dauer einer Transaktion in Millisekunden zurück.
+     * @return durchschnittliche Dauer einer Transaktion.
+     */
+    public double getAverageCommitLatency() {
+        final long batches = this.committedBatches.get();
+
+        return batches > 0 ? this.commitTime.get() / 1e6 / batches : 0;
+    }
+
+    /**
+     * Gibt die längste Dauer einer Transaktion in Millisekunden zurück.
+     * @return längste Dauer einer Transaktion.
+     */
+    public double getMaxCommitLatency() {
+        return this.maxCommitTime.get() / 1e6;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return this.getClass().getSimpleName() + "{depth=" + this.getQueueDepth()
+                + ", submitted=" + this.getSubmittedMutations() + ", coalesced=" + this.getCoalescedMutations()
+                + ", overflow=" + this.getOverflowMutations()
+                + ", committed=" + this.getCommittedMutations() + ", failed=" + this.getFailedMutations()
+                + ", batches=" + this.getCommittedBatches()
+                + ", averageCommit=" + String.format("%.2f", this.getAverageCommitLatency()) + "ms"
+                + ", maxCommit=" + String.format("%.2f", this.getMaxCommitLatency()) + "ms}";
+    }
+
+    /**
+     * Entnimmt die nächsten Änderungen aus der Warteschlange.
+     * @return Liste der entnommenen Änderungen.
+     */
+    private @NotNull List<Mutation> poll() {
+        final List<Mutation> batch = new ArrayList<>();
+
+        this.lock.lock();
+
+        try {
+            while (!this.queue.isEmpty() && batch.size() < this.batchSize) {
+                final Mutation mutation = this.queue.pollFirst();
+
+                if (mutation.key != null) {
+                    this.pending.remove(mutation.key);
+                }
+
+                batch.add(mutation);
+            }
+
+            this.notFull.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+
+        return batch;
+    }
+
+    /**
+     * Schreibt die übergebenen Änderungen innerhalb einer Transaktion in die Datenbank. Schlägt die Transaktion fehl,
+     * so werden die Änderungen einzeln geschrieben, damit eine fehlerhafte Änderung nicht die übrigen verwirft.
+     * @param batch Zu schreibende Änderungen.
+     */
+    private void commit(@NotNull final List<Mutation> batch) {
+        final long start = System.nanoTime();
+
+        try {
+            final Connection con = this.pool.getConnection();
+
+            try {
+                con.setAutoCommit(false);
+
+                try {
+                    int index = 0;
+
+                    while (index < batch.size()) {
+                        final String sql = batch.get(index).sql;
+                        final PreparedStatement ps = con.prepareStatement(sql);
+
+                        while (index < batch.size() && batch.get(index).sql.equals(sql)) {
+                            batch.get(index).binder.bind(ps);
+                            ps.addBatch();
+                            index++;
+                        }
+
+                        ps.executeBatch();
+                        ps.close();
+                    }
+
+                    con.commit();
+                    this.committedMutations.addAndGet(batch.size());
+                } catch (SQLException ex) {
+                    con.rollback();
+                    LOGGER.log(Level.FINE, "Failed to write batch, retrying mutations separately", ex);
+
+                    for (final Mutation mutation : batch) {
+                        try {
+                            final PreparedStatement ps = con.prepareStatement(mutation.sql);
+
+                            mutation.binder.bind(ps);
+                            ps.executeUpdate();
+                            ps.close();
+                            con.commit();
+                            this.committedMutations.incrementAndGet();
+                        } catch (SQLException mutationEx) {
+                            con.rollback();
+                            this.failedMutations.incrementAndGet();
+                            LOGGER.log(Level.WARNING, "Failed to " + mutation.description, mutationEx);
+                        }
+                    }
+                }
+
+                con.setAutoCommit(true);
+            } finally {
+                con.close();
+            }
+        } catch (SQLException ex) {
+            this.failedMutations.addAndGet(batch.size());
+            LOGGER.log(Level.WARNING, "Failed to write " + batch.size() + " mutations into the database", ex);
+        }
+
+        final long duration = System.nanoTime() - start;
+
+        this.committedBatches.incrementAndGet();
+        this.commitTime.addAndGet(duration);
+        this.maxCommitTime.accumulateAndGet(duration, Math::max);
+    }
+
+    /**
+     * Eine Klasse, die eine einzelne Änderung an der Datenbank repräsentiert.
+     */
+    public static class Mutation {
+
+        private final String sql;
+        private final String key;
+        private StatementBinder binder;
+        private String description;
+
+        /**
+         * Erzeugt eine neue Änderung.
+         * @param sql SQL-Anweisung der Änderung.
+         * @param key Schlüssel, über den die Änderung mit wartenden Änderungen zusammengefasst wird, oder null, falls
+         * die Änderung nicht zusammengefasst werden darf.
+         * @param description Beschreibung der Änderung für Fehlermeldungen.
+         * @param binder Funktion, welche die Parameter der SQL-Anweisung setzt.
+         */
+        public Mutation(@NotNull final String sql, @Nullable final Object key, @NotNull final String description,
+                        @NotNull final StatementBinder binder) {
+            this.sql = sql;
+            this.key = key != null ? sql + '#' + key : null;
+            this.description = description;
+            this.binder = binder;
+        }
+
+        /**
+         * Gibt die SQL-Anweisung der Änderung zurück.
+         * @return SQL-Anweisung.
+         */
+        public @NotNull String getSql() {
+            return this.sql;
+        }
+
+        /**
+         * Gibt die Beschreibung der Änderung zurück.
+         * @return Beschreibung der Änderung.
+         */
+        public @NotNull String getDescription() {
+            return this.description;
+        }
+
+        /**
+         * Setzt die Parameter der Änderung in einer vorbereiteten Anweisung.
+         * @param statement Vorbereitete Anweisung.
+         * @throws SQLException falls die Parameter nicht gesetzt werden konnten.
+         */
+        public void bind(@NotNull final PreparedStatement statement) throws SQLException {
+            this.binder.bind(statement);
+        }
+    }
+
+    /**
+     * Eine Schnittstelle für Funktionen, welche die Parameter einer vorbereiteten Anweisung setzen.
+     */
+    @FunctionalInterface
+    public interface StatementBinder {
+
+        /**
+         * Setzt die Parameter einer vorbereiteten Anweisung.
+         * @param statement Vorbereitete Anweisung.
+         * @throws SQLException falls die Parameter nicht gesetzt werden konnten.
+         */
+        void bind(@NotNull final PreparedStatement statement) throws SQLException;
+    }
+}
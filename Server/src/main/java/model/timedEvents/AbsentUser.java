@@ -1,8 +1,10 @@
 package model.timedEvents;
 
+import model.context.spatial.World;
 import model.user.Status;
 import model.user.User;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import java.time.temporal.ChronoUnit;
 
 /**
@@ -32,4 +34,9 @@ public class AbsentUser extends TimedEvent {
     public boolean isValid() {
         return user.isOnline() && !user.getLastActivity().plus(Status.AWAY_TIME, ChronoUnit.MINUTES).isAfter(time);
     }
-}
\ No newline at end of file
+
+    @Override
+    public @Nullable World getWorld() {
+        return user.getWorld();
+    }
+}
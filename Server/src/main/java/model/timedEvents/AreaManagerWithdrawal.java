@@ -3,6 +3,7 @@ package model.timedEvents;
 import model.MessageBundle;
 import model.context.spatial.Area;
 import model.context.spatial.AreaReservation;
+import model.context.spatial.World;
 import model.notification.Notification;
 import model.role.Role;
 import model.user.User;
@@ -49,4 +50,9 @@ public class AreaManagerWithdrawal extends TimedEvent {
         LocalDateTime to = reservation.getTo();
         return reservedContext.isReservedAtBy(reserver, from, to) && reserver.hasRole(reservedContext, Role.AREA_MANAGER);
     }
-}
\ No newline at end of file
+
+    @Override
+    public @NotNull World getWorld() {
+        return reservation.getArea().getWorld();
+    }
+}
@@ -1,6 +1,8 @@
 package model.timedEvents;
 
+import model.context.spatial.World;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import java.time.LocalDateTime;
 
 /**
@@ -30,6 +32,16 @@ public abstract class TimedEvent implements Comparable<TimedEvent> {
      */
     public abstract boolean isValid();
 
+    /**
+     * Gibt die Welt zurück, deren Zustand das Ereignis verändert. Das Ereignis wird innerhalb der Sperre dieser Welt
+     * ausgeführt.
+     * @return Welt des Ereignisses oder null, wenn das Ereignis Benutzer in beliebigen Welten betreffen kann und daher
+     * exklusiv ausgeführt werden muss.
+     */
+    public @Nullable World getWorld() {
+        return null;
+    }
+
     /**
      * Gibt den Zeitpunkt zurück, an dem das Ereignis ausgeführt werden soll.
      * @return Zeitpunkt, an dem das Ereigniss ausgeführt werden soll.
@@ -1,98 +1,314 @@
 package model.timedEvents;
 
+import controller.network.WorldLocks;
 import org.jetbrains.annotations.NotNull;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.concurrent.PriorityBlockingQueue;
-import java.util.function.Predicate;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Eine Klasse die benutzt wird, um Ereignisse auszuführen, die in der Zukunft stattfinden sollen.
+ * <p>
+ *     Die Ereignisse werden in einem Zeitrad verwaltet. Das Rad besteht aus einer festen Anzahl an Fächern, von denen
+ *     in jedem Takt das nächste abgearbeitet wird. Ein Ereignis wird in das Fach seines Ausführungszeitpunkts
+ *     eingefügt und merkt sich, wie viele vollständige Umdrehungen des Rads bis zu seiner Ausführung vergehen. Das
+ *     Einfügen und Abbrechen eines Ereignisses benötigt dadurch konstante Zeit, und ein früher fälliges Ereignis wird
+ *     spätestens nach einem Takt ausgeführt, unabhängig von den bereits wartenden Ereignissen.
+ * </p>
+ * <p>
+ *     Fällige Ereignisse werden auf einem eigenen Pool von Threads ausgeführt, sodass ein langsames Ereignis die
+ *     Ausführung der übrigen Ereignisse nicht verzögert. Ein Ereignis wird innerhalb der Sperre seiner Welt ausgeführt.
+ *     Ereignisse ohne Welt, die Benutzer in beliebigen Welten betreffen können, werden exklusiv ausgeführt.
+ * </p>
  */
 public class TimedEventScheduler implements Runnable {
 
+    private static final Logger LOGGER = Logger.getLogger("chati.timed-events");
+
+    /** Dauer eines Takts des Zeitrads. */
+    private static final long TICK_DURATION = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /** Anzahl der Fächer des Zeitrads. */
+    private static final int WHEEL_SIZE = 512;
+
+    /** Anzahl der Threads, welche die fälligen Ereignisse ausführen. */
+    private static final int EXECUTOR_THREADS = 2;
+
+    /** Maximale Anzahl an neuen Ereignissen, die in einem Takt in das Zeitrad eingefügt werden. */
+    private static final int TRANSFER_LIMIT = 100000;
+
     /** Singleton-Instanz der Klasse. */
     private static TimedEventScheduler scheduler;
 
-    /** Queue der auszuführenden Ereignisse. */
-    private final PriorityBlockingQueue<TimedEvent> timedEvents;
+    /** Die Fächer des Zeitrads. */
+    private final Bucket[] wheel;
+
+    /** Dauer eines Takts in Nanosekunden. */
+    private final long tickDuration;
+
+    /** Zeitpunkt, ab dem die Takte des Zeitrads gezählt werden. */
+    private final long startTime;
+
+    /** Neue Ereignisse, die noch in das Zeitrad eingefügt werden müssen. */
+    private final Queue<Handle> added;
+
+    /** Abgebrochene Ereignisse, die noch aus dem Zeitrad entfernt werden müssen. */
+    private final Queue<Handle> cancelled;
+
+    /** Threads, auf denen die fälligen Ereignisse ausgeführt werden. */
+    private final ExecutorService executor;
+
+    private final AtomicInteger pendingEvents;
+    private final AtomicLong executedEvents;
+    private final AtomicLong cancelledEvents;
+    private final AtomicLong lag;
+    private final AtomicLong maxLag;
+
+    /** Aktueller Takt des Zeitrads. */
+    private long tick;
 
     /** Information, ob der TimedEventScheduler gerade aktiv ist. */
-    private boolean isRunning;
+    private volatile boolean isRunning;
 
     /**
      * Erzeugt eine neue Instanz des TimedEventScheduler.
      */
     private TimedEventScheduler() {
-        this.timedEvents = new PriorityBlockingQueue<>();
+        this(TICK_DURATION, WHEEL_SIZE, EXECUTOR_THREADS);
+    }
+
+    /**
+     * Erzeugt eine neue Instanz des TimedEventScheduler.
+     * @param tickDuration Dauer eines Takts in Nanosekunden.
+     * @param wheelSize Anzahl der Fächer des Zeitrads. Muss eine Zweierpotenz sein.
+     * @param threads Anzahl der Threads, welche die fälligen Ereignisse ausführen.
+     */
+    TimedEventScheduler(final long tickDuration, final int wheelSize, final int threads) {
+        if (tickDuration <= 0 || wheelSize <= 0 || Integer.bitCount(wheelSize) != 1 || threads <= 0) {
+            throw new IllegalArgumentException("Invalid tick duration, wheel size or thread count");
+        }
+
+        final AtomicInteger counter = new AtomicInteger();
+
+        this.wheel = new Bucket[wheelSize];
+        this.tickDuration = tickDuration;
+        this.startTime = System.nanoTime();
+        this.added = new ConcurrentLinkedQueue<>();
+        this.cancelled = new ConcurrentLinkedQueue<>();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread thread = new Thread(runnable, "Timed-Event-" + counter.incrementAndGet());
+
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pendingEvents = new AtomicInteger();
+        this.executedEvents = new AtomicLong();
+        this.cancelledEvents = new AtomicLong();
+        this.lag = new AtomicLong();
+        this.maxLag = new AtomicLong();
+        this.tick = 0;
         this.isRunning = false;
+
+        for (int index = 0; index < wheelSize; index++) {
+            this.wheel[index] = new Bucket();
+        }
     }
 
     @Override
     public void run() {
         while (isRunning) {
-            synchronized (this) {
-                // Warte, solange es keine abzuarbeitenden Ereignisse gibt.
-                while (timedEvents.isEmpty()) {
-                    try {
-                        wait();
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
-                    }
-                }
-            }
-            LocalDateTime now = LocalDateTime.now();
-            TimedEvent first = timedEvents.peek();
-            // Sollte nicht eintreffen.
-            if (first == null) {
-                timedEvents.poll();
-                continue;
+            // Warte bis zum Beginn des nächsten Takts.
+            final long deadline = tickDuration * (tick + 1);
+            long sleep;
+
+            while (isRunning && (sleep = deadline - (System.nanoTime() - startTime)) > 0) {
+                LockSupport.parkNanos(this, sleep);
             }
-            // Prüfe, ob das erste Ereignis jetzt abzuarbeiten ist.
-            if (!now.isBefore(first.getTime())) {
-                // Prüfe, ob das Ereignis noch gültig ist.
-                if (first.isValid()) {
-                    first.execute();
-                }
-                timedEvents.poll();
-            } else {
-                // Wenn die Zeit nicht erreicht ist, warte bis die Zeit zum Abarbeiten des ersten Ereignisses
-                // eingetroffen ist.
-                try {
-                    Thread.sleep(now.until(first.getTime(), ChronoUnit.MILLIS));
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
+
+            try {
+                removeCancelled();
+                transferAdded();
+                wheel[(int) (tick & (wheel.length - 1))].expire(deadline);
+            } catch (RuntimeException ex) {
+                LOGGER.log(Level.SEVERE, "Unhandled exception in timed event scheduler", ex);
             }
-            // Entferne alle ungültigen Ereignisse.
-            timedEvents.removeIf(Predicate.not(TimedEvent::isValid));
+
+            tick++;
         }
     }
 
     /**
      * Füge ein Ereignis hinzu.
      * @param event Hinzuzufügendes Ereignis.
+     * @return Handle, über das die Ausführung des Ereignisses abgebrochen werden kann.
+     */
+    public @NotNull Handle put(@NotNull final TimedEvent event) {
+        final long delay = Math.max(0, LocalDateTime.now().until(event.getTime(), ChronoUnit.MILLIS));
+        final long elapsed = System.nanoTime() - startTime;
+        final long deadline = elapsed + Math.min(TimeUnit.MILLISECONDS.toNanos(delay), Long.MAX_VALUE / 2 - elapsed);
+        final Handle handle = new Handle(event, deadline);
+
+        pendingEvents.incrementAndGet();
+        added.add(handle);
+        return handle;
+    }
+
+    /**
+     * Gibt die Anzahl der Ereignisse zurück, die auf ihre Ausführung warten.
+     * @return Anzahl der wartenden Ereignisse.
+     */
+    public int getPendingEvents() {
+        return pendingEvents.get();
+    }
+
+    /**
+     * Gibt die Anzahl der ausgeführten Ereignisse zurück. Ungültige Ereignisse werden mitgezählt.
+     * @return Anzahl der ausgeführten Ereignisse.
+     */
+    public long getExecutedEvents() {
+        return executedEvents.get();
+    }
+
+    /**
+     * Gibt die Anzahl der abgebrochenen Ereignisse zurück.
+     * @return Anzahl der abgebrochenen Ereignisse.
      */
-    public synchronized void put(@NotNull final TimedEvent event) {
-        timedEvents.put(event);
-        notifyAll();
+    public long getCancelledEvents() {
+        return cancelledEvents.get();
+    }
+
+    /**
+     * Gibt die durchschnittliche Verzögerung zwischen dem Ausführungszeitpunkt und der tatsächlichen Ausführung
+     * eines Ereignisses in Millisekunden zurück.
+     * @return durchschnittliche Verzögerung der Ereignisse.
+     */
+    public double getAverageLag() {
+        final long executed = executedEvents.get();
+
+        return executed > 0 ? lag.get() / 1e6 / executed : 0;
+    }
+
+    /**
+     * Gibt die längste Verzögerung zwischen dem Ausführungszeitpunkt und der tatsächlichen Ausführung eines
+     * Ereignisses in Millisekunden zurück.
+     * @return längste Verzögerung der Ereignisse.
+     */
+    public double getMaxLag() {
+        return maxLag.get() / 1e6;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return this.getClass().getSimpleName() + "{pending=" + getPendingEvents() + ", executed=" + getExecutedEvents()
+                + ", cancelled=" + getCancelledEvents() + ", averageLag=" + String.format("%.1f", getAverageLag())
+                + "ms, maxLag=" + String.format("%.1f", getMaxLag()) + "ms}";
     }
 
     /**
      * Startet den Thread des TimedEventScheduler.
      */
-    private void start() {
+    void start() {
         this.isRunning = true;
-        Thread schedulerThread = new Thread(this);
+        Thread schedulerThread = new Thread(this, "Timed-Event-Scheduler");
         schedulerThread.setDaemon(true);
         schedulerThread.start();
     }
 
+    /**
+     * Stoppt den Thread des TimedEventScheduler. Noch nicht fällige Ereignisse werden nicht mehr ausgeführt.
+     */
+    void stop() {
+        this.isRunning = false;
+        this.executor.shutdown();
+    }
+
+    /**
+     * Fügt die neuen Ereignisse in das Fach ihres Ausführungszeitpunkts ein. Ereignisse, deren Zeitpunkt bereits
+     * vergangen ist, werden in das aktuelle Fach eingefügt.
+     */
+    private void transferAdded() {
+        for (int count = 0; count < TRANSFER_LIMIT; count++) {
+            final Handle handle = added.poll();
+
+            if (handle == null) {
+                return;
+            }
+
+            if (handle.state.get() != Handle.PENDING) {
+                continue;
+            }
+
+            final long ticks = handle.deadline / tickDuration;
+
+            handle.remainingRounds = Math.max(0, (ticks - tick) / wheel.length);
+            wheel[(int) (Math.max(ticks, tick) & (wheel.length - 1))].add(handle);
+        }
+    }
+
+    /**
+     * Entfernt die abgebrochenen Ereignisse aus ihren Fächern.
+     */
+    private void removeCancelled() {
+        Handle handle;
+
+        while ((handle = cancelled.poll()) != null) {
+            if (handle.bucket != null) {
+                handle.bucket.remove(handle);
+            }
+        }
+    }
+
+    /**
+     * Übergibt ein fälliges Ereignis an die Threads, auf denen es ausgeführt wird.
+     * @param handle Fälliges Ereignis.
+     */
+    private void execute(@NotNull final Handle handle) {
+        if (!handle.state.compareAndSet(Handle.PENDING, Handle.EXPIRED)) {
+            return;
+        }
+
+        pendingEvents.decrementAndGet();
+
+        try {
+            executor.execute(() -> {
+                final long delay = Math.max(0, System.nanoTime() - startTime - handle.deadline);
+
+                executedEvents.incrementAndGet();
+                lag.addAndGet(delay);
+                maxLag.accumulateAndGet(delay, Math::max);
+
+                try {
+                    // Ereignisse ohne Welt können Benutzer in beliebigen Welten betreffen und werden exklusiv ausgeführt.
+                    WorldLocks.getInstance().execute(handle.event::getWorld, () -> {
+                        // Prüfe, ob das Ereignis noch gültig ist.
+                        if (handle.event.isValid()) {
+                            handle.event.execute();
+                        }
+                    });
+                } catch (RuntimeException ex) {
+                    LOGGER.log(Level.WARNING, "Unhandled exception while executing timed event", ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            LOGGER.warning("Discarded timed event due to stopped scheduler: " + handle.event);
+        }
+    }
+
     /**
      * Gibt die Singleton-Instanz des TimedEventScheduler zurück.
      * @return Singleton-Instanz des TimedEventScheduler.
      */
-    public static TimedEventScheduler getInstance() {
+    public static synchronized TimedEventScheduler getInstance() {
         if (scheduler == null) {
             scheduler = new TimedEventScheduler();
         }
@@ -101,4 +317,135 @@ public class TimedEventScheduler implements Runnable {
         }
         return scheduler;
     }
-}
\ No newline at end of file
+
+    /**
+     * Eine Klasse, die ein hinzugefügtes Ereignis repräsentiert und über die seine Ausführung abgebrochen werden kann.
+     */
+    public final class Handle {
+
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final TimedEvent event;
+        private final long deadline;
+        private final AtomicInteger state;
+
+        /** Anzahl der Umdrehungen des Zeitrads, die bis zur Ausführung noch vergehen müssen. */
+        private long remainingRounds;
+
+        /** Das Fach, in dem sich das Ereignis befindet, und seine Nachbarn innerhalb des Fachs. */
+        private Bucket bucket;
+        private Handle prev;
+        private Handle next;
+
+        private Handle(@NotNull final TimedEvent event, final long deadline) {
+            this.event = event;
+            this.deadline = deadline;
+            this.state = new AtomicInteger(PENDING);
+        }
+
+        /**
+         * Bricht die Ausführung des Ereignisses ab, sofern es noch nicht ausgeführt wurde.
+         * @return true, wenn das Ereignis abgebrochen wurde, sonst false.
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(PENDING, CANCELLED)) {
+                return false;
+            }
+
+            pendingEvents.decrementAndGet();
+            cancelledEvents.incrementAndGet();
+            cancelled.add(this);
+            return true;
+        }
+
+        /**
+         * Gibt zurück, ob die Ausführung des Ereignisses abgebrochen wurde.
+         * @return true, wenn das Ereignis abgebrochen wurde, sonst false.
+         */
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        /**
+         * Gibt zurück, ob das Ereignis fällig geworden ist und ausgeführt wird oder wurde.
+         * @return true, wenn das Ereignis fällig geworden ist, sonst false.
+         */
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        /**
+         * Gibt das Ereignis zurück.
+         * @return das Ereignis.
+         */
+        public @NotNull TimedEvent getEvent() {
+            return event;
+        }
+    }
+
+    /**
+     * Eine Klasse, die ein Fach des Zeitrads repräsentiert. Die Ereignisse eines Fachs werden in einer doppelt
+     * verketteten Liste gehalten, sodass sie in konstanter Zeit eingefügt und entfernt werden können. Auf ein Fach
+     * wird ausschließlich durch den Thread des TimedEventScheduler zugegriffen.
+     */
+    private class Bucket {
+
+        private Handle head;
+        private Handle tail;
+
+        public void add(@NotNull final Handle handle) {
+            handle.bucket = this;
+
+            if (head == null) {
+                head = tail = handle;
+            } else {
+                tail.next = handle;
+                handle.prev = tail;
+                tail = handle;
+            }
+        }
+
+        public void remove(@NotNull final Handle handle) {
+            if (handle.prev != null) {
+                handle.prev.next = handle.next;
+            } else {
+                head = handle.next;
+            }
+
+            if (handle.next != null) {
+                handle.next.prev = handle.prev;
+            } else {
+                tail = handle.prev;
+            }
+
+            handle.prev = null;
+            handle.next = null;
+            handle.bucket = null;
+        }
+
+        /**
+         * Führt alle Ereignisse des Fachs aus, die im aktuellen Takt fällig sind.
+         * @param deadline Ende des aktuellen Takts.
+         */
+        public void expire(final long deadline) {
+            Handle handle = head;
+
+            while (handle != null) {
+                final Handle next = handle.next;
+
+                if (handle.isCancelled()) {
+                    remove(handle);
+                } else if (handle.remainingRounds <= 0 && handle.deadline <= deadline) {
+                    remove(handle);
+                    execute(handle);
+                } else if (handle.remainingRounds > 0) {
+                    handle.remainingRounds--;
+                }
+
+                handle = next;
+            }
+        }
+    }
+}
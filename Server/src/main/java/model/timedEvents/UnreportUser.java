@@ -20,7 +20,7 @@ public class UnreportUser extends TimedEvent {
      * @param user Benutzer, der nicht mehr gemeldet sein soll.
      */
     public UnreportUser(@NotNull final User user) {
-        super(user.getLastReported());
+        super(user.getLastReported().plus(User.UNREPORT_TIME, ChronoUnit.DAYS));
         this.user = user;
     }
 
@@ -86,6 +86,13 @@ public interface IUser {
      */
     void talk(final byte[] voiceData);
 
+    /**
+     * Beendet den aktuellen Sprachabschnitt des Benutzers, von dem eine Stillemarkierung erhalten wurde. Die
+     * Stillemarkierung wird nicht an andere Benutzer weitergeleitet.
+     * @throws IllegalStateException wenn der Benutzer nicht angemeldet oder nicht in einer Welt ist.
+     */
+    void stopTalking();
+
     /**
      * Sendet einen Videoframe von der Kamera des Benutzers, von dem es erhalten wurde gemäß der geltenden
      * Kommunikationsform an andere Benutzer.
@@ -103,6 +110,18 @@ public interface IUser {
      */
     void share(final byte[] frameData);
 
+    /**
+     * Sendet die veränderten Kacheln einer Bildschirmaufnahme des Benutzers, von dem sie erhalten wurden gemäß der
+     * geltenden Kommunikationsform an andere Benutzer.
+     * @param keyframe true, wenn die vollständige Bildschirmaufnahme gesendet wird, sonst false.
+     * @param sequence Fortlaufende Nummer des Frames.
+     * @param tiles Indizes der enthaltenen Kacheln.
+     * @param tileData Daten des Bildes, das die enthaltenen Kacheln beinhaltet.
+     * @throws IllegalStateException wenn der Benutzer nicht angemeldet oder nicht in einer Welt ist.
+     * @see model.communication.message.VideoTileFrame
+     */
+    void shareTiles(final boolean keyframe, final int sequence, final int[] tiles, final byte[] tileData);
+
     /**
      * Führt im Namen des Benutzers eine administrative Aktion auf einen anderen Benutzer aus.
      * @param targetId ID des Benutzers, auf den die Aktion ausgeführt werden soll.
@@ -173,6 +192,14 @@ public interface IUser {
      */
     void setStatus(@NotNull final Status status);
 
+    /**
+     * Ändert die Größe des Sichtbereichs des Benutzers auf der Karte.
+     * @param width Breite des Sichtbereichs.
+     * @param height Höhe des Sichtbereichs.
+     * @see model.context.spatial.InterestManager
+     */
+    void setViewport(final float width, final float height);
+
     /**
      * Gibt die ID des Benutzers zurück.
      * @return ID des Benutzers.
@@ -3,6 +3,7 @@ package model.user;
 import com.google.common.collect.Sets;
 import controller.network.ClientSender;
 import controller.network.ClientSender.SendAction;
+import controller.network.SharedPacket;
 import model.communication.CommunicationHandler;
 import model.context.Context;
 import model.context.ContextID;
@@ -28,6 +29,7 @@ import org.jetbrains.annotations.Nullable;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -62,6 +64,15 @@ public class User implements IUser {
     /** Zeitpunkt, an dem der Benutzer das letzte mal in einem Kontext gemeldet wurde. */
     private LocalDateTime lastReported;
 
+    /** Das geplante Löschen des Kontos nach der Abmeldung. */
+    private TimedEventScheduler.Handle accountDeletion;
+
+    /** Das geplante Setzen des Status {@link Status#AWAY} nach der letzten Aktivität. */
+    private TimedEventScheduler.Handle absentUser;
+
+    /** Das geplante Entfernen des Gemeldet-Zustands nach der letzten Meldung. */
+    private TimedEventScheduler.Handle unreportUser;
+
     /** Die aktuelle Welt des Benutzers. */
     protected World currentWorld;
 
@@ -77,6 +88,15 @@ public class User implements IUser {
     /** Information, ob sich ein Benutzer momentan bewegen darf. */
     private boolean movable;
 
+    /** Breite des Sichtbereichs des Benutzers. Ist der Sichtbereich nicht bekannt, ist die Breite 0. */
+    private volatile float viewportWidth;
+
+    /** Höhe des Sichtbereichs des Benutzers. Ist der Sichtbereich nicht bekannt, ist die Höhe 0. */
+    private volatile float viewportHeight;
+
+    /** Die fortlaufende Nummer der nächsten vom Benutzer versendeten Sprachdaten. */
+    private final AtomicInteger voiceSequence;
+
     /** Die Benutzer, mit denen dieser Benutzer gerade kommunizieren kann. */
     private final Map<UUID, User> communicableUsers;
 
@@ -136,6 +156,7 @@ public class User implements IUser {
         this.currentLocation = null;
         this.currentInteractable = null;
         this.movable = true;
+        this.voiceSequence = new AtomicInteger();
         this.communicableUsers = new HashMap<>();
         this.friends = new HashMap<>();
         this.ignoredUsers = new HashMap<>();
@@ -157,9 +178,8 @@ public class User implements IUser {
         if (world.isBanned(this)) {
             throw new IllegalWorldActionException("", "action.world-join.banned", world.getContextName());
         }
-        // Betrete die Welt.
+        // Betrete die Welt über den öffentlichen Raum, sodass der Zustand der Welt gesammelt versendet werden kann.
         currentWorld = world;
-        currentWorld.addUser(this);
         // Teleportiere den Benutzer an die Spawn Position des öffentlichen Raums.
         teleport(currentWorld.getPublicRoom().getSpawnLocation());
     }
@@ -193,12 +213,13 @@ public class User implements IUser {
         Area oldArea = currentLocation.getArea();
         currentLocation.setPosition(posX, posY);
         currentLocation.setDirection(direction);
+        currentLocation.getRoom().updatePosition(this);
         updateArea(oldArea, currentLocation.getArea());
 
         this.isSprinting = isSprinting;
 
-        // Hier erhält der eigene Benutzer eine Bestätigung der Bewegung:
-        currentLocation.getRoom().getUsers().values().forEach(receiver -> receiver.send(SendAction.AVATAR_MOVE, this));
+        // Die Bewegung wird im nächsten Takt versendet. Hier erhält auch der eigene Benutzer eine Bestätigung der Bewegung.
+        currentLocation.getRoom().addMovedUser(this);
         updateCommunicableUsers();
     }
 
@@ -226,6 +247,13 @@ public class User implements IUser {
         CommunicationHandler.handleVoiceMessage(this, voiceData);
     }
 
+    @Override
+    public void stopTalking() {
+        throwIfNotOnline();
+        throwIfNotInWorld();
+        CommunicationHandler.handleVoiceSilence(this);
+    }
+
     @Override
     public void show(final byte[] frameData) {
         throwIfNotOnline();
@@ -240,6 +268,13 @@ public class User implements IUser {
         CommunicationHandler.handleScreenFrame(this, frameData);
     }
 
+    @Override
+    public void shareTiles(final boolean keyframe, final int sequence, final int[] tiles, final byte[] tileData) {
+        throwIfNotOnline();
+        throwIfNotInWorld();
+        CommunicationHandler.handleScreenTiles(this, keyframe, sequence, tiles, tileData);
+    }
+
     @Override
     public void executeAdministrativeAction(@NotNull final UUID targetId, @NotNull final AdministrativeAction administrativeAction,
                                             @NotNull final String[] args)
@@ -346,6 +381,17 @@ public class User implements IUser {
         }
     }
 
+    @Override
+    public void setViewport(final float width, final float height) {
+        this.viewportWidth = width;
+        this.viewportHeight = height;
+
+        // Die bekannten Avatare müssen an den neuen Sichtbereich angepasst werden.
+        if (currentLocation != null) {
+            currentLocation.getRoom().updateInterest(this);
+        }
+    }
+
     @Override
     public void setStatus(@NotNull final Status status) {
         this.status = status;
@@ -394,6 +440,31 @@ public class User implements IUser {
         return movable;
     }
 
+    /**
+     * Gibt die fortlaufende Nummer für die nächsten versendeten Sprachdaten des Benutzers zurück. Anhand der Nummer
+     * können die Empfänger verlorene und in falscher Reihenfolge empfangene Sprachdaten erkennen.
+     * @return Fortlaufende Nummer der Sprachdaten.
+     */
+    public int nextVoiceSequence() {
+        return voiceSequence.getAndIncrement();
+    }
+
+    /**
+     * Gibt die Breite des Sichtbereichs des Benutzers zurück.
+     * @return Breite des Sichtbereichs oder 0, wenn der Sichtbereich nicht bekannt ist.
+     */
+    public float getViewportWidth() {
+        return viewportWidth;
+    }
+
+    /**
+     * Gibt die Höhe des Sichtbereichs des Benutzers zurück.
+     * @return Höhe des Sichtbereichs oder 0, wenn der Sichtbereich nicht bekannt ist.
+     */
+    public float getViewportHeight() {
+        return viewportHeight;
+    }
+
     @Override
     public @NotNull Map<UUID, IUser> getFriends() {
         return Collections.unmodifiableMap(friends);
@@ -434,8 +505,9 @@ public class User implements IUser {
     public void teleport(@NotNull final Location newLocation) {
         Area oldArea = currentLocation != null ? currentLocation.getArea() : null;
         currentLocation = new Location(newLocation);
+        currentLocation.getRoom().updatePosition(this);
         updateArea(oldArea, currentLocation.getArea());
-        currentLocation.getRoom().getUsers().values().forEach(receiver -> receiver.send(SendAction.AVATAR_SPAWN, this));
+        currentLocation.getRoom().spawnUser(this);
         updateCommunicableUsers();
     }
 
@@ -730,7 +802,10 @@ public class User implements IUser {
      */
     public void updateLastLogout() {
         this.lastLogout = LocalDateTime.now();
-        TimedEventScheduler.getInstance().put(new AccountDeletion(this));
+        if (accountDeletion != null) {
+            accountDeletion.cancel();
+        }
+        accountDeletion = TimedEventScheduler.getInstance().put(new AccountDeletion(this));
     }
 
     /**
@@ -744,7 +819,10 @@ public class User implements IUser {
                 setStatus(Status.ONLINE);
             }
             this.lastActivity = now;
-            TimedEventScheduler.getInstance().put(new AbsentUser(this));
+            if (absentUser != null) {
+                absentUser.cancel();
+            }
+            absentUser = TimedEventScheduler.getInstance().put(new AbsentUser(this));
         }
     }
 
@@ -753,7 +831,10 @@ public class User implements IUser {
      */
     public void updateLastReported() {
         this.lastReported = LocalDateTime.now();
-        TimedEventScheduler.getInstance().put(new UnreportUser(this));
+        if (unreportUser != null) {
+            unreportUser.cancel();
+        }
+        unreportUser = TimedEventScheduler.getInstance().put(new UnreportUser(this));
     }
 
     /**
@@ -870,6 +951,16 @@ public class User implements IUser {
      * Sendet Pakete an alle relevanten Benutzer mit der aktualisierten Benutzerinformation.
      */
     public void updateUserInfo(final boolean includeSelf) {
+        updateUserInfo(includeSelf, true);
+    }
+
+    /**
+     * Sendet Pakete an alle relevanten Benutzer mit der aktualisierten Benutzerinformation.
+     * @param includeSelf true, wenn auch der eigene Benutzer die Benutzerinformation erhalten soll.
+     * @param includeWorld true, wenn auch die Benutzer der aktuellen Welt die Benutzerinformation erhalten sollen. Ist
+     * dies nicht der Fall, erhält auch der eigene Benutzer keine Benutzerinformation.
+     */
+    public void updateUserInfo(final boolean includeSelf, final boolean includeWorld) {
         final Map<UUID, User> receivers = new HashMap<>(friends);
 
         if (includeSelf) {
@@ -877,7 +968,11 @@ public class User implements IUser {
         }
 
         if (currentWorld != null) {
-            receivers.putAll(currentWorld.getUsers());
+            if (includeWorld) {
+                receivers.putAll(currentWorld.getUsers());
+            } else {
+                receivers.keySet().removeAll(currentWorld.getUsers().keySet());
+            }
         }
 
         receivers.values().forEach(user -> user.send(SendAction.USER_INFO, this));
@@ -928,6 +1023,12 @@ public class User implements IUser {
         this.clientSender = sender;
         this.status = Status.ONLINE;
 
+        // Ein angemeldeter Benutzer wird nicht gelöscht.
+        if (accountDeletion != null) {
+            accountDeletion.cancel();
+            accountDeletion = null;
+        }
+
         updateUserInfo(false);
         updateLastActivity();
     }
@@ -950,6 +1051,12 @@ public class User implements IUser {
             currentLocation = null;
         }
 
+        // Ein abgemeldeter Benutzer kann nicht mehr abwesend werden.
+        if (absentUser != null) {
+            absentUser.cancel();
+            absentUser = null;
+        }
+
         updateUserInfo(false);
         updateLastLogout();
     }
@@ -967,11 +1074,51 @@ public class User implements IUser {
     }
 
     /**
-     * Aktualisiert die Menge der Benutzer, mit denen gerade kommuniziert werden kann.
+     * Übergibt dem ClientSender ein Paket, welches unverändert an mehrere Benutzer versendet wird.
+     * @param packet Das zu sendende geteilte Paket.
+     */
+    public void send(@NotNull final SharedPacket packet) {
+        if (this.isOnline() && this.clientSender != null) {
+            this.clientSender.send(packet);
+        }
+    }
+
+    /**
+     * Aktualisiert die Menge der Benutzer, mit denen gerade kommuniziert werden kann. Die Mengen der hinzugekommenen und
+     * weggefallenen Benutzer werden anschließend aus deren eigener Kommunikationsform neu berechnet, da die
+     * Kommunikation in verschachtelten Bereichen oder bei unterschiedlichen Radien nicht gegenseitig sein muss. Diese
+     * Neuberechnung wird nicht weitergegeben. Nur Benutzer, deren Menge sich geändert hat, erhalten eine Aktualisierung.
      */
     public void updateCommunicableUsers() {
-        Map<UUID, User> currentCommunicableUsers = getCommunicableUsers();
-        Map<UUID, User> newCommunicableUsers;
+        final Map<UUID, User> newCommunicableUsers = computeCommunicableUsers();
+
+        if (communicableUsers.keySet().equals(newCommunicableUsers.keySet())) {
+            return;
+        }
+
+        final Set<User> affectedUsers = Sets.symmetricDifference(communicableUsers.keySet(),
+                newCommunicableUsers.keySet()).stream()
+                .map(otherId -> communicableUsers.getOrDefault(otherId, newCommunicableUsers.get(otherId)))
+                .filter(other -> !other.equals(this))
+                .collect(Collectors.toSet());
+
+        setCommunicableUsers(newCommunicableUsers);
+        affectedUsers.forEach(other -> {
+            final Map<UUID, User> otherCommunicableUsers = other.computeCommunicableUsers();
+
+            if (!other.communicableUsers.keySet().equals(otherCommunicableUsers.keySet())) {
+                other.setCommunicableUsers(otherCommunicableUsers);
+            }
+        });
+    }
+
+    /**
+     * Berechnet die Menge der Benutzer, mit denen gerade kommuniziert werden kann, aus der Kommunikationsform des
+     * Bereichs, in dem sich der Benutzer befindet.
+     * @return Menge der Benutzer, mit denen gerade kommuniziert werden kann.
+     */
+    private @NotNull Map<UUID, User> computeCommunicableUsers() {
+        final Map<UUID, User> newCommunicableUsers;
 
         if (currentLocation == null) {
             newCommunicableUsers = Collections.emptyMap();
@@ -979,18 +1126,17 @@ public class User implements IUser {
             newCommunicableUsers = currentLocation.getArea().getCommunicableUsers(this);
         }
         CommunicationHandler.filterIgnoredUsers(this, newCommunicableUsers);
+        return newCommunicableUsers;
+    }
 
-        if (currentCommunicableUsers.keySet().equals(newCommunicableUsers.keySet())) {
-            return;
-        }
-
+    /**
+     * Setzt die Menge der Benutzer, mit denen gerade kommuniziert werden kann, und sendet diese an den Client.
+     * @param newCommunicableUsers Neue Menge der Benutzer, mit denen gerade kommuniziert werden kann.
+     */
+    private void setCommunicableUsers(@NotNull final Map<UUID, User> newCommunicableUsers) {
         communicableUsers.clear();
         communicableUsers.putAll(newCommunicableUsers);
-
         this.send(SendAction.COMMUNICABLES, this);
-
-        Sets.symmetricDifference(currentCommunicableUsers.entrySet(), newCommunicableUsers.entrySet())
-                .forEach(entry -> entry.getValue().updateCommunicableUsers());
     }
 
     /**
@@ -2,8 +2,10 @@ package model.user.bot;
 
 import model.user.Status;
 import model.user.User;
+import utils.AudioCodec;
 import utils.AudioUtils;
 import controller.network.ClientSender.SendAction;
+import model.communication.CommunicationHandler;
 import model.communication.message.MessageType;
 import model.communication.message.TextMessage;
 import model.context.spatial.Direction;
@@ -19,6 +21,7 @@ import model.user.account.UserAccountManager;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.NoSuchElementException;
 import java.util.Queue;
 import java.util.Random;
@@ -132,6 +135,13 @@ public class Bot extends User {
                 }
                 break;
 
+            case AVATAR_MOVES:
+                if (object instanceof Collection) {
+                    // Behandle die gebündelten Bewegungen wie einzelne Bewegungen.
+                    ((Collection<?>) object).forEach(moved -> send(SendAction.AVATAR_MOVE, moved));
+                }
+                break;
+
             case AVATAR_REMOVE:
                 if (object instanceof User && !(object instanceof Bot)) {
                     if (followUser != null && followUser.equals(object)) {
@@ -284,8 +294,10 @@ public class Bot extends User {
      */
     public void talk(@NotNull final String message) {
         byte[] voiceData = BotManager.getInstance().generateSpeech(voice, message);
+        AudioCodec codec = CommunicationHandler.getVoiceCodec();
         for (int i = 0; i < voiceData.length; i += AudioUtils.FRAME_SIZE) {
-            voiceDataBuffer.add(Arrays.copyOfRange(voiceData, i, i + AudioUtils.FRAME_SIZE));
+            short[] frame = AudioUtils.toShort(Arrays.copyOfRange(voiceData, i, i + AudioUtils.FRAME_SIZE), true);
+            voiceDataBuffer.add(codec.encode(frame));
         }
         lastTimeChat = System.currentTimeMillis();
     }
@@ -460,7 +472,7 @@ public class Bot extends User {
      * @param message Nachricht, die dem Benutzer zugeflüstert werden soll.
      */
     private void whisper(@NotNull final User user, @NotNull final String message) {
-        TextMessage whisperMessage = new TextMessage(this, message, new byte[0], null, MessageType.WHISPER);
+        TextMessage whisperMessage = new TextMessage(this, message, null, MessageType.WHISPER);
         user.send(SendAction.MESSAGE, whisperMessage);
     }
 
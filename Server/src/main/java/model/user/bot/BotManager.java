@@ -6,6 +6,8 @@ import marytts.exceptions.MaryConfigurationException;
 import marytts.exceptions.SynthesisException;
 import utils.AudioUtils;
 import controller.network.ClientSender;
+import controller.network.WorldLocks;
+import model.communication.MediaScheduler;
 import model.communication.message.TextMessage;
 import model.context.global.GlobalContext;
 import model.role.Role;
@@ -23,11 +25,15 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Eine Klasse, welche die Bots der Anwwendung verwaltet.
  */
-public class BotManager implements Runnable {
+public class BotManager {
 
     /** Weibliche deutsche Stimme für den Text-To-Speech Synthesizer. */
     public static final String GERMAN_FEMALE_VOICE = "bits1-hsmm";
@@ -50,61 +56,77 @@ public class BotManager implements Runnable {
     /** Information, ob der BotManager gerade aktiv ist. */
     private boolean isRunning;
 
+    /** Anzahl der Aktualisierungen der Bots seit dem letzten zufälligen Chatten. */
+    private int ticks;
+
     /**
      * Erzeugt eine neue Instanz des BotManager.
      */
     private BotManager() {
-        this.bots = new HashMap<>();
+        this.bots = new ConcurrentHashMap<>();
         this.isRunning = false;
     }
 
     /**
-     * Startet den Thread des BotManager.
+     * Startet den BotManager. Die Sprachdaten der Bots werden über den MediaScheduler im Takt der Audioframes
+     * gesendet. Das Verhalten der Bots, welches das Erzeugen von Sprachdaten beinhaltet und daher länger dauern kann,
+     * wird auf einem eigenen Thread aktualisiert, damit der Takt der übrigen Audiodaten nicht verzögert wird.
      */
     private void start() {
         this.isRunning = true;
-        Thread botManagerThread = new Thread(this);
-        botManagerThread.setDaemon(true);
-        botManagerThread.start();
+        final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread botManagerThread = new Thread(runnable, "Bot-Manager");
+            botManagerThread.setDaemon(true);
+            return botManagerThread;
+        });
+
+        executor.execute(() -> {
+            try {
+                textToSpeech = new LocalMaryInterface();
+            } catch (MaryConfigurationException e) {
+                e.printStackTrace();
+            }
+        });
+
+        final long period = TimeUnit.SECONDS.toNanos(1) / AudioUtils.FRAME_RATE;
+        executor.scheduleWithFixedDelay(this::update, period, period, TimeUnit.NANOSECONDS);
+        MediaScheduler.getInstance().schedule(this::sendVoiceFrames);
     }
 
-    @Override
-    public void run() {
-        try {
-            textToSpeech = new LocalMaryInterface();
-        } catch (MaryConfigurationException e) {
-            e.printStackTrace();
+    /**
+     * Sendet für jeden sprechenden Bot ein Audioframe seiner Sprachdaten. Wird vom MediaScheduler in jedem Audioframe
+     * aufgerufen.
+     */
+    private void sendVoiceFrames() {
+        for (Bot bot : bots.values()) {
+            WorldLocks.getInstance().execute(bot::getWorld, () -> {
+                byte[] sendData = bot.getNextFrame();
+                if (sendData != null) {
+                    bot.talk(sendData);
+                }
+            });
         }
+    }
 
-        long now = System.currentTimeMillis();
-        long timer = 0;
-        long deltaTime;
-
-        while (isRunning) {
-            deltaTime = System.currentTimeMillis() - now;
-            now = System.currentTimeMillis();
-            timer += deltaTime;
+    /**
+     * Aktualisiert das Verhalten der Bots. Einmal pro Sekunde können die Bots dabei zufällig chatten oder sprechen.
+     */
+    private void update() {
+        final boolean chat = ++ticks >= AudioUtils.FRAME_RATE;
+        if (chat) {
+            ticks = 0;
+        }
 
-            for (Bot bot : bots.values()) {
-                if (bot.hasVoiceData()) {
-                    byte[] sendData = bot.getNextFrame();
-                    if (sendData != null) {
-                        bot.talk(sendData);
-                    }
-                } else {
-                    if (timer >= 1000) {
+        for (Bot bot : bots.values()) {
+            try {
+                WorldLocks.getInstance().execute(bot::getWorld, () -> {
+                    if (chat && !bot.hasVoiceData()) {
                         bot.randomChat();
                     }
-                }
-                bot.choose();
-            }
-            if (timer >= 1000) {
-                timer = 0;
-            }
-
-            try {
-                Thread.sleep(955 / AudioUtils.FRAME_RATE);
-            } catch (InterruptedException e) {
+                    bot.choose();
+                });
+            } catch (RuntimeException e) {
+                // Eine Ausnahme darf die Aktualisierung nicht beenden, da sonst keine weiteren Bots aktualisiert werden.
                 e.printStackTrace();
             }
         }
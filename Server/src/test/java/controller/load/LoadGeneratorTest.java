@@ -0,0 +1,45 @@
+package controller.load;
+
+import org.junit.Assert;
+import org.junit.Test;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class LoadGeneratorTest {
+
+    @Test
+    public void parkUntilTest() {
+        for (int i = 0; i < 20; i++) {
+            final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(5);
+
+            LoadGenerator.parkUntil(deadline);
+            Assert.assertTrue(System.nanoTime() >= deadline);
+        }
+    }
+
+    @Test
+    public void parkUntilPastTest() {
+        final long start = System.nanoTime();
+
+        LoadGenerator.parkUntil(start - TimeUnit.SECONDS.toNanos(1));
+        Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    public void readLastLineTest() throws IOException {
+        final File file = File.createTempFile("metrics", ".jsonl");
+        file.deleteOnExit();
+
+        Assert.assertNull(LoadGenerator.readLastLine(file));
+
+        Files.write(file.toPath(), List.of("{\"seconds\":1}", "{\"seconds\":2}", ""), StandardCharsets.UTF_8);
+        Assert.assertEquals("{\"seconds\":2}", LoadGenerator.readLastLine(file));
+
+        Assert.assertTrue(file.delete());
+        Assert.assertNull(LoadGenerator.readLastLine(file));
+    }
+}
@@ -0,0 +1,83 @@
+package controller.load;
+
+import controller.metrics.ServerMetrics;
+import controller.network.protocol.PacketAvatarMove;
+import controller.network.protocol.PacketUserTyping;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.Map;
+
+public class LoadStatisticsTest {
+
+    private LoadStatistics statistics;
+    private ServerMetrics metrics;
+
+    @Before
+    public void setUp() {
+        this.statistics = new LoadStatistics();
+        this.metrics = new ServerMetrics();
+    }
+
+    @Test
+    public void parseServerPacketsTest() {
+        this.metrics.decoded(PacketAvatarMove.class, 1000, 20);
+        this.metrics.decoded(PacketAvatarMove.class, 1000, 20);
+        this.metrics.sent(PacketUserTyping.class, 30);
+        this.metrics.registerGauge("connections", () -> 3);
+
+        final Map<String, long[]> packets = LoadStatistics.parseServerPackets(this.metrics.toJson());
+
+        Assert.assertEquals(2, packets.size());
+        Assert.assertArrayEquals(new long[]{2, 0}, packets.get("PacketAvatarMove"));
+        Assert.assertArrayEquals(new long[]{0, 1}, packets.get("PacketUserTyping"));
+    }
+
+    @Test
+    public void compareTest() {
+        this.metrics.decoded(PacketAvatarMove.class, 1000, 20);
+        final String before = this.metrics.toJson();
+
+        for (int i = 0; i < 4; i++) {
+            this.statistics.sent(new PacketAvatarMove());
+        }
+        for (int i = 0; i < 3; i++) {
+            this.metrics.decoded(PacketAvatarMove.class, 1000, 20);
+        }
+
+        this.statistics.received(new PacketUserTyping());
+        this.metrics.sent(PacketUserTyping.class, 30);
+
+        final String comparison = this.statistics.compare(before, this.metrics.toJson());
+
+        // Die Pakete vor dem Lasttest werden nicht mitgezählt.
+        Assert.assertTrue(comparison, comparison.contains("AvatarMove=4/3 (75.0%)"));
+        Assert.assertTrue(comparison, comparison.contains("UserTyping=1/1 (100.0%)"));
+    }
+
+    @Test
+    public void compareResetTest() {
+        this.metrics.decoded(PacketAvatarMove.class, 1000, 20);
+        this.metrics.decoded(PacketAvatarMove.class, 1000, 20);
+        final String before = this.metrics.toJson();
+
+        // Die Messwerte des Servers werden während des Lasttests zurückgesetzt.
+        this.metrics.reset();
+        this.metrics.decoded(PacketAvatarMove.class, 1000, 20);
+        this.statistics.sent(new PacketAvatarMove());
+
+        final String comparison = this.statistics.compare(before, this.metrics.toJson());
+
+        Assert.assertTrue(comparison, comparison.contains("AvatarMove=1/1 (100.0%)"));
+    }
+
+    @Test
+    public void compareMissingTest() {
+        this.statistics.sent(new PacketAvatarMove());
+
+        final String comparison = this.statistics.compare(null, this.metrics.toJson());
+
+        // Der Server hat kein Paket des Typs erfasst.
+        Assert.assertTrue(comparison, comparison.contains("AvatarMove=1/-"));
+    }
+}
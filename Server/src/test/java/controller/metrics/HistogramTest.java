@@ -0,0 +1,92 @@
+package controller.metrics;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.Arrays;
+import java.util.Random;
+
+public class HistogramTest {
+
+    private Histogram histogram;
+
+    @Before
+    public void setUp() {
+        this.histogram = new Histogram();
+    }
+
+    @Test
+    public void emptyTest() {
+        Assert.assertEquals(0, this.histogram.getCount());
+        Assert.assertEquals(0, this.histogram.getMax());
+        Assert.assertEquals(0, this.histogram.getPercentile(0.99));
+        Assert.assertEquals(0, this.histogram.getMean(), 0);
+    }
+
+    @Test
+    public void exactSmallValuesTest() {
+        for (int value = 0; value < Histogram.SUB_BUCKETS; value++) {
+            this.histogram.record(value);
+        }
+
+        // Kleine Werte werden exakt gezählt.
+        Assert.assertEquals(Histogram.SUB_BUCKETS, this.histogram.getCount());
+        Assert.assertEquals(0, this.histogram.getPercentile(0));
+        Assert.assertEquals(7, this.histogram.getPercentile(0.5));
+        Assert.assertEquals(Histogram.SUB_BUCKETS - 1, this.histogram.getPercentile(1));
+    }
+
+    @Test
+    public void relativeErrorTest() {
+        final Random random = new Random(0);
+        final long[] values = new long[100000];
+
+        // Latenzen über mehrere Größenordnungen mit langem Ende.
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) (1000 * Math.exp(3 * random.nextGaussian()));
+            this.histogram.record(values[i]);
+        }
+
+        Arrays.sort(values);
+
+        for (final double percentile : new double[]{0.1, 0.5, 0.9, 0.99, 0.999}) {
+            final long expected = values[(int) Math.ceil(percentile * values.length) - 1];
+            final long actual = this.histogram.getPercentile(percentile);
+
+            Assert.assertEquals("p" + percentile, expected, actual, expected / (double) Histogram.SUB_BUCKETS + 1);
+        }
+
+        Assert.assertEquals(values[values.length - 1], this.histogram.getMax());
+        Assert.assertEquals(Arrays.stream(values).sum(), this.histogram.getSum());
+    }
+
+    @Test
+    public void clampTest() {
+        this.histogram.record(-5);
+        this.histogram.record(Long.MAX_VALUE);
+
+        Assert.assertEquals(2, this.histogram.getCount());
+        Assert.assertEquals(0, this.histogram.getPercentile(0.5));
+        Assert.assertTrue(this.histogram.getMax() > 0);
+        Assert.assertEquals(this.histogram.getMax(), this.histogram.getPercentile(1),
+                this.histogram.getMax() / (double) Histogram.SUB_BUCKETS);
+    }
+
+    @Test
+    public void resetTest() {
+        this.histogram.record(12345);
+        this.histogram.reset();
+
+        Assert.assertEquals(0, this.histogram.getCount());
+        Assert.assertEquals(0, this.histogram.getSum());
+        Assert.assertEquals(0, this.histogram.getPercentile(0.5));
+    }
+
+    @Test
+    public void jsonTest() {
+        this.histogram.record(2000);
+
+        Assert.assertEquals("{\"count\":1,\"mean\":2.000,\"p50\":2.000,\"p90\":2.000,\"p99\":2.000,\"p999\":2.000,"
+                + "\"max\":2.000}", this.histogram.toJson(1000));
+    }
+}
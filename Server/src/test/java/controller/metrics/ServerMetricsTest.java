@@ -0,0 +1,111 @@
+package controller.metrics;
+
+import controller.network.ClientSender.SendAction;
+import controller.network.protocol.PacketAudioMessage;
+import controller.network.protocol.PacketUserTyping;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import util.Benchmark;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+public class ServerMetricsTest {
+
+    private ServerMetrics metrics;
+
+    @Before
+    public void setUp() {
+        this.metrics = new ServerMetrics();
+    }
+
+    @Test
+    public void packetMetricsTest() {
+        this.metrics.decoded(PacketUserTyping.class, 1000, 20);
+        this.metrics.handled(PacketUserTyping.class, 5000);
+        this.metrics.encoded(PacketAudioMessage.class, 3000);
+        this.metrics.sent(PacketAudioMessage.class, 1500);
+        this.metrics.sent(PacketAudioMessage.class, 1500);
+
+        final ServerMetrics.PacketMetrics typing = this.metrics.getPacketMetrics(PacketUserTyping.class);
+        Assert.assertEquals(1, typing.getDecode().getCount());
+        Assert.assertEquals(20, typing.getBytesReceived());
+        Assert.assertEquals(1, typing.getHandle().getCount());
+
+        final ServerMetrics.PacketMetrics audio = this.metrics.getPacketMetrics(PacketAudioMessage.class);
+        Assert.assertEquals(1, audio.getEncode().getCount());
+        Assert.assertEquals(2, audio.getSent());
+        Assert.assertEquals(3000, audio.getBytesSent());
+
+        this.metrics.reset();
+        Assert.assertEquals(0, audio.getSent());
+        Assert.assertEquals(0, typing.getHandle().getCount());
+    }
+
+    @Test
+    public void fanOutTest() {
+        this.metrics.fanOut(SendAction.AUDIO, 5);
+        this.metrics.fanOut(SendAction.AUDIO, 3);
+        // Ein Versand ohne Empfänger wird nicht erfasst.
+        this.metrics.fanOut(SendAction.TYPING, 0);
+
+        final Histogram audio = this.metrics.getFanOut(SendAction.AUDIO);
+        Assert.assertEquals(2, audio.getCount());
+        Assert.assertEquals(8, audio.getSum());
+        Assert.assertEquals(5, audio.getMax());
+        Assert.assertEquals(0, this.metrics.getFanOut(SendAction.TYPING).getCount());
+    }
+
+    @Test
+    public void reportTest() {
+        this.metrics.registerGauge("connections", () -> 42);
+        this.metrics.registerGauge("broken", () -> {
+            throw new IllegalStateException();
+        });
+        this.metrics.decoded(PacketUserTyping.class, 2000, 20);
+        this.metrics.fanOut(SendAction.AUDIO, 2);
+
+        final String json = this.metrics.toJson();
+        Assert.assertFalse(json.contains(System.lineSeparator()));
+        Assert.assertTrue(json.contains("\"gauges\":{\"broken\":null,\"connections\":42}"));
+        Assert.assertTrue(json.contains("\"PacketUserTyping\":{\"received\":1,\"sent\":0,\"bytesReceived\":20,"
+                + "\"bytesSent\":0,\"decode\":{\"count\":1,\"mean\":2.000,"));
+        Assert.assertTrue(json.contains("\"fanOut\":{\"AUDIO\":{\"count\":1,"));
+
+        final String report = this.metrics.toReport();
+        Assert.assertTrue(report.contains("connections: 42"));
+        Assert.assertTrue(report.contains("PacketUserTyping"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalIntervalTest() {
+        this.metrics.startSnapshots(new File("metrics.jsonl"), 0);
+    }
+
+    @Test
+    @Category(Benchmark.class)
+    public void overheadTest() {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        final int packets = 1000000;
+
+        long elapsed = 0;
+        for (int round = 0; round < 3; round++) {
+            final long start = bean.getCurrentThreadCpuTime();
+            for (int i = 0; i < packets; i++) {
+                // Erfassung eines empfangenen und verarbeiteten sowie eines versendeten Pakets.
+                this.metrics.decoded(PacketUserTyping.class, i & 0xFFFF, 20);
+                this.metrics.handled(PacketUserTyping.class, i & 0xFFFFF);
+                this.metrics.fanOut(SendAction.AUDIO, i & 0xFF);
+                this.metrics.sent(PacketAudioMessage.class, 1500);
+            }
+            elapsed = bean.getCurrentThreadCpuTime() - start;
+        }
+
+        System.out.printf("Server metrics: %.1f ns per received and sent packet%n", (double) elapsed / packets);
+
+        // Die Erfassung ist gegenüber der Verarbeitung eines Pakets im Mikrosekundenbereich vernachlässigbar.
+        Assert.assertTrue(elapsed / packets < 1000);
+    }
+}
@@ -0,0 +1,43 @@
+package controller.network;
+
+import controller.network.protocol.PacketAudioCodec;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import utils.AudioCodec;
+import java.util.logging.Level;
+
+public class PacketAudioCodecTest extends PacketServerTest {
+
+    @Test
+    public void handleSupportedCodecTest() {
+        Mockito.when(this.network.getVoiceCodec()).thenReturn(AudioCodec.ADPCM_16K);
+
+        this.handler.reset();
+        this.connection.handle(new PacketAudioCodec(AudioCodec.values()));
+
+        Assert.assertFalse(this.handler.logged(Level.WARNING, ""));
+        Assert.assertArrayEquals(new AudioCodec[]{AudioCodec.ADPCM_16K}, this.sentPacket().getCodecs());
+    }
+
+    @Test
+    public void handleUnsupportedCodecTest() {
+        Mockito.when(this.network.getVoiceCodec()).thenReturn(AudioCodec.ADPCM_16K);
+
+        this.handler.reset();
+        this.connection.handle(new PacketAudioCodec(new AudioCodec[]{AudioCodec.ADPCM}));
+
+        Assert.assertFalse(this.handler.logged(Level.WARNING, ""));
+        Assert.assertArrayEquals(new AudioCodec[]{AudioCodec.PCM}, this.sentPacket().getCodecs());
+    }
+
+    private PacketAudioCodec sentPacket() {
+        final ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+
+        Mockito.verify(this.endPoint).sendTCP(captor.capture());
+        Assert.assertTrue(captor.getValue() instanceof PacketAudioCodec);
+
+        return (PacketAudioCodec) captor.getValue();
+    }
+}
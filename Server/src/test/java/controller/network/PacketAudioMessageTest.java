@@ -4,12 +4,16 @@ import controller.network.ClientSender.SendAction;
 import controller.network.mock.MockIUser;
 import controller.network.protocol.PacketAudioMessage;
 import model.communication.message.IAudioMessage;
+import model.communication.message.MixedAudioMessage;
 import model.context.spatial.IWorld;
 import model.user.IUser;
+import model.user.User;
 import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
 import java.util.logging.Level;
 
 public class PacketAudioMessageTest extends PacketServerTest {
@@ -29,6 +33,7 @@ public class PacketAudioMessageTest extends PacketServerTest {
 
         Mockito.when(message.getSender()).thenReturn(null);
         Mockito.when(message.getTimestamp()).thenReturn(LocalDateTime.now());
+        Mockito.when(message.getSequence()).thenReturn(randomInt());
         Mockito.when(message.getAudioData()).thenReturn(randomBytes());
 
         final PacketAudioMessage packet = this.getPacket(PacketAudioMessage.class, message);
@@ -36,6 +41,7 @@ public class PacketAudioMessageTest extends PacketServerTest {
         Assert.assertNull(packet.getSenderId());
         Assert.assertNotNull(packet.getTimestamp());
         Assert.assertEquals(message.getTimestamp(), packet.getTimestamp());
+        Assert.assertEquals(message.getSequence(), packet.getSequence());
         Assert.assertArrayEquals(message.getAudioData(), packet.getAudioData());
     }
 
@@ -47,6 +53,7 @@ public class PacketAudioMessageTest extends PacketServerTest {
         Mockito.when(sender.getUserId()).thenReturn(randomUniqueId());
         Mockito.when(message.getSender()).thenReturn(sender);
         Mockito.when(message.getTimestamp()).thenReturn(LocalDateTime.now());
+        Mockito.when(message.getSequence()).thenReturn(randomInt());
         Mockito.when(message.getAudioData()).thenReturn(randomBytes());
 
         final PacketAudioMessage packet = this.getPacket(PacketAudioMessage.class, message);
@@ -55,6 +62,24 @@ public class PacketAudioMessageTest extends PacketServerTest {
         Assert.assertEquals(sender.getUserId(), packet.getSenderId());
         Assert.assertNotNull(packet.getTimestamp());
         Assert.assertEquals(message.getTimestamp(), packet.getTimestamp());
+        Assert.assertEquals(message.getSequence(), packet.getSequence());
+        Assert.assertArrayEquals(message.getAudioData(), packet.getAudioData());
+    }
+
+    @Test
+    public void correctMixedPackagingTest() {
+        final User speaker = Mockito.mock(User.class);
+
+        Mockito.when(speaker.getUserId()).thenReturn(randomUniqueId());
+
+        final MixedAudioMessage message = new MixedAudioMessage(randomBytes(), randomInt(), List.of(speaker));
+        final PacketAudioMessage packet = this.getPacket(PacketAudioMessage.class, message);
+
+        Assert.assertNull(packet.getSenderId());
+        Assert.assertTrue(packet.isMixed());
+        Assert.assertArrayEquals(new UUID[]{speaker.getUserId()}, packet.getSpeakers());
+        Assert.assertEquals(message.getTimestamp(), packet.getTimestamp());
+        Assert.assertEquals(message.getSequence(), packet.getSequence());
         Assert.assertArrayEquals(message.getAudioData(), packet.getAudioData());
     }
 
@@ -108,4 +133,19 @@ public class PacketAudioMessageTest extends PacketServerTest {
         Assert.assertFalse(this.handler.logged());
         Assert.assertTrue(user.called("talk"));
     }
+
+    @Test
+    public void handleCorrectSilenceTest() {
+        final PacketAudioMessage packet = new PacketAudioMessage(new byte[0], true);
+        final MockIUser user = this.login();
+
+        user.setWorld(Mockito.mock(IWorld.class));
+
+        this.handler.reset();
+        this.connection.handle(packet);
+
+        Assert.assertFalse(this.handler.logged());
+        Assert.assertTrue(user.called("stop-talking"));
+        Assert.assertFalse(user.called("talk"));
+    }
 }
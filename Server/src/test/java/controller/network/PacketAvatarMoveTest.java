@@ -34,6 +34,11 @@ public class PacketAvatarMoveTest extends PacketServerTest {
         this.getPacket(SendAction.AVATAR_REMOVE, PacketAvatarMove.class, new Object());
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalHidePackagingTest() {
+        this.getPacket(SendAction.AVATAR_HIDE, PacketAvatarMove.class, new Object());
+    }
+
     @Test(expected = IllegalStateException.class)
     public void illegalSpawnUserPackagingTest() {
         final IUser user = Mockito.mock(IUser.class);
@@ -115,6 +120,19 @@ public class PacketAvatarMoveTest extends PacketServerTest {
         Assert.assertEquals(target.getUserId(), packet.getUserId());
     }
 
+    @Test
+    public void hidePackagingTest() {
+        final IUser target = Mockito.mock(IUser.class);
+
+        Mockito.when(target.getUserId()).thenReturn(randomUniqueId());
+
+        final PacketAvatarMove packet = this.getPacket(SendAction.AVATAR_HIDE, PacketAvatarMove.class, target);
+
+        Assert.assertEquals(AvatarAction.HIDE_AVATAR, packet.getAction());
+        Assert.assertNotNull(packet.getUserId());
+        Assert.assertEquals(target.getUserId(), packet.getUserId());
+    }
+
     @Test
     public void handleUnexpectedPacketTest() {
         final PacketAvatarMove packet = new PacketAvatarMove(randomEnum(Direction.class), randomFloat(), randomFloat(), randomBoolean());
@@ -10,6 +10,7 @@ import model.user.IUser;
 import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
+import utils.ImageUtils;
 import java.time.LocalDateTime;
 import java.util.logging.Level;
 
@@ -78,6 +79,30 @@ public class PacketChatMessageTest extends PacketServerTest {
         Assert.assertEquals(message.getTimestamp(), packet.getTimestamp());
     }
 
+    @Test
+    public void imagePackagingTest() {
+        final ITextMessage message = Mockito.mock(ITextMessage.class);
+        final IUser sender = Mockito.mock(IUser.class);
+        final byte[] imageData = randomBytes();
+
+        Mockito.when(sender.getUserId()).thenReturn(randomUniqueId());
+        Mockito.when(message.getMessageType()).thenReturn(randomEnum(MessageType.class, MessageType.INFO));
+        Mockito.when(message.getSender()).thenReturn(sender);
+        Mockito.when(message.getTextMessage()).thenReturn(randomString());
+        Mockito.when(message.getTimestamp()).thenReturn(LocalDateTime.now());
+        Mockito.when(message.getImageName()).thenReturn(randomString());
+        Mockito.when(message.getImageHash()).thenReturn(ImageUtils.hash(imageData));
+        Mockito.when(message.getThumbnail()).thenReturn(randomBytes());
+
+        final PacketChatMessage packet = this.getPacket(PacketChatMessage.class, message);
+
+        // Die Nachricht enthält nur den Hashwert und das Vorschaubild, nicht die Daten des Bildanhangs.
+        Assert.assertEquals(message.getImageName(), packet.getImageName());
+        Assert.assertEquals(message.getImageHash(), packet.getImageHash());
+        Assert.assertArrayEquals(message.getThumbnail(), packet.getThumbnail());
+        Assert.assertEquals(0, packet.getImageData().length);
+    }
+
     @Test
     public void infoPackagingTest() {
         final ITextMessage message = Mockito.mock(ITextMessage.class);
@@ -149,6 +174,15 @@ public class PacketChatMessageTest extends PacketServerTest {
         Assert.assertTrue(this.handler.logged());
         Assert.assertTrue(this.handler.logged(Level.WARNING, "Image-Name can not be null if an image is sent"));
         Assert.assertFalse(user.called("chat"));
+        Mockito.when(packet.getImageName()).thenReturn(randomString());
+        Mockito.when(packet.getImageData()).thenReturn(new byte[ImageUtils.MAX_IMAGE_SIZE + 1]);
+
+        this.handler.reset();
+        this.connection.handle(packet);
+
+        Assert.assertTrue(this.handler.logged());
+        Assert.assertTrue(this.handler.logged(Level.WARNING, "Image can not be larger than"));
+        Assert.assertFalse(user.called("chat"));
     }
 
     @Test
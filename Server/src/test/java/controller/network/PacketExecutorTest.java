@@ -0,0 +1,279 @@
+package controller.network;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import util.Benchmark;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+public class PacketExecutorTest {
+
+    private static final Supplier<Object> GLOBAL = () -> null;
+
+    private PacketExecutor executor;
+
+    @Before
+    public void setup() {
+        this.executor = new PacketExecutor(4, 8, 16);
+    }
+
+    @After
+    public void teardown() {
+        this.executor.shutdown();
+    }
+
+    @Test
+    public void orderTest() throws InterruptedException {
+        final Object world = new Object();
+        final List<Integer> processed = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch done = new CountDownLatch(1);
+        final PacketExecutor executor = new PacketExecutor(4, 1000, 1000);
+        final PacketExecutor.Lane ordered = executor.createLane();
+
+        for (int i = 0; i < 500; i++) {
+            final int index = i;
+
+            // Wechselnde Welten dürfen die Reihenfolge innerhalb einer Verbindung nicht verändern.
+            Assert.assertTrue(ordered.submit(() -> processed.add(index), index % 3 == 0 ? GLOBAL : () -> world, false));
+        }
+
+        ordered.close(done::countDown, GLOBAL);
+
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(500, processed.size());
+
+        for (int i = 0; i < 500; i++) {
+            Assert.assertEquals(i, (int) processed.get(i));
+        }
+
+        executor.shutdown();
+    }
+
+    @Test
+    public void parallelWorldsTest() throws InterruptedException {
+        final CountDownLatch first = new CountDownLatch(1);
+        final CountDownLatch second = new CountDownLatch(1);
+        final Object firstWorld = new Object();
+        final Object secondWorld = new Object();
+
+        // Beide Aufgaben warten aufeinander und können daher nur parallel abgeschlossen werden.
+        this.executor.createLane().submit(() -> {
+            first.countDown();
+            await(second);
+        }, () -> firstWorld, false);
+        this.executor.createLane().submit(() -> {
+            second.countDown();
+            await(first);
+        }, () -> secondWorld, false);
+
+        Assert.assertTrue(first.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(second.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void worldSerializationTest() throws InterruptedException {
+        final Object world = new Object();
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicBoolean overlapped = new AtomicBoolean();
+        final CountDownLatch done = new CountDownLatch(40);
+
+        for (int lane = 0; lane < 4; lane++) {
+            final PacketExecutor.Lane current = this.executor.createLane();
+
+            for (int i = 0; i < 10; i++) {
+                // Aufgaben innerhalb der gleichen Welt dürfen sich nicht überlappen, ebenso wenig globale Aufgaben.
+                Assert.assertTrue(current.submit(() -> {
+                    if (active.incrementAndGet() > 1) {
+                        overlapped.set(true);
+                    }
+
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(200));
+                    active.decrementAndGet();
+                    done.countDown();
+                }, i % 5 == 0 ? GLOBAL : () -> world, false));
+            }
+        }
+
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assert.assertFalse(overlapped.get());
+    }
+
+    @Test
+    public void backgroundTaskTest() throws InterruptedException {
+        final Object world = new Object();
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicBoolean overlapped = new AtomicBoolean();
+        final CountDownLatch done = new CountDownLatch(20);
+        final Runnable task = () -> {
+            if (active.incrementAndGet() > 1) {
+                overlapped.set(true);
+            }
+
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(200));
+            active.decrementAndGet();
+            done.countDown();
+        };
+        final Thread background = new Thread(() -> {
+            for (int i = 0; i < 10; i++) {
+                WorldLocks.getInstance().execute(i % 5 == 0 ? null : world, task);
+            }
+        });
+
+        // Aufgaben anderer Threads innerhalb der Welt dürfen sich nicht mit den Paketen der Welt überlappen.
+        background.start();
+        final PacketExecutor.Lane lane = this.executor.createLane();
+
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(lane.submit(task, () -> world, false));
+        }
+
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        background.join();
+        Assert.assertFalse(overlapped.get());
+    }
+
+    @Test
+    public void backpressureTest() throws InterruptedException {
+        final PacketExecutor.Lane lane = this.executor.createLane();
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+
+        Assert.assertTrue(lane.submit(() -> {
+            started.countDown();
+            await(blocked);
+        }, GLOBAL, false));
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Ab der weichen Grenze werden verzichtbare Pakete verworfen.
+        for (int i = 0; i < 8; i++) {
+            Assert.assertTrue(lane.submit(() -> {}, GLOBAL, true));
+        }
+
+        Assert.assertFalse(lane.submit(() -> {}, GLOBAL, true));
+
+        // Ab der harten Grenze werden keine Pakete mehr angenommen.
+        for (int i = 8; i < 16; i++) {
+            Assert.assertTrue(lane.submit(() -> {}, GLOBAL, false));
+        }
+
+        Assert.assertFalse(lane.submit(() -> {}, GLOBAL, false));
+        Assert.assertEquals(2, this.executor.getDroppedPackets());
+        Assert.assertEquals(16, this.executor.getQueuedPackets());
+
+        blocked.countDown();
+    }
+
+    @Test
+    public void closeTest() throws InterruptedException {
+        final PacketExecutor.Lane lane = this.executor.createLane();
+        final AtomicInteger processed = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(1);
+
+        for (int i = 0; i < 5; i++) {
+            lane.submit(processed::incrementAndGet, GLOBAL, false);
+        }
+
+        lane.close(() -> {
+            Assert.assertEquals(5, processed.get());
+            done.countDown();
+        }, GLOBAL);
+
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assert.assertFalse(lane.submit(processed::incrementAndGet, GLOBAL, false));
+    }
+
+    /*
+     * Simuliert Clients, deren Pakete in festen Abständen empfangen werden. Einzelne Pakete benötigen eine lange
+     * Verarbeitung, wie etwa Datenbankzugriffe. Gemessen wird die Zeit vom Empfang bis zum Ende der Verarbeitung.
+     */
+    @Test
+    @Category(Benchmark.class)
+    public void loadTest() throws InterruptedException {
+        final long[] inline = simulate(null);
+        final PacketExecutor executor = new PacketExecutor(4, 256, 1024);
+        final long[] pooled = simulate(executor);
+
+        executor.shutdown();
+
+        System.out.printf("Packet latency p99: network thread %.2f ms, packet executor %.2f ms%n",
+                percentile(inline, 0.99) / 1e6, percentile(pooled, 0.99) / 1e6);
+        Assert.assertTrue(percentile(pooled, 0.99) < percentile(inline, 0.99));
+    }
+
+    private static long[] simulate(final PacketExecutor executor) throws InterruptedException {
+        final int clients = 50;
+        final int worlds = 10;
+        final int packets = 2000;
+        final long interval = TimeUnit.MICROSECONDS.toNanos(100);
+        final long[] latencies = new long[packets];
+        final CountDownLatch done = new CountDownLatch(packets);
+        final List<PacketExecutor.Lane> lanes = new ArrayList<>();
+        final Object[] scopes = new Object[worlds];
+
+        for (int i = 0; i < worlds; i++) {
+            scopes[i] = new Object();
+        }
+
+        if (executor != null) {
+            for (int i = 0; i < clients; i++) {
+                lanes.add(executor.createLane());
+            }
+        }
+
+        final long start = System.nanoTime();
+
+        for (int i = 0; i < packets; i++) {
+            final int index = i;
+            final int client = i % clients;
+            final long received = start + i * interval;
+            final Runnable task = () -> {
+                if (index % 50 == 7) {
+                    // Langsames Paket, etwa ein Zugriff auf die Datenbank.
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+                }
+
+                latencies[index] = System.nanoTime() - received;
+                done.countDown();
+            };
+
+            while (System.nanoTime() < received) {
+                LockSupport.parkNanos(interval / 10);
+            }
+
+            if (executor == null) {
+                task.run();
+            } else {
+                Assert.assertTrue(lanes.get(client).submit(task, () -> scopes[client % worlds], false));
+            }
+        }
+
+        Assert.assertTrue(done.await(30, TimeUnit.SECONDS));
+        return latencies;
+    }
+
+    private static long percentile(final long[] values, final double percentile) {
+        final long[] sorted = values.clone();
+
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package controller.network;
+
+import controller.network.protocol.PacketImageChunk;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import utils.ImageUtils;
+import java.util.logging.Level;
+
+public class PacketImageChunkTest extends PacketServerTest {
+
+    @Test
+    public void handleUnexpectedPacketTest() {
+        this.handler.reset();
+        this.connection.handle(new PacketImageChunk(ImageUtils.hash(randomBytes()), 0));
+
+        Assert.assertTrue(this.handler.logged());
+        Assert.assertTrue(this.handler.logged(Level.WARNING, "Can not request image while not logged in"));
+    }
+
+    @Test
+    public void handleInvalidPacketTest() {
+        this.login();
+
+        this.handler.reset();
+        this.connection.handle(new PacketImageChunk(randomString(), 0));
+
+        Assert.assertTrue(this.handler.logged());
+        Assert.assertTrue(this.handler.logged(Level.WARNING, "Image-Hash must be valid"));
+
+        this.handler.reset();
+        this.connection.handle(new PacketImageChunk(ImageUtils.hash(randomBytes()), -1));
+
+        Assert.assertTrue(this.handler.logged());
+        Assert.assertTrue(this.handler.logged(Level.WARNING, "Image-Hash must be valid"));
+        Mockito.verify(this.endPoint, Mockito.never()).sendTCP(Mockito.any());
+    }
+}
@@ -0,0 +1,50 @@
+package controller.network;
+
+import controller.network.mock.MockIUser;
+import controller.network.protocol.PacketInViewport;
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.logging.Level;
+
+public class PacketInViewportTest extends PacketServerTest {
+
+    @Test
+    public void handleUnexpectedPacketTest() {
+        final PacketInViewport packet = new PacketInViewport(randomFloat() + 1, randomFloat() + 1);
+
+        this.handler.reset();
+        this.connection.handle(packet);
+
+        Assert.assertTrue(this.handler.logged());
+        Assert.assertTrue(this.handler.logged(Level.WARNING, "Can not change viewport while not logged in"));
+    }
+
+    @Test
+    public void handleInvalidPacketTest() {
+        final MockIUser user = this.login();
+
+        this.handler.reset();
+        this.connection.handle(new PacketInViewport(0, randomFloat() + 1));
+
+        Assert.assertTrue(this.handler.logged());
+        Assert.assertTrue(this.handler.logged(Level.WARNING, "Viewport size must be positive"));
+
+        this.handler.reset();
+        this.connection.handle(new PacketInViewport(randomFloat() + 1, Float.NaN));
+
+        Assert.assertTrue(this.handler.logged());
+        Assert.assertTrue(this.handler.logged(Level.WARNING, "Viewport size must be positive"));
+        Assert.assertFalse(user.called("set-viewport"));
+    }
+
+    @Test
+    public void handleCorrectViewportTest() {
+        final PacketInViewport packet = new PacketInViewport(randomFloat() + 1, randomFloat() + 1);
+        final MockIUser user = this.login();
+
+        this.handler.reset();
+        this.connection.handle(packet);
+
+        Assert.assertTrue(user.called("set-viewport"));
+    }
+}
@@ -0,0 +1,101 @@
+package controller.network;
+
+import controller.network.ClientSender.SendAction;
+import controller.network.protocol.PacketOutAvatarMoves;
+import controller.network.protocol.PacketOutAvatarMoves.AvatarMove;
+import controller.network.protocol.PacketOutUserInfo;
+import controller.network.protocol.PacketOutUserInfo.UserInfo;
+import controller.network.protocol.PacketOutWorldSnapshot;
+import model.context.spatial.Direction;
+import model.context.spatial.ILocation;
+import model.user.IUser;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class PacketOutAvatarMovesTest extends PacketServerTest {
+
+    public PacketOutAvatarMovesTest() {
+        super(SendAction.AVATAR_MOVES);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalPackagingTest() {
+        this.getPacket(PacketOutAvatarMoves.class, new Object());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalElementPackagingTest() {
+        this.getPacket(PacketOutAvatarMoves.class, Collections.singletonList(new Object()));
+    }
+
+    @Test
+    public void withoutLocationPackagingTest() {
+        final IUser target = Mockito.mock(IUser.class);
+
+        Mockito.when(target.getLocation()).thenReturn(null);
+
+        final PacketOutAvatarMoves packet = this.getPacket(PacketOutAvatarMoves.class, Collections.singletonList(target));
+
+        Assert.assertEquals(0, packet.getMoves().length);
+    }
+
+    @Test
+    public void correctPackagingTest() {
+        final List<IUser> targets = new ArrayList<>();
+        final int size = randomInt(31) + 1;
+
+        while (targets.size() < size) {
+            final IUser target = Mockito.mock(IUser.class);
+            final ILocation location = Mockito.mock(ILocation.class);
+
+            Mockito.when(location.getDirection()).thenReturn(randomEnum(Direction.class));
+            Mockito.when(location.getPosX()).thenReturn(randomFloat());
+            Mockito.when(location.getPosY()).thenReturn(randomFloat());
+            Mockito.when(target.getLocation()).thenReturn(location);
+            Mockito.when(target.getUserId()).thenReturn(randomUniqueId());
+            Mockito.when(target.isSprinting()).thenReturn(randomBoolean());
+            Mockito.when(target.isMovable()).thenReturn(randomBoolean());
+
+            targets.add(target);
+        }
+
+        final PacketOutAvatarMoves packet = this.getPacket(PacketOutAvatarMoves.class, targets);
+
+        Assert.assertEquals(targets.size(), packet.getMoves().length);
+
+        for (int index = 0; index < targets.size(); index++) {
+            final IUser target = targets.get(index);
+            final AvatarMove move = packet.getMoves()[index];
+
+            Assert.assertEquals(target.getUserId(), move.getUserId());
+            Assert.assertEquals(target.getLocation().getDirection(), move.getDirection());
+            Assert.assertEquals(target.getLocation().getPosX(), move.getPosX(), 0.0f);
+            Assert.assertEquals(target.getLocation().getPosY(), move.getPosY(), 0.0f);
+            Assert.assertEquals(target.isSprinting(), move.isSprinting());
+            Assert.assertEquals(target.isMovable(), move.isMovable());
+        }
+    }
+
+    @Test
+    public void orderTest() {
+        final List<PacketOutUserInfo> infos = new ArrayList<>();
+
+        while (infos.size() < 5000) {
+            infos.add(new PacketOutUserInfo(null, PacketOutUserInfo.Action.UPDATE_USER,
+                    new UserInfo(randomUniqueId(), randomString())));
+        }
+
+        final PacketOutWorldSnapshot snapshot = new PacketOutWorldSnapshot(infos, List.of(), List.of());
+        final PacketOutAvatarMoves moves = new PacketOutAvatarMoves(Collections.emptyList());
+
+        this.connection.send(snapshot);
+        this.connection.send(moves);
+
+        // Die Bewegungen warten hinter dem noch nicht vollständig übertragenen Zustand der Welt.
+        Mockito.verify(this.endPoint, Mockito.never()).sendTCP(moves);
+    }
+}
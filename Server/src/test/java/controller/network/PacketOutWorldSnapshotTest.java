@@ -0,0 +1,76 @@
+package controller.network;
+
+import controller.network.ClientSender.SendAction;
+import controller.network.protocol.PacketAvatarMove.AvatarAction;
+import controller.network.protocol.PacketOutWorldSnapshot;
+import model.context.IContext;
+import model.context.spatial.Direction;
+import model.context.spatial.ILocation;
+import model.context.spatial.WorldSnapshot;
+import model.role.IContextRole;
+import model.role.Role;
+import model.user.IUser;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import java.util.EnumSet;
+
+public class PacketOutWorldSnapshotTest extends PacketServerTest {
+
+    public PacketOutWorldSnapshotTest() {
+        super(SendAction.WORLD_SNAPSHOT);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalPackagingTest() {
+        this.getPacket(PacketOutWorldSnapshot.class, new Object());
+    }
+
+    @Test
+    public void correctPackagingTest() {
+        final WorldSnapshot snapshot = new WorldSnapshot();
+        final IUser target = Mockito.mock(IUser.class);
+        final ILocation location = Mockito.mock(ILocation.class);
+        final IContextRole role = Mockito.mock(IContextRole.class);
+        final IContext context = Mockito.mock(IContext.class);
+
+        Mockito.when(target.getUserId()).thenReturn(randomUniqueId());
+        Mockito.when(target.getLocation()).thenReturn(location);
+        Mockito.when(location.getDirection()).thenReturn(randomEnum(Direction.class));
+        Mockito.when(location.getPosX()).thenReturn(randomFloat());
+        Mockito.when(location.getPosY()).thenReturn(randomFloat());
+        Mockito.when(context.getContextId()).thenReturn(randomContextId());
+        Mockito.when(role.getUser()).thenReturn(target);
+        Mockito.when(role.getContext()).thenReturn(context);
+        Mockito.when(role.getRoles()).thenReturn(EnumSet.of(randomEnum(Role.class)));
+
+        snapshot.addUser(target);
+        snapshot.addRole(role);
+        snapshot.addAvatar(target);
+
+        final PacketOutWorldSnapshot packet = this.getPacket(PacketOutWorldSnapshot.class, snapshot);
+
+        Assert.assertEquals(1, packet.getInfos().length);
+        Assert.assertEquals(target.getUserId(), packet.getInfos()[0].getInfo().getUserId());
+        Assert.assertEquals(1, packet.getRoles().length);
+        Assert.assertEquals(target.getUserId(), packet.getRoles()[0].getUserId());
+        Assert.assertEquals(context.getContextId(), packet.getRoles()[0].getContextId());
+        Assert.assertEquals(1, packet.getAvatars().length);
+        Assert.assertEquals(AvatarAction.SPAWN_AVATAR, packet.getAvatars()[0].getAction());
+        Assert.assertEquals(target.getUserId(), packet.getAvatars()[0].getUserId());
+        Assert.assertEquals(location.getPosX(), packet.getAvatars()[0].getPosX(), 0.0f);
+        Assert.assertEquals(location.getPosY(), packet.getAvatars()[0].getPosY(), 0.0f);
+    }
+
+    @Test
+    public void sharedPackagingTest() {
+        final SharedPacket packet = new SharedPacket(SendAction.USER_JOIN, new WorldSnapshot());
+
+        Assert.assertTrue(packet.getPacket(this.user) instanceof PacketOutWorldSnapshot);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsharedPackagingTest() {
+        new SharedPacket(SendAction.WORLD_SNAPSHOT, new WorldSnapshot());
+    }
+}
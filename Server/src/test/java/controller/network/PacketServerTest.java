@@ -5,6 +5,7 @@ import controller.network.ClientSender.SendAction;
 import controller.network.mock.MockHandler;
 import controller.network.mock.MockIUser;
 import controller.network.protocol.Packet;
+import controller.network.protocol.PacketCodec;
 import controller.network.protocol.PacketProfileAction;
 import model.context.global.IGlobalContext;
 import model.exception.IllegalAccountActionException;
@@ -24,6 +25,9 @@ public abstract class PacketServerTest extends RandomTest {
     protected UserConnection connection;
     protected MockHandler handler;
 
+    protected ServerNetworkManager network;
+    protected Connection endPoint;
+
     protected IUserAccountManager manager;
     protected IGlobalContext global;
     protected IUser user;
@@ -47,10 +51,13 @@ public abstract class PacketServerTest extends RandomTest {
 
         Mockito.when(server.getAccountManager()).thenReturn(this.manager);
         Mockito.when(server.getGlobal()).thenReturn(this.global);
+        Mockito.when(server.getCodec()).thenReturn(codec());
         Mockito.when(connection.getID()).thenReturn(randomInt(100));
         Mockito.when(connection.isConnected()).thenReturn(true);
         Mockito.when(connection.toString()).thenReturn("Mock Connection");
 
+        this.network = server;
+        this.endPoint = connection;
         this.connection = new UserConnection(server, connection);
         this.handler = new MockHandler("chati.network");
     }
@@ -95,4 +102,11 @@ public abstract class PacketServerTest extends RandomTest {
 
         throw new IllegalStateException(String.format("Illegal SendAction: %s does not return class of type %s", action, clazz.getSimpleName()));
     }
+
+    private static @NotNull PacketCodec codec() {
+        final PacketSerialization serialization = new PacketSerialization();
+
+        NetworkManager.register(serialization.getKryo());
+        return serialization;
+    }
 }
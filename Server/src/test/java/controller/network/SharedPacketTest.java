@@ -0,0 +1,224 @@
+package controller.network;
+
+import com.esotericsoftware.kryonet.Connection;
+import controller.metrics.ServerMetrics;
+import controller.network.ClientSender.SendAction;
+import controller.network.protocol.PacketAudioMessage;
+import model.communication.message.AudioMessage;
+import model.user.IUser;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+import util.Benchmark;
+import utils.AudioUtils;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class SharedPacketTest {
+
+    private static final int RECIPIENTS = 200;
+    private static final int FRAMES = 10 * AudioUtils.FRAME_RATE;
+
+    private SharedPacketSerialization serialization;
+    private Connection connection;
+    private IUser user;
+    private ByteBuffer buffer;
+
+    @Before
+    public void setUp() {
+        this.serialization = new SharedPacketSerialization();
+        this.serialization.getKryo().register(LocalDateTime.class);
+        this.serialization.getKryo().register(PacketAudioMessage.class);
+        this.connection = Mockito.mock(Connection.class);
+        this.user = Mockito.mock(IUser.class);
+        this.buffer = ByteBuffer.allocate(2 * AudioUtils.FRAME_SIZE);
+    }
+
+    @Test
+    public void sharedDataTest() {
+        final AudioMessage message = musicFrame(new Random(), 0);
+        final SharedPacket shared = new SharedPacket(SendAction.AUDIO, message);
+
+        this.serialization.write(this.connection, this.buffer, SendAction.AUDIO.getPacket(this.user, message));
+        final byte[] expected = drain(this.buffer);
+
+        shared.getPacket(this.user);
+        this.serialization.write(this.connection, this.buffer, shared);
+        final byte[] first = drain(this.buffer);
+        this.serialization.write(this.connection, this.buffer, shared);
+        final byte[] second = drain(this.buffer);
+
+        // Die geteilten Daten entsprechen exakt den Daten eines einzeln versendeten Pakets.
+        Assert.assertArrayEquals(expected, first);
+        Assert.assertArrayEquals(expected, second);
+
+        this.serialization.write(this.connection, this.buffer, shared);
+        this.buffer.flip();
+        final Object received = this.serialization.read(this.connection, this.buffer);
+        Assert.assertTrue(received instanceof PacketAudioMessage);
+        Assert.assertArrayEquals(message.getAudioData(), ((PacketAudioMessage) received).getAudioData());
+        Assert.assertEquals(message.getSequence(), ((PacketAudioMessage) received).getSequence());
+    }
+
+    @Test
+    public void encodeOnceTest() {
+        final SharedPacket shared = new SharedPacket(SendAction.AUDIO, musicFrame(new Random(), 0));
+        final int[] encoded = new int[1];
+
+        Assert.assertSame(shared.getPacket(this.user), shared.getPacket(Mockito.mock(IUser.class)));
+        final byte[] data = shared.getData(packet -> {
+            encoded[0]++;
+            return new byte[0];
+        });
+        Assert.assertSame(data, shared.getData(packet -> {
+            encoded[0]++;
+            return new byte[0];
+        }));
+        Assert.assertEquals(1, encoded[0]);
+    }
+
+    @Test
+    public void metricsTest() {
+        final ServerMetrics metrics = new ServerMetrics();
+        final SharedPacketSerialization serialization = new SharedPacketSerialization(metrics);
+        final SharedPacket shared = new SharedPacket(SendAction.AUDIO, musicFrame(new Random(), 0));
+        serialization.getKryo().register(LocalDateTime.class);
+        serialization.getKryo().register(PacketAudioMessage.class);
+
+        shared.getPacket(this.user);
+        serialization.write(this.connection, this.buffer, shared);
+        final int size = drain(this.buffer).length;
+        serialization.write(this.connection, this.buffer, shared);
+        this.buffer.flip();
+        serialization.read(this.connection, this.buffer);
+
+        // Das geteilte Paket wird einmal serialisiert, aber für jeden Empfänger als versendet gezählt.
+        final ServerMetrics.PacketMetrics packet = metrics.getPacketMetrics(PacketAudioMessage.class);
+        Assert.assertEquals(1, packet.getEncode().getCount());
+        Assert.assertEquals(2, packet.getSent());
+        Assert.assertEquals(2L * size, packet.getBytesSent());
+        Assert.assertEquals(1, packet.getDecode().getCount());
+        Assert.assertEquals(size, packet.getBytesReceived());
+    }
+
+    @Test
+    public void concurrentWriteTest() throws Exception {
+        final int threads = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final List<Future<List<byte[]>>> results = new ArrayList<>();
+        final List<AudioMessage> messages = new ArrayList<>();
+
+        try {
+            for (int thread = 0; thread < threads; thread++) {
+                final AudioMessage message = musicFrame(new Random(thread), thread);
+                messages.add(message);
+                results.add(executor.submit(() -> {
+                    final ByteBuffer buffer = ByteBuffer.allocate(2 * AudioUtils.FRAME_SIZE);
+                    final List<byte[]> written = new ArrayList<>();
+
+                    for (int i = 0; i < 100; i++) {
+                        this.serialization.write(this.connection, buffer,
+                                SendAction.AUDIO.getPacket(this.user, message));
+                        written.add(drain(buffer));
+                    }
+                    return written;
+                }));
+            }
+
+            // Pakete, die gleichzeitig von mehreren Threads geschrieben werden, entsprechen den einzeln geschriebenen.
+            for (int thread = 0; thread < threads; thread++) {
+                this.serialization.write(this.connection, this.buffer,
+                        SendAction.AUDIO.getPacket(this.user, messages.get(thread)));
+                final byte[] expected = drain(this.buffer);
+
+                for (final byte[] data : results.get(thread).get()) {
+                    Assert.assertArrayEquals(expected, data);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void notCreatedTest() {
+        new SharedPacket(SendAction.AUDIO, musicFrame(new Random(), 0)).getData(packet -> new byte[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void notShareableTest() {
+        new SharedPacket(SendAction.MESSAGE, new Object());
+    }
+
+    @Test
+    @Category(Benchmark.class)
+    public void fanOutTest() {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        final Random random = new Random(0);
+
+        // Aufwärmen, damit beide Varianten kompiliert verglichen werden.
+        for (int i = 0; i < 3; i++) {
+            fanOut(random, false);
+            fanOut(random, true);
+        }
+
+        long start = bean.getCurrentThreadCpuTime();
+        fanOut(random, false);
+        final long before = bean.getCurrentThreadCpuTime() - start;
+
+        start = bean.getCurrentThreadCpuTime();
+        fanOut(random, true);
+        final long after = bean.getCurrentThreadCpuTime() - start;
+
+        System.out.printf("Fan-out of %d music frames to %d recipients: %.1f us per frame before, %.1f us per frame "
+                        + "after (%.1fx), %d packets serialized before, %d after%n", FRAMES, RECIPIENTS,
+                before / 1e3 / FRAMES, after / 1e3 / FRAMES, (double) before / after, (long) FRAMES * RECIPIENTS,
+                FRAMES);
+
+        Assert.assertTrue(after < before);
+    }
+
+    /**
+     * Versendet Musikdaten an alle Empfänger, entweder als einzelne Pakete oder als geteiltes Paket.
+     */
+    private void fanOut(final Random random, final boolean shared) {
+        for (int frame = 0; frame < FRAMES; frame++) {
+            final AudioMessage message = musicFrame(random, frame);
+            final SharedPacket packet = shared ? new SharedPacket(SendAction.AUDIO, message) : null;
+
+            for (int recipient = 0; recipient < RECIPIENTS; recipient++) {
+                if (packet != null) {
+                    packet.getPacket(this.user);
+                    this.serialization.write(this.connection, this.buffer, packet);
+                } else {
+                    this.serialization.write(this.connection, this.buffer,
+                            SendAction.AUDIO.getPacket(this.user, message));
+                }
+                this.buffer.clear();
+            }
+        }
+    }
+
+    private static AudioMessage musicFrame(final Random random, final int sequence) {
+        final byte[] data = new byte[AudioUtils.FRAME_SIZE];
+        random.nextBytes(data);
+        return new AudioMessage(data, sequence, 0.5f, 180);
+    }
+
+    private static byte[] drain(final ByteBuffer buffer) {
+        final byte[] data = Arrays.copyOf(buffer.array(), buffer.position());
+        buffer.clear();
+        return data;
+    }
+}
@@ -98,6 +98,11 @@ public class MockIUser implements IUser {
         }
     }
 
+    @Override
+    public void setViewport(final float width, final float height) {
+        this.calls.add("set-viewport");
+    }
+
     @Override
     public void type() {
         this.calls.add("type");
@@ -113,6 +118,11 @@ public class MockIUser implements IUser {
         this.calls.add("talk");
     }
 
+    @Override
+    public void stopTalking() {
+        this.calls.add("stop-talking");
+    }
+
     @Override
     public void show(final byte[] frameData) {
         this.calls.add("show");
@@ -123,6 +133,11 @@ public class MockIUser implements IUser {
         this.calls.add("share");
     }
 
+    @Override
+    public void shareTiles(final boolean keyframe, final int sequence, final int[] tiles, final byte[] tileData) {
+        this.calls.add("share-tiles");
+    }
+
     private boolean unknownUser;
     private boolean illegalUserAction;
     private boolean invalidPermission;
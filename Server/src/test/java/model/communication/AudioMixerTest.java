@@ -0,0 +1,185 @@
+package model.communication;
+
+import controller.network.ClientSender.SendAction;
+import controller.network.SharedPacket;
+import model.communication.message.MixedAudioMessage;
+import model.context.spatial.Area;
+import model.context.spatial.Location;
+import model.user.User;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import utils.AudioCodec;
+import utils.AudioUtils;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+public class AudioMixerTest {
+
+    private static final int FRAME_SAMPLES = AudioUtils.FRAME_SIZE / AudioUtils.SAMPLE_SIZE_IN_BYTES;
+
+    private AudioMixer mixer;
+    private Area area;
+    private AudioCodec codec;
+
+    @Before
+    public void setUp() {
+        this.mixer = new AudioMixer(2);
+        this.area = Mockito.mock(Area.class);
+        this.codec = CommunicationHandler.getVoiceCodec();
+
+        // Die gemischten Sprachdaten sollen verlustfrei überprüft werden.
+        CommunicationHandler.setVoiceCodec(AudioCodec.PCM);
+    }
+
+    @After
+    public void tearDown() {
+        CommunicationHandler.setVoiceCodec(this.codec);
+    }
+
+    @Test
+    public void disabledTest() {
+        final User speaker = createUser();
+
+        this.mixer.setThreshold(0);
+
+        Assert.assertFalse(this.mixer.submit(this.area, speaker, frame(100)));
+        Assert.assertEquals(0, this.mixer.getMixingAreas());
+    }
+
+    @Test
+    public void thresholdTest() {
+        final User first = createUser();
+        final User second = createUser();
+
+        // Unterhalb des Schwellwerts werden die Sprachdaten direkt weitergeleitet.
+        Assert.assertFalse(this.mixer.submit(this.area, first, frame(100)));
+        Assert.assertEquals(0, this.mixer.getMixingAreas());
+
+        Assert.assertTrue(this.mixer.submit(this.area, second, frame(200)));
+        Assert.assertTrue(this.mixer.submit(this.area, first, frame(100)));
+        Assert.assertEquals(1, this.mixer.getMixingAreas());
+    }
+
+    @Test
+    public void releaseTest() {
+        final User first = createUser();
+        final User second = createUser();
+
+        this.mixer.submit(this.area, first, frame(100));
+        this.mixer.submit(this.area, second, frame(200));
+        Assert.assertEquals(1, this.mixer.getMixingAreas());
+
+        // Nach den Stillemarkierungen gelten die Sprecher sofort als inaktiv, ohne das Zeitlimit abzuwarten.
+        this.mixer.release(this.area, first);
+        Assert.assertEquals(1, this.mixer.getMixingAreas());
+        this.mixer.release(this.area, second);
+        Assert.assertEquals(0, this.mixer.getMixingAreas());
+    }
+
+    @Test
+    public void mixTest() {
+        final User first = createUser();
+        final User second = createUser();
+        final User listener = createUser();
+
+        communicate(first, second, listener);
+
+        this.mixer.submit(this.area, first, frame(100));
+        this.mixer.submit(this.area, second, frame(200));
+        this.mixer.submit(this.area, second, frame(200));
+        this.mixer.submit(this.area, first, frame(100));
+        this.mixer.submit(this.area, first, frame(100));
+        this.mixer.tick();
+
+        Assert.assertEquals(1, this.mixer.getMixedFrames());
+
+        // Ein Sprecher hört nur die übrigen Sprecher, ein Zuhörer hört alle Sprecher.
+        assertMix(first, 200, second);
+        assertMix(second, 100, first);
+        assertMix(listener, 300, first, second);
+    }
+
+    @Test
+    public void listenerSnapshotTest() {
+        final User first = createUser();
+        final User second = createUser();
+
+        communicate(first, second);
+
+        this.mixer.submit(this.area, first, frame(100));
+        this.mixer.submit(this.area, second, frame(200));
+        this.mixer.submit(this.area, second, frame(200));
+        this.mixer.submit(this.area, first, frame(100));
+        this.mixer.submit(this.area, first, frame(100));
+
+        // Der Mischer liest die kommunizierbaren Benutzer nicht auf seinem eigenen Thread.
+        Mockito.clearInvocations(first, second);
+        this.mixer.tick();
+
+        Assert.assertEquals(1, this.mixer.getMixedFrames());
+        Mockito.verify(first, Mockito.never()).getCommunicableUsers();
+        Mockito.verify(second, Mockito.never()).getCommunicableUsers();
+        assertMix(first, 200, second);
+    }
+
+    private void assertMix(final User receiver, final int sample, final User... speakers) {
+        final ArgumentCaptor<SharedPacket> captor = ArgumentCaptor.forClass(SharedPacket.class);
+
+        Mockito.verify(receiver).send(captor.capture());
+        Assert.assertEquals(SendAction.AUDIO, captor.getValue().getAction());
+        Assert.assertTrue(captor.getValue().getObject() instanceof MixedAudioMessage);
+
+        final MixedAudioMessage message = (MixedAudioMessage) captor.getValue().getObject();
+        final short[] samples = AudioCodec.decode(message.getAudioData());
+
+        Assert.assertNull(message.getSender());
+        Assert.assertEquals(Set.of(speakers), Set.copyOf(message.getSpeakers()));
+        Assert.assertEquals(FRAME_SAMPLES, samples.length);
+        Assert.assertTrue(Arrays.stream(toInt(samples)).allMatch(value -> value == sample));
+    }
+
+    private static int[] toInt(final short[] samples) {
+        final int[] values = new int[samples.length];
+
+        for (int i = 0; i < samples.length; i++) {
+            values[i] = samples[i];
+        }
+
+        return values;
+    }
+
+    private static byte[] frame(final int sample) {
+        final short[] samples = new short[FRAME_SAMPLES];
+
+        Arrays.fill(samples, (short) sample);
+        return AudioCodec.PCM.encode(samples);
+    }
+
+    private static void communicate(final User... users) {
+        final Map<UUID, User> communicable = new HashMap<>();
+
+        for (final User user : users) {
+            communicable.put(user.getUserId(), user);
+        }
+
+        for (final User user : users) {
+            Mockito.when(user.getCommunicableUsers()).thenAnswer(invocation -> new HashMap<>(communicable));
+        }
+    }
+
+    private static User createUser() {
+        final User user = Mockito.mock(User.class);
+
+        Mockito.when(user.getUserId()).thenReturn(UUID.randomUUID());
+        Mockito.when(user.getLocation()).thenReturn(Mockito.mock(Location.class));
+        Mockito.when(user.getCommunicableUsers()).thenReturn(new HashMap<>());
+        return user;
+    }
+}
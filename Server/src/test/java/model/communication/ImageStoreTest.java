@@ -0,0 +1,67 @@
+package model.communication;
+
+import model.communication.message.ImageAttachment;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import utils.ImageUtils;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+public class ImageStoreTest {
+
+    private File directory;
+    private ImageStore store;
+
+    @Before
+    public void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("chati-images").toFile();
+        this.store = new ImageStore(this.directory, 4 * ImageUtils.CHUNK_SIZE);
+    }
+
+    @After
+    public void tearDown() {
+        final File[] files = this.directory.listFiles();
+        if (files != null) {
+            Arrays.stream(files).forEach(File::delete);
+        }
+        this.directory.delete();
+    }
+
+    @Test
+    public void storeTest() {
+        final byte[] imageData = new byte[ImageUtils.CHUNK_SIZE + 100];
+        new Random(0).nextBytes(imageData);
+
+        final ImageAttachment image = this.store.store(imageData, "image.png");
+        Assert.assertNotNull(image);
+        Assert.assertEquals("image.png", image.getName());
+        Assert.assertEquals(ImageUtils.hash(imageData), image.getHash());
+        // Die Daten enthalten kein lesbares Bild, daher kann kein Vorschaubild erzeugt werden.
+        Assert.assertEquals(0, image.getThumbnail().length);
+        Assert.assertEquals(imageData.length, this.store.getSize(image.getHash()));
+
+        // Der Bildanhang wird abschnittsweise gelesen.
+        final byte[] first = this.store.read(image.getHash(), 0);
+        final byte[] second = this.store.read(image.getHash(), ImageUtils.CHUNK_SIZE);
+        Assert.assertNotNull(first);
+        Assert.assertNotNull(second);
+        Assert.assertArrayEquals(Arrays.copyOfRange(imageData, 0, ImageUtils.CHUNK_SIZE), first);
+        Assert.assertArrayEquals(Arrays.copyOfRange(imageData, ImageUtils.CHUNK_SIZE, imageData.length), second);
+    }
+
+    @Test
+    public void missingImageTest() {
+        Assert.assertNull(this.store.store(new byte[0], "image.png"));
+        Assert.assertNull(this.store.store(new byte[]{1, 2, 3}, null));
+        Assert.assertNull(ImageStore.attach(new byte[0], null));
+
+        final String hash = ImageUtils.hash(new byte[]{1, 2, 3});
+        Assert.assertEquals(-1, this.store.getSize(hash));
+        Assert.assertNull(this.store.read(hash, 0));
+    }
+}
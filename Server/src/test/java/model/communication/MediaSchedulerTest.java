@@ -0,0 +1,145 @@
+package model.communication;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import util.Benchmark;
+import utils.AudioUtils;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MediaSchedulerTest {
+
+    private static final long DURATION = TimeUnit.SECONDS.toMillis(2);
+
+    private MediaScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        this.scheduler = new MediaScheduler(2);
+    }
+
+    @After
+    public void tearDown() {
+        this.scheduler.shutdown();
+    }
+
+    @Test
+    public void pacingTest() throws InterruptedException {
+        final int sourceCount = 16;
+        final AtomicInteger[] counters = new AtomicInteger[sourceCount];
+        final MediaScheduler.Source[] sources = new MediaScheduler.Source[sourceCount];
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < sourceCount; i++) {
+            final AtomicInteger counter = new AtomicInteger();
+            counters[i] = counter;
+            sources[i] = this.scheduler.schedule(counter::incrementAndGet);
+        }
+        Assert.assertEquals(sourceCount, this.scheduler.getSources());
+
+        Thread.sleep(DURATION);
+        for (final MediaScheduler.Source source : sources) {
+            source.cancel();
+        }
+        final long expected = (System.nanoTime() - start) / MediaScheduler.FRAME_PERIOD;
+
+        Assert.assertEquals(0, this.scheduler.getSources());
+        for (final AtomicInteger counter : counters) {
+            Assert.assertTrue("Frame count drifts: " + counter.get(), Math.abs(counter.get() - expected) <= 2);
+        }
+    }
+
+    @Test
+    @Category(Benchmark.class)
+    public void driftBenchmark() throws InterruptedException {
+        final AtomicInteger counter = new AtomicInteger();
+
+        final long start = System.nanoTime();
+        final MediaScheduler.Source source = this.scheduler.schedule(counter::incrementAndGet);
+        Thread.sleep(DURATION);
+        source.cancel();
+        final long expected = (System.nanoTime() - start) / MediaScheduler.FRAME_PERIOD;
+
+        // Vergleich mit dem bisherigen Takt, der durch Warten zwischen den Audioframes erzeugt wurde.
+        final int sleepFrames = sleepPaced(DURATION);
+
+        System.out.printf("Media pacing over %d ms: expected %d frames, scheduler %d frames, "
+                        + "Thread.sleep %d frames (%.1f%% drift), %s%n", DURATION, expected, counter.get(),
+                sleepFrames, 100.0 * (sleepFrames - expected) / expected, this.scheduler);
+        Assert.assertTrue(Math.abs(counter.get() - expected) <= Math.abs(sleepFrames - expected));
+    }
+
+    @Test
+    public void catchUpTest() throws InterruptedException {
+        final AtomicInteger counter = new AtomicInteger();
+        final long stall = 5 * MediaScheduler.FRAME_PERIOD;
+
+        final long start = System.nanoTime();
+        final MediaScheduler.Source source = this.scheduler.schedule(() -> {
+            // Ein einzelner Aufruf blockiert für mehrere Audioframes.
+            if (counter.incrementAndGet() == 10) {
+                sleep(TimeUnit.NANOSECONDS.toMillis(stall));
+            }
+        });
+
+        Thread.sleep(DURATION);
+        source.cancel();
+        final long expected = (System.nanoTime() - start) / MediaScheduler.FRAME_PERIOD;
+
+        // Die verpassten Audioframes werden bis zur Obergrenze nachgeholt, die übrigen übersprungen.
+        Assert.assertTrue(this.scheduler.getLateFrames() >= MediaScheduler.MAX_CATCH_UP_FRAMES - 1);
+        Assert.assertTrue(this.scheduler.getMissedFrames() >= 1);
+        Assert.assertTrue(this.scheduler.getMaxLateness() >= TimeUnit.NANOSECONDS.toMicros(stall / 2));
+        Assert.assertTrue(Math.abs(counter.get() + this.scheduler.getMissedFrames() - expected) <= 2);
+    }
+
+    @Test
+    public void cancelTest() throws InterruptedException {
+        final AtomicInteger counter = new AtomicInteger();
+        final MediaScheduler.Source source = this.scheduler.schedule(counter::incrementAndGet);
+
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(5 * MediaScheduler.FRAME_PERIOD));
+        source.cancel();
+        source.cancel();
+        Assert.assertTrue(source.isCancelled());
+        Assert.assertEquals(0, this.scheduler.getSources());
+
+        final int frames = counter.get();
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(5 * MediaScheduler.FRAME_PERIOD));
+        Assert.assertEquals(frames, counter.get());
+    }
+
+    @Test
+    public void exceptionTest() throws InterruptedException {
+        final AtomicInteger counter = new AtomicInteger();
+        final MediaScheduler.Source source = this.scheduler.schedule(() -> {
+            counter.incrementAndGet();
+            throw new IllegalStateException();
+        });
+
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(5 * MediaScheduler.FRAME_PERIOD));
+        source.cancel();
+        Assert.assertTrue(counter.get() > 1);
+    }
+
+    private static int sleepPaced(final long duration) throws InterruptedException {
+        final long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(duration);
+        int frames = 0;
+        while (System.nanoTime() < end) {
+            frames++;
+            Thread.sleep(955 / AudioUtils.FRAME_RATE);
+        }
+        return frames;
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
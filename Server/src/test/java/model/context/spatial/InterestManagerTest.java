@@ -0,0 +1,155 @@
+package model.context.spatial;
+
+import controller.network.ClientSender.SendAction;
+import model.communication.RadiusCommunication;
+import model.user.User;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class InterestManagerTest {
+
+    private static final float WIDTH = 20 * MapUtils.TILE_SIZE;
+    private static final float HEIGHT = 12 * MapUtils.TILE_SIZE;
+    private static final float MARGIN = InterestManager.INTEREST_MARGIN;
+
+    private Room room;
+    private SpatialGrid grid;
+    private InterestManager manager;
+    private List<User> users;
+
+    @Before
+    public void setUp() {
+        this.room = Mockito.mock(Room.class);
+        this.grid = new SpatialGrid(RadiusCommunication.DEFAULT_RADIUS);
+        this.manager = new InterestManager(grid);
+        this.users = new ArrayList<>();
+    }
+
+    @Test
+    public void spawnTest() {
+        User receiver = createUser(1000, 1000, WIDTH, HEIGHT);
+        User near = createUser(1000 + WIDTH / 2, 1000, 0, 0);
+        User distant = createUser(1000 + WIDTH + MARGIN, 1000, 0, 0);
+
+        manager.spawn(receiver, users);
+
+        Mockito.verify(receiver).send(SendAction.AVATAR_SPAWN, receiver);
+        Mockito.verify(receiver).send(SendAction.AVATAR_SPAWN, near);
+        Mockito.verify(receiver, Mockito.never()).send(SendAction.AVATAR_SPAWN, distant);
+        Assert.assertTrue(manager.isKnown(receiver, near));
+        Assert.assertFalse(manager.isKnown(receiver, distant));
+
+        // Benutzer ohne bekannten Sichtbereich erhalten alle Avatare.
+        Mockito.verify(near).send(SendAction.AVATAR_SPAWN, receiver);
+        Mockito.verify(distant).send(SendAction.AVATAR_SPAWN, receiver);
+    }
+
+    @Test
+    public void enterLeaveTest() {
+        User receiver = createUser(1000, 1000, WIDTH, HEIGHT);
+        User other = createUser(1000 + WIDTH / 4, 1000, 0, 0);
+
+        manager.spawn(receiver, users);
+        Assert.assertTrue(manager.isKnown(receiver, other));
+
+        // Innerhalb des doppelten Randes bleibt der Avatar bekannt.
+        move(other, 1000 + WIDTH / 2 + 1.5f * MARGIN, 1000);
+        manager.sendMoves(Map.of(other.getUserId(), other), users);
+        Assert.assertTrue(manager.isKnown(receiver, other));
+        Mockito.verify(receiver).send(Mockito.eq(SendAction.AVATAR_MOVES), Mockito.any(Collection.class));
+
+        // Außerhalb des doppelten Randes wird der Avatar ausgeblendet.
+        move(other, 1000 + WIDTH / 2 + 3 * MARGIN, 1000);
+        manager.sendMoves(Map.of(other.getUserId(), other), users);
+        Assert.assertFalse(manager.isKnown(receiver, other));
+        Mockito.verify(receiver).send(SendAction.AVATAR_HIDE, other);
+
+        // Betritt der Avatar den Sichtbereich, wird er wieder eingeblendet.
+        move(other, 1000, 1000 + HEIGHT / 4);
+        manager.sendMoves(Map.of(other.getUserId(), other), users);
+        Assert.assertTrue(manager.isKnown(receiver, other));
+        Mockito.verify(receiver, Mockito.times(2)).send(SendAction.AVATAR_SPAWN, other);
+    }
+
+    @Test
+    public void receiverMoveTest() {
+        User receiver = createUser(1000, 1000, WIDTH, HEIGHT);
+        User other = createUser(1000 + 2 * WIDTH, 1000, 0, 0);
+
+        manager.spawn(receiver, users);
+        Assert.assertFalse(manager.isKnown(receiver, other));
+
+        // Bewegt sich der Benutzer selbst, verschiebt sich sein Sichtbereich.
+        move(receiver, 1000 + 2 * WIDTH - WIDTH / 4, 1000);
+        manager.sendMoves(Map.of(receiver.getUserId(), receiver), users);
+        Assert.assertTrue(manager.isKnown(receiver, other));
+        Mockito.verify(receiver).send(SendAction.AVATAR_SPAWN, other);
+    }
+
+    @Test
+    public void mapBorderTest() {
+        // Am Rand der Karte ist der Sichtbereich nicht um den Benutzer zentriert.
+        User receiver = createUser(10, 10, WIDTH, HEIGHT);
+        User other = createUser(WIDTH - 10, HEIGHT - 10, 0, 0);
+
+        manager.setMapSize(10 * WIDTH, 10 * HEIGHT);
+        manager.spawn(receiver, users);
+        Assert.assertTrue(manager.isKnown(receiver, other));
+    }
+
+    @Test
+    public void removeTest() {
+        User receiver = createUser(1000, 1000, WIDTH, HEIGHT);
+        User other = createUser(1000, 1000, 0, 0);
+
+        manager.spawn(receiver, users);
+        Assert.assertTrue(manager.isKnown(receiver, other));
+
+        manager.remove(other);
+        Assert.assertFalse(manager.isKnown(receiver, other));
+    }
+
+    @Test
+    public void collectTest() {
+        User receiver = createUser(1000, 1000, WIDTH, HEIGHT);
+        User near = createUser(1000 + WIDTH / 4, 1000, 0, 0);
+        User distant = createUser(1000 + WIDTH + MARGIN, 1000, 0, 0);
+
+        // Die gesammelten Avatare werden als bekannt vermerkt, aber nicht einzeln versendet.
+        Assert.assertEquals(List.of(near), manager.collect(receiver, users));
+        Assert.assertTrue(manager.isKnown(receiver, near));
+        Assert.assertFalse(manager.isKnown(receiver, distant));
+
+        manager.spawn(receiver, users);
+        Mockito.verify(receiver).send(SendAction.AVATAR_SPAWN, receiver);
+        Mockito.verify(receiver, Mockito.never()).send(SendAction.AVATAR_SPAWN, near);
+        Assert.assertTrue(manager.collect(receiver, users).isEmpty());
+    }
+
+    private @NotNull User createUser(final float posX, final float posY, final float width, final float height) {
+        User user = Mockito.mock(User.class);
+        Location location = new Location(room, Direction.UP, posX, posY);
+        UUID userId = UUID.randomUUID();
+        Mockito.when(user.getUserId()).thenReturn(userId);
+        Mockito.when(user.getLocation()).thenReturn(location);
+        Mockito.when(user.getViewportWidth()).thenReturn(width);
+        Mockito.when(user.getViewportHeight()).thenReturn(height);
+        grid.update(user, location);
+        manager.add(user);
+        users.add(user);
+        return user;
+    }
+
+    private void move(@NotNull final User user, final float posX, final float posY) {
+        user.getLocation().setPosition(posX, posY);
+        grid.update(user, user.getLocation());
+    }
+}
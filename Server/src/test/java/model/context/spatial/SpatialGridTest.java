@@ -0,0 +1,142 @@
+package model.context.spatial;
+
+import model.communication.RadiusCommunication;
+import model.user.User;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+import util.Benchmark;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+public class SpatialGridTest {
+
+    private static final float RADIUS = RadiusCommunication.DEFAULT_RADIUS;
+    private static final float MAP_SIZE = 100 * MapUtils.TILE_SIZE;
+
+    private Room room;
+    private SpatialGrid grid;
+
+    @Before
+    public void setUp() {
+        this.room = Mockito.mock(Room.class);
+        this.grid = new SpatialGrid(RADIUS);
+    }
+
+    @Test
+    public void updateTest() {
+        User user = createUser(10, 10);
+        User other = createUser(10 + RADIUS, 10);
+        User distant = createUser(10 + 3 * RADIUS, 10);
+
+        grid.update(user, user.getLocation());
+        grid.update(other, other.getLocation());
+        grid.update(distant, distant.getLocation());
+        Assert.assertEquals(3, grid.size());
+
+        Map<UUID, User> nearby = grid.getUsers(user.getLocation(), RADIUS);
+        Assert.assertTrue(nearby.containsKey(user.getUserId()));
+        Assert.assertTrue(nearby.containsKey(other.getUserId()));
+        Assert.assertFalse(nearby.containsKey(distant.getUserId()));
+
+        // Bewege den entfernten Benutzer in den Radius.
+        distant.getLocation().setPosition(10, 10 + RADIUS / 2);
+        grid.update(distant, distant.getLocation());
+        Assert.assertEquals(3, grid.size());
+        Assert.assertTrue(grid.getUsers(user.getLocation(), RADIUS).containsKey(distant.getUserId()));
+    }
+
+    @Test
+    public void removeTest() {
+        User user = createUser(10, 10);
+        User other = createUser(20, 20);
+
+        grid.update(user, user.getLocation());
+        grid.update(other, other.getLocation());
+        grid.remove(other);
+
+        Assert.assertEquals(1, grid.size());
+        Assert.assertFalse(grid.getUsers(user.getLocation(), RADIUS).containsKey(other.getUserId()));
+    }
+
+    @Test
+    public void negativeCoordinatesTest() {
+        User user = createUser(1, 1);
+        User other = createUser(-RADIUS / 2, -RADIUS / 2);
+
+        grid.update(user, user.getLocation());
+        grid.update(other, other.getLocation());
+        Assert.assertTrue(grid.getUsers(user.getLocation(), RADIUS).containsKey(other.getUserId()));
+    }
+
+    @Test
+    public void equivalenceTest() {
+        List<User> users = createUsers(500, new Random(42));
+        users.forEach(user -> grid.update(user, user.getLocation()));
+
+        for (final User user : users) {
+            Assert.assertEquals(filterUsers(users, user).keySet(), grid.getUsers(user.getLocation(), RADIUS).keySet());
+        }
+    }
+
+    @Test
+    @Category(Benchmark.class)
+    public void benchmarkTest() {
+        for (final int count : new int[]{50, 500, 2000}) {
+            SpatialGrid grid = new SpatialGrid(RADIUS);
+            List<User> users = createUsers(count, new Random(count));
+            users.forEach(user -> grid.update(user, user.getLocation()));
+
+            long start = System.nanoTime();
+            int filtered = 0;
+            for (final User user : users) {
+                filtered += filterUsers(users, user).size();
+            }
+            long filterTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int queried = 0;
+            for (final User user : users) {
+                queried += grid.getUsers(user.getLocation(), RADIUS).size();
+            }
+            long gridTime = System.nanoTime() - start;
+
+            Assert.assertEquals(filtered, queried);
+            System.out.printf("%d avatars: filter %.3f ms, grid %.3f ms%n", count, filterTime / 1e6, gridTime / 1e6);
+        }
+    }
+
+    private @NotNull List<User> createUsers(final int count, @NotNull final Random random) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(createUser(random.nextFloat() * MAP_SIZE, random.nextFloat() * MAP_SIZE));
+        }
+        return users;
+    }
+
+    private @NotNull User createUser(final float posX, final float posY) {
+        User user = Mockito.mock(User.class);
+        Location location = new Location(room, Direction.UP, posX, posY);
+        UUID userId = UUID.randomUUID();
+        Mockito.when(user.getUserId()).thenReturn(userId);
+        Mockito.when(user.getLocation()).thenReturn(location);
+        return user;
+    }
+
+    /*
+     * Entspricht dem bisherigen Vorgehen, bei dem alle Benutzer des Raums auf ihre Distanz überprüft werden.
+     */
+    private @NotNull Map<UUID, User> filterUsers(@NotNull final List<User> users, @NotNull final User user) {
+        Map<UUID, User> communicableUsers = new HashMap<>();
+        users.forEach(other -> communicableUsers.put(other.getUserId(), other));
+        communicableUsers.values().removeIf(other -> user.getLocation().distance(other.getLocation()) > RADIUS);
+        return communicableUsers;
+    }
+}
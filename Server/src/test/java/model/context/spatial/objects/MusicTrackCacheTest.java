@@ -0,0 +1,262 @@
+package model.context.spatial.objects;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import utils.AudioUtils;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class MusicTrackCacheTest {
+
+    private static final int CHANNELS = 2;
+    private static final int SECONDS = 180;
+
+    private MusicTrackCache cache;
+
+    @Before
+    public void setUp() {
+        this.cache = new MusicTrackCache();
+    }
+
+    @Test
+    public void readTest() throws Exception {
+        final MusicTrack track = this.cache.acquire("test", () -> stereo(3));
+        final MusicTrack.Reader reader = track.openReader();
+        final long length = 3L * AudioUtils.SAMPLING_RATE * 2;
+
+        Assert.assertEquals(length, track.getLength());
+        Assert.assertEquals(length, readAll(reader));
+        Assert.assertTrue(track.isComplete());
+        Assert.assertEquals(0, reader.read(length, new byte[AudioUtils.FRAME_SIZE]));
+    }
+
+    @Test
+    public void lazyDecodingTest() throws Exception {
+        final MusicTrack track = this.cache.acquire("test", () -> stereo(SECONDS));
+
+        track.openReader().read(0, new byte[AudioUtils.FRAME_SIZE]);
+        Assert.assertFalse(track.isComplete());
+        Assert.assertEquals(MusicTrack.CHUNK_SIZE, track.getDecodedSize());
+    }
+
+    @Test
+    public void budgetTest() throws Exception {
+        final MusicTrack track = this.cache.acquire("test", () -> stereo(SECONDS));
+        final byte[] block = new byte[AudioUtils.FRAME_SIZE];
+        final MusicTrack.Reader reader = track.openReader();
+
+        // Von den dekodierten Blöcken werden nur so viele gehalten, wie in das Speicherbudget passen.
+        for (long position = 0; position < 100L * MusicTrack.CHUNK_SIZE; position += block.length) {
+            reader.read(position, block);
+        }
+
+        Assert.assertEquals(MusicTrack.MEMORY_BUDGET, track.getDecodedSize());
+    }
+
+    @Test
+    public void loopTest() throws Exception {
+        final int[] opened = new int[1];
+        final MusicTrack track = this.cache.acquire("test", () -> {
+            opened[0]++;
+            return stereo(30);
+        });
+        final MusicTrack.Reader reader = track.openReader();
+
+        // Ein Musikstück, das in das Speicherbudget passt, wird beim wiederholten Abspielen nicht erneut dekodiert.
+        Assert.assertEquals(track.getLength(), readAll(reader));
+        Assert.assertEquals(track.getLength(), readAll(reader));
+        Assert.assertEquals(1, opened[0]);
+        Assert.assertEquals(track.getLength(), track.getDecodedSize());
+    }
+
+    @Test
+    public void laggingReaderTest() throws Exception {
+        final int[] opened = new int[1];
+        final long budget = 4L * MusicTrack.CHUNK_SIZE;
+        final MusicTrack track = new MusicTrack("test", () -> {
+            opened[0]++;
+            return stereo(30);
+        }, budget);
+        final byte[] block = new byte[AudioUtils.FRAME_SIZE];
+        final MusicTrack.Reader leader = track.openReader();
+
+        for (long position = 0; position < 10L * MusicTrack.CHUNK_SIZE; position += block.length) {
+            leader.read(position, block);
+        }
+
+        // Ein später gestarteter Leser liegt vor den gehaltenen Blöcken und dekodiert das Musikstück erneut.
+        final MusicTrack.Reader lagging = track.openReader();
+
+        Assert.assertEquals(track.getLength(), readAll(lagging));
+        Assert.assertEquals(2, opened[0]);
+
+        // Nach dem Erreichen der gehaltenen Blöcke liest der Leser wieder die gemeinsamen Daten.
+        Assert.assertTrue(track.isComplete());
+        Assert.assertTrue(track.getDecodedSize() <= budget);
+    }
+
+    @Test
+    public void laggingReaderLockTest() throws Exception {
+        final CountDownLatch opening = new CountDownLatch(1);
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final int[] opened = new int[1];
+        final MusicTrack track = new MusicTrack("test", () -> {
+            if (opened[0]++ > 0) {
+                opening.countDown();
+                try {
+                    blocked.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return stereo(30);
+        }, 4L * MusicTrack.CHUNK_SIZE);
+        final byte[] block = new byte[AudioUtils.FRAME_SIZE];
+        final MusicTrack.Reader leader = track.openReader();
+        long position = 0;
+
+        while (position < 10L * MusicTrack.CHUNK_SIZE) {
+            position += leader.read(position, block);
+        }
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            final Future<Integer> lagging = executor.submit(() -> track.openReader().read(0, new byte[block.length]));
+            Assert.assertTrue(opening.await(1, TimeUnit.SECONDS));
+
+            // Das erneute Öffnen des Musikstücks für einen zurückliegenden Leser blockiert die übrigen Leser nicht.
+            for (int i = 0; i < 100; i++) {
+                position += leader.read(position, block);
+            }
+
+            Assert.assertFalse(lagging.isDone());
+            blocked.countDown();
+            Assert.assertEquals(block.length, (int) lagging.get(1, TimeUnit.SECONDS));
+        } finally {
+            blocked.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shareTest() throws Exception {
+        final int[] opened = new int[1];
+        final MusicTrackCache.TrackSource source = () -> {
+            opened[0]++;
+            return stereo(1);
+        };
+
+        final MusicTrack first = this.cache.acquire("test", source);
+        final MusicTrack second = this.cache.acquire("test", source);
+        Assert.assertSame(first, second);
+        Assert.assertEquals(1, opened[0]);
+        Assert.assertEquals(1, this.cache.getTrackCount());
+
+        this.cache.release(first);
+        Assert.assertEquals(1, this.cache.getTrackCount());
+        this.cache.release(second);
+        Assert.assertEquals(0, this.cache.getTrackCount());
+
+        // Ein nicht mehr verwendetes Musikstück wird beim erneuten Anfordern wieder geöffnet.
+        Assert.assertNotSame(first, this.cache.acquire("test", source));
+        Assert.assertEquals(2, opened[0]);
+    }
+
+    @Test
+    public void memoryTest() throws Exception {
+        final int jukeboxes = 10;
+        final long monoSize = (long) SECONDS * AudioUtils.SAMPLING_RATE * 2;
+        final int[] opened = new int[1];
+
+        // Die Jukeboxen starten das Musikstück jeweils eine Sekunde nach der vorherigen Jukebox.
+        final MusicTrack[] tracks = new MusicTrack[jukeboxes];
+        final MusicTrack.Reader[] readers = new MusicTrack.Reader[jukeboxes];
+        final long[] positions = new long[jukeboxes];
+        final byte[] block = new byte[AudioUtils.FRAME_SIZE];
+        long peak = 0;
+
+        for (int frame = 0; positions[jukeboxes - 1] < monoSize; frame++) {
+            for (int i = 0; i < jukeboxes; i++) {
+                if (frame == i * AudioUtils.FRAME_RATE) {
+                    tracks[i] = this.cache.acquire("test", () -> {
+                        opened[0]++;
+                        return stereo(SECONDS);
+                    });
+                    readers[i] = tracks[i].openReader();
+                }
+
+                if (readers[i] != null && positions[i] < monoSize) {
+                    positions[i] += readers[i].read(positions[i], block);
+                }
+            }
+
+            peak = Math.max(peak, this.cache.getMemoryUsage());
+        }
+
+        // Die versetzt startenden Jukeboxen lesen die gemeinsam gehaltenen Blöcke, ohne das Musikstück erneut zu
+        // dekodieren, und der Speicherbedarf bleibt auf das Budget beschränkt, anstatt das Musikstück vollständig
+        // zu halten.
+        Assert.assertEquals(1, opened[0]);
+        Assert.assertTrue(peak <= MusicTrack.MEMORY_BUDGET);
+        Assert.assertTrue(peak * 3 < monoSize);
+
+        for (int i = 0; i < jukeboxes; i++) {
+            readers[i].close();
+            this.cache.release(tracks[i]);
+        }
+        Assert.assertEquals(0, this.cache.getMemoryUsage());
+    }
+
+    /**
+     * Liest das Musikstück vom Anfang bis zum Ende und überprüft dabei die gelesenen Samples.
+     * @return Position des Endes.
+     */
+    private static long readAll(final MusicTrack.Reader reader) throws IOException {
+        final byte[] block = new byte[AudioUtils.FRAME_SIZE];
+        long position = 0;
+        int read;
+
+        do {
+            read = reader.read(position, block);
+            for (int i = 0; i < read; i += 2) {
+                final short sample = (short) ((block[i] & 0xff) | block[i + 1] << 8);
+                Assert.assertEquals(left(position / 2 + i / 2), sample);
+            }
+            position += read;
+        } while (read == block.length);
+
+        return position;
+    }
+
+    /**
+     * Erzeugt ein Musikstück in Stereo, dessen Kanäle sich unterscheiden.
+     */
+    private static AudioInputStream stereo(final int seconds) throws IOException {
+        final int frames = seconds * AudioUtils.SAMPLING_RATE;
+        final byte[] data = new byte[frames * CHANNELS * 2];
+        for (int frame = 0; frame < frames; frame++) {
+            final short left = left(frame);
+            final short right = (short) -left;
+            data[4 * frame] = (byte) left;
+            data[4 * frame + 1] = (byte) (left >> 8);
+            data[4 * frame + 2] = (byte) right;
+            data[4 * frame + 3] = (byte) (right >> 8);
+        }
+        final AudioFormat format = new AudioFormat(AudioUtils.SAMPLING_RATE, 16, CHANNELS, true, false);
+        return new AudioInputStream(new ByteArrayInputStream(data), format, frames);
+    }
+
+    private static short left(final long frame) {
+        return (short) (frame * 7919 % 65536 - 32768);
+    }
+}
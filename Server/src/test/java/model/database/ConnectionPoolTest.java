@@ -0,0 +1,256 @@
+package model.database;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.mock.graphics.MockGL20;
+import model.MessageBundle;
+import model.context.global.GlobalContext;
+import model.notification.Notification;
+import model.user.User;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import util.Benchmark;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+public class ConnectionPoolTest {
+
+    private static final String dbURL = "jdbc:derby:ChatiDB;create=true";
+    private static final String SQL_QUERY_PASSWORD = "SELECT PSW_SALT, PSW_HASH FROM USER_ACCOUNT WHERE USER_NAME = ?";
+
+    private ConnectionPool pool;
+
+    @BeforeClass
+    public static void openGdx() {
+        new HeadlessApplication(new ApplicationAdapter() {
+            @Override
+            public void create() {
+                Gdx.gl = new MockGL20();
+            }
+        });
+    }
+
+    @AfterClass
+    public static void closeGdx() {
+        Gdx.app.exit();
+    }
+
+    @Before
+    public void setUp() {
+        // Erzeugt die Tabellen der Datenbank, falls diese noch nicht existieren.
+        Database.getUserAccountManagerDatabase();
+        this.pool = new ConnectionPool(dbURL, 2);
+    }
+
+    @After
+    public void tearDown() {
+        this.pool.close();
+        deleteData("USER_ACCOUNT");
+        deleteData("NOTIFICATION");
+    }
+
+    private void deleteData(String tableName) {
+        try {
+            Connection con = DriverManager.getConnection(dbURL);
+            Statement st = con.createStatement();
+            st.executeUpdate("DELETE FROM " + tableName);
+            st.close();
+            con.close();
+        } catch (SQLException e) {
+            System.out.print("Fehler in deleteData: " + e);
+        }
+    }
+
+    @Test
+    public void reuseConnectionTest() throws SQLException {
+        Connection first = this.pool.getConnection();
+        Assert.assertEquals(1, this.pool.getActiveConnections());
+        first.close();
+
+        Assert.assertTrue(first.isClosed());
+        Assert.assertEquals(0, this.pool.getActiveConnections());
+        Assert.assertEquals(1, this.pool.getIdleConnections());
+
+        Connection second = this.pool.getConnection();
+        second.close();
+
+        Assert.assertEquals(1, this.pool.getCreatedConnections());
+        Assert.assertEquals(2, this.pool.getBorrowedConnections());
+    }
+
+    @Test(expected = SQLException.class)
+    public void useReturnedConnectionTest() throws SQLException {
+        Connection con = this.pool.getConnection();
+        con.close();
+
+        con.createStatement();
+    }
+
+    @Test
+    public void closeTwiceTest() throws SQLException {
+        Connection con = this.pool.getConnection();
+        con.close();
+        con.close();
+
+        Assert.assertEquals(0, this.pool.getActiveConnections());
+        Assert.assertEquals(1, this.pool.getIdleConnections());
+    }
+
+    @Test
+    public void statementCacheTest() throws SQLException {
+        for (int i = 0; i < 3; i++) {
+            Connection con = this.pool.getConnection();
+            PreparedStatement ps = con.prepareStatement(SQL_QUERY_PASSWORD,
+                    ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+            ps.setString(1, "name");
+            ResultSet res = ps.executeQuery();
+            Assert.assertFalse(res.next());
+            res.close();
+            ps.close();
+            con.close();
+        }
+
+        Assert.assertEquals(1, this.pool.getStatementMisses());
+        Assert.assertEquals(2, this.pool.getStatementHits());
+
+        // Andere Eigenschaften der Ergebnismenge erfordern eine eigene Anweisung.
+        Connection con = this.pool.getConnection();
+        con.prepareStatement(SQL_QUERY_PASSWORD).close();
+        con.close();
+
+        Assert.assertEquals(2, this.pool.getStatementMisses());
+    }
+
+    @Test
+    public void timeoutTest() throws SQLException {
+        this.pool.close();
+        this.pool = new ConnectionPool(dbURL, 2, 100);
+
+        Connection first = this.pool.getConnection();
+        Connection second = this.pool.getConnection();
+
+        // Der Pool ist erschöpft, daher schlägt der Zugriff nach der Wartezeit fehl, ohne eine Verbindung zu öffnen.
+        long start = System.nanoTime();
+        try {
+            this.pool.getConnection();
+            Assert.fail();
+        } catch (SQLException ex) {
+            Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+        }
+        Assert.assertEquals(1, this.pool.getTimeouts());
+        Assert.assertEquals(2, this.pool.getActiveConnections());
+
+        first.close();
+        Connection next = this.pool.getConnection();
+        next.close();
+        second.close();
+
+        Assert.assertEquals(2, this.pool.getIdleConnections());
+        Assert.assertEquals(2, this.pool.getCreatedConnections());
+    }
+
+    @Test
+    public void discardClosedConnectionTest() throws SQLException {
+        Connection con = this.pool.getConnection();
+        Connection physical = con.unwrap(Connection.class);
+        physical.close();
+        con.close();
+
+        Assert.assertEquals(0, this.pool.getIdleConnections());
+        Assert.assertEquals(1, this.pool.getDiscardedConnections());
+
+        Connection next = this.pool.getConnection();
+        Assert.assertFalse(next.isClosed());
+        next.close();
+
+        Assert.assertEquals(2, this.pool.getCreatedConnections());
+    }
+
+    @Test
+    public void closePoolTest() throws SQLException {
+        Connection con = this.pool.getConnection();
+        this.pool.getConnection().close();
+        this.pool.close();
+
+        Assert.assertEquals(0, this.pool.getIdleConnections());
+        con.close();
+        Assert.assertEquals(2, this.pool.getDiscardedConnections());
+    }
+
+    @Test(expected = SQLException.class)
+    public void borrowFromClosedPoolTest() throws SQLException {
+        this.pool.close();
+        this.pool.getConnection();
+    }
+
+    /*
+     * Vergleicht den Durchsatz der Anfragen von checkPassword und addNotification mit und ohne Pool. Die Zeiten werden
+     * nur ausgegeben, da sie von der Umgebung abhängen.
+     */
+    @Test
+    @Category(Benchmark.class)
+    public void throughputBenchmark() throws SQLException {
+        IUserAccountManagerDatabase accountDatabase = Database.getUserAccountManagerDatabase();
+        IUserDatabase userDatabase = Database.getUserDatabase();
+        User user = accountDatabase.createAccount("name", "111");
+        int operations = 500;
+
+        // Aufwärmen, damit beide Varianten mit übersetzten Anweisungen der Datenbank gemessen werden.
+        queryPassword(operations / 10, false);
+        queryPassword(operations / 10, true);
+
+        long unpooled = queryPassword(operations, false);
+        long pooled = queryPassword(operations, true);
+
+        System.out.printf("checkPassword query: unpooled %.0f ops/s, pooled %.0f ops/s%n",
+                operations * 1e9 / unpooled, operations * 1e9 / pooled);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < operations / 5; i++) {
+            accountDatabase.checkPassword("name", "111");
+        }
+        long checkPassword = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            userDatabase.addNotification(user, new Notification(user, GlobalContext.getInstance(),
+                    new MessageBundle("notification")));
+        }
+        long addNotification = System.nanoTime() - start;
+
+        System.out.printf("Database: checkPassword %.0f ops/s, addNotification %.0f ops/s%n",
+                operations / 5 * 1e9 / checkPassword, operations * 1e9 / addNotification);
+        System.out.println(((Database) accountDatabase).getConnectionPool());
+
+        Assert.assertTrue(accountDatabase.checkPassword("name", "111"));
+    }
+
+    private long queryPassword(int operations, boolean pooled) throws SQLException {
+        long start = System.nanoTime();
+
+        for (int i = 0; i < operations; i++) {
+            Connection con = pooled ? this.pool.getConnection() : DriverManager.getConnection(dbURL);
+            PreparedStatement ps = con.prepareStatement(SQL_QUERY_PASSWORD,
+                    ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+            ps.setString(1, "name");
+            ResultSet res = ps.executeQuery();
+            Assert.assertTrue(res.next());
+            res.close();
+            ps.close();
+            con.close();
+        }
+
+        return System.nanoTime() - start;
+    }
+}
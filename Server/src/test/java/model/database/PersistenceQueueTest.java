@@ -0,0 +1,214 @@
+package model.database;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.mock.graphics.MockGL20;
+import model.database.PersistenceQueue.Mutation;
+import model.user.Avatar;
+import model.user.User;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+public class PersistenceQueueTest {
+
+    private static final String dbURL = "jdbc:derby:ChatiDB;create=true";
+    private static final String SQL_UPDATE_AVATAR = "UPDATE USER_ACCOUNT SET AVATAR_NAME = ? WHERE USER_ID = ?";
+    private static final String SQL_INSERT_FRIENDSHIP = "INSERT INTO FRIENDSHIP(USER_ID1, USER_ID2) values (?,?)";
+    private static final String SQL_DELETE_FRIENDSHIP = "DELETE FROM FRIENDSHIP WHERE USER_ID1 = ? AND USER_ID2 = ?";
+
+    private IUserAccountManagerDatabase account_database;
+    private ConnectionPool pool;
+    private PersistenceQueue queue;
+
+    @BeforeClass
+    public static void openGdx() {
+        new HeadlessApplication(new ApplicationAdapter() {
+            @Override
+            public void create() {
+                Gdx.gl = new MockGL20();
+            }
+        });
+    }
+
+    @AfterClass
+    public static void closeGdx() {
+        Gdx.app.exit();
+    }
+
+    @Before
+    public void setUp() {
+        this.account_database = Database.getUserAccountManagerDatabase();
+        this.pool = new ConnectionPool(dbURL, 2);
+        this.queue = new PersistenceQueue(this.pool, 16, 4);
+    }
+
+    @After
+    public void tearDown() {
+        this.queue.close();
+        this.pool.close();
+        deleteData("USER_ACCOUNT");
+        deleteData("FRIENDSHIP");
+    }
+
+    private void deleteData(String tableName) {
+        try {
+            Connection con = DriverManager.getConnection(dbURL);
+            Statement st = con.createStatement();
+            st.executeUpdate("DELETE FROM " + tableName);
+            st.close();
+            con.close();
+        } catch (SQLException e) {
+            System.out.print("Fehler in deleteData: " + e);
+        }
+    }
+
+    @Test
+    public void coalesceTest() {
+        User user = this.account_database.createAccount("coalesce", "111");
+        Assert.assertNotNull(user);
+
+        for (Avatar avatar : new Avatar[]{Avatar.ADAM, Avatar.ALEX, Avatar.BOB, Avatar.LUCY}) {
+            Assert.assertTrue(this.queue.submit(updateAvatar(user, avatar)));
+        }
+
+        Assert.assertEquals(1, this.queue.getQueueDepth());
+        Assert.assertEquals(3, this.queue.getCoalescedMutations());
+
+        this.queue.start();
+        Assert.assertTrue(this.queue.flush(5000));
+
+        Assert.assertEquals(0, this.queue.getQueueDepth());
+        Assert.assertEquals(1, this.queue.getCommittedMutations());
+        Assert.assertEquals(Avatar.LUCY.name(), queryString("SELECT AVATAR_NAME FROM USER_ACCOUNT WHERE USER_ID = '"
+                + user.getUserId() + "'"));
+    }
+
+    @Test
+    public void orderTest() {
+        User first = this.account_database.createAccount("first", "111");
+        User second = this.account_database.createAccount("second", "222");
+        Assert.assertNotNull(first);
+        Assert.assertNotNull(second);
+
+        this.queue.start();
+
+        // Einfügen und Löschen dürfen nicht zusammengefasst oder vertauscht werden.
+        for (int i = 0; i < 5; i++) {
+            this.queue.submit(friendship(SQL_INSERT_FRIENDSHIP, first, second));
+            this.queue.submit(friendship(SQL_DELETE_FRIENDSHIP, first, second));
+        }
+        this.queue.submit(friendship(SQL_INSERT_FRIENDSHIP, first, second));
+
+        Assert.assertTrue(this.queue.flush(5000));
+        Assert.assertEquals(11, this.queue.getCommittedMutations());
+        Assert.assertEquals("1", queryString("SELECT COUNT(*) FROM FRIENDSHIP"));
+    }
+
+    @Test
+    public void failedMutationTest() {
+        User first = this.account_database.createAccount("first", "111");
+        User second = this.account_database.createAccount("second", "222");
+        Assert.assertNotNull(first);
+        Assert.assertNotNull(second);
+
+        this.queue.submit(updateAvatar(first, Avatar.BOB));
+        this.queue.submit(new Mutation(SQL_UPDATE_AVATAR, null, "fail", ps -> {
+            throw new SQLException("Test");
+        }));
+        this.queue.submit(updateAvatar(second, Avatar.LUCY));
+        this.queue.start();
+
+        // Eine fehlerhafte Änderung darf die übrigen Änderungen der Transaktion nicht verwerfen.
+        Assert.assertTrue(this.queue.flush(5000));
+        Assert.assertEquals(2, this.queue.getCommittedMutations());
+        Assert.assertEquals(1, this.queue.getFailedMutations());
+        Assert.assertEquals(Avatar.BOB.name(), queryString("SELECT AVATAR_NAME FROM USER_ACCOUNT WHERE USER_ID = '"
+                + first.getUserId() + "'"));
+        Assert.assertEquals(Avatar.LUCY.name(), queryString("SELECT AVATAR_NAME FROM USER_ACCOUNT WHERE USER_ID = '"
+                + second.getUserId() + "'"));
+    }
+
+    @Test
+    public void overflowTest() {
+        User first = this.account_database.createAccount("first", "111");
+        User second = this.account_database.createAccount("second", "222");
+        Assert.assertNotNull(first);
+        Assert.assertNotNull(second);
+
+        this.queue.close();
+        this.queue = new PersistenceQueue(this.pool, 1, 4, 50);
+
+        Assert.assertTrue(this.queue.submit(updateAvatar(first, Avatar.BOB)));
+
+        // Die Warteschlange ist voll, daher wird die Änderung nach der Wartezeit direkt geschrieben.
+        long start = System.nanoTime();
+        Assert.assertTrue(this.queue.submit(updateAvatar(second, Avatar.LUCY)));
+        Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        Assert.assertEquals(1, this.queue.getOverflowMutations());
+        Assert.assertEquals(1, this.queue.getCommittedMutations());
+        Assert.assertEquals(1, this.queue.getQueueDepth());
+        Assert.assertEquals(Avatar.LUCY.name(), queryString("SELECT AVATAR_NAME FROM USER_ACCOUNT WHERE USER_ID = '"
+                + second.getUserId() + "'"));
+
+        // Eine zusammenfassbare Änderung wartet nicht auf freien Platz.
+        Assert.assertTrue(this.queue.submit(updateAvatar(first, Avatar.ADAM)));
+        Assert.assertEquals(1, this.queue.getCoalescedMutations());
+        Assert.assertEquals(1, this.queue.getOverflowMutations());
+    }
+
+    @Test
+    public void closeTest() {
+        User user = this.account_database.createAccount("close", "111");
+        Assert.assertNotNull(user);
+
+        this.queue.submit(updateAvatar(user, Avatar.RICK));
+        this.queue.close();
+
+        // Beim Schließen werden alle wartenden Änderungen geschrieben.
+        Assert.assertEquals(1, this.queue.getCommittedMutations());
+        Assert.assertEquals(Avatar.RICK.name(), queryString("SELECT AVATAR_NAME FROM USER_ACCOUNT WHERE USER_ID = '"
+                + user.getUserId() + "'"));
+        Assert.assertFalse(this.queue.submit(updateAvatar(user, Avatar.ADAM)));
+    }
+
+    private static Mutation updateAvatar(User user, Avatar avatar) {
+        return new Mutation(SQL_UPDATE_AVATAR, user.getUserId(), "update avatar", ps -> {
+            ps.setString(1, avatar.name());
+            ps.setString(2, user.getUserId().toString());
+        });
+    }
+
+    private static Mutation friendship(String sql, User first, User second) {
+        return new Mutation(sql, null, "change friendship", ps -> {
+            ps.setString(1, first.getUserId().toString());
+            ps.setString(2, second.getUserId().toString());
+        });
+    }
+
+    private static String queryString(String sql) {
+        try {
+            Connection con = DriverManager.getConnection(dbURL);
+            Statement st = con.createStatement();
+            ResultSet res = st.executeQuery(sql);
+            String result = res.next() ? res.getString(1) : null;
+            res.close();
+            st.close();
+            con.close();
+            return result;
+        } catch (SQLException e) {
+            System.out.println(e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package model.timedEvents;
+
+import model.context.spatial.World;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class TimedEventSchedulerTest {
+
+    private TimedEventScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        this.scheduler = new TimedEventScheduler(TimeUnit.MILLISECONDS.toNanos(10), 8, 2);
+        this.scheduler.start();
+    }
+
+    @After
+    public void tearDown() {
+        this.scheduler.stop();
+    }
+
+    @Test
+    public void earlierEventTest() throws InterruptedException {
+        final List<String> executed = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch done = new CountDownLatch(2);
+
+        this.scheduler.put(new TestEvent(1000, () -> {
+            executed.add("late");
+            done.countDown();
+        }));
+
+        // Ein später hinzugefügtes, früher fälliges Ereignis darf nicht auf das bereits wartende Ereignis warten.
+        this.scheduler.put(new TestEvent(50, () -> {
+            executed.add("early");
+            done.countDown();
+        }));
+
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(List.of("early", "late"), executed);
+    }
+
+    @Test
+    public void distantEventTest() throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(1);
+
+        // Das Ereignis liegt mehrere Umdrehungen des Zeitrads in der Zukunft.
+        this.scheduler.put(new TestEvent(300, done::countDown));
+
+        Assert.assertFalse(done.await(200, TimeUnit.MILLISECONDS));
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void cancelTest() throws InterruptedException {
+        final CountDownLatch cancelled = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        final TimedEventScheduler.Handle handle = this.scheduler.put(new TestEvent(100, cancelled::countDown));
+
+        this.scheduler.put(new TestEvent(200, done::countDown));
+
+        Assert.assertEquals(2, this.scheduler.getPendingEvents());
+        Assert.assertTrue(handle.cancel());
+        Assert.assertFalse(handle.cancel());
+        Assert.assertTrue(handle.isCancelled());
+        Assert.assertEquals(1, this.scheduler.getPendingEvents());
+
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(1, cancelled.getCount());
+        Assert.assertEquals(1, this.scheduler.getCancelledEvents());
+        Assert.assertEquals(1, this.scheduler.getExecutedEvents());
+    }
+
+    @Test
+    public void invalidEventTest() throws InterruptedException {
+        final CountDownLatch invalid = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+
+        this.scheduler.put(new TestEvent(0, invalid::countDown) {
+            @Override
+            public boolean isValid() {
+                return false;
+            }
+        });
+        this.scheduler.put(new TestEvent(50, done::countDown));
+
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(1, invalid.getCount());
+    }
+
+    @Test
+    public void slowEventTest() throws InterruptedException {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+
+        this.scheduler.put(new TestEvent(0, Mockito.mock(World.class), () -> {
+            try {
+                blocked.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+
+        // Ein langsames Ereignis darf die Ausführung der Ereignisse anderer Welten nicht verzögern.
+        this.scheduler.put(new TestEvent(50, Mockito.mock(World.class), done::countDown));
+
+        Assert.assertTrue(done.await(1, TimeUnit.SECONDS));
+        Assert.assertTrue(this.scheduler.getMaxLag() < 1000);
+        blocked.countDown();
+    }
+
+    private static class TestEvent extends TimedEvent {
+
+        private final World world;
+        private final Runnable action;
+
+        public TestEvent(long delay, Runnable action) {
+            this(delay, null, action);
+        }
+
+        public TestEvent(long delay, World world, Runnable action) {
+            super(LocalDateTime.now().plus(delay, ChronoUnit.MILLIS));
+            this.world = world;
+            this.action = action;
+        }
+
+        @Override
+        public void execute() {
+            action.run();
+        }
+
+        @Override
+        public boolean isValid() {
+            return true;
+        }
+
+        @Override
+        public World getWorld() {
+            return world;
+        }
+    }
+}
@@ -254,6 +254,32 @@ public class UserTesten {
     }
 
 
+    @Test
+    public void updateCommunicableUsersTest() {
+        setTestWorld("forcommunicable");
+        TypeClientSender typeClientSender = new TypeClientSender();
+        try {
+            this.userAccountManager.registerUser("communicator", "11111");
+            user = UserAccountManager.getInstance().loginUser("communicator", "11111", typeClientSender);
+            this.userAccountManager.registerUser("cmc_receiver", "22222");
+            User receiver = UserAccountManager.getInstance().loginUser("cmc_receiver", "22222",
+                    typeClientSender);
+            user.joinWorld(test_world.getContextId());
+            receiver.joinWorld(test_world.getContextId());
+            Assert.assertTrue(user.getCommunicableUsers().containsValue(receiver));
+            Assert.assertTrue(receiver.getCommunicableUsers().containsValue(user));
+
+            // Die Menge des anderen Benutzers wird aus dessen eigener Kommunikationsform neu berechnet.
+            receiver.leaveWorld();
+            Assert.assertEquals(1, user.getCommunicableUsers().size());
+            Assert.assertFalse(user.getCommunicableUsers().containsValue(receiver));
+            Assert.assertTrue(receiver.getCommunicableUsers().isEmpty());
+        } catch (Exception e) {
+            e.printStackTrace();
+
+        }
+    }
+
     @Test
     public void chatTest() {
         setTestWorld("forchat");